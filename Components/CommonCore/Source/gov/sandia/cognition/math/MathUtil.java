@@ -117,6 +117,51 @@ public class MathUtil
         return (Math.log( 2.5066282746310005 * ser ) - tmp);
     }
 
+    /**
+     * Computes the digamma function, which is the derivative of the logarithm
+     * of the Gamma function. It uses the recurrence
+     * digamma(x) = digamma(x + 1) - 1 / x to shift the input to at least 10 and
+     * then the asymptotic series.
+     *
+     * @param   input
+     *      The input to evaluate the digamma function at. Must be positive.
+     * @return
+     *      The digamma function of the input.
+     */
+    @PublicationReference(
+        author="Wikipedia",
+        title="Digamma function",
+        type=PublicationType.WebPage,
+        year=2017,
+        url="http://en.wikipedia.org/wiki/Digamma_function"
+    )
+    public static double digammaFunction(
+        final double input)
+    {
+        if (input <= 0.0)
+        {
+            throw new IllegalArgumentException("Input must be > 0.0");
+        }
+
+        double x = input;
+        double result = 0.0;
+        while (x < 10.0)
+        {
+            result -= 1.0 / x;
+            x += 1.0;
+        }
+
+        final double inverse = 1.0 / x;
+        final double inverseSquared = inverse * inverse;
+        result += Math.log(x) - 0.5 * inverse
+            - inverseSquared * (1.0 / 12.0
+            - inverseSquared * (1.0 / 120.0
+            - inverseSquared * (1.0 / 252.0
+            - inverseSquared * (1.0 / 240.0
+            - inverseSquared * (1.0 / 132.0)))));
+        return result;
+    }
+
     /**
      * Computes the Lower incomplete gamma function.
      * Note that this has the reverse parameters order from octave.
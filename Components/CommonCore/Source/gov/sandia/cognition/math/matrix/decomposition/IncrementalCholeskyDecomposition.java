@@ -0,0 +1,625 @@
+/*
+ * File:                IncrementalCholeskyDecomposition.java
+ * Authors:             Kevin R. Dixon
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.math.matrix.decomposition;
+
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationReferences;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.math.matrix.Matrix;
+import gov.sandia.cognition.math.matrix.MatrixFactory;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import gov.sandia.cognition.util.AbstractCloneableSerializable;
+
+/**
+ * A Cholesky decomposition of a symmetric positive definite matrix that
+ * supports rank-one updates and downdates.  The lower-triangular factor L,
+ * such that L times L-transpose equals the original matrix A, is stored
+ * directly.  Adding or removing a rank-one term (A +/- x*x') to the matrix
+ * only costs O(d^2) operations on the factor, instead of the O(d^3) needed to
+ * factor the matrix again.  This makes the decomposition useful for
+ * covariance matrices that change by one observation at a time, such as in
+ * incremental estimators and Kalman filters.  Once factored, the
+ * log-determinant costs O(d) and solving linear systems, Mahalanobis
+ * distances, and the matrix square root for sampling cost O(d^2).
+ *
+ * @author Kevin R. Dixon
+ * @since 4.0.0
+ */
+@PublicationReferences(
+    references={
+        @PublicationReference(
+            author="Wikipedia",
+            title="Cholesky decomposition",
+            type=PublicationType.WebPage,
+            year=2026,
+            url="http://en.wikipedia.org/wiki/Cholesky_decomposition"
+        ),
+        @PublicationReference(
+            author={
+                "Philip E. Gill",
+                "Gene H. Golub",
+                "Walter Murray",
+                "Michael A. Saunders"
+            },
+            title="Methods for Modifying Matrix Factorizations",
+            type=PublicationType.Journal,
+            publication="Mathematics of Computation",
+            year=1974,
+            pages={505,535}
+        )
+    }
+)
+public class IncrementalCholeskyDecomposition
+    extends AbstractCloneableSerializable
+{
+
+    /**
+     * Lower-triangular Cholesky factor, stored by rows. Only the elements on
+     * and below the diagonal are used.
+     */
+    protected double[][] factor;
+
+    /**
+     * Creates a new instance of IncrementalCholeskyDecomposition that is the
+     * decomposition of the identity matrix.
+     * @param dimensionality
+     * Dimensionality of the matrix, must be positive.
+     */
+    public IncrementalCholeskyDecomposition(
+        final int dimensionality)
+    {
+        super();
+
+        if (dimensionality <= 0)
+        {
+            throw new IllegalArgumentException(
+                "dimensionality must be positive" );
+        }
+
+        this.factor = new double[dimensionality][dimensionality];
+        for (int i = 0; i < dimensionality; i++)
+        {
+            this.factor[i][i] = 1.0;
+        }
+    }
+
+    /**
+     * Creates a new instance of IncrementalCholeskyDecomposition.
+     * @param factor
+     * Lower-triangular Cholesky factor, stored by rows. It is not copied.
+     */
+    protected IncrementalCholeskyDecomposition(
+        final double[][] factor)
+    {
+        super();
+        this.factor = factor;
+    }
+
+    /**
+     * Creates the Cholesky decomposition of the symmetric positive definite
+     * matrix A. Only the lower triangle of A is used.
+     * @param A
+     * Symmetric positive definite matrix to decompose.
+     * @return
+     * Cholesky decomposition of A.
+     * @throws IllegalArgumentException
+     * If A is not square or not positive definite.
+     */
+    public static IncrementalCholeskyDecomposition create(
+        final Matrix A)
+    {
+        if (!A.isSquare())
+        {
+            throw new IllegalArgumentException( "Matrix must be square" );
+        }
+
+        final int d = A.getNumRows();
+        final double[][] values = new double[d][d];
+        for (int i = 0; i < d; i++)
+        {
+            for (int j = 0; j <= i; j++)
+            {
+                values[i][j] = A.getElement(i, j);
+            }
+        }
+
+        if (!factor(values, values))
+        {
+            throw new IllegalArgumentException(
+                "Matrix must be symmetric and positive definite!" );
+        }
+        return new IncrementalCholeskyDecomposition( values );
+    }
+
+    @Override
+    public IncrementalCholeskyDecomposition clone()
+    {
+        final IncrementalCholeskyDecomposition clone =
+            (IncrementalCholeskyDecomposition) super.clone();
+        clone.factor = copy(this.factor);
+        return clone;
+    }
+
+    /**
+     * Gets the dimensionality of the factored matrix.
+     * @return
+     * Number of rows and columns of the factored matrix.
+     */
+    public int getDimensionality()
+    {
+        return this.factor.length;
+    }
+
+    /**
+     * Gets an element of the lower-triangular factor L.
+     * @param rowIndex
+     * Row of the element.
+     * @param columnIndex
+     * Column of the element.
+     * @return
+     * The element of L, which is zero above the diagonal.
+     */
+    public double getElement(
+        final int rowIndex,
+        final int columnIndex)
+    {
+        return (columnIndex <= rowIndex)
+            ? this.factor[rowIndex][columnIndex] : 0.0;
+    }
+
+    /**
+     * Gets the lower-triangular Cholesky factor L, such that
+     * L.times( L.transpose() ) equals the factored matrix.
+     * @return
+     * New matrix containing the lower-triangular factor.
+     */
+    public Matrix getL()
+    {
+        final int d = this.getDimensionality();
+        final Matrix L = MatrixFactory.getDenseDefault().createMatrix(d, d);
+        for (int i = 0; i < d; i++)
+        {
+            for (int j = 0; j <= i; j++)
+            {
+                L.setElement(i, j, this.factor[i][j]);
+            }
+        }
+        return L;
+    }
+
+    /**
+     * Computes the matrix that this is a decomposition of, L*L'.
+     * @return
+     * New matrix equal to the factored matrix.
+     */
+    public Matrix computeMatrix()
+    {
+        final int d = this.getDimensionality();
+        final Matrix A = MatrixFactory.getDenseDefault().createMatrix(d, d);
+        for (int i = 0; i < d; i++)
+        {
+            final double[] rowI = this.factor[i];
+            for (int j = 0; j <= i; j++)
+            {
+                final double[] rowJ = this.factor[j];
+                double sum = 0.0;
+                for (int k = 0; k <= j; k++)
+                {
+                    sum += rowI[k] * rowJ[k];
+                }
+                A.setElement(i, j, sum);
+                A.setElement(j, i, sum);
+            }
+        }
+        return A;
+    }
+
+    /**
+     * Computes the inverse of the factored matrix from the factor, which is
+     * cheaper and more stable than a general matrix inverse.
+     * @return
+     * Inverse of the factored matrix.
+     */
+    public Matrix computeInverse()
+    {
+        final int d = this.getDimensionality();
+        final Matrix inverse = MatrixFactory.getDenseDefault().createMatrix(d, d);
+        final double[] column = new double[d];
+        for (int j = 0; j < d; j++)
+        {
+            // Solve A*x = e_j. Since the inverse is symmetric, we only need
+            // to store the lower triangle and mirror it.
+            for (int i = 0; i < d; i++)
+            {
+                column[i] = (i == j) ? 1.0 : 0.0;
+            }
+            solveLower(this.factor, column);
+            solveUpper(this.factor, column);
+            for (int i = j; i < d; i++)
+            {
+                inverse.setElement(i, j, column[i]);
+                inverse.setElement(j, i, column[i]);
+            }
+        }
+        return inverse;
+    }
+
+    /**
+     * Computes the natural logarithm of the determinant of the factored
+     * matrix.
+     * @return
+     * Log-determinant of the factored matrix.
+     */
+    public double computeLogDeterminant()
+    {
+        return logDeterminant(this.factor);
+    }
+
+    /**
+     * Computes the quadratic form x'*inverse(A)*x, which is the squared
+     * Mahalanobis distance when A is a covariance matrix.
+     * @param x
+     * Vector to compute the quadratic form of.
+     * @return
+     * The value x'*inverse(A)*x.
+     */
+    public double computeMahalanobisSquared(
+        final Vector x)
+    {
+        this.assertDimensionality(x);
+        final double[] values = x.toArray();
+        solveLower(this.factor, values);
+        double sum = 0.0;
+        for (int i = 0; i < values.length; i++)
+        {
+            sum += values[i] * values[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Solves the linear system A*x = b.
+     * @param b
+     * Right-hand side of the system.
+     * @return
+     * Solution x = inverse(A)*b.
+     */
+    public Vector solve(
+        final Vector b)
+    {
+        this.assertDimensionality(b);
+        final double[] values = b.toArray();
+        solveLower(this.factor, values);
+        solveUpper(this.factor, values);
+        return VectorFactory.getDenseDefault().copyArray(values);
+    }
+
+    /**
+     * Premultiplies the given vector by the lower-triangular factor, L*z.
+     * When z is drawn from a standard normal, the result has covariance A.
+     * @param z
+     * Vector to premultiply.
+     * @return
+     * The product L*z.
+     */
+    public Vector times(
+        final Vector z)
+    {
+        this.assertDimensionality(z);
+        final int d = this.getDimensionality();
+        final Vector result = VectorFactory.getDenseDefault().createVector(d);
+        for (int i = 0; i < d; i++)
+        {
+            final double[] row = this.factor[i];
+            double sum = 0.0;
+            for (int k = 0; k <= i; k++)
+            {
+                sum += row[k] * z.getElement(k);
+            }
+            result.setElement(i, sum);
+        }
+        return result;
+    }
+
+    /**
+     * Updates the decomposition to be that of the matrix scaled by the given
+     * positive value, s*A.
+     * @param scaleFactor
+     * Positive scale factor.
+     */
+    public void scaleEquals(
+        final double scaleFactor)
+    {
+        if (!(scaleFactor > 0.0))
+        {
+            throw new IllegalArgumentException(
+                "scaleFactor must be positive" );
+        }
+
+        final double root = Math.sqrt(scaleFactor);
+        for (int i = 0; i < this.factor.length; i++)
+        {
+            final double[] row = this.factor[i];
+            for (int j = 0; j <= i; j++)
+            {
+                row[j] *= root;
+            }
+        }
+    }
+
+    /**
+     * Updates the decomposition to be that of A + x*x'.
+     * @param x
+     * Vector of the rank-one update.
+     */
+    public void rankOneUpdate(
+        final Vector x)
+    {
+        this.rankOneUpdate(x, 1.0);
+    }
+
+    /**
+     * Updates the decomposition to be that of A + weight*x*x'. A negative
+     * weight performs a downdate.
+     * @param x
+     * Vector of the rank-one update.
+     * @param weight
+     * Weight of the update. Negative values downdate the decomposition.
+     * @throws IllegalArgumentException
+     * If a downdate would make the matrix no longer positive definite, in
+     * which case the decomposition is unchanged.
+     */
+    public void rankOneUpdate(
+        final Vector x,
+        final double weight)
+    {
+        this.assertDimensionality(x);
+        if (weight == 0.0)
+        {
+            return;
+        }
+
+        final double[] values = x.toArray();
+        final double root = Math.sqrt(Math.abs(weight));
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] *= root;
+        }
+
+        if (weight > 0.0)
+        {
+            update(this.factor, values);
+        }
+        else
+        {
+            // The downdate can fail part way through, so work on a copy to
+            // leave this decomposition valid.
+            final double[][] downdated = copy(this.factor);
+            if (!downdate(downdated, values))
+            {
+                throw new IllegalArgumentException(
+                    "Downdate would make the matrix not positive definite" );
+            }
+            this.factor = downdated;
+        }
+    }
+
+    /**
+     * Asserts that the vector has the dimensionality of this decomposition.
+     * @param x
+     * Vector to check.
+     */
+    protected void assertDimensionality(
+        final Vector x)
+    {
+        x.assertDimensionalityEquals(this.getDimensionality());
+    }
+
+    /**
+     * Copies each row of a two-dimensional array.
+     * @param array
+     * Array to copy. May be null.
+     * @return
+     * Copy of the array.
+     */
+    public static double[][] copy(
+        final double[][] array)
+    {
+        if (array == null)
+        {
+            return null;
+        }
+        final double[][] result = new double[array.length][];
+        for (int i = 0; i < array.length; i++)
+        {
+            result[i] = array[i].clone();
+        }
+        return result;
+    }
+
+    /**
+     * Computes the lower-triangular Cholesky factor of a symmetric matrix,
+     * using only its lower triangle. The result may be the same array as the
+     * matrix to factor in place.
+     * @param matrix
+     * Matrix to factor.
+     * @param result
+     * Lower-triangular factor.
+     * @return
+     * True if the matrix is positive definite.
+     */
+    public static boolean factor(
+        final double[][] matrix,
+        final double[][] result)
+    {
+        final int d = matrix.length;
+        for (int i = 0; i < d; i++)
+        {
+            for (int j = 0; j <= i; j++)
+            {
+                double sum = matrix[i][j];
+                for (int k = 0; k < j; k++)
+                {
+                    sum -= result[i][k] * result[j][k];
+                }
+                if (i == j)
+                {
+                    if (!(sum > 0.0))
+                    {
+                        return false;
+                    }
+                    result[i][i] = Math.sqrt(sum);
+                }
+                else
+                {
+                    result[i][j] = sum / result[j][j];
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Updates a lower-triangular Cholesky factor L in place to be the factor
+     * of L L^T + x x^T.
+     * @param factor
+     * Cholesky factor to update.
+     * @param x
+     * Update vector, which is overwritten.
+     */
+    public static void update(
+        final double[][] factor,
+        final double[] x)
+    {
+        final int d = x.length;
+        for (int k = 0; k < d; k++)
+        {
+            final double lkk = factor[k][k];
+            final double r = Math.sqrt(lkk * lkk + x[k] * x[k]);
+            final double c = r / lkk;
+            final double s = x[k] / lkk;
+            factor[k][k] = r;
+            for (int i = k + 1; i < d; i++)
+            {
+                factor[i][k] = (factor[i][k] + s * x[i]) / c;
+                x[i] = c * x[i] - s * factor[i][k];
+            }
+        }
+    }
+
+    /**
+     * Updates a lower-triangular Cholesky factor L in place to be the factor
+     * of L L^T - x x^T.
+     * @param factor
+     * Cholesky factor to downdate.
+     * @param x
+     * Downdate vector, which is overwritten.
+     * @return
+     * True if the result is positive definite. If false, the factor is left
+     * in an undefined state.
+     */
+    public static boolean downdate(
+        final double[][] factor,
+        final double[] x)
+    {
+        final int d = x.length;
+        for (int k = 0; k < d; k++)
+        {
+            final double lkk = factor[k][k];
+            final double r2 = lkk * lkk - x[k] * x[k];
+            if (!(r2 > 0.0))
+            {
+                return false;
+            }
+            final double r = Math.sqrt(r2);
+            final double c = r / lkk;
+            final double s = x[k] / lkk;
+            factor[k][k] = r;
+            for (int i = k + 1; i < d; i++)
+            {
+                factor[i][k] = (factor[i][k] - s * x[i]) / c;
+                x[i] = c * x[i] - s * factor[i][k];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Solves L*y = x in place by forward substitution.
+     * @param factor
+     * Lower-triangular Cholesky factor.
+     * @param x
+     * Right-hand side, which is overwritten with the solution.
+     */
+    public static void solveLower(
+        final double[][] factor,
+        final double[] x)
+    {
+        final int d = x.length;
+        for (int i = 0; i < d; i++)
+        {
+            final double[] row = factor[i];
+            double sum = x[i];
+            for (int k = 0; k < i; k++)
+            {
+                sum -= row[k] * x[k];
+            }
+            x[i] = sum / row[i];
+        }
+    }
+
+    /**
+     * Solves L'*y = x in place by back substitution.
+     * @param factor
+     * Lower-triangular Cholesky factor.
+     * @param x
+     * Right-hand side, which is overwritten with the solution.
+     */
+    public static void solveUpper(
+        final double[][] factor,
+        final double[] x)
+    {
+        final int d = x.length;
+        for (int i = d - 1; i >= 0; i--)
+        {
+            double sum = x[i];
+            for (int k = i + 1; k < d; k++)
+            {
+                sum -= factor[k][i] * x[k];
+            }
+            x[i] = sum / factor[i][i];
+        }
+    }
+
+    /**
+     * Computes the log-determinant of a matrix from its Cholesky factor.
+     * @param factor
+     * Lower-triangular Cholesky factor.
+     * @return
+     * Log-determinant of the factored matrix.
+     */
+    public static double logDeterminant(
+        final double[][] factor)
+    {
+        double sum = 0.0;
+        for (int i = 0; i < factor.length; i++)
+        {
+            sum += Math.log(factor[i][i]);
+        }
+        return 2.0 * sum;
+    }
+
+}
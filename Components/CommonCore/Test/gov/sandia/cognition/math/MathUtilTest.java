@@ -142,6 +142,41 @@ public class MathUtilTest
 
     }
 
+    /**
+     * Test of digammaFunction method, of class MathUtil.
+     */
+    public void testDigammaFunction()
+    {
+        System.out.println( "digammaFunction" );
+
+        // The Euler-Mascheroni constant.
+        final double gamma = 0.5772156649015329;
+        assertEquals( -gamma, MathUtil.digammaFunction( 1.0 ), 1e-12 );
+        assertEquals( 1.0 - gamma, MathUtil.digammaFunction( 2.0 ), 1e-12 );
+        assertEquals( -gamma - 2.0 * Math.log( 2.0 ),
+            MathUtil.digammaFunction( 0.5 ), 1e-12 );
+        assertEquals( -10.423754940411076, MathUtil.digammaFunction( 0.1 ), 1e-10 );
+        assertEquals( 2.251752589066721, MathUtil.digammaFunction( 10.0 ), 1e-12 );
+        assertEquals( 6.907255195648812, MathUtil.digammaFunction( 1000.0 ), 1e-12 );
+
+        // The recurrence holds.
+        for (double x : new double[] { 0.01, 0.3, 3.7, 5.5, 42.0 })
+        {
+            assertEquals( MathUtil.digammaFunction( x ) + 1.0 / x,
+                MathUtil.digammaFunction( x + 1.0 ), 1e-10 );
+        }
+
+        try
+        {
+            MathUtil.digammaFunction( 0.0 );
+            fail( "x > 0" );
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.out.println( "Good: " + e );
+        }
+    }
+
     /**
      * Test of evaluate method, of class gov.sandia.cognition.learning.util.statistics.Statistics.GammaFunction.Incomplete.
      */
@@ -0,0 +1,249 @@
+/*
+ * File:                IncrementalCholeskyDecompositionTest.java
+ * Authors:             Kevin R. Dixon
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.math.matrix.decomposition;
+
+import gov.sandia.cognition.math.matrix.Matrix;
+import gov.sandia.cognition.math.matrix.MatrixFactory;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests for class IncrementalCholeskyDecompositionTest
+ * @author Kevin R. Dixon
+ */
+public class IncrementalCholeskyDecompositionTest
+    extends TestCase
+{
+
+    /**
+     * Random number generator to use for a fixed random seed.
+     */
+    public final Random RANDOM = new Random( 1 );
+
+    /**
+     * Default tolerance of the regression tests, {@value}.
+     */
+    public final double TOLERANCE = 1e-8;
+
+    /**
+     * Entry point for JUnit tests for class IncrementalCholeskyDecompositionTest
+     * @param testName name of this test
+     */
+    public IncrementalCholeskyDecompositionTest(
+        String testName)
+    {
+        super(testName);
+    }
+
+    /**
+     * Creates a random symmetric positive definite matrix.
+     * @param dim
+     * Dimensionality of the matrix.
+     * @return
+     * Symmetric positive definite matrix.
+     */
+    public Matrix createSPD(
+        int dim )
+    {
+        Matrix sqrt = MatrixFactory.getDefault().createUniformRandom(
+            dim, dim, -2.0, 2.0, RANDOM );
+        return sqrt.times( sqrt.transpose() ).plus(
+            MatrixFactory.getDefault().createIdentity( dim, dim ) );
+    }
+
+    /**
+     * Test of create method, of class IncrementalCholeskyDecomposition.
+     */
+    public void testCreate()
+    {
+        System.out.println( "create" );
+
+        // I validated these values in octave's chol() method
+        double[][] v1 = { { 1, 2, 3 }, { 2, 20, 26 }, { 3, 26, 70 } };
+        Matrix A = MatrixFactory.getDefault().copyArray( v1 );
+        double[][] v2 = { { 1, 0, 0 }, { 2, 4, 0 }, { 3, 5, 6 } };
+        Matrix expected = MatrixFactory.getDefault().copyArray( v2 );
+
+        IncrementalCholeskyDecomposition result =
+            IncrementalCholeskyDecomposition.create( A );
+        assertEquals( 3, result.getDimensionality() );
+        assertTrue( expected.equals( result.getL(), TOLERANCE ) );
+        assertTrue( A.equals( result.computeMatrix(), TOLERANCE ) );
+        assertEquals( 0.0, result.getElement( 0, 2 ) );
+        assertEquals( 5.0, result.getElement( 2, 1 ), TOLERANCE );
+        assertEquals( A.logDeterminant().getRealPart(),
+            result.computeLogDeterminant(), TOLERANCE );
+
+        try
+        {
+            IncrementalCholeskyDecomposition.create( A.negative() );
+            fail( "Can only factor symmetric positive definite matrices!" );
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.out.println( "Good: " + e );
+        }
+
+        try
+        {
+            IncrementalCholeskyDecomposition.create(
+                MatrixFactory.getDefault().createMatrix( 2, 3 ) );
+            fail( "Matrix must be square" );
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.out.println( "Good: " + e );
+        }
+
+        IncrementalCholeskyDecomposition identity =
+            new IncrementalCholeskyDecomposition( 4 );
+        assertEquals( MatrixFactory.getDefault().createIdentity( 4, 4 ),
+            identity.computeMatrix() );
+        assertEquals( 0.0, identity.computeLogDeterminant() );
+    }
+
+    /**
+     * Test of clone method, of class IncrementalCholeskyDecomposition.
+     */
+    public void testClone()
+    {
+        System.out.println( "clone" );
+
+        IncrementalCholeskyDecomposition instance =
+            IncrementalCholeskyDecomposition.create( this.createSPD( 3 ) );
+        IncrementalCholeskyDecomposition clone = instance.clone();
+        assertNotSame( instance, clone );
+        assertNotSame( instance.factor, clone.factor );
+        assertEquals( instance.getL(), clone.getL() );
+
+        clone.scaleEquals( 2.0 );
+        assertFalse( instance.getL().equals( clone.getL() ) );
+    }
+
+    /**
+     * Test of computeInverse, solve, and computeMahalanobisSquared.
+     */
+    public void testSolve()
+    {
+        System.out.println( "solve" );
+
+        int dim = 5;
+        Matrix A = this.createSPD( dim );
+        IncrementalCholeskyDecomposition instance =
+            IncrementalCholeskyDecomposition.create( A );
+        Matrix inverse = A.inverse();
+        assertTrue( inverse.equals( instance.computeInverse(), TOLERANCE ) );
+
+        Vector b = VectorFactory.getDefault().createUniformRandom(
+            dim, -1.0, 1.0, RANDOM );
+        assertTrue( inverse.times( b ).equals( instance.solve( b ), TOLERANCE ) );
+        assertEquals( b.dotProduct( inverse.times( b ) ),
+            instance.computeMahalanobisSquared( b ), TOLERANCE );
+        assertTrue( instance.getL().times( b ).equals(
+            instance.times( b ), TOLERANCE ) );
+    }
+
+    /**
+     * Test of scaleEquals method, of class IncrementalCholeskyDecomposition.
+     */
+    public void testScaleEquals()
+    {
+        System.out.println( "scaleEquals" );
+
+        Matrix A = this.createSPD( 3 );
+        IncrementalCholeskyDecomposition instance =
+            IncrementalCholeskyDecomposition.create( A );
+        instance.scaleEquals( 3.0 );
+        assertTrue( A.scale( 3.0 ).equals( instance.computeMatrix(), TOLERANCE ) );
+
+        try
+        {
+            instance.scaleEquals( 0.0 );
+            fail( "Scale factor must be positive" );
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.out.println( "Good: " + e );
+        }
+    }
+
+    /**
+     * Test of rankOneUpdate method, of class IncrementalCholeskyDecomposition.
+     */
+    public void testRankOneUpdate()
+    {
+        System.out.println( "rankOneUpdate" );
+
+        int dim = 6;
+        Matrix A = this.createSPD( dim );
+        IncrementalCholeskyDecomposition instance =
+            IncrementalCholeskyDecomposition.create( A );
+        for( int n = 0; n < 10; n++ )
+        {
+            Vector x = VectorFactory.getDefault().createUniformRandom(
+                dim, -1.0, 1.0, RANDOM );
+            double weight = RANDOM.nextDouble() + 0.1;
+            instance.rankOneUpdate( x, weight );
+            A.plusEquals( x.outerProduct( x ).scale( weight ) );
+            assertTrue( A.equals( instance.computeMatrix(), TOLERANCE ) );
+
+            // Downdating a smaller vector keeps it positive definite.
+            Vector y = x.scale( 0.5 );
+            instance.rankOneUpdate( y, -weight );
+            A.minusEquals( y.outerProduct( y ).scale( weight ) );
+            assertTrue( A.equals( instance.computeMatrix(), TOLERANCE ) );
+
+            IncrementalCholeskyDecomposition expected =
+                IncrementalCholeskyDecomposition.create( A );
+            assertTrue( expected.getL().equals( instance.getL(), 1e-6 ) );
+        }
+
+        Vector x = VectorFactory.getDefault().createUniformRandom(
+            dim, -1.0, 1.0, RANDOM );
+        instance.rankOneUpdate( x );
+        A.plusEquals( x.outerProduct( x ) );
+        assertTrue( A.equals( instance.computeMatrix(), TOLERANCE ) );
+
+        Matrix before = instance.getL();
+        instance.rankOneUpdate( x, 0.0 );
+        assertEquals( before, instance.getL() );
+
+        // Removing too much makes the matrix indefinite, which should leave
+        // the decomposition unchanged.
+        try
+        {
+            instance.rankOneUpdate( x, -1e6 );
+            fail( "Downdate should not be positive definite" );
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.out.println( "Good: " + e );
+        }
+        assertEquals( before, instance.getL() );
+
+        try
+        {
+            instance.rankOneUpdate( VectorFactory.getDefault().createVector( dim + 1 ) );
+            fail( "Wrong dimensionality" );
+        }
+        catch (RuntimeException e)
+        {
+            System.out.println( "Good: " + e );
+        }
+    }
+
+}
@@ -0,0 +1,596 @@
+/*
+ * File:                BetweennessCentrality.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Computes the (unweighted, undirected) betweenness centrality of all nodes in
+ * a graph. The exact version runs Brandes' algorithm from every source; the
+ * sources are split across threads, and each thread keeps its own primitive
+ * work arrays and its own dependency sums. The per-thread sums are added
+ * together once all threads finish, so no locking is needed during the
+ * computation.
+ *
+ * For graphs where O(nm) is infeasible, two approximations are provided: (1)
+ * Brandes' algorithm from k sampled sources (scaled up by n/k), and (2) the
+ * Riondato-Kornaropoulos shortest-path sampler which picks the number of
+ * samples necessary for all nodes to be within epsilon of their (normalized)
+ * betweenness with probability 1 - delta.
+ *
+ * All methods return the un-normalized sums of dependencies over all ordered
+ * pairs of sources and destinations (so each undirected path is counted
+ * twice), the same values that Brandes' algorithm accumulates.
+ *
+ * @author jdwendt
+ * @since 4.0.0
+ */
+@PublicationReference(author = "Ulrik Brandes", title
+    = "A Faster Algorithm for Betweenness Centrality", type
+    = PublicationType.Journal, publication
+    = "Journal of Mathematical Sociology", year = 2001, pages =
+    {
+        163, 177
+    })
+public class BetweennessCentrality
+{
+
+    /**
+     * The constant c used in the Riondato-Kornaropoulos sample size. The
+     * authors suggest 0.5 based on their experiments.
+     */
+    public static final double RIONDATO_KORNAROPOULOS_CONSTANT = 0.5;
+
+    /**
+     * Private as this only has static methods
+     */
+    private BetweennessCentrality()
+    {
+    }
+
+    /**
+     * Computes the exact betweenness for all nodes by running Brandes'
+     * algorithm from every source.
+     *
+     * Execution: O(nm / t) where t is the number of threads. Storage: O(tn).
+     *
+     * @param graph The graph to compute on
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The betweenness sums for all nodes
+     */
+    public static double[] computeExact(final CompressedGraphSnapshot graph,
+        ThreadPoolExecutor pool)
+    {
+        int n = graph.getNumNodes();
+        int[] sources = new int[n];
+        for (int i = 0; i < n; ++i)
+        {
+            sources[i] = i;
+        }
+        return runFromSources(graph, sources, 1.0, pool);
+    }
+
+    /**
+     * Approximates the betweenness for all nodes by running Brandes' algorithm
+     * from numSources sources sampled (without replacement) uniformly at
+     * random. The dependencies are scaled by n / numSources so that they are
+     * an unbiased estimate of the exact values. If numSources is at least the
+     * number of nodes, this computes the exact values.
+     *
+     * Execution: O(km / t) where k is the number of sources and t the number
+     * of threads.
+     *
+     * @param graph The graph to compute on
+     * @param numSources The number of sources to sample
+     * @param random The random number generator to use
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The estimated betweenness sums for all nodes
+     */
+    @PublicationReference(author = "Ulrik Brandes and Christian Pich", title
+        = "Centrality Estimation in Large Networks", type
+        = PublicationType.Journal, publication
+        = "International Journal of Bifurcation and Chaos", year = 2007,
+        pages =
+        {
+            2303, 2318
+        })
+    public static double[] computeSampledSources(
+        final CompressedGraphSnapshot graph,
+        int numSources,
+        Random random,
+        ThreadPoolExecutor pool)
+    {
+        if (numSources <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The number of sources must be positive");
+        }
+        int n = graph.getNumNodes();
+        if (numSources >= n)
+        {
+            return computeExact(graph, pool);
+        }
+        // Partial Fisher-Yates shuffle to pick the sources
+        int[] order = new int[n];
+        for (int i = 0; i < n; ++i)
+        {
+            order[i] = i;
+        }
+        for (int i = 0; i < numSources; ++i)
+        {
+            int j = i + random.nextInt(n - i);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        int[] sources = Arrays.copyOf(order, numSources);
+        // Keep each thread's sources in memory order
+        Arrays.sort(sources);
+        return runFromSources(graph, sources, ((double) n) / numSources, pool);
+    }
+
+    /**
+     * Approximates the betweenness for all nodes by sampling shortest paths.
+     * Each sample picks a random pair of distinct nodes and one of the
+     * shortest paths between them uniformly at random, then credits each node
+     * inside the path. The number of samples, r, is chosen so that, with
+     * probability at least 1 - delta, all nodes' normalized betweenness
+     * estimates are within epsilon of the truth: r = (c / epsilon^2)
+     * (floor(log2(VD - 2)) + 1 + ln(1 / delta)) where VD is an upper bound on
+     * the number of nodes in any shortest path (computed by a BFS per
+     * connected component).
+     *
+     * Execution: O(r m / t) in the worst case, where t is the number of
+     * threads; usually much faster as r is independent of n.
+     *
+     * @param graph The graph to compute on
+     * @param epsilon The maximum additive error in the normalized betweenness
+     * (in (0, 1))
+     * @param delta The probability the error bound is exceeded (in (0, 1))
+     * @param random The random number generator to use
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The estimated betweenness sums for all nodes
+     */
+    @PublicationReference(author = "Matteo Riondato and Evgenios M. Kornaropoulos",
+        title = "Fast approximation of betweenness centrality through sampling",
+        type = PublicationType.Journal, publication
+        = "Data Mining and Knowledge Discovery", year = 2016, pages =
+        {
+            438, 475
+        })
+    public static double[] computeRiondatoKornaropoulos(
+        final CompressedGraphSnapshot graph,
+        double epsilon,
+        double delta,
+        Random random,
+        ThreadPoolExecutor pool)
+    {
+        if (epsilon <= 0 || epsilon >= 1)
+        {
+            throw new IllegalArgumentException("Epsilon must be in (0, 1)");
+        }
+        if (delta <= 0 || delta >= 1)
+        {
+            throw new IllegalArgumentException("Delta must be in (0, 1)");
+        }
+        final int n = graph.getNumNodes();
+        if (n < 3)
+        {
+            return new double[n];
+        }
+        int vertexDiameter = estimateVertexDiameter(graph);
+        if (vertexDiameter < 3)
+        {
+            // No shortest path has an interior node
+            return new double[n];
+        }
+        int numSamples = getRiondatoKornaropoulosSampleSize(vertexDiameter,
+            epsilon, delta);
+
+        // Draw all random choices up front so the result doesn't depend on
+        // the number of threads
+        final int[] sampleSources = new int[numSamples];
+        final int[] sampleTargets = new int[numSamples];
+        final long[] sampleSeeds = new long[numSamples];
+        for (int i = 0; i < numSamples; ++i)
+        {
+            sampleSources[i] = random.nextInt(n);
+            int t = random.nextInt(n - 1);
+            sampleTargets[i] = (t >= sampleSources[i]) ? t + 1 : t;
+            sampleSeeds[i] = random.nextLong();
+        }
+
+        // Each sample estimates the normalized betweenness (over n(n-1)
+        // ordered pairs) with weight 1/r; scale up to the ordered-pair sums
+        final double scale = ((double) n) * (n - 1) / numSamples;
+        return sumInParallel(n, numSamples, pool, (w, i, sum) ->
+        {
+            w.samplePath(graph, sampleSources[i], sampleTargets[i],
+                new Random(sampleSeeds[i]), sum, scale);
+        });
+    }
+
+    /**
+     * Returns the number of samples the Riondato-Kornaropoulos algorithm
+     * requires.
+     *
+     * @param vertexDiameter An upper bound on the number of nodes in any
+     * shortest path
+     * @param epsilon The maximum additive error
+     * @param delta The probability of exceeding the error
+     * @return The number of samples
+     */
+    public static int getRiondatoKornaropoulosSampleSize(int vertexDiameter,
+        double epsilon,
+        double delta)
+    {
+        int logVd = 31 - Integer.numberOfLeadingZeros(Math.max(1,
+            vertexDiameter - 2));
+        double r = (RIONDATO_KORNAROPOULOS_CONSTANT / (epsilon * epsilon))
+            * (logVd + 1 + Math.log(1.0 / delta));
+        return (int) Math.min(Integer.MAX_VALUE, Math.ceil(r));
+    }
+
+    /**
+     * Returns an upper bound on the vertex diameter (the most nodes in any
+     * shortest path). This runs one BFS per connected component: if the
+     * farthest node is e hops from the start, no shortest path in the
+     * component has more than 2e + 1 nodes.
+     *
+     * Execution: O(n + m)
+     *
+     * @param graph The graph to compute on
+     * @return An upper bound on the vertex diameter
+     */
+    public static int estimateVertexDiameter(CompressedGraphSnapshot graph)
+    {
+        int n = graph.getNumNodes();
+        int[] dist = new int[n];
+        Arrays.fill(dist, -1);
+        int[] queue = new int[n];
+        int result = (n > 0) ? 1 : 0;
+        for (int s = 0; s < n; ++s)
+        {
+            if (dist[s] >= 0)
+            {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            dist[s] = 0;
+            queue[tail++] = s;
+            int ecc = 0;
+            while (head < tail)
+            {
+                int v = queue[head++];
+                ecc = dist[v];
+                for (int j = graph.getNeighborsStart(v);
+                    j < graph.getNeighborsEnd(v); ++j)
+                {
+                    int u = graph.getNeighbor(j);
+                    if (dist[u] < 0)
+                    {
+                        dist[u] = dist[v] + 1;
+                        queue[tail++] = u;
+                    }
+                }
+            }
+            result = Math.max(result, (int) Math.min(tail, 2L * ecc + 1));
+        }
+        return result;
+    }
+
+    /**
+     * Helper that runs Brandes' algorithm from each of the input sources.
+     *
+     * @param graph The graph to compute on
+     * @param sources The sources to run from
+     * @param scale The amount to scale each dependency by
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The sum of the scaled dependencies for all nodes
+     */
+    private static double[] runFromSources(final CompressedGraphSnapshot graph,
+        final int[] sources,
+        final double scale,
+        ThreadPoolExecutor pool)
+    {
+        return sumInParallel(graph.getNumNodes(), sources.length, pool,
+            (w, i, sum) -> w.accumulate(graph, sources[i], sum, scale));
+    }
+
+    /**
+     * Work done for one item (source or sample) by sumInParallel.
+     */
+    private static interface ItemTask
+    {
+
+        /**
+         * Processes one item, adding its contributions into sum.
+         *
+         * @param w The calling thread's work arrays
+         * @param item The item to process
+         * @param sum The calling thread's sums
+         */
+        void run(Workspace w,
+            int item,
+            double[] sum);
+
+    }
+
+    /**
+     * Helper that splits the items into one contiguous range per thread. Each
+     * thread has its own work arrays and sums, which are added together once
+     * all threads finish.
+     *
+     * @param n The number of nodes
+     * @param numItems The number of items to process
+     * @param pool The thread pool to use (or null to compute serially)
+     * @param task The work to do for each item
+     * @return The sum of all threads' sums
+     */
+    private static double[] sumInParallel(final int n,
+        int numItems,
+        ThreadPoolExecutor pool,
+        final ItemTask task)
+    {
+        final int numTasks = Math.max(1, Math.min(numItems,
+            ParallelUtil.getNumThreads(pool)));
+        final double[][] sums = new double[numTasks][];
+        final int[] bounds = new int[numTasks + 1];
+        for (int i = 0; i <= numTasks; ++i)
+        {
+            bounds[i] = (int) (((long) numItems * i) / numTasks);
+        }
+        CompressedGraphSnapshot.runInParallel(bounds, pool, (start, end) ->
+        {
+            Workspace w = new Workspace(n);
+            double[] sum = new double[n];
+            // There are at most as many ranges as items, so each range's
+            // start is unique
+            sums[Arrays.binarySearch(bounds, 0, numTasks, start)] = sum;
+            for (int i = start; i < end; ++i)
+            {
+                task.run(w, i, sum);
+            }
+        });
+        double[] result = new double[n];
+        addAll(sums, result);
+        return result;
+    }
+
+    /**
+     * Adds all of the per-thread sums into result (in thread order, so the
+     * result is the same each run).
+     *
+     * @param sums The per-thread sums (null entries are skipped)
+     * @param result The array to add into
+     */
+    private static void addAll(double[][] sums,
+        double[] result)
+    {
+        for (double[] sum : sums)
+        {
+            if (sum == null)
+            {
+                continue;
+            }
+            for (int i = 0; i < result.length; ++i)
+            {
+                result[i] += sum[i];
+            }
+        }
+    }
+
+    /**
+     * The per-thread work arrays for one BFS. These are reset after each
+     * source by only touching the visited nodes, so each source costs
+     * O(visited nodes + edges) rather than O(n).
+     */
+    private static class Workspace
+    {
+
+        /**
+         * The BFS queue; it also serves as the stack (S in Brandes' paper) as
+         * nodes are popped from it in reverse order.
+         */
+        final int[] queue;
+
+        /**
+         * The number of shortest paths from the source to each node
+         */
+        final double[] sigma;
+
+        /**
+         * The distance from the source to each node (-1 if unvisited)
+         */
+        final int[] d;
+
+        /**
+         * The dependency of the source on each node
+         */
+        final double[] delta;
+
+        /**
+         * The number of nodes visited by the last BFS
+         */
+        int numVisited;
+
+        /**
+         * Creates the work arrays for a graph with n nodes
+         *
+         * @param n The number of nodes
+         */
+        Workspace(int n)
+        {
+            queue = new int[n];
+            sigma = new double[n];
+            d = new int[n];
+            delta = new double[n];
+            Arrays.fill(d, -1);
+        }
+
+        /**
+         * Runs the BFS from s, counting the shortest paths to each node. If
+         * target is non-negative, the BFS stops once target's distance is
+         * finished.
+         *
+         * @param graph The graph
+         * @param s The source
+         * @param target The node to stop at (or -1 to visit all)
+         */
+        void bfs(CompressedGraphSnapshot graph,
+            int s,
+            int target)
+        {
+            int head = 0;
+            int tail = 0;
+            sigma[s] = 1;
+            d[s] = 0;
+            queue[tail++] = s;
+            while (head < tail)
+            {
+                int v = queue[head++];
+                if (target >= 0 && d[target] >= 0 && d[v] >= d[target])
+                {
+                    break;
+                }
+                for (int j = graph.getNeighborsStart(v);
+                    j < graph.getNeighborsEnd(v); ++j)
+                {
+                    int w = graph.getNeighbor(j);
+                    // w found for the first time?
+                    if (d[w] < 0)
+                    {
+                        queue[tail++] = w;
+                        d[w] = d[v] + 1;
+                    }
+                    // shortest path to w via v?
+                    if (d[w] == (d[v] + 1))
+                    {
+                        sigma[w] += sigma[v];
+                    }
+                }
+            }
+            numVisited = tail;
+        }
+
+        /**
+         * Resets the arrays for all nodes visited by the last BFS
+         */
+        void reset()
+        {
+            for (int i = 0; i < numVisited; ++i)
+            {
+                int w = queue[i];
+                sigma[w] = 0;
+                d[w] = -1;
+                delta[w] = 0;
+            }
+        }
+
+        /**
+         * Runs one source of Brandes' algorithm, adding the scaled
+         * dependencies into sum.
+         *
+         * @param graph The graph
+         * @param s The source
+         * @param sum The per-thread sums to add into
+         * @param scale The amount to scale the dependencies by
+         */
+        void accumulate(CompressedGraphSnapshot graph,
+            int s,
+            double[] sum,
+            double scale)
+        {
+            bfs(graph, s, -1);
+            // Vertices in order of non-increasing distance from s. The
+            // predecessors of w are the neighbors one step closer to s.
+            for (int i = numVisited - 1; i >= 0; --i)
+            {
+                int w = queue[i];
+                for (int j = graph.getNeighborsStart(w);
+                    j < graph.getNeighborsEnd(w); ++j)
+                {
+                    int v = graph.getNeighbor(j);
+                    if (d[v] == d[w] - 1)
+                    {
+                        delta[v] += (sigma[v] / sigma[w]) * (1 + delta[w]);
+                    }
+                }
+                if (w != s)
+                {
+                    sum[w] += scale * delta[w];
+                }
+            }
+            reset();
+        }
+
+        /**
+         * Samples one shortest path from s to t uniformly at random and adds
+         * weight to each of its interior nodes.
+         *
+         * @param graph The graph
+         * @param s The source
+         * @param t The destination
+         * @param random The random number generator for this sample
+         * @param sum The per-thread sums to add into
+         * @param weight The amount to add to each interior node
+         */
+        void samplePath(CompressedGraphSnapshot graph,
+            int s,
+            int t,
+            Random random,
+            double[] sum,
+            double weight)
+        {
+            bfs(graph, s, t);
+            if (d[t] > 1)
+            {
+                // Walk back from t, picking each predecessor v of w with
+                // probability sigma[v] / sigma[w]
+                int w = t;
+                while (d[w] > 1)
+                {
+                    double r = random.nextDouble() * sigma[w];
+                    int pick = -1;
+                    for (int j = graph.getNeighborsStart(w);
+                        j < graph.getNeighborsEnd(w); ++j)
+                    {
+                        int v = graph.getNeighbor(j);
+                        if (d[v] == d[w] - 1)
+                        {
+                            pick = v;
+                            r -= sigma[v];
+                            if (r < 0)
+                            {
+                                break;
+                            }
+                        }
+                    }
+                    sum[pick] += weight;
+                    w = pick;
+                }
+            }
+            reset();
+        }
+
+    }
+
+}
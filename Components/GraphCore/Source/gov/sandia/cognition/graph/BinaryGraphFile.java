@@ -0,0 +1,1307 @@
+/*
+ * File:                BinaryGraphFile.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.collection.DoubleArrayList;
+import gov.sandia.cognition.collection.IntArrayList;
+import gov.sandia.cognition.util.DefaultKeyValuePair;
+import gov.sandia.cognition.util.Pair;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.IntFunction;
+
+/**
+ * A read-only graph stored in a compact binary file that is memory mapped
+ * rather than read in, so opening even a very large graph takes about as long
+ * as opening the file. The file holds the outgoing edges in compressed sparse
+ * row (CSR) format, the optional edge weights, and a dictionary of node names
+ * (as UTF-8 strings).
+ *
+ * File layout (all values little-endian, each section starting on an 8-byte
+ * boundary): an 8-byte magic number; an int version; an int of flags (1 if
+ * weighted); longs for the number of nodes, number of edges, and number of
+ * name bytes; the n+1 long offsets of each node's first edge; the int
+ * destination of each edge (sorted within each node); the double weight of
+ * each edge (if weighted); the bytes of all node names; and the n+1 long
+ * offsets of each node's name in those bytes.
+ *
+ * Files can be written from any DirectedNodeEdgeGraph (using each node's
+ * String.valueOf as its name), or built directly from a whitespace-separated
+ * edge list text file by importEdgeList, which parses the text in parallel
+ * chunks. Edge ids in the opened graph are the edges' positions in the CSR
+ * arrays (sorted by source, then destination).
+ *
+ * The file stores edge offsets as longs, but the in-memory graph and snapshot
+ * views need fewer than 2^31 edges.
+ *
+ * @author jdwendt
+ * @since 4.0.0
+ */
+public class BinaryGraphFile
+    implements DirectedNodeEdgeGraph<String>
+{
+
+    /**
+     * The first 8 bytes of every file ("CFGRAPH1" in ASCII)
+     */
+    private static final long MAGIC = 0x3148504152474643L;
+
+    /**
+     * The version of the file layout
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The flag set when the file has edge weights
+     */
+    private static final int WEIGHTED_FLAG = 1;
+
+    /**
+     * The size of the header in bytes
+     */
+    private static final int HEADER_BYTES = 40;
+
+    /**
+     * The most bytes mapped by one buffer (mapped buffers are int-indexed)
+     */
+    private static final long MAX_MAP_BYTES = 1L << 30;
+
+    /**
+     * The size of the buffer used while writing
+     */
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * The fewest bytes of text parsed by each chunk of an edge-list import
+     */
+    private static final long MIN_CHUNK_BYTES = 1 << 16;
+
+    /**
+     * The number of text chunks per thread in an edge-list import (so one
+     * slow chunk doesn't idle the other threads)
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * The number of nodes
+     */
+    private final int numNodes;
+
+    /**
+     * The number of edges
+     */
+    private final int numEdges;
+
+    /**
+     * True if the file has edge weights
+     */
+    private final boolean weighted;
+
+    /**
+     * The mapped edge offsets (longs)
+     */
+    private final MappedSection offsets;
+
+    /**
+     * The mapped edge destinations (ints)
+     */
+    private final MappedSection targets;
+
+    /**
+     * The mapped edge weights (doubles), or null
+     */
+    private final MappedSection weights;
+
+    /**
+     * The mapped node-name bytes
+     */
+    private final MappedSection nameBytes;
+
+    /**
+     * The mapped node-name offsets (longs)
+     */
+    private final MappedSection nameOffsets;
+
+    /**
+     * The node ids by name (built on first lookup by name)
+     */
+    private Map<String, Integer> nodeIds;
+
+    /**
+     * The cached snapshot (built on first request)
+     */
+    private CompressedGraphSnapshot snapshot;
+
+    /**
+     * Maps the input file's sections.
+     *
+     * @param file The file to open
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't a binary graph file
+     */
+    private BinaryGraphFile(File file)
+        throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.READ))
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(
+                ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining())
+            {
+                if (channel.read(header, header.position()) < 0)
+                {
+                    throw new IllegalArgumentException("File " + file
+                        + " is too short to be a binary graph file");
+                }
+            }
+            header.flip();
+            if (header.getLong() != MAGIC)
+            {
+                throw new IllegalArgumentException("File " + file
+                    + " is not a binary graph file");
+            }
+            int version = header.getInt();
+            if (version != VERSION)
+            {
+                throw new IllegalArgumentException("Unsupported binary graph "
+                    + "file version " + version);
+            }
+            weighted = (header.getInt() & WEIGHTED_FLAG) != 0;
+            long n = header.getLong();
+            long m = header.getLong();
+            long numNameBytes = header.getLong();
+            if (n >= Integer.MAX_VALUE || m >= Integer.MAX_VALUE)
+            {
+                throw new IllegalArgumentException("Graphs with 2^31 or more "
+                    + "nodes or edges can't be opened as a graph");
+            }
+            numNodes = (int) n;
+            numEdges = (int) m;
+            long position = HEADER_BYTES;
+            offsets = new MappedSection(channel, position, 8 * (n + 1));
+            position += offsets.length;
+            targets = new MappedSection(channel, position, 4 * m);
+            position += pad(targets.length);
+            if (weighted)
+            {
+                weights = new MappedSection(channel, position, 8 * m);
+                position += weights.length;
+            }
+            else
+            {
+                weights = null;
+            }
+            nameBytes = new MappedSection(channel, position, numNameBytes);
+            position += pad(numNameBytes);
+            nameOffsets = new MappedSection(channel, position, 8 * (n + 1));
+            position += nameOffsets.length;
+            if (position > channel.size())
+            {
+                throw new IllegalArgumentException("File " + file
+                    + " is truncated");
+            }
+        }
+        nodeIds = null;
+        snapshot = null;
+    }
+
+    /**
+     * Opens the input binary graph file by memory mapping it.
+     *
+     * Execution: O(1) (pages are read as they're first used)
+     *
+     * @param file The file to open
+     * @return The graph in the file
+     * @throws IllegalArgumentException if the file isn't a binary graph file
+     */
+    public static BinaryGraphFile open(File file)
+    {
+        try
+        {
+            return new BinaryGraphFile(file);
+        }
+        catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    /**
+     * Writes the input graph to a binary graph file. Each node's name is
+     * String.valueOf its node. The edges are written in the order of the
+     * graph's compressed snapshot (sorted by source, then destination), which
+     * are the edge ids when the file is opened.
+     *
+     * Execution: O(n + m) plus the cost of the graph's snapshot
+     *
+     * @param graph The graph to write
+     * @param file The file to write to (replaced if it exists)
+     */
+    public static void write(final DirectedNodeEdgeGraph<?> graph,
+        File file)
+    {
+        CompressedGraphSnapshot s = graph.getCompressedSnapshot();
+        write(file, s.getNumNodes(), (i) -> String.valueOf(graph.getNode(i)),
+            s.getSuccessorOffsets(), s.getSuccessors(),
+            s.getSuccessorWeights());
+    }
+
+    /**
+     * Private helper that writes the input CSR graph and node names.
+     *
+     * @param file The file to write to
+     * @param n The number of nodes
+     * @param names The name of each node
+     * @param outOffsets The first edge of each node (n+1 values)
+     * @param outTargets The destination of each edge
+     * @param outWeights The weight of each edge (or null)
+     */
+    private static void write(File file,
+        int n,
+        IntFunction<String> names,
+        int[] outOffsets,
+        int[] outTargets,
+        double[] outWeights)
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            BlockWriter out = new BlockWriter(channel);
+            // The header is rewritten once the name bytes are counted
+            out.skip(HEADER_BYTES);
+            for (int i = 0; i <= n; ++i)
+            {
+                out.putLong(outOffsets[i]);
+            }
+            for (int target : outTargets)
+            {
+                out.putInt(target);
+            }
+            out.pad();
+            if (outWeights != null)
+            {
+                for (double weight : outWeights)
+                {
+                    out.putDouble(weight);
+                }
+            }
+            long[] nameStarts = new long[n + 1];
+            for (int i = 0; i < n; ++i)
+            {
+                byte[] bytes = names.apply(i).getBytes(StandardCharsets.UTF_8);
+                out.putBytes(bytes);
+                nameStarts[i + 1] = nameStarts[i] + bytes.length;
+            }
+            out.pad();
+            for (long start : nameStarts)
+            {
+                out.putLong(start);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(
+                ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(outWeights == null ? 0 : WEIGHTED_FLAG);
+            header.putLong(n);
+            header.putLong(outTargets.length);
+            header.putLong(nameStarts[n]);
+            header.flip();
+            long position = 0;
+            while (header.hasRemaining())
+            {
+                position += channel.write(header, position);
+            }
+        }
+        catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    /**
+     * Builds a binary graph file from an edge list text file and opens it.
+     * Each line of the text holds two whitespace-separated node names (an
+     * edge with weight 1) or two names and a weight; blank lines and lines
+     * starting with '#' are skipped. If any line has a weight, the file is
+     * weighted. Node ids are assigned in order of first appearance in the
+     * text.
+     *
+     * The text is split into chunks at line breaks and each chunk is parsed
+     * by a different thread into its own node dictionary and edge arrays.
+     * The dictionaries are then merged in chunk order, and the edges are
+     * grouped by source and sorted by destination (in parallel) to build the
+     * CSR arrays.
+     *
+     * Execution: O(m log d + n) divided across threads for parsing and
+     * sorting, plus O(m) serial work to merge and group the edges.
+     *
+     * @param edgeList The text file to read
+     * @param output The binary graph file to write (replaced if it exists)
+     * @param pool The thread pool to use (or null to import serially)
+     * @return The opened output file
+     * @throws IllegalArgumentException if a line has other than 2 or 3 values
+     * or a weight isn't a number
+     */
+    public static BinaryGraphFile importEdgeList(File edgeList,
+        File output,
+        ThreadPoolExecutor pool)
+    {
+        List<ParsedChunk> chunks;
+        try (FileChannel channel = FileChannel.open(edgeList.toPath(),
+            StandardOpenOption.READ))
+        {
+            long[] bounds = findChunkBounds(channel, Math.max(1,
+                ParallelUtil.getNumThreads(pool)));
+            List<Callable<ParsedChunk>> tasks = new ArrayList<>(bounds.length
+                - 1);
+            for (int i = 0; i < bounds.length - 1; ++i)
+            {
+                final MappedByteBuffer text = channel.map(
+                    FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1]
+                    - bounds[i]);
+                tasks.add(() -> new ParsedChunk(text));
+            }
+            if (pool == null)
+            {
+                chunks = ParallelUtil.executeInSequence(tasks);
+            }
+            else
+            {
+                chunks = ParallelUtil.executeInParallel(tasks, pool);
+            }
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            if (e.getCause() instanceof IllegalArgumentException)
+            {
+                throw (IllegalArgumentException) e.getCause();
+            }
+            throw new RuntimeException(e);
+        }
+
+        // Merge the dictionaries in chunk order (so ids are in order of first
+        // appearance) and renumber each chunk's edges
+        final Map<String, Integer> ids = new HashMap<>();
+        final List<String> names = new ArrayList<>();
+        long totalEdges = 0;
+        boolean isWeighted = false;
+        for (ParsedChunk chunk : chunks)
+        {
+            int[] globalIds = new int[chunk.names.size()];
+            for (int i = 0; i < globalIds.length; ++i)
+            {
+                String name = chunk.names.get(i);
+                Integer id = ids.get(name);
+                if (id == null)
+                {
+                    id = names.size();
+                    ids.put(name, id);
+                    names.add(name);
+                }
+                globalIds[i] = id;
+            }
+            chunk.globalIds = globalIds;
+            totalEdges += chunk.sources.size();
+            isWeighted |= (chunk.weights != null);
+        }
+        if (totalEdges >= Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Edge lists with 2^31 or more "
+                + "edges are not supported");
+        }
+        final int n = names.size();
+        final int m = (int) totalEdges;
+        final int[] outOffsets = new int[n + 1];
+        for (ParsedChunk chunk : chunks)
+        {
+            for (int i = 0; i < chunk.sources.size(); ++i)
+            {
+                ++outOffsets[chunk.globalIds[chunk.sources.get(i)] + 1];
+            }
+        }
+        for (int i = 0; i < n; ++i)
+        {
+            outOffsets[i + 1] += outOffsets[i];
+        }
+        final int[] outTargets = new int[m];
+        final double[] outWeights = isWeighted ? new double[m] : null;
+        int[] cursor = Arrays.copyOf(outOffsets, n);
+        for (ParsedChunk chunk : chunks)
+        {
+            for (int i = 0; i < chunk.sources.size(); ++i)
+            {
+                int pos = cursor[chunk.globalIds[chunk.sources.get(i)]]++;
+                outTargets[pos] = chunk.globalIds[chunk.targets.get(i)];
+                if (isWeighted)
+                {
+                    outWeights[pos] = (chunk.weights == null) ? 1.0
+                        : chunk.weights.get(i);
+                }
+            }
+        }
+        chunks = null;
+        ids.clear();
+
+        // Sort each node's edges by destination (stably, to keep weights in
+        // file order among repeated edges)
+        CompressedGraphSnapshot.runInParallel(
+            CompressedGraphSnapshot.partitionByOffsets(outOffsets, Math.max(1,
+                ParallelUtil.getNumThreads(pool))), pool, (start, end) ->
+        {
+            long[] keys = new long[0];
+            double[] rowWeights = new double[0];
+            for (int i = start; i < end; ++i)
+            {
+                int from = outOffsets[i];
+                int to = outOffsets[i + 1];
+                if (outWeights == null)
+                {
+                    Arrays.sort(outTargets, from, to);
+                    continue;
+                }
+                int len = to - from;
+                if (keys.length < len)
+                {
+                    keys = new long[len];
+                    rowWeights = new double[len];
+                }
+                for (int j = 0; j < len; ++j)
+                {
+                    keys[j] = (((long) outTargets[from + j]) << 32) | j;
+                    rowWeights[j] = outWeights[from + j];
+                }
+                Arrays.sort(keys, 0, len);
+                for (int j = 0; j < len; ++j)
+                {
+                    outTargets[from + j] = (int) (keys[j] >>> 32);
+                    outWeights[from + j] = rowWeights[(int) keys[j]];
+                }
+            }
+        });
+
+        write(output, n, names::get, outOffsets, outTargets, outWeights);
+        return open(output);
+    }
+
+    /**
+     * Private helper that splits the text into chunks that start at the
+     * beginning of a line.
+     *
+     * @param channel The text file
+     * @param numThreads The number of threads that will parse the chunks
+     * @return The start of each chunk, followed by the file size
+     * @throws IOException if the file can't be read
+     */
+    private static long[] findChunkBounds(FileChannel channel,
+        int numThreads)
+        throws IOException
+    {
+        long size = channel.size();
+        long numChunks = Math.min(numThreads * CHUNKS_PER_THREAD, size
+            / MIN_CHUNK_BYTES + 1);
+        // Every chunk must fit in one mapped buffer (allowing for the rest
+        // of the line at the end of a chunk)
+        numChunks = Math.max(numChunks, size / (MAX_MAP_BYTES / 2) + 1);
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (long c = 1; c < numChunks; ++c)
+        {
+            long position = Math.max(bounds.get(bounds.size() - 1), (size * c)
+                / numChunks);
+            // Move to just past the next line break
+            boolean found = false;
+            while (!found && position < size)
+            {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0)
+                {
+                    break;
+                }
+                for (int i = 0; i < read; ++i)
+                {
+                    if (buffer.get(i) == '\n')
+                    {
+                        position += i + 1;
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found)
+                {
+                    position += read;
+                }
+            }
+            if (position < size && position > bounds.get(bounds.size() - 1))
+            {
+                bounds.add(position);
+            }
+        }
+        bounds.add(size);
+        long[] ret = new long[bounds.size()];
+        for (int i = 0; i < ret.length; ++i)
+        {
+            ret[i] = bounds.get(i);
+        }
+        return ret;
+    }
+
+    /**
+     * Private helper that rounds the input up to a multiple of 8
+     *
+     * @param numBytes The number of bytes
+     * @return The number of bytes with padding
+     */
+    private static long pad(long numBytes)
+    {
+        return (numBytes + 7) & ~7L;
+    }
+
+    /**
+     * Returns true if the file has edge weights
+     *
+     * @return true if the file has edge weights
+     */
+    public boolean isWeighted()
+    {
+        return weighted;
+    }
+
+    /**
+     * Returns the weight of the input edge (1 if the file is unweighted)
+     *
+     * Execution: O(1)
+     *
+     * @param id The edge id
+     * @return The edge's weight
+     */
+    public double getEdgeWeight(int id)
+    {
+        return weighted ? weights.getDouble(id) : 1.0;
+    }
+
+    @Override
+    public Collection<String> getNodes()
+    {
+        return new AbstractList<String>()
+        {
+
+            @Override
+            public String get(int index)
+            {
+                return getNode(index);
+            }
+
+            @Override
+            public int size()
+            {
+                return numNodes;
+            }
+
+        };
+    }
+
+    @Override
+    public int getNumNodes()
+    {
+        return numNodes;
+    }
+
+    @Override
+    public int getNumEdges()
+    {
+        return numEdges;
+    }
+
+    /**
+     * Unsupported as the file is read-only
+     *
+     * @param left Unused
+     * @param right Unused
+     */
+    @Override
+    public void addEdge(String left,
+        String right)
+    {
+        throw new UnsupportedOperationException(
+            "Binary graph files are read-only");
+    }
+
+    /**
+     * Unsupported as the file is read-only
+     *
+     * @param node Unused
+     */
+    @Override
+    public void addNode(String node)
+    {
+        throw new UnsupportedOperationException(
+            "Binary graph files are read-only");
+    }
+
+    /**
+     * Execution: O(n) the first time a node is looked up by name (to build
+     * the name index), O(1) after that.
+     */
+    @Override
+    public boolean containsNode(String node)
+    {
+        return getNodeIds().containsKey(node);
+    }
+
+    /**
+     * Execution: O(d) after the name index is built
+     */
+    @Override
+    public Collection<String> getSuccessors(String node)
+    {
+        int id = getNodeId(node);
+        long start = offsets.getLong(id);
+        long end = offsets.getLong(id + 1);
+        List<String> ret = new ArrayList<>((int) (end - start));
+        for (long pos = start; pos < end; ++pos)
+        {
+            String successor = getNode(targets.getInt(pos));
+            // Repeated edges are adjacent
+            if (ret.isEmpty() || !ret.get(ret.size() - 1).equals(successor))
+            {
+                ret.add(successor);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Execution: O(log n)
+     */
+    @Override
+    public Pair<Integer, Integer> getEdgeEndpointIds(int id)
+    {
+        if (id < 0 || id >= numEdges)
+        {
+            throw new IndexOutOfBoundsException("Edge " + id
+                + " is not in the graph");
+        }
+        // The last node whose first edge is at or before id
+        int lo = 0;
+        int hi = numNodes;
+        while (lo < hi)
+        {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets.getLong(mid) <= id)
+            {
+                lo = mid;
+            }
+            else
+            {
+                hi = mid - 1;
+            }
+        }
+        return new DefaultKeyValuePair<>(lo, targets.getInt(id));
+    }
+
+    /**
+     * Execution: O(length of the name)
+     */
+    @Override
+    public String getNode(int id)
+    {
+        if (id < 0 || id >= numNodes)
+        {
+            throw new IndexOutOfBoundsException("Node " + id
+                + " is not in the graph");
+        }
+        long start = nameOffsets.getLong(id);
+        byte[] bytes = new byte[(int) (nameOffsets.getLong(id + 1) - start)];
+        nameBytes.getBytes(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Execution: O(n) the first time a node is looked up by name (to build
+     * the name index), O(1) after that.
+     *
+     * @throws IllegalArgumentException if the node isn't in the graph
+     */
+    @Override
+    public int getNodeId(String node)
+    {
+        Integer id = getNodeIds().get(node);
+        if (id == null)
+        {
+            throw new IllegalArgumentException("Node " + node
+                + " is not in the graph");
+        }
+        return id;
+    }
+
+    /**
+     * Private helper that returns the name index, building it if necessary.
+     *
+     * @return The node ids by name
+     */
+    private synchronized Map<String, Integer> getNodeIds()
+    {
+        if (nodeIds == null)
+        {
+            Map<String, Integer> ids = new HashMap<>(numNodes * 2);
+            for (int i = 0; i < numNodes; ++i)
+            {
+                ids.put(getNode(i), i);
+            }
+            nodeIds = ids;
+        }
+        return nodeIds;
+    }
+
+    /**
+     * Unsupported as the file is read-only
+     */
+    @Override
+    public void clear()
+    {
+        throw new UnsupportedOperationException(
+            "Binary graph files are read-only");
+    }
+
+    /**
+     * Returns the compressed snapshot of the file's edges. The CSR arrays are
+     * bulk-copied out of the mapped file, so no parsing or sorting is needed.
+     * The snapshot is cached.
+     *
+     * Execution: O(n + m) the first time called, O(1) after that.
+     *
+     * @return the compressed copy of the file's edges
+     */
+    @Override
+    public synchronized CompressedGraphSnapshot getCompressedSnapshot()
+    {
+        if (snapshot == null)
+        {
+            int[] outOffsets = new int[numNodes + 1];
+            for (int i = 0; i <= numNodes; ++i)
+            {
+                outOffsets[i] = (int) offsets.getLong(i);
+            }
+            int[] outTargets = new int[numEdges];
+            targets.getInts(0, outTargets);
+            double[] outWeights = null;
+            if (weighted)
+            {
+                outWeights = new double[numEdges];
+                weights.getDoubles(0, outWeights);
+            }
+            snapshot = CompressedGraphSnapshot.create(outOffsets, outTargets,
+                outWeights);
+        }
+        return snapshot;
+    }
+
+    /**
+     * A section of the file mapped into (possibly many) read-only buffers, as
+     * each buffer can only hold 2^30 bytes here.
+     */
+    private static class MappedSection
+    {
+
+        /**
+         * The number of bytes in the section
+         */
+        final long length;
+
+        /**
+         * The mapped buffers, each holding MAX_MAP_BYTES (except the last)
+         */
+        final ByteBuffer[] buffers;
+
+        /**
+         * Maps the section of the file.
+         *
+         * @param channel The file
+         * @param position The start of the section
+         * @param length The number of bytes in the section
+         * @throws IOException if the file can't be mapped
+         */
+        MappedSection(FileChannel channel,
+            long position,
+            long length)
+            throws IOException
+        {
+            this.length = length;
+            int numBuffers = (int) ((length + MAX_MAP_BYTES - 1)
+                / MAX_MAP_BYTES);
+            buffers = new ByteBuffer[numBuffers];
+            for (int i = 0; i < numBuffers; ++i)
+            {
+                long start = i * MAX_MAP_BYTES;
+                buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    position + start, Math.min(MAX_MAP_BYTES, length - start)).order(
+                    ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        /**
+         * Returns the index-th long in the section
+         *
+         * @param index The index
+         * @return The long
+         */
+        long getLong(long index)
+        {
+            long b = index * 8;
+            return buffers[(int) (b / MAX_MAP_BYTES)].getLong((int) (b
+                % MAX_MAP_BYTES));
+        }
+
+        /**
+         * Returns the index-th int in the section
+         *
+         * @param index The index
+         * @return The int
+         */
+        int getInt(long index)
+        {
+            long b = index * 4;
+            return buffers[(int) (b / MAX_MAP_BYTES)].getInt((int) (b
+                % MAX_MAP_BYTES));
+        }
+
+        /**
+         * Returns the index-th double in the section
+         *
+         * @param index The index
+         * @return The double
+         */
+        double getDouble(long index)
+        {
+            long b = index * 8;
+            return buffers[(int) (b / MAX_MAP_BYTES)].getDouble((int) (b
+                % MAX_MAP_BYTES));
+        }
+
+        /**
+         * Copies bytes starting at the input byte offset
+         *
+         * @param start The first byte to copy
+         * @param dst Where to copy (fully filled)
+         */
+        void getBytes(long start,
+            byte[] dst)
+        {
+            for (int i = 0; i < dst.length; ++i)
+            {
+                long b = start + i;
+                dst[i] = buffers[(int) (b / MAX_MAP_BYTES)].get((int) (b
+                    % MAX_MAP_BYTES));
+            }
+        }
+
+        /**
+         * Bulk-copies ints starting at the input index
+         *
+         * @param index The first int to copy
+         * @param dst Where to copy (fully filled)
+         */
+        void getInts(long index,
+            int[] dst)
+        {
+            int copied = 0;
+            while (copied < dst.length)
+            {
+                long b = (index + copied) * 4;
+                ByteBuffer buffer = buffers[(int) (b / MAX_MAP_BYTES)]
+                    .duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                buffer.position((int) (b % MAX_MAP_BYTES));
+                int count = Math.min(dst.length - copied, buffer.remaining()
+                    / 4);
+                buffer.asIntBuffer().get(dst, copied, count);
+                copied += count;
+            }
+        }
+
+        /**
+         * Bulk-copies doubles starting at the input index
+         *
+         * @param index The first double to copy
+         * @param dst Where to copy (fully filled)
+         */
+        void getDoubles(long index,
+            double[] dst)
+        {
+            int copied = 0;
+            while (copied < dst.length)
+            {
+                long b = (index + copied) * 8;
+                ByteBuffer buffer = buffers[(int) (b / MAX_MAP_BYTES)]
+                    .duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                buffer.position((int) (b % MAX_MAP_BYTES));
+                int count = Math.min(dst.length - copied, buffer.remaining()
+                    / 8);
+                buffer.asDoubleBuffer().get(dst, copied, count);
+                copied += count;
+            }
+        }
+
+    }
+
+    /**
+     * Buffered little-endian writer to a file channel.
+     */
+    private static class BlockWriter
+    {
+
+        /**
+         * The file
+         */
+        private final FileChannel channel;
+
+        /**
+         * The buffer of bytes not yet written
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * The file position the buffer will be written at
+         */
+        private long position;
+
+        /**
+         * The number of bytes put so far (including skipped ones)
+         */
+        private long numBytes;
+
+        /**
+         * Creates a writer at the start of the file.
+         *
+         * @param channel The file
+         */
+        BlockWriter(FileChannel channel)
+        {
+            this.channel = channel;
+            buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(
+                ByteOrder.LITTLE_ENDIAN);
+            position = 0;
+            numBytes = 0;
+        }
+
+        /**
+         * Leaves the next bytes unwritten (to be filled in later)
+         *
+         * @param count The number of bytes to skip
+         * @throws IOException if the file can't be written
+         */
+        void skip(int count)
+            throws IOException
+        {
+            flush();
+            position += count;
+            numBytes += count;
+        }
+
+        /**
+         * Makes room in the buffer for the input number of bytes
+         *
+         * @param count The number of bytes about to be put
+         * @throws IOException if the file can't be written
+         */
+        private void ensureRoom(int count)
+            throws IOException
+        {
+            if (buffer.remaining() < count)
+            {
+                flush();
+            }
+        }
+
+        void putLong(long value)
+            throws IOException
+        {
+            ensureRoom(8);
+            buffer.putLong(value);
+            numBytes += 8;
+        }
+
+        void putInt(int value)
+            throws IOException
+        {
+            ensureRoom(4);
+            buffer.putInt(value);
+            numBytes += 4;
+        }
+
+        void putDouble(double value)
+            throws IOException
+        {
+            ensureRoom(8);
+            buffer.putDouble(value);
+            numBytes += 8;
+        }
+
+        void putBytes(byte[] bytes)
+            throws IOException
+        {
+            int offset = 0;
+            while (offset < bytes.length)
+            {
+                ensureRoom(1);
+                int count = Math.min(buffer.remaining(), bytes.length
+                    - offset);
+                buffer.put(bytes, offset, count);
+                offset += count;
+            }
+            numBytes += bytes.length;
+        }
+
+        /**
+         * Writes zeros until a multiple of 8 bytes has been put
+         *
+         * @throws IOException if the file can't be written
+         */
+        void pad()
+            throws IOException
+        {
+            while ((numBytes & 7) != 0)
+            {
+                ensureRoom(1);
+                buffer.put((byte) 0);
+                ++numBytes;
+            }
+        }
+
+        /**
+         * Writes everything in the buffer to the file
+         *
+         * @throws IOException if the file can't be written
+         */
+        void flush()
+            throws IOException
+        {
+            buffer.flip();
+            while (buffer.hasRemaining())
+            {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+
+    }
+
+    /**
+     * The node names and edges parsed from one chunk of an edge-list file.
+     * Node ids are local to the chunk.
+     */
+    private static class ParsedChunk
+    {
+
+        /**
+         * The chunk's node names in order of first appearance
+         */
+        final List<String> names;
+
+        /**
+         * The source of each edge
+         */
+        final IntArrayList sources;
+
+        /**
+         * The destination of each edge
+         */
+        final IntArrayList targets;
+
+        /**
+         * The weight of each edge (null until the chunk has a weighted line)
+         */
+        DoubleArrayList weights;
+
+        /**
+         * The global id of each local node (set while merging)
+         */
+        int[] globalIds;
+
+        /**
+         * Parses the input text
+         *
+         * @param text The text of whole lines
+         */
+        ParsedChunk(ByteBuffer text)
+        {
+            names = new ArrayList<>();
+            sources = new IntArrayList();
+            targets = new IntArrayList();
+            weights = null;
+            Map<String, Integer> ids = new HashMap<>();
+            int[] tokenStarts = new int[3];
+            int[] tokenEnds = new int[3];
+            byte[] scratch = new byte[64];
+            int limit = text.limit();
+            int pos = 0;
+            while (pos < limit)
+            {
+                int lineStart = pos;
+                int numTokens = 0;
+                boolean tooMany = false;
+                while (pos < limit && text.get(pos) != '\n')
+                {
+                    byte c = text.get(pos);
+                    if (c == ' ' || c == '\t' || c == '\r')
+                    {
+                        ++pos;
+                        continue;
+                    }
+                    int start = pos;
+                    while (pos < limit && !isSeparator(text.get(pos)))
+                    {
+                        ++pos;
+                    }
+                    if (numTokens < 3)
+                    {
+                        tokenStarts[numTokens] = start;
+                        tokenEnds[numTokens] = pos;
+                    }
+                    else
+                    {
+                        tooMany = true;
+                    }
+                    ++numTokens;
+                }
+                int lineEnd = pos;
+                // Skip the line break
+                ++pos;
+                if (numTokens == 0 || text.get(tokenStarts[0]) == '#')
+                {
+                    continue;
+                }
+                if (numTokens < 2 || tooMany)
+                {
+                    throw new IllegalArgumentException("Unable to read line \""
+                        + decode(text, lineStart, lineEnd, scratch) + "\" with "
+                        + numTokens + " separate chunks (only 2 or 3 (with "
+                        + "weights) are supported).");
+                }
+                sources.add(localId(ids, decode(text, tokenStarts[0],
+                    tokenEnds[0], scratch)));
+                targets.add(localId(ids, decode(text, tokenStarts[1],
+                    tokenEnds[1], scratch)));
+                if (numTokens == 3)
+                {
+                    if (weights == null)
+                    {
+                        weights = new DoubleArrayList(sources.size() * 2);
+                        for (int i = 0; i < sources.size() - 1; ++i)
+                        {
+                            weights.add(1.0);
+                        }
+                    }
+                    String weight = decode(text, tokenStarts[2], tokenEnds[2],
+                        scratch);
+                    try
+                    {
+                        weights.add(Double.parseDouble(weight));
+                    }
+                    catch (NumberFormatException nfe)
+                    {
+                        throw new IllegalArgumentException("Unable to parse "
+                            + "weight \"" + weight + "\"", nfe);
+                    }
+                }
+                else if (weights != null)
+                {
+                    weights.add(1.0);
+                }
+            }
+        }
+
+        /**
+         * Returns true for the bytes that end a token
+         *
+         * @param c The byte
+         * @return true if c is whitespace or a line break
+         */
+        private static boolean isSeparator(byte c)
+        {
+            return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+        }
+
+        /**
+         * Returns the local id of the named node, adding it if it's new.
+         *
+         * @param ids The local ids by name
+         * @param name The node's name
+         * @return The node's local id
+         */
+        private int localId(Map<String, Integer> ids,
+            String name)
+        {
+            Integer id = ids.get(name);
+            if (id == null)
+            {
+                id = names.size();
+                ids.put(name, id);
+                names.add(name);
+            }
+            return id;
+        }
+
+        /**
+         * Decodes the UTF-8 text in [start, end).
+         *
+         * @param text The text
+         * @param start The first byte
+         * @param end One past the last byte
+         * @param scratch Scratch space (used if long enough)
+         * @return The decoded text
+         */
+        private static String decode(ByteBuffer text,
+            int start,
+            int end,
+            byte[] scratch)
+        {
+            int len = end - start;
+            byte[] bytes = (len <= scratch.length) ? scratch : new byte[len];
+            for (int i = 0; i < len; ++i)
+            {
+                bytes[i] = text.get(start + i);
+            }
+            return new String(bytes, 0, len, StandardCharsets.UTF_8);
+        }
+
+    }
+
+}
@@ -0,0 +1,1133 @@
+/*
+ * File:                CompressedGraphSnapshot.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.util.Pair;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * An immutable, array-based copy of the topology of a directed graph. This
+ * stores three compressed views of the same edges:
+ *
+ * (1) The outgoing edges of each node in compressed sparse row (CSR) format.
+ * Each node's successors are sorted by node id. (2) The incoming edges of each
+ * node in compressed sparse column (CSC) format. Each node's predecessors are
+ * sorted by node id. (3) The undirected, merged neighbors of each node (also
+ * in CSR format). Repeated edges and edges in both directions are merged into
+ * one neighbor whose weight is the sum of the merged edges' weights. Self
+ * loops appear once with twice their weight (as they are both an in- and
+ * out-edge of the node).
+ *
+ * All neighbor iteration is over primitive int ranges, so no boxing or
+ * hashing is done while walking the graph. For instance, to visit the
+ * successors of node i:
+ *
+ * for (int j = snapshot.getSuccessorsStart(i); j &lt;
+ * snapshot.getSuccessorsEnd(i); ++j) { int succ = snapshot.getSuccessor(j);
+ * ... }
+ *
+ * Edges keep the id they have in the graph they were copied from. Within this
+ * class, an edge is also referred to by its "position" (its index in the
+ * successors arrays). For graphs (like DenseMemoryGraph) whose edges are
+ * already sorted by endpoints, the two are the same.
+ *
+ * The derived CSC and neighbor arrays are built in parallel for large graphs.
+ * Graph algorithms should get the snapshot with
+ * DirectedNodeEdgeGraph#getCompressedSnapshot so that graphs that can cache
+ * it do so.
+ *
+ * @author jdwendt
+ * @since 4.0.0
+ */
+@PublicationReference(type = PublicationType.WebPage, author = "Wikipedia",
+    title = "Sparse matrix - Compressed sparse row (CSR, CRS, or Yale format)",
+    year = 2016, url
+    = "https://en.wikipedia.org/wiki/Sparse_matrix#Compressed_sparse_row_.28CSR.2C_CRS_or_Yale_format.29")
+public class CompressedGraphSnapshot
+    implements java.io.Serializable
+{
+
+    private static final long serialVersionUID = 3162289403915347826L;
+
+    /**
+     * The fewest edges a graph must have before the derived arrays are built
+     * on multiple threads. Below this, the cost of creating threads is larger
+     * than the work.
+     */
+    public static final int MIN_PARALLEL_EDGES = 1 << 16;
+
+    /**
+     * The number of nodes in the graph.
+     */
+    private final int numNodes;
+
+    /**
+     * The number of edges in the graph.
+     */
+    private final int numEdges;
+
+    /**
+     * The first position in outTargets for each node. Node i's successors are
+     * at positions [outOffsets[i], outOffsets[i+1]). Storage: O(n).
+     */
+    private final int[] outOffsets;
+
+    /**
+     * The destination of each edge, in position order. Storage: O(m).
+     */
+    private final int[] outTargets;
+
+    /**
+     * The weight of each edge in position order, or null if the graph is
+     * unweighted (all weights are 1). Storage: O(m).
+     */
+    private final double[] outWeights;
+
+    /**
+     * The graph's edge id for each position, or null if the edge id is the
+     * position. Storage: O(m).
+     */
+    private final int[] positionEdgeIds;
+
+    /**
+     * The position for each of the graph's edge ids, or null if the edge id is
+     * the position. Storage: O(m).
+     */
+    private final int[] edgePositions;
+
+    /**
+     * The first index in inSources for each node. Node i's predecessors are at
+     * indices [inOffsets[i], inOffsets[i+1]). Storage: O(n).
+     */
+    private final int[] inOffsets;
+
+    /**
+     * The source of each incoming edge, grouped by destination. Storage: O(m).
+     */
+    private final int[] inSources;
+
+    /**
+     * The position of each incoming edge, in the same order as inSources.
+     * Storage: O(m).
+     */
+    private final int[] inPositions;
+
+    /**
+     * The first index in neighbors for each node. Node i's neighbors are at
+     * indices [neighborOffsets[i], neighborOffsets[i+1]). Storage: O(n).
+     */
+    private final int[] neighborOffsets;
+
+    /**
+     * The sorted, undirected, de-duplicated neighbors of all nodes. Storage:
+     * O(m).
+     */
+    private final int[] neighbors;
+
+    /**
+     * The summed weight of all edges merged into each neighbor. Storage: O(m).
+     */
+    private final double[] neighborWeights;
+
+    /**
+     * Private constructor that copies the outgoing edges and then builds the
+     * incoming and undirected neighbor arrays.
+     *
+     * Execution: O(n + m log d) where d is the maximum in-degree (only paid
+     * when the incoming edges are found out of order), divided across threads
+     * for large graphs.
+     *
+     * @param outOffsets The first position for each node's successors (n+1
+     * values)
+     * @param outTargets The destination of each edge, sorted within each node
+     * @param outWeights The weight of each edge, or null if unweighted
+     * @param positionEdgeIds The edge id for each position, or null if the
+     * same as the position
+     */
+    private CompressedGraphSnapshot(int[] outOffsets,
+        int[] outTargets,
+        double[] outWeights,
+        int[] positionEdgeIds)
+    {
+        this.numNodes = outOffsets.length - 1;
+        this.numEdges = outTargets.length;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.outWeights = outWeights;
+        this.positionEdgeIds = positionEdgeIds;
+        if (positionEdgeIds == null)
+        {
+            this.edgePositions = null;
+        }
+        else
+        {
+            this.edgePositions = new int[numEdges];
+            for (int i = 0; i < numEdges; ++i)
+            {
+                this.edgePositions[positionEdgeIds[i]] = i;
+            }
+        }
+
+        this.inOffsets = new int[numNodes + 1];
+        this.inSources = new int[numEdges];
+        this.inPositions = new int[numEdges];
+        this.neighborOffsets = new int[numNodes + 1];
+
+        ThreadPoolExecutor pool = null;
+        if (numEdges >= MIN_PARALLEL_EDGES)
+        {
+            pool = ParallelUtil.createThreadPool();
+        }
+        try
+        {
+            int numTasks = Math.max(1, ParallelUtil.getNumThreads(pool));
+            buildIncoming(pool, numTasks);
+            countNeighbors(pool, numTasks);
+            for (int i = 0; i < numNodes; ++i)
+            {
+                neighborOffsets[i + 1] += neighborOffsets[i];
+            }
+            this.neighbors = new int[neighborOffsets[numNodes]];
+            this.neighborWeights = new double[neighborOffsets[numNodes]];
+            fillNeighbors(pool, numTasks);
+        }
+        finally
+        {
+            if (pool != null)
+            {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Creates a snapshot of the input graph. This reads the graph's edges
+     * once, serially, with getEdgeEndpointIds (and getEdgeWeight if the graph
+     * is weighted). Graph implementations that store their edges in arrays
+     * should instead override DirectedNodeEdgeGraph#getCompressedSnapshot and
+     * call the array-based create method.
+     *
+     * Execution: O(n + m log d) where d is the maximum degree.
+     *
+     * @param graph The graph to copy
+     * @return The snapshot of the graph's current state
+     */
+    public static CompressedGraphSnapshot create(
+        DirectedNodeEdgeGraph<?> graph)
+    {
+        int n = graph.getNumNodes();
+        int m = graph.getNumEdges();
+        DirectedWeightedNodeEdgeGraph<?> weighted = null;
+        if (graph instanceof DirectedWeightedNodeEdgeGraph)
+        {
+            weighted = (DirectedWeightedNodeEdgeGraph<?>) graph;
+        }
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; ++i)
+        {
+            Pair<Integer, Integer> edge = graph.getEdgeEndpointIds(i);
+            sources[i] = edge.getFirst();
+            targets[i] = edge.getSecond();
+            ++offsets[sources[i] + 1];
+        }
+        for (int i = 0; i < n; ++i)
+        {
+            offsets[i + 1] += offsets[i];
+        }
+
+        // Bucket the edges by source (keeping edge-id order within a bucket),
+        // then sort each bucket by destination
+        boolean isIdentity = true;
+        int[] cursor = Arrays.copyOf(offsets, n);
+        long[] keys = new long[m];
+        for (int i = 0; i < m; ++i)
+        {
+            int pos = cursor[sources[i]]++;
+            keys[pos] = pack(targets[i], i);
+        }
+        for (int i = 0; i < n; ++i)
+        {
+            Arrays.sort(keys, offsets[i], offsets[i + 1]);
+        }
+        int[] outTargets = new int[m];
+        int[] edgeIds = new int[m];
+        double[] outWeights = (weighted == null) ? null : new double[m];
+        for (int pos = 0; pos < m; ++pos)
+        {
+            outTargets[pos] = unpackHigh(keys[pos]);
+            edgeIds[pos] = unpackLow(keys[pos]);
+            isIdentity &= (edgeIds[pos] == pos);
+            if (weighted != null)
+            {
+                outWeights[pos] = weighted.getEdgeWeight(edgeIds[pos]);
+            }
+        }
+
+        return new CompressedGraphSnapshot(offsets, outTargets, outWeights,
+            isIdentity ? null : edgeIds);
+    }
+
+    /**
+     * Creates a snapshot from the outgoing edges of a graph already in
+     * compressed sparse row format. Each edge's id is its position in
+     * outTargets. The input arrays are kept (not copied), so don't alter them
+     * after calling this.
+     *
+     * Execution: O(n + m log d) where d is the maximum in-degree.
+     *
+     * @param outOffsets The first position in outTargets for each node's
+     * successors, followed by the number of edges (n+1 values)
+     * @param outTargets The destination of each edge. Each node's
+     * destinations must be in non-decreasing order.
+     * @param outWeights The weight of each edge, or null if the graph is
+     * unweighted
+     * @return The snapshot of the input edges
+     * @throws IllegalArgumentException if the arrays are inconsistent or a
+     * node's destinations are not sorted
+     */
+    public static CompressedGraphSnapshot create(int[] outOffsets,
+        int[] outTargets,
+        double[] outWeights)
+    {
+        if (outOffsets.length < 1 || outOffsets[0] != 0
+            || outOffsets[outOffsets.length - 1] != outTargets.length)
+        {
+            throw new IllegalArgumentException(
+                "Offsets must start at 0 and end at the number of edges");
+        }
+        if (outWeights != null && outWeights.length != outTargets.length)
+        {
+            throw new IllegalArgumentException(
+                "There must be one weight per edge");
+        }
+        int n = outOffsets.length - 1;
+        for (int i = 0; i < n; ++i)
+        {
+            if (outOffsets[i] > outOffsets[i + 1])
+            {
+                throw new IllegalArgumentException("Offsets must not decrease");
+            }
+            for (int j = outOffsets[i]; j < outOffsets[i + 1]; ++j)
+            {
+                if (outTargets[j] < 0 || outTargets[j] >= n)
+                {
+                    throw new IllegalArgumentException("Edge " + j
+                        + " has an unknown destination " + outTargets[j]);
+                }
+                if (j > outOffsets[i] && outTargets[j - 1] > outTargets[j])
+                {
+                    throw new IllegalArgumentException("Destinations of node "
+                        + i + " are not sorted");
+                }
+            }
+        }
+
+        return new CompressedGraphSnapshot(outOffsets, outTargets, outWeights,
+            null);
+    }
+
+    /**
+     * Interface for work done on a contiguous range of items (nodes, edges,
+     * etc.) by runInParallel.
+     */
+    public static interface RangeTask
+    {
+
+        /**
+         * Processes items [start, end).
+         *
+         * @param start The first item to process
+         * @param end One past the last item to process
+         */
+        public void run(int start,
+            int end);
+
+    }
+
+    /**
+     * Splits [0, numItems) into roughly equal contiguous ranges (one per
+     * thread in the pool) and runs the input task on each range. If the pool
+     * is null, the task is run once on the whole range in the calling thread.
+     *
+     * @param numItems The number of items to process
+     * @param pool The thread pool to run on (or null to run serially)
+     * @param task The work to do on each range
+     */
+    public static void runInParallel(int numItems,
+        ThreadPoolExecutor pool,
+        RangeTask task)
+    {
+        int numTasks = Math.max(1, ParallelUtil.getNumThreads(pool));
+        int[] bounds = new int[numTasks + 1];
+        for (int i = 0; i <= numTasks; ++i)
+        {
+            bounds[i] = (int) (((long) numItems * i) / numTasks);
+        }
+        runInParallel(bounds, pool, task);
+    }
+
+    /**
+     * Runs the input task on each range [bounds[i], bounds[i+1]). If the pool
+     * is null or there's only one range, the task is run in the calling
+     * thread.
+     *
+     * @param bounds The boundaries of the ranges
+     * @param pool The thread pool to run on (or null to run serially)
+     * @param task The work to do on each range
+     */
+    public static void runInParallel(int[] bounds,
+        ThreadPoolExecutor pool,
+        final RangeTask task)
+    {
+        if (pool == null || bounds.length <= 2)
+        {
+            for (int i = 0; i < bounds.length - 1; ++i)
+            {
+                task.run(bounds[i], bounds[i + 1]);
+            }
+            return;
+        }
+        List<Callable<Boolean>> tasks = new ArrayList<>(bounds.length - 1);
+        for (int i = 0; i < bounds.length - 1; ++i)
+        {
+            final int start = bounds[i];
+            final int end = bounds[i + 1];
+            if (start < end)
+            {
+                tasks.add(() ->
+                {
+                    task.run(start, end);
+                    return true;
+                });
+            }
+        }
+        try
+        {
+            ParallelUtil.executeInParallel(tasks, pool);
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Splits the nodes into numTasks contiguous ranges with roughly the same
+     * number of entries in each (according to the input offsets), so that
+     * high-degree nodes don't leave all but one thread idle.
+     *
+     * Execution: O(numTasks log n)
+     *
+     * @param offsets The offsets array of one of the compressed views
+     * @param numTasks The number of ranges to split into
+     * @return The numTasks+1 range boundaries
+     */
+    public static int[] partitionByOffsets(int[] offsets,
+        int numTasks)
+    {
+        int n = offsets.length - 1;
+        long total = offsets[n];
+        int[] bounds = new int[numTasks + 1];
+        bounds[numTasks] = n;
+        for (int i = 1; i < numTasks; ++i)
+        {
+            int goal = (int) ((total * i) / numTasks);
+            int lo = bounds[i - 1];
+            int hi = n;
+            // First node whose offset is at least the goal
+            while (lo < hi)
+            {
+                int mid = (lo + hi) >>> 1;
+                if (offsets[mid] < goal)
+                {
+                    lo = mid + 1;
+                }
+                else
+                {
+                    hi = mid;
+                }
+            }
+            bounds[i] = lo;
+        }
+        return bounds;
+    }
+
+    /**
+     * Helper that builds the incoming-edge (CSC) arrays.
+     *
+     * @param pool The pool to run on (null for serial)
+     * @param numTasks The number of ranges to split the work into
+     */
+    private void buildIncoming(ThreadPoolExecutor pool,
+        int numTasks)
+    {
+        final AtomicIntegerArray counts = new AtomicIntegerArray(numNodes);
+        int[] outBounds = partitionByOffsets(outOffsets, numTasks);
+        runInParallel(outBounds, pool, (start, end) ->
+        {
+            for (int j = outOffsets[start]; j < outOffsets[end]; ++j)
+            {
+                counts.incrementAndGet(outTargets[j]);
+            }
+        });
+        for (int i = 0; i < numNodes; ++i)
+        {
+            inOffsets[i + 1] = inOffsets[i] + counts.get(i);
+            counts.set(i, inOffsets[i]);
+        }
+
+        // Threads may interleave within a node's predecessors, so each is
+        // sorted afterward (by source, then position)
+        final long[] keys = new long[numEdges];
+        runInParallel(outBounds, pool, (start, end) ->
+        {
+            for (int i = start; i < end; ++i)
+            {
+                for (int j = outOffsets[i]; j < outOffsets[i + 1]; ++j)
+                {
+                    keys[counts.getAndIncrement(outTargets[j])] = pack(i, j);
+                }
+            }
+        });
+        runInParallel(partitionByOffsets(inOffsets, numTasks), pool,
+            (start, end) ->
+        {
+            for (int i = start; i < end; ++i)
+            {
+                int first = inOffsets[i];
+                int last = inOffsets[i + 1];
+                if (!isSorted(keys, first, last))
+                {
+                    Arrays.sort(keys, first, last);
+                }
+                for (int j = first; j < last; ++j)
+                {
+                    inSources[j] = unpackHigh(keys[j]);
+                    inPositions[j] = unpackLow(keys[j]);
+                }
+            }
+        });
+    }
+
+    /**
+     * Helper that stores the number of distinct undirected neighbors of node i
+     * in neighborOffsets[i+1] (to be summed into offsets afterward).
+     *
+     * @param pool The pool to run on (null for serial)
+     * @param numTasks The number of ranges to split the work into
+     */
+    private void countNeighbors(ThreadPoolExecutor pool,
+        int numTasks)
+    {
+        runInParallel(partitionByOffsets(outOffsets, numTasks), pool,
+            (start, end) ->
+        {
+            for (int i = start; i < end; ++i)
+            {
+                neighborOffsets[i + 1] = mergeNeighbors(i, false);
+            }
+        });
+    }
+
+    /**
+     * Helper that fills the neighbors and neighborWeights arrays once the
+     * offsets are known.
+     *
+     * @param pool The pool to run on (null for serial)
+     * @param numTasks The number of ranges to split the work into
+     */
+    private void fillNeighbors(ThreadPoolExecutor pool,
+        int numTasks)
+    {
+        runInParallel(partitionByOffsets(neighborOffsets, numTasks), pool,
+            (start, end) ->
+        {
+            for (int i = start; i < end; ++i)
+            {
+                mergeNeighbors(i, true);
+            }
+        });
+    }
+
+    /**
+     * Merges the sorted successors and predecessors of node i into its
+     * distinct undirected neighbors.
+     *
+     * Execution: O(d) where d is the degree of node i
+     *
+     * @param i The node whose neighbors are merged
+     * @param store If true, the neighbors and their summed weights are written
+     * starting at neighborOffsets[i]; if false, they are only counted.
+     * @return The number of distinct neighbors
+     */
+    private int mergeNeighbors(int i,
+        boolean store)
+    {
+        int out = outOffsets[i];
+        int outEnd = outOffsets[i + 1];
+        int in = inOffsets[i];
+        int inEnd = inOffsets[i + 1];
+        int count = 0;
+        int idx = store ? neighborOffsets[i] - 1 : -1;
+        int last = -1;
+        while (out < outEnd || in < inEnd)
+        {
+            int node;
+            double w;
+            if (in >= inEnd
+                || (out < outEnd && outTargets[out] <= inSources[in]))
+            {
+                node = outTargets[out];
+                w = getPositionWeight(out);
+                ++out;
+            }
+            else
+            {
+                node = inSources[in];
+                w = getPositionWeight(inPositions[in]);
+                ++in;
+            }
+            if (node != last)
+            {
+                ++count;
+                last = node;
+                if (store)
+                {
+                    ++idx;
+                    neighbors[idx] = node;
+                }
+            }
+            if (store)
+            {
+                neighborWeights[idx] += w;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of nodes in the graph.
+     *
+     * @return the number of nodes in the graph
+     */
+    public int getNumNodes()
+    {
+        return numNodes;
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return the number of edges in the graph
+     */
+    public int getNumEdges()
+    {
+        return numEdges;
+    }
+
+    /**
+     * Returns true if the graph stores edge weights (otherwise all weights are
+     * 1).
+     *
+     * @return true if the graph is weighted
+     */
+    public boolean isWeighted()
+    {
+        return outWeights != null;
+    }
+
+    /**
+     * Returns the number of outgoing edges for node i (counting repeated
+     * edges).
+     *
+     * Execution: O(1)
+     *
+     * @param i The node id
+     * @return the out-degree of the node
+     */
+    public int getOutDegree(int i)
+    {
+        return outOffsets[i + 1] - outOffsets[i];
+    }
+
+    /**
+     * Returns the number of incoming edges for node i (counting repeated
+     * edges).
+     *
+     * Execution: O(1)
+     *
+     * @param i The node id
+     * @return the in-degree of the node
+     */
+    public int getInDegree(int i)
+    {
+        return inOffsets[i + 1] - inOffsets[i];
+    }
+
+    /**
+     * Returns the total (in plus out) degree for node i. Repeated edges count
+     * once for each repeat and self loops count twice.
+     *
+     * Execution: O(1)
+     *
+     * @param i The node id
+     * @return the degree of the node
+     */
+    public int getDegree(int i)
+    {
+        return getOutDegree(i) + getInDegree(i);
+    }
+
+    /**
+     * Returns the first position of node i's successors.
+     *
+     * @param i The node id
+     * @return the first position of node i's successors
+     */
+    public int getSuccessorsStart(int i)
+    {
+        return outOffsets[i];
+    }
+
+    /**
+     * Returns one past the last position of node i's successors.
+     *
+     * @param i The node id
+     * @return one past the last position of node i's successors
+     */
+    public int getSuccessorsEnd(int i)
+    {
+        return outOffsets[i + 1];
+    }
+
+    /**
+     * Returns the destination of the edge at the input position.
+     *
+     * @param position A position in [getSuccessorsStart(i),
+     * getSuccessorsEnd(i))
+     * @return the successor at that position
+     */
+    public int getSuccessor(int position)
+    {
+        return outTargets[position];
+    }
+
+    /**
+     * Returns the weight of the edge at the input position.
+     *
+     * @param position A position in [getSuccessorsStart(i),
+     * getSuccessorsEnd(i))
+     * @return the weight of the edge at that position
+     */
+    public double getSuccessorWeight(int position)
+    {
+        return getPositionWeight(position);
+    }
+
+    /**
+     * Returns the graph's id for the edge at the input position.
+     *
+     * @param position A position in [getSuccessorsStart(i),
+     * getSuccessorsEnd(i))
+     * @return the edge id
+     */
+    public int getSuccessorEdgeId(int position)
+    {
+        return (positionEdgeIds == null) ? position
+            : positionEdgeIds[position];
+    }
+
+    /**
+     * Returns the first index of node i's predecessors.
+     *
+     * @param i The node id
+     * @return the first index of node i's predecessors
+     */
+    public int getPredecessorsStart(int i)
+    {
+        return inOffsets[i];
+    }
+
+    /**
+     * Returns one past the last index of node i's predecessors.
+     *
+     * @param i The node id
+     * @return one past the last index of node i's predecessors
+     */
+    public int getPredecessorsEnd(int i)
+    {
+        return inOffsets[i + 1];
+    }
+
+    /**
+     * Returns the source of the incoming edge at the input index.
+     *
+     * @param index An index in [getPredecessorsStart(i),
+     * getPredecessorsEnd(i))
+     * @return the predecessor at that index
+     */
+    public int getPredecessor(int index)
+    {
+        return inSources[index];
+    }
+
+    /**
+     * Returns the weight of the incoming edge at the input index.
+     *
+     * @param index An index in [getPredecessorsStart(i),
+     * getPredecessorsEnd(i))
+     * @return the weight of the incoming edge at that index
+     */
+    public double getPredecessorWeight(int index)
+    {
+        return getPositionWeight(inPositions[index]);
+    }
+
+    /**
+     * Returns the graph's id for the incoming edge at the input index.
+     *
+     * @param index An index in [getPredecessorsStart(i),
+     * getPredecessorsEnd(i))
+     * @return the edge id
+     */
+    public int getPredecessorEdgeId(int index)
+    {
+        return getSuccessorEdgeId(inPositions[index]);
+    }
+
+    /**
+     * Returns the number of distinct undirected neighbors of node i (including
+     * i itself if it has a self loop).
+     *
+     * Execution: O(1)
+     *
+     * @param i The node id
+     * @return the number of neighbors
+     */
+    public int getNumNeighbors(int i)
+    {
+        return neighborOffsets[i + 1] - neighborOffsets[i];
+    }
+
+    /**
+     * Returns the first index of node i's neighbors.
+     *
+     * @param i The node id
+     * @return the first index of node i's neighbors
+     */
+    public int getNeighborsStart(int i)
+    {
+        return neighborOffsets[i];
+    }
+
+    /**
+     * Returns one past the last index of node i's neighbors.
+     *
+     * @param i The node id
+     * @return one past the last index of node i's neighbors
+     */
+    public int getNeighborsEnd(int i)
+    {
+        return neighborOffsets[i + 1];
+    }
+
+    /**
+     * Returns the neighbor at the input index.
+     *
+     * @param index An index in [getNeighborsStart(i), getNeighborsEnd(i))
+     * @return the neighbor at that index
+     */
+    public int getNeighbor(int index)
+    {
+        return neighbors[index];
+    }
+
+    /**
+     * Returns the summed weight of all edges (in either direction) between
+     * the node and the neighbor at the input index.
+     *
+     * @param index An index in [getNeighborsStart(i), getNeighborsEnd(i))
+     * @return the summed weight
+     */
+    public double getNeighborWeight(int index)
+    {
+        return neighborWeights[index];
+    }
+
+    /**
+     * Returns the index of neighbor j in node i's neighbors, or -1 if they
+     * aren't neighbors.
+     *
+     * Execution: O(log d) where d is the number of neighbors of i
+     *
+     * @param i The node whose neighbors are searched
+     * @param j The node to search for
+     * @return the index of j in i's neighbors, or -1
+     */
+    public int findNeighbor(int i,
+        int j)
+    {
+        int idx = Arrays.binarySearch(neighbors, neighborOffsets[i],
+            neighborOffsets[i + 1], j);
+        return (idx < 0) ? -1 : idx;
+    }
+
+    /**
+     * Returns true if there is an edge in either direction between i and j.
+     *
+     * Execution: O(log d) where d is the number of neighbors of i
+     *
+     * @param i One node
+     * @param j The other node
+     * @return true if the nodes are neighbors
+     */
+    public boolean isNeighbor(int i,
+        int j)
+    {
+        return findNeighbor(i, j) >= 0;
+    }
+
+    /**
+     * Returns the source of the input edge id.
+     *
+     * Execution: O(log n)
+     *
+     * @param edgeId The graph's id for the edge
+     * @return the source node
+     */
+    public int getEdgeSource(int edgeId)
+    {
+        int pos = getEdgePosition(edgeId);
+        // Find the last node whose first position is at most pos
+        int lo = 0;
+        int hi = numNodes - 1;
+        while (lo < hi)
+        {
+            int mid = (lo + hi + 1) >>> 1;
+            if (outOffsets[mid] <= pos)
+            {
+                lo = mid;
+            }
+            else
+            {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the destination of the input edge id.
+     *
+     * Execution: O(1)
+     *
+     * @param edgeId The graph's id for the edge
+     * @return the destination node
+     */
+    public int getEdgeTarget(int edgeId)
+    {
+        return outTargets[getEdgePosition(edgeId)];
+    }
+
+    /**
+     * Returns the weight of the input edge id (1 for unweighted graphs).
+     *
+     * Execution: O(1)
+     *
+     * @param edgeId The graph's id for the edge
+     * @return the edge's weight
+     */
+    public double getEdgeWeight(int edgeId)
+    {
+        return getPositionWeight(getEdgePosition(edgeId));
+    }
+
+    /**
+     * Returns the position of the input edge id in the successors arrays.
+     *
+     * @param edgeId The graph's id for the edge
+     * @return the position of the edge
+     */
+    public int getEdgePosition(int edgeId)
+    {
+        return (edgePositions == null) ? edgeId : edgePositions[edgeId];
+    }
+
+    /**
+     * Helper that returns the weight at the input position.
+     *
+     * @param position The edge position
+     * @return the weight (1 if unweighted)
+     */
+    private double getPositionWeight(int position)
+    {
+        return (outWeights == null) ? 1.0 : outWeights[position];
+    }
+
+    /**
+     * Returns the successor offsets (n+1 values). Alter this at your own
+     * risk!
+     *
+     * @return the successor offsets
+     */
+    public int[] getSuccessorOffsets()
+    {
+        return outOffsets;
+    }
+
+    /**
+     * Returns the successors of all nodes in position order. Alter this at
+     * your own risk!
+     *
+     * @return the successors array
+     */
+    public int[] getSuccessors()
+    {
+        return outTargets;
+    }
+
+    /**
+     * Returns the edge weights in position order (or null if unweighted).
+     * Alter this at your own risk!
+     *
+     * @return the edge weights array
+     */
+    public double[] getSuccessorWeights()
+    {
+        return outWeights;
+    }
+
+    /**
+     * Returns the predecessor offsets (n+1 values). Alter this at your own
+     * risk!
+     *
+     * @return the predecessor offsets
+     */
+    public int[] getPredecessorOffsets()
+    {
+        return inOffsets;
+    }
+
+    /**
+     * Returns the predecessors of all nodes. Alter this at your own risk!
+     *
+     * @return the predecessors array
+     */
+    public int[] getPredecessors()
+    {
+        return inSources;
+    }
+
+    /**
+     * Returns the neighbor offsets (n+1 values). Alter this at your own risk!
+     *
+     * @return the neighbor offsets
+     */
+    public int[] getNeighborOffsets()
+    {
+        return neighborOffsets;
+    }
+
+    /**
+     * Returns the undirected neighbors of all nodes. Alter this at your own
+     * risk!
+     *
+     * @return the neighbors array
+     */
+    public int[] getNeighbors()
+    {
+        return neighbors;
+    }
+
+    /**
+     * Returns the summed weights of the undirected neighbors of all nodes.
+     * Alter this at your own risk!
+     *
+     * @return the neighbor weights array
+     */
+    public double[] getNeighborWeights()
+    {
+        return neighborWeights;
+    }
+
+    /**
+     * Packs two non-negative ints into a long that sorts by high then low.
+     *
+     * @param high The more significant value
+     * @param low The less significant value
+     * @return The packed value
+     */
+    private static long pack(int high,
+        int low)
+    {
+        return (((long) high) << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the high int from a packed long.
+     *
+     * @param key The packed value
+     * @return the high int
+     */
+    private static int unpackHigh(long key)
+    {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * Returns the low int from a packed long.
+     *
+     * @param key The packed value
+     * @return the low int
+     */
+    private static int unpackLow(long key)
+    {
+        return (int) key;
+    }
+
+    /**
+     * Returns true if keys[first..last) is in non-decreasing order.
+     *
+     * @param keys The keys to test
+     * @param first The first index (inclusive)
+     * @param last The last index (exclusive)
+     * @return true if sorted
+     */
+    private static boolean isSorted(long[] keys,
+        int first,
+        int last)
+    {
+        for (int i = first + 1; i < last; ++i)
+        {
+            if (keys[i - 1] > keys[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -71,6 +71,12 @@ public class DenseMemoryGraph<NodeNameType>
      */
     private boolean isOptimized;
 
+    /**
+     * The cached compressed copy of the edges. Set to null whenever a node or
+     * edge is added. Storage: O(n + m) when computed.
+     */
+    private transient CompressedGraphSnapshot snapshot;
+
     /**
      * Initializes an empty graph.
      *
@@ -322,6 +328,7 @@ public class DenseMemoryGraph<NodeNameType>
         }
         else
         {
+            snapshot = null;
             int n = nodes.add(node);
             return n;
         }
@@ -342,6 +349,7 @@ public class DenseMemoryGraph<NodeNameType>
         NodeNameType second)
     {
         isOptimized = false;
+        snapshot = null;
         int firstIdx = newNode(first);
         int secondIdx = newNode(second);
 
@@ -537,6 +545,61 @@ public class DenseMemoryGraph<NodeNameType>
         nodes.clear();
         edges.clear();
         isOptimized = true;
+        snapshot = null;
+    }
+
+    /**
+     * Returns the compressed copy of this graph's edges. As the edges are
+     * stored sorted by source then destination, the edge ids are the same in
+     * the snapshot as in this graph. The snapshot is cached until a node or
+     * edge is added.
+     *
+     * Execution: O(n + m) the first time called after the graph changes (in
+     * parallel for large graphs), O(1) after that.
+     *
+     * @return the compressed copy of this graph's edges
+     */
+    @Override
+    synchronized public CompressedGraphSnapshot getCompressedSnapshot()
+    {
+        if (snapshot == null)
+        {
+            optimizeEdges();
+            final int n = getNumNodes();
+            final int m = getNumEdges();
+            final int[] offsets = new int[n + 1];
+            final int[] targets = new int[m];
+            // Since the edges are sorted, the first edge from each node can be
+            // found where the source changes
+            int prev = -1;
+            for (int i = 0; i < m; ++i)
+            {
+                int src = edges.get(2 * i);
+                targets[i] = edges.get(2 * i + 1);
+                while (prev < src)
+                {
+                    offsets[++prev] = i;
+                }
+            }
+            while (prev < n)
+            {
+                offsets[++prev] = m;
+            }
+            snapshot = CompressedGraphSnapshot.create(offsets, targets,
+                getEdgeWeightsArray());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the weights of all edges in edge id order to be stored in the
+     * compressed snapshot, or null if this graph is unweighted.
+     *
+     * @return null as this graph is unweighted
+     */
+    protected double[] getEdgeWeightsArray()
+    {
+        return null;
     }
 
     /**
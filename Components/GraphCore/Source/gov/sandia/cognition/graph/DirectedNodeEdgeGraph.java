@@ -118,4 +118,18 @@ public interface DirectedNodeEdgeGraph<NodeNameType>
      */
     public void clear();
 
+    /**
+     * Returns an immutable, array-based copy of this graph's current edges
+     * for algorithms that walk the graph many times. The default
+     * implementation copies the graph on every call; implementations that can
+     * should cache the snapshot until the graph changes.
+     *
+     * @return A snapshot of the graph's current edges
+     * @since 4.0.0
+     */
+    public default CompressedGraphSnapshot getCompressedSnapshot()
+    {
+        return CompressedGraphSnapshot.create(this);
+    }
+
 }
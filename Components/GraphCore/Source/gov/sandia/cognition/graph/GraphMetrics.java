@@ -14,25 +14,26 @@
 
 package gov.sandia.cognition.graph;
 
+import gov.sandia.cognition.algorithm.ParallelUtil;
 import gov.sandia.cognition.annotation.PublicationReference;
 import gov.sandia.cognition.annotation.PublicationType;
 import gov.sandia.cognition.util.DefaultKeyValuePair;
 import gov.sandia.cognition.collection.DoubleArrayList;
 import gov.sandia.cognition.collection.IntArrayList;
 import gov.sandia.cognition.util.Pair;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
 
 /**
  * This class is intended to allow programmers to get any number of graph
@@ -62,14 +63,21 @@ public class GraphMetrics<NodeNameType>
     private final DirectedNodeEdgeGraph<NodeNameType> graph;
 
     /**
-     * The set of neighbor (undirected) node ids for all nodes in the graph
+     * The compressed copy of the graph's edges. All neighbor (undirected) node
+     * ids are read from this.
      */
-    private List<Set<Integer>> allNodeNeighbors;
+    private CompressedGraphSnapshot snapshot;
 
     /**
-     * The set of successor (directed) node ids for all nodes in the graph
+     * The first index in allNodeSuccessors for each node (Yale format)
      */
-    private List<Set<Integer>> allNodeSuccessors;
+    private int[] allNodeSuccessorsFirstIdx;
+
+    /**
+     * The sorted, distinct successor (directed) node ids for all nodes in the
+     * graph (Yale format)
+     */
+    private int[] allNodeSuccessors;
 
     /**
      * The list of degrees for all nodes in the graph
@@ -104,6 +112,21 @@ public class GraphMetrics<NodeNameType>
      */
     private DoubleArrayList perEdgeTriangleDensity;
 
+    /**
+     * The number of triangles each node is in (counted without storing them)
+     */
+    private long[] perNodeTriangleCount;
+
+    /**
+     * The number of triangles each edge is in (counted without storing them)
+     */
+    private int[] perEdgeTriangleCount;
+
+    /**
+     * The number of triangles in the graph (if computed)
+     */
+    private Long numTriangles;
+
     /**
      * The eccentricities of all nodes in the unweighted graph
      */
@@ -114,12 +137,49 @@ public class GraphMetrics<NodeNameType>
      */
     private DoubleArrayList perNodeBetweenCentrality;
 
-    private int radius;
+    /**
+     * The PageRank of all nodes
+     */
+    private DoubleArrayList perNodePageRank;
 
-    private int diameter;
+    /**
+     * The HITS hub scores of all nodes
+     */
+    private DoubleArrayList perNodeHubScore;
+
+    /**
+     * The HITS authority scores of all nodes
+     */
+    private DoubleArrayList perNodeAuthorityScore;
+
+    /**
+     * The eigenvector centralities of all nodes in the undirected graph
+     */
+    private DoubleArrayList perNodeEigenvectorCentrality;
+
+    /**
+     * The radius (if computed)
+     */
+    private Integer radius;
+
+    /**
+     * The diameter (if computed)
+     */
+    private Integer diameter;
 
     private Boolean isWcc;
 
+    /**
+     * The thread pool for the parallel metrics (null to create one as needed)
+     */
+    private ThreadPoolExecutor threadPool;
+
+    /**
+     * The fewest nodes a graph must have before a temporary thread pool is
+     * created for the parallel metrics.
+     */
+    private static final int MIN_PARALLEL_NODES = 1000;
+
     /**
      * Initialize this as an empty metrics class surrounding the input graph.
      * Note that if you alter the input graph after creating this class, you
@@ -131,7 +191,8 @@ public class GraphMetrics<NodeNameType>
     public GraphMetrics(DirectedNodeEdgeGraph<NodeNameType> graph)
     {
         this.graph = graph;
-        allNodeNeighbors = null;
+        snapshot = null;
+        allNodeSuccessorsFirstIdx = null;
         allNodeSuccessors = null;
         allNodeDegrees = null;
         allNodeTriangles = null;
@@ -139,9 +200,15 @@ public class GraphMetrics<NodeNameType>
         perEdgeJaccardSimilarity = null;
         allEdgeTriangles = null;
         perEdgeTriangleDensity = null;
-        radius = diameter = Integer.MAX_VALUE;
+        perNodeTriangleCount = null;
+        perEdgeTriangleCount = null;
+        numTriangles = null;
+        radius = diameter = null;
         perNodeEccentricity = null;
         perNodeBetweenCentrality = null;
+        perNodePageRank = null;
+        perNodeHubScore = perNodeAuthorityScore = null;
+        perNodeEigenvectorCentrality = null;
         isWcc = null;
     }
 
@@ -154,7 +221,8 @@ public class GraphMetrics<NodeNameType>
      */
     public void clear()
     {
-        allNodeNeighbors = null;
+        snapshot = null;
+        allNodeSuccessorsFirstIdx = null;
         allNodeSuccessors = null;
         allNodeDegrees = null;
         allNodeTriangles = null;
@@ -162,11 +230,34 @@ public class GraphMetrics<NodeNameType>
         perEdgeJaccardSimilarity = null;
         allEdgeTriangles = null;
         perEdgeTriangleDensity = null;
-        radius = diameter = Integer.MAX_VALUE;
+        perNodeTriangleCount = null;
+        perEdgeTriangleCount = null;
+        numTriangles = null;
+        radius = diameter = null;
         perNodeEccentricity = null;
+        perNodeBetweenCentrality = null;
+        perNodePageRank = null;
+        perNodeHubScore = perNodeAuthorityScore = null;
+        perNodeEigenvectorCentrality = null;
         isWcc = null;
     }
 
+    /**
+     * Returns the compressed copy of the graph's edges used by the metrics
+     * herein. O(n+m) on the first call (unless the graph caches it), O(1) for
+     * all later.
+     *
+     * @return the compressed copy of the graph's edges
+     */
+    public CompressedGraphSnapshot getSnapshot()
+    {
+        if (snapshot == null)
+        {
+            snapshot = graph.getCompressedSnapshot();
+        }
+        return snapshot;
+    }
+
     /**
      * Returns the number of nodes in the graph. (O(1) on all calls)
      *
@@ -204,18 +295,12 @@ public class GraphMetrics<NodeNameType>
      */
     public void initializeNodeDegrees()
     {
-        int n = numNodes();
+        CompressedGraphSnapshot s = getSnapshot();
+        int n = s.getNumNodes();
         allNodeDegrees = new IntArrayList(n);
         for (int i = 0; i < n; ++i)
         {
-            allNodeDegrees.add(0);
-        }
-        int m = numEdges();
-        for (int i = 0; i < m; ++i)
-        {
-            Pair<Integer, Integer> edge = graph.getEdgeEndpointIds(i);
-            allNodeDegrees.plusEquals(edge.getFirst(), 1);
-            allNodeDegrees.plusEquals(edge.getSecond(), 1);
+            allNodeDegrees.add(s.getDegree(i));
         }
     }
 
@@ -254,7 +339,7 @@ public class GraphMetrics<NodeNameType>
      */
     private boolean isInitializedNodeNeighbors()
     {
-        return allNodeNeighbors != null;
+        return snapshot != null;
     }
 
     /**
@@ -263,24 +348,7 @@ public class GraphMetrics<NodeNameType>
      */
     public void initializeNodeNeighbors()
     {
-        if (!isInitializedNodeDegrees())
-        {
-            initializeNodeDegrees();
-        }
-        int n = numNodes();
-        allNodeNeighbors = new ArrayList<>(n);
-        for (int i = 0; i < n; ++i)
-        {
-            int di = degree(i);
-            allNodeNeighbors.add(new HashSet<>(di));
-        }
-        int m = numEdges();
-        for (int i = 0; i < m; ++i)
-        {
-            Pair<Integer, Integer> e = graph.getEdgeEndpointIds(i);
-            allNodeNeighbors.get(e.getFirst()).add(e.getSecond());
-            allNodeNeighbors.get(e.getSecond()).add(e.getFirst());
-        }
+        getSnapshot();
     }
 
     /**
@@ -297,7 +365,7 @@ public class GraphMetrics<NodeNameType>
         {
             initializeNodeNeighbors();
         }
-        return allNodeNeighbors.get(nodeId).size();
+        return snapshot.getNumNeighbors(nodeId);
     }
 
     /**
@@ -327,7 +395,8 @@ public class GraphMetrics<NodeNameType>
         {
             initializeNodeNeighbors();
         }
-        return Collections.unmodifiableSet(allNodeNeighbors.get(nodeId));
+        return new SortedIntRangeSet(snapshot.getNeighbors(),
+            snapshot.getNeighborsStart(nodeId), snapshot.getNeighborsEnd(nodeId));
     }
 
     /**
@@ -391,18 +460,29 @@ public class GraphMetrics<NodeNameType>
      */
     public void initializeNodeSuccessors()
     {
-        int n = numNodes();
-        allNodeSuccessors = new ArrayList<>(n);
+        CompressedGraphSnapshot s = getSnapshot();
+        int n = s.getNumNodes();
+        // Each node's successors are sorted in the snapshot, so repeats are
+        // adjacent
+        int[] firstIdx = new int[n + 1];
+        int[] successors = new int[s.getNumEdges()];
+        int cnt = 0;
         for (int i = 0; i < n; ++i)
         {
-            allNodeSuccessors.add(new HashSet<>());
-        }
-        int m = numEdges();
-        for (int i = 0; i < m; ++i)
-        {
-            Pair<Integer, Integer> e = graph.getEdgeEndpointIds(i);
-            allNodeSuccessors.get(e.getFirst()).add(e.getSecond());
+            firstIdx[i] = cnt;
+            for (int j = s.getSuccessorsStart(i); j < s.getSuccessorsEnd(i);
+                ++j)
+            {
+                int succ = s.getSuccessor(j);
+                if (cnt == firstIdx[i] || successors[cnt - 1] != succ)
+                {
+                    successors[cnt++] = succ;
+                }
+            }
         }
+        firstIdx[n] = cnt;
+        allNodeSuccessors = successors;
+        allNodeSuccessorsFirstIdx = firstIdx;
     }
 
     /**
@@ -421,7 +501,8 @@ public class GraphMetrics<NodeNameType>
         {
             initializeNodeSuccessors();
         }
-        return allNodeSuccessors.get(nodeId).size();
+        return allNodeSuccessorsFirstIdx[nodeId + 1]
+            - allNodeSuccessorsFirstIdx[nodeId];
     }
 
     /**
@@ -454,7 +535,9 @@ public class GraphMetrics<NodeNameType>
         {
             initializeNodeSuccessors();
         }
-        return Collections.unmodifiableSet(allNodeSuccessors.get(nodeId));
+        return new SortedIntRangeSet(allNodeSuccessors,
+            allNodeSuccessorsFirstIdx[nodeId],
+            allNodeSuccessorsFirstIdx[nodeId + 1]);
     }
 
     /**
@@ -567,25 +650,12 @@ public class GraphMetrics<NodeNameType>
         {
             nodeOrder.set(degreeList.get(i).getFirst(), i);
         }
-        // Next I need to make a map from edge pairs to edge index
-        Map<Pair<Integer, Integer>, Set<Integer>> edgeMap = new HashMap<>(2 * m);
+        // The edges between a pair of nodes are found by binary search on the
+        // snapshot's sorted successors (instead of a map of edge pairs)
         allEdgeTriangles = new ArrayList<>(m);
         for (int i = 0; i < m; ++i)
         {
-            Pair<Integer, Integer> edge = graph.getEdgeEndpointIds(i);
             allEdgeTriangles.add(new HashSet<>());
-            if (!edgeMap.containsKey(edge))
-            {
-                edgeMap.put(edge, new HashSet<>());
-            }
-            edgeMap.get(edge).add(i);
-            Pair<Integer, Integer> otherOrder = new DefaultKeyValuePair<>(
-                edge.getSecond(), edge.getFirst());
-            if (!edgeMap.containsKey(otherOrder))
-            {
-                edgeMap.put(otherOrder, new HashSet<>());
-            }
-            edgeMap.get(otherOrder).add(i);
         }
         allNodeTriangles = new ArrayList<>(n);
         for (int i = 0; i < n; ++i)
@@ -599,10 +669,11 @@ public class GraphMetrics<NodeNameType>
                 continue;
             }
             int iidx = nodeOrder.get(i);
-            int jcnt = 0;
-            for (Integer neighborj : allNodeNeighbors.get(i))
+            int start = snapshot.getNeighborsStart(i);
+            int end = snapshot.getNeighborsEnd(i);
+            for (int jj = start; jj < end; ++jj)
             {
-                ++jcnt;
+                int neighborj = snapshot.getNeighbor(jj);
                 // Ignore self loops
                 if (i == neighborj)
                 {
@@ -612,24 +683,19 @@ public class GraphMetrics<NodeNameType>
                 {
                     continue;
                 }
-                int kcnt = 0;
-                for (Integer neighbork : allNodeNeighbors.get(i))
+                for (int kk = jj + 1; kk < end; ++kk)
                 {
-                    ++kcnt;
+                    int neighbork = snapshot.getNeighbor(kk);
                     // Ignore self loops
                     if (i == neighbork)
                     {
                         continue;
                     }
-                    if (kcnt <= jcnt)
-                    {
-                        continue;
-                    }
                     if (iidx > nodeOrder.get(neighbork))
                     {
                         continue;
                     }
-                    if (allNodeNeighbors.get(neighborj).contains(neighbork))
+                    if (snapshot.isNeighbor(neighborj, neighbork))
                     {
                         allNodeTriangles.get(i).add(new DefaultKeyValuePair<>(
                             neighborj, neighbork));
@@ -637,28 +703,67 @@ public class GraphMetrics<NodeNameType>
                             new DefaultKeyValuePair<>(i, neighbork));
                         allNodeTriangles.get(neighbork).add(
                             new DefaultKeyValuePair<>(i, neighborj));
-                        Pair<Integer, Integer> edge = new DefaultKeyValuePair<>(
-                            i, neighborj);
-                        for (int edgeId : edgeMap.get(edge))
-                        {
-                            allEdgeTriangles.get(edgeId).add(neighbork);
-                        }
-                        edge = new DefaultKeyValuePair<>(i, neighbork);
-                        for (int edgeId : edgeMap.get(edge))
-                        {
-                            allEdgeTriangles.get(edgeId).add(neighborj);
-                        }
-                        edge = new DefaultKeyValuePair<>(neighborj, neighbork);
-                        for (int edgeId : edgeMap.get(edge))
-                        {
-                            allEdgeTriangles.get(edgeId).add(i);
-                        }
+                        addEdgeTriangle(i, neighborj, neighbork);
+                        addEdgeTriangle(i, neighbork, neighborj);
+                        addEdgeTriangle(neighborj, neighbork, i);
                     }
                 }
             }
         }
     }
 
+    /**
+     * Private helper that adds the third node of a triangle to all edges (in
+     * either direction) between the other two nodes. O(log d + r) where r is
+     * the number of repeated edges between the two nodes.
+     *
+     * @param a One endpoint of the edges
+     * @param b The other endpoint of the edges
+     * @param third The third node in the triangle
+     */
+    private void addEdgeTriangle(int a,
+        int b,
+        int third)
+    {
+        addDirectedEdgeTriangle(a, b, third);
+        if (a != b)
+        {
+            addDirectedEdgeTriangle(b, a, third);
+        }
+    }
+
+    /**
+     * Private helper that adds the third node of a triangle to all edges from
+     * src to dst.
+     *
+     * @param src The source of the edges
+     * @param dst The destination of the edges
+     * @param third The third node in the triangle
+     */
+    private void addDirectedEdgeTriangle(int src,
+        int dst,
+        int third)
+    {
+        int[] successors = snapshot.getSuccessors();
+        int end = snapshot.getSuccessorsEnd(src);
+        int idx = Arrays.binarySearch(successors,
+            snapshot.getSuccessorsStart(src), end, dst);
+        if (idx < 0)
+        {
+            return;
+        }
+        // Back up to the first repeat of this edge
+        while (idx > snapshot.getSuccessorsStart(src)
+            && successors[idx - 1] == dst)
+        {
+            --idx;
+        }
+        for (; idx < end && successors[idx] == dst; ++idx)
+        {
+            allEdgeTriangles.get(snapshot.getSuccessorEdgeId(idx)).add(third);
+        }
+    }
+
     /**
      * Returns the number of triangles the node participates in. Note that this
      * implementation does not permit triangles with only two nodes (where the
@@ -671,11 +776,11 @@ public class GraphMetrics<NodeNameType>
      */
     public int numNodeTriangles(int nodeId)
     {
-        if (!isInitializedNodeTriangles())
+        if (perNodeTriangleCount == null)
         {
-            initializeNodeTriangles();
+            initializeNodeTriangleCounts();
         }
-        return allNodeTriangles.get(nodeId).size();
+        return (int) perNodeTriangleCount[nodeId];
     }
 
     /**
@@ -693,6 +798,136 @@ public class GraphMetrics<NodeNameType>
         return numNodeTriangles(graph.getNodeId(nodeName));
     }
 
+    /**
+     * Initializes the number of triangles each node is in, without storing
+     * the triangles themselves (see TriangleCounting). This is much faster
+     * and smaller than initializeNodeTriangles when only the counts are
+     * needed.
+     */
+    public void initializeNodeTriangleCounts()
+    {
+        final CompressedGraphSnapshot g = getSnapshot();
+        perNodeTriangleCount = runWithThreadPool(
+            (pool) -> TriangleCounting.countNodeTriangles(g, pool));
+    }
+
+    /**
+     * Initializes the number of triangles each edge is in, without storing
+     * the triangles themselves (see TriangleCounting).
+     */
+    public void initializeEdgeTriangleCounts()
+    {
+        final CompressedGraphSnapshot g = getSnapshot();
+        perEdgeTriangleCount = runWithThreadPool(
+            (pool) -> TriangleCounting.countEdgeTriangles(g, pool));
+    }
+
+    /**
+     * Returns the number of triangles in the whole graph (with the same rules
+     * as numNodeTriangles). O(m^(3/2)) for the first call, O(1) for later
+     * calls.
+     *
+     * @return The number of triangles in the graph
+     */
+    public long numTriangles()
+    {
+        if (numTriangles == null)
+        {
+            if (perNodeTriangleCount != null)
+            {
+                long sum = 0;
+                for (long cnt : perNodeTriangleCount)
+                {
+                    sum += cnt;
+                }
+                numTriangles = sum / 3;
+            }
+            else
+            {
+                final CompressedGraphSnapshot g = getSnapshot();
+                numTriangles = runWithThreadPool(
+                    (pool) -> TriangleCounting.countTriangles(g, pool));
+            }
+        }
+        return numTriangles;
+    }
+
+    /**
+     * Returns the local clustering coefficient of the input node: the
+     * fraction of pairs of its neighbors that are neighbors themselves (0 if
+     * it has fewer than two neighbors). O(m^(3/2)) for the first call to any
+     * triangle count method, O(1) for later calls.
+     *
+     * @param nodeId The node whose clustering coefficient is requested
+     * @return The local clustering coefficient of the node
+     */
+    public double getLocalClusteringCoefficientById(int nodeId)
+    {
+        if (perNodeTriangleCount == null)
+        {
+            initializeNodeTriangleCounts();
+        }
+        CompressedGraphSnapshot s = getSnapshot();
+        long d = s.getNumNeighbors(nodeId) - (s.isNeighbor(nodeId, nodeId) ? 1
+            : 0);
+        if (d < 2)
+        {
+            return 0;
+        }
+        return (2.0 * perNodeTriangleCount[nodeId]) / (d * (d - 1));
+    }
+
+    /**
+     * Returns the local clustering coefficient of the input node: the
+     * fraction of pairs of its neighbors that are neighbors themselves (0 if
+     * it has fewer than two neighbors). O(m^(3/2)) for the first call to any
+     * triangle count method, O(1) for later calls.
+     *
+     * @param nodeName The node whose clustering coefficient is requested
+     * @return The local clustering coefficient of the node
+     */
+    public double getLocalClusteringCoefficient(NodeNameType nodeName)
+    {
+        return getLocalClusteringCoefficientById(graph.getNodeId(nodeName));
+    }
+
+    /**
+     * Returns the mean of all nodes' local clustering coefficients.
+     * O(m^(3/2)) for the first call to any triangle count method, O(n) for
+     * later calls.
+     *
+     * @return The average local clustering coefficient
+     */
+    public double getAverageClusteringCoefficient()
+    {
+        if (perNodeTriangleCount == null)
+        {
+            initializeNodeTriangleCounts();
+        }
+        double sum = 0;
+        for (double c : TriangleCounting.computeLocalClusteringCoefficients(
+            getSnapshot(), perNodeTriangleCount))
+        {
+            sum += c;
+        }
+        return sum / numNodes();
+    }
+
+    /**
+     * Returns the global clustering coefficient (transitivity): three times
+     * the number of triangles over the number of paths of length two.
+     * O(m^(3/2)) for the first call to any triangle count method, O(n) for
+     * later calls.
+     *
+     * @return The global clustering coefficient
+     */
+    public double getGlobalClusteringCoefficient()
+    {
+        long cnt = numTriangles();
+        return TriangleCounting.computeGlobalClusteringCoefficient(
+            getSnapshot(), cnt);
+    }
+
     /**
      * Returns the other two endpoint ids for all triangles the node
      * participates in. Note that this implementation does not permit triangles
@@ -802,15 +1037,18 @@ public class GraphMetrics<NodeNameType>
         double numerProduct, normalizeSum, normalizeSumSquares;
         numerProduct = normalizeSum = normalizeSumSquares = 0;
         boolean allDegreesEqual = true;
-        for (int i = 0; i < m; ++i)
+        CompressedGraphSnapshot s = getSnapshot();
+        for (int u = 0; u < s.getNumNodes(); ++u)
         {
-            Pair<Integer, Integer> edge = graph.getEdgeEndpointIds(i);
-            double di = degree(edge.getFirst());
-            double dj = degree(edge.getSecond());
-            allDegreesEqual &= (di == dj);
-            numerProduct += di * dj;
-            normalizeSum += di + dj;
-            normalizeSumSquares += di * di + dj * dj;
+            double di = degree(u);
+            for (int i = s.getSuccessorsStart(u); i < s.getSuccessorsEnd(u); ++i)
+            {
+                double dj = degree(s.getSuccessor(i));
+                allDegreesEqual &= (di == dj);
+                numerProduct += di * dj;
+                normalizeSum += di + dj;
+                normalizeSumSquares += di * di + dj * dj;
+            }
         }
         // Special case can lead to degeneracies... specifically, if all not only
         // have the same degree on both sides of all edges, but that all nodes
@@ -868,20 +1106,58 @@ public class GraphMetrics<NodeNameType>
             initializeNodeNeighbors();
         }
         int m = numEdges();
-        perEdgeJaccardSimilarity = new DoubleArrayList(m);
-        for (int i = 0; i < m; ++i)
+        perEdgeJaccardSimilarity = DoubleArrayList.zeros(m);
+        for (int src = 0; src < snapshot.getNumNodes(); ++src)
+        {
+            int iSize = snapshot.getNumNeighbors(src);
+            for (int i = snapshot.getSuccessorsStart(src);
+                i < snapshot.getSuccessorsEnd(src); ++i)
+            {
+                int dst = snapshot.getSuccessor(i);
+                int jSize = snapshot.getNumNeighbors(dst);
+                int intersectSize = countCommonNeighbors(src, dst);
+                perEdgeJaccardSimilarity.set(snapshot.getSuccessorEdgeId(i),
+                    ((double) intersectSize) / ((double) (iSize + jSize
+                    - intersectSize)));
+            }
+        }
+    }
+
+    /**
+     * Private helper that counts the neighbors two nodes share by merging
+     * their sorted neighbor lists. O(d_i + d_j)
+     *
+     * @param i One node
+     * @param j The other node
+     * @return The number of neighbors shared by i and j
+     */
+    private int countCommonNeighbors(int i,
+        int j)
+    {
+        int[] neighbors = snapshot.getNeighbors();
+        int ii = snapshot.getNeighborsStart(i);
+        int iEnd = snapshot.getNeighborsEnd(i);
+        int jj = snapshot.getNeighborsStart(j);
+        int jEnd = snapshot.getNeighborsEnd(j);
+        int cnt = 0;
+        while (ii < iEnd && jj < jEnd)
         {
-            Pair<Integer, Integer> edge = graph.getEdgeEndpointIds(i);
-            Set<Integer> iNeighbors = new HashSet<>(
-                neighborIds(edge.getFirst()));
-            Set<Integer> jNeighbors = neighborIds(edge.getSecond());
-            int iSize = iNeighbors.size();
-            int jSize = jNeighbors.size();
-            iNeighbors.retainAll(jNeighbors);
-            int intersectSize = iNeighbors.size();
-            perEdgeJaccardSimilarity.add(((double) intersectSize)
-                / ((double) (iSize + jSize - intersectSize)));
+            if (neighbors[ii] < neighbors[jj])
+            {
+                ++ii;
+            }
+            else if (neighbors[ii] > neighbors[jj])
+            {
+                ++jj;
+            }
+            else
+            {
+                ++cnt;
+                ++ii;
+                ++jj;
+            }
         }
+        return cnt;
     }
 
     /**
@@ -933,11 +1209,11 @@ public class GraphMetrics<NodeNameType>
      */
     public int numEdgeTriangles(int edgeId)
     {
-        if (!isInitializedEdgeTriangles())
+        if (perEdgeTriangleCount == null)
         {
-            initializeEdgeTriangles();
+            initializeEdgeTriangleCounts();
         }
-        return allEdgeTriangles.get(edgeId).size();
+        return perEdgeTriangleCount[edgeId];
     }
 
     /**
@@ -998,9 +1274,9 @@ public class GraphMetrics<NodeNameType>
      */
     public void initializePerEdgeTriangleDensity()
     {
-        if (!isInitializedEdgeTriangles())
+        if (perEdgeTriangleCount == null)
         {
-            initializeEdgeTriangles();
+            initializeEdgeTriangleCounts();
         }
         if (!isInitializedNodeDegrees())
         {
@@ -1008,15 +1284,19 @@ public class GraphMetrics<NodeNameType>
         }
 
         int m = numEdges();
-        perEdgeTriangleDensity = new DoubleArrayList(m);
-        for (int i = 0; i < m; ++i)
+        perEdgeTriangleDensity = DoubleArrayList.zeros(m);
+        CompressedGraphSnapshot s = getSnapshot();
+        for (int u = 0; u < s.getNumNodes(); ++u)
         {
-            Pair<Integer, Integer> edge = graph.getEdgeEndpointIds(i);
-            int di = degree(edge.getFirst());
-            int dj = degree(edge.getSecond());
-            double density = (2.0 * numEdgeTriangles(i)) / ((double) (di + dj
-                - 2));
-            perEdgeTriangleDensity.add(density);
+            int di = degree(u);
+            for (int i = s.getSuccessorsStart(u); i < s.getSuccessorsEnd(u); ++i)
+            {
+                int dj = degree(s.getSuccessor(i));
+                int edgeId = s.getSuccessorEdgeId(i);
+                double density = (2.0 * numEdgeTriangles(edgeId))
+                    / ((double) (di + dj - 2));
+                perEdgeTriangleDensity.set(edgeId, density);
+            }
         }
     }
 
@@ -1046,7 +1326,11 @@ public class GraphMetrics<NodeNameType>
     }
 
     /**
-     * Initializes the per-node eccentricity.
+     * Initializes the per-node eccentricity. Rather than searching from every
+     * node, this bounds each node's eccentricity from the searches run so far
+     * and only searches from nodes whose bounds haven't met. The searches run
+     * 64 sources at a time on the metrics' thread pool (see
+     * MultiSourceBreadthFirstSearch).
      */
     @PublicationReference(author = "Frank W. Takes and Walter A. Kosters", title
         = "Computing the Eccentricity Distribution of Large Graphs", type
@@ -1058,137 +1342,94 @@ public class GraphMetrics<NodeNameType>
         url = "http://www.mdpi.com/1999-4893/6/1/100")
     public void initializePerNodeEccentricity()
     {
-        if (!isInitializedNodeNeighbors())
+        final CompressedGraphSnapshot s = getSnapshot();
+        int[] eccentricities = runWithThreadPool((pool)
+            -> MultiSourceBreadthFirstSearch.computeAllEccentricities(s, pool));
+        int n = eccentricities.length;
+        perNodeEccentricity = new IntArrayList(n);
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int e : eccentricities)
         {
-            initializeNodeNeighbors();
+            perNodeEccentricity.add(e);
+            min = Math.min(min, e);
+            max = Math.max(max, e);
         }
-        if (!isInitializedNodeDegrees())
+        if (isWcc == null)
         {
-            initializeNodeDegrees();
+            initializeIsWcc();
         }
+        radius = isWcc ? min : Integer.MAX_VALUE;
+        diameter = isWcc ? max : Integer.MAX_VALUE;
+    }
 
+    /**
+     * Private helper that determines if the graph is a single weakly connected
+     * component with one search.
+     */
+    private void initializeIsWcc()
+    {
         int n = numNodes();
-        perNodeEccentricity = new IntArrayList(n);
-        int[] minEccentricity = new int[n];
-        int[] maxEccentricity = new int[n];
-        radius = Integer.MAX_VALUE;
-        diameter = Integer.MIN_VALUE;
-        isWcc = true;
-        Set<Integer> unvisitedNodes = new HashSet<>(n);
-        // Initialize all values
-        for (int i = 0; i < n; ++i)
+        if (n == 0)
         {
-            perNodeEccentricity.add(Integer.MAX_VALUE);
-            minEccentricity[i] = Integer.MIN_VALUE;
-            maxEccentricity[i] = Integer.MAX_VALUE;
-            // I'll handle degree 1 nodes elsewhere
-            if (degree(i) > 1)
-            {
-                unvisitedNodes.add(i);
-            }
-        }
-        // Handle special cases and get out of here
-        if (n == 1)
-        {
-            perNodeEccentricity.set(0, 0);
+            isWcc = true;
+            return;
         }
-        else if (n == 2)
+        int[] distances = computeAllDistancesForNode(0);
+        isWcc = true;
+        for (int d : distances)
         {
-            if (numEdges() >= 1)
+            if (d == Integer.MAX_VALUE)
             {
-                perNodeEccentricity.set(0, 1);
-                perNodeEccentricity.set(1, 1);
+                isWcc = false;
+                break;
             }
         }
+    }
 
-        while (!unvisitedNodes.isEmpty())
+    /**
+     * Computes the radius without computing every node's eccentricity: nodes
+     * are dropped once their eccentricity's lower bound can't beat the
+     * smallest eccentricity found so far. If the per-node eccentricity has
+     * already been initialized, this isn't necessary.
+     */
+    public void initializeRadius()
+    {
+        if (isWcc == null)
         {
-            // Can't keep the iterator as I'll possibly be removing other nodes during this pass
-            int v = unvisitedNodes.iterator().next();
-            unvisitedNodes.remove(v);
-            int[] allDistances = computeAllDistancesForNode(v);
-            int e_v = 0;
-            for (int j = 0; j < n; ++j)
-            {
-                if (allDistances[j] == Integer.MAX_VALUE)
-                {
-                    isWcc = false;
-                    continue;
-                }
-                e_v = Math.max(e_v, allDistances[j]);
-            }
-            if (e_v > maxEccentricity[v] || e_v < minEccentricity[v])
-            {
-                throw new RuntimeException(
-                    "This should be impossible.  Please report bug.");
-            }
-            perNodeEccentricity.set(v, e_v);
-            radius = Math.min(radius, e_v);
-            diameter = Math.max(diameter, e_v);
-            for (int neighbor : neighborIds(v))
-            {
-                // Ignore self loops
-                if (neighbor == v)
-                {
-                    continue;
-                }
-                if (degree(neighbor) == 1)
-                {
-                    perNodeEccentricity.set(neighbor, e_v + 1);
-                    diameter = Math.max(diameter, e_v + 1);
-                }
-            }
-            for (Iterator<Integer> iter = unvisitedNodes.iterator();
-                iter.hasNext();)
-            {
-                int node = iter.next();
-                // No way to update for unreachable nodes
-                if (allDistances[node] == Integer.MAX_VALUE)
-                {
-                    continue;
-                }
-
-                minEccentricity[node] = Math.max(minEccentricity[node],
-                    Math.max(e_v - allDistances[node], allDistances[node]));
-                maxEccentricity[node] = Math.min(maxEccentricity[node], e_v
-                    + allDistances[node]);
-                if (minEccentricity[node] == maxEccentricity[node])
-                {
-                    perNodeEccentricity.set(node, minEccentricity[node]);
-                    radius = Math.min(radius, minEccentricity[node]);
-                    diameter = Math.max(diameter, minEccentricity[node]);
-                    iter.remove();
-                }
-            }
+            initializeIsWcc();
+        }
+        if (!isWcc)
+        {
+            radius = Integer.MAX_VALUE;
+            return;
         }
+        final CompressedGraphSnapshot s = getSnapshot();
+        radius = runWithThreadPool((pool)
+            -> MultiSourceBreadthFirstSearch.computeRadius(s, pool));
+    }
 
-        for (int i = 0; i < perNodeEccentricity.size(); ++i)
+    /**
+     * Computes the diameter with iFUB (see
+     * MultiSourceBreadthFirstSearch.computeDiameter), which usually needs
+     * searches from only a few nodes on the fringe of the graph. If the
+     * per-node eccentricity has already been initialized, this isn't
+     * necessary.
+     */
+    public void initializeDiameter()
+    {
+        if (isWcc == null)
         {
-            // This node was never visited
-            if (perNodeEccentricity.get(i) == Integer.MAX_VALUE)
-            {
-                // In this case, it's in a 2-node disconnected barbell
-                if ((degree(i) == 1) && (neighborIds(i).iterator().next() != i))
-                {
-                    perNodeEccentricity.set(i, 1);
-                    continue;
-                }
-                // In this case, it's in a 1-node spot
-                if (degree(i) == 0)
-                {
-                    perNodeEccentricity.set(i, 0);
-                    continue;
-                }
-                throw new RuntimeException("Found node " + i + " has degree "
-                    + degree(i) + ", but never visited?  Please report bug "
-                    + "with this exception and example graph");
-            }
+            initializeIsWcc();
         }
         if (!isWcc)
         {
-            radius = Integer.MAX_VALUE;
             diameter = Integer.MAX_VALUE;
+            return;
         }
+        final CompressedGraphSnapshot s = getSnapshot();
+        diameter = runWithThreadPool((pool)
+            -> MultiSourceBreadthFirstSearch.computeDiameter(s, pool));
     }
 
     /**
@@ -1206,86 +1447,29 @@ public class GraphMetrics<NodeNameType>
         = "https://en.wikipedia.org/wiki/Dijkstra%27s_algorithm", year = 2016)
     public int[] computeAllDistancesForNode(int nodeId)
     {
-        PriorityQueue<Pair<Integer, Integer>> queue = new PriorityQueue<>(
-            new Comparator<Pair<Integer, Integer>>()
-        {
-            @Override
-            public int compare(Pair<Integer, Integer> o1,
-                Pair<Integer, Integer> o2)
-            {
-                return Integer.compare(o1.getSecond(), o2.getSecond());
-            }
-
-        });
-        int n = numNodes();
+        CompressedGraphSnapshot s = getSnapshot();
+        int n = s.getNumNodes();
         int[] allDistances = new int[n];
-        boolean[] allDone = new boolean[n];
-        for (int i = 0; i < n; ++i)
+        Arrays.fill(allDistances, Integer.MAX_VALUE);
+        // As all edges cost 1, nodes leave the queue in order of distance, so
+        // a first-in-first-out array serves as Dijkstra's priority queue
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        allDistances[nodeId] = 0;
+        queue[tail++] = nodeId;
+        while (head < tail)
         {
-            allDistances[i] = Integer.MAX_VALUE;
-            allDone[i] = false;
-        }
-        int current = nodeId;
-        allDistances[current] = 0;
-        queue.add(new DefaultKeyValuePair<>(current, allDistances[current]));
-
-        while (!queue.isEmpty())
-        {
-            Pair<Integer, Integer> curr = queue.poll();
-            // Skip those that were already done (but left in their old positions to speed up computation)
-            // Combined with the block commented code below, this is a departure from the algorithm
-            while (allDone[curr.getFirst()])
-            {
-                if (queue.isEmpty())
-                {
-                    break;
-                }
-                curr = queue.poll();
-            }
-            if (queue.isEmpty() && allDone[curr.getFirst()])
-            {
-                break;
-            }
-
-            // Mark this one as done, now
-            allDone[curr.getFirst()] = true;
-
-            int newLen = curr.getSecond() + 1;
-            for (int neighbor : neighborIds(curr.getFirst()))
+            int curr = queue[head++];
+            int newLen = allDistances[curr] + 1;
+            for (int j = s.getNeighborsStart(curr); j < s.getNeighborsEnd(curr);
+                ++j)
             {
+                int neighbor = s.getNeighbor(j);
                 if (allDistances[neighbor] == Integer.MAX_VALUE)
                 {
                     allDistances[neighbor] = newLen;
-                    queue.add(new DefaultKeyValuePair<>(neighbor,
-                        allDistances[neighbor]));
-                }
-                // We want to do this only if it will improve the result
-                else if (allDistances[neighbor] > newLen)
-                {
-                    // NOTE: I don't need to remove it if I simply throw out extra copies of a node found later (see allDone variable)
-                    // This code preserved as a long comment as it's a slight departure from the algorithm in the paper
-                    // 
-                    // Need to remove it from the queue and this is unfortunately O(n)
-                    // boolean found = false;
-                    // for (Iterator<Pair<Integer, Integer>> iter
-                    //     = queue.iterator(); iter.hasNext();)
-                    // {
-                    //     Pair<Integer, Integer> v = iter.next();
-                    //     if (v.getFirst().equals(neighbor))
-                    //     {
-                    //         iter.remove();
-                    //         found = true;
-                    //     }
-                    // }
-                    // if (!found)
-                    // {
-                    //     throw new RuntimeException("Unable to find a node that "
-                    //         + "was added to the queue, but not removed.  Please "
-                    //         + "report this bug");
-                    // }
-                    allDistances[neighbor] = newLen;
-                    queue.add(new DefaultKeyValuePair<>(neighbor,
-                        allDistances[neighbor]));
+                    queue[tail++] = neighbor;
                 }
             }
         }
@@ -1332,9 +1516,9 @@ public class GraphMetrics<NodeNameType>
      */
     public int getRadius()
     {
-        if (!isInitializedPerNodeEccentricity())
+        if (radius == null)
         {
-            initializePerNodeEccentricity();
+            initializeRadius();
         }
         return radius;
     }
@@ -1348,9 +1532,9 @@ public class GraphMetrics<NodeNameType>
      */
     public int getDiameter()
     {
-        if (!isInitializedPerNodeEccentricity())
+        if (diameter == null)
         {
-            initializePerNodeEccentricity();
+            initializeDiameter();
         }
         return diameter;
     }
@@ -1363,9 +1547,9 @@ public class GraphMetrics<NodeNameType>
      */
     public boolean isWcc()
     {
-        if (!isInitializedPerNodeEccentricity())
+        if (isWcc == null)
         {
-            initializePerNodeEccentricity();
+            initializeIsWcc();
         }
         return isWcc;
     }
@@ -1382,7 +1566,9 @@ public class GraphMetrics<NodeNameType>
     }
 
     /**
-     * Initializes the per-node eccentricity.
+     * Initializes the exact per-node betweenness centrality for all nodes with
+     * Brandes' algorithm, split across the threads of the thread pool.
+     * O(nm / t) for t threads.
      */
     @PublicationReference(author = "Ulrik Brandes", title
         = "A Faster Algorithm for Betweenness Centrality", type
@@ -1393,80 +1579,140 @@ public class GraphMetrics<NodeNameType>
         })
     public void initializePerNodeBetweennessCentrality()
     {
-        int n = numNodes();
+        final CompressedGraphSnapshot g = getSnapshot();
+        setBetweennessCentrality(runWithThreadPool(
+            (pool) -> BetweennessCentrality.computeExact(g, pool)));
+    }
+
+    /**
+     * Initializes an estimate of the per-node betweenness centrality for all
+     * nodes by running Brandes' algorithm from numSources randomly sampled
+     * sources. If numSources is at least the number of nodes, this computes
+     * the exact values. O(km / t) for k sources and t threads.
+     *
+     * @param numSources The number of sources to sample
+     * @param random The random number generator to use
+     */
+    public void initializePerNodeBetweennessCentrality(final int numSources,
+        final Random random)
+    {
+        final CompressedGraphSnapshot g = getSnapshot();
+        setBetweennessCentrality(runWithThreadPool(
+            (pool) -> BetweennessCentrality.computeSampledSources(g,
+                numSources, random, pool)));
+    }
+
+    /**
+     * Initializes an estimate of the per-node betweenness centrality for all
+     * nodes with the Riondato-Kornaropoulos shortest-path sampler. With
+     * probability at least 1 - delta, each node's estimate is within epsilon
+     * of its true value, where the values are normalized by the n(n-1)
+     * ordered pairs of nodes. (The values returned herein are normalized by
+     * pairs not including each node, so the bound becomes 2n epsilon / (n -
+     * 2).)
+     *
+     * @param epsilon The maximum additive error (in (0, 1))
+     * @param delta The probability of exceeding the error (in (0, 1))
+     * @param random The random number generator to use
+     */
+    public void initializeApproximatePerNodeBetweennessCentrality(
+        final double epsilon,
+        final double delta,
+        final Random random)
+    {
+        final CompressedGraphSnapshot g = getSnapshot();
+        setBetweennessCentrality(runWithThreadPool(
+            (pool) -> BetweennessCentrality.computeRiondatoKornaropoulos(g,
+                epsilon, delta, random, pool)));
+    }
+
+    /**
+     * Private helper that normalizes and stores the betweenness sums.
+     *
+     * @param sums The sum of dependencies for each node (over ordered pairs)
+     */
+    private void setBetweennessCentrality(double[] sums)
+    {
+        int n = sums.length;
         perNodeBetweenCentrality = new DoubleArrayList(n);
+        // Different from paper, but see https://en.wikipedia.org/wiki/Betweenness_centrality
+        // Normalize by number of pairs not including each node
+        double normalizeBy = 2.0 / (((double) n - 1) * (n - 2));
         for (int i = 0; i < n; ++i)
         {
-            perNodeBetweenCentrality.add(0);
+            perNodeBetweenCentrality.add(normalizeBy * sums[i]);
         }
-        List<List<Integer>> P = new ArrayList<>();
-        Queue<Integer> Q = new LinkedList<>();
-        Stack<Integer> S = new Stack<>();
-        double[] sigma = new double[n];
-        double[] d = new double[n];
-        double[] delta = new double[n];
-        for (int s = 0; s < n; ++s)
+    }
+
+    /**
+     * Private helper that copies the input values into a new list.
+     *
+     * @param values The values to copy
+     * @return A list holding the values
+     */
+    private static DoubleArrayList toDoubleArrayList(double[] values)
+    {
+        DoubleArrayList ret = new DoubleArrayList(values.length);
+        for (double value : values)
         {
-            S.clear();
-            P.clear();
-            for (int j = 0; j < n; ++j)
-            {
-                P.add(new ArrayList<>());
-                sigma[j] = 0;
-                d[j] = -1;
-            }
-            sigma[s] = 1;
-            d[s] = 0;
-            Q.clear();
-            Q.add(s);
-            while (!Q.isEmpty())
-            {
-                int v = Q.remove();
-                S.push(v);
-                for (int w : neighborIds(v))
-                {
-                    // w found for the first time?
-                    if (d[w] < 0)
-                    {
-                        Q.add(w);
-                        d[w] = d[v] + 1;
-                    }
-                    // shortest path to w via v?
-                    if (d[w] == (d[v] + 1))
-                    {
-                        sigma[w] += sigma[v];
-                        P.get(w).add(v);
-                    }
-                }
-            }
-            for (int i = 0; i < n; ++i)
-            {
-                delta[i] = 0;
-            }
-            // S returns vertices in order of non-increasing distance from s
-            while (!S.isEmpty())
-            {
-                int w = S.pop();
-                for (int v : P.get(w))
-                {
-                    delta[v] += (sigma[v] / sigma[w]) * (1 + delta[w]);
-                }
-                if (w != s)
-                {
-                    perNodeBetweenCentrality.plusEquals(w, delta[w]);
-                }
-            }
+            ret.add(value);
         }
-        // Different from paper, but see https://en.wikipedia.org/wiki/Betweenness_centrality
-        // Normalize by number of pairs not including each node
-        double normalizeBy = 2.0 / ((n - 1) * (n - 2));
-        for (int i = 0; i < n; ++i)
+        return ret;
+    }
+
+    /**
+     * Private helper that runs the input computation with this class's thread
+     * pool. If the thread pool hasn't been set, a temporary one is used for
+     * graphs that are large enough to benefit.
+     *
+     * @param <ResultType> The type of the computation's result
+     * @param computation The computation to run
+     * @return The result of the computation
+     */
+    private <ResultType> ResultType runWithThreadPool(
+        Function<ThreadPoolExecutor, ResultType> computation)
+    {
+        if (threadPool != null)
+        {
+            return computation.apply(threadPool);
+        }
+        if (numNodes() < MIN_PARALLEL_NODES)
+        {
+            return computation.apply(null);
+        }
+        ThreadPoolExecutor pool = ParallelUtil.createThreadPool();
+        try
         {
-            perNodeBetweenCentrality.set(i, normalizeBy
-                * perNodeBetweenCentrality.get(i));
+            return computation.apply(pool);
+        }
+        finally
+        {
+            pool.shutdown();
         }
     }
 
+    /**
+     * Returns the thread pool used by the parallel metrics (or null if a
+     * temporary one is created as needed).
+     *
+     * @return the thread pool
+     */
+    public ThreadPoolExecutor getThreadPool()
+    {
+        return threadPool;
+    }
+
+    /**
+     * Sets the thread pool used by the parallel metrics. If null, a temporary
+     * one is created for each parallel computation on large enough graphs.
+     *
+     * @param threadPool the thread pool
+     */
+    public void setThreadPool(ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
     /**
      * Returns the per-node betweenness centrality for the input node
      *
@@ -1497,4 +1743,252 @@ public class GraphMetrics<NodeNameType>
         return perNodeBetweenCentrality.get(graph.getNodeId(node));
     }
 
+    /**
+     * Initializes the PageRank of all nodes with the default damping (0.85)
+     * and convergence settings.
+     */
+    public void initializePerNodePageRank()
+    {
+        initializePerNodePageRank(SpectralCentrality.DEFAULT_DAMPING,
+            SpectralCentrality.DEFAULT_TOLERANCE,
+            SpectralCentrality.DEFAULT_MAX_ITERATIONS, false);
+    }
+
+    /**
+     * Initializes the PageRank of all nodes. See
+     * SpectralCentrality.computePageRank for details.
+     *
+     * @param damping The probability of following an edge (in [0, 1))
+     * @param tolerance Stop once the L1 change in an iteration is below this
+     * @param maxIterations The most iterations to run
+     * @param gaussSeidel True to update values in place (usually converges in
+     * fewer iterations)
+     */
+    public void initializePerNodePageRank(final double damping,
+        final double tolerance,
+        final int maxIterations,
+        final boolean gaussSeidel)
+    {
+        final CompressedGraphSnapshot g = getSnapshot();
+        perNodePageRank = toDoubleArrayList(runWithThreadPool(
+            (pool) -> SpectralCentrality.computePageRank(g, damping, tolerance,
+                maxIterations, gaussSeidel, pool)));
+    }
+
+    /**
+     * Returns the PageRank for the input node
+     *
+     * @param nodeId The node whose PageRank is requested
+     * @return the PageRank for the input node
+     */
+    public double getPerNodePageRankById(int nodeId)
+    {
+        if (perNodePageRank == null)
+        {
+            initializePerNodePageRank();
+        }
+        return perNodePageRank.get(nodeId);
+    }
+
+    /**
+     * Returns the PageRank for the input node
+     *
+     * @param node The node whose PageRank is requested
+     * @return the PageRank for the input node
+     */
+    public double getPerNodePageRank(NodeNameType node)
+    {
+        return getPerNodePageRankById(graph.getNodeId(node));
+    }
+
+    /**
+     * Initializes the HITS hub and authority scores of all nodes.
+     */
+    public void initializePerNodeHits()
+    {
+        final CompressedGraphSnapshot g = getSnapshot();
+        double[][] scores = runWithThreadPool((pool)
+            -> SpectralCentrality.computeHits(g,
+                SpectralCentrality.DEFAULT_TOLERANCE,
+                SpectralCentrality.DEFAULT_MAX_ITERATIONS, pool));
+        perNodeHubScore = toDoubleArrayList(scores[0]);
+        perNodeAuthorityScore = toDoubleArrayList(scores[1]);
+    }
+
+    /**
+     * Returns the HITS hub score for the input node
+     *
+     * @param nodeId The node whose hub score is requested
+     * @return the hub score for the input node
+     */
+    public double getPerNodeHubScoreById(int nodeId)
+    {
+        if (perNodeHubScore == null)
+        {
+            initializePerNodeHits();
+        }
+        return perNodeHubScore.get(nodeId);
+    }
+
+    /**
+     * Returns the HITS hub score for the input node
+     *
+     * @param node The node whose hub score is requested
+     * @return the hub score for the input node
+     */
+    public double getPerNodeHubScore(NodeNameType node)
+    {
+        return getPerNodeHubScoreById(graph.getNodeId(node));
+    }
+
+    /**
+     * Returns the HITS authority score for the input node
+     *
+     * @param nodeId The node whose authority score is requested
+     * @return the authority score for the input node
+     */
+    public double getPerNodeAuthorityScoreById(int nodeId)
+    {
+        if (perNodeAuthorityScore == null)
+        {
+            initializePerNodeHits();
+        }
+        return perNodeAuthorityScore.get(nodeId);
+    }
+
+    /**
+     * Returns the HITS authority score for the input node
+     *
+     * @param node The node whose authority score is requested
+     * @return the authority score for the input node
+     */
+    public double getPerNodeAuthorityScore(NodeNameType node)
+    {
+        return getPerNodeAuthorityScoreById(graph.getNodeId(node));
+    }
+
+    /**
+     * Initializes the eigenvector centrality of all nodes (treating the graph
+     * as undirected).
+     */
+    public void initializePerNodeEigenvectorCentrality()
+    {
+        final CompressedGraphSnapshot g = getSnapshot();
+        perNodeEigenvectorCentrality = toDoubleArrayList(runWithThreadPool(
+            (pool) -> SpectralCentrality.computeEigenvectorCentrality(g,
+                SpectralCentrality.DEFAULT_TOLERANCE,
+                SpectralCentrality.DEFAULT_MAX_ITERATIONS, pool)));
+    }
+
+    /**
+     * Returns the eigenvector centrality for the input node
+     *
+     * @param nodeId The node whose eigenvector centrality is requested
+     * @return the eigenvector centrality for the input node
+     */
+    public double getPerNodeEigenvectorCentralityById(int nodeId)
+    {
+        if (perNodeEigenvectorCentrality == null)
+        {
+            initializePerNodeEigenvectorCentrality();
+        }
+        return perNodeEigenvectorCentrality.get(nodeId);
+    }
+
+    /**
+     * Returns the eigenvector centrality for the input node
+     *
+     * @param node The node whose eigenvector centrality is requested
+     * @return the eigenvector centrality for the input node
+     */
+    public double getPerNodeEigenvectorCentrality(NodeNameType node)
+    {
+        return getPerNodeEigenvectorCentralityById(graph.getNodeId(node));
+    }
+
+    /**
+     * Read-only set view over a sorted, duplicate-free range of an int array.
+     * This allows the neighbor and successor methods to return Sets without
+     * boxing or hashing every id. Contains is O(log d).
+     */
+    private static class SortedIntRangeSet
+        extends AbstractSet<Integer>
+    {
+
+        /**
+         * The array containing the values
+         */
+        private final int[] values;
+
+        /**
+         * The first index of this set in values
+         */
+        private final int start;
+
+        /**
+         * One past the last index of this set in values
+         */
+        private final int end;
+
+        /**
+         * Creates a view over values[start..end)
+         *
+         * @param values The array containing the values
+         * @param start The first index (inclusive)
+         * @param end The last index (exclusive)
+         */
+        SortedIntRangeSet(int[] values,
+            int start,
+            int end)
+        {
+            this.values = values;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int size()
+        {
+            return end - start;
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            if (!(o instanceof Integer))
+            {
+                return false;
+            }
+            return Arrays.binarySearch(values, start, end, (Integer) o) >= 0;
+        }
+
+        @Override
+        public Iterator<Integer> iterator()
+        {
+            return new Iterator<Integer>()
+            {
+
+                private int idx = start;
+
+                @Override
+                public boolean hasNext()
+                {
+                    return idx < end;
+                }
+
+                @Override
+                public Integer next()
+                {
+                    if (idx >= end)
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    return values[idx++];
+                }
+
+            };
+        }
+
+    }
+
 }
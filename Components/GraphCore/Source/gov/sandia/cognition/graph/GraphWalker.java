@@ -29,6 +29,9 @@ import java.util.Set;
  * implemented by this as it doesn't permit a queue of nodes to visit, but only
  * a single element "next node to visit").
  *
+ * To generate many walks at once (for instance, as a corpus for node
+ * embeddings), ParallelRandomWalker is much faster.
+ *
  * @author jdwendt
  * @param <NodeNameType> The datatype for the graph's nodes
  */
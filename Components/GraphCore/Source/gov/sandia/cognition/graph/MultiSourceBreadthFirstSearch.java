@@ -0,0 +1,772 @@
+/*
+ * File:                MultiSourceBreadthFirstSearch.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import java.util.Arrays;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs unweighted, undirected breadth-first searches from up to 64 sources at
+ * once. Each node stores one bit per source in a long: which sources have
+ * seen it, and which sources have it on their current frontier. Expanding a
+ * frontier node to a neighbor then handles all 64 searches with a couple of
+ * bitwise operations, so one pass over the edges replaces up to 64 separate
+ * searches (and the cache misses that go with them).
+ *
+ * On top of that engine, this class has static methods that compute all
+ * eccentricities, the radius, and the diameter. These use eccentricity
+ * bounds (so only some nodes need a full search) and run batches of 64
+ * sources on each thread of a thread pool.
+ *
+ * An instance holds O(n) work arrays, so each thread should have its own.
+ *
+ * @author jdwendt
+ * @since 4.0.0
+ */
+@PublicationReference(author = "Manuel Then, Moritz Kaufmann, Fernando "
+    + "Chirigati, Tuan-Anh Hoang-Vu, Kien Pham, Alfons Kemper, Thomas Neumann, "
+    + "and Huy T. Vo",
+    title = "The More the Merrier: Efficient Multi-Source Graph Traversal",
+    type = PublicationType.Journal, publication
+    = "Proceedings of the VLDB Endowment", year = 2014, pages =
+    {
+        449, 460
+    })
+public class MultiSourceBreadthFirstSearch
+{
+
+    /**
+     * The most sources a single search can run from (one per bit in a long)
+     */
+    public static final int BATCH_SIZE = 64;
+
+    /**
+     * Interface for code called when a search reaches nodes.
+     */
+    public static interface Visitor
+    {
+
+        /**
+         * Called once per node per level with the sources that first reached
+         * the node at that level.
+         *
+         * @param node The node reached
+         * @param level The distance from the sources to the node
+         * @param sourceBits Bit b is set if the b-th source of the batch
+         * first reached node at this level
+         */
+        public void visit(int node,
+            int level,
+            long sourceBits);
+
+    }
+
+    /**
+     * The graph being searched
+     */
+    private final CompressedGraphSnapshot graph;
+
+    /**
+     * The sources that have reached each node
+     */
+    private final long[] seen;
+
+    /**
+     * The sources with each node on their current frontier
+     */
+    private final long[] visit;
+
+    /**
+     * The sources with each node on their next frontier
+     */
+    private final long[] visitNext;
+
+    /**
+     * The nodes with a non-zero visit value
+     */
+    private int[] frontier;
+
+    /**
+     * The nodes with a non-zero visitNext value
+     */
+    private int[] nextFrontier;
+
+    /**
+     * All nodes with a non-zero seen value (so they can be reset)
+     */
+    private final int[] touched;
+
+    /**
+     * The number of entries in touched
+     */
+    private int numTouched;
+
+    /**
+     * Creates the work arrays for searching the input graph.
+     *
+     * Storage: O(n)
+     *
+     * @param graph The graph to search
+     */
+    public MultiSourceBreadthFirstSearch(CompressedGraphSnapshot graph)
+    {
+        this.graph = graph;
+        int n = graph.getNumNodes();
+        this.seen = new long[n];
+        this.visit = new long[n];
+        this.visitNext = new long[n];
+        this.frontier = new int[n];
+        this.nextFrontier = new int[n];
+        this.touched = new int[n];
+        this.numTouched = 0;
+    }
+
+    /**
+     * Runs the search from sources[offset] through sources[offset + count -
+     * 1]. The visitor (if not null) is called for the sources themselves at
+     * level 0 and for every other reachable node once per level at which some
+     * source first reaches it.
+     *
+     * Execution: O(L (n_f + m_f)) where L is the number of levels and n_f and
+     * m_f are the nodes and edges in the frontier at each level; at most
+     * O(n + D m) where D is the largest eccentricity of the sources.
+     *
+     * @param sources The source nodes
+     * @param offset The index of the first source to use
+     * @param count The number of sources to use (at most BATCH_SIZE)
+     * @param eccentricities If not null, eccentricities[offset + b] is set to
+     * the largest distance from source b to any node it reaches
+     * @param visitor Called as nodes are reached (may be null)
+     * @return The number of levels in the search (the largest eccentricity of
+     * the sources)
+     */
+    public int run(int[] sources,
+        int offset,
+        int count,
+        int[] eccentricities,
+        Visitor visitor)
+    {
+        if (count <= 0 || count > BATCH_SIZE)
+        {
+            throw new IllegalArgumentException("Must search from between 1 and "
+                + BATCH_SIZE + " sources");
+        }
+        int frontierSize = 0;
+        for (int b = 0; b < count; ++b)
+        {
+            int s = sources[offset + b];
+            long bit = 1L << b;
+            if (seen[s] == 0)
+            {
+                touched[numTouched++] = s;
+                frontier[frontierSize++] = s;
+            }
+            seen[s] |= bit;
+            visit[s] |= bit;
+            if (eccentricities != null)
+            {
+                eccentricities[offset + b] = 0;
+            }
+        }
+        if (visitor != null)
+        {
+            for (int i = 0; i < frontierSize; ++i)
+            {
+                visitor.visit(frontier[i], 0, visit[frontier[i]]);
+            }
+        }
+
+        int level = 0;
+        while (frontierSize > 0)
+        {
+            ++level;
+            int nextSize = 0;
+            for (int i = 0; i < frontierSize; ++i)
+            {
+                int v = frontier[i];
+                long bits = visit[v];
+                for (int j = graph.getNeighborsStart(v);
+                    j < graph.getNeighborsEnd(v); ++j)
+                {
+                    int u = graph.getNeighbor(j);
+                    long d = bits & ~seen[u];
+                    if (d != 0)
+                    {
+                        if (visitNext[u] == 0)
+                        {
+                            nextFrontier[nextSize++] = u;
+                        }
+                        if (seen[u] == 0)
+                        {
+                            touched[numTouched++] = u;
+                        }
+                        visitNext[u] |= d;
+                        seen[u] |= d;
+                    }
+                }
+                visit[v] = 0;
+            }
+
+            long levelBits = 0;
+            for (int i = 0; i < nextSize; ++i)
+            {
+                int u = nextFrontier[i];
+                levelBits |= visitNext[u];
+                visit[u] = visitNext[u];
+                visitNext[u] = 0;
+                if (visitor != null)
+                {
+                    visitor.visit(u, level, visit[u]);
+                }
+            }
+            if (eccentricities != null)
+            {
+                while (levelBits != 0)
+                {
+                    int b = Long.numberOfTrailingZeros(levelBits);
+                    levelBits &= levelBits - 1;
+                    eccentricities[offset + b] = level;
+                }
+            }
+
+            int[] tmp = frontier;
+            frontier = nextFrontier;
+            nextFrontier = tmp;
+            frontierSize = nextSize;
+        }
+
+        // Only reset what was touched
+        for (int i = 0; i < numTouched; ++i)
+        {
+            seen[touched[i]] = 0;
+        }
+        numTouched = 0;
+
+        return level - 1;
+    }
+
+    /**
+     * Computes the eccentricity (the largest distance to any reachable node)
+     * of each of the input sources. Sources are split into batches of
+     * BATCH_SIZE, and the batches are split across the threads of the pool.
+     *
+     * Execution: O(k (n + D m) / (64 t)) for k sources and t threads
+     *
+     * @param graph The graph to search
+     * @param sources The nodes whose eccentricities are wanted
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The eccentricity of each source, in the same order
+     */
+    public static int[] computeEccentricities(
+        final CompressedGraphSnapshot graph,
+        final int[] sources,
+        ThreadPoolExecutor pool)
+    {
+        final int[] result = new int[sources.length];
+        int numBatches = (sources.length + BATCH_SIZE - 1) / BATCH_SIZE;
+        CompressedGraphSnapshot.runInParallel(numBatches, pool, (start, end) ->
+        {
+            if (start >= end)
+            {
+                return;
+            }
+            MultiSourceBreadthFirstSearch search
+                = new MultiSourceBreadthFirstSearch(graph);
+            for (int batch = start; batch < end; ++batch)
+            {
+                int offset = batch * BATCH_SIZE;
+                search.run(sources, offset, Math.min(BATCH_SIZE,
+                    sources.length - offset), result, null);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Computes the eccentricity of every node (within its connected
+     * component). Rather than searching from every node, this keeps lower and
+     * upper bounds on each node's eccentricity: after searching from v, each
+     * node w at distance d has max(d, ecc(v) - d) &lt;= ecc(w) &lt;= ecc(v) +
+     * d. Nodes whose bounds meet are done without a search. Each round
+     * searches from the undetermined nodes with the smallest lower and largest
+     * upper bounds, 64 per thread.
+     *
+     * Execution: O(r (n + D m) / 64) for r searched nodes (often a small
+     * fraction of n), divided across threads.
+     *
+     * @param graph The graph to search
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The eccentricity of every node
+     */
+    @PublicationReference(author = "Frank W. Takes and Walter A. Kosters", title
+        = "Computing the Eccentricity Distribution of Large Graphs", type
+        = PublicationType.Journal, publication
+        = "Algorithms - Open Access Journal", year = 2013, pages =
+        {
+            100, 118
+        },
+        url = "http://www.mdpi.com/1999-4893/6/1/100")
+    public static int[] computeAllEccentricities(
+        CompressedGraphSnapshot graph,
+        ThreadPoolExecutor pool)
+    {
+        EccentricityBounds bounds = new EccentricityBounds(graph, pool);
+        while (bounds.numCandidates > 0)
+        {
+            bounds.runRound(true);
+            bounds.removeCandidates(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        return bounds.lower;
+    }
+
+    /**
+     * Computes the radius (the smallest eccentricity of any node) with the
+     * same bounds as computeAllEccentricities, except nodes are also dropped
+     * once their lower bound is at least the smallest eccentricity found so
+     * far. If the graph isn't connected, this is the smallest eccentricity in
+     * any component (so 0 if there are isolated nodes).
+     *
+     * @param graph The graph to search
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The radius of the graph
+     */
+    public static int computeRadius(CompressedGraphSnapshot graph,
+        ThreadPoolExecutor pool)
+    {
+        int n = graph.getNumNodes();
+        if (n == 0)
+        {
+            return 0;
+        }
+        EccentricityBounds bounds = new EccentricityBounds(graph, pool);
+        // Isolated nodes already have their (zero) eccentricities
+        int radius = Integer.MAX_VALUE;
+        for (int i = 0; i < n; ++i)
+        {
+            radius = Math.min(radius, bounds.upper[i]);
+        }
+        bounds.removeCandidates(Integer.MIN_VALUE, radius);
+        while (bounds.numCandidates > 0)
+        {
+            bounds.runRound(false);
+            for (int i = 0; i < bounds.numCandidates; ++i)
+            {
+                int w = bounds.candidates[i];
+                if (bounds.upper[w] < radius)
+                {
+                    radius = bounds.upper[w];
+                }
+            }
+            // Nothing with a lower bound at the current best can improve it
+            bounds.removeCandidates(Integer.MIN_VALUE, radius);
+        }
+        return radius;
+    }
+
+    /**
+     * Computes the diameter (the largest eccentricity of any node) with iFUB.
+     * Starting from a central node u with eccentricity e, once the nodes
+     * farther than i from u are searched, any longer path must join two nodes
+     * within distance i of u, and those are at most 2i apart. So, working in
+     * from the fringe, once the largest eccentricity found reaches 2i, no
+     * node at distance i or nearer can beat it. Each fringe level is
+     * searched with batched multi-source searches across threads. This runs
+     * on each connected component and returns the largest component
+     * diameter.
+     *
+     * Execution: O(n + m) per component plus the searches from the fringe
+     * nodes (usually few on real-world graphs); O(nm) in the worst case.
+     *
+     * @param graph The graph to search
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The largest eccentricity of any node
+     */
+    @PublicationReference(author = "Pilu Crescenzi, Roberto Grossi, Michel "
+        + "Habib, Leonardo Lanzi, and Andrea Marino",
+        title = "On computing the diameter of real-world undirected graphs",
+        type = PublicationType.Journal, publication
+        = "Theoretical Computer Science", year = 2013, pages =
+        {
+            84, 95
+        })
+    public static int computeDiameter(CompressedGraphSnapshot graph,
+        ThreadPoolExecutor pool)
+    {
+        int n = graph.getNumNodes();
+        int[] dist = new int[n];
+        Arrays.fill(dist, -1);
+        int[] order = new int[n];
+        int diameter = 0;
+        for (int s = 0; s < n; ++s)
+        {
+            if (dist[s] >= 0)
+            {
+                continue;
+            }
+            // Find this component, and its highest degree node
+            int size = bfs(graph, s, dist, order);
+            int start = s;
+            for (int i = 0; i < size; ++i)
+            {
+                if (graph.getNumNeighbors(order[i])
+                    > graph.getNumNeighbors(start))
+                {
+                    start = order[i];
+                }
+            }
+            // A double sweep picks a more central start: go to the far end of
+            // a long path and then halfway back.
+            for (int i = 0; i < size; ++i)
+            {
+                dist[order[i]] = -1;
+            }
+            bfs(graph, start, dist, order);
+            int far = order[size - 1];
+            for (int i = 0; i < size; ++i)
+            {
+                dist[order[i]] = -1;
+            }
+            bfs(graph, far, dist, order);
+            int other = order[size - 1];
+            int lowerBound = dist[other];
+            int mid = other;
+            while (dist[mid] > lowerBound / 2)
+            {
+                for (int j = graph.getNeighborsStart(mid);
+                    j < graph.getNeighborsEnd(mid); ++j)
+                {
+                    if (dist[graph.getNeighbor(j)] == dist[mid] - 1)
+                    {
+                        mid = graph.getNeighbor(j);
+                        break;
+                    }
+                }
+            }
+            for (int i = 0; i < size; ++i)
+            {
+                dist[order[i]] = -1;
+            }
+            bfs(graph, mid, dist, order);
+            int e = dist[order[size - 1]];
+            lowerBound = Math.max(lowerBound, e);
+
+            // Work in from the fringe (order is sorted by distance from mid)
+            int idx = size - 1;
+            for (int i = e; i > 0 && lowerBound < 2 * i; --i)
+            {
+                int first = idx;
+                while (first > 0 && dist[order[first - 1]] == i)
+                {
+                    --first;
+                }
+                int[] fringe = Arrays.copyOfRange(order, first, idx + 1);
+                for (int ecc : computeEccentricities(graph, fringe, pool))
+                {
+                    lowerBound = Math.max(lowerBound, ecc);
+                }
+                idx = first - 1;
+            }
+            diameter = Math.max(diameter, lowerBound);
+        }
+        return diameter;
+    }
+
+    /**
+     * Helper that runs a single-source BFS from s over unvisited nodes
+     * (dist == -1), storing distances and the visit order.
+     *
+     * @param graph The graph to search
+     * @param s The source
+     * @param dist The distances (-1 for unvisited), filled in for reached
+     * nodes
+     * @param order Filled in with the reached nodes in order of distance
+     * @return The number of nodes reached
+     */
+    private static int bfs(CompressedGraphSnapshot graph,
+        int s,
+        int[] dist,
+        int[] order)
+    {
+        int head = 0;
+        int tail = 0;
+        dist[s] = 0;
+        order[tail++] = s;
+        while (head < tail)
+        {
+            int v = order[head++];
+            for (int j = graph.getNeighborsStart(v);
+                j < graph.getNeighborsEnd(v); ++j)
+            {
+                int u = graph.getNeighbor(j);
+                if (dist[u] < 0)
+                {
+                    dist[u] = dist[v] + 1;
+                    order[tail++] = u;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Keeps the eccentricity bounds for all nodes and the candidates (nodes
+     * whose bounds haven't met) for computeAllEccentricities and
+     * computeRadius.
+     */
+    private static class EccentricityBounds
+    {
+
+        /**
+         * The graph being searched
+         */
+        final CompressedGraphSnapshot graph;
+
+        /**
+         * The thread pool (or null)
+         */
+        final ThreadPoolExecutor pool;
+
+        /**
+         * The number of batches to run per round
+         */
+        final int numTasks;
+
+        /**
+         * The lower bound on each node's eccentricity (the eccentricity once
+         * it's known)
+         */
+        final int[] lower;
+
+        /**
+         * The upper bound on each node's eccentricity
+         */
+        final int[] upper;
+
+        /**
+         * The nodes that still need exact eccentricities
+         */
+        final int[] candidates;
+
+        /**
+         * The number of entries in candidates
+         */
+        int numCandidates;
+
+        /**
+         * Per-task bounds found during a round (merged after)
+         */
+        final int[][] taskLower;
+
+        /**
+         * Per-task bounds found during a round (merged after)
+         */
+        final int[][] taskUpper;
+
+        /**
+         * Per-task search work arrays
+         */
+        final MultiSourceBreadthFirstSearch[] searches;
+
+        /**
+         * Initializes all bounds to [0, infinity), except isolated nodes
+         * which have eccentricity 0.
+         *
+         * @param graph The graph to search
+         * @param pool The thread pool (or null)
+         */
+        EccentricityBounds(CompressedGraphSnapshot graph,
+            ThreadPoolExecutor pool)
+        {
+            this.graph = graph;
+            this.pool = pool;
+            int n = graph.getNumNodes();
+            this.numTasks = Math.max(1, ParallelUtil.getNumThreads(pool));
+            this.lower = new int[n];
+            this.upper = new int[n];
+            this.candidates = new int[n];
+            this.numCandidates = 0;
+            for (int i = 0; i < n; ++i)
+            {
+                boolean isolated = true;
+                for (int j = graph.getNeighborsStart(i);
+                    j < graph.getNeighborsEnd(i); ++j)
+                {
+                    isolated &= (graph.getNeighbor(j) == i);
+                }
+                upper[i] = isolated ? 0 : Integer.MAX_VALUE;
+                if (!isolated)
+                {
+                    candidates[numCandidates++] = i;
+                }
+            }
+            this.taskLower = new int[numTasks][];
+            this.taskUpper = new int[numTasks][];
+            this.searches = new MultiSourceBreadthFirstSearch[numTasks];
+        }
+
+        /**
+         * Searches from up to 64 candidates per task and tightens all bounds.
+         * Half of the sources are those with the smallest lower bounds and
+         * half those with the largest (or, if preferLargeUpper is false,
+         * smallest) upper bounds.
+         *
+         * @param preferLargeUpper True to pick nodes with large upper bounds
+         * (which tighten the bounds of the periphery), false for small upper
+         * bounds (likely central nodes)
+         */
+        void runRound(boolean preferLargeUpper)
+        {
+            int want = Math.min(numCandidates, numTasks * BATCH_SIZE);
+            final int[] sources = new int[want];
+            long[] keys = new long[numCandidates];
+            for (int i = 0; i < numCandidates; ++i)
+            {
+                int w = candidates[i];
+                keys[i] = (((long) lower[w]) << 32) | w;
+            }
+            Arrays.sort(keys);
+            int numSources = 0;
+            boolean[] picked = new boolean[graph.getNumNodes()];
+            for (int i = 0; i < keys.length && numSources < (want + 1) / 2; ++i)
+            {
+                int w = (int) keys[i];
+                picked[w] = true;
+                sources[numSources++] = w;
+            }
+            for (int i = 0; i < numCandidates; ++i)
+            {
+                int w = candidates[i];
+                long u = preferLargeUpper ? (Integer.MAX_VALUE - (long) upper[w])
+                    : upper[w];
+                keys[i] = (u << 32) | w;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length && numSources < want; ++i)
+            {
+                int w = (int) keys[i];
+                if (!picked[w])
+                {
+                    sources[numSources++] = w;
+                }
+            }
+
+            final int[] ecc = new int[want];
+            final int numBatches = (want + BATCH_SIZE - 1) / BATCH_SIZE;
+            int[] taskBounds = new int[numBatches + 1];
+            for (int i = 0; i <= numBatches; ++i)
+            {
+                taskBounds[i] = i;
+            }
+            CompressedGraphSnapshot.runInParallel(taskBounds, pool,
+                (start, end) ->
+            {
+                for (int batch = start; batch < end; ++batch)
+                {
+                    searchBatch(batch, sources, ecc);
+                }
+            });
+
+            // Merge the per-task bounds
+            for (int t = 0; t < numBatches; ++t)
+            {
+                int[] tl = taskLower[t];
+                int[] tu = taskUpper[t];
+                for (int i = 0; i < lower.length; ++i)
+                {
+                    lower[i] = Math.max(lower[i], tl[i]);
+                    upper[i] = Math.min(upper[i], tu[i]);
+                }
+            }
+            for (int b = 0; b < want; ++b)
+            {
+                lower[sources[b]] = ecc[b];
+                upper[sources[b]] = ecc[b];
+            }
+        }
+
+        /**
+         * Runs one batch (one per task): first to find the sources'
+         * eccentricities, then again to update the bounds of every node
+         * reached.
+         *
+         * @param batch The batch index
+         * @param sources All sources for this round
+         * @param ecc The eccentricities of all sources (filled in)
+         */
+        private void searchBatch(int batch,
+            int[] sources,
+            final int[] ecc)
+        {
+            int n = lower.length;
+            if (searches[batch] == null)
+            {
+                searches[batch] = new MultiSourceBreadthFirstSearch(graph);
+                taskLower[batch] = new int[n];
+                taskUpper[batch] = new int[n];
+            }
+            final int[] tl = taskLower[batch];
+            final int[] tu = taskUpper[batch];
+            Arrays.fill(tl, 0);
+            Arrays.fill(tu, Integer.MAX_VALUE);
+            final int offset = batch * BATCH_SIZE;
+            int count = Math.min(BATCH_SIZE, sources.length - offset);
+            MultiSourceBreadthFirstSearch search = searches[batch];
+            search.run(sources, offset, count, ecc, null);
+            search.run(sources, offset, count, null, (node, level, bits) ->
+            {
+                while (bits != 0)
+                {
+                    int b = Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int e = ecc[offset + b];
+                    tl[node] = Math.max(tl[node], Math.max(level, e - level));
+                    tu[node] = Math.min(tu[node], e + level);
+                }
+            });
+        }
+
+        /**
+         * Removes candidates whose bounds have met, or whose lower bound is at
+         * least minLowerToRemove, or whose upper bound is at most
+         * maxUpperToRemove.
+         *
+         * @param maxUpperToRemove Remove candidates with upper bounds at most
+         * this
+         * @param minLowerToRemove Remove candidates with lower bounds at least
+         * this
+         */
+        void removeCandidates(int maxUpperToRemove,
+            int minLowerToRemove)
+        {
+            int kept = 0;
+            for (int i = 0; i < numCandidates; ++i)
+            {
+                int w = candidates[i];
+                if (lower[w] == upper[w] || upper[w] <= maxUpperToRemove
+                    || lower[w] >= minLowerToRemove)
+                {
+                    continue;
+                }
+                candidates[kept++] = w;
+            }
+            numCandidates = kept;
+        }
+
+    }
+
+}
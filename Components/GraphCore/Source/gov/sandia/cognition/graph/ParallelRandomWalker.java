@@ -0,0 +1,869 @@
+/*
+ * File:                ParallelRandomWalker.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationReferences;
+import gov.sandia.cognition.annotation.PublicationType;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Generates many random walks over a graph in parallel, as used to build the
+ * training corpus for node embeddings (DeepWalk and node2vec). Each round
+ * starts one walk at every node (in a shuffled order), and walksPerNode
+ * rounds are run.
+ *
+ * Unlike GraphWalker (which takes one step at a time through a
+ * NextNodeSelector and the graph's metrics), this walks the graph's
+ * compressed snapshot directly. For weighted walks, an alias table is built
+ * for every node's edges up front, so each step is O(1) instead of a linear
+ * scan of the weights. node2vec's second-order (p, q) bias is applied by
+ * rejection: a candidate is drawn from the first-order alias table and
+ * accepted with probability proportional to its bias. This gives exactly
+ * node2vec's transition probabilities without node2vec's per-edge tables,
+ * which need memory proportional to the sum of the squared degrees.
+ *
+ * Each walk draws from its own random stream, seeded from the walker's seed
+ * and the walk's index, so the walks produced (though not the order they're
+ * delivered in when run on multiple threads) don't depend on the number of
+ * threads.
+ *
+ * A walk stops early if it reaches a node with no edges to follow (only
+ * possible on directed walks or isolated nodes).
+ *
+ * @author jdwendt
+ * @param <NodeNameType> The datatype for the graph's nodes
+ * @since 4.0.0
+ */
+@PublicationReferences(references =
+{
+    @PublicationReference(author =
+    {
+        "Bryan Perozzi", "Rami Al-Rfou", "Steven Skiena"
+    }, title = "DeepWalk: Online Learning of Social Representations",
+        type = PublicationType.Conference, year = 2014,
+        publication = "Proceedings of the 20th ACM SIGKDD International "
+        + "Conference on Knowledge Discovery and Data Mining", pages =
+    {
+        701, 710
+    }),
+    @PublicationReference(author =
+    {
+        "Aditya Grover", "Jure Leskovec"
+    }, title = "node2vec: Scalable Feature Learning for Networks",
+        type = PublicationType.Conference, year = 2016,
+        publication = "Proceedings of the 22nd ACM SIGKDD International "
+        + "Conference on Knowledge Discovery and Data Mining", pages =
+    {
+        855, 864
+    }),
+    @PublicationReference(author =
+    {
+        "Michael D. Vose"
+    }, title = "A Linear Algorithm for Generating Random Numbers with a "
+        + "Given Distribution", type = PublicationType.Journal, year = 1991,
+        publication = "IEEE Transactions on Software Engineering", pages =
+    {
+        972, 975
+    })
+})
+public class ParallelRandomWalker<NodeNameType>
+{
+
+    /**
+     * The default number of nodes in each walk
+     */
+    public static final int DEFAULT_WALK_LENGTH = 80;
+
+    /**
+     * The default number of walks started at each node
+     */
+    public static final int DEFAULT_WALKS_PER_NODE = 10;
+
+    /**
+     * The number of walk ranges per thread in each round (so one slow range
+     * doesn't idle the other threads)
+     */
+    private static final int RANGES_PER_THREAD = 8;
+
+    /**
+     * The number of characters buffered by each thread before writing
+     */
+    private static final int WRITE_BUFFER_CHARS = 1 << 16;
+
+    /**
+     * Interface for receiving walks as they are generated.
+     */
+    public static interface WalkConsumer
+    {
+
+        /**
+         * Receives one walk. This is called from multiple threads at once
+         * when the walker has a thread pool, so it must be thread safe. The
+         * input array is reused for later walks, so copy out anything that's
+         * kept.
+         *
+         * @param walk The ids of the nodes on the walk (in its first length
+         * entries)
+         * @param length The number of nodes on the walk (at least 1, as it
+         * includes the start node)
+         */
+        public void accept(int[] walk,
+            int length);
+
+    }
+
+    /**
+     * The graph to walk
+     */
+    private final DirectedNodeEdgeGraph<NodeNameType> graph;
+
+    /**
+     * The number of nodes in each walk (including the start node)
+     */
+    private int walkLength;
+
+    /**
+     * The number of walks started at each node
+     */
+    private int walksPerNode;
+
+    /**
+     * If true, only edges leaving the current node are followed
+     */
+    private boolean directed;
+
+    /**
+     * If true, edges are followed in proportion to their weights
+     */
+    private boolean weighted;
+
+    /**
+     * node2vec's return parameter (p)
+     */
+    private double returnParameter;
+
+    /**
+     * node2vec's in-out parameter (q)
+     */
+    private double inOutParameter;
+
+    /**
+     * The seed all walks' random streams are derived from
+     */
+    private long seed;
+
+    /**
+     * The thread pool (null to walk serially)
+     */
+    private ThreadPoolExecutor threadPool;
+
+    /**
+     * The edges to follow (null until the first walk after construction or
+     * a change of directedness or weighting). Volatile so walks on any thread
+     * see it fully built without locking.
+     */
+    private volatile EdgeTables tables;
+
+    /**
+     * Initializes a DeepWalk-style walker (undirected, weighted if the graph
+     * has weights, p = q = 1) with the default lengths and no thread pool.
+     *
+     * @param graph The graph to walk
+     */
+    public ParallelRandomWalker(DirectedNodeEdgeGraph<NodeNameType> graph)
+    {
+        this.graph = graph;
+        this.walkLength = DEFAULT_WALK_LENGTH;
+        this.walksPerNode = DEFAULT_WALKS_PER_NODE;
+        this.directed = false;
+        this.weighted = true;
+        this.returnParameter = 1.0;
+        this.inOutParameter = 1.0;
+        this.seed = new Random().nextLong();
+        this.threadPool = null;
+        this.tables = null;
+    }
+
+    /**
+     * Returns the number of nodes in each walk (including the start node)
+     *
+     * @return the walk length
+     */
+    public int getWalkLength()
+    {
+        return walkLength;
+    }
+
+    /**
+     * Sets the number of nodes in each walk (including the start node)
+     *
+     * @param walkLength the walk length (at least 1)
+     */
+    public void setWalkLength(int walkLength)
+    {
+        if (walkLength < 1)
+        {
+            throw new IllegalArgumentException("Walk length must be positive");
+        }
+        this.walkLength = walkLength;
+    }
+
+    /**
+     * Returns the number of walks started at each node
+     *
+     * @return the number of walks per node
+     */
+    public int getWalksPerNode()
+    {
+        return walksPerNode;
+    }
+
+    /**
+     * Sets the number of walks started at each node
+     *
+     * @param walksPerNode the number of walks per node (at least 0)
+     */
+    public void setWalksPerNode(int walksPerNode)
+    {
+        if (walksPerNode < 0)
+        {
+            throw new IllegalArgumentException(
+                "Walks per node can't be negative");
+        }
+        this.walksPerNode = walksPerNode;
+    }
+
+    /**
+     * Returns true if only edges leaving the current node are followed
+     *
+     * @return true if walks are directed
+     */
+    public boolean isDirected()
+    {
+        return directed;
+    }
+
+    /**
+     * Sets whether only edges leaving the current node are followed (if
+     * false, edges are followed in either direction, with repeated and
+     * reciprocal edges merged into one whose weight is their sum).
+     *
+     * @param directed true if walks are directed
+     */
+    public void setDirected(boolean directed)
+    {
+        this.directed = directed;
+        this.tables = null;
+    }
+
+    /**
+     * Returns true if edges are followed in proportion to their weights
+     *
+     * @return true if walks are weighted
+     */
+    public boolean isWeighted()
+    {
+        return weighted;
+    }
+
+    /**
+     * Sets whether edges are followed in proportion to their weights (if
+     * false, or if the graph has no weights, each edge is equally likely).
+     *
+     * @param weighted true if walks are weighted
+     */
+    public void setWeighted(boolean weighted)
+    {
+        this.weighted = weighted;
+        this.tables = null;
+    }
+
+    /**
+     * Returns node2vec's return parameter (p)
+     *
+     * @return p
+     */
+    public double getReturnParameter()
+    {
+        return returnParameter;
+    }
+
+    /**
+     * Sets node2vec's return parameter (p). Stepping back to the previous
+     * node has its weight divided by p.
+     *
+     * @param returnParameter p (positive)
+     */
+    public void setReturnParameter(double returnParameter)
+    {
+        if (!(returnParameter > 0))
+        {
+            throw new IllegalArgumentException(
+                "Return parameter must be positive");
+        }
+        this.returnParameter = returnParameter;
+    }
+
+    /**
+     * Returns node2vec's in-out parameter (q)
+     *
+     * @return q
+     */
+    public double getInOutParameter()
+    {
+        return inOutParameter;
+    }
+
+    /**
+     * Sets node2vec's in-out parameter (q). Stepping to a node that the
+     * previous node has no edge to has its weight divided by q.
+     *
+     * @param inOutParameter q (positive)
+     */
+    public void setInOutParameter(double inOutParameter)
+    {
+        if (!(inOutParameter > 0))
+        {
+            throw new IllegalArgumentException(
+                "In-out parameter must be positive");
+        }
+        this.inOutParameter = inOutParameter;
+    }
+
+    /**
+     * Sets the seed all walks' random streams are derived from
+     *
+     * @param seed The seed
+     */
+    public void setRandomSeed(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the thread pool (or null if walks are generated serially)
+     *
+     * @return the thread pool
+     */
+    public ThreadPoolExecutor getThreadPool()
+    {
+        return threadPool;
+    }
+
+    /**
+     * Sets the thread pool (null to generate walks serially)
+     *
+     * @param threadPool the thread pool
+     */
+    public void setThreadPool(ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * Generates walksPerNode walks from every node, passing each to the input
+     * consumer as it's generated.
+     *
+     * Execution: O(n walksPerNode walkLength) divided across threads
+     * (expected, as each node2vec step takes at most max(1/p, 1, 1/q) /
+     * min(1/p, 1, 1/q) draws on average), plus O(m) to build the alias tables
+     * the first time.
+     *
+     * @param consumer Receives the walks (from multiple threads at once if
+     * there's a thread pool)
+     */
+    public void generateWalks(final WalkConsumer consumer)
+    {
+        final EdgeTables edges = getTables();
+        final int n = edges.offsets.length - 1;
+        int numRanges = Math.max(1, ParallelUtil.getNumThreads(threadPool))
+            * RANGES_PER_THREAD;
+        int[] bounds = new int[numRanges + 1];
+        for (int i = 0; i <= numRanges; ++i)
+        {
+            bounds[i] = (int) (((long) n * i) / numRanges);
+        }
+        for (int round = 0; round < walksPerNode; ++round)
+        {
+            // DeepWalk visits the start nodes in a new order each round
+            final int[] order = new int[n];
+            for (int i = 0; i < n; ++i)
+            {
+                order[i] = i;
+            }
+            Random shuffler = new Random(mix(seed, -1 - round));
+            for (int i = n - 1; i > 0; --i)
+            {
+                int j = shuffler.nextInt(i + 1);
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+            final long firstWalk = (long) round * n;
+            CompressedGraphSnapshot.runInParallel(bounds, threadPool, (start,
+                end) ->
+            {
+                int[] walk = new int[walkLength];
+                for (int i = start; i < end; ++i)
+                {
+                    int length = walk(edges, order[i], new SplittableRandom(
+                        mix(seed, firstWalk + i)), walk);
+                    consumer.accept(walk, length);
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes walksPerNode walks from every node to the input file, one walk
+     * per line with the node names (String.valueOf each node) separated by
+     * spaces -- the sentence format read by word2vec-style trainers. Each
+     * thread buffers its walks and writes them in blocks.
+     *
+     * @param file The file to write (replaced if it exists)
+     */
+    public void writeWalks(File file)
+    {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+            new FileOutputStream(file), StandardCharsets.UTF_8)))
+        {
+            writeWalks(out);
+        }
+        catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    /**
+     * Writes walksPerNode walks from every node to the input writer, one walk
+     * per line with the node names (String.valueOf each node) separated by
+     * spaces. The writer isn't closed.
+     *
+     * @param out The writer to write to
+     */
+    public void writeWalks(final Writer out)
+    {
+        final String[] names = new String[graph.getNumNodes()];
+        for (int i = 0; i < names.length; ++i)
+        {
+            names[i] = String.valueOf(graph.getNode(i));
+        }
+        // Each thread's buffer is registered so whatever's left in it can be
+        // written once all walks are done
+        final Queue<StringBuilder> allBuffers = new ConcurrentLinkedQueue<>();
+        final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() ->
+        {
+            StringBuilder buffer = new StringBuilder();
+            allBuffers.add(buffer);
+            return buffer;
+        });
+        generateWalks((walk, length) ->
+        {
+            StringBuilder buffer = buffers.get();
+            buffer.append(names[walk[0]]);
+            for (int i = 1; i < length; ++i)
+            {
+                buffer.append(' ').append(names[walk[i]]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= WRITE_BUFFER_CHARS)
+            {
+                write(out, buffer);
+            }
+        });
+        for (StringBuilder buffer : allBuffers)
+        {
+            write(out, buffer);
+        }
+        try
+        {
+            out.flush();
+        }
+        catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    /**
+     * Private helper that writes and empties a thread's buffer.
+     *
+     * @param out The shared writer
+     * @param buffer The thread's buffer
+     */
+    private static void write(Writer out,
+        StringBuilder buffer)
+    {
+        try
+        {
+            synchronized (out)
+            {
+                out.append(buffer);
+            }
+        }
+        catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+        buffer.setLength(0);
+    }
+
+    /**
+     * Fills the input array with a walk from the input node using the input
+     * random stream.
+     *
+     * Execution: O(walkLength) expected
+     *
+     * @param start The id of the node to start from
+     * @param random The random stream to draw from
+     * @param walk Filled with the ids of the nodes on the walk (must have at
+     * least walkLength entries)
+     * @return The number of nodes on the walk (less than walkLength if it
+     * reached a node with no edges to follow)
+     */
+    public int walk(int start,
+        SplittableRandom random,
+        int[] walk)
+    {
+        return walk(getTables(), start, random, walk);
+    }
+
+    /**
+     * Private helper that fills the input array with a walk over the input
+     * edges.
+     *
+     * @param edges The edges to follow
+     * @param start The id of the node to start from
+     * @param random The random stream to draw from
+     * @param walk Filled with the ids of the nodes on the walk
+     * @return The number of nodes on the walk
+     */
+    private int walk(EdgeTables edges,
+        int start,
+        SplittableRandom random,
+        int[] walk)
+    {
+        final int[] offsets = edges.offsets;
+        final int[] targets = edges.targets;
+        double invP = 1.0 / returnParameter;
+        double invQ = 1.0 / inOutParameter;
+        double maxBias = Math.max(1.0, Math.max(invP, invQ));
+        boolean biased = (invP != 1.0) || (invQ != 1.0);
+        walk[0] = start;
+        int length = 1;
+        int prev = -1;
+        int cur = start;
+        while (length < walkLength)
+        {
+            int from = offsets[cur];
+            int degree = offsets[cur + 1] - from;
+            if (degree == 0)
+            {
+                break;
+            }
+            int next;
+            while (true)
+            {
+                next = targets[sample(edges, from, degree, random)];
+                if (!biased || prev < 0)
+                {
+                    break;
+                }
+                double bias;
+                if (next == prev)
+                {
+                    bias = invP;
+                }
+                else if (Arrays.binarySearch(targets, offsets[prev],
+                    offsets[prev + 1], next) >= 0)
+                {
+                    bias = 1.0;
+                }
+                else
+                {
+                    bias = invQ;
+                }
+                if (random.nextDouble() * maxBias < bias)
+                {
+                    break;
+                }
+            }
+            walk[length++] = next;
+            prev = cur;
+            cur = next;
+        }
+        return length;
+    }
+
+    /**
+     * Private helper that draws one of a node's edge positions.
+     *
+     * @param edges The edges to follow
+     * @param from The node's first edge position
+     * @param degree The node's number of edges (at least 1)
+     * @param random The random stream
+     * @return The drawn position
+     */
+    private static int sample(EdgeTables edges,
+        int from,
+        int degree,
+        SplittableRandom random)
+    {
+        int position = from + random.nextInt(degree);
+        if (edges.aliasProbabilities == null
+            || random.nextDouble() < edges.aliasProbabilities[position])
+        {
+            return position;
+        }
+        return edges.aliases[position];
+    }
+
+    /**
+     * Private helper that returns the edges to follow, building them the
+     * first time. After that, this is one volatile read (no lock).
+     *
+     * @return The edges to follow
+     */
+    private EdgeTables getTables()
+    {
+        EdgeTables result = tables;
+        if (result == null)
+        {
+            synchronized (this)
+            {
+                result = tables;
+                if (result == null)
+                {
+                    result = initialize();
+                    tables = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Private helper that gets the edges to follow and builds the alias
+     * tables (if needed).
+     *
+     * Execution: O(m) divided across threads
+     *
+     * @return The edges to follow
+     */
+    private EdgeTables initialize()
+    {
+        CompressedGraphSnapshot snapshot = graph.getCompressedSnapshot();
+        final double[] weights;
+        final int[] targets;
+        final int[] offsets;
+        if (directed)
+        {
+            weights = snapshot.getSuccessorWeights();
+            targets = snapshot.getSuccessors();
+            offsets = snapshot.getSuccessorOffsets();
+        }
+        else
+        {
+            weights = snapshot.isWeighted() ? snapshot.getNeighborWeights()
+                : null;
+            targets = snapshot.getNeighbors();
+            offsets = snapshot.getNeighborOffsets();
+        }
+        if (!weighted || weights == null)
+        {
+            return new EdgeTables(offsets, targets, null, null);
+        }
+        final double[] probabilities = new double[targets.length];
+        final int[] alias = new int[targets.length];
+        final int[] nodeOffsets = offsets;
+        CompressedGraphSnapshot.runInParallel(
+            CompressedGraphSnapshot.partitionByOffsets(nodeOffsets, Math.max(1,
+                ParallelUtil.getNumThreads(threadPool))), threadPool,
+            (start, end) ->
+        {
+            int[] small = new int[0];
+            int[] large = new int[0];
+            for (int i = start; i < end; ++i)
+            {
+                int from = nodeOffsets[i];
+                int degree = nodeOffsets[i + 1] - from;
+                if (small.length < degree)
+                {
+                    small = new int[degree];
+                    large = new int[degree];
+                }
+                buildAliasTable(weights, from, degree, probabilities, alias,
+                    small, large);
+            }
+        });
+        return new EdgeTables(offsets, targets, probabilities, alias);
+    }
+
+    /**
+     * The edges followed from each node and their alias tables. These never
+     * change once built.
+     */
+    private static final class EdgeTables
+    {
+
+        /**
+         * The offsets of the edges followed from each node (depends on
+         * directedness)
+         */
+        final int[] offsets;
+
+        /**
+         * The destinations of the edges followed from each node
+         */
+        final int[] targets;
+
+        /**
+         * The probability of keeping each position's own edge (null for
+         * unweighted walks)
+         */
+        final double[] aliasProbabilities;
+
+        /**
+         * The position to use instead of each position when it isn't kept
+         */
+        final int[] aliases;
+
+        /**
+         * Stores the input tables.
+         *
+         * @param offsets The offsets of each node's edges
+         * @param targets The destinations of the edges
+         * @param aliasProbabilities The keep probabilities (or null)
+         * @param aliases The alias positions (or null)
+         */
+        EdgeTables(int[] offsets,
+            int[] targets,
+            double[] aliasProbabilities,
+            int[] aliases)
+        {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.aliasProbabilities = aliasProbabilities;
+            this.aliases = aliases;
+        }
+
+    }
+
+    /**
+     * Builds the alias table for one node's edges with Vose's method: each
+     * position keeps its own edge with probability probabilities[j] and
+     * otherwise uses the edge at position alias[j].
+     *
+     * Execution: O(degree)
+     *
+     * @param weights The edge weights (non-negative)
+     * @param from The node's first edge position
+     * @param degree The node's number of edges
+     * @param probabilities Filled with the keep probabilities
+     * @param alias Filled with the alias positions
+     * @param small Scratch space (at least degree entries)
+     * @param large Scratch space (at least degree entries)
+     */
+    static void buildAliasTable(double[] weights,
+        int from,
+        int degree,
+        double[] probabilities,
+        int[] alias,
+        int[] small,
+        int[] large)
+    {
+        double sum = 0;
+        for (int j = from; j < from + degree; ++j)
+        {
+            if (weights[j] < 0)
+            {
+                throw new IllegalArgumentException(
+                    "Random walks require non-negative edge weights");
+            }
+            sum += weights[j];
+        }
+        int numSmall = 0;
+        int numLarge = 0;
+        for (int j = from; j < from + degree; ++j)
+        {
+            // All-zero weights are treated as uniform
+            probabilities[j] = (sum > 0) ? weights[j] * degree / sum : 1.0;
+            alias[j] = j;
+            if (probabilities[j] < 1.0)
+            {
+                small[numSmall++] = j;
+            }
+            else
+            {
+                large[numLarge++] = j;
+            }
+        }
+        while (numSmall > 0 && numLarge > 0)
+        {
+            int s = small[--numSmall];
+            int l = large[numLarge - 1];
+            alias[s] = l;
+            probabilities[l] -= 1.0 - probabilities[s];
+            if (probabilities[l] < 1.0)
+            {
+                --numLarge;
+                small[numSmall++] = l;
+            }
+        }
+        // Whatever's left is 1 (up to round-off)
+        while (numLarge > 0)
+        {
+            probabilities[large[--numLarge]] = 1.0;
+        }
+        while (numSmall > 0)
+        {
+            probabilities[small[--numSmall]] = 1.0;
+        }
+    }
+
+    /**
+     * Private helper that mixes a seed and an index into a well-spread seed
+     * (the MurmurHash3 finalizer), so neighboring walks' streams aren't
+     * correlated.
+     *
+     * @param seed The base seed
+     * @param index The index
+     * @return The mixed seed
+     */
+    private static long mix(long seed,
+        long index)
+    {
+        long z = seed + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+}
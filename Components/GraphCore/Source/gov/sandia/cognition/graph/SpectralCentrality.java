@@ -0,0 +1,451 @@
+/*
+ * File:                SpectralCentrality.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import java.util.Arrays;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Computes global centralities that are the leading eigenvector of some matrix
+ * built from the graph: PageRank, HITS hub and authority scores, and
+ * eigenvector centrality. All are computed by repeated sparse matrix-vector
+ * products over the compressed snapshot's primitive arrays. Each product is
+ * split into ranges of nodes with about the same number of edges, one per
+ * thread, and each node's new value is pulled from its in-edges so no two
+ * threads write the same entry. Per-range sums (for norms and convergence)
+ * are added in range order, so results don't depend on thread timing.
+ *
+ * Edge weights are used throughout; repeated edges add.
+ *
+ * @author jdwendt
+ * @since 4.0.0
+ */
+public class SpectralCentrality
+{
+
+    /**
+     * The default probability of following an edge in PageRank
+     */
+    public static final double DEFAULT_DAMPING = 0.85;
+
+    /**
+     * The default convergence tolerance (on the L1 change per iteration)
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-10;
+
+    /**
+     * The default maximum number of iterations
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+    /**
+     * Private as this only has static methods
+     */
+    private SpectralCentrality()
+    {
+    }
+
+    /**
+     * Computes PageRank: the stationary distribution of a walk that follows a
+     * weighted out-edge with probability damping, and otherwise jumps to a
+     * node uniformly at random. Walks at dangling nodes (no out-edges) always
+     * jump.
+     *
+     * With gaussSeidel false, this is the power method (each iteration only
+     * reads the last iteration's values). With gaussSeidel true, each node's
+     * new value is used as soon as it is computed, which usually needs about
+     * half the iterations. With a thread pool, each thread sweeps its own
+     * range in place (so the order values are read across threads, and the
+     * last bits of the result, can vary from run to run); serially, it is
+     * the classic Gauss-Seidel sweep.
+     *
+     * Execution: O(m + n) per iteration, divided across threads.
+     *
+     * @param graph The graph
+     * @param damping The probability of following an edge (in [0, 1))
+     * @param tolerance Stop once the L1 change in an iteration is below this
+     * @param maxIterations The most iterations to run
+     * @param gaussSeidel True to update values in place
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The PageRank of every node (summing to 1)
+     */
+    @PublicationReference(author = "Lawrence Page, Sergey Brin, Rajeev "
+        + "Motwani, and Terry Winograd", title
+        = "The PageRank Citation Ranking: Bringing Order to the Web",
+        type = PublicationType.TechnicalReport, year = 1999, publication
+        = "Stanford InfoLab")
+    public static double[] computePageRank(final CompressedGraphSnapshot graph,
+        final double damping,
+        double tolerance,
+        int maxIterations,
+        final boolean gaussSeidel,
+        ThreadPoolExecutor pool)
+    {
+        if (damping < 0 || damping >= 1)
+        {
+            throw new IllegalArgumentException("Damping must be in [0, 1)");
+        }
+        final int n = graph.getNumNodes();
+        if (n == 0)
+        {
+            return new double[0];
+        }
+        int numTasks = Math.max(1, ParallelUtil.getNumThreads(pool));
+        final int[] nodeBounds = CompressedGraphSnapshot.partitionByOffsets(
+            graph.getSuccessorOffsets(), numTasks);
+        final int[] inBounds = CompressedGraphSnapshot.partitionByOffsets(
+            graph.getPredecessorOffsets(), numTasks);
+
+        final double[] outWeight = new double[n];
+        CompressedGraphSnapshot.runInParallel(nodeBounds, pool, (start, end) ->
+        {
+            for (int u = start; u < end; ++u)
+            {
+                for (int j = graph.getSuccessorsStart(u);
+                    j < graph.getSuccessorsEnd(u); ++j)
+                {
+                    outWeight[u] += graph.getSuccessorWeight(j);
+                }
+            }
+        });
+
+        final double[] x = new double[n];
+        Arrays.fill(x, 1.0 / n);
+        final double[] next = gaussSeidel ? x : new double[n];
+        // The share of each node's rank sent along each unit of edge weight
+        final double[] share = new double[n];
+        for (int iter = 0; iter < maxIterations; ++iter)
+        {
+            double dangling = sumInParallel(nodeBounds, pool, (start, end) ->
+            {
+                double sum = 0;
+                for (int u = start; u < end; ++u)
+                {
+                    if (outWeight[u] > 0)
+                    {
+                        share[u] = x[u] / outWeight[u];
+                    }
+                    else
+                    {
+                        share[u] = 0;
+                        sum += x[u];
+                    }
+                }
+                return sum;
+            });
+            final double base = (1 - damping) / n + damping * dangling / n;
+            double change = sumInParallel(inBounds, pool, (start, end) ->
+            {
+                double sum = 0;
+                for (int v = start; v < end; ++v)
+                {
+                    double pulled = 0;
+                    for (int j = graph.getPredecessorsStart(v);
+                        j < graph.getPredecessorsEnd(v); ++j)
+                    {
+                        pulled += graph.getPredecessorWeight(j)
+                            * share[graph.getPredecessor(j)];
+                    }
+                    double value = base + damping * pulled;
+                    sum += Math.abs(value - x[v]);
+                    next[v] = value;
+                    if (gaussSeidel && outWeight[v] > 0)
+                    {
+                        share[v] = value / outWeight[v];
+                    }
+                }
+                return sum;
+            });
+            if (gaussSeidel)
+            {
+                // In-place sweeps don't exactly preserve the total
+                scale(x, 1.0 / sumInParallel(nodeBounds, pool, (start, end) ->
+                {
+                    double sum = 0;
+                    for (int u = start; u < end; ++u)
+                    {
+                        sum += x[u];
+                    }
+                    return sum;
+                }));
+            }
+            else
+            {
+                System.arraycopy(next, 0, x, 0, n);
+            }
+            if (change < tolerance)
+            {
+                break;
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Computes Kleinberg's HITS hub and authority scores: a node's authority
+     * is the weighted sum of the hub scores of nodes pointing to it, and a
+     * node's hub score is the weighted sum of the authorities it points to.
+     * Both are scaled to unit L2 norm after each step.
+     *
+     * Execution: O(m + n) per iteration, divided across threads.
+     *
+     * @param graph The graph
+     * @param tolerance Stop once the L1 change in both vectors in an
+     * iteration is below this
+     * @param maxIterations The most iterations to run
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The hub scores (index 0) and authority scores (index 1)
+     */
+    @PublicationReference(author = "Jon M. Kleinberg", title
+        = "Authoritative sources in a hyperlinked environment",
+        type = PublicationType.Journal, year = 1999, publication
+        = "Journal of the ACM", pages =
+        {
+            604, 632
+        })
+    public static double[][] computeHits(final CompressedGraphSnapshot graph,
+        double tolerance,
+        int maxIterations,
+        ThreadPoolExecutor pool)
+    {
+        final int n = graph.getNumNodes();
+        int numTasks = Math.max(1, ParallelUtil.getNumThreads(pool));
+        final int[] outBounds = CompressedGraphSnapshot.partitionByOffsets(
+            graph.getSuccessorOffsets(), numTasks);
+        final int[] inBounds = CompressedGraphSnapshot.partitionByOffsets(
+            graph.getPredecessorOffsets(), numTasks);
+        final double[] hubs = new double[n];
+        final double[] authorities = new double[n];
+        Arrays.fill(hubs, 1.0 / Math.sqrt(n));
+        final double[] nextHubs = new double[n];
+        final double[] nextAuthorities = new double[n];
+        for (int iter = 0; iter < maxIterations; ++iter)
+        {
+            double authorityNorm = Math.sqrt(sumInParallel(inBounds, pool,
+                (start, end) ->
+            {
+                double sum = 0;
+                for (int v = start; v < end; ++v)
+                {
+                    double value = 0;
+                    for (int j = graph.getPredecessorsStart(v);
+                        j < graph.getPredecessorsEnd(v); ++j)
+                    {
+                        value += graph.getPredecessorWeight(j)
+                            * hubs[graph.getPredecessor(j)];
+                    }
+                    nextAuthorities[v] = value;
+                    sum += value * value;
+                }
+                return sum;
+            }));
+            if (authorityNorm == 0)
+            {
+                // No edges
+                Arrays.fill(hubs, 0);
+                break;
+            }
+            scale(nextAuthorities, 1.0 / authorityNorm);
+            double hubNorm = Math.sqrt(sumInParallel(outBounds, pool,
+                (start, end) ->
+            {
+                double sum = 0;
+                for (int u = start; u < end; ++u)
+                {
+                    double value = 0;
+                    for (int j = graph.getSuccessorsStart(u);
+                        j < graph.getSuccessorsEnd(u); ++j)
+                    {
+                        value += graph.getSuccessorWeight(j)
+                            * nextAuthorities[graph.getSuccessor(j)];
+                    }
+                    nextHubs[u] = value;
+                    sum += value * value;
+                }
+                return sum;
+            }));
+            scale(nextHubs, 1.0 / hubNorm);
+            double change = 0;
+            for (int i = 0; i < n; ++i)
+            {
+                change += Math.abs(nextHubs[i] - hubs[i])
+                    + Math.abs(nextAuthorities[i] - authorities[i]);
+            }
+            System.arraycopy(nextHubs, 0, hubs, 0, n);
+            System.arraycopy(nextAuthorities, 0, authorities, 0, n);
+            if (change < tolerance)
+            {
+                break;
+            }
+        }
+        return new double[][]
+        {
+            hubs, authorities
+        };
+    }
+
+    /**
+     * Computes eigenvector centrality: the leading eigenvector of the
+     * weighted, undirected adjacency matrix (with unit L2 norm). This
+     * iterates with A + I, which has the same leading eigenvector but keeps
+     * the power method from oscillating on bipartite graphs. On a
+     * disconnected graph, the result concentrates on the component with the
+     * largest leading eigenvalue.
+     *
+     * Execution: O(m + n) per iteration, divided across threads.
+     *
+     * @param graph The graph
+     * @param tolerance Stop once the L1 change in an iteration is below this
+     * @param maxIterations The most iterations to run
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The eigenvector centrality of every node
+     */
+    @PublicationReference(author = "Phillip Bonacich", title
+        = "Power and Centrality: A Family of Measures",
+        type = PublicationType.Journal, year = 1987, publication
+        = "American Journal of Sociology", pages =
+        {
+            1170, 1182
+        })
+    public static double[] computeEigenvectorCentrality(
+        final CompressedGraphSnapshot graph,
+        double tolerance,
+        int maxIterations,
+        ThreadPoolExecutor pool)
+    {
+        final int n = graph.getNumNodes();
+        int numTasks = Math.max(1, ParallelUtil.getNumThreads(pool));
+        final int[] bounds = CompressedGraphSnapshot.partitionByOffsets(
+            graph.getNeighborOffsets(), numTasks);
+        final double[] x = new double[n];
+        Arrays.fill(x, 1.0 / Math.sqrt(n));
+        final double[] next = new double[n];
+        for (int iter = 0; iter < maxIterations; ++iter)
+        {
+            double norm = Math.sqrt(sumInParallel(bounds, pool, (start, end) ->
+            {
+                double sum = 0;
+                for (int v = start; v < end; ++v)
+                {
+                    double value = x[v];
+                    for (int j = graph.getNeighborsStart(v);
+                        j < graph.getNeighborsEnd(v); ++j)
+                    {
+                        value += graph.getNeighborWeight(j)
+                            * x[graph.getNeighbor(j)];
+                    }
+                    next[v] = value;
+                    sum += value * value;
+                }
+                return sum;
+            }));
+            scale(next, 1.0 / norm);
+            double change = 0;
+            for (int i = 0; i < n; ++i)
+            {
+                change += Math.abs(next[i] - x[i]);
+            }
+            System.arraycopy(next, 0, x, 0, n);
+            if (change < tolerance)
+            {
+                break;
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Helper that multiplies every entry by the input scalar.
+     *
+     * @param values The values to scale
+     * @param scalar The scalar
+     */
+    private static void scale(double[] values,
+        double scalar)
+    {
+        for (int i = 0; i < values.length; ++i)
+        {
+            values[i] *= scalar;
+        }
+    }
+
+    /**
+     * Interface for work on a range of nodes that returns a partial sum.
+     */
+    private static interface RangeSum
+    {
+
+        /**
+         * Does the work for nodes [start, end).
+         *
+         * @param start The first node
+         * @param end One past the last node
+         * @return This range's partial sum
+         */
+        double run(int start,
+            int end);
+
+    }
+
+    /**
+     * Runs the task on each range [bounds[i], bounds[i+1]) and adds the
+     * partial sums in range order.
+     *
+     * @param bounds The range boundaries
+     * @param pool The thread pool to use (or null to compute serially)
+     * @param task The work for each range
+     * @return The sum of all ranges' results
+     */
+    private static double sumInParallel(final int[] bounds,
+        ThreadPoolExecutor pool,
+        final RangeSum task)
+    {
+        final double[] partial = new double[bounds.length - 1];
+        CompressedGraphSnapshot.runInParallel(bounds, pool, (start, end) ->
+        {
+            if (start >= end)
+            {
+                return;
+            }
+            // The last boundary equal to start is this range's (any earlier
+            // ones begin empty ranges)
+            int lo = 0;
+            int hi = bounds.length - 1;
+            while (lo < hi)
+            {
+                int mid = (lo + hi) >>> 1;
+                if (bounds[mid] <= start)
+                {
+                    lo = mid + 1;
+                }
+                else
+                {
+                    hi = mid;
+                }
+            }
+            partial[lo - 1] = task.run(start, end);
+        });
+        double sum = 0;
+        for (double p : partial)
+        {
+            sum += p;
+        }
+        return sum;
+    }
+
+}
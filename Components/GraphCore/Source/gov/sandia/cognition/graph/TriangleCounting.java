@@ -0,0 +1,507 @@
+/*
+ * File:                TriangleCounting.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import java.util.Arrays;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the triangles in the (undirected) graph without ever storing the
+ * triangles themselves. Nodes are ranked by degree (ties broken by id) and
+ * each undirected edge is kept only in the row of its lower-ranked endpoint.
+ * Every triangle u &lt; v &lt; w (by rank) is then found exactly once, by
+ * intersecting the sorted forward rows of u and v. As no forward row is longer
+ * than sqrt(2m), this needs O(m^(3/2)) time however skewed the degrees are.
+ *
+ * Rows are split across threads by their number of forward edges. The global
+ * count needs no shared state. The per-edge counts are kept in an atomic
+ * array, as the edge between v and w can be in another thread's row, and
+ * per-node counts are derived from the per-edge counts.
+ *
+ * Like the other triangle metrics in GraphMetrics, self-loops are ignored and
+ * repeated edges between two nodes don't create repeated triangles.
+ *
+ * @author jdwendt
+ * @since 4.0.0
+ */
+@PublicationReference(author = "Matthieu Latapy", title
+    = "Main-memory triangle computations for very large (sparse "
+    + "(power-law)) graphs", type = PublicationType.Journal, publication
+    = "Theoretical Computer Science", year = 2008, pages =
+    {
+        458, 473
+    })
+public class TriangleCounting
+{
+
+    /**
+     * The number of row ranges per thread (as the work per forward edge
+     * varies, this keeps one slow range from idling the other threads)
+     */
+    private static final int RANGES_PER_THREAD = 8;
+
+    /**
+     * When one row is at least this many times longer than the other, their
+     * intersection binary searches the longer one instead of merging.
+     */
+    private static final int GALLOP_RATIO = 32;
+
+    /**
+     * Private as this only has static methods
+     */
+    private TriangleCounting()
+    {
+    }
+
+    /**
+     * Counts the triangles in the whole graph.
+     *
+     * Execution: O(m^(3/2) / t) where t is the number of threads.
+     *
+     * @param graph The graph to count in
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The number of triangles
+     */
+    public static long countTriangles(CompressedGraphSnapshot graph,
+        ThreadPoolExecutor pool)
+    {
+        final ForwardGraph forward = new ForwardGraph(graph, pool);
+        final AtomicLong total = new AtomicLong();
+        CompressedGraphSnapshot.runInParallel(forward.partition(pool), pool,
+            (start, end) ->
+        {
+            long sum = 0;
+            for (int u = start; u < end; ++u)
+            {
+                for (int p = forward.offsets[u]; p < forward.offsets[u + 1];
+                    ++p)
+                {
+                    sum += forward.intersect(p + 1, forward.offsets[u + 1],
+                        forward.targets[p], null);
+                }
+            }
+            total.addAndGet(sum);
+        });
+        return total.get();
+    }
+
+    /**
+     * Counts the triangles each node is in.
+     *
+     * Execution: O(m^(3/2) / t) where t is the number of threads.
+     *
+     * @param graph The graph to count in
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The number of triangles each node is in (indexed by node id)
+     */
+    public static long[] countNodeTriangles(CompressedGraphSnapshot graph,
+        ThreadPoolExecutor pool)
+    {
+        final ForwardGraph forward = new ForwardGraph(graph, pool);
+        final AtomicIntegerArray edgeCounts = forward.countEdgeTriangles(pool);
+        // Each of a node's triangles is on two of its edges
+        final AtomicLongArray twiceCounts = new AtomicLongArray(
+            forward.order.length);
+        CompressedGraphSnapshot.runInParallel(forward.partition(pool), pool,
+            (start, end) ->
+        {
+            for (int u = start; u < end; ++u)
+            {
+                long sum = 0;
+                for (int p = forward.offsets[u]; p < forward.offsets[u + 1];
+                    ++p)
+                {
+                    int cnt = edgeCounts.get(p);
+                    if (cnt > 0)
+                    {
+                        sum += cnt;
+                        twiceCounts.addAndGet(forward.targets[p], cnt);
+                    }
+                }
+                twiceCounts.addAndGet(u, sum);
+            }
+        });
+        long[] ret = new long[forward.order.length];
+        for (int r = 0; r < ret.length; ++r)
+        {
+            ret[forward.order[r]] = twiceCounts.get(r) / 2;
+        }
+        return ret;
+    }
+
+    /**
+     * Counts the triangles each edge is in. Repeated edges between the same
+     * two nodes each get the same count; self-loops are in no triangles.
+     *
+     * Execution: O(m^(3/2) / t) where t is the number of threads.
+     *
+     * @param graph The graph to count in
+     * @param pool The thread pool to use (or null to compute serially)
+     * @return The number of triangles each edge is in (indexed by edge id)
+     */
+    public static int[] countEdgeTriangles(final CompressedGraphSnapshot graph,
+        ThreadPoolExecutor pool)
+    {
+        final ForwardGraph forward = new ForwardGraph(graph, pool);
+        final AtomicIntegerArray edgeCounts = forward.countEdgeTriangles(pool);
+        final int[] ret = new int[graph.getNumEdges()];
+        CompressedGraphSnapshot.runInParallel(
+            CompressedGraphSnapshot.partitionByOffsets(
+                graph.getSuccessorOffsets(), Math.max(1,
+                    ParallelUtil.getNumThreads(pool))), pool, (start, end) ->
+        {
+            for (int u = start; u < end; ++u)
+            {
+                for (int j = graph.getSuccessorsStart(u);
+                    j < graph.getSuccessorsEnd(u); ++j)
+                {
+                    int v = graph.getSuccessor(j);
+                    if (v == u)
+                    {
+                        continue;
+                    }
+                    int lo = Math.min(forward.rank[u], forward.rank[v]);
+                    int hi = Math.max(forward.rank[u], forward.rank[v]);
+                    int p = Arrays.binarySearch(forward.targets,
+                        forward.offsets[lo], forward.offsets[lo + 1], hi);
+                    ret[graph.getSuccessorEdgeId(j)] = edgeCounts.get(p);
+                }
+            }
+        });
+        return ret;
+    }
+
+    /**
+     * Computes the local clustering coefficient of every node: the fraction
+     * of pairs of its neighbors that are themselves neighbors. Nodes with
+     * fewer than two neighbors have a coefficient of zero.
+     *
+     * Execution: O(n)
+     *
+     * @param graph The graph
+     * @param nodeTriangles The number of triangles each node is in (see
+     * countNodeTriangles)
+     * @return The local clustering coefficient of every node
+     */
+    @PublicationReference(author = "Duncan J. Watts and Steven H. Strogatz",
+        title = "Collective dynamics of 'small-world' networks", type
+        = PublicationType.Journal, publication = "Nature", year = 1998, pages
+        =
+        {
+            440, 442
+        })
+    public static double[] computeLocalClusteringCoefficients(
+        CompressedGraphSnapshot graph,
+        long[] nodeTriangles)
+    {
+        double[] ret = new double[graph.getNumNodes()];
+        for (int u = 0; u < ret.length; ++u)
+        {
+            long d = numOtherNeighbors(graph, u);
+            if (d > 1)
+            {
+                ret[u] = (2.0 * nodeTriangles[u]) / (d * (d - 1));
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Computes the global clustering coefficient (or transitivity): three
+     * times the number of triangles over the number of connected triples
+     * (paths of length two).
+     *
+     * Execution: O(n)
+     *
+     * @param graph The graph
+     * @param numTriangles The number of triangles in the graph (see
+     * countTriangles)
+     * @return The global clustering coefficient (0 if the graph has no
+     * connected triples)
+     */
+    public static double computeGlobalClusteringCoefficient(
+        CompressedGraphSnapshot graph,
+        long numTriangles)
+    {
+        double numTriples = 0;
+        for (int u = 0; u < graph.getNumNodes(); ++u)
+        {
+            long d = numOtherNeighbors(graph, u);
+            numTriples += (d * (d - 1)) / 2;
+        }
+        if (numTriples == 0)
+        {
+            return 0;
+        }
+        return (3.0 * numTriangles) / numTriples;
+    }
+
+    /**
+     * Private helper that returns the number of neighbors of u (not counting
+     * u itself if u has a self-loop).
+     *
+     * @param graph The graph
+     * @param u The node
+     * @return The number of other nodes u neighbors
+     */
+    private static int numOtherNeighbors(CompressedGraphSnapshot graph,
+        int u)
+    {
+        return graph.getNumNeighbors(u) - (graph.isNeighbor(u, u) ? 1 : 0);
+    }
+
+    /**
+     * The degree-ordered forward adjacency: nodes are renumbered by rank, and
+     * each row holds only the (sorted) higher-ranked neighbors.
+     */
+    private static class ForwardGraph
+    {
+
+        /**
+         * The rank of every node id
+         */
+        final int[] rank;
+
+        /**
+         * The node id at every rank
+         */
+        final int[] order;
+
+        /**
+         * Where each rank's forward row starts in targets
+         */
+        final int[] offsets;
+
+        /**
+         * The forward rows (as ranks)
+         */
+        final int[] targets;
+
+        /**
+         * Builds the forward adjacency for the input graph.
+         *
+         * Execution: O(m log d + n)
+         *
+         * @param graph The graph
+         * @param pool The thread pool to use (or null to build serially)
+         */
+        ForwardGraph(final CompressedGraphSnapshot graph,
+            ThreadPoolExecutor pool)
+        {
+            int n = graph.getNumNodes();
+            // Counting sort by degree keeps ties in id order
+            int[] degrees = new int[n];
+            int maxDegree = 0;
+            for (int u = 0; u < n; ++u)
+            {
+                degrees[u] = numOtherNeighbors(graph, u);
+                maxDegree = Math.max(maxDegree, degrees[u]);
+            }
+            int[] firstOfDegree = new int[maxDegree + 2];
+            for (int u = 0; u < n; ++u)
+            {
+                ++firstOfDegree[degrees[u] + 1];
+            }
+            for (int d = 1; d < firstOfDegree.length; ++d)
+            {
+                firstOfDegree[d] += firstOfDegree[d - 1];
+            }
+            rank = new int[n];
+            order = new int[n];
+            for (int u = 0; u < n; ++u)
+            {
+                int r = firstOfDegree[degrees[u]]++;
+                rank[u] = r;
+                order[r] = u;
+            }
+
+            offsets = new int[n + 1];
+            for (int r = 0; r < n; ++r)
+            {
+                int u = order[r];
+                int cnt = 0;
+                for (int j = graph.getNeighborsStart(u);
+                    j < graph.getNeighborsEnd(u); ++j)
+                {
+                    if (rank[graph.getNeighbor(j)] > r)
+                    {
+                        ++cnt;
+                    }
+                }
+                offsets[r + 1] = offsets[r] + cnt;
+            }
+            targets = new int[offsets[n]];
+            CompressedGraphSnapshot.runInParallel(partition(pool), pool,
+                (start, end) ->
+            {
+                for (int r = start; r < end; ++r)
+                {
+                    int u = order[r];
+                    int p = offsets[r];
+                    for (int j = graph.getNeighborsStart(u);
+                        j < graph.getNeighborsEnd(u); ++j)
+                    {
+                        int s = rank[graph.getNeighbor(j)];
+                        if (s > r)
+                        {
+                            targets[p++] = s;
+                        }
+                    }
+                    Arrays.sort(targets, offsets[r], offsets[r + 1]);
+                }
+            });
+        }
+
+        /**
+         * Splits the rows into ranges with about the same number of forward
+         * edges, several per thread.
+         *
+         * @param pool The thread pool to be used (or null)
+         * @return The range boundaries
+         */
+        int[] partition(ThreadPoolExecutor pool)
+        {
+            int numThreads = ParallelUtil.getNumThreads(pool);
+            if (numThreads <= 1)
+            {
+                return new int[]
+                {
+                    0, order.length
+                };
+            }
+            return CompressedGraphSnapshot.partitionByOffsets(offsets,
+                numThreads * RANGES_PER_THREAD);
+        }
+
+        /**
+         * Counts the triangles on every forward edge.
+         *
+         * @param pool The thread pool to use (or null to compute serially)
+         * @return The number of triangles on each forward edge (indexed as
+         * targets)
+         */
+        AtomicIntegerArray countEdgeTriangles(ThreadPoolExecutor pool)
+        {
+            final AtomicIntegerArray edgeCounts = new AtomicIntegerArray(
+                targets.length);
+            CompressedGraphSnapshot.runInParallel(partition(pool), pool,
+                (start, end) ->
+            {
+                for (int u = start; u < end; ++u)
+                {
+                    for (int p = offsets[u]; p < offsets[u + 1]; ++p)
+                    {
+                        int cnt = intersect(p + 1, offsets[u + 1], targets[p],
+                            edgeCounts);
+                        if (cnt > 0)
+                        {
+                            edgeCounts.addAndGet(p, cnt);
+                        }
+                    }
+                }
+            });
+            return edgeCounts;
+        }
+
+        /**
+         * Intersects targets[uStart, uEnd) (the rest of u's row after v)
+         * with v's row. Each common w closes a triangle u, v, w. If
+         * edgeCounts isn't null, the counts for edges (u, w) and (v, w) are
+         * incremented; the count for (u, v) is left to the caller.
+         *
+         * @param uStart The start of the part of u's row to intersect
+         * @param uEnd The end of u's row
+         * @param v The second node (by rank)
+         * @param edgeCounts The per-forward-edge counts to update (or null)
+         * @return The number of triangles found
+         */
+        int intersect(int uStart,
+            int uEnd,
+            int v,
+            AtomicIntegerArray edgeCounts)
+        {
+            int vStart = offsets[v];
+            int vEnd = offsets[v + 1];
+            int uLen = uEnd - uStart;
+            int vLen = vEnd - vStart;
+            if (uLen == 0 || vLen == 0)
+            {
+                return 0;
+            }
+            int cnt = 0;
+            if (uLen > GALLOP_RATIO * vLen || vLen > GALLOP_RATIO * uLen)
+            {
+                boolean uShorter = uLen < vLen;
+                int sStart = uShorter ? uStart : vStart;
+                int sEnd = uShorter ? uEnd : vEnd;
+                int lStart = uShorter ? vStart : uStart;
+                int lEnd = uShorter ? vEnd : uEnd;
+                for (int i = sStart; i < sEnd && lStart < lEnd; ++i)
+                {
+                    int j = Arrays.binarySearch(targets, lStart, lEnd,
+                        targets[i]);
+                    if (j >= 0)
+                    {
+                        ++cnt;
+                        if (edgeCounts != null)
+                        {
+                            edgeCounts.incrementAndGet(i);
+                            edgeCounts.incrementAndGet(j);
+                        }
+                        lStart = j + 1;
+                    }
+                    else
+                    {
+                        lStart = -j - 1;
+                    }
+                }
+                return cnt;
+            }
+            int i = uStart;
+            int j = vStart;
+            while (i < uEnd && j < vEnd)
+            {
+                if (targets[i] < targets[j])
+                {
+                    ++i;
+                }
+                else if (targets[i] > targets[j])
+                {
+                    ++j;
+                }
+                else
+                {
+                    ++cnt;
+                    if (edgeCounts != null)
+                    {
+                        edgeCounts.incrementAndGet(i);
+                        edgeCounts.incrementAndGet(j);
+                    }
+                    ++i;
+                    ++j;
+                }
+            }
+            return cnt;
+        }
+
+    }
+
+}
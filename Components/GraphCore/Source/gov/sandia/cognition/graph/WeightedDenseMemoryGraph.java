@@ -161,6 +161,23 @@ public class WeightedDenseMemoryGraph<NodeNameType>
         return weights.get(id);
     }
 
+    /**
+     * Copies the weights for the compressed snapshot.
+     *
+     * @return the weights of all edges in edge id order
+     */
+    @Override
+    protected double[] getEdgeWeightsArray()
+    {
+        optimizeEdges();
+        double[] result = new double[weights.size()];
+        for (int i = 0; i < result.length; ++i)
+        {
+            result[i] = weights.get(i);
+        }
+        return result;
+    }
+
     /**
      * @see gov.sandia.graph.BasicDenseMemoryGraph#clear()
      */
@@ -16,8 +16,8 @@ package gov.sandia.cognition.graph.community;
 
 import gov.sandia.cognition.annotation.PublicationReference;
 import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.graph.CompressedGraphSnapshot;
 import gov.sandia.cognition.graph.DirectedNodeEdgeGraph;
-import gov.sandia.cognition.graph.DirectedWeightedNodeEdgeGraph;
 import gov.sandia.cognition.graph.GraphMetrics;
 import gov.sandia.cognition.util.Pair;
 import java.util.Arrays;
@@ -191,38 +191,41 @@ public class CommunityMetrics
         double edgesCut = 0;
         double edgesInside = 0;
         double edgesOutside = 0;
-        boolean isWeighted = (graph instanceof DirectedWeightedNodeEdgeGraph);
-        for (int i = 0; i < graph.getNumEdges(); ++i)
+        CompressedGraphSnapshot snapshot = graph.getCompressedSnapshot();
+        int n = snapshot.getNumNodes();
+        boolean[] inside = new boolean[n];
+        for (int i = 0; i < n; ++i)
         {
-            Pair<Integer, Integer> edge = graph.getEdgeEndpointIds(i);
-            double w = 1.0;
-            if (isWeighted)
-            {
-                w = ((DirectedWeightedNodeEdgeGraph) graph).getEdgeWeight(i);
-            }
-            boolean inside_i
-                = community.contains(graph.getNode(edge.getFirst()));
-            boolean inside_j = community.contains(
-                graph.getNode(edge.getSecond()));
-            if (inside_i != inside_j)
-            {
-                edgesCut += w;
-            }
-            if (inside_i)
-            {
-                edgesInside += w;
-            }
-            else
-            {
-                edgesOutside += w;
-            }
-            if (inside_j)
-            {
-                edgesInside += w;
-            }
-            else
+            inside[i] = community.contains(graph.getNode(i));
+        }
+        for (int i = 0; i < n; ++i)
+        {
+            boolean inside_i = inside[i];
+            for (int j = snapshot.getSuccessorsStart(i);
+                j < snapshot.getSuccessorsEnd(i); ++j)
             {
-                edgesOutside += w;
+                double w = snapshot.getSuccessorWeight(j);
+                boolean inside_j = inside[snapshot.getSuccessor(j)];
+                if (inside_i != inside_j)
+                {
+                    edgesCut += w;
+                }
+                if (inside_i)
+                {
+                    edgesInside += w;
+                }
+                else
+                {
+                    edgesOutside += w;
+                }
+                if (inside_j)
+                {
+                    edgesInside += w;
+                }
+                else
+                {
+                    edgesOutside += w;
+                }
             }
         }
         return (edgesCut) / Math.min(edgesInside, edgesOutside);
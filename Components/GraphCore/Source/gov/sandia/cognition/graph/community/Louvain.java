@@ -17,10 +17,8 @@ package gov.sandia.cognition.graph.community;
 import gov.sandia.cognition.annotation.PublicationReference;
 import gov.sandia.cognition.annotation.PublicationType;
 import gov.sandia.cognition.graph.DirectedNodeEdgeGraph;
-import gov.sandia.cognition.graph.DirectedWeightedNodeEdgeGraph;
 import gov.sandia.cognition.collection.DoubleArrayList;
 import gov.sandia.cognition.collection.IntArrayList;
-import gov.sandia.cognition.util.Pair;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -202,36 +200,13 @@ public class Louvain<NodeNameType>
         this.nodeMap = new HashMap<>(numNodes);
 
         // Initialize the per-node values
-        int neighborsSoFar = 0;
         this.numNeighborCommunities = 0;
         this.totalWeight = 0;
-        Map<Integer, HashMap<Integer, Double>> edges = new HashMap<>(
-            graph.getNumNodes());
-        for (int i = 0; i < graph.getNumNodes(); ++i)
-        {
-            edges.put(i, new HashMap<>());
-        }
-        for (int i = 0; i < graph.getNumEdges(); ++i)
-        {
-            Pair<Integer, Integer> edge = graph.getEdgeEndpointIds(i);
-            int l = edge.getFirst();
-            int r = edge.getSecond();
-            double w = 1.0;
-            if (graph instanceof DirectedWeightedNodeEdgeGraph)
-            {
-                w = ((DirectedWeightedNodeEdgeGraph) graph).getEdgeWeight(i);
-            }
-            if (!edges.get(l).containsKey(r))
-            {
-                edges.get(l).put(r, 0.0);
-            }
-            edges.get(l).put(r, w + edges.get(l).get(r));
-            if (!edges.get(r).containsKey(l))
-            {
-                edges.get(r).put(l, 0.0);
-            }
-            edges.get(r).put(l, w + edges.get(r).get(l));
-        }
+        YaleFormatWeightedNeighbors<NodeNameType> yale
+            = new YaleFormatWeightedNeighbors<>(graph, false);
+        this.neighbors = yale.getNeighbors();
+        this.wNeighbors = yale.getNeighborsWeights();
+        this.neighborsFirstIdx = yale.getNeighborsFirstIndex();
         for (int i = 0; i < graph.getNumNodes(); ++i)
         {
             // Save the vertex-to-id map for myself going forward
@@ -244,17 +219,15 @@ public class Louvain<NodeNameType>
             // Initialize all of these to zero ... they are computed in the per-edge for loop
             this.weightedNodeDegree.add(0);
             this.weightedSelfLoops.add(0);
-            neighborsSoFar += edges.get(i).size();
         }
         // Initialize the per-edge values
-        for (Map.Entry<Integer, HashMap<Integer, Double>> edgeMap
-            : edges.entrySet())
+        for (int l = 0; l < numNodes; ++l)
         {
-            int l = edgeMap.getKey();
-            for (Map.Entry<Integer, Double> edge : edgeMap.getValue().entrySet())
+            for (int j = this.neighborsFirstIdx.get(l);
+                j < this.neighborsFirstIdx.get(l + 1); ++j)
             {
-                int r = edge.getKey();
-                double w = edge.getValue();
+                int r = this.neighbors.get(j);
+                double w = this.wNeighbors.get(j);
                 // It's a self loop
                 if (l == r)
                 {
@@ -274,11 +247,6 @@ public class Louvain<NodeNameType>
             // And the total weight for the graph
             this.totalWeight += this.weightedNodeDegree.get(i);
         }
-        YaleFormatWeightedNeighbors<NodeNameType> yale
-            = new YaleFormatWeightedNeighbors<>(graph, false);
-        this.neighbors = new IntArrayList(yale.getNeighbors());
-        this.wNeighbors = new DoubleArrayList(yale.getNeighborsWeights());
-        this.neighborsFirstIdx = new IntArrayList(yale.getNeighborsFirstIndex());
 
         generator = new Random();
         results = new LouvainHierarchy<>(nodeMap);
@@ -892,6 +860,32 @@ public class Louvain<NodeNameType>
             modularities.add(modularity);
         }
 
+        /**
+         * Moves a node to a different community at level 0. The caller must
+         * keep the levels above consistent and update the modularities.
+         *
+         * @param nodeId The local id of the node
+         * @param community The node's new community at level 0
+         */
+        void setLevelZeroCommunity(int nodeId,
+            int community)
+        {
+            communities.set(nodeId, community);
+            topCommunities = null;
+        }
+
+        /**
+         * Replaces the modularity stored for a level.
+         *
+         * @param level The level
+         * @param modularity The modularity of that level's communities
+         */
+        void setModularity(int level,
+            double modularity)
+        {
+            modularities.set(level, modularity);
+        }
+
         /**
          * The number of levels in the hierarchy.
          *
@@ -0,0 +1,1465 @@
+/*
+ * File:                ParallelLouvain.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph.community;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationReferences;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.collection.IntArrayList;
+import gov.sandia.cognition.graph.CompressedGraphSnapshot;
+import gov.sandia.cognition.graph.DirectedNodeEdgeGraph;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class performs community detection using a parallel version of the
+ * Louvain method. The graph at each level is stored as primitive CSR arrays,
+ * and each node's best move is computed concurrently. To keep concurrent moves
+ * from working against each other, the nodes are first colored (no two
+ * neighbors share a color) and one color's nodes are moved at a time. Each
+ * community's total weight is kept in a primitive array updated atomically,
+ * and each level's graph is coarsened in parallel. Results are returned in the
+ * same hierarchy as Louvain.
+ *
+ * Vertex following merges each node with only one neighbor into that
+ * neighbor's community before the first level (it would always end up there).
+ *
+ * In deterministic mode, moves are still computed in parallel but the
+ * community weights are updated in node order, so runs with the same random
+ * seed give the same result no matter the number of threads.
+ *
+ * If Leiden refinement is turned on, each level's communities are split into
+ * well-connected sub-communities before coarsening (the sub-communities
+ * become the next level's nodes, and start in their parent's community). This
+ * guarantees communities are connected.
+ *
+ * Once all levels are done, the original nodes get one more (parallel) pass of
+ * moves against the top-level communities (unless Leiden refinement is on, as
+ * a move could disconnect a community). Coarsening locks a node into its
+ * first-level community, and moving colors in parallel places more low-degree
+ * nodes wrongly there than the serial Louvain does; this pass lets them move
+ * to the community they belong in. A moved node is put in a first-level
+ * community inside its new top-level community, and the modularity of each
+ * level is updated. The pass costs about as much as the first level's moves.
+ *
+ * Each instance should be used to run only one time.
+ *
+ * @param <NodeNameType> The class type for the graph's nodes
+ * @author jdwendt
+ * @since 4.0.0
+ */
+@PublicationReferences(references =
+{
+    @PublicationReference(author
+        = "Hao Lu, Mahantesh Halappanavar, and Ananth Kalyanaraman",
+        title = "Parallel heuristics for scalable community detection",
+        type = PublicationType.Journal, year = 2015,
+        publication = "Parallel Computing", pages =
+        {
+            3, 18
+        }),
+    @PublicationReference(author
+        = "Vincent A. Traag, Ludo Waltman, and Nees Jan van Eck",
+        title
+        = "From Louvain to Leiden: guaranteeing well-connected communities",
+        type = PublicationType.Journal, year = 2019,
+        publication = "Scientific Reports")
+})
+public class ParallelLouvain<NodeNameType>
+{
+
+    /**
+     * Graphs with fewer nodes than this are solved serially unless a thread
+     * pool is set
+     */
+    public static final int MIN_PARALLEL_NODES = 10000;
+
+    /**
+     * Colors with fewer nodes than this are moved serially (the cost of
+     * handing them to the pool is more than the work)
+     */
+    private static final int MIN_PARALLEL_BLOCK = 512;
+
+    /**
+     * The graph to find communities in
+     */
+    private final DirectedNodeEdgeGraph<NodeNameType> graph;
+
+    /**
+     * A user-specified parameter that limits the number of passes that might be
+     * done at each level in the hierarchy
+     */
+    private final int maxNumPasses;
+
+    /**
+     * A user-specified parameter that specifies the minimum amount modularity
+     * must increase if further passes should be done
+     */
+    private final double minModularityGain;
+
+    /**
+     * The random number generator to be used
+     */
+    private Random generator;
+
+    /**
+     * The thread pool (null to create one as needed)
+     */
+    private ThreadPoolExecutor threadPool;
+
+    /**
+     * If true, nodes are colored and moved one color at a time
+     */
+    private boolean useColoring;
+
+    /**
+     * If true, nodes with one neighbor start in that neighbor's community
+     */
+    private boolean useVertexFollowing;
+
+    /**
+     * If true, community weights are updated in node order
+     */
+    private boolean deterministic;
+
+    /**
+     * If true, communities are refined before coarsening
+     */
+    private boolean useLeidenRefinement;
+
+    /**
+     * If true, the original nodes are moved once more against the top-level
+     * communities
+     */
+    private boolean useFinalRefinement;
+
+    /**
+     * Stores the results of the algorithm
+     */
+    private Louvain.LouvainHierarchy<NodeNameType> results;
+
+    /**
+     * The pool the current solve runs on (null for serial)
+     */
+    private ThreadPoolExecutor pool;
+
+    /**
+     * Per-thread work arrays available for reuse
+     */
+    private ConcurrentLinkedQueue<Workspace> workspaces;
+
+    /**
+     * Initializes the parallel Louvain solver for the input graph with the
+     * same defaults as Louvain.
+     *
+     * @param graph The graph to execute community detection on
+     */
+    public ParallelLouvain(DirectedNodeEdgeGraph<NodeNameType> graph)
+    {
+        this(graph, 100, 1e-4);
+    }
+
+    /**
+     * Initializes the parallel Louvain solver for the input graph.
+     *
+     * @param graph The graph to execute community detection on
+     * @param maxNumPasses The maximum number of passes to iterate within each
+     * level of the hierarchy
+     * @param minModularityGain The minimum the amount modularity must improve
+     * on each pass to continue iterating within each level of the hierarchy.
+     */
+    public ParallelLouvain(DirectedNodeEdgeGraph<NodeNameType> graph,
+        int maxNumPasses,
+        double minModularityGain)
+    {
+        if (minModularityGain < 0)
+        {
+            throw new IllegalArgumentException(
+                "Minimum modularity gain must be postive.");
+        }
+        if (maxNumPasses <= 0)
+        {
+            throw new IllegalArgumentException(
+                "Maximum number of passes per iteration must be postive");
+        }
+        this.graph = graph;
+        this.maxNumPasses = maxNumPasses;
+        this.minModularityGain = minModularityGain;
+        this.generator = new Random();
+        this.threadPool = null;
+        this.useColoring = true;
+        this.useVertexFollowing = true;
+        this.deterministic = false;
+        this.useLeidenRefinement = false;
+        this.useFinalRefinement = true;
+        this.results = null;
+    }
+
+    /**
+     * Initialize the random number generator with the input seed.
+     *
+     * @param seed The seed for the random number generator
+     */
+    public void setRandomSeed(long seed)
+    {
+        generator = new Random(seed);
+    }
+
+    /**
+     * Returns the thread pool (or null if a temporary one is created as
+     * needed).
+     *
+     * @return the thread pool
+     */
+    public ThreadPoolExecutor getThreadPool()
+    {
+        return threadPool;
+    }
+
+    /**
+     * Sets the thread pool. If null, a temporary one is created for large
+     * enough graphs.
+     *
+     * @param threadPool the thread pool
+     */
+    public void setThreadPool(ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * Returns true if nodes are colored and moved one color at a time.
+     *
+     * @return true if coloring is used
+     */
+    public boolean isUseColoring()
+    {
+        return useColoring;
+    }
+
+    /**
+     * Sets if nodes are colored and moved one color at a time (default true).
+     * If false, all nodes move at once based on the last pass's communities;
+     * a singleton only moves to another singleton community with a smaller
+     * id, which keeps neighbors from swapping communities forever.
+     *
+     * @param useColoring true to use coloring
+     */
+    public void setUseColoring(boolean useColoring)
+    {
+        this.useColoring = useColoring;
+    }
+
+    /**
+     * Returns true if nodes with one neighbor start in that neighbor's
+     * community.
+     *
+     * @return true if vertex following is used
+     */
+    public boolean isUseVertexFollowing()
+    {
+        return useVertexFollowing;
+    }
+
+    /**
+     * Sets if nodes with one neighbor start in that neighbor's community
+     * (default true).
+     *
+     * @param useVertexFollowing true to use vertex following
+     */
+    public void setUseVertexFollowing(boolean useVertexFollowing)
+    {
+        this.useVertexFollowing = useVertexFollowing;
+    }
+
+    /**
+     * Returns true if runs are reproducible (given the same random seed).
+     *
+     * @return true if in deterministic mode
+     */
+    public boolean isDeterministic()
+    {
+        return deterministic;
+    }
+
+    /**
+     * Sets if runs are reproducible (default false). In deterministic mode,
+     * community weights are updated in node order rather than atomically as
+     * each thread finishes, so floating point sums are the same on every run.
+     * Combine with setRandomSeed.
+     *
+     * @param deterministic true for reproducible runs
+     */
+    public void setDeterministic(boolean deterministic)
+    {
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Returns true if communities are refined (as in Leiden) before
+     * coarsening.
+     *
+     * @return true if Leiden refinement is used
+     */
+    public boolean isUseLeidenRefinement()
+    {
+        return useLeidenRefinement;
+    }
+
+    /**
+     * Sets if communities are refined (as in Leiden) before coarsening
+     * (default false). When true, each level of the hierarchy stores the
+     * refined sub-communities (and their modularity), and the top level stores
+     * the final communities.
+     *
+     * @param useLeidenRefinement true to use Leiden refinement
+     */
+    public void setUseLeidenRefinement(boolean useLeidenRefinement)
+    {
+        this.useLeidenRefinement = useLeidenRefinement;
+    }
+
+    /**
+     * Returns true if the original nodes are moved once more against the
+     * top-level communities after all levels are done.
+     *
+     * @return true if the final refinement is used
+     */
+    public boolean isUseFinalRefinement()
+    {
+        return useFinalRefinement;
+    }
+
+    /**
+     * Sets if the original nodes are moved once more against the top-level
+     * communities after all levels are done (default true). This is skipped
+     * when Leiden refinement is used.
+     *
+     * @param useFinalRefinement true to use the final refinement
+     */
+    public void setUseFinalRefinement(boolean useFinalRefinement)
+    {
+        this.useFinalRefinement = useFinalRefinement;
+    }
+
+    /**
+     * Solves for community detection of the graph passed in during the
+     * constructor. If this was called previously, the same result will be
+     * returned herein.
+     *
+     * @return The hierarchy of the community structure for all nodes.
+     */
+    public Louvain.LouvainHierarchy<NodeNameType> solveCommunities()
+    {
+        if (results != null)
+        {
+            return results;
+        }
+        Map<NodeNameType, Integer> nodeMap = new HashMap<>(
+            graph.getNumNodes());
+        for (int i = 0; i < graph.getNumNodes(); ++i)
+        {
+            nodeMap.put(graph.getNode(i), i);
+        }
+        results = new Louvain.LouvainHierarchy<>(nodeMap);
+
+        pool = threadPool;
+        if (pool == null && graph.getNumNodes() >= MIN_PARALLEL_NODES)
+        {
+            pool = ParallelUtil.createThreadPool();
+        }
+        workspaces = new ConcurrentLinkedQueue<>();
+        try
+        {
+            solve();
+        }
+        finally
+        {
+            if (pool != threadPool)
+            {
+                pool.shutdown();
+            }
+            pool = null;
+            workspaces = null;
+        }
+        return results;
+    }
+
+    /**
+     * Helper that runs all levels.
+     */
+    private void solve()
+    {
+        CompressedGraphSnapshot snapshot = graph.getCompressedSnapshot();
+        Level level = new Level(snapshot.getNeighborOffsets(),
+            snapshot.getNeighbors(), snapshot.getNeighborWeights());
+        int[] community = new int[level.n];
+        for (int i = 0; i < level.n; ++i)
+        {
+            community[i] = i;
+        }
+        if (useVertexFollowing)
+        {
+            followVertices(level, community);
+        }
+
+        final Level original = level;
+        while (true)
+        {
+            moveNodes(level, community);
+            int numCommunities = renumber(community);
+            int[] aggregate = community;
+            int numAggregate = numCommunities;
+            if (useLeidenRefinement)
+            {
+                aggregate = refine(level, community, numCommunities);
+                numAggregate = renumber(aggregate);
+            }
+            if (numAggregate == level.n)
+            {
+                // Nothing left to merge
+                if (numCommunities < level.n || results.numLevels() == 0)
+                {
+                    results.addLevel(toList(community), modularity(level,
+                        community));
+                }
+                break;
+            }
+            results.addLevel(toList(aggregate), modularity(level, aggregate));
+            Level next = coarsen(level, aggregate, numAggregate);
+            int[] nextCommunity = new int[numAggregate];
+            for (int i = 0; i < level.n; ++i)
+            {
+                nextCommunity[aggregate[i]] = community[i];
+            }
+            level = next;
+            community = nextCommunity;
+        }
+        if (useFinalRefinement && !useLeidenRefinement)
+        {
+            refineTopLevel(original);
+        }
+    }
+
+    /**
+     * Moves the original nodes against the top-level communities and stores
+     * the moves in the hierarchy. A moved node needs a level-0 community that
+     * ends in its new top-level community; moves with none (every node there
+     * moved too) and moves that would empty a top-level community are undone.
+     * If modularity doesn't improve, nothing is changed.
+     *
+     * @param level The original graph
+     */
+    private void refineTopLevel(final Level level)
+    {
+        final int numLevels = results.numLevels();
+        if (numLevels < 2)
+        {
+            // The nodes were never coarsened, so they have already converged
+            return;
+        }
+        final int n = level.n;
+        final int top = numLevels - 1;
+        int[] before = new int[n];
+        int[] levelZero = new int[n];
+        for (int i = 0; i < n; ++i)
+        {
+            before[i] = results.getPartitionById(i);
+            levelZero[i] = results.getCommunityForNodeAtLevelById(i, 0);
+        }
+        int[] community = before.clone();
+        if (!moveNodes(level, community))
+        {
+            return;
+        }
+
+        int numTop = results.getNumPartitions();
+        int[] size = new int[numTop];
+        int[] anchor = new int[numTop];
+        boolean changed;
+        do
+        {
+            changed = false;
+            Arrays.fill(size, 0);
+            for (int i = 0; i < n; ++i)
+            {
+                ++size[community[i]];
+            }
+            Arrays.fill(anchor, -1);
+            for (int i = 0; i < n; ++i)
+            {
+                if (community[i] == before[i] && anchor[community[i]] < 0)
+                {
+                    anchor[community[i]] = levelZero[i];
+                }
+            }
+            for (int i = 0; i < n; ++i)
+            {
+                if (community[i] != before[i] && (size[before[i]] == 0
+                    || anchor[community[i]] < 0))
+                {
+                    community[i] = before[i];
+                    changed = true;
+                }
+            }
+        }
+        while (changed);
+
+        for (int i = 0; i < n; ++i)
+        {
+            if (community[i] != before[i])
+            {
+                results.setLevelZeroCommunity(i, anchor[community[i]]);
+            }
+        }
+        double[] modularities = new double[numLevels];
+        int[] partition = new int[n];
+        for (int l = 0; l < numLevels; ++l)
+        {
+            for (int i = 0; i < n; ++i)
+            {
+                partition[i] = results.getCommunityForNodeAtLevelById(i, l);
+            }
+            modularities[l] = modularity(level, partition);
+        }
+        if (modularities[top] <= results.getModularity(top))
+        {
+            // Stale parallel moves can lose modularity; keep the levels
+            for (int i = 0; i < n; ++i)
+            {
+                results.setLevelZeroCommunity(i, levelZero[i]);
+            }
+            return;
+        }
+        for (int l = 0; l < numLevels; ++l)
+        {
+            results.setModularity(l, modularities[l]);
+        }
+    }
+
+    /**
+     * The graph at one level of the hierarchy. Neighbors are sorted and
+     * unique, and a self loop's weight is stored once.
+     */
+    private static class Level
+    {
+
+        /**
+         * The number of nodes
+         */
+        final int n;
+
+        /**
+         * The first neighbor index for each node (n + 1 entries)
+         */
+        final int[] offsets;
+
+        /**
+         * The neighbors of all nodes
+         */
+        final int[] neighbors;
+
+        /**
+         * The weight to each neighbor
+         */
+        final double[] weights;
+
+        /**
+         * The weighted degree of each node
+         */
+        final double[] degree;
+
+        /**
+         * The sum of all weighted degrees (twice the edge weight)
+         */
+        final double totalWeight;
+
+        /**
+         * Wraps the input arrays and computes the degrees.
+         *
+         * @param offsets The first neighbor index for each node
+         * @param neighbors The neighbors of all nodes
+         * @param weights The weight to each neighbor
+         */
+        Level(int[] offsets,
+            int[] neighbors,
+            double[] weights)
+        {
+            this.n = offsets.length - 1;
+            this.offsets = offsets;
+            this.neighbors = neighbors;
+            this.weights = weights;
+            this.degree = new double[n];
+            double total = 0;
+            for (int i = 0; i < n; ++i)
+            {
+                for (int j = offsets[i]; j < offsets[i + 1]; ++j)
+                {
+                    degree[i] += weights[j];
+                }
+                total += degree[i];
+            }
+            this.totalWeight = total;
+        }
+
+    }
+
+    /**
+     * Per-thread scratch space for summing weights by community.
+     */
+    private static class Workspace
+    {
+
+        /**
+         * The weight to each community found
+         */
+        final double[] weight;
+
+        /**
+         * True for each community found
+         */
+        final boolean[] found;
+
+        /**
+         * The communities found
+         */
+        final int[] touched;
+
+        /**
+         * The number of communities found
+         */
+        int numTouched;
+
+        /**
+         * Creates scratch space for up to n communities.
+         *
+         * @param n The number of communities
+         */
+        Workspace(int n)
+        {
+            weight = new double[n];
+            found = new boolean[n];
+            touched = new int[n];
+            numTouched = 0;
+        }
+
+        /**
+         * Adds weight to the input community.
+         *
+         * @param c The community
+         * @param w The weight
+         */
+        void add(int c,
+            double w)
+        {
+            if (!found[c])
+            {
+                found[c] = true;
+                weight[c] = 0;
+                touched[numTouched++] = c;
+            }
+            weight[c] += w;
+        }
+
+        /**
+         * Returns the weight to c (0 if not found).
+         *
+         * @param c The community
+         * @return its weight
+         */
+        double get(int c)
+        {
+            return found[c] ? weight[c] : 0;
+        }
+
+        /**
+         * Forgets all found communities.
+         */
+        void clear()
+        {
+            for (int i = 0; i < numTouched; ++i)
+            {
+                found[touched[i]] = false;
+            }
+            numTouched = 0;
+        }
+
+    }
+
+    /**
+     * Interface for work done with a workspace on a range of items.
+     */
+    private static interface WorkspaceTask
+    {
+
+        /**
+         * Does the work on items [start, end).
+         *
+         * @param workspace This thread's workspace
+         * @param start The first item
+         * @param end One past the last item
+         */
+        void run(Workspace workspace,
+            int start,
+            int end);
+
+    }
+
+    /**
+     * Helper that runs the task over [0, numItems) on the pool (serially if
+     * there are few items), handing each range a workspace.
+     *
+     * @param numItems The number of items
+     * @param size The size of workspace needed
+     * @param task The work to do
+     */
+    private void runInParallel(int numItems,
+        final int size,
+        final WorkspaceTask task)
+    {
+        CompressedGraphSnapshot.runInParallel(numItems,
+            (numItems < MIN_PARALLEL_BLOCK) ? null : pool, (start, end) ->
+        {
+            if (start >= end)
+            {
+                return;
+            }
+            Workspace workspace = workspaces.poll();
+            if (workspace == null || workspace.weight.length < size)
+            {
+                workspace = new Workspace(size);
+            }
+            try
+            {
+                task.run(workspace, start, end);
+            }
+            finally
+            {
+                workspace.clear();
+                workspaces.add(workspace);
+            }
+        });
+    }
+
+    /**
+     * Helper that adds to a double stored as bits in an atomic array.
+     *
+     * @param array The array
+     * @param i The index
+     * @param delta The amount to add
+     */
+    private static void atomicAdd(AtomicLongArray array,
+        int i,
+        double delta)
+    {
+        long old;
+        long update;
+        do
+        {
+            old = array.get(i);
+            update = Double.doubleToRawLongBits(Double.longBitsToDouble(old)
+                + delta);
+        }
+        while (!array.compareAndSet(i, old, update));
+    }
+
+    /**
+     * Puts each node with exactly one neighbor (other than itself) into its
+     * neighbor's community. Pairs that only neighbor each other go to the
+     * smaller id.
+     *
+     * @param level The graph
+     * @param community The community of each node (updated)
+     */
+    private static void followVertices(Level level,
+        int[] community)
+    {
+        for (int i = 0; i < level.n; ++i)
+        {
+            if (level.offsets[i + 1] - level.offsets[i] != 1)
+            {
+                continue;
+            }
+            int j = level.neighbors[level.offsets[i]];
+            if (j == i)
+            {
+                continue;
+            }
+            boolean pair = (level.offsets[j + 1] - level.offsets[j] == 1);
+            if (!pair || j < i)
+            {
+                community[i] = j;
+            }
+        }
+    }
+
+    /**
+     * Colors the nodes so no neighbors share a color (Jones-Plassmann: each
+     * round, every uncolored node whose random priority beats all its
+     * uncolored neighbors takes the smallest color its neighbors don't have).
+     * The result only depends on the random priorities.
+     *
+     * @param level The graph
+     * @return The nodes ordered by color, and the start of each color (so
+     * result[0] is the order and result[1] the color offsets)
+     */
+    @PublicationReference(author = "Mark T. Jones and Paul E. Plassmann",
+        title = "A Parallel Graph Coloring Heuristic", type
+        = PublicationType.Journal, year = 1993,
+        publication = "SIAM Journal on Scientific Computing", pages =
+        {
+            654, 669
+        })
+    private int[][] color(final Level level)
+    {
+        final int n = level.n;
+        final int[] priority = new int[n];
+        for (int i = 0; i < n; ++i)
+        {
+            priority[i] = generator.nextInt();
+        }
+        final int[] color = new int[n];
+        Arrays.fill(color, -1);
+        final boolean[] isMax = new boolean[n];
+        int[] uncolored = new int[n];
+        for (int i = 0; i < n; ++i)
+        {
+            uncolored[i] = i;
+        }
+        int numUncolored = n;
+        int numColors = 0;
+        while (numUncolored > 0)
+        {
+            final int[] current = uncolored;
+            runInParallel(numUncolored, 0, (workspace, start, end) ->
+            {
+                for (int k = start; k < end; ++k)
+                {
+                    int v = current[k];
+                    boolean max = true;
+                    for (int j = level.offsets[v]; j < level.offsets[v + 1];
+                        ++j)
+                    {
+                        int u = level.neighbors[j];
+                        if (u != v && color[u] < 0 && (priority[u]
+                            > priority[v] || (priority[u] == priority[v]
+                            && u > v)))
+                        {
+                            max = false;
+                            break;
+                        }
+                    }
+                    isMax[v] = max;
+                }
+            });
+            // The local maxima aren't neighbors, so none of them read a color
+            // that is being written this round
+            runInParallel(numUncolored, n + 1, (workspace, start, end) ->
+            {
+                for (int k = start; k < end; ++k)
+                {
+                    int v = current[k];
+                    if (!isMax[v])
+                    {
+                        continue;
+                    }
+                    for (int j = level.offsets[v]; j < level.offsets[v + 1];
+                        ++j)
+                    {
+                        int c = color[level.neighbors[j]];
+                        if (c >= 0)
+                        {
+                            workspace.add(c, 1);
+                        }
+                    }
+                    int c = 0;
+                    while (workspace.get(c) > 0)
+                    {
+                        ++c;
+                    }
+                    color[v] = c;
+                    workspace.clear();
+                }
+            });
+            int kept = 0;
+            for (int k = 0; k < numUncolored; ++k)
+            {
+                int v = current[k];
+                if (color[v] < 0)
+                {
+                    uncolored[kept++] = v;
+                }
+                else
+                {
+                    numColors = Math.max(numColors, color[v] + 1);
+                }
+            }
+            numUncolored = kept;
+        }
+
+        // Counting sort by color
+        int[] colorOffsets = new int[numColors + 1];
+        for (int i = 0; i < n; ++i)
+        {
+            ++colorOffsets[color[i] + 1];
+        }
+        for (int c = 0; c < numColors; ++c)
+        {
+            colorOffsets[c + 1] += colorOffsets[c];
+        }
+        int[] order = new int[n];
+        int[] next = Arrays.copyOf(colorOffsets, numColors);
+        for (int i = 0; i < n; ++i)
+        {
+            order[next[color[i]]++] = i;
+        }
+        return new int[][]
+        {
+            order, colorOffsets
+        };
+    }
+
+    /**
+     * Moves nodes to their best neighboring community until a pass improves
+     * modularity by no more than the minimum (or the maximum number of passes
+     * is reached).
+     *
+     * @param level The graph
+     * @param community The community of each node (updated)
+     * @return True if any node moved
+     */
+    private boolean moveNodes(final Level level,
+        final int[] community)
+    {
+        final int n = level.n;
+        if (level.totalWeight == 0)
+        {
+            return false;
+        }
+        final AtomicLongArray communityTotal = new AtomicLongArray(n);
+        final AtomicIntegerArray communitySize = new AtomicIntegerArray(n);
+        double[] totals = new double[n];
+        for (int i = 0; i < n; ++i)
+        {
+            totals[community[i]] += level.degree[i];
+            communitySize.incrementAndGet(community[i]);
+        }
+        for (int i = 0; i < n; ++i)
+        {
+            communityTotal.set(i, Double.doubleToRawLongBits(totals[i]));
+        }
+
+        final int[] order;
+        final int[] colorOffsets;
+        if (useColoring)
+        {
+            int[][] colors = color(level);
+            order = colors[0];
+            colorOffsets = colors[1];
+        }
+        else
+        {
+            order = new int[n];
+            for (int i = 0; i < n; ++i)
+            {
+                order[i] = i;
+            }
+            colorOffsets = new int[]
+            {
+                0, n
+            };
+        }
+
+        final int[] target = new int[n];
+        boolean moved = false;
+        double newModularity = modularity(level, community);
+        double curModularity;
+        int numPasses = 0;
+        int numMoves;
+        do
+        {
+            curModularity = newModularity;
+            ++numPasses;
+            numMoves = 0;
+            for (int c = 0; c + 1 < colorOffsets.length; ++c)
+            {
+                final int first = colorOffsets[c];
+                final int count = colorOffsets[c + 1] - first;
+                // Decide every move against the same community state
+                runInParallel(count, n, (workspace, start, end) ->
+                {
+                    for (int k = first + start; k < first + end; ++k)
+                    {
+                        int v = order[k];
+                        target[v] = bestCommunity(level, v, community,
+                            communityTotal, communitySize, workspace);
+                    }
+                });
+                for (int k = first; k < first + count; ++k)
+                {
+                    numMoves += (target[order[k]] != community[order[k]]) ? 1
+                        : 0;
+                }
+                if (deterministic)
+                {
+                    for (int k = first; k < first + count; ++k)
+                    {
+                        applyMove(level, order[k], target, community,
+                            communityTotal, communitySize);
+                    }
+                }
+                else
+                {
+                    runInParallel(count, 0, (workspace, start, end) ->
+                    {
+                        for (int k = first + start; k < first + end; ++k)
+                        {
+                            applyMove(level, order[k], target, community,
+                                communityTotal, communitySize);
+                        }
+                    });
+                }
+            }
+            newModularity = modularity(level, community);
+            moved |= (numMoves > 0);
+        }
+        while ((numMoves > 0) && ((newModularity - curModularity)
+            > minModularityGain) && (numPasses < maxNumPasses));
+
+        return moved;
+    }
+
+    /**
+     * Finds the neighboring community that most increases modularity for
+     * node v (or v's own community if none do).
+     *
+     * @param level The graph
+     * @param v The node
+     * @param community The community of each node
+     * @param communityTotal The weighted degree of each community
+     * @param communitySize The number of nodes in each community
+     * @param workspace Scratch space
+     * @return The best community for v
+     */
+    private int bestCommunity(Level level,
+        int v,
+        int[] community,
+        AtomicLongArray communityTotal,
+        AtomicIntegerArray communitySize,
+        Workspace workspace)
+    {
+        int current = community[v];
+        for (int j = level.offsets[v]; j < level.offsets[v + 1]; ++j)
+        {
+            int u = level.neighbors[j];
+            // Self-loops move with the node
+            if (u != v)
+            {
+                workspace.add(community[u], level.weights[j]);
+            }
+        }
+        double k = level.degree[v];
+        double scale = k / level.totalWeight;
+        // The gain of putting v back into its community after removing it
+        double bestGain = workspace.get(current) - scale
+            * (Double.longBitsToDouble(communityTotal.get(current)) - k);
+        int best = current;
+        boolean singleton = communitySize.get(current) == 1;
+        for (int i = 0; i < workspace.numTouched; ++i)
+        {
+            int c = workspace.touched[i];
+            if (c == current)
+            {
+                continue;
+            }
+            // Without coloring, two singletons could keep trading places
+            if (!useColoring && singleton && communitySize.get(c) == 1
+                && c > current)
+            {
+                continue;
+            }
+            double gain = workspace.weight[c] - scale
+                * Double.longBitsToDouble(communityTotal.get(c));
+            if (gain > bestGain || (gain == bestGain && best != current
+                && c < best))
+            {
+                bestGain = gain;
+                best = c;
+            }
+        }
+        workspace.clear();
+        return best;
+    }
+
+    /**
+     * Moves node v to its target community.
+     *
+     * @param level The graph
+     * @param v The node
+     * @param target The target community of each node
+     * @param community The community of each node (updated)
+     * @param communityTotal The weighted degree of each community (updated)
+     * @param communitySize The number of nodes in each community (updated)
+     */
+    private static void applyMove(Level level,
+        int v,
+        int[] target,
+        int[] community,
+        AtomicLongArray communityTotal,
+        AtomicIntegerArray communitySize)
+    {
+        int from = community[v];
+        int to = target[v];
+        if (from == to)
+        {
+            return;
+        }
+        atomicAdd(communityTotal, from, -level.degree[v]);
+        atomicAdd(communityTotal, to, level.degree[v]);
+        communitySize.decrementAndGet(from);
+        communitySize.incrementAndGet(to);
+        community[v] = to;
+    }
+
+    /**
+     * Computes the modularity of the input partition. Per-range sums are
+     * added in order, so the result doesn't depend on thread timing.
+     *
+     * @param level The graph
+     * @param community The community of each node
+     * @return The modularity
+     */
+    private double modularity(final Level level,
+        final int[] community)
+    {
+        if (level.totalWeight == 0)
+        {
+            return 0;
+        }
+        final int n = level.n;
+        int numTasks = Math.max(1, ParallelUtil.getNumThreads(
+            (n < MIN_PARALLEL_BLOCK) ? null : pool));
+        final int[] bounds = CompressedGraphSnapshot.partitionByOffsets(
+            level.offsets, numTasks);
+        final double[] internal = new double[numTasks];
+        final double[] totals = new double[n];
+        CompressedGraphSnapshot.runInParallel(bounds,
+            (n < MIN_PARALLEL_BLOCK) ? null : pool, (start, end) ->
+        {
+            if (start >= end)
+            {
+                return;
+            }
+            double sum = 0;
+            for (int i = start; i < end; ++i)
+            {
+                for (int j = level.offsets[i]; j < level.offsets[i + 1]; ++j)
+                {
+                    if (community[level.neighbors[j]] == community[i])
+                    {
+                        sum += level.weights[j];
+                    }
+                }
+            }
+            internal[Arrays.binarySearch(bounds, 0, bounds.length - 1,
+                start)] = sum;
+        });
+        for (int i = 0; i < n; ++i)
+        {
+            totals[community[i]] += level.degree[i];
+        }
+        double q = 0;
+        for (double sum : internal)
+        {
+            q += sum;
+        }
+        q /= level.totalWeight;
+        for (int c = 0; c < n; ++c)
+        {
+            double t = totals[c] / level.totalWeight;
+            q -= t * t;
+        }
+        return q;
+    }
+
+    /**
+     * Renumbers communities from 0 in order of each community's lowest node
+     * id.
+     *
+     * @param community The community of each node (updated)
+     * @return The number of communities
+     */
+    private static int renumber(int[] community)
+    {
+        int[] map = new int[community.length];
+        Arrays.fill(map, -1);
+        int next = 0;
+        for (int i = 0; i < community.length; ++i)
+        {
+            int c = community[i];
+            if (map[c] < 0)
+            {
+                map[c] = next++;
+            }
+            community[i] = map[c];
+        }
+        return next;
+    }
+
+    /**
+     * Helper that copies an int array into an IntArrayList.
+     *
+     * @param values The values
+     * @return The list
+     */
+    private static IntArrayList toList(int[] values)
+    {
+        IntArrayList result = new IntArrayList(values.length);
+        for (int v : values)
+        {
+            result.add(v);
+        }
+        return result;
+    }
+
+    /**
+     * Helper that lists the members of each community (counting sort).
+     *
+     * @param community The community of each node (numbered from 0)
+     * @param numCommunities The number of communities
+     * @return The members in community order, then the start of each
+     * community's members (so result[0] is the members and result[1] the
+     * offsets)
+     */
+    private static int[][] members(int[] community,
+        int numCommunities)
+    {
+        int[] offsets = new int[numCommunities + 1];
+        for (int c : community)
+        {
+            ++offsets[c + 1];
+        }
+        for (int c = 0; c < numCommunities; ++c)
+        {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] members = new int[community.length];
+        int[] next = Arrays.copyOf(offsets, numCommunities);
+        for (int i = 0; i < community.length; ++i)
+        {
+            members[next[community[i]]++] = i;
+        }
+        return new int[][]
+        {
+            members, offsets
+        };
+    }
+
+    /**
+     * Merges each community into a single node. The new node's self loop has
+     * the weight of all edges inside the community, and its edge to each
+     * other new node has the weight of all edges between the two communities.
+     * Rows are sized in one parallel pass and filled in a second.
+     *
+     * @param level The graph
+     * @param community The community of each node (numbered from 0)
+     * @param numCommunities The number of communities
+     * @return The coarsened graph
+     */
+    private Level coarsen(final Level level,
+        final int[] community,
+        final int numCommunities)
+    {
+        int[][] m = members(community, numCommunities);
+        final int[] members = m[0];
+        final int[] memberOffsets = m[1];
+        final int[] offsets = new int[numCommunities + 1];
+        runInParallel(numCommunities, numCommunities, (workspace, start, end) ->
+        {
+            for (int c = start; c < end; ++c)
+            {
+                for (int k = memberOffsets[c]; k < memberOffsets[c + 1]; ++k)
+                {
+                    int v = members[k];
+                    for (int j = level.offsets[v]; j < level.offsets[v + 1];
+                        ++j)
+                    {
+                        workspace.add(community[level.neighbors[j]], 0);
+                    }
+                }
+                offsets[c + 1] = workspace.numTouched;
+                workspace.clear();
+            }
+        });
+        for (int c = 0; c < numCommunities; ++c)
+        {
+            offsets[c + 1] += offsets[c];
+        }
+        final int[] neighbors = new int[offsets[numCommunities]];
+        final double[] weights = new double[neighbors.length];
+        runInParallel(numCommunities, numCommunities, (workspace, start, end) ->
+        {
+            for (int c = start; c < end; ++c)
+            {
+                for (int k = memberOffsets[c]; k < memberOffsets[c + 1]; ++k)
+                {
+                    int v = members[k];
+                    for (int j = level.offsets[v]; j < level.offsets[v + 1];
+                        ++j)
+                    {
+                        workspace.add(community[level.neighbors[j]],
+                            level.weights[j]);
+                    }
+                }
+                int idx = offsets[c];
+                System.arraycopy(workspace.touched, 0, neighbors, idx,
+                    workspace.numTouched);
+                Arrays.sort(neighbors, idx, idx + workspace.numTouched);
+                for (int j = idx; j < idx + workspace.numTouched; ++j)
+                {
+                    weights[j] = workspace.weight[neighbors[j]];
+                }
+                workspace.clear();
+            }
+        });
+        return new Level(offsets, neighbors, weights);
+    }
+
+    /**
+     * Leiden's refinement phase: within each community, nodes start alone and
+     * each singleton that is well connected to the rest of its community
+     * merges into the well-connected sub-community that most increases
+     * modularity (if any does). Communities are independent, so they are
+     * refined in parallel; each is visited in an order drawn from a random
+     * number generator seeded for that community, so the result doesn't
+     * depend on the number of threads.
+     *
+     * @param level The graph
+     * @param community The community of each node (numbered from 0)
+     * @param numCommunities The number of communities
+     * @return The sub-community of each node
+     */
+    private int[] refine(final Level level,
+        final int[] community,
+        int numCommunities)
+    {
+        final int n = level.n;
+        int[][] m = members(community, numCommunities);
+        final int[] members = m[0];
+        final int[] memberOffsets = m[1];
+        final int[] refined = new int[n];
+        final double[] subTotal = new double[n];
+        final double[] subExternal = new double[n];
+        final int[] subSize = new int[n];
+        final long seed = generator.nextLong();
+        final double totalWeight = level.totalWeight;
+        runInParallel(numCommunities, n, (workspace, start, end) ->
+        {
+            for (int c = start; c < end; ++c)
+            {
+                int first = memberOffsets[c];
+                int last = memberOffsets[c + 1];
+                double communityTotal = 0;
+                for (int k = first; k < last; ++k)
+                {
+                    int v = members[k];
+                    refined[v] = v;
+                    subTotal[v] = level.degree[v];
+                    subSize[v] = 1;
+                    subExternal[v] = 0;
+                    for (int j = level.offsets[v]; j < level.offsets[v + 1];
+                        ++j)
+                    {
+                        int u = level.neighbors[j];
+                        if (u != v && community[u] == c)
+                        {
+                            subExternal[v] += level.weights[j];
+                        }
+                    }
+                    communityTotal += level.degree[v];
+                }
+                if (last - first == 1 || totalWeight == 0)
+                {
+                    continue;
+                }
+                int[] order = Arrays.copyOfRange(members, first, last);
+                Random random = new Random(seed + 31L * c);
+                for (int i = order.length - 1; i > 0; --i)
+                {
+                    int j = random.nextInt(i + 1);
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                }
+                for (int v : order)
+                {
+                    double k = level.degree[v];
+                    if (subSize[refined[v]] != 1 || subExternal[v] < k
+                        * (communityTotal - k) / totalWeight)
+                    {
+                        continue;
+                    }
+                    for (int j = level.offsets[v]; j < level.offsets[v + 1];
+                        ++j)
+                    {
+                        int u = level.neighbors[j];
+                        if (u != v && community[u] == c)
+                        {
+                            workspace.add(refined[u], level.weights[j]);
+                        }
+                    }
+                    int best = -1;
+                    double bestGain = 0;
+                    for (int i = 0; i < workspace.numTouched; ++i)
+                    {
+                        int s = workspace.touched[i];
+                        if (s == v || subExternal[s] < subTotal[s]
+                            * (communityTotal - subTotal[s]) / totalWeight)
+                        {
+                            continue;
+                        }
+                        double gain = workspace.weight[s] - k * subTotal[s]
+                            / totalWeight;
+                        if (gain > bestGain || (gain == bestGain && best >= 0
+                            && s < best))
+                        {
+                            bestGain = gain;
+                            best = s;
+                        }
+                    }
+                    if (best >= 0)
+                    {
+                        double toBest = workspace.weight[best];
+                        subExternal[best] += subExternal[v] - 2 * toBest;
+                        subTotal[best] += k;
+                        ++subSize[best];
+                        subSize[v] = 0;
+                        refined[v] = best;
+                    }
+                    workspace.clear();
+                }
+            }
+        });
+        return refined;
+    }
+
+}
@@ -16,20 +16,22 @@ package gov.sandia.cognition.graph.community;
 
 import gov.sandia.cognition.annotation.PublicationReference;
 import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.graph.CompressedGraphSnapshot;
 import gov.sandia.cognition.graph.DirectedNodeEdgeGraph;
 import gov.sandia.cognition.util.DefaultKeyValuePair;
 import gov.sandia.cognition.collection.DoubleArrayList;
 import gov.sandia.cognition.collection.IntArrayList;
 import gov.sandia.cognition.util.Pair;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * This class can compute PersonalizedPageRank for the input graph and a
@@ -46,6 +48,12 @@ import java.util.Set;
 public class PersonalizedPageRank<NodeNameType>
 {
 
+    /**
+     * The number of seed sets handed to a thread at a time by the batch
+     * methods
+     */
+    private static final int SEED_SETS_PER_TASK = 16;
+
     /**
      * Yale-format-like representation of the neighbors of each node (see
      * http://en.wikipedia.org/wiki/Sparse_matrix#Yale_format). This contains
@@ -287,62 +295,553 @@ public class PersonalizedPageRank<NodeNameType>
     public DoubleArrayList getScoresForAllNodesByIds(List<Integer> nodeIdxs,
         boolean randomized)
     {
-        final double ALPHA = 0.99;
-        final double TOL = pprTolerance;
-
-        Queue<Integer> fifo = new LinkedList<>();
-        DoubleArrayList residual = new DoubleArrayList(graph.getNumNodes());
+        PushWorkspace workspace = new PushWorkspace(graph.getNumNodes());
+        push(workspace, nodeIdxs, randomized ? generator : null, 0);
         DoubleArrayList x = new DoubleArrayList(graph.getNumNodes());
         for (int i = 0; i < graph.getNumNodes(); ++i)
         {
-            residual.add(0.0);
-            x.add(0.0);
+            x.add(workspace.x[i]);
+        }
+
+        return x;
+    }
+
+    /**
+     * Computes PPR for many seed sets at once. The seed sets are handed out
+     * to the threads of the pool in small chunks. Each thread reuses one
+     * workspace whose residual and score arrays are reset through a list of
+     * the nodes each run touched, so a run costs time in proportion to the
+     * part of the graph it reaches, not the size of the graph. Results are
+     * sparse: only nodes with non-zero scores are returned.
+     *
+     * If topK is positive, each run stops as soon as its k highest-scoring
+     * nodes can't change: the residual mass still to be pushed bounds how much
+     * any score can still grow, so once the k-th best score beats the
+     * (k+1)-th best by more than that mass, the top k set is final. Only those
+     * k nodes are returned. (Their scores, and so their order, are those at
+     * the time the run stopped.)
+     *
+     * @param seedSets The seed node ids for each run
+     * @param topK If positive, only this many highest-scoring nodes are
+     * returned for each run
+     * @param pool The thread pool to run on (or null to run serially)
+     * @return The scores for each seed set, in the same order
+     */
+    public List<SparseScores> getScoresForSeedSetsByIds(
+        final List<? extends List<Integer>> seedSets,
+        final int topK,
+        ThreadPoolExecutor pool)
+    {
+        final SparseScores[] results = new SparseScores[seedSets.size()];
+        final ConcurrentLinkedQueue<PushWorkspace> workspaces
+            = new ConcurrentLinkedQueue<>();
+        int numChunks = (seedSets.size() + SEED_SETS_PER_TASK - 1)
+            / SEED_SETS_PER_TASK;
+        int[] bounds = new int[numChunks + 1];
+        for (int i = 0; i <= numChunks; ++i)
+        {
+            bounds[i] = Math.min(seedSets.size(), i * SEED_SETS_PER_TASK);
         }
+        CompressedGraphSnapshot.runInParallel(bounds, pool, (start, end) ->
+        {
+            PushWorkspace workspace = workspaces.poll();
+            if (workspace == null)
+            {
+                workspace = new PushWorkspace(graph.getNumNodes());
+            }
+            for (int i = start; i < end; ++i)
+            {
+                push(workspace, seedSets.get(i), null, topK);
+                results[i] = workspace.getTopScores(topK);
+                workspace.reset();
+            }
+            workspaces.add(workspace);
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Computes PPR for many seed sets at once. See getScoresForSeedSetsByIds.
+     *
+     * @param seedSets The seed nodes for each run
+     * @param topK If positive, only this many highest-scoring nodes are
+     * returned for each run
+     * @param pool The thread pool to run on (or null to run serially)
+     * @return The scores for each seed set, in the same order
+     */
+    public List<SparseScores> getScoresForSeedSets(
+        List<? extends List<NodeNameType>> seedSets,
+        int topK,
+        ThreadPoolExecutor pool)
+    {
+        List<List<Integer>> ids = new ArrayList<>(seedSets.size());
+        for (List<NodeNameType> seeds : seedSets)
+        {
+            ids.add(convertToIds(seeds));
+        }
+        return getScoresForSeedSetsByIds(ids, topK, pool);
+    }
+
+    /**
+     * Pushes the seeds' residual through the graph until every node's
+     * residual is below the tolerance (times its degree), or until the top k
+     * nodes are settled.
+     *
+     * @param workspace The workspace to compute in (must be reset)
+     * @param nodeIdxs The seeds
+     * @param random If not null, each node's neighbors are pushed to in an
+     * order shuffled by this
+     * @param topK If positive, stop once the top k nodes can't change
+     */
+    private void push(PushWorkspace workspace,
+        List<Integer> nodeIdxs,
+        Random random,
+        int topK)
+    {
+        final double ALPHA = 0.99;
+        final double TOL = pprTolerance;
+
+        double[] residual = workspace.residual;
+        double[] x = workspace.x;
         double init = 1.0 / nodeIdxs.size();
         for (int n : nodeIdxs)
         {
-            residual.set(n, init);
-            fifo.add(n);
+            workspace.touch(n);
+            residual[n] = init;
+            workspace.enqueue(n);
+        }
+        double totalResidual = 0;
+        for (int i = 0; i < workspace.numTouched; ++i)
+        {
+            totalResidual += residual[workspace.touched[i]];
         }
 
-        while (!fifo.isEmpty())
+        int pushesSinceCheck = 0;
+        while (workspace.queueSize > 0)
         {
-            int v = fifo.remove();
-            x.plusEquals(v, (1 - ALPHA) * residual.get(v));
-            double mass = ALPHA * residual.get(v) / (2 * nodeWeightedDegree.get(
-                v));
-            IntArrayList range = IntArrayList.range(neighborsFirstIdx.get(v),
-                neighborsFirstIdx.get(v + 1));
-            if (randomized)
+            int v = workspace.dequeue();
+            x[v] += (1 - ALPHA) * residual[v];
+            totalResidual -= (1 - ALPHA) * residual[v];
+            double mass = ALPHA * residual[v] / (2 * nodeWeightedDegree.get(v));
+            int first = neighborsFirstIdx.get(v);
+            int numNeighbors = neighborsFirstIdx.get(v + 1) - first;
+            int[] order = workspace.order(numNeighbors);
+            for (int m = 0; m < numNeighbors; ++m)
+            {
+                order[m] = first + m;
+            }
+            if (random != null)
             {
-                range.randomizeOrder(generator);
+                // The same shuffle as IntArrayList.randomizeOrder
+                for (int m = numNeighbors - 1; m > 1; --m)
+                {
+                    int j = random.nextInt(m + 1);
+                    int tmp = order[m];
+                    order[m] = order[j];
+                    order[j] = tmp;
+                }
             }
-            for (int m = 0; m < range.size(); ++m)
+            for (int m = 0; m < numNeighbors; ++m)
             {
-                int i = range.get(m);
+                int i = order[m];
                 int u = neighbors.get(i);
                 if (u == v)
                 {
                     throw new RuntimeException(
                         "This line should be unreachable.");
                 }
+                workspace.touch(u);
+                double threshold = nodeWeightedDegree.get(u) * TOL;
+                double add = mass * neighborsWeights.get(i);
                 // The first part of the if insures u is not already in the queue
-                if ((residual.get(u) < nodeWeightedDegree.get(u) * TOL)
-                    && (residual.get(u) + mass * neighborsWeights.get(i)
-                    >= nodeWeightedDegree.get(u) * TOL))
+                if ((residual[u] < threshold)
+                    && (residual[u] + add >= threshold))
                 {
-                    fifo.add(u);
+                    workspace.enqueue(u);
                 }
-                residual.plusEquals(u, mass * neighborsWeights.get(i));
+                residual[u] += add;
             }
-            residual.set(v, mass * nodeWeightedDegree.get(v));
-            if (residual.get(v) >= nodeWeightedDegree.get(v) * TOL)
+            residual[v] = mass * nodeWeightedDegree.get(v);
+            if (residual[v] >= nodeWeightedDegree.get(v) * TOL)
+            {
+                workspace.enqueue(v);
+            }
+
+            // Checking costs O(touched log k), so only check after that many
+            // pushes
+            if (topK > 0 && ++pushesSinceCheck >= workspace.numTouched)
             {
-                fifo.add(v);
+                pushesSinceCheck = 0;
+                if (workspace.isTopSettled(topK, totalResidual))
+                {
+                    break;
+                }
             }
         }
+    }
+
+    /**
+     * Sparse PPR scores for one seed set: node ids and their scores, in
+     * decreasing order of score.
+     */
+    public static class SparseScores
+    {
+
+        /**
+         * The node ids
+         */
+        private final int[] nodeIds;
+
+        /**
+         * The score for each node
+         */
+        private final double[] scores;
+
+        /**
+         * Creates a new instance storing the input arrays (not copies).
+         *
+         * @param nodeIds The node ids
+         * @param scores The score for each node
+         */
+        SparseScores(int[] nodeIds,
+            double[] scores)
+        {
+            this.nodeIds = nodeIds;
+            this.scores = scores;
+        }
+
+        /**
+         * Returns the number of nodes with scores.
+         *
+         * @return the number of nodes with scores
+         */
+        public int size()
+        {
+            return nodeIds.length;
+        }
+
+        /**
+         * Returns the id of the i-th highest scoring node.
+         *
+         * @param i The rank (from 0)
+         * @return the node id
+         */
+        public int getNodeId(int i)
+        {
+            return nodeIds[i];
+        }
+
+        /**
+         * Returns the score of the i-th highest scoring node.
+         *
+         * @param i The rank (from 0)
+         * @return the score
+         */
+        public double getScore(int i)
+        {
+            return scores[i];
+        }
+
+    }
+
+    /**
+     * The arrays needed for one PPR run, reset between runs through the list
+     * of touched nodes. The queue is a ring buffer that grows as needed.
+     */
+    private static class PushWorkspace
+    {
+
+        /**
+         * The residual for each node
+         */
+        final double[] residual;
+
+        /**
+         * The score for each node
+         */
+        final double[] x;
+
+        /**
+         * True for each node in touched
+         */
+        final boolean[] isTouched;
+
+        /**
+         * All nodes with non-zero residual or score
+         */
+        final int[] touched;
+
+        /**
+         * The number of nodes in touched
+         */
+        int numTouched;
+
+        /**
+         * The ring buffer of nodes to push from
+         */
+        int[] queue;
+
+        /**
+         * The position of the queue's first entry
+         */
+        int queueHead;
+
+        /**
+         * The number of entries in the queue
+         */
+        int queueSize;
+
+        /**
+         * Scratch space for a node's neighbor order
+         */
+        int[] order;
+
+        /**
+         * Scratch space for the heap of the top-k settle check
+         */
+        int[] topHeap;
+
+        /**
+         * Creates the arrays for a graph with n nodes.
+         *
+         * @param n The number of nodes
+         */
+        PushWorkspace(int n)
+        {
+            residual = new double[n];
+            x = new double[n];
+            isTouched = new boolean[n];
+            touched = new int[n];
+            numTouched = 0;
+            queue = new int[16];
+            queueHead = 0;
+            queueSize = 0;
+            order = new int[16];
+            topHeap = new int[16];
+        }
+
+        /**
+         * Records that node i has been reached.
+         *
+         * @param i The node
+         */
+        void touch(int i)
+        {
+            if (!isTouched[i])
+            {
+                isTouched[i] = true;
+                touched[numTouched++] = i;
+            }
+        }
+
+        /**
+         * Adds i to the end of the queue.
+         *
+         * @param i The node
+         */
+        void enqueue(int i)
+        {
+            if (queueSize == queue.length)
+            {
+                int[] bigger = new int[queue.length * 2];
+                for (int k = 0; k < queueSize; ++k)
+                {
+                    bigger[k] = queue[(queueHead + k) % queue.length];
+                }
+                queue = bigger;
+                queueHead = 0;
+            }
+            queue[(queueHead + queueSize) % queue.length] = i;
+            ++queueSize;
+        }
+
+        /**
+         * Removes and returns the node at the front of the queue.
+         *
+         * @return the node
+         */
+        int dequeue()
+        {
+            int i = queue[queueHead];
+            queueHead = (queueHead + 1) % queue.length;
+            --queueSize;
+            return i;
+        }
+
+        /**
+         * Returns the scratch array with room for at least size entries.
+         *
+         * @param size The space needed
+         * @return the scratch array
+         */
+        int[] order(int size)
+        {
+            if (order.length < size)
+            {
+                order = new int[Math.max(size, order.length * 2)];
+            }
+            return order;
+        }
+
+        /**
+         * Zeros the arrays for all touched nodes and empties the queue.
+         */
+        void reset()
+        {
+            for (int k = 0; k < numTouched; ++k)
+            {
+                int i = touched[k];
+                residual[i] = 0;
+                x[i] = 0;
+                isTouched[i] = false;
+            }
+            numTouched = 0;
+            queueHead = 0;
+            queueSize = 0;
+        }
+
+        /**
+         * Returns true if node i ranks below node j (lower score, or the same
+         * score and a larger id).
+         *
+         * @param i A node
+         * @param j Another node
+         * @return true if i ranks below j
+         */
+        boolean below(int i,
+            int j)
+        {
+            return x[i] < x[j] || (x[i] == x[j] && i > j);
+        }
+
+        /**
+         * Fills heap with the (at most) k highest-ranked touched nodes with
+         * positive scores, as a min-heap.
+         *
+         * @param k The number of nodes to keep
+         * @param heap The heap (length at least k)
+         * @return The number of nodes in the heap
+         */
+        int selectTop(int k,
+            int[] heap)
+        {
+            int size = 0;
+            for (int t = 0; t < numTouched; ++t)
+            {
+                int i = touched[t];
+                if (x[i] <= 0)
+                {
+                    continue;
+                }
+                if (size < k)
+                {
+                    // Sift up
+                    int pos = size++;
+                    while (pos > 0 && below(i, heap[(pos - 1) / 2]))
+                    {
+                        heap[pos] = heap[(pos - 1) / 2];
+                        pos = (pos - 1) / 2;
+                    }
+                    heap[pos] = i;
+                }
+                else if (below(heap[0], i))
+                {
+                    siftDown(heap, size, i);
+                }
+            }
+            return size;
+        }
+
+        /**
+         * Replaces the top of the heap with i and restores the heap.
+         *
+         * @param heap The heap
+         * @param size The number of nodes in the heap
+         * @param i The new node
+         */
+        void siftDown(int[] heap,
+            int size,
+            int i)
+        {
+            int pos = 0;
+            while (true)
+            {
+                int child = 2 * pos + 1;
+                if (child >= size)
+                {
+                    break;
+                }
+                if (child + 1 < size && below(heap[child + 1], heap[child]))
+                {
+                    ++child;
+                }
+                if (!below(heap[child], i))
+                {
+                    break;
+                }
+                heap[pos] = heap[child];
+                pos = child;
+            }
+            heap[pos] = i;
+        }
+
+        /**
+         * Returns true if no node outside the current top k can pass any
+         * node in it, given that no score can grow by more than the residual
+         * left.
+         *
+         * @param k The number of top nodes
+         * @param totalResidual The residual left to push
+         * @return true if the top k set is final
+         */
+        boolean isTopSettled(int k,
+            double totalResidual)
+        {
+            // This is checked often during a push, so the heap is reused
+            if (topHeap.length < k + 1)
+            {
+                topHeap = new int[k + 1];
+            }
+            int[] heap = topHeap;
+            int size = selectTop(k + 1, heap);
+            if (size <= k)
+            {
+                // Untouched nodes have score 0
+                return size == k && x[heap[0]] >= totalResidual;
+            }
+            // heap[0] is the (k+1)-th best; the k-th best is its lower child
+            int kth = (size > 2 && below(heap[2], heap[1])) ? heap[2] : heap[1];
+            return x[kth] - x[heap[0]] >= totalResidual;
+        }
+
+        /**
+         * Returns the (at most) k highest-scoring nodes, in decreasing order
+         * of score (all nodes with positive scores if k is not positive).
+         *
+         * @param k The number of nodes to return
+         * @return the scores
+         */
+        SparseScores getTopScores(int k)
+        {
+            if (k <= 0)
+            {
+                k = numTouched;
+            }
+            int[] heap = new int[Math.min(k, numTouched)];
+            int size = selectTop(heap.length, heap);
+            int[] ids = new int[size];
+            double[] scores = new double[size];
+            // Popping the min-heap gives increasing order
+            for (int pos = size - 1; pos >= 0; --pos)
+            {
+                int i = heap[0];
+                ids[pos] = i;
+                scores[pos] = x[i];
+                siftDown(heap, pos, heap[pos]);
+            }
+            return new SparseScores(ids, scores);
+        }
 
-        return x;
     }
 
     /**
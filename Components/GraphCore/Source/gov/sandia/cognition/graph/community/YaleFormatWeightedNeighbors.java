@@ -16,13 +16,10 @@ package gov.sandia.cognition.graph.community;
 
 import gov.sandia.cognition.annotation.PublicationReference;
 import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.graph.CompressedGraphSnapshot;
 import gov.sandia.cognition.graph.DirectedNodeEdgeGraph;
-import gov.sandia.cognition.graph.DirectedWeightedNodeEdgeGraph;
 import gov.sandia.cognition.collection.DoubleArrayList;
 import gov.sandia.cognition.collection.IntArrayList;
-import gov.sandia.cognition.util.Pair;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * This class initializes the neighbors set of a graph as a Yale-format-like
@@ -75,100 +72,30 @@ class YaleFormatWeightedNeighbors<NodeNameType>
     public YaleFormatWeightedNeighbors(DirectedNodeEdgeGraph<NodeNameType> graph,
         boolean removeSelfLoops)
     {
-        int numNodes = graph.getNumNodes();
+        // The snapshot has already merged repeated and reversed edges into
+        // one weighted neighbor apiece
+        CompressedGraphSnapshot snapshot = graph.getCompressedSnapshot();
+        int numNodes = snapshot.getNumNodes();
+        int numNeighbors = snapshot.getNeighborOffsets()[numNodes];
         this.neighborsFirstIdx = new IntArrayList(numNodes + 1);
-
-        // Initialize the per-node values
-        int neighborsSoFar = 0;
-        Map<Integer, HashMap<Integer, Double>> edges = new HashMap<>(
-            graph.getNumNodes());
-        for (int i = 0; i < graph.getNumNodes(); ++i)
-        {
-            edges.put(i, new HashMap<>());
-        }
-        for (int i = 0; i < graph.getNumEdges(); ++i)
-        {
-            Pair<Integer, Integer> edge = graph.getEdgeEndpointIds(i);
-            int l = edge.getFirst();
-            int r = edge.getSecond();
-            if (removeSelfLoops && (l == r))
-            {
-                continue;
-            }
-            double w = 1.0;
-            if (graph instanceof DirectedWeightedNodeEdgeGraph)
-            {
-                w = ((DirectedWeightedNodeEdgeGraph) graph).getEdgeWeight(i);
-            }
-            if (!edges.get(l).containsKey(r))
-            {
-                edges.get(l).put(r, 0.0);
-            }
-            edges.get(l).put(r, w + edges.get(l).get(r));
-            if (!edges.get(r).containsKey(l))
-            {
-                edges.get(r).put(l, 0.0);
-            }
-            edges.get(r).put(l, w + edges.get(r).get(l));
-        }
-        for (int i = 0; i < graph.getNumNodes(); ++i)
-        {
-            // This is to optimize the nieghbors list
-            this.neighborsFirstIdx.add(neighborsSoFar);
-            neighborsSoFar += edges.get(i).size();
-        }
-        this.neighborsFirstIdx.add(neighborsSoFar);
-        // Initialize neighbors to null values (for filling on next loop)
-        this.neighbors = new IntArrayList(neighborsSoFar);
-        this.wNeighbors = new DoubleArrayList(neighborsSoFar);
-        for (int i = 0; i < neighborsSoFar; ++i)
-        {
-            this.neighbors.add(-1);
-            this.wNeighbors.add(0);
-        }
-        // Initialize the per-edge values
-        for (Map.Entry<Integer, HashMap<Integer, Double>> edgeMap
-            : edges.entrySet())
+        this.neighbors = new IntArrayList(numNeighbors);
+        this.wNeighbors = new DoubleArrayList(numNeighbors);
+        for (int i = 0; i < numNodes; ++i)
         {
-            int l = edgeMap.getKey();
-            for (Map.Entry<Integer, Double> edge : edgeMap.getValue().entrySet())
+            this.neighborsFirstIdx.add(this.neighbors.size());
+            for (int j = snapshot.getNeighborsStart(i);
+                j < snapshot.getNeighborsEnd(i); ++j)
             {
-                int r = edge.getKey();
-                if (removeSelfLoops && (l == r))
+                int r = snapshot.getNeighbor(j);
+                if (removeSelfLoops && (i == r))
                 {
                     continue;
                 }
-                double w = edge.getValue();
-                int idx = findNextEmptyNeighbor(l);
-                this.neighbors.set(idx, r);
-                this.wNeighbors.set(idx, w);
-            }
-        }
-    }
-
-    /**
-     * Private helper for adding neighbors to the internal neighbors list (which
-     * is initialized to all -1s).
-     *
-     * @param nodeNum The node whose first empty neighbor spot is sought after
-     * @return The index in neighbors where there's an opening for a neighbor
-     * for nodeNum
-     * @throws IllegalArgumentException if nodeNum has no more openings for
-     * neighbors. This point should never be reached in this code.
-     */
-    private int findNextEmptyNeighbor(int nodeNum)
-    {
-        for (int i = neighborsFirstIdx.get(nodeNum); i < neighborsFirstIdx.get(
-            nodeNum + 1); ++i)
-        {
-            if (neighbors.get(i) == -1)
-            {
-                return i;
+                this.neighbors.add(r);
+                this.wNeighbors.add(snapshot.getNeighborWeight(j));
             }
         }
-
-        throw new IllegalArgumentException(
-            "This node is full, but such shouldn't be possible");
+        this.neighborsFirstIdx.add(this.neighbors.size());
     }
 
     /**
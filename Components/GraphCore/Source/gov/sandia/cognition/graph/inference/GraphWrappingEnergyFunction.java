@@ -14,10 +14,13 @@
 
 package gov.sandia.cognition.graph.inference;
 
+import gov.sandia.cognition.graph.CompressedGraphSnapshot;
 import gov.sandia.cognition.graph.DirectedNodeEdgeGraph;
+import gov.sandia.cognition.util.DefaultKeyValuePair;
 import gov.sandia.cognition.util.Pair;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -129,10 +132,17 @@ public class GraphWrappingEnergyFunction<LabelType, NodeNameType>
         this.labeledNodes = new HashMap<>();
         this.graph = graph;
         this.handler = handler;
-        this.edges = new ArrayList<>(graph.getNumEdges());
-        for (int i = 0; i < graph.getNumEdges(); ++i)
+        CompressedGraphSnapshot snapshot = graph.getCompressedSnapshot();
+        this.edges = new ArrayList<>(Collections.nCopies(
+            snapshot.getNumEdges(), (Pair<Integer, Integer>) null));
+        for (int i = 0; i < snapshot.getNumNodes(); ++i)
         {
-            edges.add(graph.getEdgeEndpointIds(i));
+            for (int j = snapshot.getSuccessorsStart(i);
+                j < snapshot.getSuccessorsEnd(i); ++j)
+            {
+                edges.set(snapshot.getSuccessorEdgeId(j),
+                    new DefaultKeyValuePair<>(i, snapshot.getSuccessor(j)));
+            }
         }
     }
 
@@ -0,0 +1,566 @@
+/*
+ * File:                ResidualMessagePassing.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph.inference;
+
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.graph.CompressedGraphSnapshot;
+import gov.sandia.cognition.util.Pair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Package-private support class that runs sum-product message passing with
+ * residual scheduling. All messages, their pending updates, and the unary and
+ * pairwise costs are stored in flat primitive arrays (indexed by directed
+ * message and label), so no per-message objects are needed.
+ *
+ * Each message's residual is how much it would change if it were sent now.
+ * Each round sends the frontier of messages whose residual is at least half
+ * the largest one, and then recomputes only the messages that read from the
+ * nodes those messages were sent to. Messages whose residual drops below eps
+ * leave the frontier until one of their inputs changes again, so converged
+ * parts of the graph cost nothing. Within a round, sending and recomputing
+ * messages are independent and are split across threads; the result does not
+ * depend on the number of threads.
+ *
+ * @author jdwendt
+ * @param <LabelType> The type for labels
+ * @since 4.0.0
+ */
+@PublicationReference(author = "Gal Elidan, Ian McGraw, and Daphne Koller",
+    title
+    = "Residual Belief Propagation: Informed Scheduling for Asynchronous "
+    + "Message Passing", type = PublicationType.Conference, publication
+    = "Proceedings of the Conference on Uncertainty in Artificial Intelligence",
+    year = 2006)
+class ResidualMessagePassing<LabelType>
+{
+
+    /**
+     * The minimum value a message can take on for numerical precision reasons
+     * (the same as Message)
+     */
+    private static final double MIN_BELIEF = 1e-6;
+
+    /**
+     * Messages whose residual is at least this fraction of the largest
+     * residual are sent in each round
+     */
+    private static final double FRONTIER_RATIO = 0.5;
+
+    /**
+     * Where each node's labels start in the per-node-label arrays
+     */
+    private final int[] labelOffsets;
+
+    /**
+     * The unary cost of each node and label
+     */
+    private final double[] unaryCosts;
+
+    /**
+     * Where each edge's pairwise costs start in pairwiseCosts
+     */
+    private final int[] pairwiseOffsets;
+
+    /**
+     * The pairwise cost of each edge and pair of labels (first endpoint's
+     * label major)
+     */
+    private final double[] pairwiseCosts;
+
+    /**
+     * The node each message is sent from
+     */
+    private final int[] sources;
+
+    /**
+     * The node each message is sent to
+     */
+    private final int[] targets;
+
+    /**
+     * The edge each message is sent along
+     */
+    private final int[] edges;
+
+    /**
+     * True for messages sent from their edge's second endpoint to its first
+     */
+    private final boolean[] reversed;
+
+    /**
+     * Where each message's values start (with one value per label of its
+     * target)
+     */
+    private final int[] messageOffsets;
+
+    /**
+     * The current message values
+     */
+    private final double[] values;
+
+    /**
+     * The log of the current message values
+     */
+    private final double[] logValues;
+
+    /**
+     * The value each message would have if it were sent now
+     */
+    private final double[] pending;
+
+    /**
+     * The largest change each message would make if it were sent now
+     */
+    private final double[] residuals;
+
+    /**
+     * Where each node's incoming messages start in incoming
+     */
+    private final int[] incomingOffsets;
+
+    /**
+     * The messages sent to each node
+     */
+    private final int[] incoming;
+
+    /**
+     * Where each node's outgoing messages start in outgoing
+     */
+    private final int[] outgoingOffsets;
+
+    /**
+     * The messages sent from each node
+     */
+    private final int[] outgoing;
+
+    /**
+     * The most labels any node has
+     */
+    private final int maxNumLabels;
+
+    /**
+     * The beliefs for each node and label (after solve)
+     */
+    private final double[] beliefs;
+
+    /**
+     * Copies the costs and message structure out of the input energy
+     * function.
+     *
+     * @param fn The energy function to solve
+     * @param bothWays True if messages are sent both ways along each edge
+     * (else only from the first endpoint to the second)
+     */
+    ResidualMessagePassing(EnergyFunction<LabelType> fn,
+        boolean bothWays)
+    {
+        int numNodes = fn.numNodes();
+        int numEdges = fn.numEdges();
+        List<List<LabelType>> labels = new ArrayList<>(numNodes);
+        labelOffsets = new int[numNodes + 1];
+        int maxLabels = 0;
+        for (int i = 0; i < numNodes; ++i)
+        {
+            labels.add(new ArrayList<>(fn.getPossibleLabels(i)));
+            labelOffsets[i + 1] = labelOffsets[i] + labels.get(i).size();
+            maxLabels = Math.max(maxLabels, labels.get(i).size());
+        }
+        maxNumLabels = maxLabels;
+        unaryCosts = new double[labelOffsets[numNodes]];
+        for (int i = 0; i < numNodes; ++i)
+        {
+            for (int x = 0; x < labels.get(i).size(); ++x)
+            {
+                unaryCosts[labelOffsets[i] + x] = fn.getUnaryCost(i,
+                    labels.get(i).get(x));
+            }
+        }
+        beliefs = new double[labelOffsets[numNodes]];
+
+        int numMessages = bothWays ? 2 * numEdges : numEdges;
+        sources = new int[numMessages];
+        targets = new int[numMessages];
+        edges = new int[numMessages];
+        reversed = new boolean[numMessages];
+        pairwiseOffsets = new int[numEdges + 1];
+        for (int e = 0; e < numEdges; ++e)
+        {
+            Pair<Integer, Integer> edge = fn.getEdge(e);
+            int i = edge.getFirst();
+            int j = edge.getSecond();
+            pairwiseOffsets[e + 1] = pairwiseOffsets[e] + numLabels(i)
+                * numLabels(j);
+            int k = bothWays ? 2 * e : e;
+            sources[k] = i;
+            targets[k] = j;
+            edges[k] = e;
+            if (bothWays)
+            {
+                sources[k + 1] = j;
+                targets[k + 1] = i;
+                edges[k + 1] = e;
+                reversed[k + 1] = true;
+            }
+        }
+        pairwiseCosts = new double[pairwiseOffsets[numEdges]];
+        for (int e = 0; e < numEdges; ++e)
+        {
+            int i = sources[bothWays ? 2 * e : e];
+            int j = targets[bothWays ? 2 * e : e];
+            int p = pairwiseOffsets[e];
+            for (LabelType ilabel : labels.get(i))
+            {
+                for (LabelType jlabel : labels.get(j))
+                {
+                    pairwiseCosts[p++] = fn.getPairwiseCost(e, ilabel, jlabel);
+                }
+            }
+        }
+
+        messageOffsets = new int[numMessages + 1];
+        for (int k = 0; k < numMessages; ++k)
+        {
+            messageOffsets[k + 1] = messageOffsets[k] + numLabels(targets[k]);
+        }
+        values = new double[messageOffsets[numMessages]];
+        logValues = new double[values.length];
+        pending = new double[values.length];
+        residuals = new double[numMessages];
+
+        incomingOffsets = new int[numNodes + 1];
+        outgoingOffsets = new int[numNodes + 1];
+        for (int k = 0; k < numMessages; ++k)
+        {
+            ++incomingOffsets[targets[k] + 1];
+            ++outgoingOffsets[sources[k] + 1];
+        }
+        for (int i = 0; i < numNodes; ++i)
+        {
+            incomingOffsets[i + 1] += incomingOffsets[i];
+            outgoingOffsets[i + 1] += outgoingOffsets[i];
+        }
+        incoming = new int[numMessages];
+        outgoing = new int[numMessages];
+        int[] inFill = new int[numNodes];
+        int[] outFill = new int[numNodes];
+        for (int k = 0; k < numMessages; ++k)
+        {
+            incoming[incomingOffsets[targets[k]] + inFill[targets[k]]++] = k;
+            outgoing[outgoingOffsets[sources[k]] + outFill[sources[k]]++] = k;
+        }
+    }
+
+    /**
+     * Returns the number of labels the input node can take on
+     *
+     * @param node The node
+     * @return The number of labels for the node
+     */
+    private int numLabels(int node)
+    {
+        return labelOffsets[node + 1] - labelOffsets[node];
+    }
+
+    /**
+     * Runs residual message passing from all messages equal to one until
+     * every message's residual is below eps or maxNumIterations times the
+     * number of messages have been sent. Then computes the beliefs.
+     *
+     * @param maxNumIterations The most messages to send (as a multiple of the
+     * number of messages)
+     * @param eps The residual below which a message is converged
+     * @param pool The thread pool to use (or null to solve serially)
+     * @return true if all messages converged
+     */
+    boolean solve(int maxNumIterations,
+        double eps,
+        ThreadPoolExecutor pool)
+    {
+        int numMessages = residuals.length;
+        for (int i = 0; i < values.length; ++i)
+        {
+            values[i] = 1;
+            logValues[i] = 0;
+        }
+        int[] active = new int[numMessages];
+        for (int k = 0; k < numMessages; ++k)
+        {
+            active[k] = k;
+        }
+        recompute(active, numMessages, pool);
+        int numActive = 0;
+        for (int k = 0; k < numMessages; ++k)
+        {
+            if (residuals[k] >= eps)
+            {
+                active[numActive++] = k;
+            }
+        }
+
+        int[] frontier = new int[numMessages];
+        int[] dirty = new int[numMessages];
+        int[] lastDirtied = new int[numMessages];
+        long budget = (long) maxNumIterations * numMessages;
+        long numSent = 0;
+        int round = 0;
+        while (numActive > 0 && numSent < budget)
+        {
+            ++round;
+            double max = 0;
+            for (int a = 0; a < numActive; ++a)
+            {
+                max = Math.max(max, residuals[active[a]]);
+            }
+            double threshold = Math.max(eps, FRONTIER_RATIO * max);
+            int numFrontier = 0;
+            int numKept = 0;
+            for (int a = 0; a < numActive; ++a)
+            {
+                int k = active[a];
+                if (residuals[k] >= threshold)
+                {
+                    frontier[numFrontier++] = k;
+                }
+                else
+                {
+                    active[numKept++] = k;
+                }
+            }
+            send(frontier, numFrontier, pool);
+            numSent += numFrontier;
+
+            // Every message out of a node that just received a new message
+            // (except the one back to its sender) needs recomputing
+            int numDirty = 0;
+            for (int f = 0; f < numFrontier; ++f)
+            {
+                int k = frontier[f];
+                int t = targets[k];
+                for (int o = outgoingOffsets[t]; o < outgoingOffsets[t + 1];
+                    ++o)
+                {
+                    int k2 = outgoing[o];
+                    if (targets[k2] != sources[k] && lastDirtied[k2] != round)
+                    {
+                        lastDirtied[k2] = round;
+                        dirty[numDirty++] = k2;
+                    }
+                }
+            }
+            recompute(dirty, numDirty, pool);
+
+            numActive = 0;
+            for (int a = 0; a < numKept; ++a)
+            {
+                if (lastDirtied[active[a]] != round)
+                {
+                    active[numActive++] = active[a];
+                }
+            }
+            for (int d = 0; d < numDirty; ++d)
+            {
+                if (residuals[dirty[d]] >= eps)
+                {
+                    active[numActive++] = dirty[d];
+                }
+            }
+        }
+
+        computeBeliefs(pool);
+        return numActive == 0;
+    }
+
+    /**
+     * Replaces the listed messages' values with their pending values.
+     *
+     * @param messages The messages to send
+     * @param count The number of messages listed
+     * @param pool The thread pool to use (or null to run serially)
+     */
+    private void send(final int[] messages,
+        int count,
+        ThreadPoolExecutor pool)
+    {
+        CompressedGraphSnapshot.runInParallel(count, pool, (start, end) ->
+        {
+            for (int m = start; m < end; ++m)
+            {
+                int k = messages[m];
+                for (int x = messageOffsets[k]; x < messageOffsets[k + 1]; ++x)
+                {
+                    // Numerical precision issues
+                    values[x] = Math.max(pending[x], MIN_BELIEF);
+                    logValues[x] = Math.log(values[x]);
+                }
+                residuals[k] = 0;
+            }
+        });
+    }
+
+    /**
+     * Computes the pending values and residuals of the listed messages from
+     * the current values.
+     *
+     * @param messages The messages to recompute
+     * @param count The number of messages listed
+     * @param pool The thread pool to use (or null to run serially)
+     */
+    private void recompute(final int[] messages,
+        int count,
+        ThreadPoolExecutor pool)
+    {
+        CompressedGraphSnapshot.runInParallel(count, pool, (start, end) ->
+        {
+            double[] cavity = new double[maxNumLabels];
+            for (int m = start; m < end; ++m)
+            {
+                recompute(messages[m], cavity);
+            }
+        });
+    }
+
+    /**
+     * Computes the pending value and residual for message k: the sum over
+     * the source's labels of its unary and pairwise potentials times all
+     * messages to the source except those from the target, normalized to sum
+     * to one.
+     *
+     * @param k The message
+     * @param cavity Scratch space (at least as long as any node's labels)
+     */
+    private void recompute(int k,
+        double[] cavity)
+    {
+        int s = sources[k];
+        int t = targets[k];
+        int numSourceLabels = numLabels(s);
+        int numTargetLabels = numLabels(t);
+        for (int xs = 0; xs < numSourceLabels; ++xs)
+        {
+            cavity[xs] = -unaryCosts[labelOffsets[s] + xs];
+        }
+        for (int in = incomingOffsets[s]; in < incomingOffsets[s + 1]; ++in)
+        {
+            int k2 = incoming[in];
+            if (sources[k2] != t)
+            {
+                int off = messageOffsets[k2];
+                for (int xs = 0; xs < numSourceLabels; ++xs)
+                {
+                    cavity[xs] += logValues[off + xs];
+                }
+            }
+        }
+        // Pairwise costs are first endpoint's label major
+        int pair = pairwiseOffsets[edges[k]];
+        int sourceStride = reversed[k] ? 1 : numTargetLabels;
+        int targetStride = reversed[k] ? numSourceLabels : 1;
+        double max = -Double.MAX_VALUE;
+        for (int xt = 0; xt < numTargetLabels; ++xt)
+        {
+            for (int xs = 0; xs < numSourceLabels; ++xs)
+            {
+                max = Math.max(max, cavity[xs] - pairwiseCosts[pair + xs
+                    * sourceStride + xt * targetStride]);
+            }
+        }
+        int off = messageOffsets[k];
+        double total = 0;
+        for (int xt = 0; xt < numTargetLabels; ++xt)
+        {
+            double value = 0;
+            for (int xs = 0; xs < numSourceLabels; ++xs)
+            {
+                value += Math.exp(cavity[xs] - pairwiseCosts[pair + xs
+                    * sourceStride + xt * targetStride] - max);
+            }
+            pending[off + xt] = value;
+            total += value;
+        }
+        double residual = 0;
+        for (int xt = 0; xt < numTargetLabels; ++xt)
+        {
+            pending[off + xt] /= total;
+            residual = Math.max(residual, Math.abs(pending[off + xt]
+                - values[off + xt]));
+        }
+        residuals[k] = residual;
+    }
+
+    /**
+     * Computes every node's beliefs from its unary costs and the current
+     * messages.
+     *
+     * @param pool The thread pool to use (or null to run serially)
+     */
+    private void computeBeliefs(ThreadPoolExecutor pool)
+    {
+        CompressedGraphSnapshot.runInParallel(labelOffsets.length - 1, pool,
+            (start, end) ->
+        {
+            for (int i = start; i < end; ++i)
+            {
+                int off = labelOffsets[i];
+                int numLabels = numLabels(i);
+                double max = -Double.MAX_VALUE;
+                for (int x = 0; x < numLabels; ++x)
+                {
+                    beliefs[off + x] = -unaryCosts[off + x];
+                }
+                for (int in = incomingOffsets[i]; in < incomingOffsets[i + 1];
+                    ++in)
+                {
+                    int msg = messageOffsets[incoming[in]];
+                    for (int x = 0; x < numLabels; ++x)
+                    {
+                        beliefs[off + x] += logValues[msg + x];
+                    }
+                }
+                for (int x = 0; x < numLabels; ++x)
+                {
+                    max = Math.max(max, beliefs[off + x]);
+                }
+                double total = 0;
+                for (int x = 0; x < numLabels; ++x)
+                {
+                    beliefs[off + x] = Math.exp(beliefs[off + x] - max);
+                    total += beliefs[off + x];
+                }
+                for (int x = 0; x < numLabels; ++x)
+                {
+                    beliefs[off + x] /= total;
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the belief for the input node and label (after solve)
+     *
+     * @param i The node
+     * @param label The label's index
+     * @return The belief
+     */
+    double getBelief(int i,
+        int label)
+    {
+        return beliefs[labelOffsets[i] + label];
+    }
+
+}
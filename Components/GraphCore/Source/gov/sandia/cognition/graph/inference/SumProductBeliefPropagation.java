@@ -168,4 +168,10 @@ public class SumProductBeliefPropagation<LabelType>
         node.link(edgePair.getFirst(), true);
     }
 
+    @Override
+    boolean sendsMessagesBothWays()
+    {
+        return true;
+    }
+
 }
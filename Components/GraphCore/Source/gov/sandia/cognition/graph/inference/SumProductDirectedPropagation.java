@@ -82,6 +82,12 @@ public class SumProductDirectedPropagation<LabelType>
         node.link(edgePair.getFirst(), false);
     }
 
+    @Override
+    boolean sendsMessagesBothWays()
+    {
+        return false;
+    }
+
     /**
      * Private helper that computes the temporary message for the specified edge
      * for the current iteration going in the specified direction
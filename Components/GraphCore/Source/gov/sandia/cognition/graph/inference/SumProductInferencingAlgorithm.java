@@ -14,6 +14,7 @@
 
 package gov.sandia.cognition.graph.inference;
 
+import gov.sandia.cognition.algorithm.ParallelUtil;
 import gov.sandia.cognition.annotation.PublicationReference;
 import gov.sandia.cognition.annotation.PublicationType;
 import gov.sandia.cognition.util.Pair;
@@ -21,13 +22,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
- * Base class for Sum-Product inferencing algorithms on graphs/energy functions
+ * Base class for Sum-Product inferencing algorithms on graphs/energy functions.
+ * By default, every message is recomputed in every iteration. With residual
+ * scheduling on, messages are kept in flat arrays and only those that would
+ * change the most (and the messages that depend on them) are updated (see
+ * ResidualMessagePassing).
  *
  * @author jdwendt, tong
  * @param <LabelType> The type for labels
@@ -55,9 +58,10 @@ abstract public class SumProductInferencingAlgorithm<LabelType>
     public static final int DEFAULT_MAX_ITERATIONS = 20;
 
     /**
-     * The default number of threads that will be used
+     * The default number of threads that will be used (as chosen by
+     * ParallelUtil for this machine)
      */
-    public static final int DEFAULT_NUM_THREADS = 4;
+    public static final int DEFAULT_NUM_THREADS = ParallelUtil.OPTIMAL_THREADS;
 
     /**
      * The actual stopping epsilon that will be used
@@ -70,10 +74,26 @@ abstract public class SumProductInferencingAlgorithm<LabelType>
     private int maxNumIterations;
 
     /**
-     * The actual number of threads that will be used
+     * The number of threads requested (or ParallelUtil.OPTIMAL_THREADS)
      */
     private int numThreads;
 
+    /**
+     * The thread pool used by every solve (created when first needed)
+     */
+    private ThreadPoolExecutor threadPool;
+
+    /**
+     * True if solve uses residual scheduling
+     */
+    private boolean useResidualScheduling;
+
+    /**
+     * The flat-array messages (only if the last solve used residual
+     * scheduling)
+     */
+    private ResidualMessagePassing<LabelType> residualMessages;
+
     /**
      * This internally stores the nodes with their values for the learning
      */
@@ -109,7 +129,8 @@ abstract public class SumProductInferencingAlgorithm<LabelType>
      *
      * @param maxNumIterations The maximum number of iterations that will be run
      * @param eps The stopping epsilon that will be used
-     * @param numThreads The number of threads that will be used
+     * @param numThreads The number of threads that will be used (or
+     * ParallelUtil.OPTIMAL_THREADS)
      */
     public SumProductInferencingAlgorithm(int maxNumIterations,
         double eps,
@@ -119,6 +140,8 @@ abstract public class SumProductInferencingAlgorithm<LabelType>
         this.maxNumIterations = maxNumIterations;
         this.eps = eps;
         this.numThreads = numThreads;
+        this.threadPool = null;
+        this.useResidualScheduling = false;
         fn = null;
     }
 
@@ -279,28 +302,24 @@ abstract public class SumProductInferencingAlgorithm<LabelType>
     @Override
     public boolean solve()
     {
-        boolean converged = false;
-        edgeGroups.clear();
-        nodeGroups.clear();
-        int iterCount = 0;
-
-        // Create the factory that creates the threads
-        final ThreadFactory threadFactory = new ThreadFactory()
+        ThreadPoolExecutor executorService = getThreadPool();
+        if (useResidualScheduling)
         {
-            private final String baseName = "BpSolver-";
-
-            private int counter = 0;
-
-            @Override
-            public Thread newThread(Runnable r)
+            if (residualMessages == null)
             {
-                return new Thread(r, baseName + counter++);
+                residualMessages = new ResidualMessagePassing<>(fn,
+                    sendsMessagesBothWays());
             }
+            return residualMessages.solve(maxNumIterations, eps,
+                executorService);
+        }
+        residualMessages = null;
 
-        };
-
-        final ExecutorService executorService = Executors.newFixedThreadPool(
-            numThreads, threadFactory);
+        boolean converged = false;
+        edgeGroups.clear();
+        nodeGroups.clear();
+        int iterCount = 0;
+        int numThreads = ParallelUtil.getNumThreads(executorService);
 
         List<SolveThread> threads = new ArrayList<>(numThreads);
 
@@ -350,12 +369,62 @@ abstract public class SumProductInferencingAlgorithm<LabelType>
             SolverSetting.COMPUTE_BELIEFS);
         waitForThreadsToComplete(futures);
 
-        executorService.shutdown();
-
         return converged;
 
     }
 
+    /**
+     * Returns the thread pool used to solve, creating it (with the number of
+     * threads passed to the constructor) if it hasn't been created or set.
+     * The same pool is reused by every solve.
+     *
+     * @return the thread pool
+     */
+    public ThreadPoolExecutor getThreadPool()
+    {
+        if (threadPool == null)
+        {
+            threadPool = ParallelUtil.createThreadPool(numThreads);
+        }
+        return threadPool;
+    }
+
+    /**
+     * Sets the thread pool used to solve (so it can be shared with other
+     * computations).
+     *
+     * @param threadPool the thread pool
+     */
+    public void setThreadPool(ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * Returns true if solve uses residual scheduling.
+     *
+     * @return true if solve uses residual scheduling
+     */
+    public boolean isUseResidualScheduling()
+    {
+        return useResidualScheduling;
+    }
+
+    /**
+     * Sets whether solve uses residual scheduling: messages are stored in
+     * flat arrays, and each round only the messages that would change the
+     * most are sent, after which only the messages that depend on them are
+     * recomputed. Converged messages are no longer recomputed each iteration.
+     * The maximum number of iterations then limits the total messages sent
+     * (to that many times the number of messages).
+     *
+     * @param useResidualScheduling true to use residual scheduling
+     */
+    public void setUseResidualScheduling(boolean useResidualScheduling)
+    {
+        this.useResidualScheduling = useResidualScheduling;
+    }
+
     /**
      * Private helper that initializes and starts the multi-threading for a new
      * portion of the sum-product algorithm
@@ -366,11 +435,11 @@ abstract public class SumProductInferencingAlgorithm<LabelType>
      * @param setting The setting for the threads
      */
     private void loadAndStartFutures(List<Future<?>> futures,
-        ExecutorService executorService,
+        ThreadPoolExecutor executorService,
         List<SolveThread> threads,
         SolverSetting setting)
     {
-        for (int i = 0; i < numThreads; ++i)
+        for (int i = 0; i < threads.size(); ++i)
         {
             threads.get(i).setting = setting;
             futures.add(executorService.submit(threads.get(i)));
@@ -384,7 +453,7 @@ abstract public class SumProductInferencingAlgorithm<LabelType>
      */
     private void waitForThreadsToComplete(List<Future<?>> futures)
     {
-        for (int i = 0; i < numThreads; ++i)
+        for (int i = 0; i < futures.size(); ++i)
         {
             try
             {
@@ -441,6 +510,15 @@ abstract public class SumProductInferencingAlgorithm<LabelType>
      */
     abstract void initMessages(Pair<Integer, Integer> edgePair);
 
+    /**
+     * Children classes must implement this to say which way messages are
+     * passed along each edge.
+     *
+     * @return true if messages are passed both ways along each edge, false
+     * if only from the edge's first endpoint to its second
+     */
+    abstract boolean sendsMessagesBothWays();
+
     @Override
     public void init(EnergyFunction<LabelType> f)
     {
@@ -464,11 +542,12 @@ abstract public class SumProductInferencingAlgorithm<LabelType>
             node.resetToOne();
         }
         this.fn = f;
+        residualMessages = null;
 
         // Initialize the multi-threading queues
         // Create the data queues
         edgeGroupsMaster = new ArrayList<>();
-        int numPieces = (numThreads * 10);
+        int numPieces = (ParallelUtil.getNumThreads(getThreadPool()) * 10);
         int numPerPiece = f.numEdges() / numPieces;
         int startAt = 0;
         for (int i = 0; i < numPieces - 1; ++i)
@@ -513,6 +592,10 @@ abstract public class SumProductInferencingAlgorithm<LabelType>
     public double getBelief(int i,
         int label)
     {
+        if (residualMessages != null)
+        {
+            return residualMessages.getBelief(i, label);
+        }
         return nodes.get(i).getBelief(label);
     }
 
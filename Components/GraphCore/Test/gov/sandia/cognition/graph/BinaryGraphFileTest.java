@@ -0,0 +1,228 @@
+/*
+ * File:                BinaryGraphFileTest.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.util.Pair;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jdwendt
+ */
+public class BinaryGraphFileTest
+{
+
+    private static File tempFile(String suffix)
+        throws IOException
+    {
+        File f = File.createTempFile("BinaryGraphFileTest", suffix);
+        f.deleteOnExit();
+        return f;
+    }
+
+    /**
+     * Checks the file has the same nodes (in the same order) and the same
+     * snapshot as the graph
+     */
+    private static void checkSame(DirectedNodeEdgeGraph<?> graph,
+        BinaryGraphFile file)
+    {
+        assertEquals(graph.getNumNodes(), file.getNumNodes());
+        assertEquals(graph.getNumEdges(), file.getNumEdges());
+        for (int i = 0; i < graph.getNumNodes(); ++i)
+        {
+            String name = String.valueOf(graph.getNode(i));
+            assertEquals(name, file.getNode(i));
+            assertEquals(i, file.getNodeId(name));
+            assertTrue(file.containsNode(name));
+        }
+        CompressedGraphSnapshot expected = graph.getCompressedSnapshot();
+        CompressedGraphSnapshot actual = file.getCompressedSnapshot();
+        assertSame(actual, file.getCompressedSnapshot());
+        assertArrayEquals(expected.getSuccessorOffsets(),
+            actual.getSuccessorOffsets());
+        assertArrayEquals(expected.getSuccessors(), actual.getSuccessors());
+        if (expected.getSuccessorWeights() == null)
+        {
+            assertFalse(file.isWeighted());
+            assertNull(actual.getSuccessorWeights());
+        }
+        else
+        {
+            assertTrue(file.isWeighted());
+            assertArrayEquals(expected.getSuccessorWeights(),
+                actual.getSuccessorWeights(), 0.0);
+        }
+        for (int i = 0; i < file.getNumEdges(); ++i)
+        {
+            Pair<Integer, Integer> edge = file.getEdgeEndpointIds(i);
+            assertEquals(expected.getEdgeSource(i), (int) edge.getFirst());
+            assertEquals(expected.getEdgeTarget(i), (int) edge.getSecond());
+            assertEquals(expected.getEdgeWeight(i), file.getEdgeWeight(i), 0.0);
+        }
+    }
+
+    @Test
+    public void writeAndOpenTest()
+        throws IOException
+    {
+        DenseMemoryGraph<String> graph = new DenseMemoryGraph<>();
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "c");
+        graph.addEdge("a", "c");
+        graph.addEdge("a", "c");
+        graph.addEdge("c", "été");
+        graph.addNode("lonely");
+        File f = tempFile(".cfg");
+        BinaryGraphFile.write(graph, f);
+        BinaryGraphFile file = BinaryGraphFile.open(f);
+        checkSame(graph, file);
+        assertEquals(new HashSet<>(Arrays.asList("b", "c")), new HashSet<>(
+            file.getSuccessors("a")));
+        assertEquals(2, file.getSuccessors("a").size());
+        assertTrue(file.getSuccessors("lonely").isEmpty());
+        assertFalse(file.containsNode("d"));
+        assertEquals(Arrays.asList("a", "b", "c", "été", "lonely"),
+            file.getNodes());
+        try
+        {
+            file.addEdge("a", "d");
+            fail("Should have thrown an exception");
+        }
+        catch (UnsupportedOperationException e)
+        {
+            // correct path
+        }
+
+        WeightedDenseMemoryGraph<Integer> weighted
+            = new WeightedDenseMemoryGraph<>();
+        Random r = new Random(3);
+        for (int i = 0; i < 2000; ++i)
+        {
+            weighted.addEdge(r.nextInt(300), r.nextInt(300), r.nextDouble());
+        }
+        BinaryGraphFile.write(weighted, f);
+        checkSame(weighted, BinaryGraphFile.open(f));
+
+        // Empty graph
+        BinaryGraphFile.write(new DenseMemoryGraph<String>(), f);
+        checkSame(new DenseMemoryGraph<String>(), BinaryGraphFile.open(f));
+    }
+
+    @Test
+    public void badFileTest()
+        throws IOException
+    {
+        File f = tempFile(".txt");
+        try (PrintWriter out = new PrintWriter(f))
+        {
+            out.println("not a graph file, but at least forty bytes long");
+        }
+        try
+        {
+            BinaryGraphFile.open(f);
+            fail("Should have thrown an exception");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // correct path
+        }
+        try
+        {
+            BinaryGraphFile.importEdgeList(f, tempFile(".cfg"), null);
+            fail("Should have thrown an exception");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // correct path
+        }
+    }
+
+    @Test
+    public void importEdgeListTest()
+        throws IOException
+    {
+        Random r = new Random(11);
+        File text = tempFile(".txt");
+        // Big enough to be split into many chunks
+        DenseMemoryGraph<String> unweighted = new DenseMemoryGraph<>();
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(
+            new FileOutputStream(text), StandardCharsets.UTF_8)))
+        {
+            out.println("# A comment");
+            for (int i = 0; i < 50000; ++i)
+            {
+                String left = "n" + r.nextInt(5000);
+                String right = "n" + r.nextInt(5000);
+                out.println(left + "\t" + right);
+                unweighted.addEdge(left, right);
+                if (i % 1000 == 0)
+                {
+                    out.println();
+                }
+            }
+        }
+        checkSame(unweighted, BinaryGraphFile.importEdgeList(text, tempFile(
+            ".cfg"), null));
+        checkSame(unweighted, BinaryGraphFile.importEdgeList(text, tempFile(
+            ".cfg"), ParallelUtil.createThreadPool(4)));
+
+        // Weighted, with a few lines defaulting to weight 1 (and no repeated
+        // edges, as their weights' order isn't defined)
+        WeightedDenseMemoryGraph<String> weighted
+            = new WeightedDenseMemoryGraph<>();
+        Set<String> seen = new HashSet<>();
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(
+            new FileOutputStream(text), StandardCharsets.UTF_8)))
+        {
+            for (int i = 0; i < 50000; ++i)
+            {
+                String left = "w" + r.nextInt(5000);
+                String right = "w" + r.nextInt(5000);
+                if (!seen.add(left + " " + right))
+                {
+                    continue;
+                }
+                if (i % 100 == 0)
+                {
+                    out.println(left + " " + right + "\r");
+                    weighted.addEdge(left, right, 1.0);
+                }
+                else
+                {
+                    double w = r.nextDouble();
+                    out.println(left + "  " + right + " " + w);
+                    weighted.addEdge(left, right, w);
+                }
+            }
+        }
+        checkSame(weighted, BinaryGraphFile.importEdgeList(text, tempFile(
+            ".cfg"), ParallelUtil.createThreadPool(4)));
+    }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * File:                CompressedGraphSnapshotTest.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph;
+
+import gov.sandia.cognition.util.Pair;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jdwendt
+ */
+public class CompressedGraphSnapshotTest
+{
+
+    @Test
+    public void basicTest()
+    {
+        WeightedDenseMemoryGraph<Integer> graph
+            = new WeightedDenseMemoryGraph<>(5, 8);
+        graph.addEdge(3, 1, 2.0);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(1, 0, 0.5);
+        graph.addEdge(0, 2, 1.0);
+        graph.addEdge(0, 2, 3.0);
+        graph.addEdge(2, 2, 4.0);
+        graph.addEdge(1, 3, 1.0);
+        graph.addNode(4);
+
+        CompressedGraphSnapshot s = graph.getCompressedSnapshot();
+        assertSame(s, graph.getCompressedSnapshot());
+        assertEquals(5, s.getNumNodes());
+        assertEquals(7, s.getNumEdges());
+        assertTrue(s.isWeighted());
+
+        // Successors, with repeats
+        int id0 = graph.getNodeId(0);
+        int id1 = graph.getNodeId(1);
+        int id2 = graph.getNodeId(2);
+        int id3 = graph.getNodeId(3);
+        int id4 = graph.getNodeId(4);
+        assertEquals(3, s.getOutDegree(id0));
+        assertEquals(1, s.getInDegree(id0));
+        assertEquals(4, s.getDegree(id0));
+        assertEquals(3, s.getInDegree(id2));
+        assertEquals(0, s.getDegree(id4));
+
+        // Edge ids are the same as the graph's
+        for (int i = 0; i < graph.getNumEdges(); ++i)
+        {
+            Pair<Integer, Integer> edge = graph.getEdgeEndpointIds(i);
+            assertEquals((int) edge.getFirst(), s.getEdgeSource(i));
+            assertEquals((int) edge.getSecond(), s.getEdgeTarget(i));
+            assertEquals(graph.getEdgeWeight(i), s.getEdgeWeight(i), 0.0);
+        }
+
+        // Predecessors are sorted by node id
+        for (int i = 0; i < s.getNumNodes(); ++i)
+        {
+            for (int j = s.getPredecessorsStart(i) + 1;
+                j < s.getPredecessorsEnd(i); ++j)
+            {
+                assertTrue(s.getPredecessor(j - 1) <= s.getPredecessor(j));
+            }
+            for (int j = s.getPredecessorsStart(i); j < s.getPredecessorsEnd(i);
+                ++j)
+            {
+                int edgeId = s.getPredecessorEdgeId(j);
+                assertEquals(i, s.getEdgeTarget(edgeId));
+                assertEquals(s.getPredecessor(j), s.getEdgeSource(edgeId));
+                assertEquals(s.getEdgeWeight(edgeId), s.getPredecessorWeight(j),
+                    0.0);
+            }
+        }
+
+        // Neighbors merge repeats and directions; self loops are counted twice
+        assertEquals(2, s.getNumNeighbors(id0));
+        assertEquals(1.5, s.getNeighborWeight(s.findNeighbor(id0, id1)), 1e-12);
+        assertEquals(4.0, s.getNeighborWeight(s.findNeighbor(id0, id2)), 1e-12);
+        assertEquals(8.0, s.getNeighborWeight(s.findNeighbor(id2, id2)), 1e-12);
+        assertEquals(3.0, s.getNeighborWeight(s.findNeighbor(id1, id3)), 1e-12);
+        assertTrue(s.isNeighbor(id3, id1));
+        assertFalse(s.isNeighbor(id3, id0));
+        assertEquals(-1, s.findNeighbor(id4, id0));
+        assertEquals(0, s.getNumNeighbors(id4));
+
+        // Changing the graph drops the cached snapshot
+        graph.addEdge(4, 0, 1.0);
+        CompressedGraphSnapshot s2 = graph.getCompressedSnapshot();
+        assertNotSame(s, s2);
+        assertEquals(8, s2.getNumEdges());
+        assertTrue(s2.isNeighbor(id0, id4));
+    }
+
+    @Test
+    public void unweightedTest()
+    {
+        DenseMemoryGraph<String> graph = new DenseMemoryGraph<>();
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "a");
+        graph.addEdge("b", "c");
+        CompressedGraphSnapshot s = graph.getCompressedSnapshot();
+        assertFalse(s.isWeighted());
+        assertNull(s.getSuccessorWeights());
+        int a = graph.getNodeId("a");
+        int b = graph.getNodeId("b");
+        assertEquals(2.0, s.getNeighborWeight(s.findNeighbor(a, b)), 0.0);
+        assertEquals(1.0, s.getEdgeWeight(0), 0.0);
+
+        // The generic version matches the cached version
+        CompressedGraphSnapshot generic = CompressedGraphSnapshot.create(graph);
+        assertArrayEquals(s.getSuccessorOffsets(),
+            generic.getSuccessorOffsets());
+        assertArrayEquals(s.getSuccessors(), generic.getSuccessors());
+        assertArrayEquals(s.getNeighbors(), generic.getNeighbors());
+        assertArrayEquals(s.getNeighborWeights(), generic.getNeighborWeights(),
+            0.0);
+    }
+
+    @Test
+    public void badInputTest()
+    {
+        try
+        {
+            CompressedGraphSnapshot.create(new int[]
+            {
+                0, 2
+            }, new int[]
+            {
+                0
+            }, null);
+            fail("Offsets must end at the number of edges");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // correct path
+        }
+        try
+        {
+            CompressedGraphSnapshot.create(new int[]
+            {
+                0, 2, 2
+            }, new int[]
+            {
+                1, 0
+            }, null);
+            fail("Destinations must be sorted");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // correct path
+        }
+        try
+        {
+            CompressedGraphSnapshot.create(new int[]
+            {
+                0, 1
+            }, new int[]
+            {
+                1
+            }, null);
+            fail("Destination must be a node");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // correct path
+        }
+    }
+
+    @Test
+    public void largeParallelTest()
+    {
+        // Big enough to build on multiple threads
+        int n = 5000;
+        int m = 2 * CompressedGraphSnapshot.MIN_PARALLEL_EDGES;
+        Random r = new Random(3);
+        WeightedDenseMemoryGraph<Integer> graph
+            = new WeightedDenseMemoryGraph<>(n, m);
+        for (int i = 0; i < n; ++i)
+        {
+            graph.addNode(i);
+        }
+        Map<Long, Double> undirected = new HashMap<>();
+        for (int i = 0; i < m; ++i)
+        {
+            // Skew the sources so some nodes have much higher degree
+            int src = (int) (n * Math.pow(r.nextDouble(), 3));
+            int dst = r.nextInt(n);
+            double w = r.nextInt(4) + 1;
+            graph.addEdge(src, dst, w);
+            undirected.merge(((long) src) * n + dst, w, Double::sum);
+            undirected.merge(((long) dst) * n + src, w, Double::sum);
+        }
+
+        CompressedGraphSnapshot s = graph.getCompressedSnapshot();
+        assertEquals(m, s.getNumEdges());
+        int numNeighbors = 0;
+        for (int i = 0; i < n; ++i)
+        {
+            assertEquals(s.getOutDegree(i) + s.getInDegree(i), s.getDegree(i));
+            for (int j = s.getNeighborsStart(i); j < s.getNeighborsEnd(i); ++j)
+            {
+                if (j > s.getNeighborsStart(i))
+                {
+                    assertTrue(s.getNeighbor(j - 1) < s.getNeighbor(j));
+                }
+                Double expected = undirected.get(((long) i) * n
+                    + s.getNeighbor(j));
+                assertNotNull(expected);
+                assertEquals(expected, s.getNeighborWeight(j), 1e-9);
+                ++numNeighbors;
+            }
+            for (int j = s.getPredecessorsStart(i); j < s.getPredecessorsEnd(i);
+                ++j)
+            {
+                assertEquals(i, s.getEdgeTarget(s.getPredecessorEdgeId(j)));
+            }
+        }
+        assertEquals(undirected.size(), numNeighbors);
+
+        // Predecessor counts match a serial count
+        int[] inDegree = new int[n];
+        for (int i = 0; i < m; ++i)
+        {
+            ++inDegree[graph.getEdgeEndpointIds(i).getSecond()];
+        }
+        for (int i = 0; i < n; ++i)
+        {
+            assertEquals(inDegree[i], s.getInDegree(i));
+        }
+    }
+
+}
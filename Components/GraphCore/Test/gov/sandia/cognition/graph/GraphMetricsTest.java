@@ -16,6 +16,9 @@ package gov.sandia.cognition.graph;
 
 import gov.sandia.cognition.util.DefaultKeyValuePair;
 import gov.sandia.cognition.util.Pair;
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import java.util.Arrays;
+import java.util.Random;
 import java.util.Set;
 import org.junit.Test;
 
@@ -428,6 +431,64 @@ public class GraphMetricsTest
         assertEquals(1, m.numEdgeTriangles(5));
     }
 
+    @Test
+    public void testTriangleCounting()
+    {
+        Random r = new Random(21);
+        DirectedNodeEdgeGraph<Integer> graph = randomConnectedGraph(400, 3000,
+            r);
+        // A hub (so rows are very different lengths), repeats and self-loops
+        for (int i = 1; i < 400; i += 2)
+        {
+            graph.addEdge(i, 0);
+        }
+        for (int i = 0; i < 50; ++i)
+        {
+            int a = r.nextInt(400);
+            graph.addEdge(a, a);
+            graph.addEdge(a, (a + 1) % 400);
+        }
+        GraphMetrics<Integer> sets = new GraphMetrics<>(graph);
+        sets.initializeNodeTriangles();
+        GraphMetrics<Integer> serial = new GraphMetrics<>(graph);
+        GraphMetrics<Integer> parallel = new GraphMetrics<>(graph);
+        parallel.setThreadPool(ParallelUtil.createThreadPool(4));
+        long total = 0;
+        for (int i = 0; i < graph.getNumNodes(); ++i)
+        {
+            int expected = sets.getNodeTriangleEndpointIds(i).size();
+            total += expected;
+            assertEquals(expected, serial.numNodeTriangles(i));
+            assertEquals(expected, parallel.numNodeTriangles(i));
+        }
+        for (int i = 0; i < graph.getNumEdges(); ++i)
+        {
+            int expected = sets.getEdgeTriangleOtherEndpointIds(i).size();
+            assertEquals(expected, serial.numEdgeTriangles(i));
+            assertEquals(expected, parallel.numEdgeTriangles(i));
+        }
+        assertEquals(total / 3, parallel.numTriangles());
+        assertEquals(total / 3, new GraphMetrics<>(graph).numTriangles());
+        assertEquals(total / 3, TriangleCounting.countTriangles(
+            serial.getSnapshot(), null));
+
+        // A triangle with a pendant node
+        DenseMemoryGraph<String> g = new DenseMemoryGraph<>();
+        g.addEdge("a", "b");
+        g.addEdge("b", "c");
+        g.addEdge("c", "a");
+        g.addEdge("a", "d");
+        g.addEdge("d", "d");
+        GraphMetrics<String> m = new GraphMetrics<>(g);
+        assertEquals(1.0 / 3, m.getLocalClusteringCoefficient("a"), 1e-12);
+        assertEquals(1.0, m.getLocalClusteringCoefficient("b"), 1e-12);
+        assertEquals(0.0, m.getLocalClusteringCoefficient("d"), 1e-12);
+        assertEquals((1.0 / 3 + 2) / 4, m.getAverageClusteringCoefficient(),
+            1e-12);
+        assertEquals(3.0 / 5, m.getGlobalClusteringCoefficient(), 1e-12);
+        assertEquals(1, m.numTriangles());
+    }
+
     @Test
     public void testEccentricityFurther()
     {
@@ -508,4 +569,383 @@ public class GraphMetricsTest
         assertEquals(0.00000 * 2, m.getPerNodeBetweennessCentrality("J"), 1e-5);
     }
 
+    /**
+     * Builds a random connected graph (a path plus random extra edges)
+     *
+     * @param n The number of nodes
+     * @param numExtra The number of extra edges
+     * @param r The random number generator
+     * @return the graph
+     */
+    private static DirectedNodeEdgeGraph<Integer> randomConnectedGraph(int n,
+        int numExtra,
+        Random r)
+    {
+        DirectedNodeEdgeGraph<Integer> graph = new DenseMemoryGraph<>(n, n
+            + numExtra);
+        for (int i = 1; i < n; ++i)
+        {
+            graph.addEdge(i - 1, i);
+        }
+        for (int i = 0; i < numExtra; ++i)
+        {
+            graph.addEdge(r.nextInt(n), r.nextInt(n));
+        }
+        return graph;
+    }
+
+    @Test
+    public void testParallelBetweennessCentrality()
+    {
+        Random r = new Random(11);
+        DirectedNodeEdgeGraph<Integer> graph = randomConnectedGraph(300, 400, r);
+        int n = graph.getNumNodes();
+
+        GraphMetrics<Integer> serial = new GraphMetrics<>(graph);
+        serial.initializePerNodeBetweennessCentrality();
+        GraphMetrics<Integer> parallel = new GraphMetrics<>(graph);
+        parallel.setThreadPool(ParallelUtil.createThreadPool(3));
+        parallel.initializePerNodeBetweennessCentrality();
+        for (int i = 0; i < n; ++i)
+        {
+            assertEquals(serial.getPerNodeBetweennessCentralityById(i),
+                parallel.getPerNodeBetweennessCentralityById(i), 1e-10);
+        }
+
+        // Sampling all sources is exact
+        parallel.initializePerNodeBetweennessCentrality(n, r);
+        for (int i = 0; i < n; ++i)
+        {
+            assertEquals(serial.getPerNodeBetweennessCentralityById(i),
+                parallel.getPerNodeBetweennessCentralityById(i), 1e-10);
+        }
+
+        // Sampling half the sources should be close for the central nodes
+        parallel.initializePerNodeBetweennessCentrality(n / 2, r);
+        double maxError = 0;
+        for (int i = 0; i < n; ++i)
+        {
+            maxError = Math.max(maxError, Math.abs(
+                serial.getPerNodeBetweennessCentralityById(i)
+                - parallel.getPerNodeBetweennessCentralityById(i)));
+        }
+        assertTrue(maxError < 0.05);
+
+        // Riondato-Kornaropoulos guarantees error within epsilon (scaled by
+        // this class's normalization) with probability 1 - delta
+        double epsilon = 0.02;
+        parallel.initializeApproximatePerNodeBetweennessCentrality(epsilon, 0.1,
+            r);
+        double bound = epsilon * 2.0 * n / (n - 2);
+        for (int i = 0; i < n; ++i)
+        {
+            assertEquals(serial.getPerNodeBetweennessCentralityById(i),
+                parallel.getPerNodeBetweennessCentralityById(i), bound);
+        }
+
+        // The result is independent of the number of threads
+        GraphMetrics<Integer> other = new GraphMetrics<>(graph);
+        other.initializeApproximatePerNodeBetweennessCentrality(epsilon, 0.1,
+            new Random(5));
+        parallel.initializeApproximatePerNodeBetweennessCentrality(epsilon, 0.1,
+            new Random(5));
+        for (int i = 0; i < n; ++i)
+        {
+            assertEquals(other.getPerNodeBetweennessCentralityById(i),
+                parallel.getPerNodeBetweennessCentralityById(i), 1e-10);
+        }
+    }
+
+    /**
+     * Computes every node's eccentricity with a search from every node
+     *
+     * @param metrics The metrics for the graph
+     * @return the eccentricities
+     */
+    private static int[] bruteForceEccentricities(GraphMetrics<Integer> metrics)
+    {
+        int n = metrics.numNodes();
+        int[] result = new int[n];
+        for (int i = 0; i < n; ++i)
+        {
+            for (int d : metrics.computeAllDistancesForNode(i))
+            {
+                if (d != Integer.MAX_VALUE)
+                {
+                    result[i] = Math.max(result[i], d);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testDiameterSmallRandomGraphs()
+    {
+        Random r = new Random(17);
+        for (int t = 0; t < 2000; ++t)
+        {
+            int n = 2 + r.nextInt(9);
+            DirectedNodeEdgeGraph<Integer> graph = randomConnectedGraph(n,
+                r.nextInt(2 * n), r);
+            // Shuffle the ids so the path used for connectivity isn't in order
+            DenseMemoryGraph<Integer> shuffled = new DenseMemoryGraph<>();
+            int[] perm = new int[n];
+            for (int i = 0; i < n; ++i)
+            {
+                perm[i] = i;
+            }
+            for (int i = n - 1; i > 0; --i)
+            {
+                int j = r.nextInt(i + 1);
+                int tmp = perm[i];
+                perm[i] = perm[j];
+                perm[j] = tmp;
+            }
+            for (int i = 0; i < n; ++i)
+            {
+                shuffled.addNode(i);
+            }
+            for (int i = 0; i < graph.getNumEdges(); ++i)
+            {
+                Pair<Integer, Integer> edge = graph.getEdgeEndpointIds(i);
+                shuffled.addEdge(perm[edge.getFirst()],
+                    perm[edge.getSecond()]);
+            }
+            GraphMetrics<Integer> metrics = new GraphMetrics<>(shuffled);
+            int diameter = 0;
+            for (int e : bruteForceEccentricities(metrics))
+            {
+                diameter = Math.max(diameter, e);
+            }
+            assertEquals(diameter, MultiSourceBreadthFirstSearch.computeDiameter(
+                metrics.getSnapshot(), null));
+            assertEquals(diameter, metrics.getDiameter());
+        }
+    }
+
+    @Test
+    public void testMultiSourceEccentricity()
+    {
+        Random r = new Random(7);
+        for (int numExtra : new int[]
+        {
+            5, 50, 400
+        })
+        {
+            DirectedNodeEdgeGraph<Integer> graph = randomConnectedGraph(300,
+                numExtra, r);
+            GraphMetrics<Integer> serial = new GraphMetrics<>(graph);
+            int[] expected = bruteForceEccentricities(serial);
+            int radius = Integer.MAX_VALUE;
+            int diameter = 0;
+            for (int e : expected)
+            {
+                radius = Math.min(radius, e);
+                diameter = Math.max(diameter, e);
+            }
+
+            // Radius and diameter without the per-node values
+            assertEquals(diameter, serial.getDiameter());
+            assertEquals(radius, serial.getRadius());
+            assertTrue(serial.isWcc());
+
+            GraphMetrics<Integer> parallel = new GraphMetrics<>(graph);
+            parallel.setThreadPool(ParallelUtil.createThreadPool(3));
+            assertEquals(diameter, parallel.getDiameter());
+            assertEquals(radius, parallel.getRadius());
+            for (int i = 0; i < expected.length; ++i)
+            {
+                assertEquals(expected[i], serial.getPerNodeEccentricityById(i));
+                assertEquals(expected[i],
+                    parallel.getPerNodeEccentricityById(i));
+            }
+        }
+
+        // Two nodes two apart, which stopped the fringe search one level early
+        DenseMemoryGraph<Integer> small = new DenseMemoryGraph<>();
+        for (int i = 0; i < 4; ++i)
+        {
+            small.addNode(i);
+        }
+        small.addEdge(0, 2);
+        small.addEdge(0, 3);
+        small.addEdge(1, 2);
+        small.addEdge(1, 3);
+        small.addEdge(2, 3);
+        assertEquals(2, new GraphMetrics<>(small).getDiameter());
+
+        // Two components, one with a self loop, plus an isolated node
+        DenseMemoryGraph<Integer> graph = new DenseMemoryGraph<>();
+        for (int i = 1; i < 100; ++i)
+        {
+            graph.addEdge(i - 1, i);
+            graph.addEdge(1000 + r.nextInt(i), 1000 + i);
+        }
+        graph.addEdge(1050, 1050);
+        graph.addNode(5000);
+        GraphMetrics<Integer> metrics = new GraphMetrics<>(graph);
+        int[] expected = bruteForceEccentricities(metrics);
+        CompressedGraphSnapshot s = metrics.getSnapshot();
+        assertArrayEquals(expected,
+            MultiSourceBreadthFirstSearch.computeAllEccentricities(s, null));
+        assertEquals(99, MultiSourceBreadthFirstSearch.computeDiameter(s, null));
+        assertEquals(0, MultiSourceBreadthFirstSearch.computeRadius(s, null));
+        int[] sources = new int[s.getNumNodes()];
+        for (int i = 0; i < sources.length; ++i)
+        {
+            sources[i] = i;
+        }
+        assertArrayEquals(expected,
+            MultiSourceBreadthFirstSearch.computeEccentricities(s, sources,
+                ParallelUtil.createThreadPool(2)));
+        assertFalse(metrics.isWcc());
+        assertEquals(Integer.MAX_VALUE, metrics.getDiameter());
+        assertEquals(Integer.MAX_VALUE, metrics.getRadius());
+        assertEquals(0, metrics.getPerNodeEccentricity(5000));
+    }
+
+
+    /**
+     * Computes the (dense) adjacency matrix of the input graph
+     */
+    private static double[][] adjacency(DirectedNodeEdgeGraph<Integer> graph)
+    {
+        int n = graph.getNumNodes();
+        double[][] a = new double[n][n];
+        for (int e = 0; e < graph.getNumEdges(); ++e)
+        {
+            Pair<Integer, Integer> ends = graph.getEdgeEndpointIds(e);
+            a[ends.getFirst()][ends.getSecond()] += 1;
+        }
+        return a;
+    }
+
+    @Test
+    public void testSpectralCentrality()
+    {
+        Random r = new Random(13);
+        DirectedNodeEdgeGraph<Integer> graph = randomConnectedGraph(300, 400, r);
+        // A dangling node
+        graph.addEdge(299, 300);
+        int n = graph.getNumNodes();
+        double[][] a = adjacency(graph);
+
+        // Dense power iterations to compare against
+        double[] pageRank = new double[n];
+        double[] authorities = new double[n];
+        double[] hubs = new double[n];
+        Arrays.fill(pageRank, 1.0 / n);
+        Arrays.fill(hubs, 1.0);
+        for (int iter = 0; iter < 500; ++iter)
+        {
+            double[] next = new double[n];
+            double dangling = 0;
+            for (int u = 0; u < n; ++u)
+            {
+                double out = 0;
+                for (int v = 0; v < n; ++v)
+                {
+                    out += a[u][v];
+                }
+                if (out == 0)
+                {
+                    dangling += pageRank[u];
+                    continue;
+                }
+                for (int v = 0; v < n; ++v)
+                {
+                    next[v] += 0.85 * pageRank[u] * a[u][v] / out;
+                }
+            }
+            for (int v = 0; v < n; ++v)
+            {
+                next[v] += 0.15 / n + 0.85 * dangling / n;
+            }
+            pageRank = next;
+
+            double aNorm = 0;
+            for (int v = 0; v < n; ++v)
+            {
+                authorities[v] = 0;
+                for (int u = 0; u < n; ++u)
+                {
+                    authorities[v] += a[u][v] * hubs[u];
+                }
+                aNorm += authorities[v] * authorities[v];
+            }
+            double hNorm = 0;
+            for (int u = 0; u < n; ++u)
+            {
+                authorities[u] /= Math.sqrt(aNorm);
+            }
+            for (int u = 0; u < n; ++u)
+            {
+                hubs[u] = 0;
+                for (int v = 0; v < n; ++v)
+                {
+                    hubs[u] += a[u][v] * authorities[v];
+                }
+                hNorm += hubs[u] * hubs[u];
+            }
+            for (int u = 0; u < n; ++u)
+            {
+                hubs[u] /= Math.sqrt(hNorm);
+            }
+        }
+
+        GraphMetrics<Integer> serial = new GraphMetrics<>(graph);
+        GraphMetrics<Integer> parallel = new GraphMetrics<>(graph);
+        parallel.setThreadPool(ParallelUtil.createThreadPool(3));
+        GraphMetrics<Integer> gaussSeidel = new GraphMetrics<>(graph);
+        gaussSeidel.initializePerNodePageRank(0.85, 1e-12, 1000, true);
+        GraphMetrics<Integer> parallelGaussSeidel = new GraphMetrics<>(graph);
+        parallelGaussSeidel.setThreadPool(ParallelUtil.createThreadPool(3));
+        parallelGaussSeidel.initializePerNodePageRank(0.85, 1e-12, 1000, true);
+        double sum = 0;
+        for (int i = 0; i < n; ++i)
+        {
+            sum += serial.getPerNodePageRankById(i);
+            assertEquals(pageRank[i], serial.getPerNodePageRankById(i), 1e-9);
+            assertEquals(pageRank[i], parallel.getPerNodePageRankById(i), 1e-9);
+            assertEquals(pageRank[i], gaussSeidel.getPerNodePageRankById(i),
+                1e-9);
+            assertEquals(pageRank[i],
+                parallelGaussSeidel.getPerNodePageRankById(i), 1e-9);
+            assertEquals(hubs[i], serial.getPerNodeHubScoreById(i), 1e-6);
+            assertEquals(hubs[i], parallel.getPerNodeHubScoreById(i), 1e-6);
+            assertEquals(authorities[i], serial.getPerNodeAuthorityScoreById(
+                i), 1e-6);
+            assertEquals(authorities[i],
+                parallel.getPerNodeAuthorityScoreById(i), 1e-6);
+            assertEquals(serial.getPerNodeEigenvectorCentralityById(i),
+                parallel.getPerNodeEigenvectorCentralityById(i), 1e-12);
+        }
+        assertEquals(1.0, sum, 1e-12);
+
+        // A star is bipartite: the center gets 1/sqrt(2), each leaf
+        // 1/sqrt(2k)
+        DenseMemoryGraph<Integer> star = new DenseMemoryGraph<>();
+        for (int i = 1; i <= 8; ++i)
+        {
+            star.addEdge(0, i);
+        }
+        GraphMetrics<Integer> metrics = new GraphMetrics<>(star);
+        assertEquals(Math.sqrt(0.5), metrics.getPerNodeEigenvectorCentrality(0),
+            1e-8);
+        assertEquals(Math.sqrt(1.0 / 16), metrics.getPerNodeEigenvectorCentrality(
+            3), 1e-8);
+        // The center is the only hub, all leaves are equal authorities
+        assertEquals(1.0, metrics.getPerNodeHubScore(0), 1e-12);
+        assertEquals(0.0, metrics.getPerNodeHubScore(5), 1e-12);
+        assertEquals(0.0, metrics.getPerNodeAuthorityScore(0), 1e-12);
+        assertEquals(Math.sqrt(1.0 / 8), metrics.getPerNodeAuthorityScore(5),
+            1e-12);
+        // Every leaf is dangling, so each jumps uniformly
+        double leaf = metrics.getPerNodePageRank(1);
+        double center = metrics.getPerNodePageRank(0);
+        assertEquals(1.0, center + 8 * leaf, 1e-12);
+        assertEquals(0.15 / 9 + 0.85 * 8 * leaf / 9, center, 1e-10);
+    }
+
 }
@@ -0,0 +1,239 @@
+/*
+ * File:                ParallelRandomWalkerTest.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jdwendt
+ */
+public class ParallelRandomWalkerTest
+{
+
+    /**
+     * Returns all walks (as strings) sorted so they can be compared
+     */
+    private static List<String> collectWalks(ParallelRandomWalker<?> walker)
+    {
+        final List<String> walks = Collections.synchronizedList(
+            new ArrayList<>());
+        walker.generateWalks((walk, length) -> walks.add(Arrays.toString(
+            Arrays.copyOf(walk, length))));
+        Collections.sort(walks);
+        return walks;
+    }
+
+    @Test
+    public void weightedTransitionTest()
+    {
+        WeightedDenseMemoryGraph<Integer> graph
+            = new WeightedDenseMemoryGraph<>();
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(0, 2, 2.0);
+        graph.addEdge(0, 3, 7.0);
+        graph.addEdge(0, 4, 0.0);
+        ParallelRandomWalker<Integer> walker = new ParallelRandomWalker<>(
+            graph);
+        walker.setDirected(true);
+        walker.setWalkLength(2);
+        int[] counts = new int[5];
+        int[] walk = new int[2];
+        SplittableRandom r = new SplittableRandom(1);
+        int numWalks = 100000;
+        for (int i = 0; i < numWalks; ++i)
+        {
+            assertEquals(2, walker.walk(graph.getNodeId(0), r, walk));
+            ++counts[graph.getNode(walk[1])];
+        }
+        assertEquals(0.1, counts[1] / (double) numWalks, 0.01);
+        assertEquals(0.2, counts[2] / (double) numWalks, 0.01);
+        assertEquals(0.7, counts[3] / (double) numWalks, 0.01);
+        assertEquals(0, counts[4]);
+
+        // Unweighted walks ignore the weights
+        walker.setWeighted(false);
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < numWalks; ++i)
+        {
+            walker.walk(graph.getNodeId(0), r, walk);
+            ++counts[graph.getNode(walk[1])];
+        }
+        for (int i = 1; i <= 4; ++i)
+        {
+            assertEquals(0.25, counts[i] / (double) numWalks, 0.01);
+        }
+
+        // Directed walks stop at nodes without successors
+        walker.setWalkLength(5);
+        assertEquals(2, walker.walk(graph.getNodeId(0), r, new int[5]));
+    }
+
+    @Test
+    public void node2vecTest()
+    {
+        DenseMemoryGraph<Integer> graph = new DenseMemoryGraph<>();
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(1, 3);
+        graph.addEdge(0, 2);
+        ParallelRandomWalker<Integer> walker = new ParallelRandomWalker<>(
+            graph);
+        walker.setWalkLength(3);
+        walker.setReturnParameter(0.5);
+        walker.setInOutParameter(2.0);
+        // From 1 (having come from 0): back to 0 has weight 1/p = 2, to 2
+        // (a neighbor of 0) has weight 1, and to 3 has weight 1/q = 0.5
+        int[] counts = new int[4];
+        int numWalks = 0;
+        int[] walk = new int[3];
+        SplittableRandom r = new SplittableRandom(2);
+        for (int i = 0; i < 200000; ++i)
+        {
+            walker.walk(graph.getNodeId(0), r, walk);
+            if (graph.getNode(walk[1]) == 1)
+            {
+                ++counts[graph.getNode(walk[2])];
+                ++numWalks;
+            }
+        }
+        assertEquals(2 / 3.5, counts[0] / (double) numWalks, 0.01);
+        assertEquals(1 / 3.5, counts[2] / (double) numWalks, 0.01);
+        assertEquals(0.5 / 3.5, counts[3] / (double) numWalks, 0.01);
+        assertEquals(0, counts[1]);
+
+        try
+        {
+            walker.setReturnParameter(0);
+            fail("Should have thrown an exception");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // correct path
+        }
+    }
+
+    @Test
+    public void parallelTest()
+    {
+        Random r = new Random(7);
+        WeightedDenseMemoryGraph<Integer> graph
+            = new WeightedDenseMemoryGraph<>();
+        for (int i = 0; i < 5000; ++i)
+        {
+            graph.addEdge(r.nextInt(1000), r.nextInt(1000), r.nextDouble());
+        }
+        ParallelRandomWalker<Integer> walker = new ParallelRandomWalker<>(
+            graph);
+        walker.setRandomSeed(5);
+        walker.setWalkLength(20);
+        walker.setWalksPerNode(3);
+        walker.setReturnParameter(0.25);
+        walker.setInOutParameter(4);
+        List<String> serial = collectWalks(walker);
+        assertEquals(3 * graph.getNumNodes(), serial.size());
+        walker.setThreadPool(ParallelUtil.createThreadPool(4));
+        assertEquals(serial, collectWalks(walker));
+        walker.setRandomSeed(6);
+        assertNotEquals(serial, collectWalks(walker));
+
+        // Every step follows an edge
+        CompressedGraphSnapshot s = graph.getCompressedSnapshot();
+        walker.generateWalks((walk, length) ->
+        {
+            assertEquals(20, length);
+            for (int i = 1; i < length; ++i)
+            {
+                assertTrue(s.isNeighbor(walk[i - 1], walk[i]));
+            }
+        });
+
+        StringWriter out = new StringWriter();
+        walker.writeWalks(out);
+        String[] lines = out.toString().split("\n");
+        assertEquals(3 * graph.getNumNodes(), lines.length);
+        for (String line : lines)
+        {
+            String[] names = line.split(" ");
+            assertEquals(20, names.length);
+            for (String name : names)
+            {
+                assertTrue(graph.containsNode(Integer.valueOf(name)));
+            }
+        }
+    }
+
+    @Test
+    public void concurrentWalkTest()
+        throws Exception
+    {
+        // Walks started on many threads at once on a new walker (which
+        // builds its tables on the first walk) match walks on one thread
+        Random r = new Random(3);
+        WeightedDenseMemoryGraph<Integer> graph
+            = new WeightedDenseMemoryGraph<>();
+        for (int i = 0; i < 5000; ++i)
+        {
+            graph.addEdge(r.nextInt(500), r.nextInt(500), r.nextDouble());
+        }
+        ParallelRandomWalker<Integer> serial = new ParallelRandomWalker<>(
+            graph);
+        serial.setWalkLength(10);
+        final ParallelRandomWalker<Integer> concurrent
+            = new ParallelRandomWalker<>(graph);
+        concurrent.setWalkLength(10);
+        final int numNodes = graph.getNumNodes();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < numNodes; ++i)
+        {
+            int[] walk = new int[10];
+            int length = serial.walk(i, new SplittableRandom(i), walk);
+            expected.add(Arrays.toString(Arrays.copyOf(walk, length)));
+        }
+
+        final String[] actual = new String[numNodes];
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; ++t)
+        {
+            final int first = t;
+            tasks.add(() ->
+            {
+                int[] walk = new int[10];
+                for (int i = first; i < numNodes; i += 8)
+                {
+                    int length = concurrent.walk(i, new SplittableRandom(i),
+                        walk);
+                    actual[i] = Arrays.toString(Arrays.copyOf(walk, length));
+                }
+                return null;
+            });
+        }
+        ParallelUtil.executeInParallel(tasks, ParallelUtil.createThreadPool(
+            8));
+        assertEquals(expected, Arrays.asList(actual));
+    }
+
+}
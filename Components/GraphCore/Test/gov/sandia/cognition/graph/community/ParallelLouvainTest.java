@@ -0,0 +1,310 @@
+/*
+ * File:                ParallelLouvainTest.java
+ * Authors:             Jeremy D. Wendt
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.graph.community;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.graph.DenseMemoryGraph;
+import gov.sandia.cognition.graph.GraphMetrics;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the parallel Louvain implementation.
+ *
+ * @author jdwendt
+ */
+public class ParallelLouvainTest
+{
+
+    /**
+     * Builds a graph with numGroups dense groups of groupSize nodes, sparse
+     * edges between groups, and a pendant node hanging off each group.
+     */
+    private static DenseMemoryGraph<Integer> plantedPartition(int numGroups,
+        int groupSize,
+        double pIn,
+        double pOut,
+        Random r)
+    {
+        int n = numGroups * groupSize;
+        DenseMemoryGraph<Integer> graph = new DenseMemoryGraph<>();
+        for (int i = 0; i < n; ++i)
+        {
+            graph.addNode(i);
+            for (int j = 0; j < i; ++j)
+            {
+                double p = (i / groupSize == j / groupSize) ? pIn : pOut;
+                if (r.nextDouble() < p)
+                {
+                    graph.addEdge(j, i);
+                }
+            }
+        }
+        for (int g = 0; g < numGroups; ++g)
+        {
+            graph.addEdge(g * groupSize, n + g);
+        }
+        return graph;
+    }
+
+    /**
+     * Returns the top-level communities as sets
+     */
+    private static Set<Set<Integer>> communities(
+        Louvain.LouvainHierarchy<Integer> results)
+    {
+        Set<Set<Integer>> ret = new HashSet<>();
+        for (int i = 0; i < results.getNumPartitions(); ++i)
+        {
+            ret.add(new HashSet<>(results.getPartitionMembers(i)));
+        }
+        return ret;
+    }
+
+    /**
+     * Checks the planted groups (and their pendant nodes) were found
+     */
+    private static void checkPlanted(DenseMemoryGraph<Integer> graph,
+        int numGroups,
+        int groupSize,
+        Louvain.LouvainHierarchy<Integer> results)
+    {
+        int n = numGroups * groupSize;
+        assertEquals(numGroups, results.getNumPartitions());
+        for (int i = 0; i < n; ++i)
+        {
+            assertEquals(results.getPartition((i / groupSize) * groupSize),
+                results.getPartition(i));
+        }
+        for (int g = 0; g < numGroups; ++g)
+        {
+            assertEquals(results.getPartition(g * groupSize),
+                results.getPartition(n + g));
+        }
+        assertEquals(CommunityMetrics.computeModularity(graph, communities(
+            results)), results.getModularity(), 1e-9);
+    }
+
+    /**
+     * Returns true if the planted groups (and their pendant nodes) were found
+     */
+    private static boolean isPlanted(int numGroups,
+        int groupSize,
+        Louvain.LouvainHierarchy<Integer> results)
+    {
+        int n = numGroups * groupSize;
+        if (results.getNumPartitions() != numGroups)
+        {
+            return false;
+        }
+        for (int i = 0; i < n; ++i)
+        {
+            if (results.getPartition((i / groupSize) * groupSize)
+                != results.getPartition(i))
+            {
+                return false;
+            }
+        }
+        for (int g = 0; g < numGroups; ++g)
+        {
+            if (results.getPartition(g * groupSize) != results.getPartition(n
+                + g))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs the parallel solver with four threads
+     */
+    private static Louvain.LouvainHierarchy<Integer> solveParallel(
+        DenseMemoryGraph<Integer> graph,
+        long seed,
+        boolean deterministic)
+    {
+        ParallelLouvain<Integer> louvain = new ParallelLouvain<>(graph);
+        louvain.setRandomSeed(seed);
+        louvain.setDeterministic(deterministic);
+        louvain.setThreadPool(ParallelUtil.createThreadPool(4));
+        return louvain.solveCommunities();
+    }
+
+    @Test
+    public void plantedPartitionTest()
+    {
+        Random r = new Random(17);
+        DenseMemoryGraph<Integer> graph = plantedPartition(5, 40, 0.3, 0.005,
+            r);
+        double louvain = new Louvain<>(graph).solveCommunities().getModularity();
+
+        ParallelLouvain<Integer> colored = new ParallelLouvain<>(graph);
+        colored.setRandomSeed(1);
+        Louvain.LouvainHierarchy<Integer> results = colored.solveCommunities();
+        assertSame(results, colored.solveCommunities());
+        checkPlanted(graph, 5, 40, results);
+        assertTrue(results.getModularity() >= louvain - 1e-3);
+        for (int j = 0; j < results.numLevels() - 1; ++j)
+        {
+            assertTrue(results.getModularity(j) < results.getModularity(j + 1));
+        }
+
+        ParallelLouvain<Integer> uncolored = new ParallelLouvain<>(graph);
+        uncolored.setRandomSeed(1);
+        uncolored.setUseColoring(false);
+        uncolored.setUseVertexFollowing(false);
+        checkPlanted(graph, 5, 40, uncolored.solveCommunities());
+
+        ParallelLouvain<Integer> leiden = new ParallelLouvain<>(graph);
+        leiden.setRandomSeed(1);
+        leiden.setUseLeidenRefinement(true);
+        checkPlanted(graph, 5, 40, leiden.solveCommunities());
+    }
+
+    @Test
+    public void deterministicTest()
+    {
+        Random r = new Random(5);
+        // Big enough that colors are moved on multiple threads
+        DenseMemoryGraph<Integer> graph = plantedPartition(10, 200, 0.05,
+            0.001, r);
+        ParallelLouvain<Integer> one = new ParallelLouvain<>(graph);
+        one.setRandomSeed(3);
+        one.setDeterministic(true);
+        one.setThreadPool(ParallelUtil.createThreadPool(1));
+        ParallelLouvain<Integer> four = new ParallelLouvain<>(graph);
+        four.setRandomSeed(3);
+        four.setDeterministic(true);
+        four.setThreadPool(ParallelUtil.createThreadPool(4));
+        Louvain.LouvainHierarchy<Integer> r1 = one.solveCommunities();
+        Louvain.LouvainHierarchy<Integer> r4 = four.solveCommunities();
+        assertEquals(r1.numLevels(), r4.numLevels());
+        for (int level = 0; level < r1.numLevels(); ++level)
+        {
+            assertEquals(r1.getModularity(level), r4.getModularity(level), 0.0);
+            for (int i = 0; i < graph.getNumNodes(); ++i)
+            {
+                assertEquals(r1.getCommunityForNodeAtLevelById(i, level),
+                    r4.getCommunityForNodeAtLevelById(i, level));
+            }
+        }
+        checkPlanted(graph, 10, 200, r4);
+    }
+
+    @Test
+    public void recoveryTest()
+    {
+        // Both modes find the planted groups for every seed
+        Random r = new Random(11);
+        DenseMemoryGraph<Integer> graph = plantedPartition(10, 200, 0.08,
+            0.002, r);
+        for (long seed = 0; seed < 5; ++seed)
+        {
+            checkPlanted(graph, 10, 200, solveParallel(graph, seed, true));
+            checkPlanted(graph, 10, 200, solveParallel(graph, seed, false));
+        }
+    }
+
+    @Test
+    public void matchesSerialTest()
+    {
+        // On weakly separated groups, the parallel modes should find the
+        // planted groups at least as often as the serial Louvain
+        Random r = new Random(5);
+        DenseMemoryGraph<Integer> graph = plantedPartition(10, 200, 0.05,
+            0.001, r);
+        int serial = 0;
+        int deterministic = 0;
+        int atomic = 0;
+        for (long seed = 0; seed < 10; ++seed)
+        {
+            Louvain<Integer> louvain = new Louvain<>(graph);
+            louvain.setRandomSet(seed);
+            serial += isPlanted(10, 200, louvain.solveCommunities()) ? 1 : 0;
+            Louvain.LouvainHierarchy<Integer> results = solveParallel(graph,
+                seed, true);
+            deterministic += isPlanted(10, 200, results) ? 1 : 0;
+            assertEquals(CommunityMetrics.computeModularity(graph,
+                communities(results)), results.getModularity(), 1e-9);
+            results = solveParallel(graph, seed, false);
+            atomic += isPlanted(10, 200, results) ? 1 : 0;
+            assertEquals(CommunityMetrics.computeModularity(graph,
+                communities(results)), results.getModularity(), 1e-9);
+        }
+        assertTrue(deterministic >= serial);
+        assertTrue(atomic >= serial);
+
+        // Without the final refinement, low-degree nodes stay locked into
+        // the wrong first-level communities more often
+        int unrefined = 0;
+        for (long seed = 0; seed < 10; ++seed)
+        {
+            ParallelLouvain<Integer> louvain = new ParallelLouvain<>(graph);
+            assertTrue(louvain.isUseFinalRefinement());
+            louvain.setUseFinalRefinement(false);
+            assertFalse(louvain.isUseFinalRefinement());
+            louvain.setRandomSeed(seed);
+            louvain.setDeterministic(true);
+            louvain.setThreadPool(ParallelUtil.createThreadPool(4));
+            unrefined += isPlanted(10, 200, louvain.solveCommunities()) ? 1
+                : 0;
+        }
+        assertTrue(unrefined <= deterministic);
+    }
+
+    @Test
+    public void leidenConnectedTest()
+    {
+        // Every Leiden community must be connected
+        Random r = new Random(2);
+        DenseMemoryGraph<Integer> graph = plantedPartition(6, 15, 0.5, 0.02, r);
+        ParallelLouvain<Integer> leiden = new ParallelLouvain<>(graph);
+        leiden.setRandomSeed(4);
+        leiden.setUseLeidenRefinement(true);
+        leiden.setUseVertexFollowing(false);
+        Louvain.LouvainHierarchy<Integer> results = leiden.solveCommunities();
+        GraphMetrics<Integer> metrics = new GraphMetrics<>(graph);
+        for (int p = 0; p < results.getNumPartitions(); ++p)
+        {
+            Set<Integer> members = results.getPartitionMembers(p);
+            Integer start = members.iterator().next();
+            Set<Integer> reached = new HashSet<>();
+            Queue<Integer> queue = new ArrayDeque<>();
+            reached.add(start);
+            queue.add(start);
+            while (!queue.isEmpty())
+            {
+                for (Integer neighbor : metrics.neighbors(queue.poll()))
+                {
+                    if (members.contains(neighbor) && reached.add(neighbor))
+                    {
+                        queue.add(neighbor);
+                    }
+                }
+            }
+            assertEquals(members, reached);
+        }
+        assertEquals(CommunityMetrics.computeModularity(graph, communities(
+            results)), results.getModularity(), 1e-9);
+    }
+
+}
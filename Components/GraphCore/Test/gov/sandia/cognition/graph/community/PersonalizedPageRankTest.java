@@ -17,7 +17,13 @@ package gov.sandia.cognition.graph.community;
 import gov.sandia.cognition.graph.DenseMemoryGraph;
 import gov.sandia.cognition.graph.DirectedNodeEdgeGraph;
 import gov.sandia.cognition.graph.WeightedDenseMemoryGraph;
+import gov.sandia.cognition.algorithm.ParallelUtil;
 import gov.sandia.cognition.collection.DoubleArrayList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import org.junit.Test;
 
@@ -359,4 +365,73 @@ public class PersonalizedPageRankTest
         assertEquals(scores.get(26), 0, 1e-10);
     }
 
+    @Test
+    public void batchTest()
+    {
+        Random r = new Random(8);
+        int n = 2000;
+        WeightedDenseMemoryGraph<Integer> graph
+            = new WeightedDenseMemoryGraph<>(n, 6 * n);
+        for (int i = 0; i < n; ++i)
+        {
+            graph.addNode(i);
+        }
+        for (int i = 1; i < n; ++i)
+        {
+            graph.addEdge(i, r.nextInt(i), r.nextInt(3) + 1);
+            graph.addEdge(i, r.nextInt(i), 1);
+            graph.addEdge(i, (int) (i * r.nextDouble() * r.nextDouble()), 1);
+        }
+        PersonalizedPageRank<Integer> ppr = new PersonalizedPageRank<>(graph,
+            0.001);
+        List<List<Integer>> seedSets = new ArrayList<>();
+        for (int i = 0; i < 100; ++i)
+        {
+            seedSets.add(Arrays.asList(r.nextInt(n), r.nextInt(n)));
+        }
+        seedSets.add(Arrays.asList(5));
+
+        List<PersonalizedPageRank.SparseScores> all
+            = ppr.getScoresForSeedSetsByIds(seedSets, 0,
+                ParallelUtil.createThreadPool(4));
+        List<PersonalizedPageRank.SparseScores> top
+            = ppr.getScoresForSeedSetsByIds(seedSets, 10, null);
+        assertEquals(seedSets.size(), all.size());
+        for (int s = 0; s < seedSets.size(); ++s)
+        {
+            // The sparse results match the dense single-set results
+            DoubleArrayList expected = ppr.getScoresForAllNodesByIds(
+                seedSets.get(s));
+            PersonalizedPageRank.SparseScores scores = all.get(s);
+            int numPositive = 0;
+            for (int i = 0; i < n; ++i)
+            {
+                numPositive += (expected.get(i) > 0) ? 1 : 0;
+            }
+            assertEquals(numPositive, scores.size());
+            for (int i = 0; i < scores.size(); ++i)
+            {
+                assertEquals(expected.get(scores.getNodeId(i)),
+                    scores.getScore(i), 0.0);
+                if (i > 0)
+                {
+                    assertTrue(scores.getScore(i - 1) >= scores.getScore(i));
+                }
+            }
+
+            // The top 10 set is the same as the full result's top 10
+            PersonalizedPageRank.SparseScores best = top.get(s);
+            assertEquals(10, best.size());
+            Set<Integer> expectedTop = new HashSet<>();
+            Set<Integer> actualTop = new HashSet<>();
+            for (int i = 0; i < 10; ++i)
+            {
+                expectedTop.add(scores.getNodeId(i));
+                actualTop.add(best.getNodeId(i));
+                assertTrue(best.getScore(i) <= scores.getScore(i) + 1e-12);
+            }
+            assertEquals(expectedTop, actualTop);
+        }
+    }
+
 }
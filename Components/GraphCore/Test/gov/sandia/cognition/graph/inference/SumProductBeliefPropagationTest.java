@@ -19,6 +19,7 @@ import gov.sandia.cognition.util.DefaultKeyValuePair;
 import gov.sandia.cognition.util.Pair;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -247,4 +248,66 @@ public class SumProductBeliefPropagationTest
         }, false);
     }
 
+    @Test
+    public void residualTest()
+    {
+        DenseMemoryGraph<Integer> graph = new DenseMemoryGraph<>(3, 2);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        BasicHomogeneousHandler<Integer> handler = new BasicHomogeneousHandler<>();
+        NodeNameAwareEnergyFunction<Integer, Integer> fn
+            = new GraphWrappingEnergyFunction<>(graph, handler);
+        fn.setLabel(1, 0);
+        handler.setSpecialUnaryPotential(3, graph, 0.8);
+        fn.setLabel(3, 1);
+        SumProductBeliefPropagation<Integer> bp
+            = new SumProductBeliefPropagation<>(100, 1e-6, 1);
+        bp.setUseResidualScheduling(true);
+        bp.init(fn);
+        assertTrue(bp.solve());
+        InferenceHelper.testExactResults(graph, fn, bp, new double[]
+        {
+            1.0, 0.0, 0.9625, 0.0375, 0.9252, 0.0748
+        }, false);
+
+        // On a larger tree, residual scheduling must find the same beliefs as
+        // updating every message, and not depend on the number of threads
+        Random r = new Random(3);
+        graph = new DenseMemoryGraph<>();
+        for (int i = 1; i < 500; ++i)
+        {
+            graph.addEdge(r.nextInt(i), i);
+        }
+        handler = new BasicHomogeneousHandler<>();
+        fn = new GraphWrappingEnergyFunction<>(graph, handler);
+        for (int i = 0; i < 20; ++i)
+        {
+            fn.setLabel(r.nextInt(500), r.nextInt(2));
+        }
+        SumProductBeliefPropagation<Integer> all
+            = new SumProductBeliefPropagation<>(1000, 1e-9, 1);
+        all.init(fn);
+        assertTrue(all.solve());
+        SumProductBeliefPropagation<Integer> one
+            = new SumProductBeliefPropagation<>(1000, 1e-9, 1);
+        one.setUseResidualScheduling(true);
+        one.init(fn);
+        assertTrue(one.solve());
+        SumProductBeliefPropagation<Integer> four
+            = new SumProductBeliefPropagation<>(1000, 1e-9, 4);
+        four.setUseResidualScheduling(true);
+        four.init(fn);
+        assertTrue(four.solve());
+        for (int i = 0; i < graph.getNumNodes(); ++i)
+        {
+            for (int label = 0; label < 2; ++label)
+            {
+                assertEquals(all.getBelief(i, label), one.getBelief(i, label),
+                    1e-6);
+                assertEquals(one.getBelief(i, label), four.getBelief(i, label),
+                    0.0);
+            }
+        }
+    }
+
 }
@@ -16,6 +16,7 @@ package gov.sandia.cognition.graph.inference;
 
 import gov.sandia.cognition.graph.DenseMemoryGraph;
 import java.util.Map;
+import java.util.Random;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -95,4 +96,66 @@ public class SumProductDirectedPropagationTest
         assertTrue(beliefs3.get(0) < beliefs2.get(0));
     }
 
+    @Test
+    public void residualTest()
+    {
+        DenseMemoryGraph<Integer> graph = new DenseMemoryGraph<>(3, 2);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        BasicHomogeneousHandler<Integer> handler = new BasicHomogeneousHandler<>();
+        NodeNameAwareEnergyFunction<Integer, Integer> fn
+            = new GraphWrappingEnergyFunction<>(graph, handler);
+        fn.setLabel(1, 0);
+        handler.setSpecialUnaryPotential(3, graph, 0.8);
+        fn.setLabel(3, 1);
+        SumProductDirectedPropagation<Integer> bayes
+            = new SumProductDirectedPropagation<>(100, 1e-6, 1);
+        bayes.setUseResidualScheduling(true);
+        bayes.init(fn);
+        assertTrue(bayes.solve());
+        InferenceHelper.testExactResults(graph, fn, bayes, new double[]
+        {
+            1.0, 0.0, 0.99, 0.01, 0.9252, 0.0748
+        }, false);
+
+        // On a larger tree, residual scheduling must find the same beliefs as
+        // updating every message, and not depend on the number of threads
+        Random r = new Random(3);
+        graph = new DenseMemoryGraph<>();
+        for (int i = 1; i < 500; ++i)
+        {
+            graph.addEdge(r.nextInt(i), i);
+        }
+        handler = new BasicHomogeneousHandler<>();
+        fn = new GraphWrappingEnergyFunction<>(graph, handler);
+        for (int i = 0; i < 20; ++i)
+        {
+            fn.setLabel(r.nextInt(500), r.nextInt(2));
+        }
+        SumProductDirectedPropagation<Integer> all
+            = new SumProductDirectedPropagation<>(1000, 1e-9, 1);
+        all.init(fn);
+        assertTrue(all.solve());
+        SumProductDirectedPropagation<Integer> one
+            = new SumProductDirectedPropagation<>(1000, 1e-9, 1);
+        one.setUseResidualScheduling(true);
+        one.init(fn);
+        assertTrue(one.solve());
+        SumProductDirectedPropagation<Integer> four
+            = new SumProductDirectedPropagation<>(1000, 1e-9, 4);
+        four.setUseResidualScheduling(true);
+        four.init(fn);
+        assertTrue(four.solve());
+        for (int i = 0; i < graph.getNumNodes(); ++i)
+        {
+            for (int label = 0; label < 2; ++label)
+            {
+                assertEquals(all.getBelief(i, label), one.getBelief(i, label),
+                    1e-6);
+                assertEquals(one.getBelief(i, label), four.getBelief(i, label),
+                    0.0);
+            }
+        }
+    }
+
 }
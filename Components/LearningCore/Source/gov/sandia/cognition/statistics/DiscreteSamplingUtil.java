@@ -141,42 +141,44 @@ public class DiscreteSamplingUtil
         final double[] proportions,
         final int sampleSize)
     {
-        // To sample from the proportions we will need the sum.
-        final int length = proportions.length;
-        double proportionSum = 0.0;
-        if (sampleSize == 1)
+        final int[] result = new int[sampleSize];
+        sampleIndicesFromProportionsInto(random, proportions, result);
+        return result;
+    }
+
+    /**
+     * Samples indices from a given set of proportions to fill the given
+     * array. With multiple samples this builds an {@link AliasSampler} once
+     * so that each sample takes constant time.
+     *
+     * @param   random
+     *      The random number generator to use.
+     * @param   proportions
+     *      The array of proportions. All entries must be greater than or
+     *      equal to zero.
+     * @param   output
+     *      The array to fill with indices sampled according to the given
+     *      proportions.
+     */
+    public static void sampleIndicesFromProportionsInto(
+        final Random random,
+        final double[] proportions,
+        final int[] output)
+    {
+        if (output.length == 1)
         {
             // In the case of a single sample just do one sample using the
             // sum.
-            for (double value : proportions)
-            {
-                proportionSum += value;
-
-            }
-
-            // Sample one index.
-            final int randomIndex = sampleIndexFromProportions(
-                random, proportions, proportionSum);
-            return new int[] { randomIndex };
+            output[0] = sampleIndexFromProportions(random, proportions);
         }
-        else
+        else if (output.length > 1)
         {
-            // With multiple samples, create the array of cumulative proportions
-            // to sample quickly from it.
-            final double[] cumulativeProportions = new double[length];
-
-            for (int i = 0; i < length; i++)
-            {
-                proportionSum += proportions[i];
-                cumulativeProportions[i] = proportionSum;
-            }
-
-            return sampleIndicesFromCumulativeProportions(
-                random, cumulativeProportions, sampleSize);
+            // With multiple samples, create the alias table to sample
+            // quickly from it.
+            new AliasSampler(proportions).sampleIndicesInto(random, output);
         }
     }
 
-
     /**
      * Samples a random index according to the given proportions. Note that
      * sampling according cumulative proportions may be slightly faster than
@@ -267,12 +269,34 @@ public class DiscreteSamplingUtil
         final int sampleSize)
     {
         final int[] result = new int[sampleSize];
-        for (int i = 0; i < sampleSize; i++)
+        sampleIndicesFromCumulativeProportionsInto(
+            random, cumulativeProportions, result);
+        return result;
+    }
+
+    /**
+     * Samples indices with replacement from an array of cumulative
+     * proportions to fill the given array.
+     *
+     * @param   random
+     *      The random number generator to use.
+     * @param   cumulativeProportions
+     *      The array of cumulative proportions. The entries must be
+     *      non-negative and monotonically increasing.
+     * @param   output
+     *      The array to fill with indices sampled with replacement according
+     *      to the given cumulative proportions.
+     */
+    public static void sampleIndicesFromCumulativeProportionsInto(
+        final Random random,
+        final double[] cumulativeProportions,
+        final int[] output)
+    {
+        for (int i = 0; i < output.length; i++)
         {
-            result[i] = sampleIndexFromCumulativeProportions(
+            output[i] = sampleIndexFromCumulativeProportions(
                 random, cumulativeProportions);
         }
-        return result;
     }
 
     /**
@@ -122,7 +122,11 @@ public abstract class AbstractKalmanFilter
 
     /**
      * Updates the measurement belief by computing the Kalman gain and
-     * incorporating the innovation into the estimate
+     * incorporating the innovation into the estimate.  When the measurement
+     * covariance is diagonal, the measurements are independent and are
+     * incorporated one at a time, each being a rank-one downdate of the belief
+     * covariance.  This takes O(m*d^2) time and keeps the Cholesky factor of
+     * the belief current, instead of inverting the innovation covariance.
      * @param belief
      * Current belief of the state.
      * @param innovation
@@ -137,6 +141,12 @@ public abstract class AbstractKalmanFilter
         Matrix C )
     {
 
+        if( isDiagonal( this.measurementCovariance ) )
+        {
+            this.computeSequentialMeasurementBelief(belief, innovation, C);
+            return;
+        }
+
         Matrix Ct = C.transpose();
 
         // Figure out what the model says the observation should be
@@ -162,6 +172,77 @@ public abstract class AbstractKalmanFilter
 
     }
 
+    /**
+     * Incorporates independent measurements one at a time, using the scalar
+     * Kalman gain for each so that the covariance update is a rank-one
+     * downdate: P = P - (P*c)(P*c)'/(c'*P*c + r).
+     * @param belief
+     * Current belief of the state.
+     * @param innovation
+     * Innovation, which is the observation minus the predicted observation
+     * @param C
+     * Output-selector matrix, the partial derivative of the output with
+     * respect to the current estimated state.
+     */
+    protected void computeSequentialMeasurementBelief(
+        MultivariateGaussian belief,
+        Vector innovation,
+        Matrix C )
+    {
+        final Vector xpred = belief.getMean();
+        final Vector correction = xpred.clone();
+        correction.zero();
+
+        final int numMeasurements = C.getNumRows();
+        for( int j = 0; j < numMeasurements; j++ )
+        {
+            // Earlier measurements have moved the estimate, so correct this
+            // innovation for how far it has moved.
+            final Vector c = C.getRow(j);
+            final Vector PCt = belief.getCovariance().times( c );
+            final double innovationVariance = c.dotProduct( PCt )
+                + this.measurementCovariance.getElement(j, j);
+            final double residual =
+                innovation.getElement(j) - c.dotProduct( correction );
+
+            final Vector gain = PCt.scale( 1.0 / innovationVariance );
+            correction.plusEquals( gain.scale( residual ) );
+            belief.rankOneUpdate( PCt, -1.0 / innovationVariance );
+        }
+
+        xpred.plusEquals( correction );
+        belief.setMean(xpred);
+    }
+
+    /**
+     * Determines if the given matrix is square and diagonal.
+     * @param matrix
+     * Matrix to check.
+     * @return
+     * True if all off-diagonal elements are zero.
+     */
+    protected static boolean isDiagonal(
+        final Matrix matrix )
+    {
+        if( !matrix.isSquare() )
+        {
+            return false;
+        }
+
+        final int M = matrix.getNumRows();
+        for( int i = 0; i < M; i++ )
+        {
+            for( int j = 0; j < M; j++ )
+            {
+                if( i != j && matrix.getElement(i, j) != 0.0 )
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public void update(
         MultivariateGaussian belief,
         Vector observation )
@@ -406,9 +406,9 @@ public class DirichletProcessMixtureModel<ObservationType>
     transient protected BetaDistribution etaSampler;
 
     /**
-     * Samples a new alpha-inverse.
+     * Samples a new alpha.
      */
-    transient protected GammaDistribution alphaInverseSampler;
+    transient protected GammaDistribution alphaSampler;
 
     /**
      * Runs the Gibbs sampler for the concentration parameter, alpha, given
@@ -441,25 +441,26 @@ public class DirichletProcessMixtureModel<ObservationType>
         final double a = 1.0;
         final double b = 1.0;
         final int updatedK = this.currentParameter.getNumClusters();
-        double etaWeight = (a+updatedK-1.0) / (numObservations*(b-logEta));
+        // Equation 13 gives the odds of the larger shape, not its probability.
+        double odds = (a+updatedK-1.0) / (numObservations*(b-logEta));
         double pEta = this.random.nextDouble();
 
-        if( this.alphaInverseSampler == null )
+        if( this.alphaSampler == null )
         {
-            this.alphaInverseSampler = new GammaDistribution();
+            this.alphaSampler = new GammaDistribution();
         }
         
-        if( pEta < etaWeight )
-//        if( pEta < eta )
+        if( pEta < odds / (1.0 + odds) )
         {
-            this.alphaInverseSampler.setShape( a + updatedK );
+            this.alphaSampler.setShape( a + updatedK );
         }
         else
         {
-            this.alphaInverseSampler.setShape( a + updatedK - 1.0 );
+            this.alphaSampler.setShape( a + updatedK - 1.0 );
         }
-        this.alphaInverseSampler.setScale( b - logEta );
-        return 1.0/this.alphaInverseSampler.sample(this.random);
+        // The rate of the Gamma is (b - log(eta)).
+        this.alphaSampler.setScale( 1.0/(b - logEta) );
+        return this.alphaSampler.sample(this.random);
 
     }
 
@@ -0,0 +1,711 @@
+/*
+ * File:                ParallelArrayParticleFilter.java
+ * Authors:             Kevin R. Dixon
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 18, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.statistics.bayesian;
+
+import gov.sandia.cognition.algorithm.ParallelAlgorithm;
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationReferences;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.learning.algorithm.AbstractBatchAndIncrementalLearner;
+import gov.sandia.cognition.math.ProbabilityUtil;
+import gov.sandia.cognition.util.ArgumentChecker;
+import gov.sandia.cognition.util.CloneableSerializable;
+import gov.sandia.cognition.util.ObjectUtil;
+import gov.sandia.cognition.util.Randomized;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * A sampling importance resampling particle filter for real-valued state
+ * vectors that is designed for large numbers of particles. Unlike
+ * {@link SamplingImportanceResamplingParticleFilter}, which represents each
+ * particle as an object inside of a {@code DataDistribution}, this filter
+ * keeps the particles in a {@link ParticleArray}, which stores the state as a
+ * structure of primitive arrays. The particles are split into contiguous
+ * blocks, one per thread, and each block is propagated and weighted by the
+ * {@link Updater} in parallel. When the effective number of particles drops
+ * below a threshold, the particles are resampled in O(N) time using either
+ * systematic or stratified resampling into the back buffer of the
+ * {@code ParticleArray}, so that a filtering step does no per-particle memory
+ * allocation.
+ *
+ * @param <ObservationType>
+ * Type of observations handled by the algorithm.
+ * @author Kevin R. Dixon
+ * @since 4.0.0
+ */
+@PublicationReferences(
+    references={
+        @PublicationReference(
+            author={
+                "M. Sanjeev Arulampalam",
+                "Simon Maskell",
+                "Neil Gordon",
+                "Tim Clapp"
+            },
+            title="A Tutorial on Particle Filters for Online Nonlinear/Non-Gaussian Bayesian Tracking",
+            type=PublicationType.Journal,
+            publication="IEEE Transactions on Signal Processing, Vol. 50, No. 2",
+            year=2002,
+            pages={174,188},
+            url="http://people.cs.ubc.ca/~murphyk/Software/Kalman/ParticleFilterTutorial.pdf"
+        )
+        ,
+        @PublicationReference(
+            author={
+                "Randal Douc",
+                "Olivier Cappe",
+                "Eric Moulines"
+            },
+            title="Comparison of Resampling Schemes for Particle Filtering",
+            type=PublicationType.Conference,
+            publication="Proceedings of the 4th International Symposium on Image and Signal Processing and Analysis",
+            year=2005,
+            pages={64,69},
+            url="http://arxiv.org/abs/cs/0507025"
+        )
+    }
+)
+public class ParallelArrayParticleFilter<ObservationType>
+    extends AbstractBatchAndIncrementalLearner<ObservationType, ParticleArray>
+    implements ParallelAlgorithm, Randomized
+{
+
+    /**
+     * Default number of particles, {@value}.
+     */
+    public static final int DEFAULT_NUM_PARTICLES = 1000;
+
+    /**
+     * Default fraction of effective particles below which to resample,
+     * {@value}.
+     */
+    public static final double DEFAULT_RESAMPLING_THRESHOLD = 0.5;
+
+    /**
+     * Default resampling method, systematic.
+     */
+    public static final ResamplingMethod DEFAULT_RESAMPLING_METHOD =
+        ResamplingMethod.SYSTEMATIC;
+
+    /**
+     * Updates the particle states and computes their likelihoods.
+     */
+    protected Updater<? super ObservationType> updater;
+
+    /**
+     * Number of particles in the filter.
+     */
+    protected int numParticles;
+
+    /**
+     * Fraction of effective particles, below which we resample.
+     */
+    protected double resamplingThreshold;
+
+    /**
+     * The method used to resample the particles.
+     */
+    protected ResamplingMethod resamplingMethod;
+
+    /**
+     * Random number generator.
+     */
+    protected transient Random random;
+
+    /**
+     * Thread pool used for parallelization.
+     */
+    private transient ThreadPoolExecutor threadPool;
+
+    /**
+     * Tasks that update and weight a block of particles. They are created
+     * once and reused on every step.
+     */
+    protected transient ArrayList<ParticleBlockTask> blockTasks;
+
+    /**
+     * Reused array of the ancestor index of each resampled particle.
+     */
+    protected transient int[] ancestors;
+
+    /**
+     * Creates a new {@code ParallelArrayParticleFilter} with default
+     * parameters.
+     */
+    public ParallelArrayParticleFilter()
+    {
+        this(null, DEFAULT_NUM_PARTICLES, new Random());
+    }
+
+    /**
+     * Creates a new {@code ParallelArrayParticleFilter}.
+     *
+     * @param   updater
+     *      Updater algorithm that updates and weights the particles.
+     * @param   numParticles
+     *      Number of particles.
+     * @param   random
+     *      Random number generator.
+     */
+    public ParallelArrayParticleFilter(
+        final Updater<? super ObservationType> updater,
+        final int numParticles,
+        final Random random)
+    {
+        super();
+
+        this.setUpdater(updater);
+        this.setNumParticles(numParticles);
+        this.setResamplingThreshold(DEFAULT_RESAMPLING_THRESHOLD);
+        this.setResamplingMethod(DEFAULT_RESAMPLING_METHOD);
+        this.setRandom(random);
+    }
+
+    @Override
+    public ParallelArrayParticleFilter<ObservationType> clone()
+    {
+        @SuppressWarnings("unchecked")
+        final ParallelArrayParticleFilter<ObservationType> clone =
+            (ParallelArrayParticleFilter<ObservationType>) super.clone();
+        clone.setUpdater(ObjectUtil.cloneSafe(this.getUpdater()));
+        clone.blockTasks = null;
+        clone.ancestors = null;
+        return clone;
+    }
+
+    @Override
+    public ParticleArray createInitialLearnedObject()
+    {
+        final ParticleArray particles = new ParticleArray(
+            this.getNumParticles(), this.getUpdater().getDimensionality());
+        this.getUpdater().initialize(particles.getStates(),
+            0, particles.getNumParticles(), this.getRandom());
+        return particles;
+    }
+
+    @Override
+    public void update(
+        final ParticleArray particles,
+        final ObservationType value)
+    {
+        final ArrayList<ParticleBlockTask> tasks = this.getBlockTasks(
+            particles.getNumParticles());
+        for (ParticleBlockTask task : tasks)
+        {
+            task.particles = particles;
+            task.observation = value;
+        }
+
+        // Propagate each block of particles and add in the log-likelihood of
+        // the observation to their weights.
+        final ArrayList<Double> blockMaxima;
+        try
+        {
+            blockMaxima = ParallelUtil.executeInParallel(
+                tasks, this.getThreadPool());
+        }
+        catch (Exception ex)
+        {
+            throw new RuntimeException(ex);
+        }
+        finally
+        {
+            for (ParticleBlockTask task : tasks)
+            {
+                task.particles = null;
+                task.observation = null;
+            }
+        }
+
+        double maxLogWeight = Double.NEGATIVE_INFINITY;
+        for (Double blockMax : blockMaxima)
+        {
+            maxLogWeight = Math.max(maxLogWeight, blockMax);
+        }
+        normalizeLogWeights(particles.getLogWeights(), maxLogWeight);
+
+        // Now make sure we've got enough effective particles.
+        final double particlePct = particles.computeEffectiveParticles()
+            / particles.getNumParticles();
+        if (particlePct < this.getResamplingThreshold())
+        {
+            this.resample(particles);
+        }
+    }
+
+    /**
+     * Resamples the given particles in place according to their weights
+     * using the resampling method of the filter. After resampling all of the
+     * particles have uniform weight.
+     *
+     * @param   particles
+     *      The particles to resample.
+     */
+    public void resample(
+        final ParticleArray particles)
+    {
+        final int n = particles.getNumParticles();
+        if (this.ancestors == null || this.ancestors.length != n)
+        {
+            this.ancestors = new int[n];
+        }
+
+        computeAncestors(particles.getLogWeights(), this.getResamplingMethod(),
+            this.getRandom(), this.ancestors);
+
+        // Gather the ancestors into the back buffer and swap it in.
+        final double[][] states = particles.states;
+        final double[][] buffer = particles.buffer;
+        for (int d = 0; d < particles.getDimensionality(); d++)
+        {
+            final double[] source = states[d];
+            final double[] target = buffer[d];
+            for (int i = 0; i < n; i++)
+            {
+                target[i] = source[this.ancestors[i]];
+            }
+        }
+        particles.swapBuffers();
+        particles.setUniformWeights();
+    }
+
+    /**
+     * Computes the ancestor indices for resampling from the given normalized
+     * log weights in O(N) time. Both systematic and stratified resampling
+     * walk the cumulative weights once using N ordered uniform points, so the
+     * ancestors are produced in non-decreasing order.
+     *
+     * @param   logWeights
+     *      The normalized log weights of the particles.
+     * @param   method
+     *      The resampling method to use.
+     * @param   random
+     *      The random number generator to use.
+     * @param   ancestors
+     *      The array to write the ancestor index of each new particle into.
+     *      Must be the same length as the weights.
+     */
+    public static void computeAncestors(
+        final double[] logWeights,
+        final ResamplingMethod method,
+        final Random random,
+        final int[] ancestors)
+    {
+        final int n = logWeights.length;
+        final double step = 1.0 / n;
+        final double offset = random.nextDouble() * step;
+        int j = 0;
+        double cumulative = Math.exp(logWeights[0]);
+        for (int i = 0; i < n; i++)
+        {
+            final double u;
+            if (method == ResamplingMethod.STRATIFIED)
+            {
+                u = (i + random.nextDouble()) * step;
+            }
+            else
+            {
+                u = offset + i * step;
+            }
+
+            while (u > cumulative && j < n - 1)
+            {
+                j++;
+                cumulative += Math.exp(logWeights[j]);
+            }
+            ancestors[i] = j;
+        }
+    }
+
+    /**
+     * Normalizes the given log weights in place so that their exponentials
+     * sum to one.
+     *
+     * @param   logWeights
+     *      The log weights to normalize.
+     * @param   maxLogWeight
+     *      The maximum of the log weights, used for numerical stability.
+     */
+    protected static void normalizeLogWeights(
+        final double[] logWeights,
+        final double maxLogWeight)
+    {
+        if (Double.isInfinite(maxLogWeight))
+        {
+            throw new IllegalStateException(
+                "All particles have zero or infinite likelihood");
+        }
+
+        double sum = 0.0;
+        for (int i = 0; i < logWeights.length; i++)
+        {
+            sum += Math.exp(logWeights[i] - maxLogWeight);
+        }
+        final double logSum = maxLogWeight + Math.log(sum);
+        for (int i = 0; i < logWeights.length; i++)
+        {
+            logWeights[i] -= logSum;
+        }
+    }
+
+    /**
+     * Gets the block tasks for the given number of particles, creating them
+     * if needed. Each task gets its own random number generator seeded from
+     * the random number generator of the filter.
+     *
+     * @param   n
+     *      The number of particles.
+     * @return
+     *      The tasks that cover all of the particles.
+     */
+    protected ArrayList<ParticleBlockTask> getBlockTasks(
+        final int n)
+    {
+        if (this.blockTasks == null
+            || this.blockTasks.get(this.blockTasks.size() - 1).toIndex != n)
+        {
+            final int numBlocks = Math.max(1, Math.min(n, this.getNumThreads()));
+            final int numPerBlock = n / numBlocks;
+            this.blockTasks = new ArrayList<ParticleBlockTask>(numBlocks);
+            int endIndex = 0;
+            for (int b = 0; b < numBlocks; b++)
+            {
+                final int startIndex = endIndex;
+                endIndex = (b == numBlocks - 1) ? n : endIndex + numPerBlock;
+                this.blockTasks.add(new ParticleBlockTask(startIndex, endIndex,
+                    new Random(this.getRandom().nextLong())));
+            }
+        }
+        return this.blockTasks;
+    }
+
+    @Override
+    public int getNumThreads()
+    {
+        return ParallelUtil.getNumThreads(this);
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool()
+    {
+        if (this.threadPool == null)
+        {
+            this.setThreadPool(ParallelUtil.createThreadPool());
+        }
+
+        return this.threadPool;
+    }
+
+    @Override
+    public void setThreadPool(
+        final ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+        this.blockTasks = null;
+    }
+
+    /**
+     * Gets the updater.
+     *
+     * @return
+     *      Updater algorithm that updates and weights the particles.
+     */
+    public Updater<? super ObservationType> getUpdater()
+    {
+        return this.updater;
+    }
+
+    /**
+     * Sets the updater.
+     *
+     * @param   updater
+     *      Updater algorithm that updates and weights the particles.
+     */
+    public void setUpdater(
+        final Updater<? super ObservationType> updater)
+    {
+        this.updater = updater;
+    }
+
+    /**
+     * Gets the number of particles.
+     *
+     * @return
+     *      Number of particles.
+     */
+    public int getNumParticles()
+    {
+        return this.numParticles;
+    }
+
+    /**
+     * Sets the number of particles.
+     *
+     * @param   numParticles
+     *      Number of particles. Must be positive.
+     */
+    public void setNumParticles(
+        final int numParticles)
+    {
+        ArgumentChecker.assertIsPositive("numParticles", numParticles);
+        this.numParticles = numParticles;
+    }
+
+    /**
+     * Gets the resampling threshold.
+     *
+     * @return
+     *      Fraction of effective particles, below which we resample.
+     */
+    public double getResamplingThreshold()
+    {
+        return this.resamplingThreshold;
+    }
+
+    /**
+     * Sets the resampling threshold.
+     *
+     * @param   resamplingThreshold
+     *      Fraction of effective particles, below which we resample. Must be
+     *      between 0 and 1. A value of 1 resamples on every step.
+     */
+    public void setResamplingThreshold(
+        final double resamplingThreshold)
+    {
+        ProbabilityUtil.assertIsProbability(resamplingThreshold);
+        this.resamplingThreshold = resamplingThreshold;
+    }
+
+    /**
+     * Gets the resampling method.
+     *
+     * @return
+     *      The method used to resample the particles.
+     */
+    public ResamplingMethod getResamplingMethod()
+    {
+        return this.resamplingMethod;
+    }
+
+    /**
+     * Sets the resampling method.
+     *
+     * @param   resamplingMethod
+     *      The method used to resample the particles.
+     */
+    public void setResamplingMethod(
+        final ResamplingMethod resamplingMethod)
+    {
+        ArgumentChecker.assertIsNotNull("resamplingMethod", resamplingMethod);
+        this.resamplingMethod = resamplingMethod;
+    }
+
+    @Override
+    public Random getRandom()
+    {
+        return this.random;
+    }
+
+    @Override
+    public void setRandom(
+        final Random random)
+    {
+        this.random = random;
+        this.blockTasks = null;
+    }
+
+    /**
+     * The O(N) resampling schemes supported by the filter.
+     */
+    public static enum ResamplingMethod
+    {
+
+        /**
+         * Systematic resampling, which uses a single uniform offset for an
+         * evenly spaced comb of N points.
+         */
+        SYSTEMATIC,
+
+        /**
+         * Stratified resampling, which draws one uniform point from each of
+         * the N equal strata.
+         */
+        STRATIFIED
+
+    }
+
+    /**
+     * Propagates and weights the particle states of a
+     * {@code ParallelArrayParticleFilter}. All methods operate on a
+     * contiguous range of particles so that the filter can call them on
+     * disjoint blocks from multiple threads at once. Implementations must
+     * therefore not keep mutable state that is shared between calls.
+     *
+     * @param <ObservationType>
+     * Type of observations.
+     */
+    public static interface Updater<ObservationType>
+        extends CloneableSerializable
+    {
+
+        /**
+         * Gets the dimensionality of the particle states.
+         *
+         * @return
+         *      The dimensionality of the particle states.
+         */
+        public int getDimensionality();
+
+        /**
+         * Samples the initial states of the given range of particles.
+         *
+         * @param   states
+         *      The particle states, indexed by dimension then particle.
+         * @param   fromIndex
+         *      The first particle to initialize, inclusive.
+         * @param   toIndex
+         *      The last particle to initialize, exclusive.
+         * @param   random
+         *      The random number generator to use.
+         */
+        public void initialize(
+            final double[][] states,
+            final int fromIndex,
+            final int toIndex,
+            final Random random);
+
+        /**
+         * Samples the next state of the given range of particles from the
+         * proposal distribution, in place.
+         *
+         * @param   states
+         *      The particle states, indexed by dimension then particle.
+         * @param   fromIndex
+         *      The first particle to update, inclusive.
+         * @param   toIndex
+         *      The last particle to update, exclusive.
+         * @param   random
+         *      The random number generator to use.
+         */
+        public void update(
+            final double[][] states,
+            final int fromIndex,
+            final int toIndex,
+            final Random random);
+
+        /**
+         * Adds the log likelihood of the observation given each particle
+         * state in the given range to the corresponding entry of the log
+         * weights.
+         *
+         * @param   states
+         *      The particle states, indexed by dimension then particle.
+         * @param   observation
+         *      The observation to compute the likelihood of.
+         * @param   logWeights
+         *      The log weights to add the log likelihoods to.
+         * @param   fromIndex
+         *      The first particle to weight, inclusive.
+         * @param   toIndex
+         *      The last particle to weight, exclusive.
+         */
+        public void addLogLikelihoods(
+            final double[][] states,
+            final ObservationType observation,
+            final double[] logWeights,
+            final int fromIndex,
+            final int toIndex);
+
+    }
+
+    /**
+     * Task that propagates and weights a contiguous block of particles and
+     * returns the maximum resulting log weight in the block.
+     */
+    protected class ParticleBlockTask
+        implements Callable<Double>
+    {
+
+        /**
+         * The first particle of the block, inclusive.
+         */
+        protected final int fromIndex;
+
+        /**
+         * The last particle of the block, exclusive.
+         */
+        protected final int toIndex;
+
+        /**
+         * The random number generator for this block.
+         */
+        protected final Random random;
+
+        /**
+         * The particles being updated in the current step.
+         */
+        protected ParticleArray particles;
+
+        /**
+         * The observation of the current step.
+         */
+        protected ObservationType observation;
+
+        /**
+         * Creates a new {@code ParticleBlockTask}.
+         *
+         * @param   fromIndex
+         *      The first particle of the block, inclusive.
+         * @param   toIndex
+         *      The last particle of the block, exclusive.
+         * @param   random
+         *      The random number generator for this block.
+         */
+        protected ParticleBlockTask(
+            final int fromIndex,
+            final int toIndex,
+            final Random random)
+        {
+            super();
+
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.random = random;
+        }
+
+        @Override
+        public Double call()
+        {
+            final double[][] states = this.particles.getStates();
+            final double[] logWeights = this.particles.getLogWeights();
+            updater.update(states, this.fromIndex, this.toIndex, this.random);
+            updater.addLogLikelihoods(states, this.observation, logWeights,
+                this.fromIndex, this.toIndex);
+
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = this.fromIndex; i < this.toIndex; i++)
+            {
+                max = Math.max(max, logWeights[i]);
+            }
+            return max;
+        }
+
+    }
+
+}
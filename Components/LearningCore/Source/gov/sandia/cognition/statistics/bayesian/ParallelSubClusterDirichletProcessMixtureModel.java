@@ -0,0 +1,2074 @@
+/*
+ * File:                ParallelSubClusterDirichletProcessMixtureModel.java
+ * Authors:             Kevin R. Dixon
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.statistics.bayesian;
+
+import gov.sandia.cognition.algorithm.ParallelAlgorithm;
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationReferences;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.collection.ArrayUtil;
+import gov.sandia.cognition.math.MathUtil;
+import gov.sandia.cognition.math.matrix.Matrix;
+import gov.sandia.cognition.math.matrix.MatrixFactory;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import gov.sandia.cognition.math.matrix.decomposition.IncrementalCholeskyDecomposition;
+import gov.sandia.cognition.statistics.distribution.BetaDistribution;
+import gov.sandia.cognition.statistics.distribution.GammaDistribution;
+import gov.sandia.cognition.statistics.distribution.MultivariateGaussian;
+import gov.sandia.cognition.statistics.distribution.NormalInverseWishartDistribution;
+import gov.sandia.cognition.util.AbstractCloneableSerializable;
+import gov.sandia.cognition.util.ArgumentChecker;
+import gov.sandia.cognition.util.ObjectUtil;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * A parallel Dirichlet Process Mixture Model sampler for Gaussian clusters
+ * that scales to millions of observations. Unlike
+ * {@link DirichletProcessMixtureModel}, which creates a new cluster
+ * distribution object from the member observations of each cluster on every
+ * iteration, this sampler represents each cluster by its sufficient
+ * statistics under a conjugate Normal-inverse-Wishart prior and keeps the
+ * observations in a single primitive array.
+ * <BR><BR>
+ * Each iteration instantiates the cluster weights and Gaussian parameters
+ * from their posteriors, using the cached Cholesky factor of each cluster's
+ * posterior scale matrix. Given those, the observations are conditionally
+ * independent, so they are reassigned in parallel blocks, each of which
+ * accumulates its own cluster statistics. Each cluster also carries two
+ * sub-clusters that are sampled the same way. The sub-clusters are used to
+ * propose splitting the cluster, and pairs of clusters are proposed to
+ * merge, with both moves accepted by a Metropolis-Hastings test on the
+ * collapsed marginal likelihoods. This lets the number of clusters change
+ * without creating clusters one observation at a time.
+ *
+ * @author Kevin R. Dixon
+ * @since 4.0.0
+ */
+@PublicationReferences(
+    references={
+        @PublicationReference(
+            author={
+                "Jason Chang",
+                "John W. Fisher III"
+            },
+            title="Parallel Sampling of DP Mixture Models using Sub-Clusters Splits",
+            type=PublicationType.Conference,
+            publication="Advances in Neural Information Processing Systems 26",
+            year=2013,
+            pages={620,628},
+            url="http://papers.nips.cc/paper/5162-parallel-sampling-of-dp-mixture-models-using-sub-cluster-splits.pdf"
+        )
+        ,
+        @PublicationReference(
+            author="Kevin P. Murphy",
+            title="Conjugate Bayesian analysis of the Gaussian distribution",
+            type=PublicationType.TechnicalReport,
+            publication="University of British Columbia",
+            year=2007,
+            url="https://www.cs.ubc.ca/~murphyk/Papers/bayesGauss.pdf",
+            notes="Section 9 for the Normal-inverse-Wishart marginal likelihood"
+        )
+        ,
+        @PublicationReference(
+            author={
+                "Michael D. Escobar",
+                "Mike West"
+            },
+            title="Bayesian Density Estimation and Inference Using Mixtures",
+            type=PublicationType.Journal,
+            publication="Journal of the American Statistical Association",
+            year=1995
+        )
+    }
+)
+public class ParallelSubClusterDirichletProcessMixtureModel
+    extends AbstractMarkovChainMonteCarlo<Vector, ParallelSubClusterDirichletProcessMixtureModel.Sample>
+    implements ParallelAlgorithm
+{
+
+    /**
+     * Default concentration parameter of the Dirichlet Process, {@value}.
+     */
+    public static final double DEFAULT_ALPHA = 1.0;
+
+    /**
+     * Default number of initial clusters, {@value}.
+     */
+    public static final int DEFAULT_NUM_INITIAL_CLUSTERS = 1;
+
+    /**
+     * The default value for re-estimating alpha is {@value}.
+     */
+    public static final boolean DEFAULT_REESTIMATE_ALPHA = true;
+
+    /**
+     * Default number of iterations that the sub-clusters of a new cluster are
+     * sampled before the cluster can be split, {@value}.
+     */
+    public static final int DEFAULT_SUB_CLUSTER_ITERATIONS = 3;
+
+    /**
+     * Natural logarithm of 2 pi.
+     */
+    private static final double LOG_TWO_PI = Math.log(2.0 * Math.PI);
+
+    /**
+     * Conjugate prior for the mean and covariance of the clusters. If null,
+     * a default prior of the dimensionality of the data is used.
+     */
+    protected NormalInverseWishartDistribution prior;
+
+    /**
+     * Number of clusters to initialize.
+     */
+    protected int numInitialClusters;
+
+    /**
+     * Flag to automatically re-estimate the alpha parameter.
+     */
+    protected boolean reestimateAlpha;
+
+    /**
+     * Initial value of alpha, the concentration parameter of the
+     * Dirichlet Process.
+     */
+    protected double initialAlpha;
+
+    /**
+     * Number of iterations that the sub-clusters of a new cluster are sampled
+     * before the cluster can be split.
+     */
+    protected int subClusterIterations;
+
+    /**
+     * Thread pool used for parallelization.
+     */
+    private transient ThreadPoolExecutor threadPool;
+
+    /**
+     * Number of observations.
+     */
+    protected transient int numObservations;
+
+    /**
+     * Dimensionality of the observations.
+     */
+    protected transient int dimensionality;
+
+    /**
+     * The observations, stored one after the other.
+     */
+    protected transient double[] observations;
+
+    /**
+     * The cluster each observation is assigned to.
+     */
+    protected transient int[] assignments;
+
+    /**
+     * The sub-cluster, 0 or 1, each observation is assigned to.
+     */
+    protected transient byte[] subAssignments;
+
+    /**
+     * If the clusters have been split or merged since the last assignment,
+     * maps twice the old cluster index plus the sub-cluster index to the new
+     * cluster index. Otherwise null.
+     */
+    protected transient int[] pendingRemap;
+
+    /**
+     * The current clusters.
+     */
+    protected transient ArrayList<ClusterState> clusters;
+
+    /**
+     * Empty statistics with the prior used to create new statistics.
+     */
+    protected transient ClusterStatistics emptyStatistics;
+
+    /**
+     * Tasks that assign blocks of observations to clusters.
+     */
+    protected transient ArrayList<AssignmentTask> assignmentTasks;
+
+    /**
+     * The current value of alpha.
+     */
+    protected transient double alpha;
+
+    /**
+     * Number of accepted split moves.
+     */
+    protected transient int numSplits;
+
+    /**
+     * Number of accepted merge moves.
+     */
+    protected transient int numMerges;
+
+    /**
+     * Creates a new instance of ParallelSubClusterDirichletProcessMixtureModel.
+     */
+    public ParallelSubClusterDirichletProcessMixtureModel()
+    {
+        this(null, new Random());
+    }
+
+    /**
+     * Creates a new instance of ParallelSubClusterDirichletProcessMixtureModel.
+     *
+     * @param prior
+     * Conjugate prior for the mean and covariance of the clusters. If null,
+     * a default prior of the dimensionality of the data is used.
+     * @param random
+     * Random number generator.
+     */
+    public ParallelSubClusterDirichletProcessMixtureModel(
+        final NormalInverseWishartDistribution prior,
+        final Random random)
+    {
+        super();
+
+        this.setPrior(prior);
+        this.setRandom(random);
+        this.setReestimateAlpha(DEFAULT_REESTIMATE_ALPHA);
+        this.setInitialAlpha(DEFAULT_ALPHA);
+        this.setNumInitialClusters(DEFAULT_NUM_INITIAL_CLUSTERS);
+        this.setSubClusterIterations(DEFAULT_SUB_CLUSTER_ITERATIONS);
+    }
+
+    @Override
+    public ParallelSubClusterDirichletProcessMixtureModel clone()
+    {
+        ParallelSubClusterDirichletProcessMixtureModel clone =
+            (ParallelSubClusterDirichletProcessMixtureModel) super.clone();
+        clone.setPrior(ObjectUtil.cloneSafe(this.getPrior()));
+        clone.threadPool = null;
+        clone.observations = null;
+        clone.assignments = null;
+        clone.subAssignments = null;
+        clone.pendingRemap = null;
+        clone.clusters = null;
+        clone.assignmentTasks = null;
+        return clone;
+    }
+
+    @Override
+    protected boolean initializeAlgorithm()
+    {
+        if (this.data == null || this.data.isEmpty())
+        {
+            return false;
+        }
+
+        // Copy the data into a single array.
+        this.numObservations = this.data.size();
+        this.dimensionality = -1;
+        int offset = 0;
+        for (Vector observation : this.data)
+        {
+            if (this.dimensionality < 0)
+            {
+                this.dimensionality = observation.getDimensionality();
+                this.observations =
+                    new double[this.numObservations * this.dimensionality];
+            }
+            observation.assertDimensionalityEquals(this.dimensionality);
+            for (int i = 0; i < this.dimensionality; i++)
+            {
+                this.observations[offset + i] = observation.getElement(i);
+            }
+            offset += this.dimensionality;
+        }
+
+        NormalInverseWishartDistribution clusterPrior = this.getPrior();
+        if (clusterPrior == null)
+        {
+            clusterPrior =
+                new NormalInverseWishartDistribution(this.dimensionality);
+        }
+        this.emptyStatistics = new ClusterStatistics(clusterPrior);
+
+        this.assignments = new int[this.numObservations];
+        this.subAssignments = new byte[this.numObservations];
+        this.pendingRemap = null;
+        this.alpha = this.getInitialAlpha();
+        this.numSplits = 0;
+        this.numMerges = 0;
+
+        // Create one task per thread with contiguous blocks of observations.
+        final int numBlocks =
+            Math.max(1, Math.min(this.getNumThreads(), this.numObservations));
+        this.assignmentTasks = new ArrayList<AssignmentTask>(numBlocks);
+        final int numPerBlock = this.numObservations / numBlocks;
+        int endIndex = 0;
+        for (int n = 0; n < numBlocks; n++)
+        {
+            final int startIndex = endIndex;
+            endIndex = (n == numBlocks - 1) ? this.numObservations
+                : (startIndex + numPerBlock);
+            this.assignmentTasks.add(new AssignmentTask(
+                startIndex, endIndex, new Random(this.random.nextLong())));
+        }
+
+        // Randomly assign the observations to the initial clusters and
+        // sub-clusters.
+        final int K = Math.min(this.getNumInitialClusters(),
+            this.numObservations);
+        this.clusters = new ArrayList<ClusterState>(K);
+        for (int k = 0; k < K; k++)
+        {
+            this.clusters.add(new ClusterState(this.emptyStatistics));
+        }
+        for (AssignmentTask task : this.assignmentTasks)
+        {
+            task.randomize = true;
+        }
+        this.runAssignmentTasks();
+        for (AssignmentTask task : this.assignmentTasks)
+        {
+            task.randomize = false;
+        }
+        this.removeEmptyClusters();
+        for (ClusterState cluster : this.clusters)
+        {
+            cluster.resetSubClusters = true;
+        }
+        this.sampleParameters();
+
+        return super.initializeAlgorithm();
+    }
+
+    @Override
+    public Sample createInitialLearnedObject()
+    {
+        return this.createSample();
+    }
+
+    @Override
+    protected void mcmcUpdate()
+    {
+        // Reassign all the observations in parallel.
+        this.runAssignmentTasks();
+        this.removeEmptyClusters();
+
+        // Propose the split and merge moves.
+        this.proposeSplits();
+        this.proposeMerges();
+
+        // Update the alpha parameter
+        if (this.getReestimateAlpha())
+        {
+            this.alpha = this.updateAlpha(this.alpha, this.numObservations);
+        }
+
+        this.sampleParameters();
+        this.currentParameter = this.createSample();
+    }
+
+    @Override
+    protected void cleanupAlgorithm()
+    {
+        this.applyPendingRemap();
+        super.cleanupAlgorithm();
+    }
+
+    /**
+     * Runs the assignment tasks in parallel and combines their cluster
+     * statistics.
+     */
+    protected void runAssignmentTasks()
+    {
+        try
+        {
+            ParallelUtil.executeInParallel(
+                this.assignmentTasks, this.getThreadPool());
+        }
+        catch (Exception ex)
+        {
+            throw new RuntimeException(ex);
+        }
+
+        // Any split or merge has now been overwritten by the new assignments.
+        this.pendingRemap = null;
+
+        final int K = this.clusters.size();
+        for (int k = 0; k < K; k++)
+        {
+            final ClusterState cluster = this.clusters.get(k);
+            for (int s = 0; s < 2; s++)
+            {
+                final ClusterStatistics sub = cluster.subStatistics[s];
+                sub.clear();
+                for (AssignmentTask task : this.assignmentTasks)
+                {
+                    sub.plusEquals(task.statistics.get(k)[s]);
+                }
+            }
+            cluster.statistics.clear();
+            cluster.statistics.plusEquals(cluster.subStatistics[0]);
+            cluster.statistics.plusEquals(cluster.subStatistics[1]);
+            cluster.resetSubClusters = false;
+            cluster.age++;
+        }
+    }
+
+    /**
+     * Removes the clusters that have no observations assigned to them.
+     */
+    protected void removeEmptyClusters()
+    {
+        final int K = this.clusters.size();
+        int[] remap = null;
+        int next = 0;
+        for (int k = 0; k < K; k++)
+        {
+            final ClusterState cluster = this.clusters.get(k);
+            if (cluster.statistics.getCount() <= 0)
+            {
+                if (remap == null)
+                {
+                    remap = this.createIdentityRemap(K);
+                }
+            }
+            else
+            {
+                if (remap != null)
+                {
+                    remap[2 * k] = next;
+                    remap[2 * k + 1] = next;
+                }
+                this.clusters.set(next, cluster);
+                next++;
+            }
+        }
+
+        if (remap != null)
+        {
+            while (this.clusters.size() > next)
+            {
+                this.clusters.remove(this.clusters.size() - 1);
+            }
+            this.remapAssignments(remap);
+        }
+    }
+
+    /**
+     * Proposes to split each cluster into its two sub-clusters.
+     */
+    protected void proposeSplits()
+    {
+        final int K = this.clusters.size();
+        int[] remap = null;
+        for (int k = 0; k < K; k++)
+        {
+            final ClusterState cluster = this.clusters.get(k);
+            final ClusterStatistics left = cluster.subStatistics[0];
+            final ClusterStatistics right = cluster.subStatistics[1];
+            if (cluster.age < this.getSubClusterIterations()
+                || left.getCount() <= 0 || right.getCount() <= 0)
+            {
+                continue;
+            }
+
+            final double logHastings = Math.log(this.alpha)
+                + MathUtil.logGammaFunction(left.getCount())
+                + left.computeLogMarginalLikelihood()
+                + MathUtil.logGammaFunction(right.getCount())
+                + right.computeLogMarginalLikelihood()
+                - MathUtil.logGammaFunction(cluster.statistics.getCount())
+                - cluster.statistics.computeLogMarginalLikelihood();
+            if (Math.log(this.random.nextDouble()) < logHastings)
+            {
+                if (remap == null)
+                {
+                    remap = this.createIdentityRemap(K);
+                }
+
+                final ClusterState split =
+                    new ClusterState(this.emptyStatistics);
+                split.statistics.plusEquals(right);
+                cluster.statistics.clear();
+                cluster.statistics.plusEquals(left);
+                cluster.resetSubClusters = true;
+                cluster.age = 0;
+                split.resetSubClusters = true;
+                split.age = 0;
+                remap[2 * k + 1] = this.clusters.size();
+                this.clusters.add(split);
+                this.numSplits++;
+            }
+        }
+
+        if (remap != null)
+        {
+            this.remapAssignments(remap);
+        }
+    }
+
+    /**
+     * Proposes to merge random disjoint pairs of clusters that were not just
+     * split.
+     */
+    protected void proposeMerges()
+    {
+        // Put the candidate clusters in random order and pair them up.
+        final int K = this.clusters.size();
+        final int[] order = new int[K];
+        int candidates = 0;
+        for (int k = 0; k < K; k++)
+        {
+            if (!this.clusters.get(k).resetSubClusters)
+            {
+                order[candidates] = k;
+                candidates++;
+            }
+        }
+        for (int i = candidates - 1; i > 0; i--)
+        {
+            final int j = this.random.nextInt(i + 1);
+            final int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+
+        final double halfAlpha = 0.5 * this.alpha;
+        final double logGammaHalfAlpha = MathUtil.logGammaFunction(halfAlpha);
+        int[] remap = null;
+        boolean[] removed = null;
+        for (int i = 0; i + 1 < candidates; i += 2)
+        {
+            final ClusterState first = this.clusters.get(order[i]);
+            final ClusterState second = this.clusters.get(order[i + 1]);
+            final ClusterStatistics merged = this.emptyStatistics.clone();
+            merged.plusEquals(first.statistics);
+            merged.plusEquals(second.statistics);
+            final int n1 = first.statistics.getCount();
+            final int n2 = second.statistics.getCount();
+            final int n = n1 + n2;
+
+            final double logHastings = MathUtil.logGammaFunction(n)
+                + merged.computeLogMarginalLikelihood()
+                - Math.log(this.alpha)
+                - MathUtil.logGammaFunction(n1)
+                - first.statistics.computeLogMarginalLikelihood()
+                - MathUtil.logGammaFunction(n2)
+                - second.statistics.computeLogMarginalLikelihood()
+                + MathUtil.logGammaFunction(this.alpha)
+                - MathUtil.logGammaFunction(this.alpha + n)
+                + MathUtil.logGammaFunction(halfAlpha + n1)
+                + MathUtil.logGammaFunction(halfAlpha + n2)
+                - 2.0 * logGammaHalfAlpha;
+            if (Math.log(this.random.nextDouble()) < logHastings)
+            {
+                if (remap == null)
+                {
+                    remap = this.createIdentityRemap(K);
+                    removed = new boolean[K];
+                }
+
+                // The two clusters become the sub-clusters of the merged one.
+                first.subStatistics[0] = first.statistics;
+                first.subStatistics[1] = second.statistics;
+                first.statistics = merged;
+                first.age = 0;
+                removed[order[i + 1]] = true;
+                remap[2 * order[i + 1]] = order[i];
+                remap[2 * order[i + 1] + 1] = order[i];
+                this.numMerges++;
+            }
+        }
+
+        if (remap != null)
+        {
+            // Compact the remaining clusters.
+            final int[] newIndices = new int[K];
+            int next = 0;
+            for (int k = 0; k < K; k++)
+            {
+                if (!removed[k])
+                {
+                    newIndices[k] = next;
+                    this.clusters.set(next, this.clusters.get(k));
+                    next++;
+                }
+            }
+            while (this.clusters.size() > next)
+            {
+                this.clusters.remove(this.clusters.size() - 1);
+            }
+            for (int i = 0; i < remap.length; i++)
+            {
+                remap[i] = newIndices[remap[i]];
+            }
+            this.remapAssignments(remap);
+        }
+    }
+
+    /**
+     * Samples the weights and Gaussian parameters of the clusters and
+     * sub-clusters from their posteriors given the current statistics.
+     */
+    protected void sampleParameters()
+    {
+        final double halfAlpha = 0.5 * this.alpha;
+        for (ClusterState cluster : this.clusters)
+        {
+            final double weight = GammaDistribution.sampleStandard(
+                cluster.statistics.getCount(), this.random);
+            cluster.component = sampleComponent(cluster.statistics,
+                Math.log(weight), this.random, cluster.component);
+
+            if (cluster.resetSubClusters)
+            {
+                // The sub-clusters are reinitialized on the next pass by
+                // splitting the cluster across its principal axis, so their
+                // parameters are not needed.
+                cluster.splitDirection = computePrincipalDirection(
+                    cluster.statistics, this.random, cluster.splitDirection);
+                continue;
+            }
+
+            for (int s = 0; s < 2; s++)
+            {
+                final double subWeight = GammaDistribution.sampleStandard(
+                    cluster.subStatistics[s].getCount() + halfAlpha,
+                    this.random);
+                cluster.subComponents[s] = sampleComponent(
+                    cluster.subStatistics[s], Math.log(subWeight),
+                    this.random, cluster.subComponents[s]);
+            }
+        }
+    }
+
+    /**
+     * Samples the mean and precision of a Gaussian from the
+     * Normal-inverse-Wishart posterior described by the given statistics.
+     *
+     * @param statistics
+     * Statistics of the observations in the cluster.
+     * @param logWeight
+     * Log of the mixing weight of the cluster.
+     * @param random
+     * Random number generator to use.
+     * @param component
+     * Component to sample into, if it is non-null and the same
+     * dimensionality.
+     * @return
+     * Sampled component.
+     */
+    public static Component sampleComponent(
+        final ClusterStatistics statistics,
+        final double logWeight,
+        final Random random,
+        Component component)
+    {
+        final int d = statistics.getDimensionality();
+        if (component == null || component.mean.length != d)
+        {
+            component = new Component(d);
+        }
+
+        // The precision is Wishart with the inverse of the posterior scale,
+        // which is sampled with the Bartlett decomposition:
+        // P = L^-T A A^T L^-1, where the posterior scale is L L^T.
+        final double[][] L = statistics.getPosteriorScaleCholesky();
+        final double nu = statistics.getPosteriorDegreesOfFreedom();
+        final double[][] A = new double[d][d];
+        double logDetPrecision = 0.0;
+        for (int i = 0; i < d; i++)
+        {
+            A[i][i] = Math.sqrt(2.0 * GammaDistribution.sampleStandard(
+                0.5 * (nu - i), random));
+            logDetPrecision += 2.0 * (Math.log(A[i][i]) - Math.log(L[i][i]));
+            for (int j = 0; j < i; j++)
+            {
+                A[i][j] = random.nextGaussian();
+            }
+        }
+
+        // Invert the lower-triangular Cholesky factor.
+        final double[][] Linv = new double[d][d];
+        for (int j = 0; j < d; j++)
+        {
+            Linv[j][j] = 1.0 / L[j][j];
+            for (int i = j + 1; i < d; i++)
+            {
+                double sum = 0.0;
+                for (int k = j; k < i; k++)
+                {
+                    sum += L[i][k] * Linv[k][j];
+                }
+                Linv[i][j] = -sum / L[i][i];
+            }
+        }
+
+        // The precision factor is G = A^T L^-1, so that P = G^T G.
+        final double[] G = component.factor;
+        for (int i = 0; i < d; i++)
+        {
+            for (int j = 0; j < d; j++)
+            {
+                double sum = 0.0;
+                for (int k = Math.max(i, j); k < d; k++)
+                {
+                    sum += A[k][i] * Linv[k][j];
+                }
+                G[i * d + j] = sum;
+            }
+        }
+
+        // The mean is Gaussian with covariance (kappa P)^-1 = L A^-T A^-1 L^T
+        // / kappa, so solve A^T y = z and then use L y.
+        final double[] y = new double[d];
+        for (int i = d - 1; i >= 0; i--)
+        {
+            double sum = random.nextGaussian();
+            for (int k = i + 1; k < d; k++)
+            {
+                sum -= A[k][i] * y[k];
+            }
+            y[i] = sum / A[i][i];
+        }
+        final double scale =
+            1.0 / Math.sqrt(statistics.getPosteriorCovarianceDivisor());
+        final double[] posteriorMean = statistics.getPosteriorMeanArray();
+        for (int i = 0; i < d; i++)
+        {
+            double sum = 0.0;
+            for (int k = 0; k <= i; k++)
+            {
+                sum += L[i][k] * y[k];
+            }
+            component.mean[i] = posteriorMean[i] + scale * sum;
+        }
+
+        component.logNormalizer =
+            logWeight + 0.5 * logDetPrecision - 0.5 * d * LOG_TWO_PI;
+        return component;
+    }
+
+    /**
+     * Computes the principal axis of the observations in a cluster using
+     * power iteration on its scatter matrix.
+     *
+     * @param statistics
+     * Statistics of the observations in the cluster.
+     * @param random
+     * Random number generator used for the starting direction.
+     * @param result
+     * Array to put the result in, if it is non-null and the same
+     * dimensionality.
+     * @return
+     * Unit vector along the principal axis.
+     */
+    protected static double[] computePrincipalDirection(
+        final ClusterStatistics statistics,
+        final Random random,
+        double[] result)
+    {
+        final int d = statistics.getDimensionality();
+        if (result == null || result.length != d)
+        {
+            result = new double[d];
+        }
+        for (int i = 0; i < d; i++)
+        {
+            result[i] = random.nextGaussian();
+        }
+
+        final double[][] scatter = statistics.scatter;
+        final double[] next = new double[d];
+        for (int iteration = 0; iteration < 20; iteration++)
+        {
+            for (int i = 0; i < d; i++)
+            {
+                double sum = 0.0;
+                for (int j = 0; j < d; j++)
+                {
+                    sum += ((j <= i) ? scatter[i][j] : scatter[j][i])
+                        * result[j];
+                }
+                next[i] = sum;
+            }
+
+            double norm = 0.0;
+            for (int i = 0; i < d; i++)
+            {
+                norm += next[i] * next[i];
+            }
+            norm = Math.sqrt(norm);
+            if (!(norm > 0.0))
+            {
+                // A degenerate cluster, so keep the random direction.
+                break;
+            }
+            for (int i = 0; i < d; i++)
+            {
+                result[i] = next[i] / norm;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a Sample from the current clusters.
+     *
+     * @return
+     * The current sample.
+     */
+    protected Sample createSample()
+    {
+        final int K = this.clusters.size();
+        final int d = this.dimensionality;
+        final ArrayList<MultivariateGaussian> gaussians =
+            new ArrayList<MultivariateGaussian>(K);
+        final int[] counts = new int[K];
+        for (int k = 0; k < K; k++)
+        {
+            final ClusterState cluster = this.clusters.get(k);
+            final Component component = cluster.component;
+            final Matrix precision =
+                MatrixFactory.getDefault().createMatrix(d, d);
+            for (int i = 0; i < d; i++)
+            {
+                for (int j = 0; j <= i; j++)
+                {
+                    double sum = 0.0;
+                    for (int m = 0; m < d; m++)
+                    {
+                        sum += component.factor[m * d + i]
+                            * component.factor[m * d + j];
+                    }
+                    precision.setElement(i, j, sum);
+                    precision.setElement(j, i, sum);
+                }
+            }
+            gaussians.add(new MultivariateGaussian(
+                VectorFactory.getDefault().copyArray(component.mean),
+                precision.inverse()));
+            counts[k] = cluster.statistics.getCount();
+        }
+        return new Sample(this.alpha, gaussians, counts);
+    }
+
+    /**
+     * Creates a cluster remapping that leaves every cluster in place.
+     *
+     * @param K
+     * Number of clusters.
+     * @return
+     * Remapping from twice the cluster index plus the sub-cluster to the
+     * cluster index.
+     */
+    private int[] createIdentityRemap(
+        final int K)
+    {
+        final int[] remap = new int[2 * K];
+        for (int k = 0; k < K; k++)
+        {
+            remap[2 * k] = k;
+            remap[2 * k + 1] = k;
+        }
+        return remap;
+    }
+
+    /**
+     * Composes the given remapping with any pending remapping of the
+     * assignments. The remapping is only applied to the assignment array when
+     * it is requested, since the next pass reassigns every observation.
+     *
+     * @param remap
+     * Remapping from twice the cluster index plus the sub-cluster to the
+     * cluster index.
+     */
+    private void remapAssignments(
+        final int[] remap)
+    {
+        if (this.pendingRemap == null)
+        {
+            this.pendingRemap = remap;
+        }
+        else
+        {
+            // Merges and removals do not depend on the sub-cluster, so
+            // composing only needs the cluster part of the new remapping.
+            for (int i = 0; i < this.pendingRemap.length; i++)
+            {
+                final int k = this.pendingRemap[i];
+                this.pendingRemap[i] = remap[2 * k + (i & 1)];
+            }
+        }
+    }
+
+    /**
+     * Applies any pending remapping to the assignment array.
+     */
+    protected void applyPendingRemap()
+    {
+        final int[] remap = this.pendingRemap;
+        if (remap != null && this.assignments != null)
+        {
+            for (int n = 0; n < this.numObservations; n++)
+            {
+                this.assignments[n] = remap[
+                    2 * this.assignments[n] + this.subAssignments[n]];
+            }
+        }
+        this.pendingRemap = null;
+    }
+
+    /**
+     * Creates a new value of "eta" which, in turn, helps sample a new alpha.
+     */
+    transient protected BetaDistribution etaSampler;
+
+    /**
+     * Runs the Gibbs sampler for the concentration parameter, alpha, given
+     * the data.
+     * @param alpha
+     * Current value of the concentration parameter
+     * @param numObservations
+     * Number of observations we're sampling over
+     * @return
+     * Updated estimate of alpha
+     */
+    protected double updateAlpha(
+        final double alpha,
+        final int numObservations)
+    {
+        // Escobar & West: Equations 13 and 14 on page 585, with a Gamma(1,1)
+        // prior on alpha.
+        if (this.etaSampler == null)
+        {
+            this.etaSampler = new BetaDistribution();
+        }
+        this.etaSampler.setAlpha(alpha + 1.0);
+        this.etaSampler.setBeta(numObservations);
+        final double eta = this.etaSampler.sample(this.random);
+        final double logEta = Math.log(eta);
+
+        final double a = 1.0;
+        final double b = 1.0;
+        final int K = this.clusters.size();
+        // Equation 13 gives the odds of the larger shape, not its probability.
+        final double odds = (a + K - 1.0) / (numObservations * (b - logEta));
+        final double shape = (this.random.nextDouble() < odds / (1.0 + odds))
+            ? (a + K) : (a + K - 1.0);
+        return GammaDistribution.sampleStandard(shape, this.random)
+            / (b - logEta);
+    }
+
+    /**
+     * Gets the cluster index that each observation is currently assigned to,
+     * in the order of the data.
+     *
+     * @return
+     * The cluster index for each observation. Null if the algorithm has not
+     * been run.
+     */
+    public int[] getAssignments()
+    {
+        this.applyPendingRemap();
+        return this.assignments;
+    }
+
+    /**
+     * Gets the statistics of the current clusters.
+     *
+     * @return
+     * The statistics of each cluster.
+     */
+    public ArrayList<ClusterStatistics> getClusterStatistics()
+    {
+        final ArrayList<ClusterStatistics> result =
+            new ArrayList<ClusterStatistics>();
+        if (this.clusters != null)
+        {
+            for (ClusterState cluster : this.clusters)
+            {
+                result.add(cluster.statistics);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of accepted split moves.
+     *
+     * @return
+     * The number of accepted splits.
+     */
+    public int getNumSplits()
+    {
+        return this.numSplits;
+    }
+
+    /**
+     * Gets the number of accepted merge moves.
+     *
+     * @return
+     * The number of accepted merges.
+     */
+    public int getNumMerges()
+    {
+        return this.numMerges;
+    }
+
+    @Override
+    public int getNumThreads()
+    {
+        return ParallelUtil.getNumThreads(this);
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool()
+    {
+        if (this.threadPool == null)
+        {
+            this.setThreadPool(ParallelUtil.createThreadPool());
+        }
+
+        return this.threadPool;
+    }
+
+    @Override
+    public void setThreadPool(
+        final ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * Getter for prior
+     * @return
+     * Conjugate prior for the mean and covariance of the clusters. If null,
+     * a default prior of the dimensionality of the data is used.
+     */
+    public NormalInverseWishartDistribution getPrior()
+    {
+        return this.prior;
+    }
+
+    /**
+     * Setter for prior
+     * @param prior
+     * Conjugate prior for the mean and covariance of the clusters. If null,
+     * a default prior of the dimensionality of the data is used.
+     */
+    public void setPrior(
+        final NormalInverseWishartDistribution prior)
+    {
+        this.prior = prior;
+    }
+
+    /**
+     * Getter for numInitialClusters
+     * @return
+     * Number of clusters to initialize
+     */
+    public int getNumInitialClusters()
+    {
+        return this.numInitialClusters;
+    }
+
+    /**
+     * Setter for numInitialClusters
+     * @param numInitialClusters
+     * Number of clusters to initialize. Must be positive.
+     */
+    public void setNumInitialClusters(
+        final int numInitialClusters)
+    {
+        ArgumentChecker.assertIsPositive(
+            "numInitialClusters", numInitialClusters);
+        this.numInitialClusters = numInitialClusters;
+    }
+
+    /**
+     * Getter for reestimateAlpha
+     * @return
+     * Flag to automatically re-estimate the alpha parameter
+     */
+    public boolean getReestimateAlpha()
+    {
+        return this.reestimateAlpha;
+    }
+
+    /**
+     * Setter for reestimateAlpha
+     * @param reestimateAlpha
+     * Flag to automatically re-estimate the alpha parameter
+     */
+    public void setReestimateAlpha(
+        final boolean reestimateAlpha)
+    {
+        this.reestimateAlpha = reestimateAlpha;
+    }
+
+    /**
+     * Getter for initialAlpha
+     * @return
+     * Initial value of alpha, the concentration parameter of the
+     * Dirichlet Process
+     */
+    public double getInitialAlpha()
+    {
+        return this.initialAlpha;
+    }
+
+    /**
+     * Setter for initialAlpha
+     * @param initialAlpha
+     * Initial value of alpha, the concentration parameter of the
+     * Dirichlet Process. Must be positive.
+     */
+    public void setInitialAlpha(
+        final double initialAlpha)
+    {
+        ArgumentChecker.assertIsPositive("initialAlpha", initialAlpha);
+        this.initialAlpha = initialAlpha;
+    }
+
+    /**
+     * Getter for subClusterIterations
+     * @return
+     * Number of iterations that the sub-clusters of a new cluster are sampled
+     * before the cluster can be split.
+     */
+    public int getSubClusterIterations()
+    {
+        return this.subClusterIterations;
+    }
+
+    /**
+     * Setter for subClusterIterations
+     * @param subClusterIterations
+     * Number of iterations that the sub-clusters of a new cluster are sampled
+     * before the cluster can be split. Must be non-negative.
+     */
+    public void setSubClusterIterations(
+        final int subClusterIterations)
+    {
+        ArgumentChecker.assertIsNonNegative(
+            "subClusterIterations", subClusterIterations);
+        this.subClusterIterations = subClusterIterations;
+    }
+
+    /**
+     * The state of a cluster during sampling.
+     */
+    protected static class ClusterState
+    {
+
+        /**
+         * Statistics of the observations in the cluster.
+         */
+        protected ClusterStatistics statistics;
+
+        /**
+         * Statistics of the observations in each sub-cluster.
+         */
+        protected ClusterStatistics[] subStatistics;
+
+        /**
+         * Sampled parameters of the cluster.
+         */
+        protected Component component;
+
+        /**
+         * Sampled parameters of each sub-cluster.
+         */
+        protected Component[] subComponents;
+
+        /**
+         * Number of iterations since the cluster was created.
+         */
+        protected int age;
+
+        /**
+         * True if the sub-clusters must be reinitialized on the next pass.
+         */
+        protected boolean resetSubClusters;
+
+        /**
+         * Direction across which the observations are split into the two
+         * sub-clusters when they are reinitialized.
+         */
+        protected double[] splitDirection;
+
+        /**
+         * Creates a new, empty ClusterState.
+         * @param emptyStatistics
+         * Empty statistics with the prior to use.
+         */
+        protected ClusterState(
+            final ClusterStatistics emptyStatistics)
+        {
+            this.statistics = emptyStatistics.clone();
+            this.subStatistics = new ClusterStatistics[] {
+                emptyStatistics.clone(), emptyStatistics.clone() };
+            this.subComponents = new Component[2];
+            this.age = 0;
+            this.resetSubClusters = false;
+        }
+
+    }
+
+    /**
+     * The sampled weight, mean, and precision of a Gaussian cluster, stored
+     * so that the log-density of an observation can be computed with a
+     * single matrix-vector product.
+     */
+    public static class Component
+        extends AbstractCloneableSerializable
+    {
+
+        /**
+         * The mean.
+         */
+        protected double[] mean;
+
+        /**
+         * Row-major factor G of the precision, such that P = G^T G.
+         */
+        protected double[] factor;
+
+        /**
+         * Log of the weight plus the log of the Gaussian normalization
+         * constant.
+         */
+        protected double logNormalizer;
+
+        /**
+         * Creates a new Component.
+         * @param dimensionality
+         * Dimensionality of the component.
+         */
+        public Component(
+            final int dimensionality)
+        {
+            this.mean = new double[dimensionality];
+            this.factor = new double[dimensionality * dimensionality];
+        }
+
+        @Override
+        public Component clone()
+        {
+            final Component clone = (Component) super.clone();
+            clone.mean = ArrayUtil.copy(this.mean);
+            clone.factor = ArrayUtil.copy(this.factor);
+            return clone;
+        }
+
+        /**
+         * Computes the log of the weight times the Gaussian density of an
+         * observation.
+         * @param observations
+         * Array of observations.
+         * @param offset
+         * Offset of the observation in the array.
+         * @param work
+         * Work array of the dimensionality.
+         * @return
+         * Log of the weighted density.
+         */
+        public double logEvaluate(
+            final double[] observations,
+            final int offset,
+            final double[] work)
+        {
+            final int d = this.mean.length;
+            for (int i = 0; i < d; i++)
+            {
+                work[i] = observations[offset + i] - this.mean[i];
+            }
+
+            double sumSquared = 0.0;
+            int index = 0;
+            for (int i = 0; i < d; i++)
+            {
+                double sum = 0.0;
+                for (int j = 0; j < d; j++)
+                {
+                    sum += this.factor[index] * work[j];
+                    index++;
+                }
+                sumSquared += sum * sum;
+            }
+            return this.logNormalizer - 0.5 * sumSquared;
+        }
+
+    }
+
+    /**
+     * Sufficient statistics of the observations assigned to a Gaussian
+     * cluster under a conjugate Normal-inverse-Wishart prior. The statistics
+     * are the count, the mean, and the centered scatter matrix, which are
+     * updated incrementally for numerical stability. The Cholesky factor of
+     * the posterior scale matrix is computed when needed and then kept up to
+     * date by rank-one updates as single observations are added or removed.
+     */
+    public static class ClusterStatistics
+        extends AbstractCloneableSerializable
+    {
+
+        /**
+         * Dimensionality of the observations.
+         */
+        protected int dimensionality;
+
+        /**
+         * Mean of the prior.
+         */
+        protected double[] priorMean;
+
+        /**
+         * Scale matrix of the prior.
+         */
+        protected double[][] priorScale;
+
+        /**
+         * Divisor of the covariance for the mean in the prior.
+         */
+        protected double priorCovarianceDivisor;
+
+        /**
+         * Degrees of freedom of the prior.
+         */
+        protected double priorDegreesOfFreedom;
+
+        /**
+         * Log-determinant of the prior scale matrix.
+         */
+        protected double priorLogDeterminant;
+
+        /**
+         * Number of observations.
+         */
+        protected int count;
+
+        /**
+         * Mean of the observations.
+         */
+        protected double[] mean;
+
+        /**
+         * Sum of the outer products of the observations minus the mean. Only
+         * the lower triangle is stored.
+         */
+        protected double[][] scatter;
+
+        /**
+         * Lower-triangular Cholesky factor of the posterior scale matrix, or
+         * null if it is not up to date.
+         */
+        protected double[][] cholesky;
+
+        /**
+         * Work array used for updates.
+         */
+        private transient double[] work;
+
+        /**
+         * Creates a new, empty ClusterStatistics.
+         * @param prior
+         * Conjugate prior for the mean and covariance of the cluster.
+         */
+        public ClusterStatistics(
+            final NormalInverseWishartDistribution prior)
+        {
+            super();
+
+            final int d = prior.getInputDimensionality();
+            if (prior.getInverseWishart().getDegreesOfFreedom() <= d - 1)
+            {
+                throw new IllegalArgumentException(
+                    "Prior degrees of freedom must be > dimensionality - 1");
+            }
+
+            this.dimensionality = d;
+            this.priorMean = prior.getGaussian().getMean().toArray();
+            this.priorScale =
+                prior.getInverseWishart().getInverseScale().toArray();
+            this.priorCovarianceDivisor = prior.getCovarianceDivisor();
+            this.priorDegreesOfFreedom =
+                prior.getInverseWishart().getDegreesOfFreedom();
+            final double[][] factor = new double[d][d];
+            if (!IncrementalCholeskyDecomposition.factor(this.priorScale, factor))
+            {
+                throw new IllegalArgumentException(
+                    "Prior scale must be positive definite");
+            }
+            this.priorLogDeterminant =
+                IncrementalCholeskyDecomposition.logDeterminant(factor);
+            this.mean = new double[d];
+            this.scatter = new double[d][d];
+            this.clear();
+        }
+
+        @Override
+        public ClusterStatistics clone()
+        {
+            // The prior arrays are never modified, so they are shared.
+            final ClusterStatistics clone =
+                (ClusterStatistics) super.clone();
+            clone.mean = ArrayUtil.copy(this.mean);
+            clone.scatter = copy(this.scatter);
+            clone.cholesky = copy(this.cholesky);
+            clone.work = null;
+            return clone;
+        }
+
+        /**
+         * Gets the work array, creating it if needed.
+         * @return
+         * Work array of the dimensionality.
+         */
+        private double[] getWork()
+        {
+            if (this.work == null)
+            {
+                this.work = new double[this.dimensionality];
+            }
+            return this.work;
+        }
+
+        /**
+         * Removes all observations.
+         */
+        public void clear()
+        {
+            this.count = 0;
+            for (int i = 0; i < this.dimensionality; i++)
+            {
+                this.mean[i] = 0.0;
+                for (int j = 0; j <= i; j++)
+                {
+                    this.scatter[i][j] = 0.0;
+                }
+            }
+            this.cholesky = null;
+        }
+
+        /**
+         * Adds an observation.
+         * @param observation
+         * Observation to add.
+         */
+        public void add(
+            final Vector observation)
+        {
+            observation.assertDimensionalityEquals(this.dimensionality);
+            this.add(observation.toArray(), 0);
+        }
+
+        /**
+         * Adds an observation from an array.
+         * @param observations
+         * Array of observations.
+         * @param offset
+         * Offset of the observation in the array.
+         */
+        public void add(
+            final double[] observations,
+            final int offset)
+        {
+            final int d = this.dimensionality;
+            if (this.cholesky != null)
+            {
+                // Adding x changes the posterior scale by
+                // kappa / (kappa + 1) (x - mu)(x - mu)^T, using the
+                // posterior before the update.
+                final double kappa = this.getPosteriorCovarianceDivisor();
+                final double[] posteriorMean = this.getPosteriorMeanArray();
+                final double scale = Math.sqrt(kappa / (kappa + 1.0));
+                for (int i = 0; i < d; i++)
+                {
+                    posteriorMean[i] = scale
+                        * (observations[offset + i] - posteriorMean[i]);
+                }
+                IncrementalCholeskyDecomposition.update(this.cholesky, posteriorMean);
+            }
+
+            this.count++;
+            final double[] delta = this.getWork();
+            for (int i = 0; i < d; i++)
+            {
+                delta[i] = observations[offset + i] - this.mean[i];
+                this.mean[i] += delta[i] / this.count;
+            }
+            for (int i = 0; i < d; i++)
+            {
+                final double after = observations[offset + i] - this.mean[i];
+                final double[] row = this.scatter[i];
+                for (int j = 0; j <= i; j++)
+                {
+                    row[j] += after * delta[j];
+                }
+            }
+        }
+
+        /**
+         * Removes an observation that was previously added.
+         * @param observation
+         * Observation to remove.
+         */
+        public void remove(
+            final Vector observation)
+        {
+            observation.assertDimensionalityEquals(this.dimensionality);
+            this.remove(observation.toArray(), 0);
+        }
+
+        /**
+         * Removes an observation that was previously added from an array.
+         * @param observations
+         * Array of observations.
+         * @param offset
+         * Offset of the observation in the array.
+         */
+        public void remove(
+            final double[] observations,
+            final int offset)
+        {
+            if (this.count <= 0)
+            {
+                throw new IllegalStateException("No observations to remove");
+            }
+            else if (this.count == 1)
+            {
+                this.clear();
+                return;
+            }
+
+            final int d = this.dimensionality;
+            if (this.cholesky != null)
+            {
+                // Removing x changes the posterior scale by
+                // -kappa / (kappa - 1) (x - mu)(x - mu)^T, using the
+                // posterior before the update.
+                final double kappa = this.getPosteriorCovarianceDivisor();
+                final double[] posteriorMean = this.getPosteriorMeanArray();
+                final double scale = Math.sqrt(kappa / (kappa - 1.0));
+                for (int i = 0; i < d; i++)
+                {
+                    posteriorMean[i] = scale
+                        * (observations[offset + i] - posteriorMean[i]);
+                }
+                if (!IncrementalCholeskyDecomposition.downdate(
+                    this.cholesky, posteriorMean))
+                {
+                    // Lost positive-definiteness to round-off, so refactor.
+                    this.cholesky = null;
+                }
+            }
+
+            // This reverses the update in add.
+            final int previousCount = this.count;
+            this.count--;
+            final double[] before = this.getWork();
+            for (int i = 0; i < d; i++)
+            {
+                before[i] = observations[offset + i] - this.mean[i];
+                this.mean[i] = (previousCount * this.mean[i]
+                    - observations[offset + i]) / this.count;
+            }
+            for (int i = 0; i < d; i++)
+            {
+                final double[] row = this.scatter[i];
+                for (int j = 0; j <= i; j++)
+                {
+                    row[j] -= before[i]
+                        * (observations[offset + j] - this.mean[j]);
+                }
+            }
+        }
+
+        /**
+         * Adds all of the observations from another ClusterStatistics with
+         * the same prior.
+         * @param other
+         * Statistics to add.
+         */
+        public void plusEquals(
+            final ClusterStatistics other)
+        {
+            if (other.count <= 0)
+            {
+                return;
+            }
+
+            final int d = this.dimensionality;
+            final int n = this.count + other.count;
+            final double factor = (double) this.count * other.count / n;
+            final double[] delta = this.getWork();
+            for (int i = 0; i < d; i++)
+            {
+                delta[i] = other.mean[i] - this.mean[i];
+                this.mean[i] += delta[i] * other.count / n;
+            }
+            for (int i = 0; i < d; i++)
+            {
+                final double[] row = this.scatter[i];
+                final double[] otherRow = other.scatter[i];
+                for (int j = 0; j <= i; j++)
+                {
+                    row[j] += otherRow[j] + factor * delta[i] * delta[j];
+                }
+            }
+            this.count = n;
+            this.cholesky = null;
+        }
+
+        /**
+         * Computes the log of the marginal likelihood of the observations,
+         * integrating out the mean and covariance under the prior.
+         * @return
+         * Log of the marginal likelihood.
+         */
+        public double computeLogMarginalLikelihood()
+        {
+            final int d = this.dimensionality;
+            final double nu0 = this.priorDegreesOfFreedom;
+            final double nu = this.getPosteriorDegreesOfFreedom();
+            return -0.5 * this.count * d * Math.log(Math.PI)
+                + logMultivariateGamma(0.5 * nu, d)
+                - logMultivariateGamma(0.5 * nu0, d)
+                + 0.5 * nu0 * this.priorLogDeterminant
+                - 0.5 * nu * IncrementalCholeskyDecomposition.logDeterminant(
+                    this.getPosteriorScaleCholesky())
+                + 0.5 * d * (Math.log(this.priorCovarianceDivisor)
+                    - Math.log(this.getPosteriorCovarianceDivisor()));
+        }
+
+        /**
+         * Gets the lower-triangular Cholesky factor of the posterior scale
+         * matrix, computing it if it is not up to date. The returned array
+         * must not be modified.
+         * @return
+         * Cholesky factor of the posterior scale matrix.
+         */
+        public double[][] getPosteriorScaleCholesky()
+        {
+            if (this.cholesky == null)
+            {
+                // Lambda = Lambda0 + S + kappa0 n / kappa (xbar - mu0)(...)^T
+                final int d = this.dimensionality;
+                final double weight = this.priorCovarianceDivisor * this.count
+                    / this.getPosteriorCovarianceDivisor();
+                final double[][] scale = new double[d][d];
+                for (int i = 0; i < d; i++)
+                {
+                    final double di = this.mean[i] - this.priorMean[i];
+                    for (int j = 0; j <= i; j++)
+                    {
+                        final double dj = this.mean[j] - this.priorMean[j];
+                        scale[i][j] = this.priorScale[i][j]
+                            + this.scatter[i][j] + weight * di * dj;
+                    }
+                }
+                this.cholesky = new double[d][d];
+                if (!IncrementalCholeskyDecomposition.factor(scale, this.cholesky))
+                {
+                    this.cholesky = null;
+                    throw new IllegalStateException(
+                        "Posterior scale is not positive definite");
+                }
+            }
+            return this.cholesky;
+        }
+
+        /**
+         * Gets the dimensionality of the observations.
+         * @return
+         * Dimensionality of the observations.
+         */
+        public int getDimensionality()
+        {
+            return this.dimensionality;
+        }
+
+        /**
+         * Gets the number of observations.
+         * @return
+         * Number of observations.
+         */
+        public int getCount()
+        {
+            return this.count;
+        }
+
+        /**
+         * Gets the mean of the observations.
+         * @return
+         * Mean of the observations.
+         */
+        public Vector getMean()
+        {
+            return VectorFactory.getDefault().copyArray(this.mean);
+        }
+
+        /**
+         * Gets the posterior divisor of the covariance for the mean.
+         * @return
+         * Posterior covariance divisor.
+         */
+        public double getPosteriorCovarianceDivisor()
+        {
+            return this.priorCovarianceDivisor + this.count;
+        }
+
+        /**
+         * Gets the posterior degrees of freedom.
+         * @return
+         * Posterior degrees of freedom.
+         */
+        public double getPosteriorDegreesOfFreedom()
+        {
+            return this.priorDegreesOfFreedom + this.count;
+        }
+
+        /**
+         * Computes the posterior mean of the cluster mean.
+         * @return
+         * Posterior mean.
+         */
+        protected double[] getPosteriorMeanArray()
+        {
+            final int d = this.dimensionality;
+            final double kappa = this.getPosteriorCovarianceDivisor();
+            final double[] result = new double[d];
+            for (int i = 0; i < d; i++)
+            {
+                result[i] = (this.priorCovarianceDivisor * this.priorMean[i]
+                    + this.count * this.mean[i]) / kappa;
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Copies each row of a two-dimensional array.
+     * @param array
+     * Array to copy. May be null.
+     * @return
+     * Copy of the array.
+     */
+    static double[][] copy(
+        final double[][] array)
+    {
+        if (array == null)
+        {
+            return null;
+        }
+        final double[][] result = new double[array.length][];
+        for (int i = 0; i < array.length; i++)
+        {
+            result[i] = ArrayUtil.copy(array[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the log of the multivariate Gamma function.
+     * @param x
+     * Input to consider.
+     * @param p
+     * Dimensionality.
+     * @return
+     * Log of the multivariate Gamma function.
+     */
+    static double logMultivariateGamma(
+        final double x,
+        final int p)
+    {
+        double sum = 0.25 * p * (p - 1) * Math.log(Math.PI);
+        for (int j = 1; j <= p; j++)
+        {
+            sum += MathUtil.logGammaFunction(x + 0.5 * (1 - j));
+        }
+        return sum;
+    }
+
+    /**
+     * Task that assigns a block of observations to clusters and sub-clusters
+     * and accumulates the statistics of each.
+     */
+    protected class AssignmentTask
+        implements Callable<Boolean>
+    {
+
+        /**
+         * First observation in the block, inclusive.
+         */
+        protected final int startIndex;
+
+        /**
+         * Last observation in the block, exclusive.
+         */
+        protected final int endIndex;
+
+        /**
+         * Random number generator for the block.
+         */
+        protected final Random random;
+
+        /**
+         * Statistics of each sub-cluster of each cluster for the block.
+         */
+        protected final ArrayList<ClusterStatistics[]> statistics;
+
+        /**
+         * True to assign the observations uniformly at random.
+         */
+        protected boolean randomize;
+
+        /**
+         * Log weights of each cluster, reused between observations.
+         */
+        protected double[] logWeights;
+
+        /**
+         * Work array.
+         */
+        protected double[] work;
+
+        /**
+         * Creates a new AssignmentTask.
+         * @param startIndex
+         * First observation in the block, inclusive.
+         * @param endIndex
+         * Last observation in the block, exclusive.
+         * @param random
+         * Random number generator for the block.
+         */
+        protected AssignmentTask(
+            final int startIndex,
+            final int endIndex,
+            final Random random)
+        {
+            this.startIndex = startIndex;
+            this.endIndex = endIndex;
+            this.random = random;
+            this.statistics = new ArrayList<ClusterStatistics[]>();
+            this.randomize = false;
+            this.logWeights = new double[0];
+            this.work = new double[dimensionality];
+        }
+
+        @Override
+        public Boolean call()
+        {
+            final int K = clusters.size();
+            final int d = dimensionality;
+            while (this.statistics.size() < K)
+            {
+                this.statistics.add(new ClusterStatistics[] {
+                    emptyStatistics.clone(), emptyStatistics.clone() });
+            }
+            for (int k = 0; k < K; k++)
+            {
+                this.statistics.get(k)[0].clear();
+                this.statistics.get(k)[1].clear();
+            }
+            if (this.logWeights.length < K)
+            {
+                this.logWeights = new double[K];
+            }
+
+            final ClusterState[] states =
+                clusters.toArray(new ClusterState[K]);
+            for (int n = this.startIndex; n < this.endIndex; n++)
+            {
+                final int offset = n * d;
+                int k;
+                int s;
+                if (this.randomize)
+                {
+                    k = this.random.nextInt(K);
+                    s = this.random.nextInt(2);
+                }
+                else
+                {
+                    // Sample the cluster.
+                    double max = Double.NEGATIVE_INFINITY;
+                    for (int j = 0; j < K; j++)
+                    {
+                        final double logWeight = states[j].component.logEvaluate(
+                            observations, offset, this.work);
+                        this.logWeights[j] = logWeight;
+                        if (logWeight > max)
+                        {
+                            max = logWeight;
+                        }
+                    }
+                    double sum = 0.0;
+                    for (int j = 0; j < K; j++)
+                    {
+                        this.logWeights[j] = Math.exp(this.logWeights[j] - max);
+                        sum += this.logWeights[j];
+                    }
+                    double p = sum * this.random.nextDouble();
+                    k = K - 1;
+                    for (int j = 0; j < K; j++)
+                    {
+                        p -= this.logWeights[j];
+                        if (p <= 0.0)
+                        {
+                            k = j;
+                            break;
+                        }
+                    }
+
+                    // Sample the sub-cluster.
+                    final ClusterState state = states[k];
+                    if (state.resetSubClusters)
+                    {
+                        final double[] mean = state.statistics.mean;
+                        final double[] direction = state.splitDirection;
+                        double projection = 0.0;
+                        for (int i = 0; i < d; i++)
+                        {
+                            projection += direction[i]
+                                * (observations[offset + i] - mean[i]);
+                        }
+                        s = (projection < 0.0) ? 0 : 1;
+                    }
+                    else
+                    {
+                        final double left = state.subComponents[0].logEvaluate(
+                            observations, offset, this.work);
+                        final double right = state.subComponents[1].logEvaluate(
+                            observations, offset, this.work);
+                        final double pLeft =
+                            1.0 / (1.0 + Math.exp(right - left));
+                        s = (this.random.nextDouble() < pLeft) ? 0 : 1;
+                    }
+                }
+
+                assignments[n] = k;
+                subAssignments[n] = (byte) s;
+                this.statistics.get(k)[s].add(observations, offset);
+            }
+            return true;
+        }
+
+    }
+
+    /**
+     * A sample from the sub-cluster Dirichlet Process Mixture Model.
+     */
+    public static class Sample
+        extends AbstractCloneableSerializable
+    {
+
+        /**
+         * Scaling parameter which defines the strength of the base
+         * distribution.
+         */
+        protected double alpha;
+
+        /**
+         * Gaussian distribution sampled for each cluster.
+         */
+        protected ArrayList<MultivariateGaussian> clusters;
+
+        /**
+         * Number of observations assigned to each cluster.
+         */
+        protected int[] clusterCounts;
+
+        /**
+         * Creates a new instance of Sample
+         * @param alpha
+         * Scaling parameter which defines the strength of the base
+         * distribution.
+         * @param clusters
+         * Gaussian distribution sampled for each cluster.
+         * @param clusterCounts
+         * Number of observations assigned to each cluster.
+         */
+        public Sample(
+            final double alpha,
+            final ArrayList<MultivariateGaussian> clusters,
+            final int[] clusterCounts)
+        {
+            this.alpha = alpha;
+            this.clusters = clusters;
+            this.clusterCounts = clusterCounts;
+        }
+
+        @Override
+        public Sample clone()
+        {
+            final Sample clone = (Sample) super.clone();
+            clone.clusters =
+                ObjectUtil.cloneSmartElementsAsArrayList(this.clusters);
+            clone.clusterCounts = ArrayUtil.copy(this.clusterCounts);
+            return clone;
+        }
+
+        /**
+         * Getter for alpha
+         * @return
+         * Scaling parameter which defines the strength of the base
+         * distribution.
+         */
+        public double getAlpha()
+        {
+            return this.alpha;
+        }
+
+        /**
+         * Gets the number of clusters in the Sample
+         * @return
+         * Number of clusters in the Sample.
+         */
+        public int getNumClusters()
+        {
+            return this.clusters.size();
+        }
+
+        /**
+         * Getter for clusters
+         * @return
+         * Gaussian distribution sampled for each cluster.
+         */
+        public ArrayList<MultivariateGaussian> getClusters()
+        {
+            return this.clusters;
+        }
+
+        /**
+         * Getter for clusterCounts
+         * @return
+         * Number of observations assigned to each cluster.
+         */
+        public int[] getClusterCounts()
+        {
+            return this.clusterCounts;
+        }
+
+    }
+
+}
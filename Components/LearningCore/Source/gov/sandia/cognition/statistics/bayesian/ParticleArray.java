@@ -0,0 +1,243 @@
+/*
+ * File:                ParticleArray.java
+ * Authors:             Kevin R. Dixon
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 18, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.statistics.bayesian;
+
+import gov.sandia.cognition.collection.ArrayUtil;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import gov.sandia.cognition.util.AbstractCloneableSerializable;
+import gov.sandia.cognition.util.ArgumentChecker;
+import java.util.Arrays;
+
+/**
+ * A set of weighted particles stored as a structure of primitive arrays.
+ * Each state dimension of the particles is held in its own contiguous
+ * {@code double[]}, so that the state of particle {@code i} in dimension
+ * {@code d} is {@code getStates()[d][i]}. A second set of state buffers of the
+ * same size is kept so that resampling can gather into it and then swap,
+ * which means that no memory is allocated per particle while filtering.
+ * Weights are kept in log space and are normalized so that they sum to one.
+ *
+ * @author Kevin R. Dixon
+ * @since 4.0.0
+ * @see ParallelArrayParticleFilter
+ */
+public class ParticleArray
+    extends AbstractCloneableSerializable
+{
+
+    /**
+     * Number of particles.
+     */
+    protected int numParticles;
+
+    /**
+     * Dimensionality of the state of each particle.
+     */
+    protected int dimensionality;
+
+    /**
+     * The current particle states, indexed by dimension then particle.
+     */
+    protected double[][] states;
+
+    /**
+     * The back buffer of particle states used during resampling.
+     */
+    protected double[][] buffer;
+
+    /**
+     * The normalized log weight of each particle.
+     */
+    protected double[] logWeights;
+
+    /**
+     * Creates a new {@code ParticleArray} with uniform weights and all-zero
+     * states.
+     *
+     * @param   numParticles
+     *      Number of particles. Must be positive.
+     * @param   dimensionality
+     *      Dimensionality of the state of each particle. Must be positive.
+     */
+    public ParticleArray(
+        final int numParticles,
+        final int dimensionality)
+    {
+        super();
+
+        ArgumentChecker.assertIsPositive("numParticles", numParticles);
+        ArgumentChecker.assertIsPositive("dimensionality", dimensionality);
+
+        this.numParticles = numParticles;
+        this.dimensionality = dimensionality;
+        this.states = new double[dimensionality][numParticles];
+        this.buffer = new double[dimensionality][numParticles];
+        this.logWeights = new double[numParticles];
+        this.setUniformWeights();
+    }
+
+    @Override
+    public ParticleArray clone()
+    {
+        final ParticleArray clone = (ParticleArray) super.clone();
+        clone.states = new double[this.dimensionality][];
+        for (int d = 0; d < this.dimensionality; d++)
+        {
+            clone.states[d] = ArrayUtil.copy(this.states[d]);
+        }
+        clone.buffer = new double[this.dimensionality][this.numParticles];
+        clone.logWeights = ArrayUtil.copy(this.logWeights);
+        return clone;
+    }
+
+    /**
+     * Sets all of the particle weights to be uniform.
+     */
+    public void setUniformWeights()
+    {
+        Arrays.fill(this.logWeights, -Math.log(this.numParticles));
+    }
+
+    /**
+     * Swaps the current state buffers with the back buffers. This is called
+     * after the back buffers have been filled with the resampled particles.
+     */
+    protected void swapBuffers()
+    {
+        final double[][] temp = this.states;
+        this.states = this.buffer;
+        this.buffer = temp;
+    }
+
+    /**
+     * Gets the weight of the given particle.
+     *
+     * @param   index
+     *      The index of the particle.
+     * @return
+     *      The normalized weight of the particle.
+     */
+    public double getWeight(
+        final int index)
+    {
+        return Math.exp(this.logWeights[index]);
+    }
+
+    /**
+     * Gets the state of the given particle in the given dimension.
+     *
+     * @param   index
+     *      The index of the particle.
+     * @param   dimension
+     *      The dimension of the state.
+     * @return
+     *      The state value.
+     */
+    public double getState(
+        final int index,
+        final int dimension)
+    {
+        return this.states[dimension][index];
+    }
+
+    /**
+     * Computes the effective number of particles, which is the inverse of the
+     * sum of the squared normalized weights.
+     *
+     * @return
+     *      The effective number of particles, between 1 and the number of
+     *      particles.
+     */
+    public double computeEffectiveParticles()
+    {
+        // This is Equation (50) in Arulampalam's IEEE Trans paper on p. 179
+        double sumSquared = 0.0;
+        for (int i = 0; i < this.numParticles; i++)
+        {
+            final double w = Math.exp(this.logWeights[i]);
+            sumSquared += w * w;
+        }
+        return 1.0 / sumSquared;
+    }
+
+    /**
+     * Computes the weighted mean of the particle states.
+     *
+     * @return
+     *      The weighted mean state.
+     */
+    public Vector computeMean()
+    {
+        final double[] mean = new double[this.dimensionality];
+        for (int i = 0; i < this.numParticles; i++)
+        {
+            final double w = Math.exp(this.logWeights[i]);
+            for (int d = 0; d < this.dimensionality; d++)
+            {
+                mean[d] += w * this.states[d][i];
+            }
+        }
+        return VectorFactory.getDefault().copyArray(mean);
+    }
+
+    /**
+     * Gets the number of particles.
+     *
+     * @return
+     *      The number of particles.
+     */
+    public int getNumParticles()
+    {
+        return this.numParticles;
+    }
+
+    /**
+     * Gets the dimensionality of the particle states.
+     *
+     * @return
+     *      The dimensionality of the particle states.
+     */
+    public int getDimensionality()
+    {
+        return this.dimensionality;
+    }
+
+    /**
+     * Gets the current particle states, indexed by dimension and then by
+     * particle. The returned arrays are the internal buffers and are swapped
+     * out on each resampling.
+     *
+     * @return
+     *      The particle states.
+     */
+    public double[][] getStates()
+    {
+        return this.states;
+    }
+
+    /**
+     * Gets the normalized log weights of the particles. The returned array is
+     * the internal buffer.
+     *
+     * @return
+     *      The normalized log weights.
+     */
+    public double[] getLogWeights()
+    {
+        return this.logWeights;
+    }
+
+}
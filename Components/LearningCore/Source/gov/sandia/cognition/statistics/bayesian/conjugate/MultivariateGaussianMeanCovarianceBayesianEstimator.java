@@ -23,13 +23,13 @@ import gov.sandia.cognition.math.RingAccumulator;
 import gov.sandia.cognition.math.matrix.Matrix;
 import gov.sandia.cognition.math.matrix.MatrixFactory;
 import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.decomposition.IncrementalCholeskyDecomposition;
 import gov.sandia.cognition.statistics.bayesian.AbstractBayesianParameter;
 import gov.sandia.cognition.statistics.bayesian.BayesianParameter;
 import gov.sandia.cognition.statistics.distribution.MultivariateGaussian;
 import gov.sandia.cognition.statistics.distribution.MultivariateStudentTDistribution;
 import gov.sandia.cognition.statistics.distribution.NormalInverseWishartDistribution;
 import gov.sandia.cognition.util.Pair;
-import java.util.Arrays;
 
 /**
  * Performs robust estimation of both the mean and covariance of a
@@ -132,11 +132,46 @@ public class MultivariateGaussianMeanCovarianceBayesianEstimator
         return new MultivariateGaussianMeanCovarianceBayesianEstimator.Parameter( conditional, prior );
     }
 
+    /**
+     * Updates the target with a single observation. This is a rank-one update
+     * of the inverse scale of the Inverse-Wishart, which takes O(d^2) time:
+     * beta' = beta + nu/(nu+1) * (x-lambda)(x-lambda)'.
+     * @param target
+     * Belief to update.
+     * @param data
+     * Observation to update the belief with.
+     */
     public void update(
         NormalInverseWishartDistribution target,
         Vector data)
     {
-        this.update(target, Arrays.asList(data) );
+        Vector lambda = target.getGaussian().getMean();
+        double nu = target.getCovarianceDivisor();
+        int alpha = target.getInverseWishart().getDegreesOfFreedom();
+        Matrix beta = target.getInverseWishart().getInverseScale();
+
+        final int dim = lambda.getDimensionality();
+        data.assertDimensionalityEquals(dim);
+        double nuhat = nu + 1.0;
+
+        Vector delta = data.minus(lambda);
+        Vector lambdahat = lambda.plus( delta.scale(1.0/nuhat) );
+
+        Matrix betahat = beta.clone();
+        double weight = nu / nuhat;
+        for( int i = 0; i < dim; i++ )
+        {
+            final double wdi = weight * delta.getElement(i);
+            for( int j = 0; j < dim; j++ )
+            {
+                betahat.increment(i, j, wdi * delta.getElement(j));
+            }
+        }
+
+        target.getGaussian().setMean(lambdahat);
+        target.setCovarianceDivisor(nuhat);
+        target.getInverseWishart().setDegreesOfFreedom(alpha+1);
+        target.getInverseWishart().setInverseScale(betahat);
     }
 
     @Override
@@ -195,7 +230,19 @@ public class MultivariateGaussianMeanCovarianceBayesianEstimator
 
         Matrix covariance = posterior.getInverseWishart().getInverseScale().scale(
             (posterior.getCovarianceDivisor()+1.0) / (posterior.getCovarianceDivisor()*dofs) );
-        Matrix precision = covariance.inverse();
+
+        // The scale matrix is symmetric positive definite, so inverting
+        // through its Cholesky factor is cheaper than a general inverse.
+        Matrix precision;
+        try
+        {
+            precision = IncrementalCholeskyDecomposition.create(
+                covariance ).computeInverse();
+        }
+        catch (IllegalArgumentException e)
+        {
+            precision = covariance.inverse();
+        }
         return new MultivariateStudentTDistribution( dofs, mean, precision );
     }
 
@@ -21,6 +21,7 @@ import gov.sandia.cognition.math.matrix.Vector;
 import gov.sandia.cognition.math.matrix.VectorFactory;
 import gov.sandia.cognition.math.matrix.VectorInputEvaluator;
 import gov.sandia.cognition.statistics.AbstractDistribution;
+import gov.sandia.cognition.statistics.AliasSampler;
 import gov.sandia.cognition.statistics.ClosedFormComputableDiscreteDistribution;
 import gov.sandia.cognition.statistics.ProbabilityMassFunction;
 import gov.sandia.cognition.statistics.ProbabilityMassFunctionUtil;
@@ -36,6 +37,9 @@ import java.util.Set;
  * Bernoulli distribution, where the outcome of an experiment is a one-of-N
  * output, where the output is a selector Vector.  This Vector will have all
  * zeros except one index will have a 1.0.
+ * Sampling uses an alias table that is cached until the next call to
+ * {@code setParameters}, so the parameter vector should not be modified in
+ * place without setting it again.
  * @author Kevin R. Dixon
  * @since 3.3.0
  */
@@ -63,6 +67,11 @@ public class CategoricalDistribution
      */
     protected Vector parameters;
 
+    /**
+     * Alias table for sampling from the parameters, created lazily.
+     */
+    protected transient AliasSampler aliasSampler;
+
     /**
      * Creates a new instance of CategoricalDistribution
      */
@@ -109,6 +118,7 @@ public class CategoricalDistribution
     public CategoricalDistribution clone()
     {
         CategoricalDistribution clone = (CategoricalDistribution) super.clone();
+        clone.aliasSampler = null;
         clone.setParameters( ObjectUtil.cloneSafe( this.getParameters() ) );
         return clone;
     }
@@ -151,6 +161,7 @@ public class CategoricalDistribution
         }
 
         this.parameters = parameters;
+        this.aliasSampler = null;
     }
 
     @Override
@@ -160,19 +171,53 @@ public class CategoricalDistribution
         final Collection<? super Vector> output)
     {
         ArrayList<Vector> domain = CollectionUtil.asArrayList(this.getDomain());
-        final int N = domain.size();
-
-        double[] cumulativeWeights = new double[N];
-        double sum = 0.0;
-        for( int n = 0; n < N; n++ )
+        final AliasSampler sampler = this.getAliasSampler();
+        for( int n = 0; n < sampleCount; n++ )
         {
-            double weight = this.parameters.getElement(n);
-            sum += weight;
-            cumulativeWeights[n] = sum;
+            output.add( domain.get( sampler.sampleIndex(random) ) );
         }
+    }
+
+    /**
+     * Samples the index of a single class.
+     * @param random
+     * Random number generator.
+     * @return
+     * Index of the sampled class, which is the index of the 1.0 in the
+     * equivalent selector Vector.
+     */
+    public int sampleIndex(
+        final Random random )
+    {
+        return this.getAliasSampler().sampleIndex(random);
+    }
 
-        ProbabilityMassFunctionUtil.sampleMultipleInto(
-            cumulativeWeights, domain, random, sampleCount, output);
+    /**
+     * Samples class indices to fill the given array.
+     * @param random
+     * Random number generator.
+     * @param output
+     * Array to fill with the indices of the sampled classes.
+     */
+    public void sampleIndicesInto(
+        final Random random,
+        final int[] output )
+    {
+        this.getAliasSampler().sampleIndicesInto(random, output);
+    }
+
+    /**
+     * Gets the alias table for the parameters, creating it if needed.
+     * @return
+     * Alias table for sampling from the parameters.
+     */
+    protected AliasSampler getAliasSampler()
+    {
+        if( this.aliasSampler == null )
+        {
+            this.aliasSampler = new AliasSampler( this.parameters );
+        }
+        return this.aliasSampler;
     }
 
     @Override
@@ -15,20 +15,29 @@ package gov.sandia.cognition.statistics.distribution;
 
 import gov.sandia.cognition.factory.Factory;
 import gov.sandia.cognition.learning.algorithm.AbstractBatchAndIncrementalLearner;
+import gov.sandia.cognition.collection.ScalarMap;
 import gov.sandia.cognition.math.MutableDouble;
 import gov.sandia.cognition.statistics.AbstractDataDistribution;
+import gov.sandia.cognition.statistics.AliasSampler;
 import gov.sandia.cognition.statistics.DataDistribution;
 import gov.sandia.cognition.statistics.DistributionEstimator;
 import gov.sandia.cognition.statistics.DistributionWeightedEstimator;
 import gov.sandia.cognition.util.AbstractCloneableSerializable;
 import gov.sandia.cognition.util.ArgumentChecker;
 import gov.sandia.cognition.util.WeightedValue;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Random;
 
 /**
  * A default implementation of {@code ScalarDataDistribution} that uses a
- * backing map.
+ * backing map. Sampling uses an {@link AliasSampler} over the domain that is
+ * built lazily on the first sample and is kept until the distribution is next
+ * changed through {@code set}, {@code increment}, {@code clear}, or
+ * {@code compact}, so repeated sampling takes constant time per sample.
+ * Changes made directly to the backing map are not tracked.
  * 
  * @param <KeyType>
  * Type of Key in the distribution
@@ -49,6 +58,26 @@ public class DefaultDataDistribution<KeyType>
      */
     protected double total;
 
+    /**
+     * The cached alias table for sampling.
+     */
+    protected transient AliasSampler aliasSampler;
+
+    /**
+     * True if the alias table matches the current values of the distribution.
+     */
+    protected transient boolean aliasValid;
+
+    /**
+     * The keys of the domain in the order of the alias table.
+     */
+    protected transient ArrayList<KeyType> aliasDomain;
+
+    /**
+     * Reused array of the values of the domain when building the alias table.
+     */
+    private transient double[] aliasProportions;
+
     /**
      * Default constructor
      */
@@ -117,6 +146,10 @@ public class DefaultDataDistribution<KeyType>
         // calls "incrementAll", which will, in turn, increment the total
         // So we'd end up with twice the total.
         clone.total = this.total;
+        clone.aliasSampler = null;
+        clone.aliasValid = false;
+        clone.aliasDomain = null;
+        clone.aliasProportions = null;
         return clone;
     }
 
@@ -160,6 +193,10 @@ public class DefaultDataDistribution<KeyType>
         }
 
         this.total += delta;
+        if (delta != 0.0)
+        {
+            this.aliasValid = false;
+        }
         return newValue;
     }
 
@@ -191,6 +228,7 @@ public class DefaultDataDistribution<KeyType>
             this.total -= entry.value;
             entry.value = 0.0;
         }
+        this.aliasValid = false;
     }
 
     @Override
@@ -204,6 +242,102 @@ public class DefaultDataDistribution<KeyType>
     {
         super.clear();
         this.total = 0.0;
+        this.aliasValid = false;
+    }
+
+    @Override
+    public void compact()
+    {
+        super.compact();
+        this.aliasValid = false;
+    }
+
+    @Override
+    public KeyType sample(
+        final Random random)
+    {
+        final AliasSampler sampler = this.getAliasSampler();
+        if (sampler == null)
+        {
+            return null;
+        }
+        else
+        {
+            return this.aliasDomain.get(sampler.sampleIndex(random));
+        }
+    }
+
+    @Override
+    public void sampleInto(
+        final Random random,
+        final int sampleCount,
+        final Collection<? super KeyType> output)
+    {
+        final AliasSampler sampler = this.getAliasSampler();
+        if (sampler == null)
+        {
+            super.sampleInto(random, sampleCount, output);
+        }
+        else
+        {
+            for (int i = 0; i < sampleCount; i++)
+            {
+                output.add(this.aliasDomain.get(sampler.sampleIndex(random)));
+            }
+        }
+    }
+
+    /**
+     * Gets the alias table for sampling from the distribution, rebuilding it
+     * in place if the distribution has changed since it was last built. The index of the
+     * table is the index of the key in {@code aliasDomain}.
+     *
+     * @return
+     *      The alias table for the distribution, or null if the total of the
+     *      distribution is not positive.
+     */
+    protected AliasSampler getAliasSampler()
+    {
+        if (!(this.getTotal() > 0.0))
+        {
+            return null;
+        }
+        else if (!this.aliasValid)
+        {
+            final int size = this.map.size();
+            if (this.aliasDomain == null)
+            {
+                this.aliasDomain = new ArrayList<KeyType>(size);
+            }
+            else
+            {
+                this.aliasDomain.clear();
+            }
+            if (this.aliasProportions == null
+                || this.aliasProportions.length != size)
+            {
+                this.aliasProportions = new double[size];
+            }
+
+            int index = 0;
+            for (ScalarMap.Entry<KeyType> entry : this.entrySet())
+            {
+                this.aliasDomain.add(entry.getKey());
+                this.aliasProportions[index] = entry.getValue();
+                index++;
+            }
+
+            if (this.aliasSampler == null)
+            {
+                this.aliasSampler = new AliasSampler(this.aliasProportions);
+            }
+            else
+            {
+                this.aliasSampler.setProportions(this.aliasProportions);
+            }
+            this.aliasValid = true;
+        }
+        return this.aliasSampler;
     }
 
     @Override
@@ -21,6 +21,7 @@ import gov.sandia.cognition.math.matrix.Vector;
 import gov.sandia.cognition.math.matrix.VectorFactory;
 import gov.sandia.cognition.math.matrix.VectorInputEvaluator;
 import gov.sandia.cognition.statistics.AbstractDistribution;
+import gov.sandia.cognition.statistics.AliasSampler;
 import gov.sandia.cognition.statistics.ClosedFormComputableDiscreteDistribution;
 import gov.sandia.cognition.statistics.ProbabilityMassFunction;
 import gov.sandia.cognition.statistics.ProbabilityMassFunctionUtil;
@@ -28,6 +29,7 @@ import gov.sandia.cognition.util.AbstractCloneableSerializable;
 import gov.sandia.cognition.util.ObjectUtil;
 import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Random;
@@ -39,6 +41,9 @@ import java.util.Random;
  * the probabilities p1,p2,...p_numClasses.  In our class, the probability
  * parameters must be positive but do not have to sum to one because we
  * normalize by the L1 norm.
+ * Sampling uses an alias table that is cached until the next call to
+ * {@code setParameters}, so the parameter vector should not be modified in
+ * place without setting it again.
  * @author Kevin R. Dixon
  * @since 3.0
  */
@@ -75,6 +80,11 @@ public class MultinomialDistribution
      */
     private Vector parameters;
 
+    /**
+     * Alias table for sampling from the parameters, created lazily.
+     */
+    private transient AliasSampler aliasSampler;
+
     /** 
      * Creates a new instance of MultinomialDistribution 
      */
@@ -129,6 +139,7 @@ public class MultinomialDistribution
     public MultinomialDistribution clone()
     {
         MultinomialDistribution clone = (MultinomialDistribution) super.clone();
+        clone.aliasSampler = null;
         clone.setParameters( ObjectUtil.cloneSafe(this.getParameters()) );
         return clone;
     }
@@ -171,6 +182,7 @@ public class MultinomialDistribution
         }
 
         this.parameters = parameters;
+        this.aliasSampler = null;
     }
 
     @Override
@@ -225,33 +237,45 @@ public class MultinomialDistribution
         final Collection<? super Vector> output)
     {
         final int numClasses = this.parameters.getDimensionality();
-        final double []probs = new double[ numClasses ];
-        final double probsum = this.parameters.norm1();
-        for( int j = 0; j < numClasses; j++ )
-        {
-            probs[j] = this.parameters.getElement(j) / probsum;
-        }
-
         for( int n = 0; n < sampleCount; n++ )
         {
             double[] successes = new double[ numClasses ];
-            for( int i = 0; i < this.numTrials; i++ )
-            {
-                double p = random.nextDouble();
-                for( int k = 0; k < numClasses; k++ )
-                {
-                    if( p <= probs[k] )
-                    {
-                        successes[k]++;
-                        break;
-                    }
-                    p -= probs[k];
-                }
-            }
+            this.sampleCountsInto( random, successes );
             output.add( VectorFactory.getDefault().copyArray(successes) );
         }
     }
 
+    /**
+     * Samples the number of successes of each class over the trials into the
+     * given array, without creating a Vector.
+     * @param random
+     * Random number generator.
+     * @param successes
+     * Array to put the number of successes of each class into. Its length
+     * must be the number of classes. Any existing values are overwritten.
+     */
+    public void sampleCountsInto(
+        final Random random,
+        final double[] successes )
+    {
+        if( successes.length != this.parameters.getDimensionality() )
+        {
+            throw new IllegalArgumentException(
+                "successes length must equal the number of classes" );
+        }
+
+        if( this.aliasSampler == null )
+        {
+            this.aliasSampler = new AliasSampler( this.parameters );
+        }
+
+        Arrays.fill( successes, 0.0 );
+        for( int i = 0; i < this.numTrials; i++ )
+        {
+            successes[this.aliasSampler.sampleIndex(random)]++;
+        }
+    }
+
     @Override
     public MultinomialDistribution.Domain getDomain()
     {
@@ -25,8 +25,7 @@ import gov.sandia.cognition.math.matrix.Matrix;
 import gov.sandia.cognition.math.matrix.MatrixFactory;
 import gov.sandia.cognition.math.matrix.Vector;
 import gov.sandia.cognition.math.matrix.VectorInputEvaluator;
-import gov.sandia.cognition.math.matrix.mtj.DenseMatrixFactoryMTJ;
-import gov.sandia.cognition.math.matrix.mtj.decomposition.CholeskyDecompositionMTJ;
+import gov.sandia.cognition.math.matrix.decomposition.IncrementalCholeskyDecomposition;
 import gov.sandia.cognition.statistics.AbstractDistribution;
 import gov.sandia.cognition.statistics.AbstractIncrementalEstimator;
 import gov.sandia.cognition.statistics.AbstractSufficientStatistic;
@@ -41,6 +40,7 @@ import gov.sandia.cognition.util.Pair;
 import gov.sandia.cognition.util.WeightedValue;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Random;
 
 /**
@@ -49,6 +49,12 @@ import java.util.Random;
  * underlying distribution is univariate (scalar), then use the
  * UnivariateGaussian class, as its operations are MUCH less computationally
  * intensive.
+ * <BR><BR>
+ * The Cholesky factor of the covariance is cached and used for the
+ * log-determinant, Mahalanobis distance, likelihood, and sampling, which avoids
+ * inverting the covariance. Rank-one changes to the covariance can be applied
+ * with {@link #rankOneUpdate(Vector, double)} in O(d^2) time, instead of the
+ * O(d^3) time needed to factor the covariance again.
  *
  * @author Justin Basilico
  * @author Kevin R. Dixon
@@ -124,6 +130,19 @@ public class MultivariateGaussian
      */
     private Double logLeadingCoefficient;
 
+    /**
+     * Cholesky decomposition of the covariance matrix, automatically computed.
+     */
+    private IncrementalCholeskyDecomposition covarianceCholesky;
+
+    /**
+     * True if the covariance, its inverse, and its Cholesky decomposition are
+     * copies owned by this Gaussian, so that a rank-one update can modify them
+     * in place. Matrices given to the setters may be shared with the caller,
+     * so they are copied before the first rank-one update.
+     */
+    private boolean covarianceOwned;
+
     /**
      * Default constructor.
      */
@@ -197,16 +216,23 @@ public class MultivariateGaussian
     public double computeZSquared(
         Vector input)
     {
-        double zsquared;
-
         // Subtract the mean
         Vector delta = input.minus(this.mean);
 
-        // Compute the weighted inner product.
-        zsquared = delta.times(this.getCovarianceInverse()).dotProduct(
-            delta);
+        // Use the covariance inverse if we already have it, otherwise solve
+        // against the Cholesky factor, which is cheaper to compute.
+        if (this.covarianceInverse == null)
+        {
+            final IncrementalCholeskyDecomposition cholesky =
+                this.getCovarianceCholesky();
+            if (cholesky != null)
+            {
+                return cholesky.computeMahalanobisSquared(delta);
+            }
+        }
 
-        return zsquared;
+        // Compute the weighted inner product.
+        return delta.times(this.getCovarianceInverse()).dotProduct(delta);
     }
 
     /**
@@ -344,11 +370,157 @@ public class MultivariateGaussian
         }
 
         this.covariance = covariance;
+        this.covarianceOwned = false;
 
         // Flag the other values for recomputation...
         this.covarianceInverse = null;
         this.logCovarianceDeterminant = null;
         this.logLeadingCoefficient = null;
+        this.covarianceCholesky = null;
+    }
+
+    /**
+     * Sets the covariance matrix along with its Cholesky decomposition, which
+     * avoids factoring the covariance again.
+     *
+     * @param covariance The new covariance matrix, which must be symmetric.
+     * @param covarianceCholesky The Cholesky decomposition of the covariance.
+     */
+    protected void setCovariance(
+        final Matrix covariance,
+        final IncrementalCholeskyDecomposition covarianceCholesky)
+    {
+        this.covariance = covariance;
+        this.covarianceOwned = false;
+        this.covarianceInverse = null;
+        this.logCovarianceDeterminant =
+            covarianceCholesky.computeLogDeterminant();
+        this.logLeadingCoefficient = null;
+        this.covarianceCholesky = covarianceCholesky;
+    }
+
+    /**
+     * Gets the Cholesky decomposition of the covariance matrix, which is
+     * computed when first needed and kept up to date by rank-one updates.
+     *
+     * @return The Cholesky decomposition of the covariance, or null if the
+     * covariance is not positive definite.
+     */
+    public IncrementalCholeskyDecomposition getCovarianceCholesky()
+    {
+        if (this.covarianceCholesky == null)
+        {
+            try
+            {
+                this.covarianceCholesky =
+                    IncrementalCholeskyDecomposition.create(
+                        this.getCovariance());
+            }
+            catch (IllegalArgumentException e)
+            {
+                // The covariance is not positive definite.
+                return null;
+            }
+        }
+        return this.covarianceCholesky;
+    }
+
+    /**
+     * Applies a rank-one update to the covariance matrix, so that it becomes
+     * covariance + weight * x * x'. A negative weight is a downdate. The
+     * covariance matrix is copied the first time, since it may be shared with
+     * the caller that set it, and then modified in place. The cached Cholesky
+     * decomposition, covariance inverse, and log-determinant are updated in
+     * O(d^2) time, instead of being recomputed in O(d^3) time.
+     *
+     * @param x The vector of the rank-one update.
+     * @param weight The weight of the update. Negative values downdate the
+     * covariance.
+     */
+    public void rankOneUpdate(
+        final Vector x,
+        final double weight)
+    {
+        final int d = this.getInputDimensionality();
+        x.assertDimensionalityEquals(d);
+        if (weight == 0.0)
+        {
+            return;
+        }
+
+        if (!this.covarianceOwned)
+        {
+            // Copy anything that may be shared before changing it in place.
+            this.covariance = this.getCovariance().clone();
+            if (this.covarianceInverse != null)
+            {
+                this.covarianceInverse = this.covarianceInverse.clone();
+            }
+            if (this.covarianceCholesky != null)
+            {
+                this.covarianceCholesky = this.covarianceCholesky.clone();
+            }
+            this.covarianceOwned = true;
+        }
+
+        final Matrix sigma = this.covariance;
+
+        for (int i = 0; i < d; i++)
+        {
+            final double wxi = weight * x.getElement(i);
+            if (wxi != 0.0)
+            {
+                for (int j = 0; j < d; j++)
+                {
+                    sigma.increment(i, j, wxi * x.getElement(j));
+                }
+            }
+        }
+
+        // Sherman-Morrison keeps the inverse current, if we have it.
+        if (this.covarianceInverse != null)
+        {
+            final Vector u = this.covarianceInverse.times(x);
+            final double denominator = 1.0 + weight * u.dotProduct(x);
+            if (denominator > 0.0)
+            {
+                final double scale = -weight / denominator;
+                for (int i = 0; i < d; i++)
+                {
+                    final double sui = scale * u.getElement(i);
+                    if (sui != 0.0)
+                    {
+                        for (int j = 0; j < d; j++)
+                        {
+                            this.covarianceInverse.increment(
+                                i, j, sui * u.getElement(j));
+                        }
+                    }
+                }
+            }
+            else
+            {
+                this.covarianceInverse = null;
+            }
+        }
+
+        if (this.covarianceCholesky != null)
+        {
+            try
+            {
+                this.covarianceCholesky.rankOneUpdate(x, weight);
+            }
+            catch (IllegalArgumentException e)
+            {
+                // The result is not positive definite, so we fall back to
+                // computing everything from the covariance itself.
+                this.covarianceCholesky = null;
+            }
+        }
+
+        this.logCovarianceDeterminant = (this.covarianceCholesky != null)
+            ? this.covarianceCholesky.computeLogDeterminant() : null;
+        this.logLeadingCoefficient = null;
     }
 
     /**
@@ -361,7 +533,10 @@ public class MultivariateGaussian
         // Need to recompute the covariance inverse.
         if (this.covarianceInverse == null)
         {
-            this.covarianceInverse = this.covariance.inverse();
+            final IncrementalCholeskyDecomposition cholesky =
+                this.getCovarianceCholesky();
+            this.covarianceInverse = (cholesky != null)
+                ? cholesky.computeInverse() : this.covariance.inverse();
         }
         return this.covarianceInverse;
     }
@@ -410,11 +585,13 @@ public class MultivariateGaussian
         }
 
         this.covarianceInverse = covarianceInverse;
+        this.covarianceOwned = false;
 
         // Flag the other values for recomputation...
         this.covariance = null;
         this.logCovarianceDeterminant = null;
         this.logLeadingCoefficient = null;
+        this.covarianceCholesky = null;
 
     }
 
@@ -429,12 +606,23 @@ public class MultivariateGaussian
 
         if (this.logCovarianceDeterminant == null)
         {
-            // Compute the determinant of the matrix.
-            ComplexNumber logDeterminant = this.covariance.logDeterminant();
+            final IncrementalCholeskyDecomposition cholesky =
+                this.getCovarianceCholesky();
+            if (cholesky != null)
+            {
+                this.logCovarianceDeterminant =
+                    cholesky.computeLogDeterminant();
+            }
+            else
+            {
+                // Compute the determinant of the matrix.
+                ComplexNumber logDeterminant =
+                    this.getCovariance().logDeterminant();
 
-            // There should be no imaginary part, as the the determinant is
-            // a positive value
-            this.logCovarianceDeterminant = logDeterminant.getRealPart();
+                // There should be no imaginary part, as the the determinant
+                // is a positive value
+                this.logCovarianceDeterminant = logDeterminant.getRealPart();
+            }
         }
 
         return this.logCovarianceDeterminant;
@@ -489,10 +677,26 @@ public class MultivariateGaussian
         final int sampleCount,
         final Collection<? super Vector> output)
     {
-        final Matrix covSqrt = CholeskyDecompositionMTJ.create(
-            DenseMatrixFactoryMTJ.INSTANCE.copyMatrix(this.getCovariance())).getR();
+        final IncrementalCholeskyDecomposition cholesky =
+            this.getCovarianceCholesky();
+        if (cholesky == null)
+        {
+            throw new IllegalArgumentException(
+                "Covariance must be symmetric and positive definite!");
+        }
 
-        sampleInto(this.mean, covSqrt, random, sampleCount, output);
+        final int d = this.getInputDimensionality();
+        for (int n = 0; n < sampleCount; n++)
+        {
+            final Vector z = VectorFactory.getDefault().createVector(d);
+            for (int i = 0; i < d; i++)
+            {
+                z.setElement(i, random.nextGaussian());
+            }
+            final Vector sample = cholesky.times(z);
+            sample.plusEquals(this.mean);
+            output.add(sample);
+        }
     }
 
     /**
@@ -703,6 +907,84 @@ public class MultivariateGaussian
             return this.getLogLeadingCoefficient() - 0.5 * zsquared;
         }
 
+        /**
+         * Evaluates the natural logarithm of the PDF at each of the given
+         * inputs. The mean and Cholesky factor of the covariance are unpacked
+         * once and a single work array is reused, which is much faster than
+         * calling logEvaluate for each input.
+         *
+         * @param inputs The inputs to evaluate.
+         * @return The natural logarithm of the PDF at each input, in the
+         * iteration order of the inputs.
+         */
+        public double[] logEvaluate(
+            final Collection<? extends Vector> inputs)
+        {
+            final double[] result = new double[inputs.size()];
+            this.logEvaluate(inputs, result);
+            return result;
+        }
+
+        /**
+         * Evaluates the natural logarithm of the PDF at each of the given
+         * inputs, storing the values into the given array.
+         *
+         * @param inputs The inputs to evaluate.
+         * @param output The array to store the values into. Must have at least
+         * as many elements as there are inputs.
+         */
+        public void logEvaluate(
+            final Iterable<? extends Vector> inputs,
+            final double[] output)
+        {
+            final IncrementalCholeskyDecomposition cholesky =
+                this.getCovarianceCholesky();
+            if (cholesky == null)
+            {
+                // Fall back to evaluating each input.
+                int index = 0;
+                for (Vector input : inputs)
+                {
+                    output[index++] = this.logEvaluate(input);
+                }
+                return;
+            }
+
+            final int d = this.getInputDimensionality();
+            final double[] meanValues = this.getMean().toArray();
+            final double[][] factor = new double[d][];
+            for (int i = 0; i < d; i++)
+            {
+                factor[i] = new double[i + 1];
+                for (int j = 0; j <= i; j++)
+                {
+                    factor[i][j] = cholesky.getElement(i, j);
+                }
+            }
+            final double logCoefficient = this.getLogLeadingCoefficient();
+
+            final double[] delta = new double[d];
+            final Iterator<? extends Vector> iterator = inputs.iterator();
+            for (int index = 0; iterator.hasNext(); index++)
+            {
+                final Vector input = iterator.next();
+                input.assertDimensionalityEquals(d);
+                double zsquared = 0.0;
+                for (int i = 0; i < d; i++)
+                {
+                    final double[] row = factor[i];
+                    double sum = input.getElement(i) - meanValues[i];
+                    for (int k = 0; k < i; k++)
+                    {
+                        sum -= row[k] * delta[k];
+                    }
+                    delta[i] = sum / row[i];
+                    zsquared += delta[i] * delta[i];
+                }
+                output[index] = logCoefficient - 0.5 * zsquared;
+            }
+        }
+
         @Override
         public MultivariateGaussian.PDF getProbabilityFunction()
         {
@@ -941,6 +1223,13 @@ public class MultivariateGaussian
          */
         private Matrix sumSquaredDifferences;
 
+        /**
+         * Cholesky decomposition of the sum-squared differences, which is
+         * maintained by rank-one updates so that creating the distribution does
+         * not need to factor the covariance.
+         */
+        private IncrementalCholeskyDecomposition sumSquaredDifferencesCholesky;
+
         /**
          * Default covariance of the distribution
          */
@@ -970,7 +1259,14 @@ public class MultivariateGaussian
         @Override
         public MultivariateGaussian.SufficientStatistic clone()
         {
-            return (MultivariateGaussian.SufficientStatistic) super.clone();
+            MultivariateGaussian.SufficientStatistic clone =
+                (MultivariateGaussian.SufficientStatistic) super.clone();
+            clone.mean = ObjectUtil.cloneSafe(this.mean);
+            clone.sumSquaredDifferences =
+                ObjectUtil.cloneSafe(this.sumSquaredDifferences);
+            clone.sumSquaredDifferencesCholesky =
+                ObjectUtil.cloneSafe(this.sumSquaredDifferencesCholesky);
+            return clone;
         }
 
         /**
@@ -981,6 +1277,7 @@ public class MultivariateGaussian
             this.count = 0;
             this.mean = null;
             this.sumSquaredDifferences = null;
+            this.sumSquaredDifferencesCholesky = null;
         }
 
         @Override
@@ -1010,17 +1307,34 @@ public class MultivariateGaussian
                     = MatrixFactory.getDefault().createIdentity(dim, dim);
                 this.sumSquaredDifferences.scaleEquals(
                     this.getDefaultCovariance());
+                if (this.getDefaultCovariance() > 0.0)
+                {
+                    this.sumSquaredDifferencesCholesky =
+                        new IncrementalCholeskyDecomposition(dim);
+                    this.sumSquaredDifferencesCholesky.scaleEquals(
+                        this.getDefaultCovariance());
+                }
             }
             Vector delta2 = value.minus(this.mean);
             this.sumSquaredDifferences.plusEquals(delta.outerProduct(delta2));
 
+            // Since delta2 = delta * (n-1)/n, this is a rank-one update of
+            // the factor.
+            if (this.sumSquaredDifferencesCholesky != null)
+            {
+                this.sumSquaredDifferencesCholesky.rankOneUpdate(
+                    delta, (this.count - 1.0) / this.count);
+            }
+
         }
 
         @Override
         public MultivariateGaussian.PDF create()
         {
-            return new MultivariateGaussian.PDF(
-                this.getMean(), this.getCovariance());
+            final MultivariateGaussian.PDF result =
+                new MultivariateGaussian.PDF();
+            this.create(result);
+            return result;
         }
 
         @Override
@@ -1028,7 +1342,39 @@ public class MultivariateGaussian
             MultivariateGaussian distribution)
         {
             distribution.setMean(this.getMean());
-            distribution.setCovariance(this.getCovariance());
+            final IncrementalCholeskyDecomposition cholesky =
+                this.getCovarianceCholesky();
+            if (cholesky == null)
+            {
+                distribution.setCovariance(this.getCovariance());
+            }
+            else
+            {
+                distribution.setCovariance(this.getCovariance(), cholesky);
+            }
+        }
+
+        /**
+         * Gets the Cholesky decomposition of the covariance of the Gaussian,
+         * which is maintained incrementally as values are added.
+         *
+         * @return The Cholesky decomposition of the covariance, or null if it
+         * is not available.
+         */
+        public IncrementalCholeskyDecomposition getCovarianceCholesky()
+        {
+            if (this.count <= 0 || this.sumSquaredDifferencesCholesky == null)
+            {
+                return null;
+            }
+
+            final IncrementalCholeskyDecomposition result =
+                this.sumSquaredDifferencesCholesky.clone();
+            if (this.count > 1)
+            {
+                result.scaleEquals(1.0 / (this.count - 1.0));
+            }
+            return result;
         }
 
         /**
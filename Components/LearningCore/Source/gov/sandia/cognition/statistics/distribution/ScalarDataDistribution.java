@@ -22,8 +22,10 @@ import gov.sandia.cognition.math.MutableDouble;
 import gov.sandia.cognition.statistics.CumulativeDistributionFunction;
 import gov.sandia.cognition.statistics.DataDistribution;
 import gov.sandia.cognition.statistics.DistributionEstimator;
+import gov.sandia.cognition.statistics.AliasSampler;
 import gov.sandia.cognition.statistics.UnivariateDistribution;
 import java.util.Map;
+import java.util.Random;
 import java.util.TreeMap;
 
 /**
@@ -96,6 +98,31 @@ public class ScalarDataDistribution
         return new ScalarDataDistribution.PMF(this);
     }
 
+    /**
+     * Samples values from the distribution to fill the given array.
+     *
+     * @param random
+     * Random number generator.
+     * @param output
+     * Array to fill with the sampled values.
+     */
+    public void sampleInto(
+        final Random random,
+        final double[] output )
+    {
+        final AliasSampler sampler = this.getAliasSampler();
+        if( sampler == null )
+        {
+            throw new IllegalStateException(
+                "Cannot sample from an empty distribution" );
+        }
+
+        for( int i = 0; i < output.length; i++ )
+        {
+            output[i] = this.aliasDomain.get( sampler.sampleIndex(random) );
+        }
+    }
+
     @Override
     public Double getMean()
     {
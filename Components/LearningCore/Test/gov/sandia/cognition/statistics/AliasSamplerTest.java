@@ -0,0 +1,179 @@
+/*
+ * File:                AliasSamplerTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 18, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ */
+
+package gov.sandia.cognition.statistics;
+
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for class {@code AliasSampler}.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class AliasSamplerTest
+    extends TestCase
+{
+    protected Random random = new Random(211);
+
+    /**
+     * Creates a new test.
+     *
+     * @param   testName The test name.
+     */
+    public AliasSamplerTest(
+        String testName)
+    {
+        super(testName);
+    }
+
+    /**
+     * Test of constructors of class AliasSampler.
+     */
+    public void testConstructors()
+    {
+        double[] proportions = {0.5, 3.6, 0.0, 1.1};
+        AliasSampler instance = new AliasSampler(proportions);
+        assertEquals(4, instance.getSize());
+        assertEquals(5.2, instance.getTotal(), 1e-10);
+
+        instance = new AliasSampler(
+            VectorFactory.getDefault().copyArray(proportions));
+        assertEquals(4, instance.getSize());
+        assertEquals(5.2, instance.getTotal(), 1e-10);
+
+        double[][] bads = { {}, {1.0, -1.0}, {0.0, 0.0}, {Double.NaN, 1.0} };
+        for (double[] bad : bads)
+        {
+            boolean exceptionThrown = false;
+            try
+            {
+                instance = new AliasSampler(bad);
+            }
+            catch (IllegalArgumentException e)
+            {
+                exceptionThrown = true;
+            }
+            finally
+            {
+                assertTrue(exceptionThrown);
+            }
+        }
+    }
+
+    /**
+     * Test of clone method, of class AliasSampler.
+     */
+    public void testClone()
+    {
+        AliasSampler instance = new AliasSampler(new double[] {1.0, 2.0});
+        AliasSampler clone = instance.clone();
+        assertNotSame(instance, clone);
+        assertNotSame(instance.probabilities, clone.probabilities);
+        assertNotSame(instance.aliases, clone.aliases);
+        assertEquals(instance.getTotal(), clone.getTotal());
+
+        instance.setProportions(new double[] {1.0, 0.0});
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals(0, instance.sampleIndex(random));
+        }
+        int[] counts = new int[2];
+        for (int i = 0; i < 1000; i++)
+        {
+            counts[clone.sampleIndex(random)]++;
+        }
+        assertTrue(counts[1] > counts[0]);
+        assertTrue(counts[0] > 0);
+    }
+
+    /**
+     * Test of sampleIndex method, of class AliasSampler.
+     */
+    public void testSampleIndex()
+    {
+        double[] proportions = {0.5, 3.6, 0.0, 1.1, 2.8};
+        double total = 8.0;
+        AliasSampler instance = new AliasSampler(proportions);
+
+        int sampleCount = 100000;
+        int[] counts = new int[proportions.length];
+        for (int i = 0; i < sampleCount; i++)
+        {
+            int index = instance.sampleIndex(random);
+            assertTrue(index >= 0 && index < proportions.length);
+            counts[index]++;
+        }
+
+        assertEquals(0, counts[2]);
+        for (int i = 0; i < proportions.length; i++)
+        {
+            assertEquals(proportions[i] / total,
+                (double) counts[i] / sampleCount, 0.01);
+        }
+    }
+
+    /**
+     * Test of sampleIndicesInto method, of class AliasSampler.
+     */
+    public void testSampleIndicesInto()
+    {
+        double[] proportions = {4.0, 0.0, 1.0};
+        AliasSampler instance = new AliasSampler(proportions);
+
+        int[] output = new int[50000];
+        instance.sampleIndicesInto(random, output);
+        int[] counts = new int[proportions.length];
+        for (int index : output)
+        {
+            counts[index]++;
+        }
+        assertEquals(0, counts[1]);
+        assertEquals(0.8, (double) counts[0] / output.length, 0.01);
+        assertEquals(0.2, (double) counts[2] / output.length, 0.01);
+
+        output = new int[] {-1, -1, -1, -1, -1};
+        instance.sampleIndicesInto(random, output, 1, 3);
+        assertEquals(-1, output[0]);
+        assertTrue(output[1] >= 0);
+        assertTrue(output[2] >= 0);
+        assertTrue(output[3] >= 0);
+        assertEquals(-1, output[4]);
+    }
+
+    /**
+     * Test of setProportions method, of class AliasSampler.
+     */
+    public void testSetProportions()
+    {
+        AliasSampler instance = new AliasSampler(new double[] {1.0, 1.0, 1.0});
+        double[] probabilities = instance.probabilities;
+        instance.setProportions(new double[] {0.0, 0.0, 7.0});
+        assertSame(probabilities, instance.probabilities);
+        assertEquals(7.0, instance.getTotal());
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals(2, instance.sampleIndex(random));
+        }
+
+        instance.setProportions(new double[] {0.0, 2.0});
+        assertEquals(2, instance.getSize());
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals(1, instance.sampleIndex(random));
+        }
+    }
+
+}
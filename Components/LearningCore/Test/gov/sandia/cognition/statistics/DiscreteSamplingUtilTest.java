@@ -153,6 +153,38 @@ public class DiscreteSamplingUtilTest
 
     }
 
+    /**
+     * Test of sampleIndicesFromProportionsInto method, of class DiscreteSamplingUtil.
+     */
+    public void testSampleIndicesFromProportionsInto()
+    {
+        double[] proportions = {0.5, 3.6, 0.0, 1.1};
+
+        int[] counts = new int[4];
+        int[] samples = new int[1000];
+        DiscreteSamplingUtil.sampleIndicesFromProportionsInto(random, proportions, samples);
+        for (int i = 0; i < samples.length; i++)
+        {
+            int index = samples[i];
+            assertTrue(index >= 0 && index < 4);
+            counts[index]++;
+        }
+
+        assertTrue(counts[0] > 0);
+        assertTrue(counts[1] > 0);
+        assertEquals(0, counts[2]);
+        assertTrue(counts[3] > 0);
+        assertTrue(counts[0] < counts[3]);
+        assertTrue(counts[3] < counts[1]);
+
+        samples = new int[1];
+        DiscreteSamplingUtil.sampleIndicesFromProportionsInto(random, new double[] {0.0, 1.0}, samples);
+        assertEquals(1, samples[0]);
+
+        samples = new int[0];
+        DiscreteSamplingUtil.sampleIndicesFromProportionsInto(random, proportions, samples);
+    }
+
     /**
      * Test of sampleIndexFromCumulativeProportions method, of class DiscreteSamplingUtil.
      */
@@ -14,6 +14,7 @@
 
 package gov.sandia.cognition.statistics.bayesian;
 
+import gov.sandia.cognition.math.MathUtil;
 import gov.sandia.cognition.math.matrix.Matrix;
 import gov.sandia.cognition.math.matrix.MatrixFactory;
 import gov.sandia.cognition.math.matrix.Vector;
@@ -23,6 +24,7 @@ import gov.sandia.cognition.statistics.bayesian.conjugate.MultivariateGaussianMe
 import gov.sandia.cognition.statistics.distribution.MultivariateGaussian;
 import gov.sandia.cognition.statistics.distribution.ScalarDataDistribution;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import junit.framework.TestCase;
 import java.util.Random;
@@ -298,5 +300,62 @@ public class DirichletProcessMixtureModelTest
 
     }
 
+    /**
+     * Computes the mean of the posterior of alpha, under a Gamma(1,1) prior,
+     * given the number of clusters, by integrating Escobar and West's
+     * Equation 13 numerically.
+     * @param numClusters
+     * Number of clusters.
+     * @param numObservations
+     * Number of observations.
+     * @return
+     * Posterior mean of alpha.
+     */
+    public static double computeAlphaPosteriorMean(
+        int numClusters,
+        int numObservations )
+    {
+        final double delta = 1e-3;
+        double total = 0.0;
+        double weightedTotal = 0.0;
+        for( double alpha = delta/2.0; alpha < 100.0; alpha += delta )
+        {
+            double p = Math.exp( -alpha + (numClusters-1.0)*Math.log(alpha)
+                + MathUtil.logGammaFunction(alpha+1.0)
+                - MathUtil.logGammaFunction(alpha+numObservations) );
+            total += p;
+            weightedTotal += alpha * p;
+        }
+        return weightedTotal / total;
+    }
+
+    /**
+     * Tests that the alpha sampler has the posterior of alpha given the
+     * number of clusters as its stationary distribution.
+     */
+    public void testUpdateAlpha()
+    {
+        System.out.println( "updateAlpha" );
+
+        // With few observations per cluster, the two shapes are about
+        // equally likely, so mistaking the odds for a probability shows.
+        final int K = 3;
+        final int N = 3;
+        DirichletProcessMixtureModel<Vector> instance = this.createInstance();
+        instance.currentParameter = new DirichletProcessMixtureModel.Sample<Vector>(
+            1.0, new ArrayList<DirichletProcessMixtureModel.DPMMCluster<Vector>>(
+                Collections.<DirichletProcessMixtureModel.DPMMCluster<Vector>>nCopies(K, null) ) );
+        double alpha = 1.0;
+        double sum = 0.0;
+        final int numIterations = 50000;
+        for( int n = 0; n < numIterations; n++ )
+        {
+            alpha = instance.updateAlpha( alpha, N );
+            sum += alpha;
+        }
+        double expected = computeAlphaPosteriorMean( K, N );
+        System.out.println( "Expected: " + expected + ", sampled: " + sum/numIterations );
+        assertEquals( expected, sum/numIterations, 0.03*expected );
+    }
 
 }
@@ -249,6 +249,26 @@ public class KalmanFilterTest
 
     }
 
+    /**
+     * Tests that measure does not change the model covariance, which the
+     * initial belief starts with.
+     */
+    public void testMeasureKeepsModelCovariance()
+    {
+        System.out.println("measure keeps model covariance");
+        KalmanFilter instance = this.createInstance();
+        Matrix expected = instance.getModelCovariance().clone();
+        MultivariateGaussian belief = instance.createInitialLearnedObject();
+        Vector measurement = VectorFactory.getDefault().createVector(
+            instance.getModel().getOutputDimensionality(), 10.0 );
+        instance.measure(belief, measurement);
+        assertEquals( expected, instance.getModelCovariance() );
+        assertFalse( expected.equals( belief.getCovariance(), 1e-10 ) );
+
+        instance.measure(belief, measurement);
+        assertEquals( expected, instance.getModelCovariance() );
+    }
+
     /**
      * Test of getModel method, of class KalmanFilter.
      */
@@ -0,0 +1,254 @@
+/*
+ * File:                ParallelArrayParticleFilterTest.java
+ * Authors:             Kevin R. Dixon
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 18, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.statistics.bayesian;
+
+import gov.sandia.cognition.statistics.bayesian.ParallelArrayParticleFilter.ResamplingMethod;
+import gov.sandia.cognition.util.AbstractCloneableSerializable;
+import java.util.ArrayList;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for ParallelArrayParticleFilter.
+ *
+ * @author krdixon
+ */
+public class ParallelArrayParticleFilterTest
+    extends TestCase
+{
+
+    /**
+     * Random number generator to use for a fixed random seed.
+     */
+    public Random RANDOM = new Random( 1 );
+
+    /**
+     * Tests for class ParallelArrayParticleFilterTest.
+     * @param testName Name of the test.
+     */
+    public ParallelArrayParticleFilterTest(
+        String testName)
+    {
+        super(testName);
+    }
+
+    /**
+     * Tests the constructors of class ParallelArrayParticleFilter.
+     */
+    public void testConstructors()
+    {
+        System.out.println( "Constructors" );
+        ParallelArrayParticleFilter<Double> instance =
+            new ParallelArrayParticleFilter<Double>();
+        assertNull( instance.getUpdater() );
+        assertEquals( ParallelArrayParticleFilter.DEFAULT_NUM_PARTICLES, instance.getNumParticles() );
+        assertEquals( ParallelArrayParticleFilter.DEFAULT_RESAMPLING_THRESHOLD, instance.getResamplingThreshold() );
+        assertEquals( ParallelArrayParticleFilter.DEFAULT_RESAMPLING_METHOD, instance.getResamplingMethod() );
+        assertNotNull( instance.getRandom() );
+
+        GaussianRandomWalkUpdater updater = new GaussianRandomWalkUpdater();
+        instance = new ParallelArrayParticleFilter<Double>( updater, 20, RANDOM );
+        assertSame( updater, instance.getUpdater() );
+        assertEquals( 20, instance.getNumParticles() );
+        assertSame( RANDOM, instance.getRandom() );
+    }
+
+    /**
+     * clone
+     */
+    public void testClone()
+    {
+        System.out.println( "Clone" );
+        ParallelArrayParticleFilter<Double> instance =
+            new ParallelArrayParticleFilter<Double>(
+                new GaussianRandomWalkUpdater(), 200, RANDOM );
+        instance.setResamplingMethod( ResamplingMethod.STRATIFIED );
+
+        ParallelArrayParticleFilter<Double> clone = instance.clone();
+        assertNotNull( clone );
+        assertNotSame( clone, instance );
+        assertSame( instance.getRandom(), clone.getRandom() );
+        assertNotSame( instance.getUpdater(), clone.getUpdater() );
+        assertEquals( instance.getNumParticles(), clone.getNumParticles() );
+        assertEquals( instance.getResamplingMethod(), clone.getResamplingMethod() );
+    }
+
+    /**
+     * computeAncestors
+     */
+    public void testComputeAncestors()
+    {
+        System.out.println( "computeAncestors" );
+
+        double[] weights = { 0.5, 0.0, 0.25, 0.25 };
+        double[] logWeights = new double[weights.length];
+        for( int i = 0; i < weights.length; i++ )
+        {
+            logWeights[i] = Math.log( weights[i] );
+        }
+
+        int[] ancestors = new int[weights.length];
+        for( ResamplingMethod method : ResamplingMethod.values() )
+        {
+            for( int trial = 0; trial < 100; trial++ )
+            {
+                ParallelArrayParticleFilter.computeAncestors(
+                    logWeights, method, RANDOM, ancestors );
+                int[] counts = new int[weights.length];
+                for( int i = 0; i < ancestors.length; i++ )
+                {
+                    counts[ancestors[i]]++;
+                    if( i > 0 )
+                    {
+                        assertTrue( ancestors[i-1] <= ancestors[i] );
+                    }
+                }
+                assertEquals( 0, counts[1] );
+
+                if( method == ResamplingMethod.SYSTEMATIC )
+                {
+                    // Systematic resampling gives each particle either the
+                    // floor or the ceiling of its expected count.
+                    assertEquals( 2, counts[0] );
+                    assertEquals( 1, counts[2] );
+                    assertEquals( 1, counts[3] );
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests tracking a constant through noisy observations.
+     */
+    public void testLearn()
+    {
+        System.out.println( "learn" );
+
+        final double truth = 3.0;
+        final int numObservations = 100;
+        ArrayList<Double> observations = new ArrayList<Double>( numObservations );
+        for( int n = 0; n < numObservations; n++ )
+        {
+            observations.add( truth + RANDOM.nextGaussian() );
+        }
+
+        for( ResamplingMethod method : ResamplingMethod.values() )
+        {
+            ParallelArrayParticleFilter<Double> instance =
+                new ParallelArrayParticleFilter<Double>(
+                    new GaussianRandomWalkUpdater(), 2000, RANDOM );
+            instance.setResamplingMethod( method );
+            ParticleArray particles = instance.learn( observations );
+
+            assertEquals( 2000, particles.getNumParticles() );
+            assertEquals( 1, particles.getDimensionality() );
+            double weightSum = 0.0;
+            for( int i = 0; i < particles.getNumParticles(); i++ )
+            {
+                weightSum += particles.getWeight(i);
+            }
+            assertEquals( 1.0, weightSum, 1e-10 );
+            assertTrue( particles.computeEffectiveParticles() >= 1.0 );
+            assertEquals( truth, particles.computeMean().getElement(0), 0.5 );
+        }
+    }
+
+    /**
+     * Tests resample
+     */
+    public void testResample()
+    {
+        System.out.println( "resample" );
+
+        ParallelArrayParticleFilter<Double> instance =
+            new ParallelArrayParticleFilter<Double>(
+                new GaussianRandomWalkUpdater(), 10, RANDOM );
+        ParticleArray particles = new ParticleArray( 10, 2 );
+        for( int i = 0; i < 10; i++ )
+        {
+            particles.getStates()[0][i] = i;
+            particles.getStates()[1][i] = -i;
+            particles.getLogWeights()[i] = (i == 7) ? 0.0 : Double.NEGATIVE_INFINITY;
+        }
+
+        double[][] before = particles.getStates();
+        instance.resample( particles );
+        assertNotSame( before, particles.getStates() );
+        for( int i = 0; i < 10; i++ )
+        {
+            assertEquals( 7.0, particles.getState(i, 0) );
+            assertEquals( -7.0, particles.getState(i, 1) );
+            assertEquals( 0.1, particles.getWeight(i), 1e-10 );
+        }
+    }
+
+    /**
+     * Random walk on a scalar with a unit-variance Gaussian observation.
+     */
+    public static class GaussianRandomWalkUpdater
+        extends AbstractCloneableSerializable
+        implements ParallelArrayParticleFilter.Updater<Double>
+    {
+
+        @Override
+        public int getDimensionality()
+        {
+            return 1;
+        }
+
+        @Override
+        public void initialize(
+            double[][] states,
+            int fromIndex,
+            int toIndex,
+            Random random)
+        {
+            for( int i = fromIndex; i < toIndex; i++ )
+            {
+                states[0][i] = 10.0 * random.nextGaussian();
+            }
+        }
+
+        @Override
+        public void update(
+            double[][] states,
+            int fromIndex,
+            int toIndex,
+            Random random)
+        {
+            for( int i = fromIndex; i < toIndex; i++ )
+            {
+                states[0][i] += 0.05 * random.nextGaussian();
+            }
+        }
+
+        @Override
+        public void addLogLikelihoods(
+            double[][] states,
+            Double observation,
+            double[] logWeights,
+            int fromIndex,
+            int toIndex)
+        {
+            for( int i = fromIndex; i < toIndex; i++ )
+            {
+                final double delta = observation - states[0][i];
+                logWeights[i] += -0.5 * delta * delta;
+            }
+        }
+
+    }
+
+}
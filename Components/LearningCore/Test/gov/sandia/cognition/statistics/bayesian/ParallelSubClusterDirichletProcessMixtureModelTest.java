@@ -0,0 +1,343 @@
+/*
+ * File:                ParallelSubClusterDirichletProcessMixtureModelTest.java
+ * Authors:             Kevin R. Dixon
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government.
+ * Export of this program may require a license from the United States
+ * Government. See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.statistics.bayesian;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.math.matrix.Matrix;
+import gov.sandia.cognition.math.matrix.MatrixFactory;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import gov.sandia.cognition.statistics.DataDistribution;
+import gov.sandia.cognition.statistics.bayesian.ParallelSubClusterDirichletProcessMixtureModel.ClusterStatistics;
+import gov.sandia.cognition.statistics.bayesian.conjugate.MultivariateGaussianMeanCovarianceBayesianEstimator;
+import gov.sandia.cognition.statistics.distribution.MultivariateGaussian;
+import gov.sandia.cognition.statistics.distribution.NormalInverseWishartDistribution;
+import java.util.ArrayList;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for ParallelSubClusterDirichletProcessMixtureModel.
+ *
+ * @author krdixon
+ */
+public class ParallelSubClusterDirichletProcessMixtureModelTest
+    extends TestCase
+{
+
+    /**
+     * Random number generator to use for a fixed random seed.
+     */
+    public final Random RANDOM = new Random( 1 );
+
+    /**
+     * Default tolerance of the regression tests, {@value}.
+     */
+    public final double TOLERANCE = 1e-8;
+
+    /**
+     * Dimensionality
+     */
+    public int DIM = 2;
+
+    /**
+     * Tests for class ParallelSubClusterDirichletProcessMixtureModelTest.
+     * @param testName Name of the test.
+     */
+    public ParallelSubClusterDirichletProcessMixtureModelTest(
+        String testName)
+    {
+        super(testName);
+    }
+
+    /**
+     * Creates observations from well-separated Gaussians.
+     * @param numClusters
+     * Number of clusters.
+     * @param numPerCluster
+     * Number of observations per cluster.
+     * @return
+     * Observations.
+     */
+    public ArrayList<Vector> createData(
+        int numClusters,
+        int numPerCluster )
+    {
+        ArrayList<Vector> data = new ArrayList<Vector>( numClusters*numPerCluster );
+        for( int k = 0; k < numClusters; k++ )
+        {
+            Vector mean = VectorFactory.getDefault().createVector(DIM);
+            mean.setElement( k % DIM, 10.0 * (k+1) );
+            Matrix C = MatrixFactory.getDefault().createIdentity(DIM, DIM).scale(0.25);
+            MultivariateGaussian g = new MultivariateGaussian(mean, C);
+            data.addAll( g.sample(RANDOM, numPerCluster) );
+        }
+        return data;
+    }
+
+    /**
+     * Tests the constructors of class ParallelSubClusterDirichletProcessMixtureModel.
+     */
+    public void testConstructors()
+    {
+        System.out.println( "Constructors" );
+
+        ParallelSubClusterDirichletProcessMixtureModel instance =
+            new ParallelSubClusterDirichletProcessMixtureModel();
+        assertNull( instance.getPrior() );
+        assertNotNull( instance.getRandom() );
+        assertEquals( ParallelSubClusterDirichletProcessMixtureModel.DEFAULT_ALPHA, instance.getInitialAlpha() );
+        assertEquals( ParallelSubClusterDirichletProcessMixtureModel.DEFAULT_NUM_INITIAL_CLUSTERS, instance.getNumInitialClusters() );
+        assertEquals( ParallelSubClusterDirichletProcessMixtureModel.DEFAULT_REESTIMATE_ALPHA, instance.getReestimateAlpha() );
+        assertEquals( ParallelSubClusterDirichletProcessMixtureModel.DEFAULT_SUB_CLUSTER_ITERATIONS, instance.getSubClusterIterations() );
+        assertNull( instance.getAssignments() );
+
+        NormalInverseWishartDistribution prior = new NormalInverseWishartDistribution(DIM);
+        instance = new ParallelSubClusterDirichletProcessMixtureModel( prior, RANDOM );
+        assertSame( prior, instance.getPrior() );
+        assertSame( RANDOM, instance.getRandom() );
+    }
+
+    /**
+     * Test of clone method, of class ParallelSubClusterDirichletProcessMixtureModel.
+     */
+    public void testClone()
+    {
+        System.out.println( "clone" );
+
+        ParallelSubClusterDirichletProcessMixtureModel instance =
+            new ParallelSubClusterDirichletProcessMixtureModel(
+                new NormalInverseWishartDistribution(DIM), RANDOM );
+        ParallelSubClusterDirichletProcessMixtureModel clone = instance.clone();
+        assertNotSame( instance, clone );
+        assertNotSame( instance.getPrior(), clone.getPrior() );
+        assertEquals( instance.getNumInitialClusters(), clone.getNumInitialClusters() );
+    }
+
+    /**
+     * Tests the incremental statistics against a batch computation.
+     */
+    public void testClusterStatistics()
+    {
+        System.out.println( "ClusterStatistics" );
+
+        ClusterStatistics empty = new ClusterStatistics(
+            new NormalInverseWishartDistribution(DIM) );
+        ArrayList<Vector> data = this.createData(2, 10);
+
+        ClusterStatistics all = empty.clone();
+        ClusterStatistics first = empty.clone();
+        ClusterStatistics second = empty.clone();
+        for( int n = 0; n < data.size(); n++ )
+        {
+            all.add( data.get(n) );
+            if( n % 3 == 0 )
+            {
+                first.add( data.get(n) );
+            }
+            else
+            {
+                second.add( data.get(n) );
+            }
+        }
+        assertEquals( data.size(), all.getCount() );
+
+        // Merging the parts gives the statistics of the whole.
+        ClusterStatistics merged = empty.clone();
+        merged.plusEquals(first);
+        merged.plusEquals(second);
+        assertEquals( all.getCount(), merged.getCount() );
+        assertTrue( all.getMean().equals( merged.getMean(), TOLERANCE ) );
+        assertEquals( all.computeLogMarginalLikelihood(),
+            merged.computeLogMarginalLikelihood(), TOLERANCE );
+
+        // Rank-one updates of the cached Cholesky factor match refactoring.
+        ClusterStatistics incremental = empty.clone();
+        incremental.getPosteriorScaleCholesky();
+        for( Vector x : data )
+        {
+            incremental.add( x );
+            assertNotNull( incremental.cholesky );
+        }
+        assertCholeskyEquals( all.clone(), incremental );
+        for( int n = data.size()-1; n >= data.size()/2; n-- )
+        {
+            incremental.remove( data.get(n) );
+        }
+        ClusterStatistics half = empty.clone();
+        for( int n = 0; n < data.size()/2; n++ )
+        {
+            half.add( data.get(n) );
+        }
+        assertEquals( half.getCount(), incremental.getCount() );
+        assertTrue( half.getMean().equals( incremental.getMean(), TOLERANCE ) );
+        assertCholeskyEquals( half, incremental );
+
+        for( int n = 0; n < data.size()/2; n++ )
+        {
+            incremental.remove( data.get(n) );
+        }
+        assertEquals( 0, incremental.getCount() );
+        assertEquals( 0.0, incremental.computeLogMarginalLikelihood(), TOLERANCE );
+
+        try
+        {
+            incremental.remove( data.get(0) );
+            fail( "Cannot remove from empty statistics" );
+        }
+        catch (IllegalStateException e)
+        {
+            System.out.println( "Good: " + e );
+        }
+    }
+
+    /**
+     * Asserts that the Cholesky factor of the given statistics matches that
+     * of a freshly computed one.
+     * @param expected
+     * Statistics to refactor.
+     * @param actual
+     * Statistics with the factor to test.
+     */
+    public void assertCholeskyEquals(
+        ClusterStatistics expected,
+        ClusterStatistics actual )
+    {
+        expected.cholesky = null;
+        double[][] e = expected.getPosteriorScaleCholesky();
+        double[][] a = actual.getPosteriorScaleCholesky();
+        for( int i = 0; i < DIM; i++ )
+        {
+            for( int j = 0; j <= i; j++ )
+            {
+                assertEquals( e[i][j], a[i][j], 1e-6 );
+            }
+        }
+    }
+
+    /**
+     * Tests the marginal likelihood of one observation against the prior
+     * predictive Student-t distribution.
+     */
+    public void testComputeLogMarginalLikelihood()
+    {
+        System.out.println( "computeLogMarginalLikelihood" );
+
+        NormalInverseWishartDistribution prior = new NormalInverseWishartDistribution(DIM);
+        prior.getGaussian().setMean( VectorFactory.getDefault().copyValues(1.0, -2.0) );
+        prior.setCovarianceDivisor( 2.0 );
+        MultivariateGaussianMeanCovarianceBayesianEstimator estimator =
+            new MultivariateGaussianMeanCovarianceBayesianEstimator( prior );
+
+        for( int trial = 0; trial < 10; trial++ )
+        {
+            Vector x = VectorFactory.getDefault().createUniformRandom(DIM, -5.0, 5.0, RANDOM);
+            ClusterStatistics statistics = new ClusterStatistics( prior );
+            statistics.add( x );
+            double expected = estimator.createPredictiveDistribution(
+                prior ).getProbabilityFunction().logEvaluate(x);
+            assertEquals( expected, statistics.computeLogMarginalLikelihood(), 1e-6 );
+        }
+    }
+
+    /**
+     * Tests learning the number of clusters starting from a single cluster.
+     */
+    public void testLearn()
+    {
+        System.out.println( "learn" );
+
+        final int numClusters = 4;
+        final int numPerCluster = 150;
+        ArrayList<Vector> data = this.createData(numClusters, numPerCluster);
+
+        ParallelSubClusterDirichletProcessMixtureModel instance =
+            new ParallelSubClusterDirichletProcessMixtureModel(
+                new NormalInverseWishartDistribution(DIM), RANDOM );
+        instance.setThreadPool( ParallelUtil.createThreadPool(2) );
+        instance.setBurnInIterations( 60 );
+        instance.setMaxIterations( 10 );
+
+        DataDistribution<ParallelSubClusterDirichletProcessMixtureModel.Sample> result =
+            instance.learn( data );
+        assertEquals( 10, result.getDomain().size() );
+        assertTrue( instance.getNumSplits() >= numClusters-1 );
+
+        ParallelSubClusterDirichletProcessMixtureModel.Sample sample =
+            instance.getCurrentParameter();
+        assertEquals( numClusters, sample.getNumClusters() );
+        int total = 0;
+        for( int count : sample.getClusterCounts() )
+        {
+            total += count;
+        }
+        assertEquals( data.size(), total );
+
+        // Each true cluster is assigned to a single cluster.
+        int[] assignments = instance.getAssignments();
+        assertEquals( data.size(), assignments.length );
+        boolean[] used = new boolean[numClusters];
+        for( int k = 0; k < numClusters; k++ )
+        {
+            int label = assignments[k*numPerCluster];
+            assertFalse( used[label] );
+            used[label] = true;
+            for( int n = 0; n < numPerCluster; n++ )
+            {
+                assertEquals( label, assignments[k*numPerCluster+n] );
+            }
+            MultivariateGaussian cluster = sample.getClusters().get(label);
+            assertEquals( 10.0*(k+1), cluster.getMean().getElement(k % DIM), 0.5 );
+        }
+
+        assertEquals( numClusters, instance.getClusterStatistics().size() );
+    }
+
+    /**
+     * Tests that the alpha sampler has the posterior of alpha given the
+     * number of clusters as its stationary distribution.
+     */
+    public void testUpdateAlpha()
+    {
+        System.out.println( "updateAlpha" );
+
+        // With few observations per cluster, the two shapes are about
+        // equally likely, so mistaking the odds for a probability shows.
+        final int K = 3;
+        final int N = 3;
+        ParallelSubClusterDirichletProcessMixtureModel instance =
+            new ParallelSubClusterDirichletProcessMixtureModel(
+                new NormalInverseWishartDistribution(DIM), RANDOM );
+        ClusterStatistics empty = new ClusterStatistics( instance.getPrior() );
+        instance.clusters = new ArrayList<ParallelSubClusterDirichletProcessMixtureModel.ClusterState>( K );
+        for( int k = 0; k < K; k++ )
+        {
+            instance.clusters.add(
+                new ParallelSubClusterDirichletProcessMixtureModel.ClusterState( empty ) );
+        }
+        double alpha = 1.0;
+        double sum = 0.0;
+        final int numIterations = 50000;
+        for( int n = 0; n < numIterations; n++ )
+        {
+            alpha = instance.updateAlpha( alpha, N );
+            sum += alpha;
+        }
+        double expected = DirichletProcessMixtureModelTest.computeAlphaPosteriorMean( K, N );
+        System.out.println( "Expected: " + expected + ", sampled: " + sum/numIterations );
+        assertEquals( expected, sum/numIterations, 0.03*expected );
+    }
+
+}
@@ -17,6 +17,7 @@ package gov.sandia.cognition.statistics.distribution;
 import gov.sandia.cognition.statistics.DataDistribution;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Random;
 import junit.framework.TestCase;
 
 /**
@@ -723,4 +724,48 @@ public class MapBasedDataHistogramTest
         assertTrue(instance.getDomain().contains("b"));
     }
 
+    public void testSample()
+    {
+        Random random = new Random(4);
+        DefaultDataDistribution<String> instance = this.createInstanceEmpty();
+        assertNull(instance.sample(random));
+
+        instance = this.createInstancePopulated();
+        int sampleCount = 10000;
+        DefaultDataDistribution<String> counts =
+            new DefaultDataDistribution<String>();
+        for (String sample : instance.sample(random, sampleCount))
+        {
+            counts.increment(sample);
+        }
+        for (String key : instance.getDomain())
+        {
+            assertEquals(instance.getFraction(key), counts.getFraction(key),
+                0.02);
+        }
+
+        // Each kind of change should be seen by the next sample.
+        instance.set("a", 0.0);
+        instance.set("b", 0.0);
+        instance.set("c", 0.0);
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals("d", instance.sample(random));
+        }
+        instance.increment("e", 100.0);
+        instance.decrement("d");
+        for (String sample : instance.sample(random, 100))
+        {
+            assertEquals("e", sample);
+        }
+        instance.compact();
+        assertEquals(1, instance.getDomainSize());
+        assertEquals("e", instance.sample(random));
+
+        DefaultDataDistribution<String> clone = instance.clone();
+        instance.clear();
+        assertNull(instance.sample(random));
+        assertEquals("e", clone.sample(random));
+    }
+
 }
@@ -21,6 +21,7 @@ import gov.sandia.cognition.math.matrix.mtj.DenseMatrixFactoryMTJ;
 import gov.sandia.cognition.math.matrix.Matrix;
 import gov.sandia.cognition.math.matrix.MatrixFactory;
 import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.decomposition.IncrementalCholeskyDecomposition;
 import gov.sandia.cognition.math.matrix.mtj.DenseMatrix;
 import gov.sandia.cognition.math.matrix.mtj.Vector3;
 import gov.sandia.cognition.math.matrix.mtj.decomposition.CholeskyDecompositionMTJ;
@@ -535,4 +536,125 @@ public class MultivariateGaussianTest
 
     }
 
+    /**
+     * Tests that the incrementally maintained Cholesky factor matches
+     * factoring the covariance.
+     */
+    public void testIncrementalEstimatorCholesky()
+    {
+        System.out.println( "Incremental Estimator Cholesky" );
+
+        MultivariateGaussian.IncrementalEstimator estimator =
+            new MultivariateGaussian.IncrementalEstimator();
+        MultivariateGaussian target = new MultivariateGaussian( 3 );
+        ArrayList<Vector> samples = target.sample(RANDOM,NUM_SAMPLES);
+
+        MultivariateGaussian.SufficientStatistic ss = estimator.learn(samples);
+        IncrementalCholeskyDecomposition cholesky = ss.getCovarianceCholesky();
+        assertNotNull( cholesky );
+        assertTrue( ss.getCovariance().equals( cholesky.computeMatrix(), TOLERANCE ) );
+
+        MultivariateGaussian result = ss.create();
+        MultivariateGaussian expected = new MultivariateGaussian(
+            result.getMean().clone(), result.getCovariance().clone() );
+        assertEquals( expected.getLogCovarianceDeterminant(),
+            result.getLogCovarianceDeterminant(), TOLERANCE );
+        assertTrue( expected.getCovarianceInverse().equals(
+            result.getCovarianceInverse(), TOLERANCE ) );
+
+        ss.clear();
+        assertNull( ss.getCovarianceCholesky() );
+    }
+
+    /**
+     * Test of rankOneUpdate method, of class MultivariateGaussian.
+     */
+    public void testRankOneUpdate()
+    {
+        System.out.println( "rankOneUpdate" );
+
+        int N = 4;
+        double range = 2.0;
+        Vector mean = VectorFactory.getDefault().createUniformRandom( N, -range, range, RANDOM );
+        Matrix sqrt = MatrixFactory.getDefault().createUniformRandom( N, N, -range, range, RANDOM );
+        Matrix covariance = sqrt.times( sqrt.transpose() ).plus(
+            MatrixFactory.getDefault().createIdentity( N, N ) );
+
+        MultivariateGaussian.PDF instance = new MultivariateGaussian.PDF(
+            mean, covariance.clone() );
+
+        // Compute the cached values first so that they get updated.
+        assertNotNull( instance.getCovarianceCholesky() );
+        instance.getCovarianceInverse();
+
+        Vector x = VectorFactory.getDefault().createUniformRandom( N, -range, range, RANDOM );
+        Vector input = VectorFactory.getDefault().createUniformRandom( N, -range, range, RANDOM );
+        for( double weight : new double[]{ 0.5, 2.0, -0.5 } )
+        {
+            instance.rankOneUpdate( x, weight );
+            covariance.plusEquals( x.outerProduct( x ).scale( weight ) );
+            MultivariateGaussian.PDF expected = new MultivariateGaussian.PDF(
+                mean, covariance.clone() );
+
+            assertTrue( covariance.equals( instance.getCovariance(), TOLERANCE ) );
+            assertTrue( covariance.equals(
+                instance.getCovarianceCholesky().computeMatrix(), TOLERANCE ) );
+            assertTrue( expected.getCovarianceInverse().equals(
+                instance.getCovarianceInverse(), TOLERANCE ) );
+            assertEquals( covariance.logDeterminant().getRealPart(),
+                instance.getLogCovarianceDeterminant(), TOLERANCE );
+            assertEquals( expected.logEvaluate( input ),
+                instance.logEvaluate( input ), TOLERANCE );
+        }
+
+        // A downdate that is not positive definite still updates the
+        // covariance.
+        instance.rankOneUpdate( x, -10.0 );
+        covariance.plusEquals( x.outerProduct( x ).scale( -10.0 ) );
+        assertTrue( covariance.equals( instance.getCovariance(), TOLERANCE ) );
+        assertNull( instance.getCovarianceCholesky() );
+
+        // The matrices given to the setters are not changed.
+        Matrix shared = MatrixFactory.getDefault().createIdentity( N, N );
+        instance.setCovariance( shared );
+        instance.getCovarianceCholesky();
+        instance.rankOneUpdate( x, 0.5 );
+        assertEquals( MatrixFactory.getDefault().createIdentity( N, N ), shared );
+        assertNotSame( shared, instance.getCovariance() );
+
+        Matrix sharedInverse = MatrixFactory.getDefault().createIdentity( N, N );
+        instance.setCovarianceInverse( sharedInverse );
+        instance.rankOneUpdate( x, 0.5 );
+        assertEquals( MatrixFactory.getDefault().createIdentity( N, N ), sharedInverse );
+    }
+
+    /**
+     * Test of the batch logEvaluate method, of class MultivariateGaussian.PDF.
+     */
+    public void testLogEvaluateBatch()
+    {
+        System.out.println( "logEvaluate batch" );
+
+        int N = 3;
+        double range = 2.0;
+        Vector mean = VectorFactory.getDefault().createUniformRandom( N, -range, range, RANDOM );
+        Matrix sqrt = MatrixFactory.getDefault().createUniformRandom( N, N, -range, range, RANDOM );
+        MultivariateGaussian.PDF instance = new MultivariateGaussian.PDF(
+            mean, sqrt.times( sqrt.transpose() ) );
+
+        ArrayList<Vector> inputs = instance.sample( RANDOM, NUM_SAMPLES );
+        double[] results = instance.logEvaluate( inputs );
+        assertEquals( inputs.size(), results.length );
+        for( int n = 0; n < inputs.size(); n++ )
+        {
+            double expected = instance.getLogLeadingCoefficient()
+                - 0.5 * inputs.get(n).minus( mean ).times(
+                    instance.getCovarianceInverse() ).dotProduct(
+                        inputs.get(n).minus( mean ) );
+            assertEquals( expected, results[n], TOLERANCE );
+        }
+
+        assertEquals( 0, instance.logEvaluate( new ArrayList<Vector>() ).length );
+    }
+
 }
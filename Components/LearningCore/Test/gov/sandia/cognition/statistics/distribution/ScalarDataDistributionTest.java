@@ -244,6 +244,50 @@ public class ScalarDataDistributionTest
         
     }
 
+    /**
+     * Test of sampleInto method with a double array, of class ScalarDataDistribution.
+     */
+    public void testSampleIntoArray()
+    {
+        System.out.println( "sampleInto double[]" );
+        ScalarDataDistribution instance = new ScalarDataDistribution(
+            Arrays.asList( 2.0, 1.0, 2.0, 1.0, 0.0 ) );
+
+        double standardError = Math.sqrt( instance.getVariance() / NUM_SAMPLES );
+        double[] result = new double[ NUM_SAMPLES ];
+        instance.sampleInto( RANDOM, result );
+        double sampleMean = 0.0;
+        for( double value : result )
+        {
+            assertTrue( instance.getDomain().contains( value ) );
+            sampleMean += value / NUM_SAMPLES;
+        }
+        assertEquals( instance.getMean(), sampleMean, standardError*2.0 );
+
+        // Changing the distribution must invalidate the cached sampler.
+        instance.clear();
+        instance.increment( 5.0 );
+        instance.sampleInto( RANDOM, result );
+        for( double value : result )
+        {
+            assertEquals( 5.0, value );
+        }
+
+        boolean exceptionThrown = false;
+        try
+        {
+            new ScalarDataDistribution().sampleInto( RANDOM, result );
+        }
+        catch( IllegalStateException e )
+        {
+            exceptionThrown = true;
+        }
+        finally
+        {
+            assertTrue( exceptionThrown );
+        }
+    }
+
     /**
      * evaluate
      */
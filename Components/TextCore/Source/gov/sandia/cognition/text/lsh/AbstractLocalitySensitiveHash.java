@@ -0,0 +1,167 @@
+/*
+ * File:                AbstractLocalitySensitiveHash.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.lsh;
+
+import gov.sandia.cognition.evaluator.Evaluator;
+import gov.sandia.cognition.util.AbstractCloneableSerializable;
+
+/**
+ * An abstract locality-sensitive hash, which maps an input to a signature
+ * such that similar inputs are likely to have similar signatures. The
+ * signature is split into bands, and each band is hashed to a key, so that
+ * two inputs that share a band key are candidates to be similar. More bands
+ * (of fewer bits or values each) find more of the similar pairs but also
+ * more dissimilar candidates.
+ *
+ * @param   <InputType>
+ *      The type of input to hash.
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public abstract class AbstractLocalitySensitiveHash<InputType>
+    extends AbstractCloneableSerializable
+    implements Evaluator<InputType, long[]>
+{
+
+    /** The multiplier used to derive hash seeds, from the golden ratio. */
+    protected static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    /** The number of bands the signature is split into. */
+    protected int bandCount;
+
+    /** The seed of the hash functions. */
+    protected long seed;
+
+    /**
+     * Creates a new {@code AbstractLocalitySensitiveHash}.
+     *
+     * @param   bandCount
+     *      The number of bands the signature is split into. Must be positive.
+     * @param   seed
+     *      The seed of the hash functions.
+     */
+    public AbstractLocalitySensitiveHash(
+        final int bandCount,
+        final long seed)
+    {
+        super();
+
+        if (bandCount <= 0)
+        {
+            throw new IllegalArgumentException("bandCount must be positive.");
+        }
+
+        this.bandCount = bandCount;
+        this.seed = seed;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public AbstractLocalitySensitiveHash<InputType> clone()
+    {
+        return (AbstractLocalitySensitiveHash<InputType>) super.clone();
+    }
+
+    /**
+     * Computes the signature of an input.
+     *
+     * @param   input
+     *      The input.
+     * @return
+     *      The signature of the input.
+     */
+    @Override
+    public abstract long[] evaluate(
+        final InputType input);
+
+    /**
+     * Computes the key of each band of a signature. The band index is part
+     * of the key, so keys of different bands never match by design.
+     *
+     * @param   signature
+     *      A signature created by this hash.
+     * @return
+     *      The key of each band.
+     */
+    public abstract long[] computeBandKeys(
+        final long[] signature);
+
+    /**
+     * Estimates the similarity of two inputs from their signatures.
+     *
+     * @param   first
+     *      The signature of the first input.
+     * @param   second
+     *      The signature of the second input.
+     * @return
+     *      The estimated similarity, between 0 and 1 for non-negative inputs.
+     */
+    public abstract double estimateSimilarity(
+        final long[] first,
+        final long[] second);
+
+    /**
+     * Computes the exact similarity that this hash estimates.
+     *
+     * @param   first
+     *      The first input.
+     * @param   second
+     *      The second input.
+     * @return
+     *      The exact similarity.
+     */
+    public abstract double computeSimilarity(
+        final InputType first,
+        final InputType second);
+
+    /**
+     * Gets the number of bands the signature is split into.
+     *
+     * @return
+     *      The number of bands.
+     */
+    public int getBandCount()
+    {
+        return this.bandCount;
+    }
+
+    /**
+     * Gets the seed of the hash functions.
+     *
+     * @return
+     *      The seed.
+     */
+    public long getSeed()
+    {
+        return this.seed;
+    }
+
+    /**
+     * Mixes the bits of a value (the MurmurHash3 64-bit finalizer).
+     *
+     * @param   value
+     *      The value to mix.
+     * @return
+     *      The mixed value.
+     */
+    protected static long mix(
+        long value)
+    {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+}
@@ -0,0 +1,427 @@
+/*
+ * File:                LocalitySensitiveHashIndex.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.lsh;
+
+import gov.sandia.cognition.algorithm.ParallelAlgorithm;
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.evaluator.Evaluator;
+import gov.sandia.cognition.util.AbstractCloneableSerializable;
+import gov.sandia.cognition.util.DefaultWeightedValue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * A concurrent index of items by the band keys of their locality-sensitive
+ * hash signatures, for finding similar items without comparing every pair.
+ * Each band key maps to a bucket of the items that have it, and the
+ * candidates for an item are the other items in any of its buckets.
+ * <BR><BR>
+ * Items can be added one at a time from any number of threads at once, or
+ * in a batch whose signatures are computed in parallel. Queries can run
+ * while items are being added. Candidates can then be filtered by the
+ * similarity estimated from their signatures, or by the exact similarity of
+ * their inputs, which the index does not store but can look up by key.
+ * Buckets are removed when their last item is removed.
+ *
+ * @param   <KeyType>
+ *      The type of key that identifies an item, such as a document
+ *      identifier.
+ * @param   <InputType>
+ *      The type of input that is hashed.
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class LocalitySensitiveHashIndex<KeyType, InputType>
+    extends AbstractCloneableSerializable
+    implements ParallelAlgorithm
+{
+
+    /** The locality-sensitive hash. */
+    protected AbstractLocalitySensitiveHash<InputType> hash;
+
+    /** The signature of each item. */
+    protected ConcurrentHashMap<KeyType, long[]> signatures;
+
+    /** The items with each band key. */
+    protected ConcurrentHashMap<Long, Set<KeyType>> buckets;
+
+    /** The thread pool to use. */
+    private transient ThreadPoolExecutor threadPool;
+
+    /**
+     * Creates a new, empty {@code LocalitySensitiveHashIndex}.
+     *
+     * @param   hash
+     *      The locality-sensitive hash to use.
+     */
+    public LocalitySensitiveHashIndex(
+        final AbstractLocalitySensitiveHash<InputType> hash)
+    {
+        super();
+
+        this.hash = hash;
+        this.signatures = new ConcurrentHashMap<KeyType, long[]>();
+        this.buckets = new ConcurrentHashMap<Long, Set<KeyType>>();
+        this.setThreadPool(null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public LocalitySensitiveHashIndex<KeyType, InputType> clone()
+    {
+        final LocalitySensitiveHashIndex<KeyType, InputType> clone =
+            (LocalitySensitiveHashIndex<KeyType, InputType>) super.clone();
+        clone.signatures = new ConcurrentHashMap<KeyType, long[]>(
+            this.signatures);
+        clone.buckets = new ConcurrentHashMap<Long, Set<KeyType>>();
+        for (Map.Entry<Long, Set<KeyType>> entry : this.buckets.entrySet())
+        {
+            final Set<KeyType> bucket = ConcurrentHashMap.newKeySet();
+            bucket.addAll(entry.getValue());
+            clone.buckets.put(entry.getKey(), bucket);
+        }
+        return clone;
+    }
+
+    /**
+     * Adds an item to the index, replacing any item with the same key. Items
+     * with different keys can be added from many threads at once.
+     *
+     * @param   key
+     *      The key of the item.
+     * @param   input
+     *      The input to hash.
+     * @return
+     *      The signature of the item.
+     */
+    public long[] add(
+        final KeyType key,
+        final InputType input)
+    {
+        final long[] signature = this.hash.evaluate(input);
+        this.add(key, signature);
+        return signature;
+    }
+
+    /**
+     * Adds an item to the index by its signature, replacing any item with
+     * the same key.
+     *
+     * @param   key
+     *      The key of the item.
+     * @param   signature
+     *      The signature of the item, created by the hash of this index.
+     */
+    public void add(
+        final KeyType key,
+        final long[] signature)
+    {
+        this.remove(key);
+        this.signatures.put(key, signature);
+        for (long bandKey : this.hash.computeBandKeys(signature))
+        {
+            // The item is added inside compute so that a concurrent remove
+            // cannot drop the bucket between finding it and adding to it.
+            this.buckets.compute(bandKey, (k, bucket) ->
+            {
+                final Set<KeyType> result = (bucket == null)
+                    ? ConcurrentHashMap.<KeyType>newKeySet() : bucket;
+                result.add(key);
+                return result;
+            });
+        }
+    }
+
+    /**
+     * Adds a batch of items to the index, computing their signatures in
+     * parallel on the thread pool.
+     *
+     * @param   inputs
+     *      The inputs to hash, by key.
+     */
+    public void addAll(
+        final Map<? extends KeyType, ? extends InputType> inputs)
+    {
+        final List<Map.Entry<? extends KeyType, ? extends InputType>> entries =
+            new ArrayList<Map.Entry<? extends KeyType, ? extends InputType>>(
+                inputs.entrySet());
+        final int blockCount = Math.max(1, Math.min(entries.size(),
+            4 * this.getNumThreads()));
+        final ArrayList<Callable<Void>> tasks =
+            new ArrayList<Callable<Void>>(blockCount);
+        for (int b = 0; b < blockCount; b++)
+        {
+            final int start = (int) ((long) b * entries.size() / blockCount);
+            final int end =
+                (int) ((long) (b + 1) * entries.size() / blockCount);
+            tasks.add(() ->
+            {
+                for (int i = start; i < end; i++)
+                {
+                    this.add(entries.get(i).getKey(),
+                        entries.get(i).getValue());
+                }
+                return null;
+            });
+        }
+
+        try
+        {
+            ParallelUtil.executeInParallel(tasks, this.getThreadPool());
+        }
+        catch (Exception ex)
+        {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Removes an item from the index.
+     *
+     * @param   key
+     *      The key of the item.
+     * @return
+     *      True if the item was in the index.
+     */
+    public boolean remove(
+        final KeyType key)
+    {
+        final long[] signature = this.signatures.remove(key);
+        if (signature == null)
+        {
+            return false;
+        }
+
+        for (long bandKey : this.hash.computeBandKeys(signature))
+        {
+            this.buckets.computeIfPresent(bandKey, (k, bucket) ->
+            {
+                bucket.remove(key);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Gets the candidates to be similar to an input: the items that share
+     * at least one band key with it.
+     *
+     * @param   input
+     *      The input.
+     * @return
+     *      The keys of the candidate items.
+     */
+    public Set<KeyType> getCandidates(
+        final InputType input)
+    {
+        return this.getCandidates(this.hash.evaluate(input));
+    }
+
+    /**
+     * Gets the candidates to be similar to a signature: the items that share
+     * at least one band key with it.
+     *
+     * @param   signature
+     *      The signature.
+     * @return
+     *      The keys of the candidate items.
+     */
+    public Set<KeyType> getCandidates(
+        final long[] signature)
+    {
+        final LinkedHashSet<KeyType> result = new LinkedHashSet<KeyType>();
+        for (long bandKey : this.hash.computeBandKeys(signature))
+        {
+            final Set<KeyType> bucket = this.buckets.get(bandKey);
+            if (bucket != null)
+            {
+                result.addAll(bucket);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the items that are candidates to be similar to an input and whose
+     * estimated similarity is at least a minimum.
+     *
+     * @param   input
+     *      The input.
+     * @param   minimumSimilarity
+     *      The minimum estimated similarity.
+     * @return
+     *      The keys of the similar items weighted by their estimated
+     *      similarity, from most to least similar.
+     */
+    public List<DefaultWeightedValue<KeyType>> findSimilar(
+        final InputType input,
+        final double minimumSimilarity)
+    {
+        final long[] signature = this.hash.evaluate(input);
+        final List<DefaultWeightedValue<KeyType>> result =
+            new ArrayList<DefaultWeightedValue<KeyType>>();
+        for (KeyType key : this.getCandidates(signature))
+        {
+            final long[] other = this.signatures.get(key);
+            if (other != null)
+            {
+                final double similarity =
+                    this.hash.estimateSimilarity(signature, other);
+                if (similarity >= minimumSimilarity)
+                {
+                    result.add(new DefaultWeightedValue<KeyType>(key,
+                        similarity));
+                }
+            }
+        }
+        Collections.sort(result, (a, b) ->
+            Double.compare(b.getWeight(), a.getWeight()));
+        return result;
+    }
+
+    /**
+     * Finds the items that are candidates to be similar to an input and whose
+     * exact similarity to it, computed by the hash, is at least a minimum.
+     * The index only stores signatures, so the inputs of the candidates are
+     * looked up by their keys.
+     *
+     * @param   input
+     *      The input.
+     * @param   minimumSimilarity
+     *      The minimum exact similarity.
+     * @param   inputs
+     *      Looks up the input of an item by its key. Items whose input is
+     *      null are skipped.
+     * @return
+     *      The keys of the similar items weighted by their exact similarity,
+     *      from most to least similar.
+     */
+    public List<DefaultWeightedValue<KeyType>> findSimilarExact(
+        final InputType input,
+        final double minimumSimilarity,
+        final Evaluator<? super KeyType, ? extends InputType> inputs)
+    {
+        final List<DefaultWeightedValue<KeyType>> result =
+            new ArrayList<DefaultWeightedValue<KeyType>>();
+        for (KeyType key : this.getCandidates(input))
+        {
+            final InputType other = inputs.evaluate(key);
+            if (other != null)
+            {
+                final double similarity =
+                    this.hash.computeSimilarity(input, other);
+                if (similarity >= minimumSimilarity)
+                {
+                    result.add(new DefaultWeightedValue<KeyType>(key,
+                        similarity));
+                }
+            }
+        }
+        Collections.sort(result, (a, b) ->
+            Double.compare(b.getWeight(), a.getWeight()));
+        return result;
+    }
+
+    /**
+     * Gets the signature of an item.
+     *
+     * @param   key
+     *      The key of the item.
+     * @return
+     *      The signature of the item, or null if it is not in the index.
+     */
+    public long[] getSignature(
+        final KeyType key)
+    {
+        return this.signatures.get(key);
+    }
+
+    /**
+     * Gets the keys of the items in the index.
+     *
+     * @return
+     *      An unmodifiable view of the keys.
+     */
+    public Set<KeyType> getKeys()
+    {
+        return Collections.unmodifiableSet(this.signatures.keySet());
+    }
+
+    /**
+     * Gets the number of items in the index.
+     *
+     * @return
+     *      The number of items.
+     */
+    public int size()
+    {
+        return this.signatures.size();
+    }
+
+    /**
+     * Gets the number of buckets (distinct band keys) in the index.
+     *
+     * @return
+     *      The number of buckets.
+     */
+    public int getBucketCount()
+    {
+        return this.buckets.size();
+    }
+
+    /**
+     * Gets the locality-sensitive hash.
+     *
+     * @return
+     *      The locality-sensitive hash.
+     */
+    public AbstractLocalitySensitiveHash<InputType> getHash()
+    {
+        return this.hash;
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool()
+    {
+        if (this.threadPool == null)
+        {
+            this.setThreadPool(ParallelUtil.createThreadPool());
+        }
+
+        return this.threadPool;
+    }
+
+    @Override
+    public void setThreadPool(
+        final ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
+    @Override
+    public int getNumThreads()
+    {
+        return ParallelUtil.getNumThreads(this.getThreadPool());
+    }
+
+}
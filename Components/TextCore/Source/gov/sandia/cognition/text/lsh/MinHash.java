@@ -0,0 +1,418 @@
+/*
+ * File:                MinHash.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.lsh;
+
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationReferences;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.hash.FNV1a64Hash;
+import gov.sandia.cognition.text.term.Termable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * MinHash signatures of the shingles (runs of consecutive terms) of a
+ * document, for estimating the Jaccard similarity of the shingle sets of two
+ * documents. Each value of the signature is the minimum over the shingles of
+ * a different hash function, and the probability that two documents have the
+ * same value is their Jaccard similarity.
+ * <BR><BR>
+ * For banding, the signature of {@code hashCount} values is split into
+ * {@code bandCount} bands of r = hashCount / bandCount values each. Two
+ * documents with Jaccard similarity s share at least one band with
+ * probability 1 - (1 - s^r)^bandCount, which is close to a step at about
+ * (1 / bandCount)^(1 / r). The default of 128 values in 32 bands of 4 finds
+ * most pairs above a similarity of 0.5.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+@PublicationReferences(
+    references={
+        @PublicationReference(
+            author="Andrei Z. Broder",
+            title="On the resemblance and containment of documents",
+            year=1997,
+            type=PublicationType.Conference,
+            publication="Proceedings of Compression and Complexity of Sequences",
+            pages={21, 29}
+        ),
+        @PublicationReference(
+            author={"Jure Leskovec", "Anand Rajaraman", "Jeffrey D. Ullman"},
+            title="Mining of Massive Datasets, Chapter 3: Finding Similar Items",
+            year=2014,
+            type=PublicationType.Book,
+            publication="Cambridge University Press",
+            pages={73, 130},
+            url="http://www.mmds.org/"
+        )
+    }
+)
+public class MinHash
+    extends AbstractLocalitySensitiveHash<Iterable<? extends Termable>>
+{
+
+    /** The default number of hash values in a signature is {@value}. */
+    public static final int DEFAULT_HASH_COUNT = 128;
+
+    /** The default number of bands is {@value}. */
+    public static final int DEFAULT_BAND_COUNT = 32;
+
+    /** The default number of terms in a shingle is {@value}. */
+    public static final int DEFAULT_SHINGLE_SIZE = 3;
+
+    /** The number of hash values in a signature. */
+    protected int hashCount;
+
+    /** The number of terms in a shingle. */
+    protected int shingleSize;
+
+    /** The seed of each hash function. */
+    protected long[] hashSeeds;
+
+    /**
+     * Creates a new {@code MinHash} with default parameters.
+     */
+    public MinHash()
+    {
+        this(DEFAULT_HASH_COUNT, DEFAULT_BAND_COUNT, DEFAULT_SHINGLE_SIZE, 0L);
+    }
+
+    /**
+     * Creates a new {@code MinHash}.
+     *
+     * @param   hashCount
+     *      The number of hash values in a signature. Must be positive.
+     * @param   bandCount
+     *      The number of bands. Must be between 1 and the hash count.
+     * @param   shingleSize
+     *      The number of terms in a shingle. Must be positive.
+     * @param   seed
+     *      The seed of the hash functions. Signatures can only be compared
+     *      if they were made with the same parameters and seed.
+     */
+    public MinHash(
+        final int hashCount,
+        final int bandCount,
+        final int shingleSize,
+        final long seed)
+    {
+        super(bandCount, seed);
+
+        if (hashCount < bandCount)
+        {
+            throw new IllegalArgumentException(
+                "hashCount must be at least bandCount.");
+        }
+        if (shingleSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                "shingleSize must be positive.");
+        }
+
+        this.hashCount = hashCount;
+        this.shingleSize = shingleSize;
+        this.hashSeeds = new long[hashCount];
+        for (int i = 0; i < hashCount; i++)
+        {
+            this.hashSeeds[i] = mix(seed + (i + 1) * GOLDEN);
+        }
+    }
+
+    @Override
+    public MinHash clone()
+    {
+        // The seeds never change, so they can be shared.
+        return (MinHash) super.clone();
+    }
+
+    @Override
+    public long[] evaluate(
+        final Iterable<? extends Termable> terms)
+    {
+        final long[] signature = new long[this.hashCount];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        final ShingleHasher shingles = new ShingleHasher(this.shingleSize);
+        for (Termable term : terms)
+        {
+            if (shingles.add(term))
+            {
+                this.update(signature, shingles.getHash());
+            }
+        }
+        if (shingles.isShort())
+        {
+            // A document shorter than a shingle is one shingle.
+            this.update(signature, shingles.getHash());
+        }
+        return signature;
+    }
+
+    /**
+     * Updates a signature with a shingle.
+     *
+     * @param   signature
+     *      The signature.
+     * @param   shingle
+     *      The hash of the shingle.
+     */
+    protected void update(
+        final long[] signature,
+        final long shingle)
+    {
+        for (int i = 0; i < signature.length; i++)
+        {
+            final long value = mix(shingle ^ this.hashSeeds[i]);
+            if (value < signature[i])
+            {
+                signature[i] = value;
+            }
+        }
+    }
+
+    /**
+     * Computes the distinct hashes of the shingles of a document.
+     *
+     * @param   terms
+     *      The terms of the document.
+     * @return
+     *      The sorted, distinct shingle hashes.
+     */
+    public long[] computeShingles(
+        final Iterable<? extends Termable> terms)
+    {
+        long[] result = new long[16];
+        int count = 0;
+        final ShingleHasher shingles = new ShingleHasher(this.shingleSize);
+        for (Termable term : terms)
+        {
+            if (shingles.add(term))
+            {
+                if (count == result.length)
+                {
+                    result = Arrays.copyOf(result, 2 * count);
+                }
+                result[count++] = shingles.getHash();
+            }
+        }
+        if (shingles.isShort())
+        {
+            result[count++] = shingles.getHash();
+        }
+
+        Arrays.sort(result, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++)
+        {
+            if (distinct == 0 || result[i] != result[distinct - 1])
+            {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    @Override
+    public long[] computeBandKeys(
+        final long[] signature)
+    {
+        final int rows = this.hashCount / this.bandCount;
+        final long[] result = new long[this.bandCount];
+        for (int b = 0; b < this.bandCount; b++)
+        {
+            long key = mix(this.seed + b);
+            for (int r = b * rows; r < (b + 1) * rows; r++)
+            {
+                key = mix(key * 31 + signature[r]);
+            }
+            result[b] = key;
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of the shingles of two documents as
+     * the fraction of their signature values that are equal.
+     *
+     * @param   first
+     *      The signature of the first document.
+     * @param   second
+     *      The signature of the second document.
+     * @return
+     *      The estimated Jaccard similarity.
+     */
+    @Override
+    public double estimateSimilarity(
+        final long[] first,
+        final long[] second)
+    {
+        int equal = 0;
+        for (int i = 0; i < first.length; i++)
+        {
+            if (first[i] == second[i])
+            {
+                equal++;
+            }
+        }
+        return (double) equal / first.length;
+    }
+
+    /**
+     * Computes the exact Jaccard similarity of the shingles of two
+     * documents.
+     *
+     * @param   first
+     *      The terms of the first document.
+     * @param   second
+     *      The terms of the second document.
+     * @return
+     *      The Jaccard similarity of their shingle sets, or 1 if both are
+     *      empty.
+     */
+    @Override
+    public double computeSimilarity(
+        final Iterable<? extends Termable> first,
+        final Iterable<? extends Termable> second)
+    {
+        final long[] a = this.computeShingles(first);
+        final long[] b = this.computeShingles(second);
+        int i = 0;
+        int j = 0;
+        int intersection = 0;
+        while (i < a.length && j < b.length)
+        {
+            if (a[i] == b[j])
+            {
+                intersection++;
+                i++;
+                j++;
+            }
+            else if (a[i] < b[j])
+            {
+                i++;
+            }
+            else
+            {
+                j++;
+            }
+        }
+        final int union = a.length + b.length - intersection;
+        return union == 0 ? 1.0 : (double) intersection / union;
+    }
+
+    /**
+     * Gets the number of hash values in a signature.
+     *
+     * @return
+     *      The number of hash values.
+     */
+    public int getHashCount()
+    {
+        return this.hashCount;
+    }
+
+    /**
+     * Gets the number of terms in a shingle.
+     *
+     * @return
+     *      The shingle size.
+     */
+    public int getShingleSize()
+    {
+        return this.shingleSize;
+    }
+
+    /**
+     * Hashes the shingles of a stream of terms by keeping the hashes of the
+     * last few terms.
+     */
+    protected static class ShingleHasher
+    {
+
+        /** The hashes of the last terms, as a ring. */
+        protected final long[] termHashes;
+
+        /** The number of terms seen. */
+        protected long termCount;
+
+        /**
+         * Creates a new {@code ShingleHasher}.
+         *
+         * @param   shingleSize
+         *      The number of terms in a shingle.
+         */
+        protected ShingleHasher(
+            final int shingleSize)
+        {
+            super();
+
+            this.termHashes = new long[shingleSize];
+            this.termCount = 0;
+        }
+
+        /**
+         * Adds the next term.
+         *
+         * @param   term
+         *      The term.
+         * @return
+         *      True if a full shingle ends at the term.
+         */
+        protected boolean add(
+            final Termable term)
+        {
+            final byte[] name =
+                term.asTerm().getName().getBytes(StandardCharsets.UTF_8);
+            this.termHashes[(int) (this.termCount % this.termHashes.length)] =
+                FNV1a64Hash.hash(name);
+            this.termCount++;
+            return this.termCount >= this.termHashes.length;
+        }
+
+        /**
+         * Determines if there were some terms, but fewer than a shingle.
+         *
+         * @return
+         *      True if the terms are shorter than a shingle.
+         */
+        protected boolean isShort()
+        {
+            return this.termCount > 0
+                && this.termCount < this.termHashes.length;
+        }
+
+        /**
+         * Gets the hash of the shingle of the last terms, in order.
+         *
+         * @return
+         *      The hash of the shingle.
+         */
+        protected long getHash()
+        {
+            final int size = this.termHashes.length;
+            final int count = (int) Math.min(this.termCount, size);
+            long result = count;
+            for (int i = 0; i < count; i++)
+            {
+                final long index = this.termCount - count + i;
+                result = mix(result * GOLDEN + this.termHashes[
+                    (int) (index % size)]);
+            }
+            return result;
+        }
+
+    }
+
+}
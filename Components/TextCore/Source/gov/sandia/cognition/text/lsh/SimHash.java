@@ -0,0 +1,240 @@
+/*
+ * File:                SimHash.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.lsh;
+
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorEntry;
+import gov.sandia.cognition.math.matrix.Vectorizable;
+import gov.sandia.cognition.text.term.vector.CosineSimilarityFunction;
+
+/**
+ * SimHash fingerprints of term vectors, for estimating the cosine similarity
+ * of two documents. Each bit of the fingerprint is the sign of the projection
+ * of the vector onto a random hyperplane, where the random +1/-1 component of
+ * each term is computed from a hash of the term index, so no projection
+ * matrix is stored. Two vectors at angle theta differ in each bit with
+ * probability theta / pi.
+ * <BR><BR>
+ * For banding, the bits are split into {@code bandCount} bands of
+ * consecutive bits. Two documents whose fingerprints differ in fewer bits
+ * than the number of bands must share a band, so, for instance, 64 bits in 4
+ * bands finds every pair that differs in at most 3 bits.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+@PublicationReference(
+    author="Moses S. Charikar",
+    title="Similarity estimation techniques from rounding algorithms",
+    year=2002,
+    type=PublicationType.Conference,
+    publication="Proceedings of the 34th Annual ACM Symposium on Theory of Computing",
+    pages={380, 388}
+)
+public class SimHash
+    extends AbstractLocalitySensitiveHash<Vectorizable>
+{
+
+    /** The default number of bits in a fingerprint is {@value}. */
+    public static final int DEFAULT_BIT_COUNT = 64;
+
+    /** The default number of bands is {@value}. */
+    public static final int DEFAULT_BAND_COUNT = 4;
+
+    /** The number of bits in a fingerprint. */
+    protected int bitCount;
+
+    /**
+     * Creates a new {@code SimHash} with default parameters.
+     */
+    public SimHash()
+    {
+        this(DEFAULT_BIT_COUNT, DEFAULT_BAND_COUNT, 0L);
+    }
+
+    /**
+     * Creates a new {@code SimHash}.
+     *
+     * @param   bitCount
+     *      The number of bits in a fingerprint. Must be a positive multiple
+     *      of 64.
+     * @param   bandCount
+     *      The number of bands. Must be between 1 and the bit count.
+     * @param   seed
+     *      The seed of the hash functions. Fingerprints can only be compared
+     *      if they were made with the same parameters and seed.
+     */
+    public SimHash(
+        final int bitCount,
+        final int bandCount,
+        final long seed)
+    {
+        super(bandCount, seed);
+
+        if (bitCount <= 0 || bitCount % 64 != 0)
+        {
+            throw new IllegalArgumentException(
+                "bitCount must be a positive multiple of 64.");
+        }
+        if (bitCount < bandCount)
+        {
+            throw new IllegalArgumentException(
+                "bitCount must be at least bandCount.");
+        }
+
+        this.bitCount = bitCount;
+    }
+
+    @Override
+    public SimHash clone()
+    {
+        return (SimHash) super.clone();
+    }
+
+    @Override
+    public long[] evaluate(
+        final Vectorizable input)
+    {
+        final Vector vector = input.convertToVector();
+        final int wordCount = this.bitCount / 64;
+        final double[] sums = new double[this.bitCount];
+        for (VectorEntry entry : vector)
+        {
+            final double value = entry.getValue();
+            if (value == 0.0)
+            {
+                continue;
+            }
+
+            final long termHash = mix(this.seed + entry.getIndex() * GOLDEN);
+            for (int w = 0; w < wordCount; w++)
+            {
+                final long bits = w == 0 ? termHash : mix(termHash + w);
+                for (int b = 0; b < 64; b++)
+                {
+                    if (((bits >>> b) & 1L) != 0L)
+                    {
+                        sums[64 * w + b] += value;
+                    }
+                    else
+                    {
+                        sums[64 * w + b] -= value;
+                    }
+                }
+            }
+        }
+
+        final long[] fingerprint = new long[wordCount];
+        for (int i = 0; i < this.bitCount; i++)
+        {
+            if (sums[i] > 0.0)
+            {
+                fingerprint[i / 64] |= 1L << (i % 64);
+            }
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public long[] computeBandKeys(
+        final long[] fingerprint)
+    {
+        final long[] result = new long[this.bandCount];
+        for (int band = 0; band < this.bandCount; band++)
+        {
+            final int start = (int) ((long) band * this.bitCount
+                / this.bandCount);
+            final int end = (int) ((long) (band + 1) * this.bitCount
+                / this.bandCount);
+            long key = mix(this.seed + band);
+            long bits = 0L;
+            for (int i = start; i < end; i++)
+            {
+                bits = (bits << 1) | ((fingerprint[i / 64] >>> (i % 64)) & 1L);
+                if ((i - start) % 64 == 63)
+                {
+                    key = mix(key * 31 + bits);
+                    bits = 0L;
+                }
+            }
+            result[band] = mix(key * 31 + bits);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of bits that differ between two fingerprints.
+     *
+     * @param   first
+     *      The first fingerprint.
+     * @param   second
+     *      The second fingerprint.
+     * @return
+     *      The Hamming distance between the fingerprints.
+     */
+    public int computeHammingDistance(
+        final long[] first,
+        final long[] second)
+    {
+        int result = 0;
+        for (int i = 0; i < first.length; i++)
+        {
+            result += Long.bitCount(first[i] ^ second[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the cosine similarity of two vectors as the cosine of the
+     * angle estimated from the fraction of different bits.
+     *
+     * @param   first
+     *      The fingerprint of the first vector.
+     * @param   second
+     *      The fingerprint of the second vector.
+     * @return
+     *      The estimated cosine similarity.
+     */
+    @Override
+    public double estimateSimilarity(
+        final long[] first,
+        final long[] second)
+    {
+        return Math.cos(Math.PI * this.computeHammingDistance(first, second)
+            / this.bitCount);
+    }
+
+    @Override
+    public double computeSimilarity(
+        final Vectorizable first,
+        final Vectorizable second)
+    {
+        return CosineSimilarityFunction.getInstance().evaluate(first, second);
+    }
+
+    /**
+     * Gets the number of bits in a fingerprint.
+     *
+     * @return
+     *      The number of bits.
+     */
+    public int getBitCount()
+    {
+        return this.bitCount;
+    }
+
+}
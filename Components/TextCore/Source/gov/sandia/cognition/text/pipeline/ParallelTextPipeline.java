@@ -0,0 +1,786 @@
+/*
+ * File:                ParallelTextPipeline.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.pipeline;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.evaluator.Evaluator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs a chain of processing stages over a stream of items (typically
+ * documents) using a pool of worker threads. It is intended for the text
+ * processing stack, for instance:
+ * <pre>
+ *     ParallelTextPipeline.&lt;Textual&gt;create()
+ *         .then("tokenize", tokenizer::tokenize)
+ *         .then("lowercase", lowerCase::filterTerms)
+ *         .then("stem", stemmer::filterTerms)
+ *         .thenSerial("index", terms -&gt; ...)
+ *         .then("weight", weighter::evaluate)
+ * </pre>
+ * <BR><BR>
+ * Parallel stages are run on many items at once. Serial stages are run on
+ * one item at a time in the order of the input, so they can safely update
+ * shared state such as a {@code TermIndex} or a {@code GlobalTermWeighter}.
+ * Thus, as long as the parallel stages are thread-safe functions of their
+ * input, the output is identical to running the stages serially on each
+ * item in turn. The output can be delivered in input order or, when order
+ * does not matter, as soon as each item is done. A stage can drop an item by
+ * returning null.
+ * <BR><BR>
+ * No threads wait on queues between stages: each item is carried through
+ * consecutive parallel stages by one task on the thread pool and handed to a
+ * serial stage's reordering buffer, where whichever thread completes the
+ * next item in order runs the serial stage. The number of items in the
+ * pipeline at once is bounded, so reading the input blocks (backpressure)
+ * when the later stages fall behind, and memory use stays bounded no matter
+ * how long the input is.
+ * <BR><BR>
+ * Each stage counts the items it processes and the time it takes, so the
+ * bottleneck stage can be found.
+ *
+ * @param   <InputType>
+ *      The type of input to the pipeline.
+ * @param   <OutputType>
+ *      The type of output from the pipeline.
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class ParallelTextPipeline<InputType, OutputType>
+{
+
+    /** The default maximum number of items in the pipeline at once, {@value}. */
+    public static final int DEFAULT_MAXIMUM_IN_FLIGHT = 1024;
+
+    /** The stages of the pipeline, in order. */
+    protected ArrayList<PipelineStage<?, ?>> stages;
+
+    /** True if the output is delivered in the order of the input. */
+    protected boolean ordered;
+
+    /** The maximum number of items in the pipeline at once. */
+    protected int maximumInFlight;
+
+    /** The thread pool to run on. */
+    protected ThreadPoolExecutor threadPool;
+
+    /** The number of items read in the last run. */
+    protected long inputCount;
+
+    /** The number of items output in the last run. */
+    protected long outputCount;
+
+    /** The time the last run took, in seconds. */
+    protected double elapsedTime;
+
+    /**
+     * Creates a new, empty {@code ParallelTextPipeline}. Use {@link #create()}
+     * to create an empty pipeline with the right types.
+     */
+    protected ParallelTextPipeline()
+    {
+        super();
+
+        this.stages = new ArrayList<PipelineStage<?, ?>>();
+        this.ordered = true;
+        this.maximumInFlight = DEFAULT_MAXIMUM_IN_FLIGHT;
+        this.threadPool = null;
+        this.inputCount = 0;
+        this.outputCount = 0;
+        this.elapsedTime = 0.0;
+    }
+
+    /**
+     * Creates a new pipeline with no stages, which outputs its input.
+     *
+     * @param   <InputType>
+     *      The type of input to the pipeline.
+     * @return
+     *      A new, empty pipeline.
+     */
+    public static <InputType> ParallelTextPipeline<InputType, InputType> create()
+    {
+        return new ParallelTextPipeline<InputType, InputType>();
+    }
+
+    /**
+     * Creates a new pipeline that is this one followed by a parallel stage.
+     * The function is called on many items at once, so it must be
+     * thread-safe. This pipeline is not changed.
+     *
+     * @param   <NextType>
+     *      The output type of the new stage.
+     * @param   name
+     *      The name of the stage.
+     * @param   function
+     *      The function to apply to each item. It may return null to drop
+     *      the item.
+     * @return
+     *      The new pipeline.
+     */
+    public <NextType> ParallelTextPipeline<InputType, NextType> then(
+        final String name,
+        final Evaluator<? super OutputType, ? extends NextType> function)
+    {
+        return this.then(new PipelineStage<OutputType, NextType>(
+            name, function, false));
+    }
+
+    /**
+     * Creates a new pipeline that is this one followed by a serial stage.
+     * The function is called on one item at a time in the order of the
+     * input, so it can update shared state. This pipeline is not changed.
+     *
+     * @param   <NextType>
+     *      The output type of the new stage.
+     * @param   name
+     *      The name of the stage.
+     * @param   function
+     *      The function to apply to each item. It may return null to drop
+     *      the item.
+     * @return
+     *      The new pipeline.
+     */
+    public <NextType> ParallelTextPipeline<InputType, NextType> thenSerial(
+        final String name,
+        final Evaluator<? super OutputType, ? extends NextType> function)
+    {
+        return this.then(new PipelineStage<OutputType, NextType>(
+            name, function, true));
+    }
+
+    /**
+     * Creates a new pipeline that is this one followed by the given stage.
+     * This pipeline is not changed.
+     *
+     * @param   <NextType>
+     *      The output type of the new stage.
+     * @param   stage
+     *      The stage to add.
+     * @return
+     *      The new pipeline.
+     */
+    public <NextType> ParallelTextPipeline<InputType, NextType> then(
+        final PipelineStage<? super OutputType, ? extends NextType> stage)
+    {
+        final ParallelTextPipeline<InputType, NextType> result =
+            new ParallelTextPipeline<InputType, NextType>();
+        result.stages.addAll(this.stages);
+        result.stages.add(stage);
+        result.ordered = this.ordered;
+        result.maximumInFlight = this.maximumInFlight;
+        result.threadPool = this.threadPool;
+        return result;
+    }
+
+    /**
+     * Runs the pipeline on all of the given input and collects the output.
+     *
+     * @param   input
+     *      The input items. They are read on the calling thread.
+     * @return
+     *      The output items (without the dropped ones), in input order if
+     *      the pipeline is ordered.
+     */
+    public ArrayList<OutputType> evaluateAll(
+        final Iterable<? extends InputType> input)
+    {
+        final ArrayList<OutputType> result = new ArrayList<OutputType>();
+        this.process(input, result::add);
+        return result;
+    }
+
+    /**
+     * Runs the pipeline on all of the given input, passing each output item
+     * to the given consumer. The consumer is called on one item at a time
+     * (though not always from the same thread), in input order if the
+     * pipeline is ordered. This returns once all of the output has been
+     * consumed.
+     *
+     * @param   input
+     *      The input items. They are read on the calling thread, which
+     *      blocks when the maximum number of items are in the pipeline.
+     * @param   consumer
+     *      The consumer of the output items. Dropped items are not passed
+     *      to it.
+     * @throws  RuntimeException
+     *      If a stage or the consumer throws an exception. The first one is
+     *      rethrown (wrapped if it is checked) once the items already in the
+     *      pipeline are done, and no more input is read after it.
+     */
+    public void process(
+        final Iterable<? extends InputType> input,
+        final Consumer<? super OutputType> consumer)
+    {
+        final ThreadPoolExecutor pool =
+            this.getNumThreads() <= 1 ? null : this.getThreadPool();
+        final Run run = new Run(pool, consumer);
+        final long start = System.nanoTime();
+        try
+        {
+            run.run(input);
+        }
+        finally
+        {
+            this.elapsedTime = (System.nanoTime() - start) / 1e9;
+            this.inputCount = run.inputCount;
+            this.outputCount = run.outputCount.get();
+        }
+
+        final Throwable failure = run.failure.get();
+        if (failure instanceof RuntimeException)
+        {
+            throw (RuntimeException) failure;
+        }
+        else if (failure instanceof Error)
+        {
+            throw (Error) failure;
+        }
+        else if (failure != null)
+        {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    /**
+     * Resets the counters of all the stages.
+     */
+    public void resetStatistics()
+    {
+        for (PipelineStage<?, ?> stage : this.stages)
+        {
+            stage.resetStatistics();
+        }
+    }
+
+    /**
+     * Gets the stages of the pipeline, which hold the counters of how many
+     * items each stage processed and how long it took.
+     *
+     * @return
+     *      The stages of the pipeline, in order.
+     */
+    public List<PipelineStage<?, ?>> getStages()
+    {
+        return Collections.unmodifiableList(this.stages);
+    }
+
+    /**
+     * Gets the number of input items read in the last run.
+     *
+     * @return
+     *      The number of input items.
+     */
+    public long getInputCount()
+    {
+        return this.inputCount;
+    }
+
+    /**
+     * Gets the number of output items produced in the last run.
+     *
+     * @return
+     *      The number of output items.
+     */
+    public long getOutputCount()
+    {
+        return this.outputCount;
+    }
+
+    /**
+     * Gets how long the last run took.
+     *
+     * @return
+     *      The elapsed time in seconds.
+     */
+    public double getElapsedTime()
+    {
+        return this.elapsedTime;
+    }
+
+    /**
+     * Gets the number of input items processed per second in the last run.
+     *
+     * @return
+     *      The throughput in items per second.
+     */
+    public double getThroughput()
+    {
+        return this.elapsedTime <= 0.0 ? 0.0
+            : this.inputCount / this.elapsedTime;
+    }
+
+    /**
+     * Determines if the output is delivered in the order of the input.
+     *
+     * @return
+     *      True if the output is ordered.
+     */
+    public boolean isOrdered()
+    {
+        return this.ordered;
+    }
+
+    /**
+     * Sets if the output is delivered in the order of the input. If not,
+     * each item is output as soon as it is done. Serial stages always see
+     * the items in input order.
+     *
+     * @param   ordered
+     *      True if the output is ordered.
+     */
+    public void setOrdered(
+        final boolean ordered)
+    {
+        this.ordered = ordered;
+    }
+
+    /**
+     * Gets the maximum number of items in the pipeline at once.
+     *
+     * @return
+     *      The maximum number of items in flight.
+     */
+    public int getMaximumInFlight()
+    {
+        return this.maximumInFlight;
+    }
+
+    /**
+     * Sets the maximum number of items in the pipeline at once. Reading the
+     * input blocks while this many are being processed. Keeping it several
+     * times larger than the number of threads lets a slow item in a serial
+     * stage not stall the others.
+     *
+     * @param   maximumInFlight
+     *      The maximum number of items in flight. Must be positive.
+     */
+    public void setMaximumInFlight(
+        final int maximumInFlight)
+    {
+        if (maximumInFlight <= 0)
+        {
+            throw new IllegalArgumentException(
+                "maximumInFlight must be positive.");
+        }
+        this.maximumInFlight = maximumInFlight;
+    }
+
+    /**
+     * Gets the thread pool, creating one if it has not been set.
+     *
+     * @return
+     *      The thread pool.
+     */
+    public ThreadPoolExecutor getThreadPool()
+    {
+        if (this.threadPool == null)
+        {
+            this.setThreadPool(ParallelUtil.createThreadPool());
+        }
+        return this.threadPool;
+    }
+
+    /**
+     * Sets the thread pool. A pool with one thread makes the pipeline run
+     * entirely on the calling thread.
+     *
+     * @param   threadPool
+     *      The thread pool.
+     */
+    public void setThreadPool(
+        final ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * Gets the number of threads in the thread pool.
+     *
+     * @return
+     *      The number of threads.
+     */
+    public int getNumThreads()
+    {
+        return ParallelUtil.getNumThreads(this.getThreadPool());
+    }
+
+    /**
+     * A group of consecutive stages that run together: either a run of
+     * parallel stages or a single serial stage. A serial segment holds the
+     * items that arrive before their turn until the earlier ones have gone
+     * through.
+     */
+    protected static class Segment
+    {
+
+        /** The stages in the segment. */
+        protected final ArrayList<PipelineStage<Object, Object>> segmentStages;
+
+        /** True if the segment's items must be processed in input order. */
+        protected final boolean serial;
+
+        /** The index of the next item to process, for serial segments. */
+        protected long next;
+
+        /** The items waiting for their turn, for serial segments. */
+        protected final HashMap<Long, Object> pending;
+
+        /** True if a thread is processing this serial segment's items. */
+        protected boolean draining;
+
+        /**
+         * Creates a new {@code Segment}.
+         *
+         * @param   serial
+         *      True if the segment's items must be processed in input order.
+         */
+        protected Segment(
+            final boolean serial)
+        {
+            super();
+
+            this.segmentStages = new ArrayList<PipelineStage<Object, Object>>();
+            this.serial = serial;
+            this.next = 0;
+            this.pending = new HashMap<Long, Object>();
+            this.draining = false;
+        }
+
+    }
+
+    /**
+     * The state of one run of the pipeline.
+     */
+    protected class Run
+    {
+
+        /** The thread pool, or null to run on the calling thread. */
+        protected final ThreadPoolExecutor pool;
+
+        /** The consumer of the output. */
+        protected final Consumer<? super OutputType> consumer;
+
+        /** The segments of the pipeline. */
+        protected final Segment[] segments;
+
+        /** Limits the number of items in the pipeline at once. */
+        protected final Semaphore inFlight;
+
+        /** The first exception thrown by a stage or the consumer. */
+        protected final AtomicReference<Throwable> failure;
+
+        /** The number of input items read. */
+        protected long inputCount;
+
+        /** The number of output items consumed. */
+        protected final AtomicLong outputCount;
+
+        /**
+         * Creates a new {@code Run}.
+         *
+         * @param   pool
+         *      The thread pool, or null to run on the calling thread.
+         * @param   consumer
+         *      The consumer of the output.
+         */
+        @SuppressWarnings("unchecked")
+        protected Run(
+            final ThreadPoolExecutor pool,
+            final Consumer<? super OutputType> consumer)
+        {
+            super();
+
+            this.pool = pool;
+            this.consumer = consumer;
+            this.inFlight = new Semaphore(maximumInFlight);
+            this.failure = new AtomicReference<Throwable>();
+            this.inputCount = 0;
+            this.outputCount = new AtomicLong();
+
+            final ArrayList<Segment> list = new ArrayList<Segment>();
+            for (PipelineStage<?, ?> stage : stages)
+            {
+                if (stage.isSerial() || list.isEmpty()
+                    || list.get(list.size() - 1).serial)
+                {
+                    list.add(new Segment(stage.isSerial()));
+                }
+                list.get(list.size() - 1).segmentStages.add(
+                    (PipelineStage<Object, Object>) stage);
+            }
+            if (ordered)
+            {
+                // An empty serial segment puts the output back in order.
+                list.add(new Segment(true));
+            }
+            this.segments = list.toArray(new Segment[list.size()]);
+        }
+
+        /**
+         * Feeds all of the input into the pipeline and waits for it to
+         * finish.
+         *
+         * @param   input
+         *      The input items.
+         */
+        protected void run(
+            final Iterable<? extends InputType> input)
+        {
+            try
+            {
+                for (InputType item : input)
+                {
+                    if (this.failure.get() != null)
+                    {
+                        break;
+                    }
+
+                    this.inFlight.acquire();
+                    final long index = this.inputCount++;
+                    this.execute(() -> this.advance(index, item, 0));
+                }
+            }
+            catch (InterruptedException e)
+            {
+                // Keep the interrupt for the caller to see.
+                Thread.currentThread().interrupt();
+                this.fail(e);
+            }
+            catch (RuntimeException e)
+            {
+                // Reading the input failed.
+                this.fail(e);
+            }
+
+            // Wait for everything in flight to finish.
+            this.inFlight.acquireUninterruptibly(maximumInFlight);
+            this.inFlight.release(maximumInFlight);
+        }
+
+        /**
+         * Carries an item through the parallel segments starting at the given
+         * one, up to the next serial segment or the end of the pipeline.
+         *
+         * @param   index
+         *      The index of the item in the input.
+         * @param   item
+         *      The item, or null if it has been dropped.
+         * @param   segmentIndex
+         *      The index of the segment to start at.
+         */
+        protected void advance(
+            final long index,
+            Object item,
+            int segmentIndex)
+        {
+            while (segmentIndex < this.segments.length
+                && !this.segments[segmentIndex].serial)
+            {
+                item = this.apply(this.segments[segmentIndex], item);
+                segmentIndex++;
+            }
+
+            if (segmentIndex < this.segments.length)
+            {
+                this.offer(this.segments[segmentIndex], segmentIndex, index,
+                    item);
+            }
+            else
+            {
+                this.finish(item);
+            }
+        }
+
+        /**
+         * Gives an item to a serial segment. If the item is next in order,
+         * the calling thread processes it and any waiting items that follow
+         * it; otherwise it waits in the segment for the thread that
+         * processes the items before it.
+         *
+         * @param   segment
+         *      The serial segment.
+         * @param   segmentIndex
+         *      The index of the segment.
+         * @param   index
+         *      The index of the item in the input.
+         * @param   item
+         *      The item, or null if it has been dropped.
+         */
+        protected void offer(
+            final Segment segment,
+            final int segmentIndex,
+            final long index,
+            final Object item)
+        {
+            synchronized (segment)
+            {
+                segment.pending.put(index, item);
+                if (segment.draining)
+                {
+                    return;
+                }
+                segment.draining = true;
+            }
+
+            while (true)
+            {
+                final long nextIndex;
+                final Object nextItem;
+                synchronized (segment)
+                {
+                    if (!segment.pending.containsKey(segment.next))
+                    {
+                        segment.draining = false;
+                        return;
+                    }
+                    nextIndex = segment.next;
+                    nextItem = segment.pending.remove(nextIndex);
+                    segment.next++;
+                }
+
+                final Object output = this.apply(segment, nextItem);
+                final int nextSegment = segmentIndex + 1;
+                if (nextSegment < this.segments.length
+                    && !this.segments[nextSegment].serial)
+                {
+                    // Let another thread do the parallel work so this one can
+                    // keep feeding the serial stage.
+                    this.execute(
+                        () -> this.advance(nextIndex, output, nextSegment));
+                }
+                else
+                {
+                    this.advance(nextIndex, output, nextSegment);
+                }
+            }
+        }
+
+        /**
+         * Runs a task on the thread pool, or on the calling thread if there
+         * is no pool or the pool does not accept it.
+         *
+         * @param   task
+         *      The task to run.
+         */
+        protected void execute(
+            final Runnable task)
+        {
+            if (this.pool != null)
+            {
+                try
+                {
+                    this.pool.execute(task);
+                    return;
+                }
+                catch (RejectedExecutionException e)
+                {
+                    // Run it here instead.
+                }
+            }
+            task.run();
+        }
+
+        /**
+         * Applies the stages of a segment to an item.
+         *
+         * @param   segment
+         *      The segment.
+         * @param   item
+         *      The item, or null if it has been dropped.
+         * @return
+         *      The output item, or null if it has been dropped or a stage
+         *      failed.
+         */
+        protected Object apply(
+            final Segment segment,
+            Object item)
+        {
+            for (PipelineStage<Object, Object> stage : segment.segmentStages)
+            {
+                if (item == null || this.failure.get() != null)
+                {
+                    return null;
+                }
+
+                try
+                {
+                    item = stage.apply(item);
+                }
+                catch (Throwable e)
+                {
+                    this.fail(e);
+                    return null;
+                }
+            }
+            return item;
+        }
+
+        /**
+         * Passes a finished item to the consumer and lets another item into
+         * the pipeline.
+         *
+         * @param   item
+         *      The item, or null if it has been dropped.
+         */
+        @SuppressWarnings("unchecked")
+        protected void finish(
+            final Object item)
+        {
+            try
+            {
+                if (item != null && this.failure.get() == null)
+                {
+                    synchronized (this.consumer)
+                    {
+                        this.consumer.accept((OutputType) item);
+                    }
+                    this.outputCount.incrementAndGet();
+                }
+            }
+            catch (Throwable e)
+            {
+                this.fail(e);
+            }
+            finally
+            {
+                this.inFlight.release();
+            }
+        }
+
+        /**
+         * Records a failure, if it is the first one.
+         *
+         * @param   e
+         *      The exception.
+         */
+        protected void fail(
+            final Throwable e)
+        {
+            this.failure.compareAndSet(null, e);
+        }
+
+    }
+
+}
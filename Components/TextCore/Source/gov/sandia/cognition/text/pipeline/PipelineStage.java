@@ -0,0 +1,230 @@
+/*
+ * File:                PipelineStage.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.pipeline;
+
+import gov.sandia.cognition.evaluator.Evaluator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One stage of a {@code ParallelTextPipeline}: a named function from the
+ * output of the previous stage to the input of the next one, along with
+ * counters of how many items it has processed and how long it took.
+ * <BR><BR>
+ * A parallel stage is called on many items at once from different threads,
+ * so its function must be thread-safe (for instance, a tokenizer or a term
+ * filter). A serial stage is called on one item at a time in the order of
+ * the pipeline's input, so it can update shared state (for instance, adding
+ * terms to a term index or documents to a global term weighter).
+ *
+ * @param   <InputType>
+ *      The type of input to the stage.
+ * @param   <OutputType>
+ *      The type of output from the stage.
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class PipelineStage<InputType, OutputType>
+{
+
+    /** The name of the stage. */
+    protected final String name;
+
+    /** The function the stage applies to each item. */
+    protected final Evaluator<? super InputType, ? extends OutputType> function;
+
+    /** True if the stage is called on one item at a time in input order. */
+    protected final boolean serial;
+
+    /** The number of items the stage has processed. */
+    protected final AtomicLong itemCount;
+
+    /** The total time spent in the stage, in nanoseconds. */
+    protected final AtomicLong totalNanoseconds;
+
+    /** The longest time spent on one item, in nanoseconds. */
+    protected final AtomicLong maximumNanoseconds;
+
+    /**
+     * Creates a new {@code PipelineStage}.
+     *
+     * @param   name
+     *      The name of the stage.
+     * @param   function
+     *      The function the stage applies to each item. It may return null
+     *      to drop the item from the rest of the pipeline.
+     * @param   serial
+     *      True if the stage must be called on one item at a time in input
+     *      order; false if it can be called on many items at once.
+     */
+    public PipelineStage(
+        final String name,
+        final Evaluator<? super InputType, ? extends OutputType> function,
+        final boolean serial)
+    {
+        super();
+
+        if (function == null)
+        {
+            throw new IllegalArgumentException("function cannot be null.");
+        }
+
+        this.name = name;
+        this.function = function;
+        this.serial = serial;
+        this.itemCount = new AtomicLong();
+        this.totalNanoseconds = new AtomicLong();
+        this.maximumNanoseconds = new AtomicLong();
+    }
+
+    /**
+     * Applies the stage to one item and records how long it took.
+     *
+     * @param   input
+     *      The input item.
+     * @return
+     *      The output item, or null if the item is dropped.
+     */
+    protected OutputType apply(
+        final InputType input)
+    {
+        final long start = System.nanoTime();
+        final OutputType result = this.function.evaluate(input);
+        final long elapsed = System.nanoTime() - start;
+
+        this.itemCount.incrementAndGet();
+        this.totalNanoseconds.addAndGet(elapsed);
+        long maximum = this.maximumNanoseconds.get();
+        while (elapsed > maximum
+            && !this.maximumNanoseconds.compareAndSet(maximum, elapsed))
+        {
+            maximum = this.maximumNanoseconds.get();
+        }
+        return result;
+    }
+
+    /**
+     * Resets the counters of the stage.
+     */
+    public void resetStatistics()
+    {
+        this.itemCount.set(0);
+        this.totalNanoseconds.set(0);
+        this.maximumNanoseconds.set(0);
+    }
+
+    /**
+     * Gets the name of the stage.
+     *
+     * @return
+     *      The name of the stage.
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * Gets the function the stage applies to each item.
+     *
+     * @return
+     *      The function of the stage.
+     */
+    public Evaluator<? super InputType, ? extends OutputType> getFunction()
+    {
+        return this.function;
+    }
+
+    /**
+     * Determines if the stage is called on one item at a time in input
+     * order.
+     *
+     * @return
+     *      True if the stage is serial; false if it is parallel.
+     */
+    public boolean isSerial()
+    {
+        return this.serial;
+    }
+
+    /**
+     * Gets the number of items the stage has processed.
+     *
+     * @return
+     *      The number of items processed.
+     */
+    public long getItemCount()
+    {
+        return this.itemCount.get();
+    }
+
+    /**
+     * Gets the total time spent in the stage, summed over all threads.
+     *
+     * @return
+     *      The total time in seconds.
+     */
+    public double getTotalTime()
+    {
+        return this.totalNanoseconds.get() / 1e9;
+    }
+
+    /**
+     * Gets the average time the stage spent on one item.
+     *
+     * @return
+     *      The average latency in seconds, or 0 if no items were processed.
+     */
+    public double getAverageLatency()
+    {
+        final long count = this.itemCount.get();
+        return count == 0 ? 0.0 : this.getTotalTime() / count;
+    }
+
+    /**
+     * Gets the longest time the stage spent on one item.
+     *
+     * @return
+     *      The maximum latency in seconds.
+     */
+    public double getMaximumLatency()
+    {
+        return this.maximumNanoseconds.get() / 1e9;
+    }
+
+    /**
+     * Gets the number of items the stage processes per second of time spent
+     * in it on one thread. The stage's overall throughput is this times the
+     * number of threads running it (one for a serial stage).
+     *
+     * @return
+     *      The throughput in items per second, or 0 if no time was spent.
+     */
+    public double getThroughput()
+    {
+        final long nanoseconds = this.totalNanoseconds.get();
+        return nanoseconds == 0 ? 0.0
+            : this.itemCount.get() / (nanoseconds / 1e9);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.name + (this.serial ? " (serial)" : " (parallel)")
+            + ": " + this.getItemCount() + " items, "
+            + this.getAverageLatency() + " s average, "
+            + this.getThroughput() + " items/s";
+    }
+
+}
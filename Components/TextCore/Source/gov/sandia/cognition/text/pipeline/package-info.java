@@ -0,0 +1,24 @@
+/*
+ * File:                package-info.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+/**
+ * Provides a framework for running the stages of text processing (extraction,
+ * tokenization, filtering, indexing, and weighting) over many documents in
+ * parallel.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+@gov.sandia.cognition.annotation.Documentation
+package gov.sandia.cognition.text.pipeline;
@@ -27,6 +27,11 @@ import java.util.Set;
 /**
  * A simple statistical spelling corrector based on word counts that looks at
  * possible one and two-character edits.
+ * <BR><BR>
+ * The edits are generated as strings for every query, which is slow for
+ * large dictionaries and long words. Once the counts are known,
+ * {@code SymmetricDeleteSpellingCorrector} can be created from them to give
+ * the same corrections from a precomputed index.
  * 
  * @author  Justin Basilico
  * @since   3.0
@@ -0,0 +1,799 @@
+/*
+ * File:                SymmetricDeleteSpellingCorrector.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.spelling;
+
+import gov.sandia.cognition.algorithm.ParallelAlgorithm;
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.collection.ScalarMap;
+import gov.sandia.cognition.evaluator.Evaluator;
+import gov.sandia.cognition.util.AbstractCloneableSerializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.IntConsumer;
+
+/**
+ * A statistical spelling corrector that precomputes a symmetric delete index
+ * of its dictionary, so that a query only generates the deletes of the input
+ * instead of every insert, replace, transpose, and delete over the alphabet.
+ * A dictionary word within a given edit distance of the input shares at least
+ * one delete with it, so the words that share a delete are the candidates,
+ * which are then verified with a bounded edit distance.
+ * <BR><BR>
+ * The correction of a word is the same as in
+ * {@code SimpleStatisticalSpellingCorrector}: a known word is returned as is,
+ * otherwise the known word with the highest count among those with the
+ * smallest edit distance, up to the maximum, otherwise the input. The edit
+ * distance is the restricted Damerau-Levenshtein (optimal string alignment)
+ * distance over any characters, so no alphabet is needed.
+ * <BR><BR>
+ * The index is immutable and compact: the dictionary is one character array
+ * with word offsets and counts, and the deletes are 32-bit hashes in an
+ * open-addressing table that points into one array of word indices. Hash
+ * collisions only add candidates, which are then rejected. A word of length n
+ * has about n^d / d! deletes for a maximum edit distance d, which bounds the
+ * size of the index. Batches of words can be corrected in parallel.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+@PublicationReference(
+    author="Wolf Garbe",
+    title="1000x Faster Spelling Correction algorithm",
+    year=2012,
+    type=PublicationType.WebPage,
+    url="https://wolfgarbe.medium.com/1000x-faster-spelling-correction-algorithm-2012-8701fcd87a5f"
+)
+public class SymmetricDeleteSpellingCorrector
+    extends AbstractCloneableSerializable
+    implements Evaluator<String, String>, ParallelAlgorithm
+{
+
+    /** The default maximum edit distance is {@value}. */
+    public static final int DEFAULT_MAXIMUM_EDIT_DISTANCE = 2;
+
+    /** The maximum edit distance of a correction. */
+    protected int maximumEditDistance;
+
+    /** The characters of all the words, one after another. */
+    protected char[] characters;
+
+    /** The start of each word in the characters, plus the end. */
+    protected int[] wordStarts;
+
+    /** The count of each word. */
+    protected double[] counts;
+
+    /** The index of the delete group in each slot of the table, or -1. */
+    protected int[] slotGroups;
+
+    /** The hash of the deletes of each group. */
+    protected int[] groupHashes;
+
+    /** The start of each group in the word indices, plus the end. */
+    protected int[] groupStarts;
+
+    /** The indices of the words with each delete group. */
+    protected int[] groupWords;
+
+    /** The length of the longest word. */
+    protected int maximumWordLength;
+
+    /** The thread pool to use. */
+    private transient ThreadPoolExecutor threadPool;
+
+    /**
+     * Creates a new {@code SymmetricDeleteSpellingCorrector} with the default
+     * maximum edit distance.
+     *
+     * @param   wordCounts
+     *      The counts of the known words. Words are converted to lower case.
+     */
+    public SymmetricDeleteSpellingCorrector(
+        final ScalarMap<String> wordCounts)
+    {
+        this(wordCounts, DEFAULT_MAXIMUM_EDIT_DISTANCE);
+    }
+
+    /**
+     * Creates a new {@code SymmetricDeleteSpellingCorrector}.
+     *
+     * @param   wordCounts
+     *      The counts of the known words. Words are converted to lower case
+     *      and words without a positive count are ignored.
+     * @param   maximumEditDistance
+     *      The maximum edit distance of a correction. Cannot be negative.
+     */
+    public SymmetricDeleteSpellingCorrector(
+        final ScalarMap<String> wordCounts,
+        final int maximumEditDistance)
+    {
+        super();
+
+        if (maximumEditDistance < 0)
+        {
+            throw new IllegalArgumentException(
+                "maximumEditDistance cannot be negative.");
+        }
+
+        this.maximumEditDistance = maximumEditDistance;
+        this.setThreadPool(null);
+        this.build(wordCounts);
+    }
+
+    @Override
+    public SymmetricDeleteSpellingCorrector clone()
+    {
+        // The index is never changed, so the arrays can be shared.
+        return (SymmetricDeleteSpellingCorrector) super.clone();
+    }
+
+    /**
+     * Builds the dictionary and the delete index.
+     *
+     * @param   wordCounts
+     *      The counts of the known words.
+     */
+    private void build(
+        final ScalarMap<String> wordCounts)
+    {
+        // Merge the counts of words that only differ by case.
+        final LinkedHashMap<String, Double> merged =
+            new LinkedHashMap<String, Double>();
+        for (ScalarMap.Entry<String> entry : wordCounts.entrySet())
+        {
+            if (entry.getValue() > 0.0)
+            {
+                merged.merge(entry.getKey().toLowerCase(), entry.getValue(),
+                    Double::sum);
+            }
+        }
+
+        final int wordCount = merged.size();
+        int totalLength = 0;
+        for (String word : merged.keySet())
+        {
+            totalLength += word.length();
+        }
+        this.characters = new char[totalLength];
+        this.wordStarts = new int[wordCount + 1];
+        this.counts = new double[wordCount];
+        this.maximumWordLength = 0;
+        int index = 0;
+        for (Map.Entry<String, Double> entry : merged.entrySet())
+        {
+            final String word = entry.getKey();
+            final int start = this.wordStarts[index];
+            word.getChars(0, word.length(), this.characters, start);
+            this.wordStarts[index + 1] = start + word.length();
+            this.counts[index] = entry.getValue();
+            this.maximumWordLength =
+                Math.max(this.maximumWordLength, word.length());
+            index++;
+        }
+
+        // Pack each delete hash with the index of its word, so that sorting
+        // groups the words by delete.
+        final DeleteCollector collector =
+            new DeleteCollector(Math.max(16, 4 * wordCount));
+        final int[] removed = new int[this.maximumEditDistance];
+        for (int w = 0; w < wordCount; w++)
+        {
+            collector.word = w;
+            this.forEachDelete(this.characters, this.wordStarts[w],
+                this.wordStarts[w + 1] - this.wordStarts[w], removed, 0, 0,
+                collector);
+        }
+        final long[] sorted = collector.pairs;
+        final int pairCount = collector.size;
+        Arrays.parallelSort(sorted, 0, pairCount);
+
+        // Remove duplicate pairs and count the groups.
+        int distinct = 0;
+        int groupCount = 0;
+        for (int i = 0; i < pairCount; i++)
+        {
+            if (distinct == 0 || sorted[i] != sorted[distinct - 1])
+            {
+                if (distinct == 0 || (int) (sorted[i] >>> 32)
+                    != (int) (sorted[distinct - 1] >>> 32))
+                {
+                    groupCount++;
+                }
+                sorted[distinct++] = sorted[i];
+            }
+        }
+
+        this.groupHashes = new int[groupCount];
+        this.groupStarts = new int[groupCount + 1];
+        this.groupWords = new int[distinct];
+        int group = -1;
+        for (int i = 0; i < distinct; i++)
+        {
+            final int hash = (int) (sorted[i] >>> 32);
+            if (group < 0 || hash != this.groupHashes[group])
+            {
+                group++;
+                this.groupHashes[group] = hash;
+                this.groupStarts[group] = i;
+            }
+            this.groupWords[i] = (int) sorted[i];
+        }
+        this.groupStarts[groupCount] = distinct;
+
+        int capacity = 2;
+        while (capacity < 2 * groupCount)
+        {
+            capacity <<= 1;
+        }
+        this.slotGroups = new int[capacity];
+        Arrays.fill(this.slotGroups, -1);
+        for (int g = 0; g < groupCount; g++)
+        {
+            this.slotGroups[this.findSlot(this.groupHashes[g])] = g;
+        }
+    }
+
+    /**
+     * Finds the slot of the table for a delete hash: either the slot of its
+     * group or the empty slot where it would go.
+     *
+     * @param   hash
+     *      The delete hash.
+     * @return
+     *      The slot.
+     */
+    private int findSlot(
+        final int hash)
+    {
+        final int mask = this.slotGroups.length - 1;
+        int slot = ((hash * 0x9E3779B9) >>> 1) & mask;
+        while (this.slotGroups[slot] >= 0
+            && this.groupHashes[this.slotGroups[slot]] != hash)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Computes the 32-bit FNV-1a hash of some characters, which is also the
+     * hash used for deletes.
+     *
+     * @param   chars
+     *      The characters.
+     * @param   length
+     *      The number of characters to hash.
+     * @return
+     *      The hash.
+     */
+    private static int hash(
+        final char[] chars,
+        final int length)
+    {
+        int result = 0x811C9DC5;
+        for (int i = 0; i < length; i++)
+        {
+            result = (result ^ chars[i]) * 0x01000193;
+        }
+        return result;
+    }
+
+    /**
+     * Calls a consumer with the hash of each string made by deleting up to
+     * the maximum edit distance of characters from a word, including the
+     * word itself. No strings are created.
+     *
+     * @param   chars
+     *      The array containing the word.
+     * @param   offset
+     *      The start of the word in the array.
+     * @param   length
+     *      The length of the word.
+     * @param   removed
+     *      The positions deleted so far, in increasing order.
+     * @param   removedCount
+     *      The number of positions deleted so far.
+     * @param   start
+     *      The first position that can be deleted next.
+     * @param   consumer
+     *      The consumer of the hashes.
+     */
+    private void forEachDelete(
+        final char[] chars,
+        final int offset,
+        final int length,
+        final int[] removed,
+        final int removedCount,
+        final int start,
+        final IntConsumer consumer)
+    {
+        // FNV-1a over the characters that remain.
+        int hash = 0x811C9DC5;
+        int next = 0;
+        for (int i = 0; i < length; i++)
+        {
+            if (next < removedCount && removed[next] == i)
+            {
+                next++;
+            }
+            else
+            {
+                hash = (hash ^ chars[offset + i]) * 0x01000193;
+            }
+        }
+        consumer.accept(hash);
+
+        if (removedCount < removed.length)
+        {
+            for (int i = start; i < length; i++)
+            {
+                removed[removedCount] = i;
+                this.forEachDelete(chars, offset, length, removed,
+                    removedCount + 1, i + 1, consumer);
+            }
+        }
+    }
+
+    @Override
+    public String evaluate(
+        final String word)
+    {
+        if (word == null)
+        {
+            // Bad word.
+            return null;
+        }
+
+        final String input = word.toLowerCase();
+        if (input.isEmpty())
+        {
+            return input;
+        }
+        final int best = new Query().correct(input);
+        return best < 0 ? input : this.getWord(best);
+    }
+
+    /**
+     * Corrects the spelling of a batch of words in parallel on the thread
+     * pool.
+     *
+     * @param   words
+     *      The words to correct.
+     * @return
+     *      The corrected words, in the same order.
+     */
+    public List<String> evaluateAll(
+        final List<String> words)
+    {
+        final String[] result = new String[words.size()];
+        final int blockCount = Math.max(1, Math.min(words.size(),
+            4 * this.getNumThreads()));
+        final ArrayList<Callable<Void>> tasks =
+            new ArrayList<Callable<Void>>(blockCount);
+        for (int b = 0; b < blockCount; b++)
+        {
+            final int start = (int) ((long) b * words.size() / blockCount);
+            final int end = (int) ((long) (b + 1) * words.size() / blockCount);
+            tasks.add(() ->
+            {
+                // Each block reuses one query for all its words.
+                final Query query = new Query();
+                for (int i = start; i < end; i++)
+                {
+                    final String word = words.get(i);
+                    if (word == null)
+                    {
+                        continue;
+                    }
+                    final String input = word.toLowerCase();
+                    final int best = input.isEmpty() ? -1
+                        : query.correct(input);
+                    result[i] = best < 0 ? input : this.getWord(best);
+                }
+                return null;
+            });
+        }
+
+        try
+        {
+            ParallelUtil.executeInParallel(tasks, this.getThreadPool());
+        }
+        catch (Exception ex)
+        {
+            throw new RuntimeException(ex);
+        }
+        return Collections.unmodifiableList(Arrays.asList(result));
+    }
+
+    /**
+     * Gets the count of a word in the dictionary.
+     *
+     * @param   word
+     *      The word.
+     * @return
+     *      The count of the word, or 0 if it is not known.
+     */
+    public double getCount(
+        final String word)
+    {
+        final char[] chars = word.toLowerCase().toCharArray();
+        final int group = this.slotGroups[this.findSlot(
+            hash(chars, chars.length))];
+        if (group >= 0)
+        {
+            for (int i = this.groupStarts[group];
+                i < this.groupStarts[group + 1]; i++)
+            {
+                if (this.equalsWord(this.groupWords[i], chars, chars.length))
+                {
+                    return this.counts[this.groupWords[i]];
+                }
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Determines if a word of the dictionary is equal to some characters.
+     *
+     * @param   index
+     *      The index of the word.
+     * @param   chars
+     *      The characters.
+     * @param   length
+     *      The number of characters.
+     * @return
+     *      True if the word is equal to the characters.
+     */
+    private boolean equalsWord(
+        final int index,
+        final char[] chars,
+        final int length)
+    {
+        final int start = this.wordStarts[index];
+        if (this.wordStarts[index + 1] - start != length)
+        {
+            return false;
+        }
+        for (int i = 0; i < length; i++)
+        {
+            if (this.characters[start + i] != chars[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets a word of the dictionary.
+     *
+     * @param   index
+     *      The index of the word.
+     * @return
+     *      The word.
+     */
+    protected String getWord(
+        final int index)
+    {
+        return new String(this.characters, this.wordStarts[index],
+            this.wordStarts[index + 1] - this.wordStarts[index]);
+    }
+
+    /**
+     * Gets the number of words in the dictionary.
+     *
+     * @return
+     *      The number of words.
+     */
+    public int getWordCount()
+    {
+        return this.counts.length;
+    }
+
+    /**
+     * Gets the number of entries in the delete index, which is the number of
+     * distinct (delete, word) pairs.
+     *
+     * @return
+     *      The number of entries in the delete index.
+     */
+    public int getIndexSize()
+    {
+        return this.groupWords.length;
+    }
+
+    /**
+     * Gets the maximum edit distance of a correction.
+     *
+     * @return
+     *      The maximum edit distance.
+     */
+    public int getMaximumEditDistance()
+    {
+        return this.maximumEditDistance;
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool()
+    {
+        if (this.threadPool == null)
+        {
+            this.setThreadPool(ParallelUtil.createThreadPool());
+        }
+
+        return this.threadPool;
+    }
+
+    @Override
+    public void setThreadPool(
+        final ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
+    @Override
+    public int getNumThreads()
+    {
+        return ParallelUtil.getNumThreads(this.getThreadPool());
+    }
+
+    /**
+     * Collects the delete hashes of the words of the dictionary, packed with
+     * the index of their word.
+     */
+    private static class DeleteCollector
+        implements IntConsumer
+    {
+
+        /** The packed (hash, word) pairs. */
+        protected long[] pairs;
+
+        /** The number of pairs. */
+        protected int size;
+
+        /** The index of the current word. */
+        protected long word;
+
+        /**
+         * Creates a new {@code DeleteCollector}.
+         *
+         * @param   initialCapacity
+         *      The initial capacity.
+         */
+        protected DeleteCollector(
+            final int initialCapacity)
+        {
+            super();
+
+            this.pairs = new long[initialCapacity];
+            this.size = 0;
+            this.word = 0;
+        }
+
+        @Override
+        public void accept(
+            final int hash)
+        {
+            if (this.size == this.pairs.length)
+            {
+                this.pairs = Arrays.copyOf(this.pairs, 2 * this.size);
+            }
+            this.pairs[this.size++] = ((long) hash << 32) | this.word;
+        }
+
+    }
+
+    /**
+     * The working memory of one query, which can be reused for many words by
+     * one thread.
+     */
+    protected class Query
+    {
+
+        /** The characters of the input. */
+        protected char[] input;
+
+        /** The length of the input. */
+        protected int length;
+
+        /** The positions deleted from the input. */
+        protected final int[] removed;
+
+        /** The row before the previous row of the edit distance table. */
+        protected int[] previousPrevious;
+
+        /** The previous row of the edit distance table. */
+        protected int[] previous;
+
+        /** The current row of the edit distance table. */
+        protected int[] current;
+
+        /** The index of the best word so far, or -1. */
+        protected int best;
+
+        /** The edit distance of the best word so far. */
+        protected int bestDistance;
+
+        /**
+         * Creates a new {@code Query}.
+         */
+        protected Query()
+        {
+            super();
+
+            this.input = new char[16];
+            this.removed = new int[maximumEditDistance];
+            this.ensureRows(maximumWordLength);
+        }
+
+        /**
+         * Makes sure the rows of the table can hold a word.
+         *
+         * @param   size
+         *      The length of the longest word to compare against.
+         */
+        private void ensureRows(
+            final int size)
+        {
+            if (this.current == null || this.current.length < size + 1)
+            {
+                this.previousPrevious = new int[size + 1];
+                this.previous = new int[size + 1];
+                this.current = new int[size + 1];
+            }
+        }
+
+        /**
+         * Finds the correction of a lower-case word.
+         *
+         * @param   word
+         *      The lower-case word, which is not empty.
+         * @return
+         *      The index of the corrected word, or -1 if there is no known
+         *      word within the maximum edit distance.
+         */
+        protected int correct(
+            final String word)
+        {
+            this.length = word.length();
+            if (this.input.length < this.length)
+            {
+                this.input = new char[this.length];
+            }
+            word.getChars(0, this.length, this.input, 0);
+            this.best = -1;
+            this.bestDistance = maximumEditDistance + 1;
+
+            // Check the word itself first, since a known word is kept.
+            this.visit(hash(this.input, this.length));
+            if (this.bestDistance > 0)
+            {
+                forEachDelete(this.input, 0, this.length, this.removed, 0, 0,
+                    this::visit);
+            }
+            return this.best;
+        }
+
+        /**
+         * Verifies the words with a delete hash as candidates.
+         *
+         * @param   hash
+         *      The delete hash.
+         */
+        private void visit(
+            final int hash)
+        {
+            final int group = slotGroups[findSlot(hash)];
+            if (group < 0)
+            {
+                return;
+            }
+
+            for (int i = groupStarts[group]; i < groupStarts[group + 1]; i++)
+            {
+                final int candidate = groupWords[i];
+                if (candidate == this.best)
+                {
+                    continue;
+                }
+
+                final int distance = this.computeDistance(candidate,
+                    this.bestDistance);
+                if (distance < this.bestDistance
+                    || (distance == this.bestDistance
+                        && distance <= maximumEditDistance
+                        && counts[candidate] > counts[this.best]))
+                {
+                    this.best = candidate;
+                    this.bestDistance = distance;
+                }
+            }
+        }
+
+        /**
+         * Computes the restricted Damerau-Levenshtein distance between the
+         * input and a word, stopping once it must be over a bound.
+         *
+         * @param   index
+         *      The index of the word.
+         * @param   bound
+         *      The largest distance of interest.
+         * @return
+         *      The distance, or bound + 1 if it is more than the bound.
+         */
+        private int computeDistance(
+            final int index,
+            final int bound)
+        {
+            final int start = wordStarts[index];
+            final int m = wordStarts[index + 1] - start;
+            if (Math.abs(m - this.length) > bound)
+            {
+                return bound + 1;
+            }
+
+            int[] rowPreviousPrevious = this.previousPrevious;
+            int[] rowPrevious = this.previous;
+            int[] row = this.current;
+            for (int j = 0; j <= m; j++)
+            {
+                rowPrevious[j] = j;
+            }
+            for (int i = 1; i <= this.length; i++)
+            {
+                final char a = this.input[i - 1];
+                row[0] = i;
+                int rowMinimum = i;
+                for (int j = 1; j <= m; j++)
+                {
+                    final char b = characters[start + j - 1];
+                    int value = Math.min(rowPrevious[j - 1]
+                        + (a == b ? 0 : 1),
+                        Math.min(rowPrevious[j], row[j - 1]) + 1);
+                    if (i > 1 && j > 1 && a == characters[start + j - 2]
+                        && this.input[i - 2] == b)
+                    {
+                        value = Math.min(value,
+                            rowPreviousPrevious[j - 2] + 1);
+                    }
+                    row[j] = value;
+                    rowMinimum = Math.min(rowMinimum, value);
+                }
+
+                if (rowMinimum > bound)
+                {
+                    return bound + 1;
+                }
+
+                final int[] swap = rowPreviousPrevious;
+                rowPreviousPrevious = rowPrevious;
+                rowPrevious = row;
+                row = swap;
+            }
+            return Math.min(rowPrevious[m], bound + 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,870 @@
+/*
+ * File:                ConcurrentTermIndex.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.term;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A thread-safe term index for very large vocabularies. Instead of a map of
+ * {@code Term} objects, it stores each term's name as UTF-8 bytes in
+ * open-addressing hash tables, and assigns each new term the next dense
+ * integer index. It also keeps a primitive occurrence count for each term.
+ * A term index with tens of millions of terms takes a few tens of bytes per
+ * term plus the bytes of the names, rather than several objects per term.
+ * <BR><BR>
+ * The terms are split into a number of stripes by hash, each with its own
+ * table and lock, so many threads can add terms at once with little
+ * contention. When terms are added from several threads, the index each term
+ * gets depends on the order the threads reach it; from one thread, indices
+ * are assigned in the order terms are first added, just like
+ * {@code DefaultTermIndex}.
+ * <BR><BR>
+ * As with all term indices, terms are identified by name. The
+ * {@code CharSequence} methods look up a name without creating a
+ * {@code Term} or {@code String}, so, for instance, the current token of a
+ * {@code TokenCursor} can be indexed directly. The {@code IndexedTerm}
+ * methods of the {@code TermIndex} interface create their results on
+ * demand.
+ * <BR><BR>
+ * Once the vocabulary is complete, {@link #freeze()} creates a compact,
+ * read-only {@code FrozenTermIndex} based on a minimal perfect hash function
+ * for serving.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class ConcurrentTermIndex
+    extends AbstractTermIndex
+{
+
+    /** The default number of stripes, {@value}. */
+    public static final int DEFAULT_STRIPE_COUNT = 64;
+
+    /** The number of bits in the index within a chunk of the per-term arrays. */
+    protected static final int CHUNK_BITS = 14;
+
+    /** The number of entries in a chunk of the per-term arrays. */
+    protected static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /** The stripes of the hash table. Always a power of two of them. */
+    protected Stripe[] stripes;
+
+    /** The number of bits of the hash used to pick the stripe. */
+    protected int stripeBits;
+
+    /** The number of terms in the index, which is also the next index. */
+    protected AtomicInteger termCount;
+
+    /**
+     * The location of each term: its stripe in the high 32 bits and its
+     * entry in the stripe in the low 32 bits, plus one so zero means the
+     * location has not been published yet. Chunked so it can grow without
+     * copying or locking.
+     */
+    protected AtomicReferenceArray<AtomicLongArray> locations;
+
+    /** The occurrence count of each term, chunked like the locations. */
+    protected AtomicReferenceArray<AtomicLongArray> counts;
+
+    /** The total of all of the occurrence counts. */
+    protected AtomicLong totalCount;
+
+    /**
+     * Creates a new, empty {@code ConcurrentTermIndex} with the default
+     * number of stripes.
+     */
+    public ConcurrentTermIndex()
+    {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * Creates a new, empty {@code ConcurrentTermIndex}.
+     *
+     * @param   stripeCount
+     *      The number of independently locked stripes. Rounded up to a power
+     *      of two. Must be positive.
+     */
+    public ConcurrentTermIndex(
+        final int stripeCount)
+    {
+        super();
+
+        if (stripeCount <= 0)
+        {
+            throw new IllegalArgumentException(
+                "stripeCount must be positive.");
+        }
+
+        this.stripeBits = 32 - Integer.numberOfLeadingZeros(stripeCount - 1);
+        this.stripes = new Stripe[1 << this.stripeBits];
+        for (int i = 0; i < this.stripes.length; i++)
+        {
+            this.stripes[i] = new Stripe();
+        }
+        this.termCount = new AtomicInteger();
+        final int chunkCount = (Integer.MAX_VALUE >> CHUNK_BITS) + 1;
+        this.locations = new AtomicReferenceArray<AtomicLongArray>(chunkCount);
+        this.counts = new AtomicReferenceArray<AtomicLongArray>(chunkCount);
+        this.totalCount = new AtomicLong();
+    }
+
+    /**
+     * Creates a copy of this index with the same terms, indices, and counts.
+     * Terms must not be added while it is being cloned.
+     *
+     * @return
+     *      A copy of this index.
+     */
+    @Override
+    public ConcurrentTermIndex clone()
+    {
+        final ConcurrentTermIndex clone = new ConcurrentTermIndex(
+            this.stripes.length);
+        final int termCount = this.getTermCount();
+        for (int i = 0; i < termCount; i++)
+        {
+            clone.getOrAddIndex(this.getTermName(i));
+            clone.incrementCount(i, this.getCount(i));
+        }
+        return clone;
+    }
+
+    /**
+     * Gets the index of the term with the given name, adding it to the index
+     * if it is not already there. Safe to call from many threads at once.
+     *
+     * @param   name
+     *      The name of the term.
+     * @return
+     *      The index of the term.
+     */
+    public int getOrAddIndex(
+        final CharSequence name)
+    {
+        final Utf8Key key = Utf8Key.encode(name);
+        return this.getOrAdd(key.bytes, key.length, key.hash);
+    }
+
+    /**
+     * Gets the index of the term with the given name.
+     *
+     * @param   name
+     *      The name of the term.
+     * @return
+     *      The index of the term, or -1 if it is not in the index.
+     */
+    public int getIndex(
+        final CharSequence name)
+    {
+        final Utf8Key key = Utf8Key.encode(name);
+        final Stripe stripe = this.stripes[this.stripeOf(key.hash)];
+        synchronized (stripe)
+        {
+            final int entry = stripe.find(key.bytes, key.length, key.hash);
+            return entry < 0 ? -1 : stripe.ids[entry];
+        }
+    }
+
+    /**
+     * Adds one occurrence of the term with the given name, adding the term
+     * to the index if it is not already there.
+     *
+     * @param   name
+     *      The name of the term.
+     * @return
+     *      The index of the term.
+     */
+    public int addOccurrence(
+        final CharSequence name)
+    {
+        final int index = this.getOrAddIndex(name);
+        this.incrementCount(index, 1);
+        return index;
+    }
+
+    /**
+     * Adds to the occurrence count of a term.
+     *
+     * @param   index
+     *      The index of the term.
+     * @param   delta
+     *      The amount to add to the count.
+     * @return
+     *      The new count of the term.
+     */
+    public long incrementCount(
+        final int index,
+        final long delta)
+    {
+        this.checkIndex(index);
+        this.totalCount.addAndGet(delta);
+        return chunk(this.counts, index >>> CHUNK_BITS).addAndGet(
+            index & (CHUNK_SIZE - 1), delta);
+    }
+
+    /**
+     * Gets the occurrence count of a term.
+     *
+     * @param   index
+     *      The index of the term.
+     * @return
+     *      The count of the term.
+     */
+    public long getCount(
+        final int index)
+    {
+        this.checkIndex(index);
+        return chunk(this.counts, index >>> CHUNK_BITS).get(
+            index & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * Gets the total of the occurrence counts of all the terms.
+     *
+     * @return
+     *      The total count.
+     */
+    public long getTotalCount()
+    {
+        return this.totalCount.get();
+    }
+
+    /**
+     * Gets the name of the term with the given index.
+     *
+     * @param   index
+     *      The index of the term.
+     * @return
+     *      The name of the term.
+     */
+    public String getTermName(
+        final int index)
+    {
+        this.checkIndex(index);
+        final long location = this.getLocation(index);
+        final Stripe stripe = this.stripes[(int) (location >>> 32)];
+        final int entry = (int) location;
+        synchronized (stripe)
+        {
+            final int start = stripe.offsets[entry];
+            return new String(stripe.bytes, start,
+                stripe.offsets[entry + 1] - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Creates a read-only copy of this index based on a minimal perfect hash
+     * function, with the same terms, indices, and counts. Terms must not be
+     * added while it is being frozen.
+     *
+     * @return
+     *      A new frozen copy of this index.
+     */
+    public FrozenTermIndex freeze()
+    {
+        final int termCount = this.getTermCount();
+        long byteCount = 0;
+        for (Stripe stripe : this.stripes)
+        {
+            byteCount += stripe.offsets[stripe.size];
+        }
+        if (byteCount > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalStateException(
+                "The term names are too large to freeze: " + byteCount
+                + " bytes.");
+        }
+
+        final byte[] keyBytes = new byte[(int) byteCount];
+        final int[] keyOffsets = new int[termCount + 1];
+        final long[] termCounts = new long[termCount];
+        int offset = 0;
+        for (int i = 0; i < termCount; i++)
+        {
+            final long location = this.getLocation(i);
+            final Stripe stripe = this.stripes[(int) (location >>> 32)];
+            final int entry = (int) location;
+            final int start = stripe.offsets[entry];
+            final int length = stripe.offsets[entry + 1] - start;
+            System.arraycopy(stripe.bytes, start, keyBytes, offset, length);
+            offset += length;
+            keyOffsets[i + 1] = offset;
+            termCounts[i] = this.getCount(i);
+        }
+        return new FrozenTermIndex(keyBytes, keyOffsets, termCounts);
+    }
+
+    @Override
+    public IndexedTerm add(
+        final Term term)
+    {
+        if (term == null)
+        {
+            // Don't add a null term.
+            return null;
+        }
+        return new DefaultIndexedTerm(this.getOrAddIndex(term.getName()),
+            term);
+    }
+
+    @Override
+    public int getTermCount()
+    {
+        return this.termCount.get();
+    }
+
+    @Override
+    public List<IndexedTerm> getTerms()
+    {
+        final int termCount = this.getTermCount();
+        return new AbstractList<IndexedTerm>()
+        {
+            @Override
+            public IndexedTerm get(
+                final int index)
+            {
+                if (index < 0 || index >= termCount)
+                {
+                    throw new IndexOutOfBoundsException("index: " + index);
+                }
+                return getIndexedTerm(index);
+            }
+
+            @Override
+            public int size()
+            {
+                return termCount;
+            }
+        };
+    }
+
+    @Override
+    public IndexedTerm getIndexedTerm(
+        final Term term)
+    {
+        final int index = this.getIndex(term);
+        return index < 0 ? null : new DefaultIndexedTerm(index, term);
+    }
+
+    @Override
+    public IndexedTerm getIndexedTerm(
+        final int index)
+    {
+        if (!this.hasIndex(index))
+        {
+            // Bad index.
+            return null;
+        }
+        return new DefaultIndexedTerm(index,
+            new DefaultTerm(this.getTermName(index)));
+    }
+
+    @Override
+    public int getIndex(
+        final Term term)
+    {
+        return term == null ? -1 : this.getIndex(term.getName());
+    }
+
+    /**
+     * Gets the index of a term given its UTF-8 bytes, adding it if needed.
+     *
+     * @param   bytes
+     *      The buffer holding the UTF-8 bytes of the name.
+     * @param   length
+     *      The number of bytes in the name.
+     * @param   hash
+     *      The hash of the name.
+     * @return
+     *      The index of the term.
+     */
+    protected int getOrAdd(
+        final byte[] bytes,
+        final int length,
+        final int hash)
+    {
+        final int stripeIndex = this.stripeOf(hash);
+        final Stripe stripe = this.stripes[stripeIndex];
+        synchronized (stripe)
+        {
+            int entry = stripe.find(bytes, length, hash);
+            if (entry >= 0)
+            {
+                return stripe.ids[entry];
+            }
+
+            // Make room first, so that nothing can fail once the index is
+            // taken and readers are waiting for its location.
+            stripe.reserve(length);
+            final int index = this.termCount.getAndIncrement();
+            if (index < 0)
+            {
+                this.termCount.decrementAndGet();
+                throw new IllegalStateException("The term index is full.");
+            }
+            entry = stripe.insert(bytes, length, hash, index);
+
+            // Publish the location of the new term.
+            chunk(this.locations, index >>> CHUNK_BITS).set(
+                index & (CHUNK_SIZE - 1),
+                (((long) stripeIndex) << 32 | entry) + 1);
+            return index;
+        }
+    }
+
+    /**
+     * Gets the location of a term, waiting for it to be published if
+     * another thread is still adding it.
+     *
+     * @param   index
+     *      The index of the term.
+     * @return
+     *      The stripe of the term in the high 32 bits and the entry in the
+     *      low 32 bits.
+     */
+    protected long getLocation(
+        final int index)
+    {
+        final AtomicLongArray chunk = chunk(this.locations,
+            index >>> CHUNK_BITS);
+        long location = chunk.get(index & (CHUNK_SIZE - 1));
+        while (location == 0)
+        {
+            Thread.yield();
+            location = chunk.get(index & (CHUNK_SIZE - 1));
+        }
+        return location - 1;
+    }
+
+    /**
+     * Checks that an index is in the index.
+     *
+     * @param   index
+     *      The index to check.
+     */
+    protected void checkIndex(
+        final int index)
+    {
+        if (index < 0 || index >= this.getTermCount())
+        {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+    }
+
+    /**
+     * Gets the stripe for a hash.
+     *
+     * @param   hash
+     *      The hash of a name.
+     * @return
+     *      The index of the stripe.
+     */
+    protected int stripeOf(
+        final int hash)
+    {
+        return this.stripeBits == 0 ? 0 : hash >>> (32 - this.stripeBits);
+    }
+
+    /**
+     * Gets a chunk of a chunked array, creating it if needed.
+     *
+     * @param   chunks
+     *      The chunks.
+     * @param   chunkIndex
+     *      The index of the chunk.
+     * @return
+     *      The chunk.
+     */
+    protected static AtomicLongArray chunk(
+        final AtomicReferenceArray<AtomicLongArray> chunks,
+        final int chunkIndex)
+    {
+        AtomicLongArray result = chunks.get(chunkIndex);
+        if (result == null)
+        {
+            chunks.compareAndSet(chunkIndex, null,
+                new AtomicLongArray(CHUNK_SIZE));
+            result = chunks.get(chunkIndex);
+        }
+        return result;
+    }
+
+    /**
+     * One stripe of the hash table: an open-addressing (linear probing)
+     * table over the UTF-8 bytes of the names of its terms. All access is
+     * synchronized on the stripe.
+     */
+    protected static class Stripe
+        implements Serializable
+    {
+
+        /** The bytes of all the names in the stripe, one after the other. */
+        protected byte[] bytes;
+
+        /** The start of each entry's name in the bytes, plus the end. */
+        protected int[] offsets;
+
+        /** The hash of each entry's name. */
+        protected int[] hashes;
+
+        /** The index of each entry's term. */
+        protected int[] ids;
+
+        /** The number of entries. */
+        protected int size;
+
+        /** The table of entries plus one, or zero for an empty slot. */
+        protected int[] slots;
+
+        /**
+         * Creates a new, empty {@code Stripe}.
+         */
+        protected Stripe()
+        {
+            super();
+
+            this.bytes = new byte[256];
+            this.offsets = new int[17];
+            this.hashes = new int[16];
+            this.ids = new int[16];
+            this.size = 0;
+            this.slots = new int[32];
+        }
+
+        /**
+         * Finds the entry for a name.
+         *
+         * @param   key
+         *      The buffer holding the UTF-8 bytes of the name.
+         * @param   length
+         *      The number of bytes in the name.
+         * @param   hash
+         *      The hash of the name.
+         * @return
+         *      The entry, or -1 if the name is not in the stripe.
+         */
+        protected int find(
+            final byte[] key,
+            final int length,
+            final int hash)
+        {
+            final int mask = this.slots.length - 1;
+            int slot = hash & mask;
+            while (true)
+            {
+                final int entry = this.slots[slot] - 1;
+                if (entry < 0)
+                {
+                    return -1;
+                }
+                else if (this.hashes[entry] == hash
+                    && Utf8Key.equals(this.bytes, this.offsets[entry],
+                        this.offsets[entry + 1] - this.offsets[entry],
+                        key, 0, length))
+                {
+                    return entry;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * Makes room for one more entry with a name of the given length, so
+         * that the following insert cannot fail.
+         *
+         * @param   length
+         *      The number of bytes in the name.
+         */
+        protected void reserve(
+            final int length)
+        {
+            final int entry = this.size;
+            final int start = this.offsets[entry];
+            if ((long) start + length > Integer.MAX_VALUE - 8)
+            {
+                throw new IllegalStateException("A stripe of the term index "
+                    + "is full. Use more stripes.");
+            }
+            if (entry == this.ids.length)
+            {
+                final int capacity = 2 * this.ids.length;
+                this.offsets = Arrays.copyOf(this.offsets,
+                    capacity + 1);
+                this.hashes = Arrays.copyOf(this.hashes, capacity);
+                this.ids = Arrays.copyOf(this.ids, capacity);
+            }
+            if (start + length > this.bytes.length)
+            {
+                this.bytes = Arrays.copyOf(this.bytes,
+                    (int) Math.min(Integer.MAX_VALUE - 8,
+                    Math.max(2L * this.bytes.length, start + length)));
+            }
+
+            // Keep the table at most half full.
+            if (2 * (this.size + 1) > this.slots.length)
+            {
+                this.slots = new int[2 * this.slots.length];
+                for (int i = 0; i < this.size; i++)
+                {
+                    this.place(i);
+                }
+            }
+        }
+
+        /**
+         * Inserts a new name, which must not be in the stripe already. Room
+         * for it must already be reserved.
+         *
+         * @param   key
+         *      The buffer holding the UTF-8 bytes of the name.
+         * @param   length
+         *      The number of bytes in the name.
+         * @param   hash
+         *      The hash of the name.
+         * @param   id
+         *      The index of the term.
+         * @return
+         *      The new entry.
+         */
+        protected int insert(
+            final byte[] key,
+            final int length,
+            final int hash,
+            final int id)
+        {
+            final int entry = this.size;
+            final int start = this.offsets[entry];
+            System.arraycopy(key, 0, this.bytes, start, length);
+            this.offsets[entry + 1] = start + length;
+            this.hashes[entry] = hash;
+            this.ids[entry] = id;
+            this.size++;
+            this.place(entry);
+            return entry;
+        }
+
+        /**
+         * Puts an entry in the first empty slot from its hash.
+         *
+         * @param   entry
+         *      The entry.
+         */
+        protected void place(
+            final int entry)
+        {
+            final int mask = this.slots.length - 1;
+            int slot = this.hashes[entry] & mask;
+            while (this.slots[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+            this.slots[slot] = entry + 1;
+        }
+
+    }
+
+    /**
+     * The UTF-8 encoding and hash of a name, in a per-thread buffer that is
+     * reused so that encoding does not allocate.
+     */
+    static class Utf8Key
+    {
+
+        /** The per-thread keys. */
+        private static final ThreadLocal<Utf8Key> KEYS =
+            ThreadLocal.withInitial(Utf8Key::new);
+
+        /** The buffer holding the bytes. */
+        byte[] bytes;
+
+        /** The number of bytes in the key. */
+        int length;
+
+        /** The 32-bit hash of the key. */
+        int hash;
+
+        /** The 64-bit hash of the key. */
+        long hash64;
+
+        /**
+         * Creates a new, empty {@code Utf8Key}.
+         */
+        Utf8Key()
+        {
+            this.bytes = new byte[64];
+        }
+
+        /**
+         * Encodes a name into the calling thread's key.
+         *
+         * @param   name
+         *      The name.
+         * @return
+         *      The calling thread's key, holding the name. It is only valid
+         *      until the thread's next call.
+         */
+        static Utf8Key encode(
+            final CharSequence name)
+        {
+            final Utf8Key key = KEYS.get();
+            final int charCount = name.length();
+            if (key.bytes.length < 3 * charCount)
+            {
+                key.bytes = new byte[Math.max(3 * charCount,
+                    2 * key.bytes.length)];
+            }
+
+            final byte[] bytes = key.bytes;
+            int length = 0;
+            for (int i = 0; i < charCount; i++)
+            {
+                char c = name.charAt(i);
+                if (c < 0x80)
+                {
+                    bytes[length++] = (byte) c;
+                }
+                else if (c < 0x800)
+                {
+                    bytes[length++] = (byte) (0xC0 | (c >> 6));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+                else if (Character.isHighSurrogate(c) && i + 1 < charCount
+                    && Character.isLowSurrogate(name.charAt(i + 1)))
+                {
+                    final int codePoint =
+                        Character.toCodePoint(c, name.charAt(++i));
+                    bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[length++] =
+                        (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                }
+                else if (Character.isSurrogate(c))
+                {
+                    // An unpaired surrogate, which String.getBytes also
+                    // replaces with a question mark.
+                    bytes[length++] = (byte) '?';
+                }
+                else
+                {
+                    bytes[length++] = (byte) (0xE0 | (c >> 12));
+                    bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            key.length = length;
+            key.hash64 = hash(bytes, 0, length, 0L);
+            key.hash = (int) key.hash64;
+            return key;
+        }
+
+        /**
+         * Computes a well-mixed 64-bit hash of some bytes (FNV-1a followed
+         * by the MurmurHash3 finalizer).
+         *
+         * @param   bytes
+         *      The bytes.
+         * @param   offset
+         *      The first byte.
+         * @param   length
+         *      The number of bytes.
+         * @param   seed
+         *      The seed of the hash.
+         * @return
+         *      The hash.
+         */
+        static long hash(
+            final byte[] bytes,
+            final int offset,
+            final int length,
+            final long seed)
+        {
+            long h = 0xCBF29CE484222325L ^ seed;
+            for (int i = offset; i < offset + length; i++)
+            {
+                h ^= bytes[i] & 0xFF;
+                h *= 0x100000001B3L;
+            }
+            return mix(h ^ length);
+        }
+
+        /**
+         * The MurmurHash3 64-bit finalizer.
+         *
+         * @param   value
+         *      The value to mix.
+         * @return
+         *      The mixed value.
+         */
+        static long mix(
+            long value)
+        {
+            value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+            value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+            return value ^ (value >>> 33);
+        }
+
+        /**
+         * Determines if two byte ranges are equal.
+         *
+         * @param   a
+         *      The first bytes.
+         * @param   aOffset
+         *      The start of the first range.
+         * @param   aLength
+         *      The length of the first range.
+         * @param   b
+         *      The second bytes.
+         * @param   bOffset
+         *      The start of the second range.
+         * @param   bLength
+         *      The length of the second range.
+         * @return
+         *      True if the ranges hold the same bytes.
+         */
+        static boolean equals(
+            final byte[] a,
+            final int aOffset,
+            final int aLength,
+            final byte[] b,
+            final int bOffset,
+            final int bLength)
+        {
+            if (aLength != bLength)
+            {
+                return false;
+            }
+            for (int i = 0; i < aLength; i++)
+            {
+                if (a[aOffset + i] != b[bOffset + i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
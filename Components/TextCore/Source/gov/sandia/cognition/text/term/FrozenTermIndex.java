@@ -0,0 +1,525 @@
+/*
+ * File:                FrozenTermIndex.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.term;
+
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact, read-only term index for serving a fixed vocabulary. The names
+ * of the terms are stored as UTF-8 bytes in one array, and a name is looked
+ * up with a minimal perfect hash function, which maps each of the n terms
+ * to a different one of n slots using about one int per four terms. A
+ * lookup hashes the name, reads one displacement and one slot, and compares
+ * the bytes of one name, without allocating.
+ * <BR><BR>
+ * The hash function is built with the hash, displace, and compress method:
+ * the terms are hashed into buckets, and then, from the largest bucket to
+ * the smallest, each bucket is given the first displacement of the second
+ * hash that puts all of its terms in free slots.
+ * <BR><BR>
+ * A frozen index is usually created by {@code ConcurrentTermIndex.freeze()},
+ * which keeps the term occurrence counts, but it can be created from any
+ * term index. Its terms have the same indices as in the original index.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ * @see     ConcurrentTermIndex
+ */
+@PublicationReference(
+    author={"Djamal Belazzougui", "Fabiano C. Botelho", "Martin Dietzfelbinger"},
+    title="Hash, displace, and compress",
+    type=PublicationType.Conference,
+    year=2009,
+    publication="Proceedings of the 17th European Symposium on Algorithms",
+    pages={682, 693})
+public class FrozenTermIndex
+    extends AbstractTermIndex
+{
+
+    /** The average number of terms per bucket of the hash function. */
+    protected static final int TERMS_PER_BUCKET = 4;
+
+    /** The number of displacements to try for a bucket before reseeding. */
+    protected static final int MAXIMUM_DISPLACEMENTS = 1 << 20;
+
+    /** The number of seeds to try before giving up. */
+    protected static final int MAXIMUM_SEEDS = 64;
+
+    /** The multiplier used to step the seeds and displacements. */
+    protected static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    /** The UTF-8 bytes of the names of all the terms, in index order. */
+    protected byte[] keyBytes;
+
+    /** The start of each term's name in the bytes, plus the end. */
+    protected int[] keyOffsets;
+
+    /** The occurrence count of each term. */
+    protected long[] counts;
+
+    /** The total of the occurrence counts. */
+    protected long totalCount;
+
+    /** The seed of the hash function. */
+    protected long seed;
+
+    /**
+     * The displacement of each bucket, or, for a bucket of one term, minus
+     * one minus the slot of the term.
+     */
+    protected int[] displacements;
+
+    /** The index of the term in each slot. */
+    protected int[] slotIds;
+
+    /**
+     * Creates a new {@code FrozenTermIndex} with the same terms and indices
+     * as the given index and counts of zero.
+     *
+     * @param   index
+     *      The term index to copy.
+     */
+    public FrozenTermIndex(
+        final TermIndex index)
+    {
+        super();
+
+        final int termCount = index.getTermCount();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        this.keyOffsets = new int[termCount + 1];
+        for (int i = 0; i < termCount; i++)
+        {
+            final byte[] name =
+                index.getTerm(i).getName().getBytes(StandardCharsets.UTF_8);
+            bytes.write(name, 0, name.length);
+            this.keyOffsets[i + 1] = bytes.size();
+        }
+        this.keyBytes = bytes.toByteArray();
+        this.counts = new long[termCount];
+        this.totalCount = 0;
+        this.build();
+    }
+
+    /**
+     * Creates a new {@code FrozenTermIndex} from UTF-8 encoded names, which
+     * must all be different.
+     *
+     * @param   keyBytes
+     *      The UTF-8 bytes of the names of all the terms, in index order.
+     * @param   keyOffsets
+     *      The start of each term's name in the bytes, plus the end.
+     * @param   counts
+     *      The occurrence count of each term.
+     */
+    protected FrozenTermIndex(
+        final byte[] keyBytes,
+        final int[] keyOffsets,
+        final long[] counts)
+    {
+        super();
+
+        this.keyBytes = keyBytes;
+        this.keyOffsets = keyOffsets;
+        this.counts = counts;
+        this.totalCount = 0;
+        for (long count : counts)
+        {
+            this.totalCount += count;
+        }
+        this.build();
+    }
+
+    @Override
+    public FrozenTermIndex clone()
+    {
+        // The arrays are never modified, so they can be shared.
+        return (FrozenTermIndex) super.clone();
+    }
+
+    /**
+     * Builds the minimal perfect hash function, trying new seeds until one
+     * works.
+     */
+    protected void build()
+    {
+        final int termCount = this.getTermCount();
+        final int bucketCount = Math.max(1,
+            (termCount + TERMS_PER_BUCKET - 1) / TERMS_PER_BUCKET);
+        final long[] baseHashes = new long[termCount];
+        for (int i = 0; i < termCount; i++)
+        {
+            baseHashes[i] = ConcurrentTermIndex.Utf8Key.hash(this.keyBytes,
+                this.keyOffsets[i], this.keyOffsets[i + 1] - this.keyOffsets[i],
+                0L);
+        }
+
+        for (int attempt = 0; attempt < MAXIMUM_SEEDS; attempt++)
+        {
+            this.seed = attempt * GOLDEN;
+            if (this.tryBuild(baseHashes, bucketCount))
+            {
+                return;
+            }
+        }
+        throw new IllegalArgumentException(
+            "Could not build a perfect hash function. The terms may not be "
+            + "unique.");
+    }
+
+    /**
+     * Tries to build the minimal perfect hash function with the current
+     * seed.
+     *
+     * @param   baseHashes
+     *      The unseeded hash of each term.
+     * @param   bucketCount
+     *      The number of buckets.
+     * @return
+     *      True if it worked; false if a bucket could not be placed.
+     */
+    protected boolean tryBuild(
+        final long[] baseHashes,
+        final int bucketCount)
+    {
+        final int termCount = baseHashes.length;
+        final long[] hashes = new long[termCount];
+
+        // Sort the terms into buckets.
+        final int[] bucketStarts = new int[bucketCount + 1];
+        final int[] buckets = new int[termCount];
+        for (int i = 0; i < termCount; i++)
+        {
+            hashes[i] = this.seeded(baseHashes[i]);
+            bucketStarts[this.bucketOf(hashes[i], bucketCount) + 1]++;
+        }
+        for (int b = 0; b < bucketCount; b++)
+        {
+            bucketStarts[b + 1] += bucketStarts[b];
+        }
+        final int[] fill = Arrays.copyOf(bucketStarts, bucketCount);
+        for (int i = 0; i < termCount; i++)
+        {
+            buckets[fill[this.bucketOf(hashes[i], bucketCount)]++] = i;
+        }
+
+        // Order the buckets from largest to smallest with a counting sort.
+        int maximumSize = 0;
+        for (int b = 0; b < bucketCount; b++)
+        {
+            maximumSize = Math.max(maximumSize,
+                bucketStarts[b + 1] - bucketStarts[b]);
+        }
+        final int[] sizeStarts = new int[maximumSize + 2];
+        for (int b = 0; b < bucketCount; b++)
+        {
+            sizeStarts[maximumSize - (bucketStarts[b + 1] - bucketStarts[b])
+                + 1]++;
+        }
+        for (int s = 0; s <= maximumSize; s++)
+        {
+            sizeStarts[s + 1] += sizeStarts[s];
+        }
+        final int[] order = new int[bucketCount];
+        for (int b = 0; b < bucketCount; b++)
+        {
+            order[sizeStarts[maximumSize
+                - (bucketStarts[b + 1] - bucketStarts[b])]++] = b;
+        }
+
+        final int[] displacements = new int[bucketCount];
+        final int[] slotIds = new int[termCount];
+        Arrays.fill(slotIds, -1);
+        final int[] slots = new int[maximumSize];
+        int nextFree = 0;
+        for (int b : order)
+        {
+            final int start = bucketStarts[b];
+            final int size = bucketStarts[b + 1] - start;
+            if (size == 0)
+            {
+                // The rest of the buckets are empty.
+                break;
+            }
+            else if (size == 1)
+            {
+                // A single term goes straight into any free slot.
+                while (slotIds[nextFree] >= 0)
+                {
+                    nextFree++;
+                }
+                slotIds[nextFree] = buckets[start];
+                displacements[b] = -1 - nextFree;
+                continue;
+            }
+
+            int displacement = 0;
+            boolean placed = false;
+            while (!placed && displacement < MAXIMUM_DISPLACEMENTS)
+            {
+                placed = true;
+                for (int j = 0; j < size && placed; j++)
+                {
+                    final int slot = slotOf(hashes[buckets[start + j]],
+                        displacement, termCount);
+                    placed = slotIds[slot] < 0;
+                    for (int k = 0; k < j && placed; k++)
+                    {
+                        placed = slots[k] != slot;
+                    }
+                    slots[j] = slot;
+                }
+                if (!placed)
+                {
+                    displacement++;
+                }
+            }
+            if (!placed)
+            {
+                return false;
+            }
+
+            for (int j = 0; j < size; j++)
+            {
+                slotIds[slots[j]] = buckets[start + j];
+            }
+            displacements[b] = displacement;
+        }
+
+        this.displacements = displacements;
+        this.slotIds = slotIds;
+        return true;
+    }
+
+    /**
+     * Gets the index of the term with the given name.
+     *
+     * @param   name
+     *      The name of the term.
+     * @return
+     *      The index of the term, or -1 if it is not in the index.
+     */
+    public int getIndex(
+        final CharSequence name)
+    {
+        final int termCount = this.getTermCount();
+        if (termCount == 0)
+        {
+            return -1;
+        }
+
+        final ConcurrentTermIndex.Utf8Key key =
+            ConcurrentTermIndex.Utf8Key.encode(name);
+        final long hash = this.seeded(key.hash64);
+        final int displacement =
+            this.displacements[this.bucketOf(hash, this.displacements.length)];
+        final int slot = displacement < 0 ? -1 - displacement
+            : slotOf(hash, displacement, termCount);
+        final int index = this.slotIds[slot];
+        final int start = this.keyOffsets[index];
+        return ConcurrentTermIndex.Utf8Key.equals(this.keyBytes, start,
+            this.keyOffsets[index + 1] - start, key.bytes, 0, key.length)
+            ? index : -1;
+    }
+
+    /**
+     * Gets the name of the term with the given index.
+     *
+     * @param   index
+     *      The index of the term.
+     * @return
+     *      The name of the term.
+     */
+    public String getTermName(
+        final int index)
+    {
+        final int start = this.keyOffsets[index];
+        return new String(this.keyBytes, start,
+            this.keyOffsets[index + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the occurrence count of a term.
+     *
+     * @param   index
+     *      The index of the term.
+     * @return
+     *      The count of the term.
+     */
+    public long getCount(
+        final int index)
+    {
+        return this.counts[index];
+    }
+
+    /**
+     * Gets the total of the occurrence counts of all the terms.
+     *
+     * @return
+     *      The total count.
+     */
+    public long getTotalCount()
+    {
+        return this.totalCount;
+    }
+
+    /**
+     * Gets the number of bytes used by the hash function and names, not
+     * counting the occurrence counts.
+     *
+     * @return
+     *      The approximate size of the index in bytes.
+     */
+    public long getSizeInBytes()
+    {
+        return this.keyBytes.length + 4L * this.keyOffsets.length
+            + 4L * this.displacements.length + 4L * this.slotIds.length;
+    }
+
+    /**
+     * A frozen term index cannot be added to.
+     *
+     * @param   term
+     *      The term.
+     * @return
+     *      Never returns.
+     * @throws  UnsupportedOperationException
+     *      Always.
+     */
+    @Override
+    public IndexedTerm add(
+        final Term term)
+    {
+        throw new UnsupportedOperationException(
+            "A frozen term index cannot be added to.");
+    }
+
+    @Override
+    public int getTermCount()
+    {
+        return this.keyOffsets.length - 1;
+    }
+
+    @Override
+    public List<IndexedTerm> getTerms()
+    {
+        return new AbstractList<IndexedTerm>()
+        {
+            @Override
+            public IndexedTerm get(
+                final int index)
+            {
+                if (!hasIndex(index))
+                {
+                    throw new IndexOutOfBoundsException("index: " + index);
+                }
+                return getIndexedTerm(index);
+            }
+
+            @Override
+            public int size()
+            {
+                return getTermCount();
+            }
+        };
+    }
+
+    @Override
+    public IndexedTerm getIndexedTerm(
+        final Term term)
+    {
+        final int index = this.getIndex(term);
+        return index < 0 ? null : new DefaultIndexedTerm(index, term);
+    }
+
+    @Override
+    public IndexedTerm getIndexedTerm(
+        final int index)
+    {
+        if (!this.hasIndex(index))
+        {
+            // Bad index.
+            return null;
+        }
+        return new DefaultIndexedTerm(index,
+            new DefaultTerm(this.getTermName(index)));
+    }
+
+    @Override
+    public int getIndex(
+        final Term term)
+    {
+        return term == null ? -1 : this.getIndex(term.getName());
+    }
+
+    /**
+     * Applies the seed to an unseeded hash.
+     *
+     * @param   hash
+     *      The unseeded hash.
+     * @return
+     *      The seeded hash.
+     */
+    protected long seeded(
+        final long hash)
+    {
+        return this.seed == 0 ? hash
+            : ConcurrentTermIndex.Utf8Key.mix(hash + this.seed);
+    }
+
+    /**
+     * Gets the bucket of a hash.
+     *
+     * @param   hash
+     *      The seeded hash.
+     * @param   bucketCount
+     *      The number of buckets.
+     * @return
+     *      The bucket.
+     */
+    protected int bucketOf(
+        final long hash,
+        final int bucketCount)
+    {
+        return (int) ((hash >>> 33) % bucketCount);
+    }
+
+    /**
+     * Gets the slot of a hash for a displacement.
+     *
+     * @param   hash
+     *      The seeded hash.
+     * @param   displacement
+     *      The displacement of the hash's bucket.
+     * @param   slotCount
+     *      The number of slots.
+     * @return
+     *      The slot.
+     */
+    protected static int slotOf(
+        final long hash,
+        final int displacement,
+        final int slotCount)
+    {
+        return (int) ((ConcurrentTermIndex.Utf8Key.mix(
+            hash + displacement * GOLDEN) >>> 1) % slotCount);
+    }
+
+}
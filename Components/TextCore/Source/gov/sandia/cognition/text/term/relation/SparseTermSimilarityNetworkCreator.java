@@ -0,0 +1,887 @@
+/*
+ * File:                SparseTermSimilarityNetworkCreator.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.term.relation;
+
+import gov.sandia.cognition.algorithm.ParallelAlgorithm;
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.math.matrix.DimensionalityMismatchException;
+import gov.sandia.cognition.math.matrix.Matrix;
+import gov.sandia.cognition.math.matrix.MatrixFactory;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorEntry;
+import gov.sandia.cognition.math.matrix.Vectorizable;
+import gov.sandia.cognition.text.term.TermIndex;
+import gov.sandia.cognition.util.AbstractCloneableSerializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Creates sparse term similarity networks that link each term to its most
+ * similar terms by the cosine similarity of their document vectors. It does
+ * the same computation as a {@code TermVectorSimilarityNetworkCreator} with
+ * cosine similarity, but without ever creating a term-by-document or a dense
+ * term-by-term matrix, so it can handle very large vocabularies.
+ * <BR><BR>
+ * The term vectors (the rows of the term-by-document matrix) are normalized
+ * and put in an inverted index from each document to the terms in it, so
+ * each term is only compared with the terms it shares a document with. When
+ * there is a minimum similarity, the index also leaves out a prefix of each
+ * term vector (in the order of the most common documents first) that cannot
+ * reach the minimum similarity on its own, as in the AllPairs algorithm,
+ * which makes the lists of the most common documents much shorter. The
+ * missing part of the similarity is added only for the candidates that can
+ * still reach the minimum. The terms are compared on several threads at
+ * once.
+ * <BR><BR>
+ * Each term keeps at most the maximum number of neighbors with the highest
+ * positive similarity that is at least the minimum similarity, and a term is
+ * not its own neighbor. Since the neighbors of each term are chosen
+ * separately, the network may not be symmetric. It is backed by a sparse
+ * matrix by default.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ * @see     TermVectorSimilarityNetworkCreator
+ */
+@PublicationReference(
+    author={"Roberto J. Bayardo", "Yiming Ma", "Ramakrishnan Srikant"},
+    title="Scaling up all pairs similarity search",
+    year=2007,
+    type=PublicationType.Conference,
+    publication="Proceedings of the 16th International Conference on World Wide Web",
+    pages={131, 140},
+    url="http://doi.acm.org/10.1145/1242572.1242591"
+)
+public class SparseTermSimilarityNetworkCreator
+    extends AbstractCloneableSerializable
+    implements ParallelAlgorithm
+{
+
+    /** The default maximum number of neighbors of each term is {@value}. */
+    public static final int DEFAULT_MAXIMUM_NEIGHBORS = 20;
+
+    /** The default minimum similarity is {@value}. */
+    public static final double DEFAULT_MINIMUM_SIMILARITY = 0.0;
+
+    /** The maximum number of neighbors to keep for each term. */
+    protected int maximumNeighbors;
+
+    /** The minimum similarity for a term to be a neighbor. */
+    protected double minimumSimilarity;
+
+    /** The matrix factory to create the matrix that backs the similarity
+     *  network. */
+    protected MatrixFactory<? extends Matrix> matrixFactory;
+
+    /** The thread pool to use. */
+    private transient ThreadPoolExecutor threadPool;
+
+    /**
+     * Creates a new {@code SparseTermSimilarityNetworkCreator} with default
+     * parameters.
+     */
+    public SparseTermSimilarityNetworkCreator()
+    {
+        this(DEFAULT_MAXIMUM_NEIGHBORS, DEFAULT_MINIMUM_SIMILARITY);
+    }
+
+    /**
+     * Creates a new {@code SparseTermSimilarityNetworkCreator}.
+     *
+     * @param   maximumNeighbors
+     *      The maximum number of neighbors to keep for each term. Must be
+     *      positive.
+     * @param   minimumSimilarity
+     *      The minimum similarity for a term to be a neighbor. Higher values
+     *      allow more pruning.
+     */
+    public SparseTermSimilarityNetworkCreator(
+        final int maximumNeighbors,
+        final double minimumSimilarity)
+    {
+        this(maximumNeighbors, minimumSimilarity,
+            MatrixFactory.getSparseDefault());
+    }
+
+    /**
+     * Creates a new {@code SparseTermSimilarityNetworkCreator}.
+     *
+     * @param   maximumNeighbors
+     *      The maximum number of neighbors to keep for each term. Must be
+     *      positive.
+     * @param   minimumSimilarity
+     *      The minimum similarity for a term to be a neighbor. Higher values
+     *      allow more pruning.
+     * @param   matrixFactory
+     *      The matrix factory used to create the similarity matrix.
+     */
+    public SparseTermSimilarityNetworkCreator(
+        final int maximumNeighbors,
+        final double minimumSimilarity,
+        final MatrixFactory<? extends Matrix> matrixFactory)
+    {
+        super();
+
+        this.setMaximumNeighbors(maximumNeighbors);
+        this.setMinimumSimilarity(minimumSimilarity);
+        this.setMatrixFactory(matrixFactory);
+        this.setThreadPool(null);
+    }
+
+    @Override
+    public SparseTermSimilarityNetworkCreator clone()
+    {
+        return (SparseTermSimilarityNetworkCreator) super.clone();
+    }
+
+    /**
+     * Creates a new similarity network between the terms in the given
+     * documents, where the similarity of two terms is the cosine similarity
+     * of their rows of the term-by-document matrix.
+     *
+     * @param   documents
+     *      The term vectors for each document to calculate the similarity
+     *      network from.
+     * @param   termIndex
+     *      The index of terms that was used to create the term vectors for
+     *      each document.
+     * @return
+     *      A new similarity network for the terms in the given index
+     *      calculated using the given vectors.
+     */
+    public MatrixBasedTermSimilarityNetwork create(
+        final Collection<? extends Vectorizable> documents,
+        final TermIndex termIndex)
+    {
+        final int termCount = termIndex.getTermCount();
+        final TermVectors terms = new TermVectors(documents, termCount,
+            this.minimumSimilarity);
+
+        // Find the neighbors of blocks of terms in parallel.
+        final int blockCount = Math.max(1, Math.min(termCount,
+            8 * this.getNumThreads()));
+        final int[][] neighbors = new int[termCount][];
+        final double[][] similarities = new double[termCount][];
+        final ArrayList<Callable<Void>> tasks =
+            new ArrayList<Callable<Void>>(blockCount);
+        for (int b = 0; b < blockCount; b++)
+        {
+            final int start = (int) ((long) b * termCount / blockCount);
+            final int end = (int) ((long) (b + 1) * termCount / blockCount);
+            tasks.add(() ->
+            {
+                final NeighborSearch search = new NeighborSearch(terms,
+                    this.maximumNeighbors, this.minimumSimilarity);
+                for (int i = start; i < end; i++)
+                {
+                    search.search(i);
+                    neighbors[i] = search.getNeighbors();
+                    similarities[i] = search.getSimilarities();
+                }
+                return null;
+            });
+        }
+
+        try
+        {
+            ParallelUtil.executeInParallel(tasks, this.getThreadPool());
+        }
+        catch (Exception ex)
+        {
+            throw new RuntimeException(ex);
+        }
+
+        // Fill in the sparse matrix one row at a time.
+        final Matrix result = this.getMatrixFactory().createMatrix(
+            termCount, termCount);
+        for (int i = 0; i < termCount; i++)
+        {
+            for (int j = 0; j < neighbors[i].length; j++)
+            {
+                result.setElement(i, neighbors[i][j], similarities[i][j]);
+            }
+            neighbors[i] = null;
+            similarities[i] = null;
+        }
+        return new MatrixBasedTermSimilarityNetwork(termIndex, result);
+    }
+
+    /**
+     * Gets the maximum number of neighbors to keep for each term.
+     *
+     * @return
+     *      The maximum number of neighbors.
+     */
+    public int getMaximumNeighbors()
+    {
+        return this.maximumNeighbors;
+    }
+
+    /**
+     * Sets the maximum number of neighbors to keep for each term.
+     *
+     * @param   maximumNeighbors
+     *      The maximum number of neighbors. Must be positive. Use
+     *      {@code Integer.MAX_VALUE} to keep all of them.
+     */
+    public void setMaximumNeighbors(
+        final int maximumNeighbors)
+    {
+        if (maximumNeighbors <= 0)
+        {
+            throw new IllegalArgumentException(
+                "maximumNeighbors must be positive");
+        }
+
+        this.maximumNeighbors = maximumNeighbors;
+    }
+
+    /**
+     * Gets the minimum similarity for a term to be a neighbor.
+     *
+     * @return
+     *      The minimum similarity.
+     */
+    public double getMinimumSimilarity()
+    {
+        return this.minimumSimilarity;
+    }
+
+    /**
+     * Sets the minimum similarity for a term to be a neighbor. Higher values
+     * allow more of the term vectors to be left out of the index.
+     *
+     * @param   minimumSimilarity
+     *      The minimum similarity. Must be at most 1.
+     */
+    public void setMinimumSimilarity(
+        final double minimumSimilarity)
+    {
+        if (minimumSimilarity > 1.0)
+        {
+            throw new IllegalArgumentException(
+                "minimumSimilarity must be at most 1");
+        }
+
+        this.minimumSimilarity = minimumSimilarity;
+    }
+
+    /**
+     * Gets the matrix factory to create the matrix that backs the similarity
+     * network.
+     *
+     * @return
+     *      The matrix factory.
+     */
+    public MatrixFactory<? extends Matrix> getMatrixFactory()
+    {
+        return this.matrixFactory;
+    }
+
+    /**
+     * Sets the matrix factory to create the matrix that backs the similarity
+     * network.
+     *
+     * @param   matrixFactory
+     *      The matrix factory.
+     */
+    public void setMatrixFactory(
+        final MatrixFactory<? extends Matrix> matrixFactory)
+    {
+        this.matrixFactory = matrixFactory;
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool()
+    {
+        if (this.threadPool == null)
+        {
+            this.setThreadPool(ParallelUtil.createThreadPool());
+        }
+
+        return this.threadPool;
+    }
+
+    @Override
+    public void setThreadPool(
+        final ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
+    @Override
+    public int getNumThreads()
+    {
+        return ParallelUtil.getNumThreads(this.getThreadPool());
+    }
+
+    /**
+     * The normalized term vectors in compressed row form, with the documents
+     * renumbered from the most terms to the fewest, and the inverted index
+     * over the indexed suffix of each vector. It is read-only once created.
+     */
+    protected static class TermVectors
+    {
+
+        /** The start of each term's entries, plus the end. */
+        protected int[] starts;
+
+        /** The renumbered document of each entry, increasing in each row. */
+        protected int[] documents;
+
+        /** The normalized value of each entry. */
+        protected double[] values;
+
+        /** The number of entries of each term left out of the index. */
+        protected int[] prefixLengths;
+
+        /** A bound on the similarity of any term with each term's prefix. */
+        protected double[] prefixBounds;
+
+        /** The start of each document's postings, plus the end. */
+        protected int[] postingStarts;
+
+        /** The term of each posting. */
+        protected int[] postingTerms;
+
+        /** The value of each posting. */
+        protected double[] postingValues;
+
+        /**
+         * Creates the term vectors and index for some documents.
+         *
+         * @param   documentCollection
+         *      The documents.
+         * @param   termCount
+         *      The number of terms.
+         * @param   minimumSimilarity
+         *      The minimum similarity, which determines the prefixes.
+         */
+        protected TermVectors(
+            final Collection<? extends Vectorizable> documentCollection,
+            final int termCount,
+            final double minimumSimilarity)
+        {
+            super();
+
+            // Count the entries of each term and document.
+            final ArrayList<Vector> vectors =
+                new ArrayList<Vector>(documentCollection.size());
+            final int documentCount = documentCollection.size();
+            final int[] documentSizes = new int[documentCount];
+            this.starts = new int[termCount + 1];
+            boolean negative = false;
+            for (Vectorizable document : documentCollection)
+            {
+                final Vector vector = document.convertToVector();
+                if (vector.getDimensionality() > termCount)
+                {
+                    throw new DimensionalityMismatchException(
+                        "document dimensionality must be at most the number "
+                        + "of terms in the term index");
+                }
+                for (VectorEntry entry : vector)
+                {
+                    final double value = entry.getValue();
+                    if (value != 0.0)
+                    {
+                        this.starts[entry.getIndex() + 1]++;
+                        documentSizes[vectors.size()]++;
+                        negative |= value < 0.0;
+                    }
+                }
+                vectors.add(vector);
+            }
+            for (int i = 0; i < termCount; i++)
+            {
+                this.starts[i + 1] += this.starts[i];
+            }
+
+            // Renumber the documents from the most terms to the fewest, and
+            // fill in the rows in that order so that each row is sorted.
+            final long[] keys = new long[documentCount];
+            for (int d = 0; d < documentCount; d++)
+            {
+                keys[d] = ((long) (Integer.MAX_VALUE - documentSizes[d]) << 32)
+                    | d;
+            }
+            Arrays.sort(keys);
+            final int entryCount = this.starts[termCount];
+            this.documents = new int[entryCount];
+            this.values = new double[entryCount];
+            final int[] fill = Arrays.copyOf(this.starts, termCount);
+            for (int rank = 0; rank < documentCount; rank++)
+            {
+                final Vector vector = vectors.get((int) keys[rank]);
+                vectors.set((int) keys[rank], null);
+                for (VectorEntry entry : vector)
+                {
+                    final double value = entry.getValue();
+                    if (value != 0.0)
+                    {
+                        final int position = fill[entry.getIndex()]++;
+                        this.documents[position] = rank;
+                        this.values[position] = value;
+                    }
+                }
+            }
+
+            // Normalize the rows and find the largest value of each document.
+            final double[] maximumValues = new double[documentCount];
+            for (int i = 0; i < termCount; i++)
+            {
+                double sumOfSquares = 0.0;
+                for (int p = this.starts[i]; p < this.starts[i + 1]; p++)
+                {
+                    sumOfSquares += this.values[p] * this.values[p];
+                }
+                final double norm = Math.sqrt(sumOfSquares);
+                for (int p = this.starts[i]; p < this.starts[i + 1]; p++)
+                {
+                    this.values[p] /= norm;
+                    final int document = this.documents[p];
+                    maximumValues[document] = Math.max(maximumValues[document],
+                        Math.abs(this.values[p]));
+                }
+            }
+
+            // Leave out each prefix whose bound on the similarity with any
+            // term stays below the minimum. The bound only holds for
+            // non-negative values.
+            this.prefixLengths = new int[termCount];
+            this.prefixBounds = new double[termCount];
+            if (minimumSimilarity > 0.0 && !negative)
+            {
+                for (int i = 0; i < termCount; i++)
+                {
+                    double bound = 0.0;
+                    double sumOfSquares = 0.0;
+                    int p = this.starts[i];
+                    while (p < this.starts[i + 1])
+                    {
+                        final double next = bound + this.values[p]
+                            * maximumValues[this.documents[p]];
+                        if (next >= minimumSimilarity)
+                        {
+                            break;
+                        }
+                        bound = next;
+                        sumOfSquares += this.values[p] * this.values[p];
+                        p++;
+                    }
+                    this.prefixLengths[i] = p - this.starts[i];
+                    this.prefixBounds[i] =
+                        Math.min(bound, Math.sqrt(sumOfSquares));
+                }
+            }
+
+            // Build the inverted index over the rest of each row.
+            this.postingStarts = new int[documentCount + 1];
+            for (int i = 0; i < termCount; i++)
+            {
+                for (int p = this.starts[i] + this.prefixLengths[i];
+                    p < this.starts[i + 1]; p++)
+                {
+                    this.postingStarts[this.documents[p] + 1]++;
+                }
+            }
+            for (int d = 0; d < documentCount; d++)
+            {
+                this.postingStarts[d + 1] += this.postingStarts[d];
+            }
+            this.postingTerms = new int[this.postingStarts[documentCount]];
+            this.postingValues = new double[this.postingTerms.length];
+            final int[] postingFill =
+                Arrays.copyOf(this.postingStarts, documentCount);
+            for (int i = 0; i < termCount; i++)
+            {
+                for (int p = this.starts[i] + this.prefixLengths[i];
+                    p < this.starts[i + 1]; p++)
+                {
+                    final int position = postingFill[this.documents[p]]++;
+                    this.postingTerms[position] = i;
+                    this.postingValues[position] = this.values[p];
+                }
+            }
+        }
+
+        /**
+         * Gets the number of terms.
+         *
+         * @return
+         *      The number of terms.
+         */
+        protected int getTermCount()
+        {
+            return this.starts.length - 1;
+        }
+
+    }
+
+    /**
+     * The per-thread state for finding the neighbors of terms: a score
+     * accumulator over all the terms and a bounded heap of the best
+     * neighbors.
+     */
+    protected static class NeighborSearch
+    {
+
+        /** The term vectors and index. */
+        protected final TermVectors terms;
+
+        /** The maximum number of neighbors. */
+        protected final int maximumNeighbors;
+
+        /** The minimum similarity. */
+        protected final double minimumSimilarity;
+
+        /** The partial similarity of each candidate. */
+        protected final double[] scores;
+
+        /** The candidates of the current term. */
+        protected int[] candidates;
+
+        /** The number of candidates. */
+        protected int candidateCount;
+
+        /** The heap of neighbors, with the worst at the root. */
+        protected int[] heapTerms;
+
+        /** The similarities of the heap of neighbors. */
+        protected double[] heapSimilarities;
+
+        /** The number of neighbors in the heap. */
+        protected int heapSize;
+
+        /**
+         * Creates a new {@code NeighborSearch}.
+         *
+         * @param   terms
+         *      The term vectors and index.
+         * @param   maximumNeighbors
+         *      The maximum number of neighbors.
+         * @param   minimumSimilarity
+         *      The minimum similarity.
+         */
+        protected NeighborSearch(
+            final TermVectors terms,
+            final int maximumNeighbors,
+            final double minimumSimilarity)
+        {
+            super();
+
+            this.terms = terms;
+            this.maximumNeighbors = maximumNeighbors;
+            this.minimumSimilarity = minimumSimilarity;
+            this.scores = new double[terms.getTermCount()];
+            this.candidates = new int[16];
+            this.heapTerms = new int[16];
+            this.heapSimilarities = new double[16];
+        }
+
+        /**
+         * Finds the neighbors of a term.
+         *
+         * @param   term
+         *      The term.
+         */
+        protected void search(
+            final int term)
+        {
+            final TermVectors terms = this.terms;
+            final int start = terms.starts[term];
+            final int end = terms.starts[term + 1];
+
+            // Accumulate the similarity over the indexed parts of the
+            // candidates.
+            this.candidateCount = 0;
+            for (int p = start; p < end; p++)
+            {
+                final int document = terms.documents[p];
+                final double value = terms.values[p];
+                for (int q = terms.postingStarts[document];
+                    q < terms.postingStarts[document + 1]; q++)
+                {
+                    final int other = terms.postingTerms[q];
+                    if (other != term)
+                    {
+                        if (this.scores[other] == 0.0)
+                        {
+                            if (this.candidateCount == this.candidates.length)
+                            {
+                                this.candidates = Arrays.copyOf(
+                                    this.candidates,
+                                    2 * this.candidates.length);
+                            }
+                            this.candidates[this.candidateCount++] = other;
+                        }
+                        this.scores[other] += value * terms.postingValues[q];
+                        if (this.scores[other] == 0.0)
+                        {
+                            // Keep it marked as a candidate.
+                            this.scores[other] = Double.MIN_VALUE;
+                        }
+                    }
+                }
+            }
+
+            // Add the similarity over the prefixes of the candidates that
+            // can still reach the minimum.
+            this.heapSize = 0;
+            for (int c = 0; c < this.candidateCount; c++)
+            {
+                final int other = this.candidates[c];
+                double similarity = this.scores[other];
+                this.scores[other] = 0.0;
+
+                final int prefixLength = terms.prefixLengths[other];
+                if (prefixLength > 0)
+                {
+                    if (similarity + terms.prefixBounds[other]
+                        < this.minimumSimilarity)
+                    {
+                        continue;
+                    }
+                    similarity += dot(terms, start, end, terms.starts[other],
+                        terms.starts[other] + prefixLength);
+                }
+
+                if (similarity > 0.0 && similarity >= this.minimumSimilarity)
+                {
+                    this.offer(other, similarity);
+                }
+            }
+        }
+
+        /**
+         * Gets the neighbors found by the last search, in increasing order.
+         *
+         * @return
+         *      The neighbor terms.
+         */
+        protected int[] getNeighbors()
+        {
+            this.sortHeapByTerm();
+            return Arrays.copyOf(this.heapTerms, this.heapSize);
+        }
+
+        /**
+         * Gets the similarities of the neighbors found by the last search, in
+         * the same order as {@link #getNeighbors()}.
+         *
+         * @return
+         *      The neighbor similarities.
+         */
+        protected double[] getSimilarities()
+        {
+            return Arrays.copyOf(this.heapSimilarities, this.heapSize);
+        }
+
+        /**
+         * Offers a neighbor to the heap of the best neighbors.
+         *
+         * @param   other
+         *      The neighbor term.
+         * @param   similarity
+         *      Its similarity.
+         */
+        protected void offer(
+            final int other,
+            final double similarity)
+        {
+            if (this.heapSize < this.maximumNeighbors)
+            {
+                if (this.heapSize == this.heapTerms.length)
+                {
+                    final int capacity = (int) Math.min(this.maximumNeighbors,
+                        2L * this.heapTerms.length);
+                    this.heapTerms = Arrays.copyOf(this.heapTerms, capacity);
+                    this.heapSimilarities = Arrays.copyOf(
+                        this.heapSimilarities, capacity);
+                }
+
+                // Sift up.
+                int position = this.heapSize++;
+                while (position > 0)
+                {
+                    final int parent = (position - 1) / 2;
+                    if (!this.worse(other, similarity, parent))
+                    {
+                        break;
+                    }
+                    this.heapTerms[position] = this.heapTerms[parent];
+                    this.heapSimilarities[position] =
+                        this.heapSimilarities[parent];
+                    position = parent;
+                }
+                this.heapTerms[position] = other;
+                this.heapSimilarities[position] = similarity;
+            }
+            else if (this.worse(this.heapTerms[0], this.heapSimilarities[0],
+                other, similarity))
+            {
+                // Replace the worst neighbor and sift down.
+                int position = 0;
+                while (true)
+                {
+                    int child = 2 * position + 1;
+                    if (child >= this.heapSize)
+                    {
+                        break;
+                    }
+                    if (child + 1 < this.heapSize
+                        && this.worse(this.heapTerms[child + 1],
+                            this.heapSimilarities[child + 1],
+                            this.heapTerms[child],
+                            this.heapSimilarities[child]))
+                    {
+                        child++;
+                    }
+                    if (!this.worse(this.heapTerms[child],
+                        this.heapSimilarities[child], other, similarity))
+                    {
+                        break;
+                    }
+                    this.heapTerms[position] = this.heapTerms[child];
+                    this.heapSimilarities[position] =
+                        this.heapSimilarities[child];
+                    position = child;
+                }
+                this.heapTerms[position] = other;
+                this.heapSimilarities[position] = similarity;
+            }
+        }
+
+        /**
+         * Determines if a neighbor is worse than the one at a heap position.
+         *
+         * @param   term
+         *      The neighbor term.
+         * @param   similarity
+         *      Its similarity.
+         * @param   position
+         *      The heap position.
+         * @return
+         *      True if the neighbor is worse.
+         */
+        private boolean worse(
+            final int term,
+            final double similarity,
+            final int position)
+        {
+            return this.worse(term, similarity, this.heapTerms[position],
+                this.heapSimilarities[position]);
+        }
+
+        /**
+         * Determines if one neighbor is worse than another: it has a lower
+         * similarity, or the same similarity and a higher term index.
+         *
+         * @param   term
+         *      The first neighbor term.
+         * @param   similarity
+         *      Its similarity.
+         * @param   otherTerm
+         *      The second neighbor term.
+         * @param   otherSimilarity
+         *      Its similarity.
+         * @return
+         *      True if the first neighbor is worse.
+         */
+        private boolean worse(
+            final int term,
+            final double similarity,
+            final int otherTerm,
+            final double otherSimilarity)
+        {
+            return similarity < otherSimilarity
+                || (similarity == otherSimilarity && term > otherTerm);
+        }
+
+        /**
+         * Sorts the heap by term index, which destroys the heap.
+         */
+        private void sortHeapByTerm()
+        {
+            final long[] keys = new long[this.heapSize];
+            for (int i = 0; i < this.heapSize; i++)
+            {
+                keys[i] = ((long) this.heapTerms[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            final double[] similarities =
+                Arrays.copyOf(this.heapSimilarities, this.heapSize);
+            for (int i = 0; i < this.heapSize; i++)
+            {
+                this.heapTerms[i] = (int) (keys[i] >>> 32);
+                this.heapSimilarities[i] = similarities[(int) keys[i]];
+            }
+        }
+
+        /**
+         * Computes the dot product of two ranges of rows, which are sorted
+         * by document.
+         *
+         * @param   terms
+         *      The term vectors.
+         * @param   start
+         *      The start of the first range.
+         * @param   end
+         *      The end of the first range.
+         * @param   otherStart
+         *      The start of the second range.
+         * @param   otherEnd
+         *      The end of the second range.
+         * @return
+         *      The dot product.
+         */
+        private static double dot(
+            final TermVectors terms,
+            int start,
+            final int end,
+            int otherStart,
+            final int otherEnd)
+        {
+            double result = 0.0;
+            while (start < end && otherStart < otherEnd)
+            {
+                final int document = terms.documents[start];
+                final int otherDocument = terms.documents[otherStart];
+                if (document == otherDocument)
+                {
+                    result += terms.values[start] * terms.values[otherStart];
+                    start++;
+                    otherStart++;
+                }
+                else if (document < otherDocument)
+                {
+                    start++;
+                }
+                else
+                {
+                    otherStart++;
+                }
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -26,10 +26,13 @@ import java.util.Collection;
 
 /**
  * Creates term similarity networks by comparing vectors representing the
- * terms.
+ * terms. It compares every pair of terms and creates a term-by-term matrix,
+ * so for large vocabularies use a {@code SparseTermSimilarityNetworkCreator},
+ * which only keeps the most similar neighbors of each term.
  * 
  * @author  Justin Basilico
  * @since   3.0
+ * @see     SparseTermSimilarityNetworkCreator
  */
 public class TermVectorSimilarityNetworkCreator
     extends AbstractCloneableSerializable
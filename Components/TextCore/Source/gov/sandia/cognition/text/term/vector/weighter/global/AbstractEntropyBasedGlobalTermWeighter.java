@@ -106,8 +106,9 @@ public abstract class AbstractEntropyBasedGlobalTermWeighter
 
                 if (count > 0.0)
                 {
-                    final double termEntropySum = count * Math.log(count)
-                        - this.termEntropiesSum.getElement(index);
+                    final double termEntropySum =
+                        this.termEntropiesSum.getElement(index)
+                        - count * Math.log(count);
                     this.termEntropiesSum.setElement(index, termEntropySum);
                 }
             }
@@ -116,6 +117,37 @@ public abstract class AbstractEntropyBasedGlobalTermWeighter
         return result;
     }
 
+    @Override
+    public void add(
+        final GlobalTermStatistics statistics)
+    {
+        super.add(statistics);
+
+        final int dimensionality = statistics.getDimensionality();
+        for (int i = 0; i < dimensionality; i++)
+        {
+            final double entropySum = statistics.getEntropySum(i);
+            if (entropySum != 0.0)
+            {
+                this.termEntropiesSum.increment(i, entropySum);
+            }
+        }
+    }
+
+    @Override
+    public GlobalTermStatistics getStatistics()
+    {
+        final GlobalTermStatistics result = super.getStatistics();
+        if (this.termEntropiesSum != null)
+        {
+            for (VectorEntry entry : this.termEntropiesSum)
+            {
+                result.entropySums[entry.getIndex()] = entry.getValue();
+            }
+        }
+        return result;
+    }
+
     @Override
     protected void initializeVectors(
         final int dimensionality)
@@ -19,7 +19,10 @@ import gov.sandia.cognition.math.matrix.SparseVectorFactory;
 import gov.sandia.cognition.math.matrix.Vector;
 import gov.sandia.cognition.math.matrix.VectorEntry;
 import gov.sandia.cognition.math.matrix.VectorFactory;
+import gov.sandia.cognition.math.matrix.Vectorizable;
 import gov.sandia.cognition.util.ObjectUtil;
+import java.util.Collection;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * An abstract {@code GlobalTermWeighter} that keeps track of term frequencies
@@ -27,6 +30,11 @@ import gov.sandia.cognition.util.ObjectUtil;
  * (the number of documents the term appears in) and the global frequency
  * (the total number of times the term appears). It also keeps track of the
  * total number of documents.
+ * <BR><BR>
+ * Documents can be added one at a time as they stream in, or the statistics
+ * of a whole set of documents can be computed in parallel shards as a
+ * {@code GlobalTermStatistics} and added at once. The global weights of the
+ * subclasses are cached until the next change.
  * 
  * @author  Justin Basilico
  * @since   3.0
@@ -160,6 +168,93 @@ public abstract class AbstractFrequencyBasedGlobalTermWeighter
         return true;
     }
 
+    /**
+     * Adds the statistics of a set of documents, such as ones computed in
+     * parallel shards or taken from another weighter. Unlike adding a single
+     * document, the statistics may have a smaller dimensionality than this
+     * weighter.
+     *
+     * @param   statistics
+     *      The statistics of the documents to add.
+     */
+    public void add(
+        final GlobalTermStatistics statistics)
+    {
+        final int dimensionality = statistics.getDimensionality();
+        if (this.termDocumentFrequencies == null)
+        {
+            this.initializeVectors(dimensionality);
+        }
+        else if (dimensionality
+            > this.termDocumentFrequencies.getDimensionality())
+        {
+            this.growVectors(dimensionality);
+        }
+
+        this.documentCount += statistics.getDocumentCount();
+        for (int i = 0; i < dimensionality; i++)
+        {
+            final double documentFrequency =
+                statistics.getDocumentFrequency(i);
+            if (documentFrequency != 0.0)
+            {
+                this.termDocumentFrequencies.increment(i, documentFrequency);
+            }
+
+            final double globalFrequency = statistics.getGlobalFrequency(i);
+            if (globalFrequency != 0.0)
+            {
+                this.termGlobalFrequencies.increment(i, globalFrequency);
+            }
+        }
+    }
+
+    /**
+     * Adds all of the given documents by computing their statistics in
+     * parallel shards and then merging them into this weighter.
+     *
+     * @param   documents
+     *      The documents to add.
+     * @param   threadPool
+     *      The thread pool to use, or null to run on the calling thread.
+     */
+    public void addAll(
+        final Collection<? extends Vectorizable> documents,
+        final ThreadPoolExecutor threadPool)
+    {
+        this.add(GlobalTermStatistics.compute(documents, threadPool));
+    }
+
+    /**
+     * Gets a copy of the statistics of the documents in this weighter, which
+     * can be merged with the statistics of other weighters.
+     *
+     * @return
+     *      The statistics of the documents in this weighter.
+     */
+    public GlobalTermStatistics getStatistics()
+    {
+        final int dimensionality =
+            this.termDocumentFrequencies == null ? 0
+            : this.termDocumentFrequencies.getDimensionality();
+        final GlobalTermStatistics result =
+            new GlobalTermStatistics(dimensionality);
+        result.documentCount = this.documentCount;
+        if (this.termDocumentFrequencies != null)
+        {
+            for (VectorEntry entry : this.termDocumentFrequencies)
+            {
+                result.documentFrequencies[entry.getIndex()] =
+                    entry.getValue();
+            }
+            for (VectorEntry entry : this.termGlobalFrequencies)
+            {
+                result.globalFrequencies[entry.getIndex()] = entry.getValue();
+            }
+        }
+        return result;
+    }
+
     /**
      * Initializes internal vectors to the given dimensionality.
      * 
@@ -94,6 +94,14 @@ public class DominanceGlobalTermWeighter
         this.setDominance(null);
     }
 
+    @Override
+    public void add(
+        final GlobalTermStatistics statistics)
+    {
+        super.add(statistics);
+        this.setDominance(null);
+    }
+
     @Override
     public boolean remove(
         final Vector counts)
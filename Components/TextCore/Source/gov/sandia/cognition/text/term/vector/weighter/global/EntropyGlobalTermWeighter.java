@@ -103,6 +103,14 @@ public class EntropyGlobalTermWeighter
         this.setEntropy(null);
     }
 
+    @Override
+    public void add(
+        final GlobalTermStatistics statistics)
+    {
+        super.add(statistics);
+        this.setEntropy(null);
+    }
+
     @Override
     public boolean remove(
         final Vector counts)
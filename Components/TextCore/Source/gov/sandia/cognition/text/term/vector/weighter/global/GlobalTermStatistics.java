@@ -0,0 +1,332 @@
+/*
+ * File:                GlobalTermStatistics.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.term.vector.weighter.global;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorEntry;
+import gov.sandia.cognition.math.matrix.Vectorizable;
+import gov.sandia.cognition.util.AbstractCloneableSerializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * The statistics that the frequency-based and entropy-based global term
+ * weighters keep over a set of documents, stored in primitive arrays: the
+ * number of documents, and for each term its document frequency, its global
+ * frequency, and its sum of the entropy term (f_ij * log(f_ij)).
+ * <BR><BR>
+ * All of the statistics are sums over documents, so the statistics of
+ * separate shards of a document collection can be merged in any grouping to
+ * get the statistics of the whole collection. This allows the statistics to
+ * be built on several threads at once (see
+ * {@link #compute(Collection, ThreadPoolExecutor)}) or on different machines,
+ * and then added to a weighter with
+ * {@link AbstractFrequencyBasedGlobalTermWeighter#add(GlobalTermStatistics)}.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class GlobalTermStatistics
+    extends AbstractCloneableSerializable
+{
+
+    /** The number of documents. */
+    protected int documentCount;
+
+    /** The number of terms the statistics cover. */
+    protected int dimensionality;
+
+    /** The number of documents that each term occurs in. */
+    protected double[] documentFrequencies;
+
+    /** The total number of times that each term occurs. */
+    protected double[] globalFrequencies;
+
+    /** The sum of f_ij * log(f_ij) over the documents for each term. */
+    protected double[] entropySums;
+
+    /**
+     * Creates a new, empty {@code GlobalTermStatistics}.
+     */
+    public GlobalTermStatistics()
+    {
+        this(0);
+    }
+
+    /**
+     * Creates a new, empty {@code GlobalTermStatistics}.
+     *
+     * @param   dimensionality
+     *      The initial dimensionality. It grows as needed.
+     */
+    public GlobalTermStatistics(
+        final int dimensionality)
+    {
+        super();
+
+        this.documentCount = 0;
+        this.dimensionality = dimensionality;
+        this.documentFrequencies = new double[dimensionality];
+        this.globalFrequencies = new double[dimensionality];
+        this.entropySums = new double[dimensionality];
+    }
+
+    @Override
+    public GlobalTermStatistics clone()
+    {
+        final GlobalTermStatistics clone =
+            (GlobalTermStatistics) super.clone();
+        clone.documentFrequencies = this.documentFrequencies.clone();
+        clone.globalFrequencies = this.globalFrequencies.clone();
+        clone.entropySums = this.entropySums.clone();
+        return clone;
+    }
+
+    /**
+     * Computes the statistics of a collection of documents by splitting it
+     * into one contiguous shard per thread, computing the statistics of each
+     * shard in parallel, and merging them.
+     *
+     * @param   documents
+     *      The documents, as term count vectors.
+     * @param   threadPool
+     *      The thread pool to use, or null to run on the calling thread.
+     * @return
+     *      The statistics of the documents.
+     */
+    public static GlobalTermStatistics compute(
+        final Collection<? extends Vectorizable> documents,
+        final ThreadPoolExecutor threadPool)
+    {
+        final List<? extends Vectorizable> list =
+            new ArrayList<Vectorizable>(documents);
+        final int shardCount = Math.max(1, Math.min(list.size(),
+            ParallelUtil.getNumThreads(threadPool)));
+        final ArrayList<Callable<GlobalTermStatistics>> tasks =
+            new ArrayList<Callable<GlobalTermStatistics>>(shardCount);
+        for (int i = 0; i < shardCount; i++)
+        {
+            final List<? extends Vectorizable> shard = list.subList(
+                (int) ((long) i * list.size() / shardCount),
+                (int) ((long) (i + 1) * list.size() / shardCount));
+            tasks.add(() ->
+            {
+                final GlobalTermStatistics statistics =
+                    new GlobalTermStatistics();
+                for (Vectorizable document : shard)
+                {
+                    statistics.add(document.convertToVector());
+                }
+                return statistics;
+            });
+        }
+
+        final List<GlobalTermStatistics> shards;
+        try
+        {
+            if (threadPool == null)
+            {
+                shards = ParallelUtil.executeInSequence(tasks);
+            }
+            else
+            {
+                shards = ParallelUtil.executeInParallel(tasks, threadPool);
+            }
+        }
+        catch (Exception ex)
+        {
+            throw new RuntimeException(ex);
+        }
+
+        // Merge in shard order so the result does not depend on timing.
+        final GlobalTermStatistics result = shards.get(0);
+        for (int i = 1; i < shards.size(); i++)
+        {
+            result.merge(shards.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Adds the statistics of a document.
+     *
+     * @param   counts
+     *      The term counts of the document.
+     */
+    public void add(
+        final Vector counts)
+    {
+        this.ensureDimensionality(counts.getDimensionality());
+        this.documentCount++;
+        for (VectorEntry entry : counts)
+        {
+            final double count = entry.getValue();
+            if (count != 0.0)
+            {
+                final int index = entry.getIndex();
+                this.documentFrequencies[index] += 1.0;
+                this.globalFrequencies[index] += count;
+                if (count > 0.0)
+                {
+                    this.entropySums[index] += count * Math.log(count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the statistics of a document that was added.
+     *
+     * @param   counts
+     *      The term counts of the document.
+     */
+    public void remove(
+        final Vector counts)
+    {
+        this.ensureDimensionality(counts.getDimensionality());
+        this.documentCount--;
+        for (VectorEntry entry : counts)
+        {
+            final double count = entry.getValue();
+            if (count != 0.0)
+            {
+                final int index = entry.getIndex();
+                this.documentFrequencies[index] -= 1.0;
+                this.globalFrequencies[index] -= count;
+                if (count > 0.0)
+                {
+                    this.entropySums[index] -= count * Math.log(count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the statistics of another set of documents to these statistics.
+     * Merging is associative and commutative.
+     *
+     * @param   other
+     *      The other statistics. It is not changed.
+     */
+    public void merge(
+        final GlobalTermStatistics other)
+    {
+        this.ensureDimensionality(other.dimensionality);
+        this.documentCount += other.documentCount;
+        for (int i = 0; i < other.dimensionality; i++)
+        {
+            this.documentFrequencies[i] += other.documentFrequencies[i];
+            this.globalFrequencies[i] += other.globalFrequencies[i];
+            this.entropySums[i] += other.entropySums[i];
+        }
+    }
+
+    /**
+     * Grows the statistics to cover at least the given number of terms.
+     *
+     * @param   dimensionality
+     *      The number of terms.
+     */
+    protected void ensureDimensionality(
+        final int dimensionality)
+    {
+        if (dimensionality > this.documentFrequencies.length)
+        {
+            final int capacity = Math.max(dimensionality,
+                (int) Math.min(Integer.MAX_VALUE - 8,
+                    2L * this.documentFrequencies.length));
+            this.documentFrequencies =
+                Arrays.copyOf(this.documentFrequencies, capacity);
+            this.globalFrequencies =
+                Arrays.copyOf(this.globalFrequencies, capacity);
+            this.entropySums = Arrays.copyOf(this.entropySums, capacity);
+        }
+        this.dimensionality = Math.max(this.dimensionality, dimensionality);
+    }
+
+    /**
+     * Gets the number of documents.
+     *
+     * @return
+     *      The number of documents.
+     */
+    public int getDocumentCount()
+    {
+        return this.documentCount;
+    }
+
+    /**
+     * Gets the number of terms the statistics cover, which is the largest
+     * dimensionality of the documents.
+     *
+     * @return
+     *      The dimensionality.
+     */
+    public int getDimensionality()
+    {
+        return this.dimensionality;
+    }
+
+    /**
+     * Gets the number of documents that a term occurs in.
+     *
+     * @param   index
+     *      The index of the term.
+     * @return
+     *      The document frequency of the term.
+     */
+    public double getDocumentFrequency(
+        final int index)
+    {
+        return index < this.dimensionality
+            ? this.documentFrequencies[index] : 0.0;
+    }
+
+    /**
+     * Gets the total number of times that a term occurs.
+     *
+     * @param   index
+     *      The index of the term.
+     * @return
+     *      The global frequency of the term.
+     */
+    public double getGlobalFrequency(
+        final int index)
+    {
+        return index < this.dimensionality
+            ? this.globalFrequencies[index] : 0.0;
+    }
+
+    /**
+     * Gets the sum of the entropy term (f_ij * log(f_ij)) over the documents
+     * for a term.
+     *
+     * @param   index
+     *      The index of the term.
+     * @return
+     *      The entropy sum of the term.
+     */
+    public double getEntropySum(
+        final int index)
+    {
+        return index < this.dimensionality ? this.entropySums[index] : 0.0;
+    }
+
+}
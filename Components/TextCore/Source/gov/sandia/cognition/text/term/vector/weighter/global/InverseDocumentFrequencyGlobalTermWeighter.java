@@ -93,6 +93,14 @@ public class InverseDocumentFrequencyGlobalTermWeighter
         this.setInverseDocumentFrequency(null);
     }
 
+    @Override
+    public void add(
+        final GlobalTermStatistics statistics)
+    {
+        super.add(statistics);
+        this.setInverseDocumentFrequency(null);
+    }
+
     @Override
     public boolean remove(
         final Vector counts)
@@ -14,15 +14,21 @@
 
 package gov.sandia.cognition.text.token;
 
-import java.io.BufferedReader;
-import java.io.IOException;
 import java.io.Reader;
-import java.util.LinkedList;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * An abstract implementation of a tokenizer that considers each character
  * individually. It takes care of most of the work and lets the subclasses
  * define what a valid token member character is.
+ * <BR><BR>
+ * Large inputs can be scanned without creating objects per token through a
+ * {@link TokenCursor}, or tokenized lazily from a {@code CharBuffer}.
  * 
  * @author  Justin Basilico
  * @since   3.0
@@ -42,53 +48,19 @@ public abstract class AbstractCharacterBasedTokenizer
     public Iterable<Token> tokenize(
         final Reader reader)
     {
-        // Create a buffered reader to do the tokenization.
-        final BufferedReader br = new BufferedReader(reader);
-        final LinkedList<Token> result = new LinkedList<Token>();
-
+        final ArrayList<Token> result = new ArrayList<Token>();
         try
         {
-            // We are going to read the text into tokens. We keep track of
-            // the current index into the reader plus the starting point of
-            // each token. We read the data for each token into the string
-            // builder.
-            int index = 0;
-            int start = 0;
-            StringBuilder text = new StringBuilder();
-
-            // TODO: Is there a better way to read in the character?
-            final char[] buffer = new char[1];
-            while (br.read(buffer) == 1)
+            // Read the text a block at a time and create a token for each
+            // span of token member characters.
+            final TokenCursor cursor = new TokenCursor(this, reader,
+                TokenCursor.DEFAULT_BLOCK_SIZE);
+            while (cursor.next())
             {
-                final char c = buffer[0];
-
-                //
-                if (!this.isTokenMember(c))
-                {
-                    if (text.length() > 0)
-                    {
-                        result.add(new DefaultToken(text.toString(), start));
-                        text = new StringBuilder();
-                    }
-
-                    start = index + 1;
-                }
-                else
-                {
-                    // This is a part of the current token, so add it.
-                    text.append(c);
-                }
-
-                index++;
-            }
-
-            // Take care of the last token, if there is one.
-            if (text.length() > 0)
-            {
-                result.add(new DefaultToken(text.toString(), start));
+                result.add(cursor.toToken());
             }
         }
-        catch (IOException e)
+        catch (UncheckedIOException e)
         {
             // Error during tokenization.
             return null;
@@ -97,6 +69,93 @@ public abstract class AbstractCharacterBasedTokenizer
         return result;
     }
 
+    /**
+     * Lazily tokenizes the given characters. Tokens are created as the
+     * result is iterated, so the whole list of tokens is never in memory at
+     * once, and the result can be iterated more than once. The buffer's
+     * position and limit are not changed.
+     *
+     * @param   text
+     *      The text to tokenize.
+     * @return
+     *      The ordered tokens of the text.
+     */
+    public Iterable<Token> tokenize(
+        final CharBuffer text)
+    {
+        return () -> new Iterator<Token>()
+        {
+            private final TokenCursor cursor = cursor(text);
+
+            private boolean hasNext = this.cursor.next();
+
+            @Override
+            public boolean hasNext()
+            {
+                return this.hasNext;
+            }
+
+            @Override
+            public Token next()
+            {
+                if (!this.hasNext)
+                {
+                    throw new NoSuchElementException();
+                }
+                final Token result = this.cursor.toToken();
+                this.hasNext = this.cursor.next();
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Creates a cursor that scans the tokens of the given characters in
+     * place, without creating any objects per token.
+     *
+     * @param   text
+     *      The text to tokenize. Its position and limit are not changed.
+     * @return
+     *      A new cursor over the tokens of the text.
+     */
+    public TokenCursor cursor(
+        final CharBuffer text)
+    {
+        return new TokenCursor(this, text);
+    }
+
+    /**
+     * Creates a cursor that reads the given reader a block at a time and
+     * scans its tokens without creating any objects per token.
+     *
+     * @param   reader
+     *      The reader to tokenize. It is not closed.
+     * @return
+     *      A new cursor over the tokens of the reader.
+     */
+    public TokenCursor cursor(
+        final Reader reader)
+    {
+        return new TokenCursor(this, reader, TokenCursor.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a cursor that decodes the given UTF-8 bytes (such as a
+     * memory-mapped file) a block at a time and scans their tokens without
+     * creating any objects per token.
+     *
+     * @param   utf8
+     *      The UTF-8 bytes to tokenize. Its position is advanced as it is
+     *      decoded.
+     * @return
+     *      A new cursor over the tokens of the bytes.
+     */
+    public TokenCursor cursor(
+        final ByteBuffer utf8)
+    {
+        return new TokenCursor(this, utf8, TokenCursor.DEFAULT_BLOCK_SIZE);
+    }
+
     /**
      * Determines if the given character is considered to be part of a token.
      *
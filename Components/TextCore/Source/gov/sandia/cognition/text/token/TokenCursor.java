@@ -0,0 +1,493 @@
+/*
+ * File:                TokenCursor.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.token;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A streaming, allocation-free view of the tokens of a text for an
+ * {@code AbstractCharacterBasedTokenizer}. Each call to {@link #next()}
+ * advances to the next token, and the cursor itself is a
+ * {@code CharSequence} view of the current token's characters, so no
+ * {@code String} or {@code Token} is created unless one is asked for with
+ * {@link #toString()} or {@link #toToken()}. The view is only valid until
+ * the next call to {@link #next()}.
+ * <BR><BR>
+ * The text can be a {@code CharBuffer} (scanned in place), a
+ * {@code Reader}, or a buffer of UTF-8 bytes (such as a memory-mapped file)
+ * that is decoded a block at a time. The latter two only hold one block of
+ * characters (plus the current token) in memory. Token starts are counted in
+ * characters from the beginning of the text, just like
+ * {@link Tokenizer#tokenize(java.io.Reader)}, and are longs so that very
+ * large inputs can be scanned.
+ * <BR><BR>
+ * A typical loop looks like:
+ * <pre>
+ *     final TokenCursor cursor = tokenizer.cursor(text);
+ *     while (cursor.next())
+ *     {
+ *         // Use cursor.getStart(), cursor.length(), cursor.charAt(i), ...
+ *     }
+ * </pre>
+ * A cursor is not thread-safe, but each thread can scan its own cursor.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class TokenCursor
+    implements CharSequence
+{
+
+    /**
+     * The default number of characters read from a streaming input at a
+     * time, {@value}.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 8192;
+
+    /** The tokenizer that decides which characters are part of tokens. */
+    protected final AbstractCharacterBasedTokenizer tokenizer;
+
+    /** The reader to read characters from. Null if not reading a reader. */
+    protected final Reader reader;
+
+    /** The UTF-8 bytes to decode. Null if not decoding bytes. */
+    protected final ByteBuffer bytes;
+
+    /** The decoder for the bytes. Null if not decoding bytes. */
+    protected final CharsetDecoder decoder;
+
+    /** The characters currently in memory, in [0, limit). */
+    protected CharBuffer buffer;
+
+    /** The number of characters in the buffer. */
+    protected int limit;
+
+    /** The position in the text of the first character in the buffer. */
+    protected long bufferStart;
+
+    /** The next position in the buffer to scan. */
+    protected int position;
+
+    /** The position in the buffer of the current token. */
+    protected int tokenStart;
+
+    /** The length of the current token. */
+    protected int tokenLength;
+
+    /** True if all of the input has been read into the buffer. */
+    protected boolean endOfInput;
+
+    /**
+     * Creates a new {@code TokenCursor} that scans the remaining characters
+     * of the given buffer in place. The buffer's position and limit are not
+     * changed.
+     *
+     * @param   tokenizer
+     *      The tokenizer that decides which characters are part of tokens.
+     * @param   text
+     *      The text to tokenize.
+     */
+    public TokenCursor(
+        final AbstractCharacterBasedTokenizer tokenizer,
+        final CharBuffer text)
+    {
+        this(tokenizer, text.slice(), null, null);
+        this.limit = this.buffer.limit();
+        this.endOfInput = true;
+    }
+
+    /**
+     * Creates a new {@code TokenCursor} that reads the characters from the
+     * given reader one block at a time.
+     *
+     * @param   tokenizer
+     *      The tokenizer that decides which characters are part of tokens.
+     * @param   reader
+     *      The reader to read the text from. It is not closed.
+     * @param   blockSize
+     *      The number of characters to read at a time. Must be positive.
+     */
+    public TokenCursor(
+        final AbstractCharacterBasedTokenizer tokenizer,
+        final Reader reader,
+        final int blockSize)
+    {
+        this(tokenizer, allocate(blockSize), reader, null);
+    }
+
+    /**
+     * Creates a new {@code TokenCursor} that decodes the remaining bytes of
+     * the given buffer as UTF-8 one block at a time. Malformed bytes are
+     * replaced by the Unicode replacement character. The buffer's position
+     * is advanced as it is decoded.
+     *
+     * @param   tokenizer
+     *      The tokenizer that decides which characters are part of tokens.
+     * @param   utf8
+     *      The UTF-8 bytes to tokenize, such as a memory-mapped file.
+     * @param   blockSize
+     *      The number of characters to decode at a time. Must be positive.
+     */
+    public TokenCursor(
+        final AbstractCharacterBasedTokenizer tokenizer,
+        final ByteBuffer utf8,
+        final int blockSize)
+    {
+        this(tokenizer, allocate(blockSize), null, utf8);
+    }
+
+    /**
+     * Creates a new {@code TokenCursor}.
+     *
+     * @param   tokenizer
+     *      The tokenizer that decides which characters are part of tokens.
+     * @param   buffer
+     *      The initial character buffer.
+     * @param   reader
+     *      The reader to read from, if any.
+     * @param   bytes
+     *      The UTF-8 bytes to decode, if any.
+     */
+    private TokenCursor(
+        final AbstractCharacterBasedTokenizer tokenizer,
+        final CharBuffer buffer,
+        final Reader reader,
+        final ByteBuffer bytes)
+    {
+        super();
+
+        this.tokenizer = tokenizer;
+        this.buffer = buffer;
+        this.reader = reader;
+        this.bytes = bytes;
+        if (bytes == null)
+        {
+            this.decoder = null;
+        }
+        else
+        {
+            this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        this.limit = 0;
+        this.bufferStart = 0;
+        this.position = 0;
+        this.tokenStart = 0;
+        this.tokenLength = 0;
+        this.endOfInput = false;
+    }
+
+    /**
+     * Allocates a block buffer.
+     *
+     * @param   blockSize
+     *      The block size. Must be positive.
+     * @return
+     *      A new character buffer of that size.
+     */
+    private static CharBuffer allocate(
+        final int blockSize)
+    {
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException("blockSize must be positive.");
+        }
+        return CharBuffer.allocate(blockSize);
+    }
+
+    /**
+     * Advances to the next token.
+     *
+     * @return
+     *      True if there is another token; false if the end of the text has
+     *      been reached.
+     * @throws  UncheckedIOException
+     *      If there is an error reading from a reader.
+     */
+    public boolean next()
+    {
+        // Skip the characters between tokens.
+        while (true)
+        {
+            if (this.position >= this.limit)
+            {
+                if (!this.fill(this.position))
+                {
+                    this.tokenLength = 0;
+                    return false;
+                }
+            }
+            else if (this.tokenizer.isTokenMember(
+                this.buffer.get(this.position)))
+            {
+                break;
+            }
+            else
+            {
+                this.position++;
+            }
+        }
+
+        // Scan the token, keeping it in the buffer when refilling.
+        this.tokenStart = this.position;
+        while (true)
+        {
+            if (this.position >= this.limit)
+            {
+                if (!this.fill(this.tokenStart))
+                {
+                    break;
+                }
+            }
+            else if (this.tokenizer.isTokenMember(
+                this.buffer.get(this.position)))
+            {
+                this.position++;
+            }
+            else
+            {
+                break;
+            }
+        }
+        this.tokenLength = this.position - this.tokenStart;
+        return true;
+    }
+
+    /**
+     * Reads more characters into the buffer, first discarding everything
+     * before the given position.
+     *
+     * @param   keep
+     *      The first position in the buffer to keep.
+     * @return
+     *      True if more characters were read; false if the input is done.
+     */
+    protected boolean fill(
+        final int keep)
+    {
+        if (this.endOfInput)
+        {
+            return false;
+        }
+
+        // Move the characters to keep to the front, growing the buffer if
+        // they fill it.
+        final int kept = this.limit - keep;
+        if (kept >= this.buffer.capacity() / 2)
+        {
+            final CharBuffer grown = CharBuffer.allocate(
+                2 * this.buffer.capacity());
+            grown.put(this.buffer.array(), keep, kept);
+            this.buffer = grown;
+        }
+        else if (keep > 0)
+        {
+            System.arraycopy(this.buffer.array(), keep,
+                this.buffer.array(), 0, kept);
+        }
+        this.bufferStart += keep;
+        this.position -= keep;
+        this.tokenStart -= keep;
+        this.limit = kept;
+
+        while (!this.endOfInput && this.limit == kept)
+        {
+            if (this.reader != null)
+            {
+                this.readBlock();
+            }
+            else
+            {
+                this.decodeBlock();
+            }
+        }
+        return this.limit > kept;
+    }
+
+    /**
+     * Reads a block of characters from the reader into the buffer.
+     */
+    private void readBlock()
+    {
+        try
+        {
+            final int read = this.reader.read(this.buffer.array(), this.limit,
+                this.buffer.capacity() - this.limit);
+            if (read < 0)
+            {
+                this.endOfInput = true;
+            }
+            else
+            {
+                this.limit += read;
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes a block of characters from the bytes into the buffer. If no
+     * character fits in the free space, the buffer is grown instead.
+     */
+    private void decodeBlock()
+    {
+        this.buffer.limit(this.buffer.capacity());
+        this.buffer.position(this.limit);
+        final CoderResult result;
+        if (this.bytes.hasRemaining())
+        {
+            result = this.decoder.decode(this.bytes, this.buffer, true);
+        }
+        else
+        {
+            result = this.decoder.flush(this.buffer);
+            if (result.isUnderflow())
+            {
+                this.endOfInput = true;
+            }
+        }
+        if (result.isOverflow() && this.buffer.position() == this.limit)
+        {
+            // Not even one character fits, such as the two chars of a
+            // supplementary code point in one free char, so grow the buffer.
+            final CharBuffer grown = CharBuffer.allocate(
+                2 * this.buffer.capacity() + 2);
+            grown.put(this.buffer.array(), 0, this.limit);
+            this.buffer = grown;
+            return;
+        }
+        this.limit = this.buffer.position();
+        this.buffer.clear();
+    }
+
+    /**
+     * Gets the position of the current token in the text, in characters.
+     *
+     * @return
+     *      The start of the current token.
+     */
+    public long getStart()
+    {
+        return this.bufferStart + this.tokenStart;
+    }
+
+    /**
+     * Gets the number of characters in the current token.
+     *
+     * @return
+     *      The length of the current token.
+     */
+    @Override
+    public int length()
+    {
+        return this.tokenLength;
+    }
+
+    @Override
+    public char charAt(
+        final int index)
+    {
+        if (index < 0 || index >= this.tokenLength)
+        {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return this.buffer.get(this.tokenStart + index);
+    }
+
+    @Override
+    public CharSequence subSequence(
+        final int start,
+        final int end)
+    {
+        if (start < 0 || end > this.tokenLength || start > end)
+        {
+            throw new IndexOutOfBoundsException(
+                "start: " + start + ", end: " + end);
+        }
+        return this.buffer.subSequence(this.tokenStart + start,
+            this.tokenStart + end).toString();
+    }
+
+    /**
+     * Determines if the current token has the same characters as the given
+     * sequence, without creating a string.
+     *
+     * @param   text
+     *      The text to compare to.
+     * @return
+     *      True if the current token is equal to the given text.
+     */
+    public boolean contentEquals(
+        final CharSequence text)
+    {
+        if (text.length() != this.tokenLength)
+        {
+            return false;
+        }
+        for (int i = 0; i < this.tokenLength; i++)
+        {
+            if (text.charAt(i) != this.buffer.get(this.tokenStart + i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the text of the current token as a new string.
+     *
+     * @return
+     *      The text of the current token.
+     */
+    @Override
+    public String toString()
+    {
+        final char[] text = new char[this.tokenLength];
+        for (int i = 0; i < this.tokenLength; i++)
+        {
+            text[i] = this.buffer.get(this.tokenStart + i);
+        }
+        return new String(text);
+    }
+
+    /**
+     * Creates a new {@code Token} for the current token, which can be passed
+     * on to a {@code TermFilter}.
+     *
+     * @return
+     *      A new token with the current token's text and start.
+     * @throws  ArithmeticException
+     *      If the start of the token does not fit in an int.
+     */
+    public Token toToken()
+    {
+        return new DefaultToken(this.toString(),
+            Math.toIntExact(this.getStart()));
+    }
+
+}
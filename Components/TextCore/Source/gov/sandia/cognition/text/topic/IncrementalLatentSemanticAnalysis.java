@@ -0,0 +1,506 @@
+/*
+ * File:                IncrementalLatentSemanticAnalysis.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.topic;
+
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.learning.algorithm.AbstractBatchAndIncrementalLearner;
+import gov.sandia.cognition.math.matrix.Matrix;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorEntry;
+import gov.sandia.cognition.math.matrix.Vectorizable;
+import gov.sandia.cognition.math.matrix.decomposition.SingularValueDecomposition;
+import gov.sandia.cognition.math.matrix.mtj.DenseMatrixFactoryMTJ;
+import gov.sandia.cognition.math.matrix.mtj.decomposition.SingularValueDecompositionMTJ;
+import gov.sandia.cognition.text.topic.LatentSemanticAnalysis.Transform;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implements an incremental Latent Semantic Analysis (LSA) that folds batches
+ * of documents into a truncated Singular Value Decomposition (SVD) using
+ * Brand's incremental SVD update. The result is the same
+ * {@code LatentSemanticAnalysis.Transform} as the batch algorithm, and it can
+ * be updated with more documents at any time.
+ * <BR><BR>
+ * For a term basis U of rank k and a batch of c documents, the update
+ * projects the batch onto U, orthogonalizes the remainder, and takes the SVD
+ * of a small (k + c) by (k + c) matrix. So the cost of an update is
+ * O(d (k + c)^2 + (k + c)^3) for d terms, which depends on the batch size but
+ * not on the number of documents seen before. Without truncation the update
+ * is exact; with truncation it is a close approximation when the discarded
+ * singular values are small.
+ * <BR><BR>
+ * Old documents can be down-weighted by a forgetting factor, which scales the
+ * old singular values before each update. Documents may also have a larger
+ * dimensionality than the current basis, for when new terms are added to the
+ * term index, in which case the basis is extended with zeros for the new
+ * terms.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ * @see     LatentSemanticAnalysis
+ */
+@PublicationReference(
+    author="Matthew Brand",
+    title="Fast low-rank modifications of the thin singular value decomposition",
+    year=2006,
+    type=PublicationType.Journal,
+    publication="Linear Algebra and its Applications",
+    pages={20, 30}
+)
+public class IncrementalLatentSemanticAnalysis
+    extends AbstractBatchAndIncrementalLearner<Vectorizable, Transform>
+{
+
+    /** The default requested rank is {@value}. */
+    public static final int DEFAULT_REQUESTED_RANK =
+        LatentSemanticAnalysis.DEFAULT_REQUESTED_RANK;
+
+    /** The default batch size is {@value}. */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    /** The default forgetting factor is {@value}, which keeps all documents
+     *  at the same weight. */
+    public static final double DEFAULT_FORGETTING_FACTOR = 1.0;
+
+    /** The relative size below which singular values and residuals are
+     *  treated as zero. */
+    protected static final double EFFECTIVE_ZERO = 1e-10;
+
+    /** The rank requested for the result LSA. Must be positive. */
+    protected int requestedRank;
+
+    /** The number of documents to fold in at a time when updating from many
+     *  documents. Must be positive. */
+    protected int batchSize;
+
+    /** The factor that the old singular values are multiplied by before
+     *  each batch is folded in. Must be in (0, 1]. */
+    protected double forgettingFactor;
+
+    /**
+     * Creates a new {@code IncrementalLatentSemanticAnalysis} with default
+     * parameters.
+     */
+    public IncrementalLatentSemanticAnalysis()
+    {
+        this(DEFAULT_REQUESTED_RANK);
+    }
+
+    /**
+     * Creates a new {@code IncrementalLatentSemanticAnalysis} with the given
+     * rank.
+     *
+     * @param   requestedRank
+     *      The requested rank to create results of.
+     */
+    public IncrementalLatentSemanticAnalysis(
+        final int requestedRank)
+    {
+        this(requestedRank, DEFAULT_BATCH_SIZE, DEFAULT_FORGETTING_FACTOR);
+    }
+
+    /**
+     * Creates a new {@code IncrementalLatentSemanticAnalysis} with the given
+     * parameters.
+     *
+     * @param   requestedRank
+     *      The requested rank to create results of.
+     * @param   batchSize
+     *      The number of documents to fold in at a time.
+     * @param   forgettingFactor
+     *      The factor that the old singular values are multiplied by before
+     *      each batch is folded in.
+     */
+    public IncrementalLatentSemanticAnalysis(
+        final int requestedRank,
+        final int batchSize,
+        final double forgettingFactor)
+    {
+        super();
+
+        this.setRequestedRank(requestedRank);
+        this.setBatchSize(batchSize);
+        this.setForgettingFactor(forgettingFactor);
+    }
+
+    @Override
+    public IncrementalLatentSemanticAnalysis clone()
+    {
+        return (IncrementalLatentSemanticAnalysis) super.clone();
+    }
+
+    /**
+     * Creates an empty transform, with rank and dimensionality zero. Its
+     * dimensionality is set by the first documents that are folded in.
+     *
+     * @return
+     *      An empty transform.
+     */
+    @Override
+    public Transform createInitialLearnedObject()
+    {
+        return new Transform(
+            DenseMatrixFactoryMTJ.INSTANCE.createMatrix(0, 0),
+            DenseMatrixFactoryMTJ.INSTANCE.createMatrix(0, 0));
+    }
+
+    @Override
+    public void update(
+        final Transform target,
+        final Vectorizable document)
+    {
+        this.updateBatch(target, Collections.singletonList(document));
+    }
+
+    @Override
+    public void update(
+        final Transform target,
+        final Iterable<? extends Vectorizable> documents)
+    {
+        // Fold in the documents a batch at a time, so that the documents
+        // never have to all be in memory.
+        final ArrayList<Vectorizable> batch =
+            new ArrayList<Vectorizable>(this.getBatchSize());
+        for (Vectorizable document : documents)
+        {
+            batch.add(document);
+            if (batch.size() >= this.getBatchSize())
+            {
+                this.updateBatch(target, batch);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty())
+        {
+            this.updateBatch(target, batch);
+        }
+    }
+
+    /**
+     * Folds a batch of documents into a transform.
+     *
+     * @param   target
+     *      The transform to update.
+     * @param   documents
+     *      The documents to fold in.
+     */
+    public void updateBatch(
+        final Transform target,
+        final List<? extends Vectorizable> documents)
+    {
+        final int documentCount = documents.size();
+        if (documentCount <= 0)
+        {
+            return;
+        }
+
+        // Get the current basis as columns and the scaled singular values.
+        final Matrix oldBasis = target.getTermBasis();
+        final int oldRank = oldBasis.getNumColumns();
+        final ArrayList<Vector> vectors = new ArrayList<Vector>(documentCount);
+        int dimensionality = oldBasis.getNumRows();
+        for (Vectorizable document : documents)
+        {
+            final Vector vector = document.convertToVector();
+            vectors.add(vector);
+            dimensionality = Math.max(dimensionality,
+                vector.getDimensionality());
+        }
+
+        final double[][] basis = new double[oldRank][dimensionality];
+        final double[] values = new double[oldRank];
+        for (int a = 0; a < oldRank; a++)
+        {
+            for (int i = 0; i < oldBasis.getNumRows(); i++)
+            {
+                basis[a][i] = oldBasis.getElement(i, a);
+            }
+            values[a] = this.getForgettingFactor()
+                * target.getSingularValues().getElement(a, a);
+        }
+
+        // Project each document onto the basis and orthogonalize what is left
+        // into new basis vectors. Each projection is done twice to keep the
+        // basis orthogonal.
+        final double[][] projections = new double[oldRank][documentCount];
+        final ArrayList<double[]> residuals = new ArrayList<double[]>();
+        final double[][] residualProjections =
+            new double[documentCount][documentCount];
+        for (int j = 0; j < documentCount; j++)
+        {
+            final double[] remainder = new double[dimensionality];
+            for (VectorEntry entry : vectors.get(j))
+            {
+                remainder[entry.getIndex()] = entry.getValue();
+            }
+            final double norm = norm(remainder);
+
+            for (int pass = 0; pass < 2; pass++)
+            {
+                for (int a = 0; a < oldRank; a++)
+                {
+                    final double projection = dot(basis[a], remainder);
+                    addScaled(remainder, -projection, basis[a]);
+                    projections[a][j] += projection;
+                }
+                for (int m = 0; m < residuals.size(); m++)
+                {
+                    final double projection =
+                        dot(residuals.get(m), remainder);
+                    addScaled(remainder, -projection, residuals.get(m));
+                    residualProjections[m][j] += projection;
+                }
+            }
+
+            final double remainderNorm = norm(remainder);
+            if (remainderNorm > EFFECTIVE_ZERO * norm)
+            {
+                for (int i = 0; i < dimensionality; i++)
+                {
+                    remainder[i] /= remainderNorm;
+                }
+                residualProjections[residuals.size()][j] = remainderNorm;
+                residuals.add(remainder);
+            }
+        }
+
+        // Create the small matrix whose SVD updates the decomposition:
+        // [ diag(values)  projections          ]
+        // [ 0             residualProjections  ]
+        final int residualCount = residuals.size();
+        final int size = oldRank + residualCount;
+        final Matrix middle = DenseMatrixFactoryMTJ.INSTANCE.createMatrix(
+            size, oldRank + documentCount);
+        for (int a = 0; a < oldRank; a++)
+        {
+            middle.setElement(a, a, values[a]);
+            for (int j = 0; j < documentCount; j++)
+            {
+                middle.setElement(a, oldRank + j, projections[a][j]);
+            }
+        }
+        for (int m = 0; m < residualCount; m++)
+        {
+            for (int j = 0; j < documentCount; j++)
+            {
+                middle.setElement(oldRank + m, oldRank + j,
+                    residualProjections[m][j]);
+            }
+        }
+
+        int rank = 0;
+        Matrix rotation = null;
+        Matrix singularValues = null;
+        if (size > 0)
+        {
+            final SingularValueDecomposition svd =
+                SingularValueDecompositionMTJ.create(middle);
+            rotation = svd.getU();
+            singularValues = svd.getS();
+            final double largest = singularValues.getElement(0, 0);
+            rank = Math.min(this.getRequestedRank(),
+                svd.effectiveRank(EFFECTIVE_ZERO * largest));
+        }
+
+        // Rotate the old and new basis vectors into the new basis.
+        final Matrix termBasis = DenseMatrixFactoryMTJ.INSTANCE.createMatrix(
+            dimensionality, rank);
+        final Matrix newSingularValues =
+            DenseMatrixFactoryMTJ.INSTANCE.createMatrix(rank, rank);
+        final double[] column = new double[dimensionality];
+        for (int b = 0; b < rank; b++)
+        {
+            Arrays.fill(column, 0.0);
+            for (int a = 0; a < size; a++)
+            {
+                final double weight = rotation.getElement(a, b);
+                final double[] vector = a < oldRank ? basis[a]
+                    : residuals.get(a - oldRank);
+                addScaled(column, weight, vector);
+            }
+            for (int i = 0; i < dimensionality; i++)
+            {
+                termBasis.setElement(i, b, column[i]);
+            }
+            newSingularValues.setElement(b, b,
+                singularValues.getElement(b, b));
+        }
+
+        target.setTermBasis(termBasis);
+        target.setSingularValues(newSingularValues);
+        target.setTransform(termBasis.times(newSingularValues));
+    }
+
+    /**
+     * Computes the dot product of two arrays.
+     *
+     * @param   first
+     *      The first array.
+     * @param   second
+     *      The second array.
+     * @return
+     *      The dot product.
+     */
+    private static double dot(
+        final double[] first,
+        final double[] second)
+    {
+        double result = 0.0;
+        for (int i = 0; i < first.length; i++)
+        {
+            result += first[i] * second[i];
+        }
+        return result;
+    }
+
+    /**
+     * Computes the 2-norm of an array.
+     *
+     * @param   values
+     *      The array.
+     * @return
+     *      The 2-norm.
+     */
+    private static double norm(
+        final double[] values)
+    {
+        return Math.sqrt(dot(values, values));
+    }
+
+    /**
+     * Adds a scaled array to another array.
+     *
+     * @param   target
+     *      The array to add to.
+     * @param   scale
+     *      The scale of the other array.
+     * @param   other
+     *      The array to add.
+     */
+    private static void addScaled(
+        final double[] target,
+        final double scale,
+        final double[] other)
+    {
+        if (scale == 0.0)
+        {
+            return;
+        }
+
+        for (int i = 0; i < target.length; i++)
+        {
+            target[i] += scale * other[i];
+        }
+    }
+
+    /**
+     * Gets the requested rank for the analysis.
+     *
+     * @return
+     *      The requested rank for the analysis.
+     */
+    public int getRequestedRank()
+    {
+        return this.requestedRank;
+    }
+
+    /**
+     * Sets the requested rank of the analysis. The rank of the result is
+     * smaller when fewer independent documents have been seen.
+     *
+     * @param   requestedRank
+     *      The requested rank of the analysis. Must be positive.
+     */
+    public void setRequestedRank(
+        final int requestedRank)
+    {
+        if (requestedRank <= 0)
+        {
+            throw new IllegalArgumentException("requestedRank must be positive.");
+        }
+
+        this.requestedRank = requestedRank;
+    }
+
+    /**
+     * Gets the number of documents to fold in at a time when updating from
+     * many documents.
+     *
+     * @return
+     *      The batch size.
+     */
+    public int getBatchSize()
+    {
+        return this.batchSize;
+    }
+
+    /**
+     * Sets the number of documents to fold in at a time when updating from
+     * many documents. Larger batches mean fewer updates but a larger matrix
+     * to decompose in each one.
+     *
+     * @param   batchSize
+     *      The batch size. Must be positive.
+     */
+    public void setBatchSize(
+        final int batchSize)
+    {
+        if (batchSize <= 0)
+        {
+            throw new IllegalArgumentException("batchSize must be positive.");
+        }
+
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the factor that the old singular values are multiplied by before
+     * each batch is folded in.
+     *
+     * @return
+     *      The forgetting factor.
+     */
+    public double getForgettingFactor()
+    {
+        return this.forgettingFactor;
+    }
+
+    /**
+     * Sets the factor that the old singular values are multiplied by before
+     * each batch is folded in. A value of 1 weights all documents the same,
+     * while smaller values make the weight of a document decay geometrically
+     * with the number of batches folded in after it.
+     *
+     * @param   forgettingFactor
+     *      The forgetting factor. Must be in (0, 1].
+     */
+    public void setForgettingFactor(
+        final double forgettingFactor)
+    {
+        if (forgettingFactor <= 0.0 || forgettingFactor > 1.0)
+        {
+            throw new IllegalArgumentException(
+                "forgettingFactor must be in (0, 1].");
+        }
+
+        this.forgettingFactor = forgettingFactor;
+    }
+
+}
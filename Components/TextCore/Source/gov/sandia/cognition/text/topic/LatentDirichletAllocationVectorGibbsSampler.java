@@ -37,9 +37,12 @@ import java.util.Random;
  * for term occurrences in documents. Thus, each document is a mixture of
  * different topics. This implementation uses a Gibbs sampling version of
  * Markov Chain Monte Carlo algorithm to estimate the parameters of the model.
+ * It needs the whole corpus in memory; for a corpus that is streamed in
+ * mini-batches, see {@code OnlineLatentDirichletAllocation}.
  *
  * @author Justin Basilico, Sean Crosby
  * @since 3.1
+ * @see OnlineLatentDirichletAllocation
  */
 @PublicationReferences(
     references={
@@ -36,9 +36,13 @@ import java.util.Collection;
 /**
  * Implements the Latent Semantic Analysis (LSA) algorithm using Singular Value
  * Decomposition (SVD).
+ * <BR><BR>
+ * This computes the full SVD of all the documents at once. To add documents
+ * to an existing analysis, use {@code IncrementalLatentSemanticAnalysis}.
  * 
  * @author  Justin Basilico
  * @since   3.0
+ * @see     IncrementalLatentSemanticAnalysis
  */
 @PublicationReferences(
     references={
@@ -73,7 +77,6 @@ public class LatentSemanticAnalysis
     extends AbstractCloneableSerializable
     implements BatchLearner<Collection<? extends Vectorizable>, Transform>
 {
-// TODO: Implement an iterative LSA that allows documents to be added and removed.
 // TODO: Implement a sparse LSA.
 
     /** The default requested rank is {@value}. */
@@ -0,0 +1,1162 @@
+/*
+ * File:                OnlineLatentDirichletAllocation.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.topic;
+
+import gov.sandia.cognition.algorithm.ParallelAlgorithm;
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.evaluator.Evaluator;
+import gov.sandia.cognition.learning.algorithm.AbstractBatchAndIncrementalLearner;
+import gov.sandia.cognition.math.MathUtil;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorEntry;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import gov.sandia.cognition.math.matrix.Vectorizable;
+import gov.sandia.cognition.statistics.distribution.GammaDistribution;
+import gov.sandia.cognition.util.AbstractCloneableSerializable;
+import gov.sandia.cognition.util.ArgumentChecker;
+import gov.sandia.cognition.util.Randomized;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * An online variational Bayes learner for Latent Dirichlet Allocation (LDA).
+ * Unlike {@code LatentDirichletAllocationVectorGibbsSampler}, which needs the
+ * whole corpus in memory, it reads the documents as a stream of mini-batches
+ * of term-count vectors and only keeps the variational topic-term parameters
+ * (lambda) between batches. So it can learn from a corpus that is streamed
+ * from disk, and the model can be updated with new documents at any time.
+ * <BR><BR>
+ * For each mini-batch, the E-step fits the variational topic proportions
+ * (gamma) of each document, which is done for blocks of documents in
+ * parallel. The M-step then moves lambda towards the estimate from the batch,
+ * scaled as if the whole corpus looked like the batch, with a step size of
+ * (delay + t)^(-forgettingRate) for the t-th batch. The corpus size is the
+ * expected document count when it is given, and otherwise the number of
+ * documents seen so far.
+ * <BR><BR>
+ * The topic-term parameters are kept in a dense primitive array indexed by
+ * term * topicCount + topic, so the parameters of the terms of a document are
+ * close together, and the vocabulary can grow when documents with new terms
+ * arrive.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ * @see     LatentDirichletAllocationVectorGibbsSampler
+ */
+@PublicationReference(
+    author={"Matthew D. Hoffman", "David M. Blei", "Francis Bach"},
+    title="Online Learning for Latent Dirichlet Allocation",
+    year=2010,
+    type=PublicationType.Conference,
+    publication="Advances in Neural Information Processing Systems 23",
+    pages={856, 864},
+    url="http://papers.nips.cc/paper/3902-online-learning-for-latent-dirichlet-allocation"
+)
+public class OnlineLatentDirichletAllocation
+    extends AbstractBatchAndIncrementalLearner<Vectorizable, OnlineLatentDirichletAllocation.Model>
+    implements Randomized, ParallelAlgorithm
+{
+
+    /** The default topic count is {@value}. */
+    public static final int DEFAULT_TOPIC_COUNT = 10;
+
+    /** The default alpha is {@value}. */
+    public static final double DEFAULT_ALPHA = 0.1;
+
+    /** The default eta is {@value}. */
+    public static final double DEFAULT_ETA = 0.01;
+
+    /** The default batch size is {@value}. */
+    public static final int DEFAULT_BATCH_SIZE = 128;
+
+    /** The default delay is {@value}. */
+    public static final double DEFAULT_DELAY = 10.0;
+
+    /** The default forgetting rate is {@value}. */
+    public static final double DEFAULT_FORGETTING_RATE = 0.7;
+
+    /** The default maximum number of iterations of the E-step for each
+     *  document is {@value}. */
+    public static final int DEFAULT_MAX_DOCUMENT_ITERATIONS = 100;
+
+    /** The default minimum mean change in gamma of the E-step for each
+     *  document is {@value}. */
+    public static final double DEFAULT_DOCUMENT_MINIMUM_CHANGE = 1e-3;
+
+    /** The shape of the Gamma distribution of the initial parameters. */
+    protected static final double INITIAL_SHAPE = 100.0;
+
+    /** A small value added to normalizers to avoid dividing by zero. */
+    protected static final double EFFECTIVE_ZERO = 1e-100;
+
+    /** The number of topics. */
+    protected int topicCount;
+
+    /** The alpha parameter of the Dirichlet prior on the topics of each
+     *  document. */
+    protected double alpha;
+
+    /** The eta parameter of the Dirichlet prior on the terms of each topic. */
+    protected double eta;
+
+    /** The number of documents in each mini-batch. */
+    protected int batchSize;
+
+    /** The delay (tau_0), which down-weights the early batches. */
+    protected double delay;
+
+    /** The forgetting rate (kappa), which controls how fast old batches are
+     *  forgotten. */
+    protected double forgettingRate;
+
+    /** The expected number of documents in the corpus, or zero to use the
+     *  number of documents seen so far. */
+    protected long expectedDocumentCount;
+
+    /** The maximum number of iterations of the E-step for each document. */
+    protected int maxDocumentIterations;
+
+    /** The minimum mean change in gamma to continue the E-step for a
+     *  document. */
+    protected double documentMinimumChange;
+
+    /** The random number generator to use. */
+    protected Random random;
+
+    /** The thread pool to use. */
+    private transient ThreadPoolExecutor threadPool;
+
+    /**
+     * Creates a new {@code OnlineLatentDirichletAllocation} with default
+     * parameters.
+     */
+    public OnlineLatentDirichletAllocation()
+    {
+        this(DEFAULT_TOPIC_COUNT);
+    }
+
+    /**
+     * Creates a new {@code OnlineLatentDirichletAllocation} with the given
+     * topic count and otherwise default parameters.
+     *
+     * @param   topicCount
+     *      The number of topics. Must be positive.
+     */
+    public OnlineLatentDirichletAllocation(
+        final int topicCount)
+    {
+        this(topicCount, DEFAULT_ALPHA, DEFAULT_ETA, DEFAULT_BATCH_SIZE,
+            new Random());
+    }
+
+    /**
+     * Creates a new {@code OnlineLatentDirichletAllocation} with the given
+     * parameters.
+     *
+     * @param   topicCount
+     *      The number of topics. Must be positive.
+     * @param   alpha
+     *      The alpha parameter of the Dirichlet prior on the topics of each
+     *      document. Must be positive.
+     * @param   eta
+     *      The eta parameter of the Dirichlet prior on the terms of each
+     *      topic. Must be positive.
+     * @param   batchSize
+     *      The number of documents in each mini-batch. Must be positive.
+     * @param   random
+     *      The random number generator to use.
+     */
+    public OnlineLatentDirichletAllocation(
+        final int topicCount,
+        final double alpha,
+        final double eta,
+        final int batchSize,
+        final Random random)
+    {
+        super();
+
+        this.setTopicCount(topicCount);
+        this.setAlpha(alpha);
+        this.setEta(eta);
+        this.setBatchSize(batchSize);
+        this.setDelay(DEFAULT_DELAY);
+        this.setForgettingRate(DEFAULT_FORGETTING_RATE);
+        this.setExpectedDocumentCount(0);
+        this.setMaxDocumentIterations(DEFAULT_MAX_DOCUMENT_ITERATIONS);
+        this.setDocumentMinimumChange(DEFAULT_DOCUMENT_MINIMUM_CHANGE);
+        this.setRandom(random);
+    }
+
+    @Override
+    public OnlineLatentDirichletAllocation clone()
+    {
+        return (OnlineLatentDirichletAllocation) super.clone();
+    }
+
+    /**
+     * Creates an empty model, with no terms. Its terms are added by the
+     * documents that are learned from.
+     *
+     * @return
+     *      An empty model.
+     */
+    @Override
+    public Model createInitialLearnedObject()
+    {
+        return new Model(this.getTopicCount(), this.getAlpha());
+    }
+
+    @Override
+    public void update(
+        final Model target,
+        final Vectorizable document)
+    {
+        this.updateBatch(target, Collections.singletonList(document));
+    }
+
+    @Override
+    public void update(
+        final Model target,
+        final Iterable<? extends Vectorizable> documents)
+    {
+        // Learn from the documents a mini-batch at a time, so that the
+        // documents never have to all be in memory.
+        final ArrayList<Vectorizable> batch =
+            new ArrayList<Vectorizable>(this.getBatchSize());
+        for (Vectorizable document : documents)
+        {
+            batch.add(document);
+            if (batch.size() >= this.getBatchSize())
+            {
+                this.updateBatch(target, batch);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty())
+        {
+            this.updateBatch(target, batch);
+        }
+    }
+
+    /**
+     * Updates a model with one mini-batch of documents.
+     *
+     * @param   target
+     *      The model to update.
+     * @param   documents
+     *      The mini-batch of term-count vectors.
+     */
+    public void updateBatch(
+        final Model target,
+        final List<? extends Vectorizable> documents)
+    {
+        final int documentCount = documents.size();
+        if (documentCount <= 0)
+        {
+            return;
+        }
+
+        // Convert the documents and add any new terms to the model.
+        final ArrayList<Vector> vectors = new ArrayList<Vector>(documentCount);
+        int dimensionality = 0;
+        int nonZeroCount = 0;
+        for (Vectorizable document : documents)
+        {
+            final Vector vector = document.convertToVector();
+            vectors.add(vector);
+            dimensionality = Math.max(dimensionality,
+                vector.getDimensionality());
+            for (VectorEntry entry : vector)
+            {
+                if (entry.getValue() != 0.0)
+                {
+                    nonZeroCount++;
+                }
+            }
+        }
+
+        if (dimensionality > target.termCount)
+        {
+            this.addTerms(target, dimensionality);
+        }
+
+        // Store the documents in CSR order with the terms renumbered to the
+        // distinct terms of the batch, so the statistics of the E-step only
+        // need to cover the terms in the batch.
+        final int[] localTerms = new int[dimensionality];
+        Arrays.fill(localTerms, -1);
+        int[] batchTerms = new int[Math.min(dimensionality, nonZeroCount)];
+        int batchTermCount = 0;
+        final int[] documentStarts = new int[documentCount + 1];
+        final int[] termIndices = new int[nonZeroCount];
+        final double[] counts = new double[nonZeroCount];
+        int nonZero = 0;
+        for (int d = 0; d < documentCount; d++)
+        {
+            documentStarts[d] = nonZero;
+            for (VectorEntry entry : vectors.get(d))
+            {
+                final double count = entry.getValue();
+                if (count != 0.0)
+                {
+                    final int term = entry.getIndex();
+                    int local = localTerms[term];
+                    if (local < 0)
+                    {
+                        local = batchTermCount;
+                        localTerms[term] = local;
+                        batchTerms[batchTermCount] = term;
+                        batchTermCount++;
+                    }
+                    termIndices[nonZero] = local;
+                    counts[nonZero] = count;
+                    nonZero++;
+                }
+            }
+        }
+        documentStarts[documentCount] = nonZero;
+        batchTerms = Arrays.copyOf(batchTerms, batchTermCount);
+
+        // Compute exp(E[log beta]) for the terms in the batch.
+        final int k = target.topicCount;
+        final double[] expectedTopicTerms =
+            computeExpectedTopicTerms(target, batchTerms);
+
+        // Initialize the topic proportions of each document at random.
+        final double[] gammas = new double[documentCount * k];
+        for (int i = 0; i < gammas.length; i++)
+        {
+            gammas[i] = GammaDistribution.sample(INITIAL_SHAPE,
+                1.0 / INITIAL_SHAPE, this.random);
+        }
+
+        // E-step on blocks of documents with about the same number of
+        // non-zeros, in parallel. Each block sums its own statistics.
+        final int blockCount = Math.max(1,
+            Math.min(documentCount, this.getNumThreads()));
+        final ArrayList<Callable<double[]>> tasks =
+            new ArrayList<Callable<double[]>>(blockCount);
+        int blockStart = 0;
+        for (int b = 1; b <= blockCount; b++)
+        {
+            final long blockTarget = (long) b * nonZeroCount / blockCount;
+            int blockEnd = blockStart;
+            while (blockEnd < documentCount
+                && (b == blockCount || documentStarts[blockEnd] < blockTarget))
+            {
+                blockEnd++;
+            }
+
+            final int start = blockStart;
+            final int end = blockEnd;
+            final int termCount = batchTermCount;
+            tasks.add(() ->
+            {
+                final double[] statistics = new double[termCount * k];
+                final double[] gamma = new double[k];
+                for (int d = start; d < end; d++)
+                {
+                    System.arraycopy(gammas, d * k, gamma, 0, k);
+                    infer(k, this.alpha, termIndices, counts,
+                        documentStarts[d], documentStarts[d + 1],
+                        expectedTopicTerms, gamma, this.maxDocumentIterations,
+                        this.documentMinimumChange, statistics);
+                }
+                return statistics;
+            });
+            blockStart = blockEnd;
+        }
+
+        final ArrayList<double[]> blockStatistics;
+        try
+        {
+            blockStatistics = ParallelUtil.executeInParallel(tasks,
+                this.getThreadPool());
+        }
+        catch (Exception ex)
+        {
+            throw new RuntimeException(ex);
+        }
+
+        final double[] statistics = blockStatistics.get(0);
+        for (int b = 1; b < blockStatistics.size(); b++)
+        {
+            final double[] other = blockStatistics.get(b);
+            for (int i = 0; i < statistics.length; i++)
+            {
+                statistics[i] += other[i];
+            }
+        }
+        for (int i = 0; i < statistics.length; i++)
+        {
+            statistics[i] *= expectedTopicTerms[i];
+        }
+
+        // M-step: Move lambda towards the estimate from the batch.
+        target.documentCount += documentCount;
+        final double corpusSize = this.expectedDocumentCount > 0
+            ? this.expectedDocumentCount : target.documentCount;
+        final double rho = Math.pow(this.delay + target.updateCount + 1,
+            -this.forgettingRate);
+        final double scale = rho * corpusSize / documentCount;
+        final double[] weights = target.topicTermWeights;
+        final double[] sums = target.topicWeightSums;
+        Arrays.fill(sums, 0.0);
+        for (int w = 0; w < target.termCount; w++)
+        {
+            final int local = w < dimensionality ? localTerms[w] : -1;
+            for (int z = 0; z < k; z++)
+            {
+                double value = (1.0 - rho) * weights[w * k + z]
+                    + rho * this.eta;
+                if (local >= 0)
+                {
+                    value += scale * statistics[local * k + z];
+                }
+                weights[w * k + z] = value;
+                sums[z] += value;
+            }
+        }
+        target.updateCount++;
+    }
+
+    /**
+     * Adds terms to a model, which are initialized at random.
+     *
+     * @param   target
+     *      The model.
+     * @param   termCount
+     *      The new number of terms. Must be larger than the current number.
+     */
+    protected void addTerms(
+        final Model target,
+        final int termCount)
+    {
+        final int k = target.topicCount;
+        final int oldSize = target.termCount * k;
+        target.topicTermWeights =
+            Arrays.copyOf(target.topicTermWeights, termCount * k);
+        for (int i = oldSize; i < target.topicTermWeights.length; i++)
+        {
+            final double value = GammaDistribution.sample(INITIAL_SHAPE,
+                1.0 / INITIAL_SHAPE, this.random);
+            target.topicTermWeights[i] = value;
+            target.topicWeightSums[i % k] += value;
+        }
+        target.termCount = termCount;
+    }
+
+    /**
+     * Computes exp(E[log beta]) for the given terms, which is
+     * exp(digamma(lambda) - digamma(sum of lambda for the topic)).
+     *
+     * @param   model
+     *      The model.
+     * @param   terms
+     *      The terms. Terms outside of the model are given zero.
+     * @return
+     *      The values indexed by the position of the term * topicCount +
+     *      topic.
+     */
+    protected static double[] computeExpectedTopicTerms(
+        final Model model,
+        final int[] terms)
+    {
+        final int k = model.topicCount;
+        final double[] digammaSums = new double[k];
+        for (int z = 0; z < k; z++)
+        {
+            digammaSums[z] = MathUtil.digammaFunction(model.topicWeightSums[z]);
+        }
+
+        final double[] result = new double[terms.length * k];
+        for (int i = 0; i < terms.length; i++)
+        {
+            final int term = terms[i];
+            if (term >= model.termCount)
+            {
+                continue;
+            }
+
+            for (int z = 0; z < k; z++)
+            {
+                result[i * k + z] = Math.exp(MathUtil.digammaFunction(
+                    model.topicTermWeights[term * k + z]) - digammaSums[z]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs the variational E-step for one document, which fits its topic
+     * proportions (gamma).
+     *
+     * @param   topicCount
+     *      The number of topics.
+     * @param   alpha
+     *      The alpha parameter.
+     * @param   terms
+     *      The terms of the non-zeros, as indices into the expected topic
+     *      terms.
+     * @param   counts
+     *      The counts of the non-zeros.
+     * @param   start
+     *      The first non-zero of the document.
+     * @param   end
+     *      The end of the non-zeros of the document.
+     * @param   expectedTopicTerms
+     *      The values of exp(E[log beta]), indexed by term * topicCount +
+     *      topic.
+     * @param   gamma
+     *      The initial gamma, which is updated to the fitted gamma.
+     * @param   maxIterations
+     *      The maximum number of iterations.
+     * @param   minimumChange
+     *      The minimum mean change in gamma to continue.
+     * @param   statistics
+     *      The sufficient statistics to add the document to, indexed the same
+     *      as the expected topic terms and without their factor. May be null.
+     */
+    protected static void infer(
+        final int topicCount,
+        final double alpha,
+        final int[] terms,
+        final double[] counts,
+        final int start,
+        final int end,
+        final double[] expectedTopicTerms,
+        final double[] gamma,
+        final int maxIterations,
+        final double minimumChange,
+        final double[] statistics)
+    {
+        final int k = topicCount;
+        final double[] expectedTopics = new double[k];
+        final double[] sums = new double[k];
+        final double[] normalizers = new double[end - start];
+        computeExpectedTopics(gamma, expectedTopics);
+        computeNormalizers(k, terms, start, end, expectedTopicTerms,
+            expectedTopics, normalizers);
+
+        for (int iteration = 0; iteration < maxIterations; iteration++)
+        {
+            Arrays.fill(sums, 0.0);
+            for (int n = start; n < end; n++)
+            {
+                final double ratio = counts[n] / normalizers[n - start];
+                final int offset = terms[n] * k;
+                for (int z = 0; z < k; z++)
+                {
+                    sums[z] += ratio * expectedTopicTerms[offset + z];
+                }
+            }
+
+            double change = 0.0;
+            for (int z = 0; z < k; z++)
+            {
+                final double value = alpha + expectedTopics[z] * sums[z];
+                change += Math.abs(value - gamma[z]);
+                gamma[z] = value;
+            }
+
+            computeExpectedTopics(gamma, expectedTopics);
+            computeNormalizers(k, terms, start, end, expectedTopicTerms,
+                expectedTopics, normalizers);
+            if (change / k < minimumChange)
+            {
+                break;
+            }
+        }
+
+        if (statistics != null)
+        {
+            for (int n = start; n < end; n++)
+            {
+                final double ratio = counts[n] / normalizers[n - start];
+                final int offset = terms[n] * k;
+                for (int z = 0; z < k; z++)
+                {
+                    statistics[offset + z] += ratio * expectedTopics[z];
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes exp(E[log theta]) for a gamma, which is
+     * exp(digamma(gamma) - digamma(sum of gamma)).
+     *
+     * @param   gamma
+     *      The gamma.
+     * @param   result
+     *      The array to write the result to.
+     */
+    private static void computeExpectedTopics(
+        final double[] gamma,
+        final double[] result)
+    {
+        double sum = 0.0;
+        for (double value : gamma)
+        {
+            sum += value;
+        }
+
+        final double digammaSum = MathUtil.digammaFunction(sum);
+        for (int z = 0; z < gamma.length; z++)
+        {
+            result[z] = Math.exp(MathUtil.digammaFunction(gamma[z])
+                - digammaSum);
+        }
+    }
+
+    /**
+     * Computes the normalizer of the topic assignment probabilities (phi) of
+     * each non-zero of a document.
+     *
+     * @param   topicCount
+     *      The number of topics.
+     * @param   terms
+     *      The terms of the non-zeros.
+     * @param   start
+     *      The first non-zero of the document.
+     * @param   end
+     *      The end of the non-zeros of the document.
+     * @param   expectedTopicTerms
+     *      The values of exp(E[log beta]).
+     * @param   expectedTopics
+     *      The values of exp(E[log theta]).
+     * @param   result
+     *      The array to write the result to, indexed from the start.
+     */
+    private static void computeNormalizers(
+        final int topicCount,
+        final int[] terms,
+        final int start,
+        final int end,
+        final double[] expectedTopicTerms,
+        final double[] expectedTopics,
+        final double[] result)
+    {
+        for (int n = start; n < end; n++)
+        {
+            final int offset = terms[n] * topicCount;
+            double sum = EFFECTIVE_ZERO;
+            for (int z = 0; z < topicCount; z++)
+            {
+                sum += expectedTopics[z] * expectedTopicTerms[offset + z];
+            }
+            result[n - start] = sum;
+        }
+    }
+
+    /**
+     * Gets the number of topics.
+     *
+     * @return
+     *      The number of topics. Must be positive.
+     */
+    public int getTopicCount()
+    {
+        return this.topicCount;
+    }
+
+    /**
+     * Sets the number of topics.
+     *
+     * @param   topicCount
+     *      The number of topics. Must be positive.
+     */
+    public void setTopicCount(
+        final int topicCount)
+    {
+        ArgumentChecker.assertIsPositive("topicCount", topicCount);
+        this.topicCount = topicCount;
+    }
+
+    /**
+     * Gets the alpha parameter of the Dirichlet prior on the topics of each
+     * document.
+     *
+     * @return
+     *      The alpha parameter. Must be positive.
+     */
+    public double getAlpha()
+    {
+        return this.alpha;
+    }
+
+    /**
+     * Sets the alpha parameter of the Dirichlet prior on the topics of each
+     * document.
+     *
+     * @param   alpha
+     *      The alpha parameter. Must be positive.
+     */
+    public void setAlpha(
+        final double alpha)
+    {
+        ArgumentChecker.assertIsPositive("alpha", alpha);
+        this.alpha = alpha;
+    }
+
+    /**
+     * Gets the eta parameter of the Dirichlet prior on the terms of each
+     * topic.
+     *
+     * @return
+     *      The eta parameter. Must be positive.
+     */
+    public double getEta()
+    {
+        return this.eta;
+    }
+
+    /**
+     * Sets the eta parameter of the Dirichlet prior on the terms of each
+     * topic.
+     *
+     * @param   eta
+     *      The eta parameter. Must be positive.
+     */
+    public void setEta(
+        final double eta)
+    {
+        ArgumentChecker.assertIsPositive("eta", eta);
+        this.eta = eta;
+    }
+
+    /**
+     * Gets the number of documents in each mini-batch.
+     *
+     * @return
+     *      The batch size. Must be positive.
+     */
+    public int getBatchSize()
+    {
+        return this.batchSize;
+    }
+
+    /**
+     * Sets the number of documents in each mini-batch.
+     *
+     * @param   batchSize
+     *      The batch size. Must be positive.
+     */
+    public void setBatchSize(
+        final int batchSize)
+    {
+        ArgumentChecker.assertIsPositive("batchSize", batchSize);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the delay (tau_0), which down-weights the early batches.
+     *
+     * @return
+     *      The delay. Must be non-negative.
+     */
+    public double getDelay()
+    {
+        return this.delay;
+    }
+
+    /**
+     * Sets the delay (tau_0), which down-weights the early batches.
+     *
+     * @param   delay
+     *      The delay. Must be non-negative.
+     */
+    public void setDelay(
+        final double delay)
+    {
+        ArgumentChecker.assertIsNonNegative("delay", delay);
+        this.delay = delay;
+    }
+
+    /**
+     * Gets the forgetting rate (kappa), which controls how fast old batches
+     * are forgotten.
+     *
+     * @return
+     *      The forgetting rate. Must be in (0.5, 1].
+     */
+    public double getForgettingRate()
+    {
+        return this.forgettingRate;
+    }
+
+    /**
+     * Sets the forgetting rate (kappa), which controls how fast old batches
+     * are forgotten. Values in (0.5, 1] guarantee convergence.
+     *
+     * @param   forgettingRate
+     *      The forgetting rate. Must be in (0.5, 1].
+     */
+    public void setForgettingRate(
+        final double forgettingRate)
+    {
+        if (!(forgettingRate > 0.5 && forgettingRate <= 1.0))
+        {
+            throw new IllegalArgumentException(
+                "forgettingRate must be in (0.5, 1].");
+        }
+
+        this.forgettingRate = forgettingRate;
+    }
+
+    /**
+     * Gets the expected number of documents in the corpus, which scales the
+     * statistics of each batch.
+     *
+     * @return
+     *      The expected number of documents, or zero to use the number of
+     *      documents seen so far.
+     */
+    public long getExpectedDocumentCount()
+    {
+        return this.expectedDocumentCount;
+    }
+
+    /**
+     * Sets the expected number of documents in the corpus, which scales the
+     * statistics of each batch.
+     *
+     * @param   expectedDocumentCount
+     *      The expected number of documents, or zero to use the number of
+     *      documents seen so far. Must be non-negative.
+     */
+    public void setExpectedDocumentCount(
+        final long expectedDocumentCount)
+    {
+        ArgumentChecker.assertIsNonNegative("expectedDocumentCount",
+            expectedDocumentCount);
+        this.expectedDocumentCount = expectedDocumentCount;
+    }
+
+    /**
+     * Gets the maximum number of iterations of the E-step for each document.
+     *
+     * @return
+     *      The maximum number of iterations. Must be positive.
+     */
+    public int getMaxDocumentIterations()
+    {
+        return this.maxDocumentIterations;
+    }
+
+    /**
+     * Sets the maximum number of iterations of the E-step for each document.
+     *
+     * @param   maxDocumentIterations
+     *      The maximum number of iterations. Must be positive.
+     */
+    public void setMaxDocumentIterations(
+        final int maxDocumentIterations)
+    {
+        ArgumentChecker.assertIsPositive("maxDocumentIterations",
+            maxDocumentIterations);
+        this.maxDocumentIterations = maxDocumentIterations;
+    }
+
+    /**
+     * Gets the minimum mean change in gamma to continue the E-step for a
+     * document.
+     *
+     * @return
+     *      The minimum change. Must be non-negative.
+     */
+    public double getDocumentMinimumChange()
+    {
+        return this.documentMinimumChange;
+    }
+
+    /**
+     * Sets the minimum mean change in gamma to continue the E-step for a
+     * document.
+     *
+     * @param   documentMinimumChange
+     *      The minimum change. Must be non-negative.
+     */
+    public void setDocumentMinimumChange(
+        final double documentMinimumChange)
+    {
+        ArgumentChecker.assertIsNonNegative("documentMinimumChange",
+            documentMinimumChange);
+        this.documentMinimumChange = documentMinimumChange;
+    }
+
+    @Override
+    public Random getRandom()
+    {
+        return this.random;
+    }
+
+    @Override
+    public void setRandom(
+        final Random random)
+    {
+        this.random = random;
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool()
+    {
+        if (this.threadPool == null)
+        {
+            this.setThreadPool(ParallelUtil.createThreadPool());
+        }
+
+        return this.threadPool;
+    }
+
+    @Override
+    public void setThreadPool(
+        final ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
+    @Override
+    public int getNumThreads()
+    {
+        return ParallelUtil.getNumThreads(this.getThreadPool());
+    }
+
+    /**
+     * The model learned by online LDA. It holds the variational parameters of
+     * the topic-term distributions (lambda), and it evaluates a document into
+     * its expected topic proportions.
+     */
+    public static class Model
+        extends AbstractCloneableSerializable
+        implements Evaluator<Vectorizable, Vector>
+    {
+
+        /** The number of topics. */
+        protected int topicCount;
+
+        /** The number of terms. */
+        protected int termCount;
+
+        /** The alpha parameter of the Dirichlet prior on the topics of each
+         *  document. */
+        protected double alpha;
+
+        /** The variational topic-term parameters (lambda), indexed by
+         *  term * topicCount + topic. */
+        protected double[] topicTermWeights;
+
+        /** The sum of the topic-term parameters of each topic. */
+        protected double[] topicWeightSums;
+
+        /** The number of documents learned from. */
+        protected long documentCount;
+
+        /** The number of mini-batches learned from. */
+        protected int updateCount;
+
+        /**
+         * Creates a new, empty {@code Model}.
+         *
+         * @param   topicCount
+         *      The number of topics. Must be positive.
+         * @param   alpha
+         *      The alpha parameter of the Dirichlet prior on the topics of
+         *      each document. Must be positive.
+         */
+        public Model(
+            final int topicCount,
+            final double alpha)
+        {
+            super();
+
+            ArgumentChecker.assertIsPositive("topicCount", topicCount);
+            ArgumentChecker.assertIsPositive("alpha", alpha);
+            this.topicCount = topicCount;
+            this.termCount = 0;
+            this.alpha = alpha;
+            this.topicTermWeights = new double[0];
+            this.topicWeightSums = new double[topicCount];
+            this.documentCount = 0;
+            this.updateCount = 0;
+        }
+
+        @Override
+        public Model clone()
+        {
+            final Model clone = (Model) super.clone();
+            clone.topicTermWeights = this.topicTermWeights.clone();
+            clone.topicWeightSums = this.topicWeightSums.clone();
+            return clone;
+        }
+
+        /**
+         * Evaluates a document into its expected topic proportions, by
+         * running the E-step from uniform topic proportions. Terms that are
+         * not in the model are ignored.
+         *
+         * @param   input
+         *      The term-count vector of the document.
+         * @return
+         *      The expected topic proportions, which sum to one.
+         */
+        @Override
+        public Vector evaluate(
+            final Vectorizable input)
+        {
+            final Vector vector = input.convertToVector();
+            int size = 0;
+            for (VectorEntry entry : vector)
+            {
+                if (entry.getValue() != 0.0
+                    && entry.getIndex() < this.termCount)
+                {
+                    size++;
+                }
+            }
+
+            final int[] terms = new int[size];
+            final int[] positions = new int[size];
+            final double[] counts = new double[size];
+            double total = 0.0;
+            int n = 0;
+            for (VectorEntry entry : vector)
+            {
+                if (entry.getValue() != 0.0
+                    && entry.getIndex() < this.termCount)
+                {
+                    terms[n] = entry.getIndex();
+                    positions[n] = n;
+                    counts[n] = entry.getValue();
+                    total += counts[n];
+                    n++;
+                }
+            }
+
+            final int k = this.topicCount;
+            final double[] gamma = new double[k];
+            Arrays.fill(gamma, this.alpha + total / k);
+            infer(k, this.alpha, positions, counts, 0, size,
+                computeExpectedTopicTerms(this, terms), gamma,
+                DEFAULT_MAX_DOCUMENT_ITERATIONS,
+                DEFAULT_DOCUMENT_MINIMUM_CHANGE, null);
+
+            final Vector result = VectorFactory.getDenseDefault().copyArray(
+                gamma);
+            result.scaleEquals(1.0 / result.norm1());
+            return result;
+        }
+
+        /**
+         * Gets the expected probability of each term for each topic, which is
+         * lambda normalized for each topic.
+         *
+         * @return
+         *      The topic-term probabilities, indexed by topic and then term.
+         */
+        public double[][] getTopicTermProbabilities()
+        {
+            final int k = this.topicCount;
+            final double[][] result = new double[k][this.termCount];
+            for (int w = 0; w < this.termCount; w++)
+            {
+                for (int z = 0; z < k; z++)
+                {
+                    result[z][w] = this.topicTermWeights[w * k + z]
+                        / this.topicWeightSums[z];
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Gets the number of topics.
+         *
+         * @return
+         *      The number of topics.
+         */
+        public int getTopicCount()
+        {
+            return this.topicCount;
+        }
+
+        /**
+         * Gets the number of terms.
+         *
+         * @return
+         *      The number of terms.
+         */
+        public int getTermCount()
+        {
+            return this.termCount;
+        }
+
+        /**
+         * Gets the alpha parameter of the Dirichlet prior on the topics of
+         * each document.
+         *
+         * @return
+         *      The alpha parameter.
+         */
+        public double getAlpha()
+        {
+            return this.alpha;
+        }
+
+        /**
+         * Gets the variational topic-term parameters (lambda). Note that this
+         * is the array used by the model, not a copy.
+         *
+         * @return
+         *      The topic-term parameters, indexed by term * topicCount + topic.
+         */
+        public double[] getTopicTermWeights()
+        {
+            return this.topicTermWeights;
+        }
+
+        /**
+         * Gets the number of documents learned from.
+         *
+         * @return
+         *      The number of documents.
+         */
+        public long getDocumentCount()
+        {
+            return this.documentCount;
+        }
+
+        /**
+         * Gets the number of mini-batches learned from.
+         *
+         * @return
+         *      The number of mini-batches.
+         */
+        public int getUpdateCount()
+        {
+            return this.updateCount;
+        }
+
+    }
+
+}
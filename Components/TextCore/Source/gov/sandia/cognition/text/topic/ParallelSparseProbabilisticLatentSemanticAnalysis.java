@@ -0,0 +1,1116 @@
+/*
+ * File:                ParallelSparseProbabilisticLatentSemanticAnalysis.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.topic;
+
+import gov.sandia.cognition.algorithm.IterativeAlgorithm;
+import gov.sandia.cognition.algorithm.ParallelAlgorithm;
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.algorithm.event.AbstractIterativeAlgorithmListener;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.io.ObjectSerializationHandler;
+import gov.sandia.cognition.learning.algorithm.AbstractAnytimeBatchLearner;
+import gov.sandia.cognition.learning.data.DatasetUtil;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorEntry;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import gov.sandia.cognition.math.matrix.Vectorizable;
+import gov.sandia.cognition.text.topic.ProbabilisticLatentSemanticAnalysis.LatentData;
+import gov.sandia.cognition.text.topic.ProbabilisticLatentSemanticAnalysis.Result;
+import gov.sandia.cognition.util.AbstractCloneableSerializable;
+import gov.sandia.cognition.util.ArgumentChecker;
+import gov.sandia.cognition.util.Randomized;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * A parallel implementation of Probabilistic Latent Semantic Analysis (PLSA)
+ * for sparse term-document data. It learns the same model and creates the
+ * same {@code ProbabilisticLatentSemanticAnalysis.Result} as
+ * {@code ProbabilisticLatentSemanticAnalysis}, but the documents are stored
+ * in compressed sparse row (CSR) order and each iteration only visits the
+ * non-zero (document, term) cells, so an iteration takes O(nnz k) time for k
+ * latent variables instead of O(documents terms k).
+ * <BR><BR>
+ * The parameters are kept in dense primitive arrays. The E-step runs on
+ * blocks of documents with about the same number of non-zeros in parallel,
+ * and each block adds its expected term counts into its own accumulator. The
+ * accumulators are then merged in parallel for the M-step.
+ * <BR><BR>
+ * Tempered EM is supported by an inverse temperature beta in (0, 1]: the
+ * posterior of the latent variables is proportional to
+ * (p(z) p(d|z) p(w|z))^beta, which smooths the model to reduce over-fitting.
+ * A value of 1 is standard EM.
+ * <BR><BR>
+ * The state of the algorithm can be saved between iterations as a
+ * {@code Checkpoint}, for instance by a {@code CheckpointWriter} listener,
+ * and learning can be resumed from it by setting it as the initial
+ * checkpoint.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ * @see     ProbabilisticLatentSemanticAnalysis
+ */
+@PublicationReference(
+    author="Thomas Hofmann",
+    title="Unsupervised Learning by Probabilistic Latent Semantic Analysis",
+    year=2001,
+    type=PublicationType.Journal,
+    publication="Machine Learning",
+    pages={177, 196},
+    url="http://citeseerx.ist.psu.edu/viewdoc/summary?doi=10.1.1.130.6341"
+)
+public class ParallelSparseProbabilisticLatentSemanticAnalysis
+    extends AbstractAnytimeBatchLearner<Collection<? extends Vectorizable>, Result>
+    implements Randomized, ParallelAlgorithm
+{
+
+    /** The default requested rank is {@value}. */
+    public static final int DEFAULT_REQUESTED_RANK =
+        ProbabilisticLatentSemanticAnalysis.DEFAULT_REQUESTED_RANK;
+
+    /** The default maximum number of iterations is {@value}. */
+    public static final int DEFAULT_MAX_ITERATIONS =
+        ProbabilisticLatentSemanticAnalysis.DEFAULT_MAX_ITERATIONS;
+
+    /** The default minimum change is {@value}. */
+    public static final double DEFAULT_MINIMUM_CHANGE =
+        ProbabilisticLatentSemanticAnalysis.DEFAULT_MINIMUM_CHANGE;
+
+    /** The default inverse temperature is {@value}, which is standard EM. */
+    public static final double DEFAULT_INVERSE_TEMPERATURE = 1.0;
+
+    /** The requested rank to reduce the dimensionality to. */
+    protected int requestedRank;
+
+    /** The minimum change required in log-likelihood to continue iterating.
+     *  Used for a stopping criteria. */
+    protected double minimumChange;
+
+    /** The inverse temperature (beta) of tempered EM. Must be in (0, 1]. */
+    protected double inverseTemperature;
+
+    /** The random number generator to use. */
+    protected Random random;
+
+    /** The checkpoint to resume learning from, if any. */
+    protected Checkpoint initialCheckpoint;
+
+    /** The number of documents. */
+    protected transient int documentCount;
+
+    /** The number of terms. */
+    protected transient int termCount;
+
+    /** The number of latent variables. */
+    protected transient int latentCount;
+
+    /** The start of each document in the non-zeros, plus the end. */
+    protected transient int[] documentStarts;
+
+    /** The term index of each non-zero. */
+    protected transient int[] termIndices;
+
+    /** The count of each non-zero. */
+    protected transient double[] counts;
+
+    /** The first document of each block, plus the end. */
+    protected transient int[] blockStarts;
+
+    /** The probability of each latent variable. */
+    protected transient double[] pLatent;
+
+    /** The probability of each document given each latent variable, indexed
+     *  by document * latentCount + latent. */
+    protected transient double[] pDocumentGivenLatent;
+
+    /** The probability of each term given each latent variable, indexed by
+     *  term * latentCount + latent. */
+    protected transient double[] pTermGivenLatent;
+
+    /** The expected document counts for the next M-step. */
+    protected transient double[] nextDocument;
+
+    /** The expected term counts for the next M-step. */
+    protected transient double[] nextTerm;
+
+    /** The expected term counts of each block. */
+    protected transient double[][] termAccumulators;
+
+    /** The expected latent counts of each block. */
+    protected transient double[][] latentAccumulators;
+
+    /** The number of iterations done before learning started, from the
+     *  initial checkpoint. */
+    protected transient int iterationOffset;
+
+    /** The current log-likelihood of the algorithm. */
+    protected transient double logLikelihood;
+
+    /** The change in log-likelihood of the algorithm from the current
+     *  iteration. */
+    protected transient double changeOfLogLikelihood;
+
+    /** The result being produced by the algorithm. It is created from the
+     *  parameters when it is first asked for after a step, or null if it has
+     *  not been yet. */
+    protected transient Result result;
+
+    /** The thread pool to use. */
+    private transient ThreadPoolExecutor threadPool;
+
+    /**
+     * Creates a new {@code ParallelSparseProbabilisticLatentSemanticAnalysis}
+     * with default parameters.
+     */
+    public ParallelSparseProbabilisticLatentSemanticAnalysis()
+    {
+        this(DEFAULT_REQUESTED_RANK);
+    }
+
+    /**
+     * Creates a new {@code ParallelSparseProbabilisticLatentSemanticAnalysis}
+     * with the given rank and otherwise default parameters.
+     *
+     * @param   requestedRank
+     *      The requested rank. Must be positive.
+     */
+    public ParallelSparseProbabilisticLatentSemanticAnalysis(
+        final int requestedRank)
+    {
+        this(requestedRank, DEFAULT_MINIMUM_CHANGE,
+            DEFAULT_INVERSE_TEMPERATURE, new Random());
+    }
+
+    /**
+     * Creates a new {@code ParallelSparseProbabilisticLatentSemanticAnalysis}
+     * with the given parameters.
+     *
+     * @param   requestedRank
+     *      The requested rank. Must be positive.
+     * @param   minimumChange
+     *      The minimum change in log-likelihood to stop.
+     * @param   inverseTemperature
+     *      The inverse temperature of tempered EM. Must be in (0, 1].
+     * @param   random
+     *      The random number generator to use.
+     */
+    public ParallelSparseProbabilisticLatentSemanticAnalysis(
+        final int requestedRank,
+        final double minimumChange,
+        final double inverseTemperature,
+        final Random random)
+    {
+        super(DEFAULT_MAX_ITERATIONS);
+
+        this.setRequestedRank(requestedRank);
+        this.setMinimumChange(minimumChange);
+        this.setInverseTemperature(inverseTemperature);
+        this.setRandom(random);
+        this.setInitialCheckpoint(null);
+    }
+
+    @Override
+    protected boolean initializeAlgorithm()
+    {
+        final Collection<? extends Vectorizable> documents = this.getData();
+        if (documents == null || documents.isEmpty())
+        {
+            return false;
+        }
+
+        // Copy the non-zeros of the documents in CSR order.
+        this.documentCount = documents.size();
+        this.termCount = DatasetUtil.getDimensionality(documents);
+        this.documentStarts = new int[this.documentCount + 1];
+        int nonZeroCount = 0;
+        final ArrayList<Vector> vectors = new ArrayList<Vector>(
+            this.documentCount);
+        for (Vectorizable document : documents)
+        {
+            final Vector vector = document.convertToVector();
+            vectors.add(vector);
+            for (VectorEntry entry : vector)
+            {
+                if (entry.getValue() != 0.0)
+                {
+                    nonZeroCount++;
+                }
+            }
+        }
+        this.termIndices = new int[nonZeroCount];
+        this.counts = new double[nonZeroCount];
+        int nonZero = 0;
+        for (int d = 0; d < this.documentCount; d++)
+        {
+            this.documentStarts[d] = nonZero;
+            for (VectorEntry entry : vectors.get(d))
+            {
+                if (entry.getValue() != 0.0)
+                {
+                    this.termIndices[nonZero] = entry.getIndex();
+                    this.counts[nonZero] = entry.getValue();
+                    nonZero++;
+                }
+            }
+        }
+        this.documentStarts[this.documentCount] = nonZero;
+
+        // Split the documents into blocks with about the same number of
+        // non-zeros, one per thread.
+        final int blockCount = Math.max(1,
+            Math.min(this.documentCount, this.getNumThreads()));
+        this.blockStarts = new int[blockCount + 1];
+        int document = 0;
+        for (int b = 1; b < blockCount; b++)
+        {
+            final long target = (long) b * nonZeroCount / blockCount;
+            while (document < this.documentCount
+                && this.documentStarts[document] < target)
+            {
+                document++;
+            }
+            this.blockStarts[b] = document;
+        }
+        this.blockStarts[blockCount] = this.documentCount;
+
+        if (this.initialCheckpoint != null)
+        {
+            this.resume(this.initialCheckpoint);
+        }
+        else
+        {
+            this.latentCount =
+                Math.min(this.documentCount, this.getRequestedRank());
+            this.initializeParameters();
+        }
+
+        final int k = this.latentCount;
+        this.nextDocument = new double[this.documentCount * k];
+        this.nextTerm = new double[this.termCount * k];
+        this.termAccumulators = new double[blockCount][this.termCount * k];
+        this.latentAccumulators = new double[blockCount][k];
+        this.changeOfLogLikelihood = 0.0;
+        this.result = null;
+        return true;
+    }
+
+    /**
+     * Initializes the parameters at random, with a uniform probability for
+     * each latent variable.
+     */
+    protected void initializeParameters()
+    {
+        final int k = this.latentCount;
+        this.pLatent = new double[k];
+        this.pDocumentGivenLatent = new double[this.documentCount * k];
+        this.pTermGivenLatent = new double[this.termCount * k];
+        for (int z = 0; z < k; z++)
+        {
+            this.pLatent[z] = 1.0 / k;
+
+            double sum = 0.0;
+            for (int w = 0; w < this.termCount; w++)
+            {
+                final double value = this.random.nextDouble();
+                this.pTermGivenLatent[w * k + z] = value;
+                sum += value;
+            }
+            for (int w = 0; w < this.termCount; w++)
+            {
+                this.pTermGivenLatent[w * k + z] /= sum;
+            }
+
+            sum = 0.0;
+            for (int d = 0; d < this.documentCount; d++)
+            {
+                final double value = this.random.nextDouble();
+                this.pDocumentGivenLatent[d * k + z] = value;
+                sum += value;
+            }
+            for (int d = 0; d < this.documentCount; d++)
+            {
+                this.pDocumentGivenLatent[d * k + z] /= sum;
+            }
+        }
+        this.iterationOffset = 0;
+        this.logLikelihood = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Resumes from a checkpoint.
+     *
+     * @param   checkpoint
+     *      The checkpoint to resume from. Must be for data of the same size.
+     */
+    protected void resume(
+        final Checkpoint checkpoint)
+    {
+        if (checkpoint.getDocumentCount() != this.documentCount
+            || checkpoint.getTermCount() != this.termCount)
+        {
+            throw new IllegalArgumentException(
+                "The checkpoint is for data of a different size.");
+        }
+
+        this.latentCount = checkpoint.getLatentCount();
+        this.pLatent = checkpoint.pLatent.clone();
+        this.pDocumentGivenLatent = checkpoint.pDocumentGivenLatent.clone();
+        this.pTermGivenLatent = checkpoint.pTermGivenLatent.clone();
+        this.iterationOffset = checkpoint.getIteration();
+        this.logLikelihood = checkpoint.getLogLikelihood();
+    }
+
+    @Override
+    protected boolean step()
+    {
+        final int blockCount = this.blockStarts.length - 1;
+
+        // E-step on each block of documents, which also accumulates the
+        // expected counts for the M-step.
+        final ArrayList<Callable<Double>> tasks =
+            new ArrayList<Callable<Double>>(blockCount);
+        for (int b = 0; b < blockCount; b++)
+        {
+            final int block = b;
+            tasks.add(() -> this.expectBlock(block));
+        }
+
+        double newLogLikelihood = 0.0;
+        for (double blockLogLikelihood : this.execute(tasks))
+        {
+            newLogLikelihood += blockLogLikelihood;
+        }
+
+        // M-step: the total expected count of each latent variable normalizes
+        // both the document and term probabilities.
+        final int k = this.latentCount;
+        final double[] latentTotals = new double[k];
+        double total = 0.0;
+        for (double[] accumulator : this.latentAccumulators)
+        {
+            for (int z = 0; z < k; z++)
+            {
+                latentTotals[z] += accumulator[z];
+                total += accumulator[z];
+            }
+            Arrays.fill(accumulator, 0.0);
+        }
+        final double[] scales = new double[k];
+        for (int z = 0; z < k; z++)
+        {
+            this.pLatent[z] = total > 0.0 ? latentTotals[z] / total : 0.0;
+            scales[z] = latentTotals[z] > 0.0 ? 1.0 / latentTotals[z] : 0.0;
+        }
+
+        // Merge the term accumulators and normalize in parallel over ranges
+        // of the parameter arrays.
+        final ArrayList<Callable<Double>> mergeTasks =
+            new ArrayList<Callable<Double>>(2 * blockCount);
+        for (int b = 0; b < blockCount; b++)
+        {
+            final int termStart = (int) ((long) b * this.termCount
+                / blockCount);
+            final int termEnd = (int) ((long) (b + 1) * this.termCount
+                / blockCount);
+            mergeTasks.add(() ->
+            {
+                for (int i = termStart * k; i < termEnd * k; i++)
+                {
+                    double sum = 0.0;
+                    for (double[] accumulator : this.termAccumulators)
+                    {
+                        sum += accumulator[i];
+                        accumulator[i] = 0.0;
+                    }
+                    this.nextTerm[i] = sum * scales[i % k];
+                }
+                return null;
+            });
+
+            final int documentStart = (int) ((long) b * this.documentCount
+                / blockCount);
+            final int documentEnd = (int) ((long) (b + 1) * this.documentCount
+                / blockCount);
+            mergeTasks.add(() ->
+            {
+                for (int i = documentStart * k; i < documentEnd * k; i++)
+                {
+                    this.nextDocument[i] *= scales[i % k];
+                }
+                return null;
+            });
+        }
+        this.execute(mergeTasks);
+
+        // Swap in the new parameters and clear the next document counts.
+        double[] swap = this.pTermGivenLatent;
+        this.pTermGivenLatent = this.nextTerm;
+        this.nextTerm = swap;
+        swap = this.pDocumentGivenLatent;
+        this.pDocumentGivenLatent = this.nextDocument;
+        this.nextDocument = swap;
+        Arrays.fill(this.nextDocument, 0.0);
+
+        // The log-likelihood is of the parameters before the M-step.
+        final double previousLogLikelihood = this.logLikelihood;
+        this.logLikelihood = newLogLikelihood;
+        this.changeOfLogLikelihood =
+            newLogLikelihood - previousLogLikelihood;
+
+        // Creating the result boxes every parameter, so it is only done when
+        // it is asked for.
+        this.result = null;
+        return Double.isInfinite(previousLogLikelihood)
+            || Math.abs(this.changeOfLogLikelihood) > this.getMinimumChange();
+    }
+
+    /**
+     * Runs the E-step on a block of documents, adding the expected counts to
+     * the document counts and the accumulators of the block.
+     *
+     * @param   block
+     *      The index of the block.
+     * @return
+     *      The log-likelihood of the documents in the block.
+     */
+    protected double expectBlock(
+        final int block)
+    {
+        final int k = this.latentCount;
+        final double beta = this.inverseTemperature;
+        final double[] termAccumulator = this.termAccumulators[block];
+        final double[] latentAccumulator = this.latentAccumulators[block];
+        final double[] documentWeights = new double[k];
+        final double[] posterior = new double[k];
+        double result = 0.0;
+        for (int d = this.blockStarts[block];
+            d < this.blockStarts[block + 1]; d++)
+        {
+            for (int z = 0; z < k; z++)
+            {
+                documentWeights[z] =
+                    this.pLatent[z] * this.pDocumentGivenLatent[d * k + z];
+            }
+
+            for (int n = this.documentStarts[d];
+                n < this.documentStarts[d + 1]; n++)
+            {
+                final int termOffset = this.termIndices[n] * k;
+                final double count = this.counts[n];
+                double sum = 0.0;
+                for (int z = 0; z < k; z++)
+                {
+                    final double value = documentWeights[z]
+                        * this.pTermGivenLatent[termOffset + z];
+                    posterior[z] = value;
+                    sum += value;
+                }
+                if (sum <= 0.0)
+                {
+                    continue;
+                }
+                result += count * Math.log(sum);
+
+                if (beta != 1.0)
+                {
+                    sum = 0.0;
+                    for (int z = 0; z < k; z++)
+                    {
+                        posterior[z] = Math.pow(posterior[z], beta);
+                        sum += posterior[z];
+                    }
+                }
+
+                final double scale = count / sum;
+                for (int z = 0; z < k; z++)
+                {
+                    final double expected = scale * posterior[z];
+                    this.nextDocument[d * k + z] += expected;
+                    termAccumulator[termOffset + z] += expected;
+                    latentAccumulator[z] += expected;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Executes tasks on the thread pool.
+     *
+     * @param   <ResultType>
+     *      The type of result of the tasks.
+     * @param   tasks
+     *      The tasks.
+     * @return
+     *      The results of the tasks.
+     */
+    private <ResultType> ArrayList<ResultType> execute(
+        final Collection<? extends Callable<ResultType>> tasks)
+    {
+        try
+        {
+            return ParallelUtil.executeInParallel(tasks, this.getThreadPool());
+        }
+        catch (Exception ex)
+        {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Creates the result from the current parameters.
+     *
+     * @return
+     *      The result.
+     */
+    protected Result createResult()
+    {
+        final int k = this.latentCount;
+        final LatentData[] latents = new LatentData[k];
+        for (int z = 0; z < k; z++)
+        {
+            final LatentData latent = new LatentData();
+            latent.index = z;
+            latent.pLatent = this.pLatent[z];
+            latent.pTermGivenLatent =
+                VectorFactory.getDenseDefault().createVector(this.termCount);
+            for (int w = 0; w < this.termCount; w++)
+            {
+                latent.pTermGivenLatent.setElement(w,
+                    this.pTermGivenLatent[w * k + z]);
+            }
+            latent.pDocumentGivenLatent =
+                VectorFactory.getDenseDefault().createVector(
+                    this.documentCount);
+            for (int d = 0; d < this.documentCount; d++)
+            {
+                latent.pDocumentGivenLatent.setElement(d,
+                    this.pDocumentGivenLatent[d * k + z]);
+            }
+            latents[z] = latent;
+        }
+        return new Result(this.termCount, latents);
+    }
+
+    /**
+     * Creates a checkpoint of the current state of the algorithm, which can
+     * be used to resume learning later.
+     *
+     * @return
+     *      A checkpoint of the current state, or null if the algorithm is
+     *      not running.
+     */
+    public Checkpoint createCheckpoint()
+    {
+        if (this.pLatent == null)
+        {
+            return null;
+        }
+
+        return new Checkpoint(this.iterationOffset + this.getIteration(),
+            this.logLikelihood, this.documentCount, this.termCount,
+            this.latentCount, this.pLatent.clone(),
+            this.pDocumentGivenLatent.clone(), this.pTermGivenLatent.clone());
+    }
+
+    @Override
+    protected void cleanupAlgorithm()
+    {
+        // Create the final result before the parameters are released.
+        this.result = this.getResult();
+        this.documentStarts = null;
+        this.termIndices = null;
+        this.counts = null;
+        this.blockStarts = null;
+        this.pLatent = null;
+        this.pDocumentGivenLatent = null;
+        this.pTermGivenLatent = null;
+        this.nextDocument = null;
+        this.nextTerm = null;
+        this.termAccumulators = null;
+        this.latentAccumulators = null;
+    }
+
+    @Override
+    public Result getResult()
+    {
+        if (this.result == null && this.pLatent != null)
+        {
+            this.result = this.createResult();
+        }
+        return this.result;
+    }
+
+    /**
+     * Gets the log-likelihood of the data under the parameters before the
+     * most recent M-step.
+     *
+     * @return
+     *      The log-likelihood.
+     */
+    public double getLogLikelihood()
+    {
+        return this.logLikelihood;
+    }
+
+    /**
+     * Gets the change in log-likelihood from the most recent iteration.
+     *
+     * @return
+     *      The change in log-likelihood.
+     */
+    public double getChangeOfLogLikelihood()
+    {
+        return this.changeOfLogLikelihood;
+    }
+
+    @Override
+    public Random getRandom()
+    {
+        return this.random;
+    }
+
+    @Override
+    public void setRandom(
+        final Random random)
+    {
+        this.random = random;
+    }
+
+    /**
+     * Gets the requested rank to conduct the analysis for. It is the number
+     * of latent variables to use.
+     *
+     * @return
+     *      The requested rank. Must be positive.
+     */
+    public int getRequestedRank()
+    {
+        return this.requestedRank;
+    }
+
+    /**
+     * Sets the requested rank to conduct the analysis for. It is the number
+     * of latent variables to use.
+     *
+     * @param   requestedRank
+     *      The requested rank. Must be positive.
+     */
+    public void setRequestedRank(
+        final int requestedRank)
+    {
+        ArgumentChecker.assertIsPositive("requestedRank", requestedRank);
+        this.requestedRank = requestedRank;
+    }
+
+    /**
+     * Gets the minimum change in log-likelihood to allow before stopping the
+     * algorithm.
+     *
+     * @return
+     *      The minimum change in log-likelihood to allow before stopping.
+     *      Must be non-negative.
+     */
+    public double getMinimumChange()
+    {
+        return this.minimumChange;
+    }
+
+    /**
+     * Sets the minimum change in log-likelihood to allow before stopping the
+     * algorithm.
+     *
+     * @param   minimumChange
+     *      The minimum change in log-likelihood to allow before stopping.
+     *      Must be non-negative.
+     */
+    public void setMinimumChange(
+        final double minimumChange)
+    {
+        ArgumentChecker.assertIsNonNegative("minimumChange", minimumChange);
+        this.minimumChange = minimumChange;
+    }
+
+    /**
+     * Gets the inverse temperature (beta) of tempered EM.
+     *
+     * @return
+     *      The inverse temperature.
+     */
+    public double getInverseTemperature()
+    {
+        return this.inverseTemperature;
+    }
+
+    /**
+     * Sets the inverse temperature (beta) of tempered EM. A value of 1 is
+     * standard EM, while smaller values give smoother models.
+     *
+     * @param   inverseTemperature
+     *      The inverse temperature. Must be in (0, 1].
+     */
+    public void setInverseTemperature(
+        final double inverseTemperature)
+    {
+        if (!(inverseTemperature > 0.0 && inverseTemperature <= 1.0))
+        {
+            throw new IllegalArgumentException(
+                "inverseTemperature must be in (0, 1].");
+        }
+
+        this.inverseTemperature = inverseTemperature;
+    }
+
+    /**
+     * Gets the checkpoint that learning resumes from.
+     *
+     * @return
+     *      The initial checkpoint, or null to start from random parameters.
+     */
+    public Checkpoint getInitialCheckpoint()
+    {
+        return this.initialCheckpoint;
+    }
+
+    /**
+     * Sets the checkpoint that learning resumes from. The requested rank is
+     * ignored when resuming.
+     *
+     * @param   initialCheckpoint
+     *      The initial checkpoint, or null to start from random parameters.
+     *      It must be for data of the same size.
+     */
+    public void setInitialCheckpoint(
+        final Checkpoint initialCheckpoint)
+    {
+        this.initialCheckpoint = initialCheckpoint;
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool()
+    {
+        if (this.threadPool == null)
+        {
+            this.setThreadPool(ParallelUtil.createThreadPool());
+        }
+
+        return this.threadPool;
+    }
+
+    @Override
+    public void setThreadPool(
+        final ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
+    @Override
+    public int getNumThreads()
+    {
+        return ParallelUtil.getNumThreads(this.getThreadPool());
+    }
+
+    /**
+     * The state of the algorithm between iterations.
+     */
+    public static class Checkpoint
+        extends AbstractCloneableSerializable
+    {
+
+        /** The number of iterations done. */
+        protected int iteration;
+
+        /** The log-likelihood at the last iteration. */
+        protected double logLikelihood;
+
+        /** The number of documents. */
+        protected int documentCount;
+
+        /** The number of terms. */
+        protected int termCount;
+
+        /** The number of latent variables. */
+        protected int latentCount;
+
+        /** The probability of each latent variable. */
+        protected double[] pLatent;
+
+        /** The probability of each document given each latent variable. */
+        protected double[] pDocumentGivenLatent;
+
+        /** The probability of each term given each latent variable. */
+        protected double[] pTermGivenLatent;
+
+        /**
+         * Creates a new {@code Checkpoint}.
+         *
+         * @param   iteration
+         *      The number of iterations done.
+         * @param   logLikelihood
+         *      The log-likelihood at the last iteration.
+         * @param   documentCount
+         *      The number of documents.
+         * @param   termCount
+         *      The number of terms.
+         * @param   latentCount
+         *      The number of latent variables.
+         * @param   pLatent
+         *      The probability of each latent variable.
+         * @param   pDocumentGivenLatent
+         *      The probability of each document given each latent variable,
+         *      indexed by document * latentCount + latent.
+         * @param   pTermGivenLatent
+         *      The probability of each term given each latent variable,
+         *      indexed by term * latentCount + latent.
+         */
+        public Checkpoint(
+            final int iteration,
+            final double logLikelihood,
+            final int documentCount,
+            final int termCount,
+            final int latentCount,
+            final double[] pLatent,
+            final double[] pDocumentGivenLatent,
+            final double[] pTermGivenLatent)
+        {
+            super();
+
+            this.iteration = iteration;
+            this.logLikelihood = logLikelihood;
+            this.documentCount = documentCount;
+            this.termCount = termCount;
+            this.latentCount = latentCount;
+            this.pLatent = pLatent;
+            this.pDocumentGivenLatent = pDocumentGivenLatent;
+            this.pTermGivenLatent = pTermGivenLatent;
+        }
+
+        @Override
+        public Checkpoint clone()
+        {
+            final Checkpoint clone = (Checkpoint) super.clone();
+            clone.pLatent = this.pLatent.clone();
+            clone.pDocumentGivenLatent = this.pDocumentGivenLatent.clone();
+            clone.pTermGivenLatent = this.pTermGivenLatent.clone();
+            return clone;
+        }
+
+        /**
+         * Gets the number of iterations done.
+         *
+         * @return
+         *      The number of iterations.
+         */
+        public int getIteration()
+        {
+            return this.iteration;
+        }
+
+        /**
+         * Gets the log-likelihood at the last iteration.
+         *
+         * @return
+         *      The log-likelihood.
+         */
+        public double getLogLikelihood()
+        {
+            return this.logLikelihood;
+        }
+
+        /**
+         * Gets the number of documents.
+         *
+         * @return
+         *      The number of documents.
+         */
+        public int getDocumentCount()
+        {
+            return this.documentCount;
+        }
+
+        /**
+         * Gets the number of terms.
+         *
+         * @return
+         *      The number of terms.
+         */
+        public int getTermCount()
+        {
+            return this.termCount;
+        }
+
+        /**
+         * Gets the number of latent variables.
+         *
+         * @return
+         *      The number of latent variables.
+         */
+        public int getLatentCount()
+        {
+            return this.latentCount;
+        }
+
+    }
+
+    /**
+     * Writes a checkpoint of a
+     * {@code ParallelSparseProbabilisticLatentSemanticAnalysis} to a file
+     * every given number of iterations. The file is replaced atomically where
+     * the file system allows, so it always holds a complete checkpoint.
+     */
+    public static class CheckpointWriter
+        extends AbstractIterativeAlgorithmListener
+    {
+
+        /** The file to write to. */
+        protected File file;
+
+        /** The number of iterations between checkpoints. */
+        protected int interval;
+
+        /**
+         * Creates a new {@code CheckpointWriter}.
+         *
+         * @param   file
+         *      The file to write to.
+         * @param   interval
+         *      The number of iterations between checkpoints. Must be
+         *      positive.
+         */
+        public CheckpointWriter(
+            final File file,
+            final int interval)
+        {
+            super();
+
+            ArgumentChecker.assertIsPositive("interval", interval);
+            this.file = file;
+            this.interval = interval;
+        }
+
+        @Override
+        public void stepEnded(
+            final IterativeAlgorithm algorithm)
+        {
+            if (algorithm.getIteration() % this.interval == 0)
+            {
+                this.write((ParallelSparseProbabilisticLatentSemanticAnalysis)
+                    algorithm);
+            }
+        }
+
+        @Override
+        public void algorithmEnded(
+            final IterativeAlgorithm algorithm)
+        {
+            if (algorithm.getIteration() % this.interval != 0)
+            {
+                this.write((ParallelSparseProbabilisticLatentSemanticAnalysis)
+                    algorithm);
+            }
+        }
+
+        /**
+         * Writes a checkpoint of an algorithm to the file.
+         *
+         * @param   algorithm
+         *      The algorithm.
+         */
+        protected void write(
+            final ParallelSparseProbabilisticLatentSemanticAnalysis algorithm)
+        {
+            final Checkpoint checkpoint = algorithm.createCheckpoint();
+            if (checkpoint == null)
+            {
+                return;
+            }
+
+            final File temporary = new File(this.file.getPath() + ".tmp");
+            try
+            {
+                ObjectSerializationHandler.writeObjectToFile(temporary,
+                    checkpoint);
+                try
+                {
+                    Files.move(temporary.toPath(), this.file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                }
+                catch (IOException ex)
+                {
+                    // The file system may not support atomic moves.
+                    Files.move(temporary.toPath(), this.file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            catch (IOException ex)
+            {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        /**
+         * Reads a checkpoint from a file.
+         *
+         * @param   file
+         *      The file to read.
+         * @return
+         *      The checkpoint.
+         * @throws  IOException
+         *      If there is an error reading the file.
+         * @throws  ClassNotFoundException
+         *      If the file does not contain a known class.
+         */
+        public static Checkpoint read(
+            final File file)
+            throws IOException, ClassNotFoundException
+        {
+            return (Checkpoint) ObjectSerializationHandler.readFromFile(file);
+        }
+
+        /**
+         * Gets the file to write to.
+         *
+         * @return
+         *      The file.
+         */
+        public File getFile()
+        {
+            return this.file;
+        }
+
+        /**
+         * Gets the number of iterations between checkpoints.
+         *
+         * @return
+         *      The number of iterations between checkpoints.
+         */
+        public int getInterval()
+        {
+            return this.interval;
+        }
+
+    }
+
+}
@@ -43,9 +43,14 @@ import java.util.Random;
 /**
  * An implementation of the Probabilistic Latent Semantic Analysis (PLSA)
  * algorithm.
+ * <BR><BR>
+ * This implementation uses dense matrices over all documents and terms. For
+ * large, sparse data use {@code ParallelSparseProbabilisticLatentSemanticAnalysis},
+ * which learns the same model from only the non-zero counts in parallel.
  * 
  * @author  Justin Basilico
  * @since   3.0
+ * @see     ParallelSparseProbabilisticLatentSemanticAnalysis
  */
 @PublicationReferences(
     references={
@@ -82,7 +87,6 @@ public class ProbabilisticLatentSemanticAnalysis
     extends AbstractAnytimeBatchLearner<Collection<? extends Vectorizable>, ProbabilisticLatentSemanticAnalysis.Result>
     implements Randomized, VectorFactoryContainer
 {
-    // TODO: Make use of sparseness.
 
     /** The default requested rank is {@value}. */
     public static final int DEFAULT_REQUESTED_RANK = 10;
@@ -0,0 +1,935 @@
+/*
+ * File:                SparseLatentDirichletAllocationVectorGibbsSampler.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.topic;
+
+import gov.sandia.cognition.algorithm.MeasurablePerformanceAlgorithm;
+import gov.sandia.cognition.algorithm.ParallelAlgorithm;
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.annotation.PublicationReference;
+import gov.sandia.cognition.annotation.PublicationReferences;
+import gov.sandia.cognition.annotation.PublicationType;
+import gov.sandia.cognition.util.DefaultNamedValue;
+import gov.sandia.cognition.util.NamedValue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * A parallel, sparse implementation of the collapsed Gibbs sampler in
+ * {@link LatentDirichletAllocationVectorGibbsSampler}. It uses the SparseLDA
+ * bucket decomposition of the topic sampling distribution into a smoothing
+ * bucket, a document-topic bucket, and a topic-term bucket. The first is kept
+ * up to date incrementally, the second only involves the topics that occur in
+ * the current document, and the third only involves the topics that the
+ * current term is assigned to. Since those are typically a small fraction of
+ * all the topics, each term occurrence is sampled in time proportional to the
+ * number of active topics rather than the total number of topics.
+ * <BR><BR>
+ * The documents are split into blocks that are sampled in parallel using the
+ * approximate distributed (AD-LDA) model: during an iteration each block
+ * reads the shared topic-term counts from the end of the previous iteration
+ * without locking, plus its own changes to them, which it keeps as local
+ * deltas for the terms it has moved. Once all the blocks finish, their deltas
+ * are merged into the shared counts. So a block sees all of its own moves but
+ * none of the other blocks' moves until the next iteration. The
+ * document-topic counts are exact, and each block keeps its own per-topic
+ * totals the same way.
+ * <BR><BR>
+ * The sampling throughput of the last iteration is reported in tokens (term
+ * occurrences) per second through {@link #getPerformance()}, so it can be
+ * monitored with an
+ * {@link gov.sandia.cognition.algorithm.event.IterationMeasurablePerformanceReporter}.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+@PublicationReferences(
+    references={
+        @PublicationReference(
+            author={"Limin Yao", "David Mimno", "Andrew McCallum"},
+            title="Efficient Methods for Topic Model Inference on Streaming Document Collections",
+            year=2009,
+            type=PublicationType.Conference,
+            publication="Proceedings of the 15th ACM SIGKDD International Conference on Knowledge Discovery and Data Mining",
+            pages={937, 946},
+            url="http://people.cs.umass.edu/~mimno/papers/fast-topic-model.pdf"),
+        @PublicationReference(
+            author={"David Newman", "Arthur Asuncion", "Padhraic Smyth", "Max Welling"},
+            title="Distributed Algorithms for Topic Models",
+            year=2009,
+            type=PublicationType.Journal,
+            publication="Journal of Machine Learning Research",
+            pages={1801, 1828},
+            url="http://www.jmlr.org/papers/volume10/newman09a/newman09a.pdf")
+    }
+)
+public class SparseLatentDirichletAllocationVectorGibbsSampler
+    extends LatentDirichletAllocationVectorGibbsSampler
+    implements ParallelAlgorithm, MeasurablePerformanceAlgorithm
+{
+
+    /** The maximum number of topics supported, {@value}. */
+    public static final int MAX_TOPIC_COUNT = 1 << 16;
+
+    /** The name of the performance measure, {@value}. */
+    public static final String PERFORMANCE_NAME = "Tokens per second";
+
+    /** Thread pool used for parallelization. */
+    private transient ThreadPoolExecutor threadPool;
+
+    /** For each document, the index of its first entry in documentTerms. */
+    protected transient int[] documentTermStarts;
+
+    /** For each document, the index of its first term occurrence. */
+    protected transient int[] documentOccurrenceStarts;
+
+    /** For each term, the topics that have a non-zero count for the term. Only
+     *  the first termTopicSizes[term] entries are used. */
+    protected transient int[][] termTopics;
+
+    /** For each term, the number of topics with a non-zero count for it. */
+    protected transient int[] termTopicSizes;
+
+    /** The tasks that sample each block of documents. */
+    protected transient ArrayList<DocumentBlockTask> blockTasks;
+
+    /** The number of term occurrences sampled per second in the last
+     *  iteration. */
+    protected transient double tokensPerSecond;
+
+    /**
+     * Creates a new {@code SparseLatentDirichletAllocationVectorGibbsSampler}
+     * with default parameters.
+     */
+    public SparseLatentDirichletAllocationVectorGibbsSampler()
+    {
+        super();
+    }
+
+    /**
+     * Creates a new {@code SparseLatentDirichletAllocationVectorGibbsSampler}
+     * with the given parameters.
+     *
+     * @param   topicCount
+     *      The number of topics for the algorithm to create. Must be positive
+     *      and no more than {@link #MAX_TOPIC_COUNT}.
+     * @param   alpha
+     *      The alpha parameter controlling the Dirichlet distribution for the
+     *      document-topic probabilities. It acts as a prior weight assigned to
+     *      the document-topic counts. Must be positive.
+     * @param   beta
+     *      The beta parameter controlling the Dirichlet distribution for the
+     *      topic-term probabilities. It acts as a prior weight assigned to
+     *      the topic-term counts.
+     * @param   maxIterations
+     *      The maximum number of iterations to run for. Must be positive.
+     * @param   burnInIterations
+     *      The number of burn-in iterations for the Markov Chain Monte Carlo
+     *      algorithm to run before sampling begins.
+     * @param   iterationsPerSample
+     *      The number of iterations to the Markov Chain Monte Carlo algorithm
+     *      between samples (after the burn-in iterations).
+     * @param   random
+     *      The random number generator to use.
+     */
+    public SparseLatentDirichletAllocationVectorGibbsSampler(
+        final int topicCount,
+        final double alpha,
+        final double beta,
+        final int maxIterations,
+        final int burnInIterations,
+        final int iterationsPerSample,
+        final Random random)
+    {
+        super(topicCount, alpha, beta, maxIterations, burnInIterations,
+            iterationsPerSample, random);
+    }
+
+    @Override
+    public void setTopicCount(
+        final int topicCount)
+    {
+        if (topicCount > MAX_TOPIC_COUNT)
+        {
+            throw new IllegalArgumentException("topicCount cannot exceed "
+                + MAX_TOPIC_COUNT);
+        }
+        super.setTopicCount(topicCount);
+    }
+
+    @Override
+    protected boolean initializeAlgorithm()
+    {
+        if (!super.initializeAlgorithm())
+        {
+            return false;
+        }
+
+        // Compute where each document starts in the term and occurrence
+        // arrays so that blocks of documents can be sampled independently.
+        this.documentTermStarts = new int[this.documentCount + 1];
+        this.documentOccurrenceStarts = new int[this.documentCount + 1];
+        int docTermIndex = 0;
+        int occurrence = 0;
+        for (int document = 0; document < this.documentCount; document++)
+        {
+            this.documentTermStarts[document] = docTermIndex;
+            this.documentOccurrenceStarts[document] = occurrence;
+            final int docUniqueTerms = this.documentTermPairsCounts[document];
+            for (int i = 0; i < docUniqueTerms; i++)
+            {
+                occurrence += this.documentTermCounts[docTermIndex];
+                docTermIndex++;
+            }
+        }
+        this.documentTermStarts[this.documentCount] = docTermIndex;
+        this.documentOccurrenceStarts[this.documentCount] = occurrence;
+
+        // Build the sparse lists of topics for each term.
+        this.termTopics = new int[this.termCount][];
+        this.termTopicSizes = new int[this.termCount];
+        for (int term = 0; term < this.termCount; term++)
+        {
+            int size = 0;
+            for (int topic = 0; topic < this.topicCount; topic++)
+            {
+                if (this.topicTermCount[topic][term] > 0)
+                {
+                    size++;
+                }
+            }
+
+            final int[] topics = new int[Math.max(4, size)];
+            size = 0;
+            for (int topic = 0; topic < this.topicCount; topic++)
+            {
+                if (this.topicTermCount[topic][term] > 0)
+                {
+                    topics[size] = topic;
+                    size++;
+                }
+            }
+            this.termTopics[term] = topics;
+            this.termTopicSizes[term] = size;
+        }
+
+        this.createBlockTasks();
+        this.tokensPerSecond = 0.0;
+        return true;
+    }
+
+    /**
+     * Splits the documents into one contiguous block per thread with roughly
+     * the same number of term occurrences in each and creates the task for
+     * each block.
+     */
+    protected void createBlockTasks()
+    {
+        final int totalOccurrences =
+            this.documentOccurrenceStarts[this.documentCount];
+        final int numBlocks = Math.max(1,
+            Math.min(this.documentCount, this.getNumThreads()));
+        this.blockTasks = new ArrayList<DocumentBlockTask>(numBlocks);
+        int startDocument = 0;
+        for (int block = 0; block < numBlocks; block++)
+        {
+            final long target =
+                (long) totalOccurrences * (block + 1) / numBlocks;
+            int endDocument = startDocument;
+            if (block == numBlocks - 1)
+            {
+                endDocument = this.documentCount;
+            }
+            else
+            {
+                while (endDocument < this.documentCount
+                    && (endDocument == startDocument
+                        || this.documentOccurrenceStarts[endDocument] < target))
+                {
+                    endDocument++;
+                }
+            }
+
+            this.blockTasks.add(new DocumentBlockTask(startDocument,
+                endDocument, new Random(this.random.nextLong())));
+            startDocument = endDocument;
+        }
+    }
+
+    @Override
+    protected boolean step()
+    {
+        final long start = System.nanoTime();
+        try
+        {
+            ParallelUtil.executeInParallel(this.blockTasks,
+                this.getThreadPool());
+        }
+        catch (Exception ex)
+        {
+            throw new RuntimeException(ex);
+        }
+
+        // Merge the delayed topic-term updates from each block.
+        for (DocumentBlockTask task : this.blockTasks)
+        {
+            task.mergeChanges();
+        }
+
+        final long elapsed = Math.max(1L, System.nanoTime() - start);
+        this.tokensPerSecond = 1.0e9
+            * this.occurrenceTopicAssignments.length / elapsed;
+
+        // Determine whether or not to sample
+        if (this.iteration >= this.burnInIterations
+            && (this.iteration - this.burnInIterations)
+            % this.iterationsPerSample == 0)
+        {
+            this.readParameters();
+        }
+
+        return true;
+    }
+
+    @Override
+    protected void cleanupAlgorithm()
+    {
+        super.cleanupAlgorithm();
+
+        // Release the sampling structures, which are only needed while
+        // learning.
+        this.blockTasks = null;
+        this.termTopics = null;
+        this.termTopicSizes = null;
+    }
+
+    /**
+     * Adds to the count for the given topic and term in the shared topic-term
+     * counts, keeping the term's sparse topic list to the topics with a
+     * non-zero count.
+     *
+     * @param   term
+     *      The term index.
+     * @param   topic
+     *      The topic index.
+     * @param   delta
+     *      The amount to add to the count. The count cannot become negative.
+     */
+    protected void addTopicTerm(
+        final int term,
+        final int topic,
+        final int delta)
+    {
+        final int oldCount = this.topicTermCount[topic][term];
+        final int newCount = oldCount + delta;
+        this.topicTermSum[topic] += delta;
+        this.topicTermCount[topic][term] = newCount;
+        if (oldCount == 0 && newCount > 0)
+        {
+            int[] topics = this.termTopics[term];
+            final int size = this.termTopicSizes[term];
+            if (size >= topics.length)
+            {
+                topics = Arrays.copyOf(topics, Math.min(this.topicCount,
+                    2 * topics.length));
+                this.termTopics[term] = topics;
+            }
+            topics[size] = topic;
+            this.termTopicSizes[term] = size + 1;
+        }
+        else if (oldCount > 0 && newCount == 0)
+        {
+            final int[] topics = this.termTopics[term];
+            final int last = this.termTopicSizes[term] - 1;
+            for (int i = 0; i <= last; i++)
+            {
+                if (topics[i] == topic)
+                {
+                    topics[i] = topics[last];
+                    break;
+                }
+            }
+            this.termTopicSizes[term] = last;
+        }
+    }
+
+    @Override
+    public NamedValue<Double> getPerformance()
+    {
+        return new DefaultNamedValue<Double>(PERFORMANCE_NAME,
+            this.tokensPerSecond);
+    }
+
+    /**
+     * Gets the number of term occurrences (tokens) sampled per second in the
+     * last iteration.
+     *
+     * @return
+     *      The number of tokens sampled per second.
+     */
+    public double getTokensPerSecond()
+    {
+        return this.tokensPerSecond;
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool()
+    {
+        if (this.threadPool == null)
+        {
+            this.setThreadPool(ParallelUtil.createThreadPool());
+        }
+
+        return this.threadPool;
+    }
+
+    @Override
+    public void setThreadPool(
+        final ThreadPoolExecutor threadPool)
+    {
+        this.threadPool = threadPool;
+    }
+
+    @Override
+    public int getNumThreads()
+    {
+        return ParallelUtil.getNumThreads(this);
+    }
+
+    /**
+     * Samples the topics of all term occurrences in a contiguous block of
+     * documents for one iteration. All of its work arrays are allocated once
+     * and reused for every iteration.
+     */
+    protected class DocumentBlockTask
+        implements Callable<Boolean>
+    {
+
+        /** The first document in the block, inclusive. */
+        protected final int startDocument;
+
+        /** The last document in the block, exclusive. */
+        protected final int endDocument;
+
+        /** The random number generator for the block. */
+        protected final Random random;
+
+        /** The block's view of the number of occurrences in each topic. */
+        protected final int[] topicSums;
+
+        /** For each topic, (alpha + n_dt) / (beta * V + n_t). */
+        protected final double[] coefficients;
+
+        /** The topic-term bucket proportion of each topic in
+         *  termBucketTopics. */
+        protected final double[] termTopicProportions;
+
+        /** The topics of the topic-term bucket of the current occurrence. */
+        protected final int[] termBucketTopics;
+
+        /** The topics with a non-zero count in the current document. */
+        protected final int[] documentTopics;
+
+        /** The position of each topic in documentTopics, or -1. */
+        protected final int[] documentTopicPositions;
+
+        /** The number of topics in documentTopics. */
+        protected int documentTopicSize;
+
+        /** For each term, the topics whose count for the term the block has
+         *  changed in the current iteration, or null if there have been none
+         *  yet. Only the first localTopicSizes[term] entries are used. */
+        protected final int[][] localTopics;
+
+        /** For each term, the block's change to the count of each topic in
+         *  localTopics. */
+        protected final int[][] localDeltas;
+
+        /** For each term, the number of topics in localTopics. */
+        protected final int[] localTopicSizes;
+
+        /** The terms with a topic in localTopics. Only the first
+         *  changedTermCount entries are used. */
+        protected int[] changedTerms;
+
+        /** The number of terms in changedTerms. */
+        protected int changedTermCount;
+
+        /** For the current term, the block's change to each topic's count. */
+        protected final int[] termDeltas;
+
+        /** For the current term, the position of each topic in its
+         *  localTopics, or -1. */
+        protected final int[] termDeltaPositions;
+
+        /**
+         * Creates a new {@code DocumentBlockTask}.
+         *
+         * @param   startDocument
+         *      The first document in the block, inclusive.
+         * @param   endDocument
+         *      The last document in the block, exclusive.
+         * @param   random
+         *      The random number generator for the block.
+         */
+        protected DocumentBlockTask(
+            final int startDocument,
+            final int endDocument,
+            final Random random)
+        {
+            super();
+
+            this.startDocument = startDocument;
+            this.endDocument = endDocument;
+            this.random = random;
+            this.topicSums = new int[topicCount];
+            this.coefficients = new double[topicCount];
+            this.termTopicProportions = new double[topicCount];
+            this.termBucketTopics = new int[topicCount];
+            this.documentTopics = new int[topicCount];
+            this.documentTopicPositions = new int[topicCount];
+            Arrays.fill(this.documentTopicPositions, -1);
+            this.documentTopicSize = 0;
+
+            this.localTopics = new int[termCount][];
+            this.localDeltas = new int[termCount][];
+            this.localTopicSizes = new int[termCount];
+            this.changedTerms = new int[16];
+            this.changedTermCount = 0;
+            this.termDeltas = new int[topicCount];
+            this.termDeltaPositions = new int[topicCount];
+            Arrays.fill(this.termDeltaPositions, -1);
+        }
+
+        @Override
+        public Boolean call()
+        {
+            final int K = topicCount;
+            final double a = alpha;
+            final double b = beta;
+            final double betaSum = termCount * b;
+
+            // Take a snapshot of the topic totals and compute the smoothing
+            // bucket and default coefficients from them.
+            System.arraycopy(topicTermSum, 0, this.topicSums, 0, K);
+            double smoothing = 0.0;
+            for (int topic = 0; topic < K; topic++)
+            {
+                final double denominator = betaSum + this.topicSums[topic];
+                smoothing += a * b / denominator;
+                this.coefficients[topic] = a / denominator;
+            }
+
+            for (int document = this.startDocument;
+                document < this.endDocument; document++)
+            {
+                final int[] docTopicCounts = documentTopicCount[document];
+
+                // Find the topics in the document and compute the document
+                // bucket and their coefficients.
+                final int occurrenceStart = documentOccurrenceStarts[document];
+                final int occurrenceEnd = documentOccurrenceStarts[document + 1];
+                for (int occurrence = occurrenceStart;
+                    occurrence < occurrenceEnd; occurrence++)
+                {
+                    final int topic = occurrenceTopicAssignments[occurrence];
+                    if (this.documentTopicPositions[topic] < 0)
+                    {
+                        this.addDocumentTopic(topic);
+                    }
+                }
+
+                double documentBucket = 0.0;
+                for (int i = 0; i < this.documentTopicSize; i++)
+                {
+                    final int topic = this.documentTopics[i];
+                    final double denominator = betaSum + this.topicSums[topic];
+                    documentBucket += docTopicCounts[topic] * b / denominator;
+                    this.coefficients[topic] =
+                        (a + docTopicCounts[topic]) / denominator;
+                }
+
+                int occurrence = occurrenceStart;
+                final int docTermEnd = documentTermStarts[document + 1];
+                for (int docTermIndex = documentTermStarts[document];
+                    docTermIndex < docTermEnd; docTermIndex++)
+                {
+                    final int term = documentTerms[docTermIndex];
+                    final int count = documentTermCounts[docTermIndex];
+                    final int[] topics = termTopics[term];
+                    final int termTopicSize = termTopicSizes[term];
+                    this.loadTermDeltas(term);
+
+                    for (int i = 0; i < count; i++)
+                    {
+                        final int oldTopic =
+                            occurrenceTopicAssignments[occurrence];
+
+                        // Remove the old topic assignment from the buckets.
+                        double denominator = betaSum + this.topicSums[oldTopic];
+                        smoothing -= a * b / denominator;
+                        documentBucket -=
+                            docTopicCounts[oldTopic] * b / denominator;
+                        docTopicCounts[oldTopic]--;
+                        documentTopicSum[document]--;
+                        this.topicSums[oldTopic]--;
+                        denominator = betaSum + this.topicSums[oldTopic];
+                        smoothing += a * b / denominator;
+                        documentBucket +=
+                            docTopicCounts[oldTopic] * b / denominator;
+                        this.coefficients[oldTopic] =
+                            (a + docTopicCounts[oldTopic]) / denominator;
+                        if (docTopicCounts[oldTopic] == 0)
+                        {
+                            this.removeDocumentTopic(oldTopic);
+                        }
+
+                        // Compute the topic-term bucket over the topics of
+                        // the term. Each count is the shared count from the
+                        // start of the iteration plus the block's changes,
+                        // which includes this occurrence in its old topic.
+                        // The topics the block has moved the term into are
+                        // added after the shared ones.
+                        double termBucket = 0.0;
+                        int termBucketSize = 0;
+                        for (int j = 0; j < termTopicSize; j++)
+                        {
+                            final int topic = topics[j];
+                            int termTopicCount = topicTermCount[topic][term]
+                                + this.termDeltas[topic];
+                            if (topic == oldTopic)
+                            {
+                                termTopicCount--;
+                            }
+                            final double p =
+                                this.coefficients[topic] * termTopicCount;
+                            this.termBucketTopics[termBucketSize] = topic;
+                            this.termTopicProportions[termBucketSize] = p;
+                            termBucketSize++;
+                            termBucket += p;
+                        }
+                        final int[] moved = this.localTopics[term];
+                        final int movedSize = this.localTopicSizes[term];
+                        for (int j = 0; j < movedSize; j++)
+                        {
+                            final int topic = moved[j];
+                            int termTopicCount = this.termDeltas[topic];
+                            if (topic == oldTopic)
+                            {
+                                termTopicCount--;
+                            }
+                            if (termTopicCount > 0
+                                && topicTermCount[topic][term] == 0)
+                            {
+                                final double p =
+                                    this.coefficients[topic] * termTopicCount;
+                                this.termBucketTopics[termBucketSize] = topic;
+                                this.termTopicProportions[termBucketSize] = p;
+                                termBucketSize++;
+                                termBucket += p;
+                            }
+                        }
+
+                        // Sample the new topic from the three buckets.
+                        final int newTopic = this.sampleTopic(
+                            smoothing, documentBucket, termBucket,
+                            this.termBucketTopics, termBucketSize,
+                            docTopicCounts, betaSum);
+
+                        // Add the new topic assignment to the buckets.
+                        denominator = betaSum + this.topicSums[newTopic];
+                        smoothing -= a * b / denominator;
+                        documentBucket -=
+                            docTopicCounts[newTopic] * b / denominator;
+                        docTopicCounts[newTopic]++;
+                        documentTopicSum[document]++;
+                        this.topicSums[newTopic]++;
+                        denominator = betaSum + this.topicSums[newTopic];
+                        smoothing += a * b / denominator;
+                        documentBucket +=
+                            docTopicCounts[newTopic] * b / denominator;
+                        this.coefficients[newTopic] =
+                            (a + docTopicCounts[newTopic]) / denominator;
+                        if (docTopicCounts[newTopic] == 1)
+                        {
+                            this.addDocumentTopic(newTopic);
+                        }
+
+                        occurrenceTopicAssignments[occurrence] = newTopic;
+                        if (newTopic != oldTopic)
+                        {
+                            this.addTermDelta(term, oldTopic, -1);
+                            this.addTermDelta(term, newTopic, 1);
+                        }
+                        occurrence++;
+                    }
+                    this.storeTermDeltas(term);
+                }
+
+                // Reset the coefficients of the document's topics and clear
+                // its topic list.
+                for (int i = 0; i < this.documentTopicSize; i++)
+                {
+                    final int topic = this.documentTopics[i];
+                    this.coefficients[topic] =
+                        a / (betaSum + this.topicSums[topic]);
+                    this.documentTopicPositions[topic] = -1;
+                }
+                this.documentTopicSize = 0;
+            }
+
+            return true;
+        }
+
+        /**
+         * Samples a topic from the three buckets of the SparseLDA
+         * decomposition.
+         *
+         * @param   smoothing
+         *      The total of the smoothing bucket.
+         * @param   documentBucket
+         *      The total of the document-topic bucket.
+         * @param   termBucket
+         *      The total of the topic-term bucket.
+         * @param   topics
+         *      The topics of the term.
+         * @param   termTopicSize
+         *      The number of topics of the term.
+         * @param   docTopicCounts
+         *      The topic counts of the document.
+         * @param   betaSum
+         *      The number of terms times beta.
+         * @return
+         *      The sampled topic.
+         */
+        protected int sampleTopic(
+            final double smoothing,
+            final double documentBucket,
+            final double termBucket,
+            final int[] topics,
+            final int termTopicSize,
+            final int[] docTopicCounts,
+            final double betaSum)
+        {
+            double u = this.random.nextDouble()
+                * (smoothing + documentBucket + termBucket);
+            int lastTopic = -1;
+            if (u < termBucket)
+            {
+                // This is the most likely case, so it is checked first.
+                for (int j = 0; j < termTopicSize; j++)
+                {
+                    final double p = this.termTopicProportions[j];
+                    if (p > 0.0)
+                    {
+                        lastTopic = topics[j];
+                        u -= p;
+                        if (u <= 0.0)
+                        {
+                            return lastTopic;
+                        }
+                    }
+                }
+                return lastTopic;
+            }
+
+            u -= termBucket;
+            if (u < documentBucket)
+            {
+                for (int i = 0; i < this.documentTopicSize; i++)
+                {
+                    lastTopic = this.documentTopics[i];
+                    u -= docTopicCounts[lastTopic] * beta
+                        / (betaSum + this.topicSums[lastTopic]);
+                    if (u <= 0.0)
+                    {
+                        return lastTopic;
+                    }
+                }
+                if (lastTopic >= 0)
+                {
+                    return lastTopic;
+                }
+            }
+            else
+            {
+                u -= documentBucket;
+            }
+
+            // The smoothing bucket requires looking at every topic, but it is
+            // rarely selected.
+            final double alphaBeta = alpha * beta;
+            for (int topic = 0; topic < topicCount; topic++)
+            {
+                u -= alphaBeta / (betaSum + this.topicSums[topic]);
+                if (u <= 0.0)
+                {
+                    return topic;
+                }
+            }
+            return topicCount - 1;
+        }
+
+        /**
+         * Adds a topic to the list of topics in the current document.
+         *
+         * @param   topic
+         *      The topic to add.
+         */
+        protected void addDocumentTopic(
+            final int topic)
+        {
+            this.documentTopics[this.documentTopicSize] = topic;
+            this.documentTopicPositions[topic] = this.documentTopicSize;
+            this.documentTopicSize++;
+        }
+
+        /**
+         * Removes a topic from the list of topics in the current document.
+         *
+         * @param   topic
+         *      The topic to remove.
+         */
+        protected void removeDocumentTopic(
+            final int topic)
+        {
+            final int position = this.documentTopicPositions[topic];
+            final int last = this.documentTopicSize - 1;
+            final int lastTopic = this.documentTopics[last];
+            this.documentTopics[position] = lastTopic;
+            this.documentTopicPositions[lastTopic] = position;
+            this.documentTopicPositions[topic] = -1;
+            this.documentTopicSize = last;
+        }
+
+        /**
+         * Loads the block's changes to the topic counts of a term into
+         * termDeltas, so they can be looked up by topic.
+         *
+         * @param   term
+         *      The term.
+         */
+        protected void loadTermDeltas(
+            final int term)
+        {
+            final int size = this.localTopicSizes[term];
+            final int[] topics = this.localTopics[term];
+            final int[] deltas = this.localDeltas[term];
+            for (int i = 0; i < size; i++)
+            {
+                this.termDeltas[topics[i]] = deltas[i];
+                this.termDeltaPositions[topics[i]] = i;
+            }
+        }
+
+        /**
+         * Stores the block's changes to the topic counts of a term from
+         * termDeltas and clears termDeltas.
+         *
+         * @param   term
+         *      The term.
+         */
+        protected void storeTermDeltas(
+            final int term)
+        {
+            final int size = this.localTopicSizes[term];
+            final int[] topics = this.localTopics[term];
+            final int[] deltas = this.localDeltas[term];
+            for (int i = 0; i < size; i++)
+            {
+                deltas[i] = this.termDeltas[topics[i]];
+                this.termDeltas[topics[i]] = 0;
+                this.termDeltaPositions[topics[i]] = -1;
+            }
+        }
+
+        /**
+         * Adds to the block's change to the count of a topic for the current
+         * term, whose changes are loaded in termDeltas.
+         *
+         * @param   term
+         *      The term.
+         * @param   topic
+         *      The topic.
+         * @param   delta
+         *      The amount to add.
+         */
+        protected void addTermDelta(
+            final int term,
+            final int topic,
+            final int delta)
+        {
+            if (this.termDeltaPositions[topic] < 0)
+            {
+                int[] topics = this.localTopics[term];
+                final int size = this.localTopicSizes[term];
+                if (topics == null)
+                {
+                    topics = new int[4];
+                    this.localTopics[term] = topics;
+                    this.localDeltas[term] = new int[4];
+                }
+                else if (size >= topics.length)
+                {
+                    final int length = Math.min(topicCount, 2 * topics.length);
+                    topics = Arrays.copyOf(topics, length);
+                    this.localTopics[term] = topics;
+                    this.localDeltas[term] = Arrays.copyOf(
+                        this.localDeltas[term], length);
+                }
+                if (size == 0)
+                {
+                    if (this.changedTermCount >= this.changedTerms.length)
+                    {
+                        this.changedTerms = Arrays.copyOf(this.changedTerms,
+                            Math.min(termCount, 2 * this.changedTerms.length));
+                    }
+                    this.changedTerms[this.changedTermCount] = term;
+                    this.changedTermCount++;
+                }
+                topics[size] = topic;
+                this.termDeltaPositions[topic] = size;
+                this.localTopicSizes[term] = size + 1;
+            }
+            this.termDeltas[topic] += delta;
+        }
+
+        /**
+         * Adds the block's changes in the last iteration to the shared
+         * topic-term counts and clears them. This must not be called while
+         * any block is sampling.
+         */
+        protected void mergeChanges()
+        {
+            for (int i = 0; i < this.changedTermCount; i++)
+            {
+                final int term = this.changedTerms[i];
+                final int size = this.localTopicSizes[term];
+                final int[] topics = this.localTopics[term];
+                final int[] deltas = this.localDeltas[term];
+                for (int j = 0; j < size; j++)
+                {
+                    addTopicTerm(term, topics[j], deltas[j]);
+                }
+                this.localTopicSizes[term] = 0;
+            }
+            this.changedTermCount = 0;
+        }
+
+    }
+
+}
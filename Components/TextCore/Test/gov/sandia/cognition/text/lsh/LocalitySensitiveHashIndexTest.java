@@ -0,0 +1,285 @@
+/*
+ * File:                LocalitySensitiveHashIndexTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.lsh;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.Vectorizable;
+import gov.sandia.cognition.text.term.Term;
+import gov.sandia.cognition.text.term.Termable;
+import gov.sandia.cognition.util.DefaultWeightedValue;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class LocalitySensitiveHashIndex.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class LocalitySensitiveHashIndexTest
+{
+
+    /**
+     * Creates a new test.
+     */
+    public LocalitySensitiveHashIndexTest()
+    {
+    }
+
+    /**
+     * Measures the recall of an index: the fraction of the pairs of items
+     * with an exact similarity of at least the threshold that are
+     * candidates of each other.
+     *
+     * @param   <InputType>
+     *      The type of input.
+     * @param   index
+     *      The index.
+     * @param   inputs
+     *      The inputs in the index.
+     * @param   threshold
+     *      The similarity threshold.
+     * @return
+     *      The recall, or NaN if no pairs are that similar.
+     */
+    protected static <InputType> double computeRecall(
+        final LocalitySensitiveHashIndex<Integer, InputType> index,
+        final Map<Integer, InputType> inputs,
+        final double threshold)
+    {
+        int similar = 0;
+        int found = 0;
+        for (int i = 0; i < inputs.size(); i++)
+        {
+            for (int j = i + 1; j < inputs.size(); j++)
+            {
+                if (index.getHash().computeSimilarity(inputs.get(i),
+                    inputs.get(j)) >= threshold)
+                {
+                    similar++;
+                    if (index.getCandidates(index.getSignature(i)).contains(j))
+                    {
+                        found++;
+                    }
+                }
+            }
+        }
+        return (double) found / similar;
+    }
+
+    /**
+     * Test of batch and incremental building with MinHash.
+     */
+    @Test
+    public void testMinHash()
+    {
+        final Random random = new Random(17);
+        final Map<Integer, Iterable<? extends Termable>> documents =
+            new LinkedHashMap<Integer, Iterable<? extends Termable>>();
+        for (int i = 0; i < 100; i++)
+        {
+            final List<Term> document =
+                MinHashTest.createDocument(random, 80, 1000);
+            documents.put(2 * i, document);
+            documents.put(2 * i + 1,
+                MinHashTest.mutate(random, document, 2 + random.nextInt(4),
+                1000));
+        }
+
+        final LocalitySensitiveHashIndex<Integer, Iterable<? extends Termable>>
+            batch = new LocalitySensitiveHashIndex<Integer,
+                Iterable<? extends Termable>>(new MinHash());
+        batch.setThreadPool(ParallelUtil.createThreadPool(4));
+        batch.addAll(documents);
+        assertEquals(documents.size(), batch.size());
+
+        final LocalitySensitiveHashIndex<Integer, Iterable<? extends Termable>>
+            incremental = new LocalitySensitiveHashIndex<Integer,
+                Iterable<? extends Termable>>(new MinHash());
+        for (Map.Entry<Integer, Iterable<? extends Termable>> entry
+            : documents.entrySet())
+        {
+            incremental.add(entry.getKey(), entry.getValue());
+        }
+        assertEquals(batch.getKeys(), incremental.getKeys());
+        assertEquals(batch.getBucketCount(), incremental.getBucketCount());
+        for (int key : documents.keySet())
+        {
+            assertArrayEquals(batch.getSignature(key),
+                incremental.getSignature(key));
+            assertEquals(batch.getCandidates(batch.getSignature(key)),
+                incremental.getCandidates(incremental.getSignature(key)));
+        }
+
+        assertTrue(computeRecall(batch, documents, 0.7) >= 0.95);
+
+        // The near-duplicate is the most similar to each original.
+        for (int i = 0; i < 100; i++)
+        {
+            final List<DefaultWeightedValue<Integer>> similar =
+                batch.findSimilar(documents.get(2 * i), 0.5);
+            assertEquals(2 * i, (int) similar.get(0).getValue());
+            assertEquals(1.0, similar.get(0).getWeight(), 0.0);
+            assertEquals(2 * i + 1, (int) similar.get(1).getValue());
+
+            // The exact similarity looks the inputs up by key.
+            final List<DefaultWeightedValue<Integer>> exact =
+                batch.findSimilarExact(documents.get(2 * i), 0.5,
+                    documents::get);
+            assertEquals(2 * i, (int) exact.get(0).getValue());
+            assertEquals(1.0, exact.get(0).getWeight(), 0.0);
+            assertEquals(2 * i + 1, (int) exact.get(1).getValue());
+            assertEquals(batch.getHash().computeSimilarity(
+                documents.get(2 * i), documents.get(2 * i + 1)),
+                exact.get(1).getWeight(), 0.0);
+            for (int j = 1; j < exact.size(); j++)
+            {
+                assertTrue(exact.get(j).getWeight() >= 0.5);
+                assertTrue(exact.get(j).getWeight()
+                    <= exact.get(j - 1).getWeight());
+            }
+        }
+        assertTrue(batch.findSimilarExact(documents.get(0), 0.5,
+            key -> null).isEmpty());
+
+        // Removing and replacing items.
+        final LocalitySensitiveHashIndex<Integer, Iterable<? extends Termable>>
+            clone = batch.clone();
+        assertTrue(batch.remove(1));
+        assertFalse(batch.remove(1));
+        assertNull(batch.getSignature(1));
+        assertFalse(batch.getCandidates(documents.get(0)).contains(1));
+        assertTrue(clone.getCandidates(documents.get(0)).contains(1));
+        batch.add(0, documents.get(2));
+        assertFalse(batch.getCandidates(documents.get(0)).contains(0));
+        assertTrue(batch.getCandidates(documents.get(2)).contains(0));
+    }
+
+    /**
+     * Test of building with SimHash.
+     */
+    @Test
+    public void testSimHash()
+    {
+        final Random random = new Random(23);
+        final Map<Integer, Vectorizable> vectors =
+            new LinkedHashMap<Integer, Vectorizable>();
+        for (int i = 0; i < 100; i++)
+        {
+            final Vector vector = SimHashTest.createVector(random, 5000, 200);
+            vectors.put(2 * i, vector);
+            vectors.put(2 * i + 1,
+                SimHashTest.mutate(random, vector, random.nextInt(10)));
+        }
+
+        final LocalitySensitiveHashIndex<Integer, Vectorizable> index =
+            new LocalitySensitiveHashIndex<Integer, Vectorizable>(
+                new SimHash(64, 8, 0L));
+        index.setThreadPool(ParallelUtil.createThreadPool(3));
+        index.addAll(vectors);
+        assertEquals(vectors.size(), index.size());
+        assertTrue(computeRecall(index, vectors, 0.95) >= 0.95);
+
+        // Few dissimilar items share a band of 8 bits.
+        int candidates = 0;
+        for (int key : vectors.keySet())
+        {
+            candidates += index.getCandidates(vectors.get(key)).size();
+        }
+        assertTrue(candidates < 20 * vectors.size());
+    }
+
+    /**
+     * Test that removing items removes their emptied buckets, including when
+     * items are added and removed from many threads at once.
+     */
+    @Test
+    public void testRemoveBuckets()
+        throws Exception
+    {
+        final Random random = new Random(29);
+        final Map<Integer, Iterable<? extends Termable>> documents =
+            new LinkedHashMap<Integer, Iterable<? extends Termable>>();
+        for (int i = 0; i < 200; i++)
+        {
+            documents.put(i, MinHashTest.createDocument(random, 40, 500));
+        }
+
+        final LocalitySensitiveHashIndex<Integer, Iterable<? extends Termable>>
+            index = new LocalitySensitiveHashIndex<Integer,
+                Iterable<? extends Termable>>(new MinHash());
+        index.setThreadPool(ParallelUtil.createThreadPool(4));
+        index.addAll(documents);
+        assertTrue(index.getBucketCount() > 0);
+        for (int key : documents.keySet())
+        {
+            assertTrue(index.remove(key));
+        }
+        assertEquals(0, index.size());
+        assertEquals(0, index.getBucketCount());
+
+        // Churn: each thread repeatedly adds and removes its own items.
+        final ArrayList<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int t = 0; t < 4; t++)
+        {
+            final int first = t * 50;
+            tasks.add(() ->
+            {
+                for (int round = 0; round < 20; round++)
+                {
+                    for (int key = first; key < first + 50; key++)
+                    {
+                        index.add(key, documents.get(key));
+                    }
+                    for (int key = first; key < first + 50; key++)
+                    {
+                        if ((key + round) % 3 != 0)
+                        {
+                            index.remove(key);
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        ParallelUtil.executeInParallel(tasks, index.getThreadPool());
+
+        // Only the buckets of the remaining items are left, and each of them
+        // can still be found.
+        final Set<Long> bandKeys = new HashSet<Long>();
+        for (int key : index.getKeys())
+        {
+            assertEquals(0, (key + 19) % 3);
+            for (long bandKey : index.getHash().computeBandKeys(
+                index.getSignature(key)))
+            {
+                bandKeys.add(bandKey);
+            }
+            assertTrue(index.getCandidates(documents.get(key)).contains(key));
+        }
+        assertEquals(66, index.size());
+        assertEquals(bandKeys.size(), index.getBucketCount());
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * File:                MinHashTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.lsh;
+
+import gov.sandia.cognition.text.term.DefaultTerm;
+import gov.sandia.cognition.text.term.Term;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class MinHash.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class MinHashTest
+{
+
+    /**
+     * Creates a new test.
+     */
+    public MinHashTest()
+    {
+    }
+
+    /**
+     * Creates a random document.
+     *
+     * @param   random
+     *      The random number generator.
+     * @param   length
+     *      The number of terms.
+     * @param   vocabularySize
+     *      The number of distinct words.
+     * @return
+     *      The terms of the document.
+     */
+    public static List<Term> createDocument(
+        final Random random,
+        final int length,
+        final int vocabularySize)
+    {
+        final List<Term> result = new ArrayList<Term>(length);
+        for (int i = 0; i < length; i++)
+        {
+            result.add(new DefaultTerm("w" + random.nextInt(vocabularySize)));
+        }
+        return result;
+    }
+
+    /**
+     * Creates a near-duplicate of a document by replacing some of its terms.
+     *
+     * @param   random
+     *      The random number generator.
+     * @param   document
+     *      The document.
+     * @param   changes
+     *      The number of terms to replace.
+     * @param   vocabularySize
+     *      The number of distinct words.
+     * @return
+     *      The near-duplicate.
+     */
+    public static List<Term> mutate(
+        final Random random,
+        final List<Term> document,
+        final int changes,
+        final int vocabularySize)
+    {
+        final List<Term> result = new ArrayList<Term>(document);
+        for (int i = 0; i < changes; i++)
+        {
+            result.set(random.nextInt(result.size()),
+                new DefaultTerm("w" + random.nextInt(vocabularySize)));
+        }
+        return result;
+    }
+
+    /**
+     * Test of constructors of class MinHash.
+     */
+    @Test
+    public void testConstructors()
+    {
+        MinHash instance = new MinHash();
+        assertEquals(MinHash.DEFAULT_HASH_COUNT, instance.getHashCount());
+        assertEquals(MinHash.DEFAULT_BAND_COUNT, instance.getBandCount());
+        assertEquals(MinHash.DEFAULT_SHINGLE_SIZE, instance.getShingleSize());
+        assertEquals(0L, instance.getSeed());
+
+        instance = new MinHash(20, 5, 2, 7L);
+        assertEquals(20, instance.getHashCount());
+        assertEquals(5, instance.getBandCount());
+        assertEquals(2, instance.getShingleSize());
+        assertEquals(7L, instance.getSeed());
+
+        try
+        {
+            new MinHash(4, 5, 2, 7L);
+            fail("Must have at least as many hashes as bands.");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+    }
+
+    /**
+     * Test of evaluate and computeShingles.
+     */
+    @Test
+    public void testEvaluate()
+    {
+        final MinHash instance = new MinHash(64, 16, 2, 3L);
+        final List<Term> document = Arrays.<Term>asList(new DefaultTerm("a"),
+            new DefaultTerm("b"), new DefaultTerm("c"), new DefaultTerm("a"),
+            new DefaultTerm("b"));
+
+        // The shingles are "a b", "b c", "c a", and "a b" again.
+        assertEquals(3, instance.computeShingles(document).length);
+        final long[] signature = instance.evaluate(document);
+        assertEquals(64, signature.length);
+        assertArrayEquals(signature, instance.clone().evaluate(document));
+        assertArrayEquals(signature, instance.evaluate(
+            new ArrayList<Term>(document)));
+        assertEquals(16, instance.computeBandKeys(signature).length);
+
+        // Order matters within a shingle.
+        final List<Term> reversed = new ArrayList<Term>(document);
+        Collections.reverse(reversed);
+        assertTrue(instance.estimateSimilarity(signature,
+            instance.evaluate(reversed)) < 1.0);
+
+        // A document shorter than a shingle is still hashed.
+        final List<Term> single =
+            Collections.<Term>singletonList(new DefaultTerm("a"));
+        assertEquals(1, instance.computeShingles(single).length);
+        assertEquals(1.0, instance.estimateSimilarity(
+            instance.evaluate(single), instance.evaluate(single)), 0.0);
+        assertEquals(0, instance.computeShingles(
+            Collections.<Term>emptyList()).length);
+        assertEquals(1.0, instance.computeSimilarity(
+            Collections.<Term>emptyList(), Collections.<Term>emptyList()),
+            0.0);
+
+        // A different seed gives a different signature.
+        assertFalse(Arrays.equals(signature,
+            new MinHash(64, 16, 2, 4L).evaluate(document)));
+    }
+
+    /**
+     * Test of estimateSimilarity against the exact Jaccard similarity.
+     */
+    @Test
+    public void testEstimateSimilarity()
+    {
+        final Random random = new Random(11);
+        final MinHash instance = new MinHash(256, 64, 3, 0L);
+        double totalError = 0.0;
+        final int trials = 50;
+        for (int i = 0; i < trials; i++)
+        {
+            final List<Term> document = createDocument(random, 100, 500);
+            final List<Term> other = mutate(random, document,
+                random.nextInt(40), 500);
+            final double exact = instance.computeSimilarity(document, other);
+            final double estimate = instance.estimateSimilarity(
+                instance.evaluate(document), instance.evaluate(other));
+            assertEquals(exact, estimate, 0.15);
+            totalError += Math.abs(exact - estimate);
+        }
+        assertTrue(totalError / trials < 0.05);
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * File:                SimHashTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.lsh;
+
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class SimHash.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class SimHashTest
+{
+
+    /**
+     * Creates a new test.
+     */
+    public SimHashTest()
+    {
+    }
+
+    /**
+     * Creates a random sparse term vector.
+     *
+     * @param   random
+     *      The random number generator.
+     * @param   dimensionality
+     *      The number of terms.
+     * @param   length
+     *      The number of term occurrences.
+     * @return
+     *      The vector.
+     */
+    public static Vector createVector(
+        final Random random,
+        final int dimensionality,
+        final int length)
+    {
+        final Vector result =
+            VectorFactory.getSparseDefault().createVector(dimensionality);
+        for (int i = 0; i < length; i++)
+        {
+            result.increment(random.nextInt(dimensionality), 1.0);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a noisy copy of a vector.
+     *
+     * @param   random
+     *      The random number generator.
+     * @param   vector
+     *      The vector.
+     * @param   changes
+     *      The number of term occurrences to add.
+     * @return
+     *      The noisy copy.
+     */
+    public static Vector mutate(
+        final Random random,
+        final Vector vector,
+        final int changes)
+    {
+        final Vector result = vector.clone();
+        for (int i = 0; i < changes; i++)
+        {
+            result.increment(random.nextInt(result.getDimensionality()), 1.0);
+        }
+        return result;
+    }
+
+    /**
+     * Test of constructors of class SimHash.
+     */
+    @Test
+    public void testConstructors()
+    {
+        SimHash instance = new SimHash();
+        assertEquals(SimHash.DEFAULT_BIT_COUNT, instance.getBitCount());
+        assertEquals(SimHash.DEFAULT_BAND_COUNT, instance.getBandCount());
+
+        instance = new SimHash(128, 8, 5L);
+        assertEquals(128, instance.getBitCount());
+        assertEquals(8, instance.getBandCount());
+        assertEquals(5L, instance.getSeed());
+
+        try
+        {
+            new SimHash(100, 4, 0L);
+            fail("bitCount must be a multiple of 64.");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+    }
+
+    /**
+     * Test of evaluate and computeBandKeys.
+     */
+    @Test
+    public void testEvaluate()
+    {
+        final Random random = new Random(2);
+        final SimHash instance = new SimHash(128, 4, 0L);
+        final Vector vector = createVector(random, 1000, 50);
+        final long[] fingerprint = instance.evaluate(vector);
+        assertEquals(2, fingerprint.length);
+        assertArrayEquals(fingerprint, instance.clone().evaluate(vector));
+        assertArrayEquals(fingerprint, instance.evaluate(vector.scale(3.0)));
+        assertEquals(0, instance.computeHammingDistance(fingerprint,
+            instance.evaluate(vector.scale(3.0))));
+
+        // The negation flips every bit that does not have a sum of zero.
+        assertTrue(instance.computeHammingDistance(fingerprint,
+            instance.evaluate(vector.scale(-1.0))) > 100);
+
+        // Fingerprints that differ in one bit share all but one band.
+        final long[] flipped = fingerprint.clone();
+        flipped[1] ^= 1L << 40;
+        final long[] keys = instance.computeBandKeys(fingerprint);
+        final long[] flippedKeys = instance.computeBandKeys(flipped);
+        int same = 0;
+        for (int i = 0; i < keys.length; i++)
+        {
+            same += keys[i] == flippedKeys[i] ? 1 : 0;
+        }
+        assertEquals(3, same);
+    }
+
+    /**
+     * Test of estimateSimilarity against the exact cosine similarity.
+     */
+    @Test
+    public void testEstimateSimilarity()
+    {
+        final Random random = new Random(9);
+        final SimHash instance = new SimHash(512, 8, 0L);
+        double totalError = 0.0;
+        final int trials = 50;
+        for (int i = 0; i < trials; i++)
+        {
+            final Vector vector = createVector(random, 2000, 100);
+            final Vector other = mutate(random, vector, random.nextInt(200));
+            final double exact = instance.computeSimilarity(vector, other);
+            final double estimate = instance.estimateSimilarity(
+                instance.evaluate(vector), instance.evaluate(other));
+            assertEquals(exact, estimate, 0.15);
+            totalError += Math.abs(exact - estimate);
+        }
+        assertTrue(totalError / trials < 0.05);
+    }
+
+}
@@ -0,0 +1,340 @@
+/*
+ * File:                ParallelTextPipelineTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.pipeline;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.text.DefaultTextual;
+import gov.sandia.cognition.text.Textual;
+import gov.sandia.cognition.text.term.DefaultTermIndex;
+import gov.sandia.cognition.text.term.TermOccurrence;
+import gov.sandia.cognition.text.term.filter.DefaultStopList;
+import gov.sandia.cognition.text.term.filter.LowerCaseTermFilter;
+import gov.sandia.cognition.text.term.filter.StopListFilter;
+import gov.sandia.cognition.text.term.filter.stem.PorterEnglishStemmingFilter;
+import gov.sandia.cognition.text.term.vector.BagOfWordsTransform;
+import gov.sandia.cognition.text.term.vector.weighter.CommonTermWeighterFactory;
+import gov.sandia.cognition.text.term.vector.weighter.CompositeLocalGlobalTermWeighter;
+import gov.sandia.cognition.text.token.LetterNumberTokenizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class ParallelTextPipeline.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class ParallelTextPipelineTest
+{
+
+    /** Words to build documents from. */
+    protected static final String[] WORDS = {
+        "The", "a", "Running", "runs", "ran", "dog", "Dogs", "cat", "and",
+        "of", "Walking", "walked", "talks", "42", "Foundry", "learning" };
+
+    /**
+     * Creates a new test.
+     */
+    public ParallelTextPipelineTest()
+    {
+    }
+
+    /**
+     * Creates random documents.
+     *
+     * @param   random
+     *      The random number generator.
+     * @param   count
+     *      The number of documents.
+     * @return
+     *      The documents.
+     */
+    protected static List<Textual> createDocuments(
+        final Random random,
+        final int count)
+    {
+        final List<Textual> result = new ArrayList<Textual>();
+        for (int i = 0; i < count; i++)
+        {
+            final StringBuilder text = new StringBuilder();
+            final int length = random.nextInt(30);
+            for (int j = 0; j < length; j++)
+            {
+                text.append(WORDS[random.nextInt(WORDS.length)]).append(
+                    random.nextBoolean() ? " " : ", ");
+            }
+            result.add(new DefaultTextual(text.toString()));
+        }
+        return result;
+    }
+
+    /**
+     * Test of the full text stack against running it serially.
+     */
+    @Test
+    public void testTextStack()
+    {
+        final List<Textual> documents = createDocuments(new Random(1), 2000);
+        final LetterNumberTokenizer tokenizer = new LetterNumberTokenizer();
+        final LowerCaseTermFilter lowerCase = new LowerCaseTermFilter();
+        final DefaultStopList words = new DefaultStopList();
+        words.addAll(Arrays.asList("the", "a", "and", "of"));
+        final StopListFilter stopList = new StopListFilter(words);
+        final PorterEnglishStemmingFilter stemmer =
+            new PorterEnglishStemmingFilter();
+
+        // The serial path: index every document, then count, then weight.
+        final DefaultTermIndex serialIndex = new DefaultTermIndex();
+        final List<Iterable<TermOccurrence>> serialTerms =
+            new ArrayList<Iterable<TermOccurrence>>();
+        for (Textual document : documents)
+        {
+            final Iterable<TermOccurrence> terms = stemmer.filterTerms(
+                stopList.filterTerms(lowerCase.filterTerms(
+                    tokenizer.tokenize(document))));
+            serialIndex.addAll(terms);
+            serialTerms.add(terms);
+        }
+        final BagOfWordsTransform serialBagOfWords =
+            new BagOfWordsTransform(serialIndex);
+        final CompositeLocalGlobalTermWeighter serialWeighter =
+            CommonTermWeighterFactory.createTFIDFWeighter();
+        final List<Vector> serialCounts = new ArrayList<Vector>();
+        for (Iterable<TermOccurrence> terms : serialTerms)
+        {
+            final Vector counts = serialBagOfWords.convertToVector(terms);
+            serialWeighter.getGlobalWeighter().add(counts);
+            serialCounts.add(counts);
+        }
+        final List<Vector> serialWeights = new ArrayList<Vector>();
+        for (Vector counts : serialCounts)
+        {
+            serialWeights.add(serialWeighter.evaluate(counts));
+        }
+
+        for (int numThreads : new int[] { 1, 4 })
+        {
+            final DefaultTermIndex index = new DefaultTermIndex();
+            final ParallelTextPipeline<Textual, Iterable<TermOccurrence>>
+                indexing = ParallelTextPipeline.<Textual>create()
+                .then("tokenize",
+                    (Textual document) -> tokenizer.tokenize(document))
+                .then("lowercase", lowerCase::filterTerms)
+                .then("stoplist", stopList::filterTerms)
+                .then("stem", stemmer::filterTerms)
+                .thenSerial("index", terms ->
+                {
+                    index.addAll(terms);
+                    return terms;
+                });
+            indexing.setThreadPool(ParallelUtil.createThreadPool(numThreads));
+            indexing.setMaximumInFlight(16);
+            final List<Iterable<TermOccurrence>> terms =
+                indexing.evaluateAll(documents);
+
+            assertEquals(documents.size(), indexing.getInputCount());
+            assertEquals(documents.size(), indexing.getOutputCount());
+            assertEquals(5, indexing.getStages().size());
+            for (PipelineStage<?, ?> stage : indexing.getStages())
+            {
+                assertEquals(documents.size(), stage.getItemCount());
+                assertTrue(stage.getAverageLatency() >= 0.0);
+                assertTrue(stage.getMaximumLatency()
+                    >= stage.getAverageLatency());
+            }
+            assertTrue(indexing.getStages().get(4).isSerial());
+            assertFalse(indexing.getStages().get(0).isSerial());
+            assertEquals(serialIndex.getTermCount(), index.getTermCount());
+            for (int i = 0; i < index.getTermCount(); i++)
+            {
+                assertEquals(serialIndex.getTerm(i), index.getTerm(i));
+            }
+
+            // Count in parallel, but add to the global weights in order.
+            final BagOfWordsTransform bagOfWords =
+                new BagOfWordsTransform(index);
+            final CompositeLocalGlobalTermWeighter weighter =
+                CommonTermWeighterFactory.createTFIDFWeighter();
+            final ParallelTextPipeline<Iterable<TermOccurrence>, Vector>
+                counting = ParallelTextPipeline
+                .<Iterable<TermOccurrence>>create()
+                .then("count", bagOfWords::convertToVector)
+                .thenSerial("global", counts ->
+                {
+                    weighter.getGlobalWeighter().add(counts);
+                    return counts;
+                });
+            counting.setThreadPool(indexing.getThreadPool());
+            final List<Vector> counts = counting.evaluateAll(terms);
+            assertEquals(serialCounts, counts);
+
+            // The global weights are fixed now, so weighting is parallel.
+            weighter.getGlobalWeighter().getGlobalWeights();
+            final ParallelTextPipeline<Vector, Vector> weighting =
+                ParallelTextPipeline.<Vector>create()
+                .then("weight", weighter::evaluate);
+            weighting.setThreadPool(indexing.getThreadPool());
+            assertEquals(serialWeights, weighting.evaluateAll(counts));
+
+            indexing.resetStatistics();
+            assertEquals(0, indexing.getStages().get(0).getItemCount());
+        }
+    }
+
+    /**
+     * Test of unordered output, dropping items, and backpressure.
+     */
+    @Test
+    public void testUnorderedAndDropped()
+    {
+        final List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < 5000; i++)
+        {
+            input.add(i);
+        }
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maximumActive = new AtomicInteger();
+        final List<Integer> serialOrder = new ArrayList<Integer>();
+        final ParallelTextPipeline<Integer, Integer> pipeline =
+            ParallelTextPipeline.<Integer>create()
+            .then("enter", (Integer i) ->
+            {
+                maximumActive.accumulateAndGet(active.incrementAndGet(),
+                    Math::max);
+                return i;
+            })
+            .then("drop odd", (Integer i) -> i % 2 == 0 ? i : null)
+            .thenSerial("record", (Integer i) ->
+            {
+                serialOrder.add(i);
+                return i * 10;
+            });
+        pipeline.setThreadPool(ParallelUtil.createThreadPool(4));
+        pipeline.setOrdered(false);
+        pipeline.setMaximumInFlight(8);
+
+        final List<Integer> result = new ArrayList<Integer>();
+        pipeline.process(input, i ->
+        {
+            active.decrementAndGet();
+            result.add(i);
+        });
+
+        final HashSet<Integer> expected = new HashSet<Integer>();
+        for (int i = 0; i < input.size(); i += 2)
+        {
+            expected.add(i * 10);
+        }
+        assertEquals(expected, new HashSet<Integer>(result));
+        assertEquals(expected.size(), result.size());
+        assertEquals(input.size() / 2, pipeline.getOutputCount());
+
+        // The serial stage still sees the items in order.
+        final List<Integer> sorted = new ArrayList<Integer>(serialOrder);
+        Collections.sort(sorted);
+        assertEquals(sorted, serialOrder);
+
+        // Backpressure: odd items leave early, but no more than the maximum
+        // are ever in flight.
+        assertTrue(maximumActive.get() <= 8 + input.size() / 2);
+    }
+
+    /**
+     * Test of a failing stage.
+     */
+    @Test
+    public void testFailure()
+    {
+        final List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++)
+        {
+            input.add(i);
+        }
+        final ParallelTextPipeline<Integer, Integer> pipeline =
+            ParallelTextPipeline.<Integer>create()
+            .then("fail", (Integer i) ->
+            {
+                if (i == 100)
+                {
+                    throw new IllegalStateException("bad item");
+                }
+                return i;
+            })
+            .thenSerial("identity", (Integer i) -> i);
+        pipeline.setThreadPool(ParallelUtil.createThreadPool(3));
+        try
+        {
+            pipeline.evaluateAll(input);
+            fail("Expected an exception.");
+        }
+        catch (IllegalStateException e)
+        {
+            assertEquals("bad item", e.getMessage());
+        }
+
+        try
+        {
+            pipeline.setMaximumInFlight(0);
+            fail("Expected an exception.");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+    }
+
+    /**
+     * Test that interrupting the thread feeding the input stops the pipeline
+     * and keeps the thread's interrupt status.
+     */
+    @Test
+    public void testInterrupted()
+    {
+        final List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++)
+        {
+            input.add(i);
+        }
+        final ParallelTextPipeline<Integer, Integer> pipeline =
+            ParallelTextPipeline.<Integer>create()
+            .then("identity", (Integer i) -> i);
+        pipeline.setThreadPool(ParallelUtil.createThreadPool(2));
+
+        Thread.currentThread().interrupt();
+        try
+        {
+            pipeline.evaluateAll(input);
+            fail("Expected an exception.");
+        }
+        catch (RuntimeException e)
+        {
+            assertTrue(e.getCause() instanceof InterruptedException);
+        }
+        finally
+        {
+            // This also clears the interrupt for the other tests.
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * File:                SymmetricDeleteSpellingCorrectorTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.spelling;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.statistics.distribution.DefaultDataDistribution;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class SymmetricDeleteSpellingCorrector.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class SymmetricDeleteSpellingCorrectorTest
+{
+
+    /**
+     * Creates a new test.
+     */
+    public SymmetricDeleteSpellingCorrectorTest()
+    {
+    }
+
+    /**
+     * Applies a random edit to a word: a delete, transpose, replace, or
+     * insert of a lower-case letter.
+     *
+     * @param   random
+     *      The random number generator.
+     * @param   word
+     *      The word.
+     * @return
+     *      The edited word.
+     */
+    protected static String edit(
+        final Random random,
+        final String word)
+    {
+        final StringBuilder result = new StringBuilder(word);
+        final char c = (char) ('a' + random.nextInt(26));
+        final int kind = word.length() < 2 ? 3 : random.nextInt(4);
+        final int i = random.nextInt(word.length() + (kind == 3 ? 1 : 0));
+        switch (kind)
+        {
+            case 0:
+                result.deleteCharAt(i);
+                break;
+            case 1:
+                final int j = Math.min(i + 1, word.length() - 1);
+                result.setCharAt(i, word.charAt(j));
+                result.setCharAt(j, word.charAt(i));
+                break;
+            case 2:
+                result.setCharAt(i, c);
+                break;
+            default:
+                result.insert(i, c);
+                break;
+        }
+        return result.toString();
+    }
+
+    /**
+     * Test of constructors of class SymmetricDeleteSpellingCorrector.
+     */
+    @Test
+    public void testConstructors()
+    {
+        final DefaultDataDistribution<String> wordCounts =
+            new DefaultDataDistribution<String>();
+        wordCounts.increment("awesome", 2);
+        wordCounts.increment("Awesome");
+        wordCounts.increment("ok", 3);
+
+        SymmetricDeleteSpellingCorrector instance =
+            new SymmetricDeleteSpellingCorrector(wordCounts);
+        assertEquals(SymmetricDeleteSpellingCorrector.DEFAULT_MAXIMUM_EDIT_DISTANCE,
+            instance.getMaximumEditDistance());
+        assertEquals(2, instance.getWordCount());
+        assertEquals(3.0, instance.getCount("awesome"), 0.0);
+        assertEquals(3.0, instance.getCount("AWESOME"), 0.0);
+        assertEquals(3.0, instance.getCount("ok"), 0.0);
+        assertEquals(0.0, instance.getCount("awesom"), 0.0);
+        assertSame(instance.characters, instance.clone().characters);
+
+        instance = new SymmetricDeleteSpellingCorrector(wordCounts, 0);
+        assertEquals(0, instance.getMaximumEditDistance());
+        assertEquals(2, instance.getIndexSize());
+        assertEquals("awesome", instance.evaluate("Awesome"));
+        assertEquals("awesom", instance.evaluate("awesom"));
+
+        instance = new SymmetricDeleteSpellingCorrector(
+            new DefaultDataDistribution<String>());
+        assertEquals(0, instance.getWordCount());
+        assertEquals("word", instance.evaluate("word"));
+
+        try
+        {
+            new SymmetricDeleteSpellingCorrector(wordCounts, -1);
+            fail("maximumEditDistance cannot be negative");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+    }
+
+    /**
+     * Test of evaluate method, of class SymmetricDeleteSpellingCorrector.
+     */
+    @Test
+    public void testEvaluate()
+    {
+        final SimpleStatisticalSpellingCorrector simple =
+            new SimpleStatisticalSpellingCorrector();
+        simple.add("spelling", 10);
+        simple.add("spoiling", 9);
+        simple.add("corrected", 2);
+        simple.add("access");
+        simple.add("a");
+        final SymmetricDeleteSpellingCorrector instance =
+            new SymmetricDeleteSpellingCorrector(simple.getWordCounts());
+
+        assertEquals("spelling", instance.evaluate("spelling"));
+        assertEquals("spelling", instance.evaluate("speling"));
+        assertEquals("corrected", instance.evaluate("corrected"));
+        assertEquals("corrected", instance.evaluate("correcter"));
+        assertEquals("corrected", instance.evaluate("korrecter"));
+        assertEquals("access", instance.evaluate("access"));
+        assertEquals("access", instance.evaluate("acess"));
+        assertEquals("access", instance.evaluate("acesss"));
+        assertEquals("a", instance.evaluate("b"));
+
+        // Tests handling unknown words with no known edits:
+        assertEquals("wxyz", instance.evaluate("wxyz"));
+        assertEquals("wxyz", instance.evaluate("wXyZ"));
+
+        // Boundry cases.
+        assertEquals("", instance.evaluate(""));
+        assertEquals(null, instance.evaluate(null));
+    }
+
+    /**
+     * Test of evaluate against SimpleStatisticalSpellingCorrector on a random
+     * dictionary.
+     */
+    @Test
+    public void testEvaluateMatchesSimple()
+    {
+        final Random random = new Random(31);
+        final SimpleStatisticalSpellingCorrector simple =
+            new SimpleStatisticalSpellingCorrector();
+        final List<String> dictionary = new ArrayList<String>();
+        for (int i = 0; i < 2000; i++)
+        {
+            final int length = 2 + random.nextInt(8);
+            final StringBuilder word = new StringBuilder();
+            for (int j = 0; j < length; j++)
+            {
+                // A small alphabet makes many words close to each other.
+                word.append((char) ('a' + random.nextInt(8)));
+            }
+            dictionary.add(word.toString());
+            // Distinct counts avoid ties.
+            simple.add(word.toString(), 1 + i);
+        }
+
+        final SymmetricDeleteSpellingCorrector instance =
+            new SymmetricDeleteSpellingCorrector(simple.getWordCounts());
+        assertEquals(simple.getWordCounts().getDomain().size(),
+            instance.getWordCount());
+
+        final List<String> queries = new ArrayList<String>();
+        for (int i = 0; i < 500; i++)
+        {
+            String query = dictionary.get(random.nextInt(dictionary.size()));
+            final int edits = random.nextInt(4);
+            for (int j = 0; j < edits; j++)
+            {
+                query = edit(random, query);
+            }
+            queries.add(query);
+            assertEquals(query, simple.evaluate(query),
+                instance.evaluate(query));
+        }
+
+        // The batch gives the same answers.
+        instance.setThreadPool(ParallelUtil.createThreadPool(3));
+        final List<String> batch = instance.evaluateAll(queries);
+        assertEquals(queries.size(), batch.size());
+        for (int i = 0; i < queries.size(); i++)
+        {
+            assertEquals(instance.evaluate(queries.get(i)), batch.get(i));
+        }
+        assertEquals(Arrays.asList("", null),
+            instance.evaluateAll(Arrays.asList("", null)));
+    }
+
+}
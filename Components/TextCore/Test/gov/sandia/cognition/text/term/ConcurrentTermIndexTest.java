@@ -0,0 +1,233 @@
+/*
+ * File:                ConcurrentTermIndexTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.term;
+
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.text.term.vector.BagOfWordsTransform;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for classes ConcurrentTermIndex and FrozenTermIndex.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class ConcurrentTermIndexTest
+{
+
+    /**
+     * Creates a new test.
+     */
+    public ConcurrentTermIndexTest()
+    {
+    }
+
+    /**
+     * Test of adding terms from many threads at once.
+     *
+     * @throws  Exception
+     *      If a thread is interrupted.
+     */
+    @Test
+    public void testConcurrentAdd()
+        throws Exception
+    {
+        final int threadCount = 8;
+        final int termCount = 50000;
+        final ConcurrentTermIndex instance = new ConcurrentTermIndex(16);
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < threadCount; t++)
+        {
+            final int offset = t;
+            threads.add(new Thread(() ->
+            {
+                // Every thread adds every term once, in a different order.
+                for (int i = 0; i < termCount; i++)
+                {
+                    final int term = (i * 7919 + offset * 104729) % termCount;
+                    instance.addOccurrence("term" + term);
+                }
+            }));
+        }
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals(termCount, instance.getTermCount());
+        assertEquals((long) threadCount * termCount, instance.getTotalCount());
+        final HashSet<String> names = new HashSet<String>();
+        for (int i = 0; i < termCount; i++)
+        {
+            final String name = instance.getTermName(i);
+            assertTrue(names.add(name));
+            assertEquals(i, instance.getIndex(name));
+            assertEquals(i, instance.getIndex(new DefaultTerm(name)));
+            assertEquals(threadCount, instance.getCount(i));
+        }
+        assertEquals(-1, instance.getIndex("missing"));
+    }
+
+    /**
+     * Test of using it serially in place of a DefaultTermIndex.
+     */
+    @Test
+    public void testSerialLikeDefault()
+    {
+        final Random random = new Random(3);
+        final DefaultTermIndex expected = new DefaultTermIndex();
+        final ConcurrentTermIndex instance = new ConcurrentTermIndex();
+        final List<TermOccurrence> document = new ArrayList<TermOccurrence>();
+        for (int i = 0; i < 2000; i++)
+        {
+            final Term term = new DefaultTerm("w" + random.nextInt(500));
+            document.add(new DefaultTermOccurrence(term, i, 1));
+            assertEquals(expected.add(term), instance.add(term));
+        }
+        assertNull(instance.add((Term) null));
+
+        assertEquals(expected.getTermCount(), instance.getTermCount());
+        assertEquals(expected.getTerms(), instance.getTerms());
+        for (int i = 0; i < expected.getTermCount(); i++)
+        {
+            assertEquals(expected.getTerm(i), instance.getTerm(i));
+            assertEquals(expected.getIndexedTerm(i),
+                instance.getIndexedTerm(i));
+        }
+        assertTrue(instance.hasTerm(new DefaultTerm("w1")));
+        assertFalse(instance.hasTerm(new DefaultTerm("x1")));
+        assertNull(instance.getIndexedTerm(new DefaultTerm("x1")));
+        assertNull(instance.getIndexedTerm(-1));
+        assertNull(instance.getIndexedTerm(instance.getTermCount()));
+
+        // It works with the bag of words transform.
+        final Vector expectedVector =
+            new BagOfWordsTransform(expected).convertToVector(document);
+        final Vector vector =
+            new BagOfWordsTransform(instance).convertToVector(document);
+        assertEquals(expectedVector, vector);
+
+        final ConcurrentTermIndex clone = instance.clone();
+        assertNotSame(instance, clone);
+        assertEquals(instance.getTerms(), clone.getTerms());
+        clone.add(new DefaultTerm("new"));
+        assertEquals(instance.getTermCount() + 1, clone.getTermCount());
+    }
+
+    /**
+     * Test of freeze.
+     */
+    @Test
+    public void testFreeze()
+    {
+        final ConcurrentTermIndex instance = new ConcurrentTermIndex();
+        final List<String> names = new ArrayList<String>(Arrays.asList(
+            "", "a", "caf\u00e9", "\u65e5\u672c", "\ud83d\ude00", "b"));
+        for (int i = 0; i < 10000; i++)
+        {
+            names.add("term" + i);
+        }
+        for (int i = 0; i < names.size(); i++)
+        {
+            assertEquals(i, instance.getOrAddIndex(names.get(i)));
+            instance.incrementCount(i, i % 5);
+        }
+
+        final FrozenTermIndex frozen = instance.freeze();
+        assertEquals(names.size(), frozen.getTermCount());
+        assertEquals(instance.getTotalCount(), frozen.getTotalCount());
+        for (int i = 0; i < names.size(); i++)
+        {
+            final String name = names.get(i);
+            assertEquals(i, frozen.getIndex(name));
+            assertEquals(i, frozen.getIndex(new StringBuilder(name)));
+            assertEquals(name, frozen.getTermName(i));
+            assertEquals(i % 5, frozen.getCount(i));
+            assertEquals(instance.getIndexedTerm(i), frozen.getIndexedTerm(i));
+        }
+        assertEquals(-1, frozen.getIndex("term10000"));
+        assertEquals(-1, frozen.getIndex("c"));
+        assertEquals(-1, frozen.getIndex(new DefaultTerm("caf")));
+        assertTrue(frozen.getSizeInBytes() > 0);
+
+        try
+        {
+            frozen.add(new DefaultTerm("c"));
+            fail("Frozen index cannot be added to.");
+        }
+        catch (UnsupportedOperationException e)
+        {
+            // Good.
+        }
+
+        // It can also be made from other indices.
+        final DefaultTermIndex index = new DefaultTermIndex();
+        index.add(new DefaultTerm("x"));
+        index.add(new DefaultTerm("y"));
+        final FrozenTermIndex copy = new FrozenTermIndex(index);
+        assertEquals(index.getTerms(), copy.getTerms());
+        assertEquals(1, copy.getIndex("y"));
+        assertEquals(-1, copy.getIndex("z"));
+        assertEquals(-1, new FrozenTermIndex(new DefaultTermIndex()).getIndex(
+            "x"));
+    }
+
+    /**
+     * Test that a term that does not fit in its stripe leaves no index that
+     * readers would wait on.
+     */
+    @Test
+    public void testFullStripe()
+    {
+        final ConcurrentTermIndex instance = new ConcurrentTermIndex(1);
+        assertEquals(0, instance.getOrAddIndex("a"));
+
+        // Pretend the stripe's names fill it up.
+        final ConcurrentTermIndex.Stripe stripe = instance.stripes[0];
+        final int used = stripe.offsets[stripe.size];
+        stripe.offsets[stripe.size] = Integer.MAX_VALUE - 9;
+        try
+        {
+            instance.getOrAddIndex("bb");
+            fail("The stripe is full.");
+        }
+        catch (IllegalStateException e)
+        {
+            // Good.
+        }
+        stripe.offsets[stripe.size] = used;
+        assertEquals(1, instance.getTermCount());
+        assertEquals(-1, instance.getIndex("bb"));
+        assertEquals("a", instance.getTermName(0));
+        assertEquals(1, instance.getTerms().size());
+        assertEquals(1, instance.clone().getTermCount());
+        assertEquals(1, instance.freeze().getTermCount());
+
+        assertEquals(1, instance.getOrAddIndex("bb"));
+        assertEquals("bb", instance.getTermName(1));
+        assertEquals(0, instance.getIndex("a"));
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * File:                SparseTermSimilarityNetworkCreatorTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.term.relation;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.math.matrix.MatrixFactory;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import gov.sandia.cognition.text.term.DefaultTerm;
+import gov.sandia.cognition.text.term.DefaultTermIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class SparseTermSimilarityNetworkCreator.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class SparseTermSimilarityNetworkCreatorTest
+{
+
+    /**
+     * Creates a new test.
+     */
+    public SparseTermSimilarityNetworkCreatorTest()
+    {
+    }
+
+    /**
+     * Creates a term index with the given number of terms.
+     *
+     * @param   termCount
+     *      The number of terms.
+     * @return
+     *      The term index.
+     */
+    protected static DefaultTermIndex createTermIndex(
+        final int termCount)
+    {
+        final DefaultTermIndex result = new DefaultTermIndex();
+        for (int i = 0; i < termCount; i++)
+        {
+            result.add(new DefaultTerm("t" + i));
+        }
+        return result;
+    }
+
+    /**
+     * Creates random sparse documents where some terms are far more common
+     * than others.
+     *
+     * @param   random
+     *      The random number generator.
+     * @param   documentCount
+     *      The number of documents.
+     * @param   termCount
+     *      The number of terms.
+     * @return
+     *      The documents.
+     */
+    protected static List<Vector> createDocuments(
+        final Random random,
+        final int documentCount,
+        final int termCount)
+    {
+        final List<Vector> result = new ArrayList<Vector>();
+        for (int d = 0; d < documentCount; d++)
+        {
+            final Vector document =
+                VectorFactory.getSparseDefault().createVector(termCount);
+            final int length = 1 + random.nextInt(15);
+            for (int j = 0; j < length; j++)
+            {
+                final double u = random.nextDouble();
+                document.increment((int) (u * u * termCount),
+                    1 + random.nextInt(3));
+            }
+            result.add(document);
+        }
+        return result;
+    }
+
+    /**
+     * Test of constructors of class SparseTermSimilarityNetworkCreator.
+     */
+    @Test
+    public void testConstructors()
+    {
+        SparseTermSimilarityNetworkCreator instance =
+            new SparseTermSimilarityNetworkCreator();
+        assertEquals(SparseTermSimilarityNetworkCreator.DEFAULT_MAXIMUM_NEIGHBORS,
+            instance.getMaximumNeighbors());
+        assertEquals(SparseTermSimilarityNetworkCreator.DEFAULT_MINIMUM_SIMILARITY,
+            instance.getMinimumSimilarity(), 0.0);
+        assertSame(MatrixFactory.getSparseDefault(),
+            instance.getMatrixFactory());
+
+        instance = new SparseTermSimilarityNetworkCreator(5, 0.25,
+            MatrixFactory.getDefault());
+        assertEquals(5, instance.getMaximumNeighbors());
+        assertEquals(0.25, instance.getMinimumSimilarity(), 0.0);
+        assertSame(MatrixFactory.getDefault(), instance.getMatrixFactory());
+
+        try
+        {
+            instance.setMaximumNeighbors(0);
+            fail("maximumNeighbors must be positive");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+    }
+
+    /**
+     * Test of create against the dense TermVectorSimilarityNetworkCreator.
+     */
+    @Test
+    public void testCreate()
+    {
+        final int termCount = 60;
+        final DefaultTermIndex termIndex = createTermIndex(termCount);
+        final List<Vector> documents =
+            createDocuments(new Random(5), 150, termCount);
+        final MatrixBasedTermSimilarityNetwork expected =
+            new TermVectorSimilarityNetworkCreator().create(documents,
+                termIndex);
+
+        for (double minimumSimilarity : new double[] { 0.0, 0.2, 0.5 })
+        {
+            for (int maximumNeighbors : new int[] { Integer.MAX_VALUE, 3 })
+            {
+                final SparseTermSimilarityNetworkCreator instance =
+                    new SparseTermSimilarityNetworkCreator(maximumNeighbors,
+                        minimumSimilarity);
+                instance.setThreadPool(ParallelUtil.createThreadPool(3));
+                final MatrixBasedTermSimilarityNetwork result =
+                    instance.create(documents, termIndex);
+                assertSame(termIndex, result.getTermIndex());
+                assertEquals(termCount, result.getObjectCount());
+
+                for (int i = 0; i < termCount; i++)
+                {
+                    // Sort the expected neighbors from most similar.
+                    final Integer[] order = new Integer[termCount];
+                    for (int j = 0; j < termCount; j++)
+                    {
+                        order[j] = j;
+                    }
+                    final int source = i;
+                    Arrays.sort(order, Comparator.comparingDouble(
+                        (Integer j) -> -expected.getSimilarity(source, j)));
+
+                    int count = 0;
+                    for (int j : order)
+                    {
+                        final double similarity =
+                            expected.getSimilarity(i, j);
+                        final boolean neighbor = j != i && similarity > 1e-12
+                            && similarity >= minimumSimilarity
+                            && count < maximumNeighbors;
+                        if (neighbor)
+                        {
+                            count++;
+                            assertEquals(similarity,
+                                result.getSimilarity(i, j), 1e-10);
+                        }
+                        else if (Math.abs(similarity
+                            - result.getSimilarity(i, j)) > 1e-10)
+                        {
+                            // Only ties at the cut-off may differ.
+                            assertEquals(0.0, result.getSimilarity(i, j),
+                                0.0);
+                        }
+                    }
+                    assertEquals(count, countNonZeros(
+                        result.getSimilarities().getRow(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the entries of a vector that are not zero.
+     *
+     * @param   vector
+     *      The vector.
+     * @return
+     *      The number of non-zero entries.
+     */
+    protected static int countNonZeros(
+        final Vector vector)
+    {
+        int result = 0;
+        for (int i = 0; i < vector.getDimensionality(); i++)
+        {
+            if (vector.getElement(i) != 0.0)
+            {
+                result++;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,198 @@
+/*
+ * File:                GlobalTermStatisticsTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.term.vector.weighter.global;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import gov.sandia.cognition.math.matrix.mtj.Vector3;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class GlobalTermStatistics.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class GlobalTermStatisticsTest
+{
+
+    /**
+     * Creates a new test.
+     */
+    public GlobalTermStatisticsTest()
+    {
+    }
+
+    /**
+     * Creates random sparse term count vectors.
+     *
+     * @param   random
+     *      The random number generator.
+     * @param   count
+     *      The number of documents.
+     * @param   dimensionality
+     *      The number of terms.
+     * @return
+     *      The documents.
+     */
+    protected static List<Vector> createDocuments(
+        final Random random,
+        final int count,
+        final int dimensionality)
+    {
+        final List<Vector> result = new ArrayList<Vector>();
+        for (int i = 0; i < count; i++)
+        {
+            final Vector counts =
+                VectorFactory.getSparseDefault().createVector(dimensionality);
+            final int length = random.nextInt(20);
+            for (int j = 0; j < length; j++)
+            {
+                counts.increment(random.nextInt(dimensionality), 1.0);
+            }
+            result.add(counts);
+        }
+        return result;
+    }
+
+    /**
+     * Test of add, remove, and merge.
+     */
+    @Test
+    public void testAddRemoveMerge()
+    {
+        final GlobalTermStatistics instance = new GlobalTermStatistics();
+        assertEquals(0, instance.getDocumentCount());
+        assertEquals(0, instance.getDimensionality());
+        assertEquals(0.0, instance.getDocumentFrequency(5), 0.0);
+
+        instance.add(new Vector3(3.0, 0.0, 1.0));
+        instance.add(new Vector3(0.0, 2.0, 1.0));
+        assertEquals(2, instance.getDocumentCount());
+        assertEquals(3, instance.getDimensionality());
+        assertEquals(1.0, instance.getDocumentFrequency(0), 0.0);
+        assertEquals(2.0, instance.getDocumentFrequency(2), 0.0);
+        assertEquals(2.0, instance.getGlobalFrequency(1), 0.0);
+        assertEquals(2.0, instance.getGlobalFrequency(2), 0.0);
+        assertEquals(3.0 * Math.log(3.0), instance.getEntropySum(0), 0.0);
+        assertEquals(0.0, instance.getEntropySum(2), 0.0);
+
+        final GlobalTermStatistics other = new GlobalTermStatistics();
+        other.add(VectorFactory.getDefault().copyValues(
+            0.0, 0.0, 0.0, 0.0, 4.0));
+        final GlobalTermStatistics clone = instance.clone();
+        instance.merge(other);
+        assertEquals(3, instance.getDocumentCount());
+        assertEquals(5, instance.getDimensionality());
+        assertEquals(4.0, instance.getGlobalFrequency(4), 0.0);
+        assertEquals(2, clone.getDocumentCount());
+        assertEquals(3, clone.getDimensionality());
+
+        instance.remove(new Vector3(0.0, 2.0, 1.0));
+        assertEquals(2, instance.getDocumentCount());
+        assertEquals(1.0, instance.getDocumentFrequency(2), 0.0);
+        assertEquals(0.0, instance.getGlobalFrequency(1), 0.0);
+        assertEquals(0.0, instance.getEntropySum(1), 0.0);
+    }
+
+    /**
+     * Test of computing in parallel and adding to weighters.
+     */
+    @Test
+    public void testComputeAndAddToWeighters()
+    {
+        final List<Vector> documents = createDocuments(new Random(4), 500, 40);
+
+        final List<AbstractEntropyBasedGlobalTermWeighter> serial =
+            new ArrayList<AbstractEntropyBasedGlobalTermWeighter>();
+        serial.add(new EntropyGlobalTermWeighter());
+        serial.add(new DominanceGlobalTermWeighter());
+        for (AbstractEntropyBasedGlobalTermWeighter weighter : serial)
+        {
+            weighter.addAll(documents);
+        }
+        final InverseDocumentFrequencyGlobalTermWeighter serialIDF =
+            new InverseDocumentFrequencyGlobalTermWeighter();
+        serialIDF.addAll(documents);
+
+        // A null pool runs on the calling thread.
+        for (ThreadPoolExecutor threadPool : new ThreadPoolExecutor[] { null,
+            ParallelUtil.createThreadPool(1), ParallelUtil.createThreadPool(3) })
+        {
+            final GlobalTermStatistics statistics =
+                GlobalTermStatistics.compute(documents, threadPool);
+            assertEquals(documents.size(), statistics.getDocumentCount());
+            assertEquals(40, statistics.getDimensionality());
+
+            final List<AbstractEntropyBasedGlobalTermWeighter> parallel =
+                new ArrayList<AbstractEntropyBasedGlobalTermWeighter>();
+            parallel.add(new EntropyGlobalTermWeighter());
+            parallel.add(new DominanceGlobalTermWeighter());
+            for (int i = 0; i < parallel.size(); i++)
+            {
+                final AbstractEntropyBasedGlobalTermWeighter weighter =
+                    parallel.get(i);
+                final AbstractEntropyBasedGlobalTermWeighter expected =
+                    serial.get(i);
+
+                // The cached weights are dropped when statistics are added.
+                weighter.add(documents.get(0));
+                assertNotNull(weighter.getGlobalWeights());
+                weighter.remove(documents.get(0));
+                weighter.add(statistics);
+
+                assertEquals(expected.getDocumentCount(),
+                    weighter.getDocumentCount());
+                assertEquals(expected.getTermDocumentFrequencies(),
+                    weighter.getTermDocumentFrequencies());
+                assertEquals(expected.getTermGlobalFrequencies(),
+                    weighter.getTermGlobalFrequencies());
+                assertTrue(expected.getTermEntropiesSum().equals(
+                    weighter.getTermEntropiesSum(), 1e-10));
+                assertTrue(expected.getGlobalWeights().equals(
+                    weighter.getGlobalWeights(), 1e-10));
+                assertSame(weighter.getGlobalWeights(),
+                    weighter.getGlobalWeights());
+            }
+
+            final InverseDocumentFrequencyGlobalTermWeighter idf =
+                new InverseDocumentFrequencyGlobalTermWeighter();
+            idf.addAll(documents.subList(0, 200), threadPool);
+            final Vector partial = idf.getGlobalWeights();
+            idf.addAll(documents.subList(200, documents.size()), threadPool);
+            assertNotSame(partial, idf.getGlobalWeights());
+            assertEquals(serialIDF.getGlobalWeights(), idf.getGlobalWeights());
+        }
+
+        // Weighters can be merged through their statistics.
+        final EntropyGlobalTermWeighter first = new EntropyGlobalTermWeighter();
+        first.addAll(documents.subList(0, 100));
+        final EntropyGlobalTermWeighter second =
+            new EntropyGlobalTermWeighter();
+        second.addAll(documents.subList(100, documents.size()));
+        first.add(second.getStatistics());
+        assertEquals(serial.get(0).getTermDocumentFrequencies(),
+            first.getTermDocumentFrequencies());
+        assertTrue(serial.get(0).getGlobalWeights().equals(
+            first.getGlobalWeights(), 1e-10));
+    }
+
+}
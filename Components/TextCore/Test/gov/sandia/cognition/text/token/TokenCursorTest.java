@@ -0,0 +1,227 @@
+/*
+ * File:                TokenCursorTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.token;
+
+import gov.sandia.cognition.text.term.TermOccurrence;
+import gov.sandia.cognition.text.term.filter.LowerCaseTermFilter;
+import gov.sandia.cognition.text.term.filter.TermLengthFilter;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class TokenCursor.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class TokenCursorTest
+{
+
+    /**
+     * Creates a new test.
+     */
+    public TokenCursorTest()
+    {
+    }
+
+    /**
+     * Creates random text with words, numbers, punctuation, and some
+     * non-ASCII letters.
+     *
+     * @param   random
+     *      The random number generator.
+     * @param   length
+     *      The number of characters.
+     * @return
+     *      The random text.
+     */
+    protected static String randomText(
+        final Random random,
+        final int length)
+    {
+        final String characters = "abcXYZ019 .,?\n\té中-";
+        final StringBuilder result = new StringBuilder();
+        while (result.length() < length)
+        {
+            if (random.nextInt(50) == 0)
+            {
+                // A long token.
+                for (int i = 0; i < 40; i++)
+                {
+                    result.append('w');
+                }
+            }
+            result.append(characters.charAt(
+                random.nextInt(characters.length())));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Reads all of the tokens from a cursor.
+     *
+     * @param   cursor
+     *      The cursor.
+     * @return
+     *      The tokens.
+     */
+    protected static List<Token> readAll(
+        final TokenCursor cursor)
+    {
+        final List<Token> result = new ArrayList<Token>();
+        while (cursor.next())
+        {
+            result.add(cursor.toToken());
+        }
+        assertFalse(cursor.next());
+        return result;
+    }
+
+    /**
+     * Asserts the two lists of tokens are the same.
+     *
+     * @param   expected
+     *      The expected tokens.
+     * @param   actual
+     *      The actual tokens.
+     */
+    protected static void assertSameTokens(
+        final Iterable<? extends TermOccurrence> expected,
+        final Iterable<? extends TermOccurrence> actual)
+    {
+        final Iterator<? extends TermOccurrence> it = actual.iterator();
+        for (TermOccurrence token : expected)
+        {
+            assertTrue(it.hasNext());
+            final TermOccurrence other = it.next();
+            assertEquals(token.getTerm().getName(), other.getTerm().getName());
+            assertEquals(token.getStart(), other.getStart());
+            assertEquals(token.getLength(), other.getLength());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    /**
+     * Test of the cursor over the different inputs, compared to tokenize.
+     */
+    @Test
+    public void testCursor()
+    {
+        final LetterNumberTokenizer tokenizer = new LetterNumberTokenizer();
+        final Random random = new Random(4);
+        for (int i = 0; i < 20; i++)
+        {
+            final String text = randomText(random, random.nextInt(3000));
+            final Iterable<Token> expected = tokenizer.tokenize(text);
+
+            assertSameTokens(expected, readAll(tokenizer.cursor(
+                CharBuffer.wrap(text))));
+            assertSameTokens(expected, readAll(tokenizer.cursor(
+                new StringReader(text))));
+            assertSameTokens(expected, readAll(tokenizer.cursor(
+                ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)))));
+
+            // Tiny blocks make tokens span blocks and grow the buffer.
+            for (int blockSize : new int[] { 1, 3, 16 })
+            {
+                assertSameTokens(expected, readAll(new TokenCursor(tokenizer,
+                    new StringReader(text), blockSize)));
+                assertSameTokens(expected, readAll(new TokenCursor(tokenizer,
+                    ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)),
+                    blockSize)));
+            }
+        }
+
+        // The buffer is scanned from its position without changing it.
+        final CharBuffer buffer = CharBuffer.wrap("xx ab, c1");
+        buffer.position(3);
+        final TokenCursor cursor = tokenizer.cursor(buffer);
+        assertTrue(cursor.next());
+        assertEquals(0, cursor.getStart());
+        assertEquals(2, cursor.length());
+        assertEquals('b', cursor.charAt(1));
+        assertTrue(cursor.contentEquals("ab"));
+        assertFalse(cursor.contentEquals("abc"));
+        assertEquals("b", cursor.subSequence(1, 2).toString());
+        assertTrue(cursor.next());
+        assertEquals(4, cursor.getStart());
+        assertEquals("c1", cursor.toString());
+        assertFalse(cursor.next());
+        assertEquals(3, buffer.position());
+
+        try
+        {
+            new TokenCursor(tokenizer, new StringReader(""), 0);
+            fail("Block size must be positive");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+    }
+
+    /**
+     * Test of decoding characters that need two chars with tiny blocks.
+     */
+    @Test(timeout = 10000)
+    public void testSupplementaryTinyBlocks()
+    {
+        final LetterNumberTokenizer tokenizer = new LetterNumberTokenizer();
+        final String text = "\ud835\udc00\ud835\udc01 a\ud83d\ude00b "
+            + "\ud835\udc02";
+        final Iterable<Token> expected = tokenizer.tokenize(text);
+        for (int blockSize = 1; blockSize <= 4; blockSize++)
+        {
+            assertSameTokens(expected, readAll(new TokenCursor(tokenizer,
+                ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)),
+                blockSize)));
+            assertSameTokens(expected, readAll(new TokenCursor(tokenizer,
+                new StringReader(text), blockSize)));
+        }
+    }
+
+    /**
+     * Test of lazily tokenizing a CharBuffer through a filter chain.
+     */
+    @Test
+    public void testTokenizeCharBuffer()
+    {
+        final LetterNumberTokenizer tokenizer = new LetterNumberTokenizer();
+        final String text = randomText(new Random(7), 5000);
+        final Iterable<Token> lazy = tokenizer.tokenize(CharBuffer.wrap(text));
+        assertSameTokens(tokenizer.tokenize(text), lazy);
+        // It can be iterated again.
+        assertSameTokens(tokenizer.tokenize(text), lazy);
+
+        final LowerCaseTermFilter lowerCase = new LowerCaseTermFilter();
+        final TermLengthFilter length = new TermLengthFilter();
+        assertSameTokens(
+            length.filterTerms(lowerCase.filterTerms(tokenizer.tokenize(text))),
+            length.filterTerms(lowerCase.filterTerms(lazy)));
+
+        final Iterator<Token> it = tokenizer.tokenize(
+            CharBuffer.wrap("  ")).iterator();
+        assertFalse(it.hasNext());
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * File:                IncrementalLatentSemanticAnalysisTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.topic;
+
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class IncrementalLatentSemanticAnalysis.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class IncrementalLatentSemanticAnalysisTest
+{
+
+    /**
+     * Creates a new test.
+     */
+    public IncrementalLatentSemanticAnalysisTest()
+    {
+    }
+
+    /**
+     * Creates the documents of the example in "An Introduction to Latent
+     * Semantic Analysis", which is also used by LatentSemanticAnalysisTest.
+     *
+     * @return
+     *      The documents.
+     */
+    protected static List<Vector> createDocuments()
+    {
+        final double[][] data = new double[][] {
+            { 1, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0 },
+            { 0, 0, 1, 1, 1, 1, 1, 0, 1, 0, 0, 0 },
+            { 0, 1, 0, 1, 1, 0, 0, 1, 0, 0, 0, 0 },
+            { 1, 0, 0, 0, 2, 0, 0, 1, 0, 0, 0, 0 },
+            { 0, 0, 0, 1, 0, 1, 1, 0, 0, 0, 0, 0 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 0 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 1, 1 }
+        };
+
+        final List<Vector> result = new ArrayList<Vector>(data.length);
+        for (double[] d : data)
+        {
+            result.add(VectorFactory.getSparseDefault().copyArray(d));
+        }
+        return result;
+    }
+
+    /**
+     * Asserts that two transforms have the same singular values and the same
+     * term basis, up to the sign of each basis vector.
+     *
+     * @param   expected
+     *      The expected transform.
+     * @param   actual
+     *      The actual transform.
+     * @param   rank
+     *      The number of singular values to compare.
+     * @param   epsilon
+     *      The tolerance.
+     */
+    protected static void assertSameTransform(
+        final LatentSemanticAnalysis.Transform expected,
+        final LatentSemanticAnalysis.Transform actual,
+        final int rank,
+        final double epsilon)
+    {
+        assertEquals(expected.getInputDimensionality(),
+            actual.getInputDimensionality());
+        for (int i = 0; i < rank; i++)
+        {
+            assertEquals(expected.getSingularValues().getElement(i, i),
+                actual.getSingularValues().getElement(i, i), epsilon);
+            final Vector expectedVector = expected.getTermVector(i);
+            final Vector actualVector = actual.getTermVector(i);
+            assertTrue(actualVector.equals(expectedVector, epsilon)
+                || actualVector.equals(expectedVector.negative(), epsilon));
+        }
+    }
+
+    /**
+     * Test of constructors of class IncrementalLatentSemanticAnalysis.
+     */
+    @Test
+    public void testConstructors()
+    {
+        IncrementalLatentSemanticAnalysis instance =
+            new IncrementalLatentSemanticAnalysis();
+        assertEquals(IncrementalLatentSemanticAnalysis.DEFAULT_REQUESTED_RANK,
+            instance.getRequestedRank());
+        assertEquals(IncrementalLatentSemanticAnalysis.DEFAULT_BATCH_SIZE,
+            instance.getBatchSize());
+        assertEquals(IncrementalLatentSemanticAnalysis.DEFAULT_FORGETTING_FACTOR,
+            instance.getForgettingFactor(), 0.0);
+
+        instance = new IncrementalLatentSemanticAnalysis(7);
+        assertEquals(7, instance.getRequestedRank());
+
+        instance = new IncrementalLatentSemanticAnalysis(3, 11, 0.9);
+        assertEquals(3, instance.getRequestedRank());
+        assertEquals(11, instance.getBatchSize());
+        assertEquals(0.9, instance.getForgettingFactor(), 0.0);
+
+        final LatentSemanticAnalysis.Transform initial =
+            instance.createInitialLearnedObject();
+        assertEquals(0, initial.getRank());
+        assertEquals(0, initial.getInputDimensionality());
+
+        for (double bad : new double[] { 0.0, -0.5, 1.5 })
+        {
+            try
+            {
+                instance.setForgettingFactor(bad);
+                fail("forgettingFactor must be in (0, 1]");
+            }
+            catch (IllegalArgumentException e)
+            {
+                // Good.
+            }
+        }
+        try
+        {
+            instance.setBatchSize(0);
+            fail("batchSize must be positive");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+        try
+        {
+            instance.setRequestedRank(0);
+            fail("requestedRank must be positive");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+    }
+
+    /**
+     * Test of learn against the batch LatentSemanticAnalysis at full rank,
+     * where the incremental update is exact.
+     */
+    @Test
+    public void testLearnFullRank()
+    {
+        final List<Vector> documents = createDocuments();
+        final LatentSemanticAnalysis.Transform expected =
+            new LatentSemanticAnalysis(20).learn(documents);
+
+        for (int batchSize : new int[] { 1, 2, 4, 100 })
+        {
+            final IncrementalLatentSemanticAnalysis instance =
+                new IncrementalLatentSemanticAnalysis(20, batchSize, 1.0);
+            final LatentSemanticAnalysis.Transform result =
+                instance.learn(documents);
+            assertEquals(expected.getRank(), result.getRank());
+            assertSameTransform(expected, result, expected.getRank(), 1e-8);
+        }
+
+        // Updating one document at a time is the same.
+        final IncrementalLatentSemanticAnalysis instance =
+            new IncrementalLatentSemanticAnalysis(20);
+        final LatentSemanticAnalysis.Transform result =
+            instance.createInitialLearnedObject();
+        for (Vector document : documents)
+        {
+            instance.update(result, document);
+        }
+        assertSameTransform(expected, result, expected.getRank(), 1e-8);
+        assertEquals(expected.evaluate(documents.get(0)).norm2(),
+            result.evaluate(documents.get(0)).norm2(), 1e-8);
+
+        // Zero documents change nothing.
+        instance.update(result, VectorFactory.getDefault().createVector(12));
+        assertSameTransform(expected, result, expected.getRank(), 1e-8);
+    }
+
+    /**
+     * Test of learn with a truncated rank on nearly low-rank data.
+     */
+    @Test
+    public void testLearnTruncated()
+    {
+        final Random random = new Random(7);
+        final int dimensionality = 40;
+        final int topicCount = 3;
+        final double[][] topics = new double[topicCount][dimensionality];
+        for (double[] topic : topics)
+        {
+            for (int i = 0; i < dimensionality; i++)
+            {
+                topic[i] = random.nextDouble() < 0.3 ? random.nextDouble() : 0;
+            }
+        }
+
+        final List<Vector> documents = new ArrayList<Vector>();
+        for (int n = 0; n < 300; n++)
+        {
+            final Vector document =
+                VectorFactory.getDefault().createVector(dimensionality);
+            for (double[] topic : topics)
+            {
+                document.scaledPlusEquals(5.0 * random.nextDouble(),
+                    VectorFactory.getDefault().copyArray(topic));
+            }
+            for (int i = 0; i < dimensionality; i++)
+            {
+                document.increment(i, 0.01 * random.nextGaussian());
+            }
+            documents.add(document);
+        }
+
+        final LatentSemanticAnalysis.Transform expected =
+            new LatentSemanticAnalysis(5).learn(documents);
+        final LatentSemanticAnalysis.Transform result =
+            new IncrementalLatentSemanticAnalysis(5, 20, 1.0).learn(documents);
+        assertEquals(5, result.getRank());
+        assertSameTransform(expected, result, topicCount, 1e-3);
+
+        // The basis stays orthonormal.
+        for (int a = 0; a < result.getRank(); a++)
+        {
+            for (int b = 0; b < result.getRank(); b++)
+            {
+                assertEquals(a == b ? 1.0 : 0.0, result.getTermVector(a).dotProduct(
+                    result.getTermVector(b)), 1e-8);
+            }
+        }
+    }
+
+    /**
+     * Test of the forgetting factor, which equals down-weighting old batches.
+     */
+    @Test
+    public void testForgettingFactor()
+    {
+        final List<Vector> documents = createDocuments();
+        final IncrementalLatentSemanticAnalysis instance =
+            new IncrementalLatentSemanticAnalysis(20, 3, 0.5);
+        final LatentSemanticAnalysis.Transform result =
+            instance.learn(documents);
+
+        // There are three batches of three, so the first is weighted by 0.25
+        // and the second by 0.5.
+        final List<Vector> weighted = new ArrayList<Vector>();
+        for (int i = 0; i < documents.size(); i++)
+        {
+            weighted.add(documents.get(i).scale(
+                i < 3 ? 0.25 : i < 6 ? 0.5 : 1.0));
+        }
+        final LatentSemanticAnalysis.Transform expected =
+            new LatentSemanticAnalysis(20).learn(weighted);
+        assertSameTransform(expected, result, expected.getRank(), 1e-8);
+    }
+
+    /**
+     * Test of updating with documents that have new terms.
+     */
+    @Test
+    public void testUpdateNewTerms()
+    {
+        final List<Vector> documents = createDocuments();
+        final List<Vector> first = new ArrayList<Vector>();
+        final List<Vector> padded = new ArrayList<Vector>();
+        for (int i = 0; i < documents.size(); i++)
+        {
+            final Vector document = documents.get(i);
+            if (i < 5)
+            {
+                // The early documents do not have the last two terms.
+                assertEquals(0.0, document.getElement(10), 0.0);
+                assertEquals(0.0, document.getElement(11), 0.0);
+                first.add(document.subVector(0, 9));
+            }
+            padded.add(document);
+        }
+
+        final IncrementalLatentSemanticAnalysis instance =
+            new IncrementalLatentSemanticAnalysis(20, 2, 1.0);
+        final LatentSemanticAnalysis.Transform result = instance.learn(first);
+        assertEquals(10, result.getInputDimensionality());
+        instance.update(result, documents.subList(5, documents.size()));
+        assertEquals(12, result.getInputDimensionality());
+
+        final LatentSemanticAnalysis.Transform expected =
+            new LatentSemanticAnalysis(20).learn(padded);
+        assertSameTransform(expected, result, expected.getRank(), 1e-8);
+    }
+
+}
@@ -0,0 +1,354 @@
+/*
+ * File:                OnlineLatentDirichletAllocationTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.topic;
+
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class OnlineLatentDirichletAllocation.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class OnlineLatentDirichletAllocationTest
+{
+
+    /** The number of topics in the test data. */
+    protected static final int TOPIC_COUNT = 3;
+
+    /** The number of terms of each topic in the test data. */
+    protected static final int TERMS_PER_TOPIC = 10;
+
+    /**
+     * Creates a new test.
+     */
+    public OnlineLatentDirichletAllocationTest()
+    {
+    }
+
+    /**
+     * Creates a document where each term comes from the terms of its topic.
+     *
+     * @param   random
+     *      The random number generator.
+     * @param   topic
+     *      The topic of the document.
+     * @param   termCount
+     *      The number of terms.
+     * @return
+     *      The term-count vector of the document.
+     */
+    protected static Vector createDocument(
+        final Random random,
+        final int topic,
+        final int termCount)
+    {
+        final Vector result =
+            VectorFactory.getSparseDefault().createVector(termCount);
+        for (int n = 0; n < 30; n++)
+        {
+            result.increment(topic * TERMS_PER_TOPIC
+                + random.nextInt(TERMS_PER_TOPIC), 1.0);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a stream of documents that are generated as they are read, like
+     * a corpus read from disk, so they are never all in memory.
+     *
+     * @param   seed
+     *      The seed of the documents.
+     * @param   documentCount
+     *      The number of documents.
+     * @return
+     *      The stream of documents.
+     */
+    protected static Iterable<Vector> createStream(
+        final long seed,
+        final int documentCount)
+    {
+        return new Iterable<Vector>()
+        {
+            @Override
+            public Iterator<Vector> iterator()
+            {
+                final Random random = new Random(seed);
+                return new Iterator<Vector>()
+                {
+                    int index = 0;
+
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return this.index < documentCount;
+                    }
+
+                    @Override
+                    public Vector next()
+                    {
+                        this.index++;
+                        return createDocument(random,
+                            random.nextInt(TOPIC_COUNT),
+                            TOPIC_COUNT * TERMS_PER_TOPIC);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Test of constructors of class OnlineLatentDirichletAllocation.
+     */
+    @Test
+    public void testConstructors()
+    {
+        OnlineLatentDirichletAllocation instance =
+            new OnlineLatentDirichletAllocation();
+        assertEquals(OnlineLatentDirichletAllocation.DEFAULT_TOPIC_COUNT,
+            instance.getTopicCount());
+        assertEquals(OnlineLatentDirichletAllocation.DEFAULT_ALPHA,
+            instance.getAlpha(), 0.0);
+        assertEquals(OnlineLatentDirichletAllocation.DEFAULT_ETA,
+            instance.getEta(), 0.0);
+        assertEquals(OnlineLatentDirichletAllocation.DEFAULT_BATCH_SIZE,
+            instance.getBatchSize());
+        assertEquals(OnlineLatentDirichletAllocation.DEFAULT_DELAY,
+            instance.getDelay(), 0.0);
+        assertEquals(OnlineLatentDirichletAllocation.DEFAULT_FORGETTING_RATE,
+            instance.getForgettingRate(), 0.0);
+        assertEquals(0, instance.getExpectedDocumentCount());
+        assertEquals(
+            OnlineLatentDirichletAllocation.DEFAULT_MAX_DOCUMENT_ITERATIONS,
+            instance.getMaxDocumentIterations());
+        assertEquals(
+            OnlineLatentDirichletAllocation.DEFAULT_DOCUMENT_MINIMUM_CHANGE,
+            instance.getDocumentMinimumChange(), 0.0);
+        assertNotNull(instance.getRandom());
+
+        final Random random = new Random(1);
+        instance = new OnlineLatentDirichletAllocation(4, 0.5, 0.2, 16, random);
+        assertEquals(4, instance.getTopicCount());
+        assertEquals(0.5, instance.getAlpha(), 0.0);
+        assertEquals(0.2, instance.getEta(), 0.0);
+        assertEquals(16, instance.getBatchSize());
+        assertSame(random, instance.getRandom());
+
+        final OnlineLatentDirichletAllocation.Model model =
+            instance.createInitialLearnedObject();
+        assertEquals(4, model.getTopicCount());
+        assertEquals(0, model.getTermCount());
+        assertEquals(0.5, model.getAlpha(), 0.0);
+        assertEquals(0, model.getDocumentCount());
+        assertEquals(0, model.getUpdateCount());
+
+        for (double bad : new double[] { 0.0, 0.5, 1.5 })
+        {
+            try
+            {
+                instance.setForgettingRate(bad);
+                fail("forgettingRate must be in (0.5, 1]");
+            }
+            catch (IllegalArgumentException e)
+            {
+                // Good.
+            }
+        }
+        try
+        {
+            instance.setTopicCount(0);
+            fail("topicCount must be positive");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+        try
+        {
+            instance.setAlpha(0.0);
+            fail("alpha must be positive");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+        try
+        {
+            instance.setDelay(-1.0);
+            fail("delay cannot be negative");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+    }
+
+    /**
+     * Test of learning from a stream of documents.
+     */
+    @Test
+    public void testLearnStream()
+    {
+        final OnlineLatentDirichletAllocation instance =
+            new OnlineLatentDirichletAllocation(TOPIC_COUNT, 0.1, 0.01, 50,
+                new Random(42));
+        instance.setDelay(1.0);
+        instance.setExpectedDocumentCount(500);
+
+        final Iterable<Vector> stream = createStream(7, 500);
+        final OnlineLatentDirichletAllocation.Model model =
+            instance.learn(stream);
+        for (int pass = 1; pass < 4; pass++)
+        {
+            instance.update(model, stream);
+        }
+        assertEquals(2000, model.getDocumentCount());
+        assertEquals(40, model.getUpdateCount());
+        assertEquals(TOPIC_COUNT * TERMS_PER_TOPIC, model.getTermCount());
+
+        // Each topic of the data is found by a different learned topic.
+        final double[][] probabilities = model.getTopicTermProbabilities();
+        final boolean[] used = new boolean[TOPIC_COUNT];
+        final Random random = new Random(3);
+        for (int topic = 0; topic < TOPIC_COUNT; topic++)
+        {
+            int best = -1;
+            double bestMass = 0.0;
+            for (int z = 0; z < TOPIC_COUNT; z++)
+            {
+                double mass = 0.0;
+                for (int i = 0; i < TERMS_PER_TOPIC; i++)
+                {
+                    mass += probabilities[z][topic * TERMS_PER_TOPIC + i];
+                }
+                if (mass > bestMass)
+                {
+                    best = z;
+                    bestMass = mass;
+                }
+            }
+            assertTrue(bestMass > 0.95);
+            assertFalse(used[best]);
+            used[best] = true;
+
+            final Vector proportions = model.evaluate(createDocument(random,
+                topic, TOPIC_COUNT * TERMS_PER_TOPIC));
+            assertEquals(TOPIC_COUNT, proportions.getDimensionality());
+            assertEquals(1.0, proportions.norm1(), 1e-10);
+            assertTrue(proportions.getElement(best) > 0.9);
+        }
+
+        for (double[] row : probabilities)
+        {
+            double sum = 0.0;
+            for (double p : row)
+            {
+                sum += p;
+            }
+            assertEquals(1.0, sum, 1e-10);
+        }
+
+        // The clone is separate.
+        final OnlineLatentDirichletAllocation.Model clone = model.clone();
+        assertNotSame(model.getTopicTermWeights(),
+            clone.getTopicTermWeights());
+        assertArrayEquals(model.getTopicTermWeights(),
+            clone.getTopicTermWeights(), 0.0);
+    }
+
+    /**
+     * Test of learning with different numbers of threads.
+     */
+    @Test
+    public void testLearnThreads()
+    {
+        final Iterable<Vector> stream = createStream(11, 200);
+        final OnlineLatentDirichletAllocation instance =
+            new OnlineLatentDirichletAllocation(TOPIC_COUNT, 0.1, 0.01, 64,
+                new Random(5));
+        instance.setThreadPool(ParallelUtil.createThreadPool(1));
+        final OnlineLatentDirichletAllocation.Model expected =
+            instance.learn(stream);
+
+        instance.setRandom(new Random(5));
+        instance.setThreadPool(ParallelUtil.createThreadPool(3));
+        assertEquals(3, instance.getNumThreads());
+        final OnlineLatentDirichletAllocation.Model result =
+            instance.learn(stream);
+        assertEquals(expected.getUpdateCount(), result.getUpdateCount());
+        assertArrayEquals(expected.getTopicTermWeights(),
+            result.getTopicTermWeights(), 1e-8);
+    }
+
+    /**
+     * Test of updating with documents that have new terms.
+     */
+    @Test
+    public void testUpdateNewTerms()
+    {
+        final Random random = new Random(13);
+        final OnlineLatentDirichletAllocation instance =
+            new OnlineLatentDirichletAllocation(TOPIC_COUNT, 0.1, 0.01, 10,
+                new Random(17));
+        final OnlineLatentDirichletAllocation.Model model =
+            instance.createInitialLearnedObject();
+
+        final List<Vector> first = new ArrayList<Vector>();
+        for (int i = 0; i < 20; i++)
+        {
+            first.add(createDocument(random, i % 2, 2 * TERMS_PER_TOPIC));
+        }
+        instance.update(model, first);
+        assertEquals(2 * TERMS_PER_TOPIC, model.getTermCount());
+        assertEquals(2, model.getUpdateCount());
+
+        // A document from the third topic adds its terms.
+        instance.update(model,
+            createDocument(random, 2, 3 * TERMS_PER_TOPIC));
+        assertEquals(3 * TERMS_PER_TOPIC, model.getTermCount());
+        assertEquals(3, model.getUpdateCount());
+        assertEquals(21, model.getDocumentCount());
+        assertEquals(3 * TERMS_PER_TOPIC * TOPIC_COUNT,
+            model.getTopicTermWeights().length);
+        for (double weight : model.getTopicTermWeights())
+        {
+            assertTrue(weight > 0.0);
+        }
+
+        // Unknown terms are ignored when evaluating.
+        final Vector document = VectorFactory.getSparseDefault().createVector(
+            5 * TERMS_PER_TOPIC);
+        document.setElement(4 * TERMS_PER_TOPIC, 10.0);
+        final Vector proportions = model.evaluate(document);
+        assertEquals(1.0, proportions.norm1(), 1e-10);
+        for (int z = 0; z < TOPIC_COUNT; z++)
+        {
+            assertEquals(1.0 / TOPIC_COUNT, proportions.getElement(z), 1e-10);
+        }
+
+        // An empty batch does nothing.
+        instance.updateBatch(model, new ArrayList<Vector>());
+        assertEquals(3, model.getUpdateCount());
+    }
+
+}
@@ -0,0 +1,418 @@
+/*
+ * File:                ParallelSparseProbabilisticLatentSemanticAnalysisTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.topic;
+
+import gov.sandia.cognition.algorithm.IterativeAlgorithm;
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.algorithm.event.AbstractIterativeAlgorithmListener;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import gov.sandia.cognition.text.topic.ProbabilisticLatentSemanticAnalysis.Result;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class ParallelSparseProbabilisticLatentSemanticAnalysis.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class ParallelSparseProbabilisticLatentSemanticAnalysisTest
+{
+
+    /**
+     * Creates a new test.
+     */
+    public ParallelSparseProbabilisticLatentSemanticAnalysisTest()
+    {
+    }
+
+    /**
+     * Asserts that two results have the same parameters.
+     *
+     * @param   expected
+     *      The expected result.
+     * @param   actual
+     *      The actual result.
+     * @param   epsilon
+     *      The tolerance.
+     */
+    protected static void assertSameResult(
+        final Result expected,
+        final Result actual,
+        final double epsilon)
+    {
+        assertEquals(expected.getInputDimensionality(),
+            actual.getInputDimensionality());
+        assertEquals(expected.latents.length, actual.latents.length);
+        for (int i = 0; i < expected.latents.length; i++)
+        {
+            assertEquals(expected.latents[i].pLatent,
+                actual.latents[i].pLatent, epsilon);
+            assertTrue(expected.latents[i].pTermGivenLatent.equals(
+                actual.latents[i].pTermGivenLatent, epsilon));
+            assertTrue(expected.latents[i].pDocumentGivenLatent.equals(
+                actual.latents[i].pDocumentGivenLatent, epsilon));
+        }
+    }
+
+    /**
+     * Asserts that the parameters of a result are probabilities.
+     *
+     * @param   result
+     *      The result.
+     */
+    protected static void assertNormalized(
+        final Result result)
+    {
+        double sum = 0.0;
+        for (ProbabilisticLatentSemanticAnalysis.LatentData latent
+            : result.latents)
+        {
+            sum += latent.pLatent;
+            assertEquals(1.0, latent.pTermGivenLatent.norm1(), 1e-10);
+            assertEquals(1.0, latent.pDocumentGivenLatent.norm1(), 1e-10);
+        }
+        assertEquals(1.0, sum, 1e-10);
+    }
+
+    /**
+     * Creates random sparse documents from a few topics.
+     *
+     * @param   random
+     *      The random number generator.
+     * @param   documentCount
+     *      The number of documents.
+     * @param   termCount
+     *      The number of terms.
+     * @return
+     *      The documents.
+     */
+    protected static List<Vector> createDocuments(
+        final Random random,
+        final int documentCount,
+        final int termCount)
+    {
+        final List<Vector> result = new ArrayList<Vector>(documentCount);
+        for (int d = 0; d < documentCount; d++)
+        {
+            final Vector document =
+                VectorFactory.getSparseDefault().createVector(termCount);
+            final int topic = random.nextInt(3);
+            for (int n = 0; n < 20; n++)
+            {
+                // Most words come from the terms of the topic.
+                final int term = random.nextDouble() < 0.8
+                    ? topic * termCount / 3 + random.nextInt(termCount / 3)
+                    : random.nextInt(termCount);
+                document.increment(term, 1.0);
+            }
+            result.add(document);
+        }
+        return result;
+    }
+
+    /**
+     * Test of constructors of class
+     * ParallelSparseProbabilisticLatentSemanticAnalysis.
+     */
+    @Test
+    public void testConstructors()
+    {
+        ParallelSparseProbabilisticLatentSemanticAnalysis instance =
+            new ParallelSparseProbabilisticLatentSemanticAnalysis();
+        assertEquals(
+            ParallelSparseProbabilisticLatentSemanticAnalysis.DEFAULT_REQUESTED_RANK,
+            instance.getRequestedRank());
+        assertEquals(
+            ParallelSparseProbabilisticLatentSemanticAnalysis.DEFAULT_MINIMUM_CHANGE,
+            instance.getMinimumChange(), 0.0);
+        assertEquals(
+            ParallelSparseProbabilisticLatentSemanticAnalysis.DEFAULT_INVERSE_TEMPERATURE,
+            instance.getInverseTemperature(), 0.0);
+        assertEquals(
+            ParallelSparseProbabilisticLatentSemanticAnalysis.DEFAULT_MAX_ITERATIONS,
+            instance.getMaxIterations());
+        assertNotNull(instance.getRandom());
+        assertNull(instance.getInitialCheckpoint());
+
+        final Random random = new Random(1);
+        instance = new ParallelSparseProbabilisticLatentSemanticAnalysis(
+            4, 0.1, 0.8, random);
+        assertEquals(4, instance.getRequestedRank());
+        assertEquals(0.1, instance.getMinimumChange(), 0.0);
+        assertEquals(0.8, instance.getInverseTemperature(), 0.0);
+        assertSame(random, instance.getRandom());
+
+        for (double bad : new double[] { 0.0, -0.5, 1.5 })
+        {
+            try
+            {
+                instance.setInverseTemperature(bad);
+                fail("inverseTemperature must be in (0, 1]");
+            }
+            catch (IllegalArgumentException e)
+            {
+                // Good.
+            }
+        }
+        try
+        {
+            instance.setRequestedRank(0);
+            fail("requestedRank must be positive");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+
+        assertNull(instance.learn(new ArrayList<Vector>()));
+    }
+
+    /**
+     * Test of learn against ProbabilisticLatentSemanticAnalysis, which starts
+     * from the same parameters given the same seed.
+     */
+    @Test
+    public void testLearnMatchesDense()
+    {
+        final List<Vector> documents =
+            createDocuments(new Random(4), 30, 24);
+
+        final ProbabilisticLatentSemanticAnalysis dense =
+            new ProbabilisticLatentSemanticAnalysis(3, 0.0, new Random(211));
+        dense.setMaxIterations(25);
+        final Result expected = dense.learn(documents);
+
+        final ParallelSparseProbabilisticLatentSemanticAnalysis instance =
+            new ParallelSparseProbabilisticLatentSemanticAnalysis(
+                3, 0.0, 1.0, new Random(211));
+        instance.setMaxIterations(25);
+        final List<Double> logLikelihoods = new ArrayList<Double>();
+        instance.addIterativeAlgorithmListener(
+            new AbstractIterativeAlgorithmListener()
+            {
+                @Override
+                public void stepEnded(
+                    final IterativeAlgorithm algorithm)
+                {
+                    logLikelihoods.add(instance.getLogLikelihood());
+                }
+            });
+        final Result result = instance.learn(documents);
+
+        assertEquals(25, instance.getIteration());
+        assertSameResult(expected, result, 1e-10);
+        assertNormalized(result);
+        assertEquals(instance.getLogLikelihood(),
+            logLikelihoods.get(logLikelihoods.size() - 1), 0.0);
+
+        // Standard EM never decreases the log-likelihood.
+        for (int i = 1; i < logLikelihoods.size(); i++)
+        {
+            assertTrue(logLikelihoods.get(i) >= logLikelihoods.get(i - 1) - 1e-8);
+        }
+
+        final Vector expectedOutput = expected.evaluate(documents.get(0));
+        final Vector output = result.evaluate(documents.get(0));
+        assertEquals(3, output.getDimensionality());
+        assertTrue(expectedOutput.equals(output, 1e-8));
+    }
+
+    /**
+     * Test that the result is only created when it is asked for, not on every
+     * step.
+     */
+    @Test
+    public void testResultCreatedOnDemand()
+    {
+        final List<Vector> documents =
+            createDocuments(new Random(6), 40, 30);
+        final int[] created = { 0 };
+        final ParallelSparseProbabilisticLatentSemanticAnalysis instance =
+            new ParallelSparseProbabilisticLatentSemanticAnalysis(
+                3, 0.0, 1.0, new Random(5))
+            {
+                @Override
+                protected Result createResult()
+                {
+                    created[0]++;
+                    return super.createResult();
+                }
+            };
+        instance.setMaxIterations(15);
+        assertNull(instance.getResult());
+        Result result = instance.learn(documents);
+        assertEquals(15, instance.getIteration());
+        assertEquals(1, created[0]);
+        assertSame(result, instance.getResult());
+        assertNormalized(result);
+
+        // Asking for the result during learning gives the current parameters
+        // and creates it once per step.
+        final List<Result> results = new ArrayList<Result>();
+        instance.addIterativeAlgorithmListener(
+            new AbstractIterativeAlgorithmListener()
+            {
+                @Override
+                public void stepEnded(
+                    final IterativeAlgorithm algorithm)
+                {
+                    final Result current = instance.getResult();
+                    assertSame(current, instance.getResult());
+                    assertEquals(3, current.latentCount);
+                    results.add(current);
+                }
+            });
+        created[0] = 0;
+        instance.setRandom(new Random(5));
+        result = instance.learn(documents);
+        assertEquals(15, created[0]);
+        assertSame(results.get(results.size() - 1), result);
+        assertNormalized(result);
+    }
+
+    /**
+     * Test of learn with different numbers of threads.
+     */
+    @Test
+    public void testLearnThreads()
+    {
+        final List<Vector> documents =
+            createDocuments(new Random(8), 100, 60);
+        final ParallelSparseProbabilisticLatentSemanticAnalysis instance =
+            new ParallelSparseProbabilisticLatentSemanticAnalysis(
+                4, 0.0, 1.0, new Random(3));
+        instance.setMaxIterations(20);
+        instance.setThreadPool(ParallelUtil.createThreadPool(1));
+        final Result expected = instance.learn(documents);
+
+        instance.setRandom(new Random(3));
+        instance.setThreadPool(ParallelUtil.createThreadPool(3));
+        assertEquals(3, instance.getNumThreads());
+        final Result result = instance.learn(documents);
+        assertSameResult(expected, result, 1e-10);
+        assertNormalized(result);
+    }
+
+    /**
+     * Test of learn with tempered EM.
+     */
+    @Test
+    public void testLearnTempered()
+    {
+        final List<Vector> documents =
+            createDocuments(new Random(5), 60, 30);
+        final ParallelSparseProbabilisticLatentSemanticAnalysis standard =
+            new ParallelSparseProbabilisticLatentSemanticAnalysis(
+                3, 1e-6, 1.0, new Random(9));
+        final Result standardResult = standard.learn(documents);
+
+        final ParallelSparseProbabilisticLatentSemanticAnalysis instance =
+            new ParallelSparseProbabilisticLatentSemanticAnalysis(
+                3, 1e-6, 0.7, new Random(9));
+        final Result result = instance.learn(documents);
+        assertNormalized(result);
+
+        // Tempering gives a smoother model, which fits the training data
+        // less closely.
+        assertTrue(instance.getLogLikelihood() < standard.getLogLikelihood());
+        double standardEntropy = 0.0;
+        double entropy = 0.0;
+        for (int i = 0; i < 3; i++)
+        {
+            for (int w = 0; w < 30; w++)
+            {
+                final double p =
+                    standardResult.latents[i].pTermGivenLatent.getElement(w);
+                final double q = result.latents[i].pTermGivenLatent.getElement(w);
+                standardEntropy -= p > 0.0 ? p * Math.log(p) : 0.0;
+                entropy -= q > 0.0 ? q * Math.log(q) : 0.0;
+            }
+        }
+        assertTrue(entropy > standardEntropy);
+    }
+
+    /**
+     * Test of resuming from a checkpoint written by a CheckpointWriter.
+     *
+     * @throws  Exception
+     *      If there is an error.
+     */
+    @Test
+    public void testCheckpoint()
+        throws Exception
+    {
+        final List<Vector> documents =
+            createDocuments(new Random(6), 40, 30);
+        final ParallelSparseProbabilisticLatentSemanticAnalysis full =
+            new ParallelSparseProbabilisticLatentSemanticAnalysis(
+                3, 0.0, 1.0, new Random(12));
+        full.setMaxIterations(30);
+        final Result expected = full.learn(documents);
+        assertNull(full.createCheckpoint());
+
+        final File file = File.createTempFile("plsa", ".checkpoint");
+        file.deleteOnExit();
+        final ParallelSparseProbabilisticLatentSemanticAnalysis.CheckpointWriter writer =
+            new ParallelSparseProbabilisticLatentSemanticAnalysis.CheckpointWriter(
+                file, 4);
+        assertSame(file, writer.getFile());
+        assertEquals(4, writer.getInterval());
+
+        final ParallelSparseProbabilisticLatentSemanticAnalysis first =
+            new ParallelSparseProbabilisticLatentSemanticAnalysis(
+                3, 0.0, 1.0, new Random(12));
+        first.setMaxIterations(18);
+        first.addIterativeAlgorithmListener(writer);
+        first.learn(documents);
+
+        // The last checkpoint is written when the algorithm ends.
+        final ParallelSparseProbabilisticLatentSemanticAnalysis.Checkpoint checkpoint =
+            ParallelSparseProbabilisticLatentSemanticAnalysis.CheckpointWriter.read(
+                file);
+        assertEquals(18, checkpoint.getIteration());
+        assertEquals(40, checkpoint.getDocumentCount());
+        assertEquals(30, checkpoint.getTermCount());
+        assertEquals(3, checkpoint.getLatentCount());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        final ParallelSparseProbabilisticLatentSemanticAnalysis resumed =
+            new ParallelSparseProbabilisticLatentSemanticAnalysis(
+                3, 0.0, 1.0, new Random(99));
+        resumed.setInitialCheckpoint(checkpoint.clone());
+        resumed.setMaxIterations(12);
+        final Result result = resumed.learn(documents);
+        assertSameResult(expected, result, 1e-12);
+        assertEquals(full.getLogLikelihood(), resumed.getLogLikelihood(), 1e-8);
+
+        // A checkpoint must match the size of the data.
+        resumed.setInitialCheckpoint(checkpoint);
+        try
+        {
+            resumed.learn(documents.subList(0, 10));
+            fail("The checkpoint is for different data");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Good.
+        }
+    }
+
+}
@@ -0,0 +1,403 @@
+/*
+ * File:                SparseLatentDirichletAllocationVectorGibbsSamplerTest.java
+ * Authors:             Justin Basilico
+ * Company:             Sandia National Laboratories
+ * Project:             Cognitive Foundry
+ *
+ * Copyright October 19, 2026, Sandia Corporation.
+ * Under the terms of Contract DE-AC04-94AL85000, there is a non-exclusive
+ * license for use of this work by or on behalf of the U.S. Government. Export
+ * of this program may require a license from the United States Government.
+ * See CopyrightHistory.txt for complete details.
+ *
+ */
+
+package gov.sandia.cognition.text.topic;
+
+import gov.sandia.cognition.algorithm.IterativeAlgorithm;
+import gov.sandia.cognition.algorithm.IterativeAlgorithmListener;
+import gov.sandia.cognition.algorithm.ParallelUtil;
+import gov.sandia.cognition.math.matrix.Vector;
+import gov.sandia.cognition.math.matrix.VectorFactory;
+import gov.sandia.cognition.util.NamedValue;
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.Test;
+import static gov.sandia.cognition.math.ProbabilityUtil.*;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class SparseLatentDirichletAllocationVectorGibbsSampler.
+ *
+ * @author  Justin Basilico
+ * @since   4.0.0
+ */
+public class SparseLatentDirichletAllocationVectorGibbsSamplerTest
+{
+
+    protected Random random = new Random(211);
+
+    /**
+     * Creates a new test.
+     */
+    public SparseLatentDirichletAllocationVectorGibbsSamplerTest()
+    {
+    }
+
+    /**
+     * Test of constructors of class SparseLatentDirichletAllocationVectorGibbsSampler.
+     */
+    @Test
+    public void testConstructors()
+    {
+        int topicCount = SparseLatentDirichletAllocationVectorGibbsSampler.DEFAULT_TOPIC_COUNT;
+        double alpha = SparseLatentDirichletAllocationVectorGibbsSampler.DEFAULT_ALPHA;
+        double beta = SparseLatentDirichletAllocationVectorGibbsSampler.DEFAULT_BETA;
+        int maxIterations = SparseLatentDirichletAllocationVectorGibbsSampler.DEFAULT_MAX_ITERATIONS;
+        int burnInIterations = SparseLatentDirichletAllocationVectorGibbsSampler.DEFAULT_BURN_IN_ITERATIONS;
+        int iterationsPerSample = SparseLatentDirichletAllocationVectorGibbsSampler.DEFAULT_ITERATIONS_PER_SAMPLE;
+
+        SparseLatentDirichletAllocationVectorGibbsSampler instance =
+            new SparseLatentDirichletAllocationVectorGibbsSampler();
+        assertEquals(topicCount, instance.getTopicCount());
+        assertEquals(alpha, instance.getAlpha(), 0.0);
+        assertEquals(beta, instance.getBeta(), 0.0);
+        assertEquals(maxIterations, instance.getMaxIterations());
+        assertEquals(burnInIterations, instance.getBurnInIterations());
+        assertEquals(iterationsPerSample, instance.getIterationsPerSample());
+        assertNotNull(instance.getRandom());
+
+        topicCount = 1 + random.nextInt(100);
+        alpha = random.nextDouble() * 10.0;
+        beta = random.nextDouble() * 10.0;
+        maxIterations = 1 + random.nextInt(100000);
+        burnInIterations = random.nextInt(1000);
+        iterationsPerSample = 1 + random.nextInt(100);
+        instance = new SparseLatentDirichletAllocationVectorGibbsSampler(
+            topicCount, alpha, beta, maxIterations, burnInIterations,
+            iterationsPerSample, random);
+        assertEquals(topicCount, instance.getTopicCount());
+        assertEquals(alpha, instance.getAlpha(), 0.0);
+        assertEquals(beta, instance.getBeta(), 0.0);
+        assertEquals(maxIterations, instance.getMaxIterations());
+        assertEquals(burnInIterations, instance.getBurnInIterations());
+        assertEquals(iterationsPerSample, instance.getIterationsPerSample());
+        assertSame(random, instance.getRandom());
+    }
+
+    /**
+     * Test of learn method, of class SparseLatentDirichletAllocationVectorGibbsSampler.
+     */
+    @Test
+    public void testLearn()
+    {
+        final VectorFactory<?> factory = VectorFactory.getSparseDefault();
+        final ArrayList<Vector> data = new ArrayList<Vector>();
+
+        data.add(factory.copyValues(0, 0, 4, 2, 5, 6, 0, 3, 0));
+        data.add(factory.copyValues(0, 0, 0, 8, 0, 3, 0, 0, 0));
+        data.add(factory.copyValues(4, 0, 6, 0, 0, 0, 3, 5, 0));
+        data.add(factory.copyValues(1, 0, 0, 3, 2, 0, 3, 8, 0));
+        data.add(factory.copyValues(3, 0, 5, 3, 0, 5, 6, 0, 0));
+        data.add(factory.copyValues(0, 0, 0, 1, 3, 3, 3, 2, 0));
+
+        int termCount = 9;
+
+        int topicCount = 3;
+        SparseLatentDirichletAllocationVectorGibbsSampler instance =
+            new SparseLatentDirichletAllocationVectorGibbsSampler(
+                topicCount, 2.0, 0.5, 50, 20, 10, random);
+        assertNull(instance.learn(null));
+        assertNull(instance.learn(new ArrayList<Vector>()));
+
+        SparseLatentDirichletAllocationVectorGibbsSampler.Result result =
+            instance.learn(data);
+
+        assertEquals(topicCount, result.getTopicCount());
+        assertEquals(topicCount, result.topicTermProbabilities.length);
+        assertEquals(data.size(), result.getDocumentCount());
+        assertEquals(data.size(), result.documentTopicProbabilities.length);
+        assertEquals(termCount, result.getTermCount());
+
+        for (int i = 0; i < topicCount; i++)
+        {
+            assertEquals(termCount, result.topicTermProbabilities[i].length);
+            double sum = 0.0;
+            for (int j = 0; j < termCount; j++)
+            {
+                assertIsProbability(result.topicTermProbabilities[i][j]);
+                sum += result.topicTermProbabilities[i][j];
+            }
+            assertEquals(1.0, sum, 1e-10);
+        }
+
+        for (int i = 0; i < data.size(); i++)
+        {
+            assertEquals(topicCount, result.documentTopicProbabilities[i].length);
+            double sum = 0.0;
+            for (int j = 0; j < topicCount; j++)
+            {
+                assertIsProbability(result.documentTopicProbabilities[i][j]);
+                sum += result.documentTopicProbabilities[i][j];
+            }
+            assertEquals(1.0, sum, 1e-10);
+        }
+
+        assertTrue(instance.getTokensPerSecond() > 0.0);
+    }
+
+    /**
+     * Test of learn method, of class SparseLatentDirichletAllocationVectorGibbsSampler.
+     */
+    @Test
+    public void testLearnSmallTermCount()
+    {
+        final VectorFactory<?> factory = VectorFactory.getSparseDefault();
+        final ArrayList<Vector> data = new ArrayList<Vector>();
+
+        data.add(factory.copyValues(1, 0));
+        data.add(factory.copyValues(1, 0));
+        data.add(factory.copyValues(0, 1));
+        data.add(factory.copyValues(0, 1));
+        data.add(factory.copyValues(1, 1));
+        data.add(factory.copyValues(1, 1));
+
+        int termCount = 2;
+
+        int topicCount = 3;
+        SparseLatentDirichletAllocationVectorGibbsSampler instance =
+            new SparseLatentDirichletAllocationVectorGibbsSampler(
+                topicCount, 2.0, 0.5, 50, 20, 10, random);
+
+        SparseLatentDirichletAllocationVectorGibbsSampler.Result result =
+            instance.learn(data);
+
+        assertEquals(topicCount, result.getTopicCount());
+        assertEquals(data.size(), result.getDocumentCount());
+        assertEquals(termCount, result.getTermCount());
+
+        for (int i = 0; i < topicCount; i++)
+        {
+            for (int j = 0; j < termCount; j++)
+            {
+                assertIsProbability(result.topicTermProbabilities[i][j]);
+            }
+        }
+
+        for (int i = 0; i < data.size(); i++)
+        {
+            for (int j = 0; j < topicCount; j++)
+            {
+                assertIsProbability(result.documentTopicProbabilities[i][j]);
+            }
+        }
+    }
+
+    /**
+     * Tests that the sampler separates documents drawn from two topics with
+     * disjoint vocabularies.
+     */
+    @Test
+    public void testLearnSeparatesTopics()
+    {
+        final int termCount = 20;
+        final int documentCount = 40;
+        final ArrayList<Vector> data = new ArrayList<Vector>();
+        for (int i = 0; i < documentCount; i++)
+        {
+            final Vector document =
+                VectorFactory.getSparseDefault().createVector(termCount);
+            final int offset = (i % 2) * (termCount / 2);
+            for (int j = 0; j < 30; j++)
+            {
+                final int term = offset + random.nextInt(termCount / 2);
+                document.increment(term, 1.0);
+            }
+            data.add(document);
+        }
+
+        SparseLatentDirichletAllocationVectorGibbsSampler instance =
+            new SparseLatentDirichletAllocationVectorGibbsSampler(
+                2, 0.1, 0.1, 200, 100, 10, random);
+        instance.setThreadPool(null);
+        SparseLatentDirichletAllocationVectorGibbsSampler.Result result =
+            instance.learn(data);
+
+        final int evenTopic =
+            result.documentTopicProbabilities[0][0] > 0.5 ? 0 : 1;
+        for (int i = 0; i < documentCount; i++)
+        {
+            final int expected = (i % 2 == 0) ? evenTopic : 1 - evenTopic;
+            assertTrue(result.documentTopicProbabilities[i][expected] > 0.9);
+        }
+    }
+
+    /**
+     * Tests that after each step the topic-term counts, the topic totals, and
+     * the sparse topic lists of the terms agree exactly with the topic
+     * assignments of the term occurrences, when several blocks are sampled
+     * in parallel.
+     */
+    @Test
+    public void testStepKeepsCountsConsistent()
+    {
+        final int termCount = 30;
+        final int documentCount = 60;
+        final ArrayList<Vector> data = new ArrayList<Vector>();
+        for (int i = 0; i < documentCount; i++)
+        {
+            final Vector document =
+                VectorFactory.getSparseDefault().createVector(termCount);
+            for (int j = 0; j < 40; j++)
+            {
+                document.increment(random.nextInt(termCount), 1.0);
+            }
+            data.add(document);
+        }
+
+        final int topicCount = 8;
+        final SparseLatentDirichletAllocationVectorGibbsSampler instance =
+            new SparseLatentDirichletAllocationVectorGibbsSampler(
+                topicCount, 0.5, 0.1, 20, 10, 5, random);
+        instance.setThreadPool(ParallelUtil.createThreadPool(4));
+        final int[] steps = { 0 };
+        instance.addIterativeAlgorithmListener(new IterativeAlgorithmListener()
+        {
+            @Override
+            public void algorithmStarted(
+                final IterativeAlgorithm algorithm)
+            {
+                assertEquals(4, instance.blockTasks.size());
+            }
+
+            @Override
+            public void algorithmEnded(
+                final IterativeAlgorithm algorithm)
+            {
+            }
+
+            @Override
+            public void stepStarted(
+                final IterativeAlgorithm algorithm)
+            {
+            }
+
+            @Override
+            public void stepEnded(
+                final IterativeAlgorithm algorithm)
+            {
+                steps[0]++;
+                final int[][] topicTermCount = new int[topicCount][termCount];
+                final int[] topicTermSum = new int[topicCount];
+                final int[][] documentTopicCount =
+                    new int[documentCount][topicCount];
+                for (int document = 0; document < documentCount; document++)
+                {
+                    int occurrence =
+                        instance.documentOccurrenceStarts[document];
+                    for (int docTermIndex =
+                            instance.documentTermStarts[document];
+                        docTermIndex < instance.documentTermStarts[document + 1];
+                        docTermIndex++)
+                    {
+                        final int term = instance.documentTerms[docTermIndex];
+                        for (int i = 0;
+                            i < instance.documentTermCounts[docTermIndex]; i++)
+                        {
+                            final int topic =
+                                instance.occurrenceTopicAssignments[occurrence];
+                            topicTermCount[topic][term]++;
+                            topicTermSum[topic]++;
+                            documentTopicCount[document][topic]++;
+                            occurrence++;
+                        }
+                    }
+                    assertEquals(instance.documentOccurrenceStarts[document + 1],
+                        occurrence);
+                    assertArrayEquals(documentTopicCount[document],
+                        instance.documentTopicCount[document]);
+                }
+
+                assertArrayEquals(topicTermSum, instance.topicTermSum);
+                for (int topic = 0; topic < topicCount; topic++)
+                {
+                    assertArrayEquals(topicTermCount[topic],
+                        instance.topicTermCount[topic]);
+                }
+                for (int term = 0; term < termCount; term++)
+                {
+                    final boolean[] listed = new boolean[topicCount];
+                    for (int i = 0; i < instance.termTopicSizes[term]; i++)
+                    {
+                        final int topic = instance.termTopics[term][i];
+                        assertFalse(listed[topic]);
+                        listed[topic] = true;
+                    }
+                    for (int topic = 0; topic < topicCount; topic++)
+                    {
+                        assertEquals(topicTermCount[topic][term] > 0,
+                            listed[topic]);
+                    }
+                }
+                for (SparseLatentDirichletAllocationVectorGibbsSampler.DocumentBlockTask task
+                    : instance.blockTasks)
+                {
+                    assertEquals(0, task.changedTermCount);
+                    for (int delta : task.termDeltas)
+                    {
+                        assertEquals(0, delta);
+                    }
+                }
+            }
+        });
+        instance.learn(data);
+        assertEquals(20, steps[0]);
+    }
+
+    /**
+     * Test of setTopicCount method, of class SparseLatentDirichletAllocationVectorGibbsSampler.
+     */
+    @Test
+    public void testSetTopicCount()
+    {
+        SparseLatentDirichletAllocationVectorGibbsSampler instance =
+            new SparseLatentDirichletAllocationVectorGibbsSampler();
+        int topicCount = SparseLatentDirichletAllocationVectorGibbsSampler.MAX_TOPIC_COUNT;
+        instance.setTopicCount(topicCount);
+        assertEquals(topicCount, instance.getTopicCount());
+
+        int[] badValues = {0, -1, topicCount + 1};
+        for (int badValue : badValues)
+        {
+            boolean exceptionThrown = false;
+            try
+            {
+                instance.setTopicCount(badValue);
+            }
+            catch (IllegalArgumentException e)
+            {
+                exceptionThrown = true;
+            }
+            finally
+            {
+                assertTrue(exceptionThrown);
+            }
+            assertEquals(topicCount, instance.getTopicCount());
+        }
+    }
+
+    /**
+     * Test of getPerformance method, of class SparseLatentDirichletAllocationVectorGibbsSampler.
+     */
+    @Test
+    public void testGetPerformance()
+    {
+        SparseLatentDirichletAllocationVectorGibbsSampler instance =
+            new SparseLatentDirichletAllocationVectorGibbsSampler();
+        NamedValue<Double> performance = instance.getPerformance();
+        assertEquals(SparseLatentDirichletAllocationVectorGibbsSampler.PERFORMANCE_NAME,
+            performance.getName());
+        assertEquals(0.0, performance.getValue(), 0.0);
+    }
+
+}